@@ -0,0 +1,85 @@
+package apps.sarafrika.elimika.course.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one recommendation query against catalogues of 10k and 100k published courses, each in
+ * three of 200 categories and one of four difficulty levels, for a profile of three categories and
+ * one level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CourseRecommendationIndexBenchmark {
+
+    private static final int CATEGORIES = 200;
+    private static final int CATEGORIES_PER_COURSE = 3;
+    private static final int DIFFICULTIES = 4;
+    private static final int LIMIT = 6;
+
+    @Param({"10000", "100000"})
+    public int courses;
+
+    private CourseRecommendationIndex index;
+    private Set<UUID> profileCategories;
+    private Set<UUID> profileDifficulties;
+    private Set<UUID> pastCourses;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        UUID[] categories = randomUuids(CATEGORIES);
+        UUID[] difficulties = randomUuids(DIFFICULTIES);
+        LocalDateTime now = LocalDateTime.of(2026, 10, 17, 12, 0);
+
+        index = new CourseRecommendationIndex();
+        List<UUID> courseUuids = new ArrayList<>(courses);
+        for (int i = 0; i < courses; i++) {
+            List<UUID> courseCategories = new ArrayList<>(CATEGORIES_PER_COURSE);
+            for (int c = 0; c < CATEGORIES_PER_COURSE; c++) {
+                courseCategories.add(categories[random.nextInt(CATEGORIES)]);
+            }
+            UUID courseUuid = UUID.randomUUID();
+            courseUuids.add(courseUuid);
+            index.put(courseUuid, courseCategories, difficulties[random.nextInt(DIFFICULTIES)],
+                    now.minusMinutes(random.nextInt(1_000_000)));
+        }
+
+        profileCategories = Set.of(categories[1], categories[7], categories[42]);
+        profileDifficulties = Set.of(difficulties[0]);
+        pastCourses = Set.of(courseUuids.get(0), courseUuids.get(1), courseUuids.get(2));
+    }
+
+    @Benchmark
+    public List<CourseRecommendationIndex.Match> topMatches() {
+        return index.topMatches(profileCategories, profileDifficulties, pastCourses, LIMIT);
+    }
+
+    @Benchmark
+    public List<CourseRecommendationIndex.Match> newest() {
+        return index.newest(pastCourses, LIMIT);
+    }
+
+    private static UUID[] randomUuids(int count) {
+        UUID[] uuids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            uuids[i] = UUID.randomUUID();
+        }
+        return uuids;
+    }
+}
@@ -0,0 +1,52 @@
+package apps.sarafrika.elimika.shared;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+
+/**
+ * A PostgreSQL container with the application's migrations applied, for benchmarks that measure
+ * queries rather than in-memory structures. The same image the integration tests use, behind a
+ * connection pool sized for the benchmark's threads that rewrites batched INSERTs into multi-row
+ * statements, as the application's pool does.
+ */
+public final class BenchmarkPostgres implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> container;
+    private final HikariDataSource dataSource;
+
+    private BenchmarkPostgres(PostgreSQLContainer<?> container, HikariDataSource dataSource) {
+        this.container = container;
+        this.dataSource = dataSource;
+    }
+
+    public static BenchmarkPostgres start(int poolSize) {
+        PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:16-alpine");
+        container.start();
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(container.getJdbcUrl());
+        dataSource.setUsername(container.getUsername());
+        dataSource.setPassword(container.getPassword());
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+        Flyway.configure().dataSource(dataSource).outOfOrder(true).load().migrate();
+        return new BenchmarkPostgres(container, dataSource);
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+        container.stop();
+    }
+}
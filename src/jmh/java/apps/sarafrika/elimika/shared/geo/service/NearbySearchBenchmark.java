@@ -0,0 +1,110 @@
+package apps.sarafrika.elimika.shared.geo.service;
+
+import apps.sarafrika.elimika.shared.BenchmarkPostgres;
+import apps.sarafrika.elimika.shared.geo.dto.NearbyHitDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a 10 km radius search and a 10-nearest search over 100k points spread across Kenya, the
+ * density a national catalogue would have, against a scan computing the distance to every row. The
+ * query points cycle through a fixed random sample of the same area.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NearbySearchBenchmark {
+
+    private static final int QUERY_POINTS = 256;
+    private static final double RADIUS_METERS = 10_000;
+    private static final int RADIUS_LIMIT = 200;
+    private static final int NEAREST = 10;
+
+    private static final String BRUTE_FORCE_SQL = """
+            SELECT content_uuid
+            FROM (SELECT content_uuid,
+                         2 * 6371008.8 * asin(least(1, sqrt(power(sin(radians(latitude - ?) / 2), 2)
+                             + cos(radians(?)) * cos(radians(latitude)) * power(sin(radians(longitude - ?) / 2), 2))))
+                             AS distance_meters
+                  FROM nearby_locations
+                  WHERE ends_at IS NULL OR ends_at > CURRENT_TIMESTAMP) n
+            WHERE distance_meters <= ?
+            ORDER BY distance_meters, content_uuid
+            LIMIT ?
+            """;
+
+    @Param({"100000"})
+    public int points;
+
+    private BenchmarkPostgres database;
+    private JdbcTemplate jdbc;
+    private NearbySearchService searchService;
+    private double[] latitudes;
+    private double[] longitudes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        database = BenchmarkPostgres.start(2);
+        jdbc = database.jdbcTemplate();
+        jdbc.update("""
+                INSERT INTO nearby_locations (content_type, content_uuid, title, latitude, longitude)
+                SELECT (ARRAY['CLASS_DEFINITION', 'MARKETPLACE_JOB', 'ORGANISATION', 'TRAINING_BRANCH', 'INSTRUCTOR'])[1 + n % 5],
+                       gen_random_uuid(), 'Point ' || n, -4.7 + random() * 9.7, 34.0 + random() * 8.0
+                FROM generate_series(1, ?) AS n
+                """, points);
+        jdbc.execute("ANALYZE nearby_locations");
+        searchService = new NearbySearchService(jdbc);
+
+        Random random = new Random(23);
+        latitudes = new double[QUERY_POINTS];
+        longitudes = new double[QUERY_POINTS];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            latitudes[i] = -4.7 + random.nextDouble() * 9.7;
+            longitudes[i] = 34.0 + random.nextDouble() * 8.0;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<NearbyHitDTO> radius() {
+        int i = nextPoint();
+        return searchService.withinRadius(latitudes[i], longitudes[i], RADIUS_METERS, List.of(), null, null,
+                RADIUS_LIMIT);
+    }
+
+    @Benchmark
+    public List<NearbyHitDTO> nearest() {
+        int i = nextPoint();
+        return searchService.nearest(latitudes[i], longitudes[i], NEAREST, List.of(), null, null);
+    }
+
+    @Benchmark
+    public List<UUID> bruteForceRadius() {
+        int i = nextPoint();
+        return jdbc.queryForList(BRUTE_FORCE_SQL, UUID.class, latitudes[i], latitudes[i], longitudes[i],
+                RADIUS_METERS, RADIUS_LIMIT);
+    }
+
+    private int nextPoint() {
+        next = (next + 1) % QUERY_POINTS;
+        return next;
+    }
+}
@@ -0,0 +1,156 @@
+package apps.sarafrika.elimika.shared.model;
+
+import apps.sarafrika.elimika.shared.BenchmarkPostgres;
+import apps.sarafrika.elimika.shared.config.TableIdSequenceNamingStrategy;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Time to schedule a block of class sessions in one transaction through Hibernate, with ids taken
+ * per row from IDENTITY and from the table's sequence in pooled-lo blocks as {@link BaseEntity} takes
+ * them. IDENTITY sends one INSERT per row to read its key back; pooled ids let the inserts wait for
+ * flush and go out as JDBC batches. Both variants map the same {@code scheduled_instances} table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EntityIdAllocationBenchmark {
+
+    @Param({"1000"})
+    public int sessions;
+
+    private BenchmarkPostgres database;
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        database = BenchmarkPostgres.start(2);
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(IdentityInstance.class)
+                .addAnnotatedClass(PooledInstance.class)
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+                .setProperty("hibernate.hbm2ddl.auto", "none")
+                // The id and batching settings of application.yaml.
+                .setProperty("hibernate.id.db_structure_naming_strategy", TableIdSequenceNamingStrategy.class.getName())
+                .setProperty("hibernate.id.optimizer.pooled.preferred", "pooled-lo")
+                .setProperty("hibernate.id.sequence.increment_size_mismatch_strategy", "fix")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true");
+        configuration.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, database.dataSource());
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        database.jdbcTemplate().execute("TRUNCATE scheduled_instances CASCADE");
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        database.close();
+    }
+
+    @Benchmark
+    public int identity() {
+        return schedule(IdentityInstance::new);
+    }
+
+    @Benchmark
+    public int pooled() {
+        return schedule(PooledInstance::new);
+    }
+
+    private int schedule(Supplier<? extends BenchmarkInstance> newInstance) {
+        UUID classDefinitionUuid = UUID.randomUUID();
+        UUID instructorUuid = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.of(2026, 11, 2, 8, 0);
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < sessions; i++) {
+                BenchmarkInstance instance = newInstance.get();
+                instance.uuid = UUID.randomUUID();
+                instance.classDefinitionUuid = classDefinitionUuid;
+                instance.instructorUuid = instructorUuid;
+                instance.startTime = start.plusHours(i);
+                instance.endTime = start.plusHours(i).plusMinutes(45);
+                instance.title = "Session " + i;
+                instance.locationType = "ONLINE";
+                instance.maxParticipants = 30;
+                instance.createdBy = "benchmark";
+                session.persist(instance);
+            }
+        });
+        return sessions;
+    }
+
+    @MappedSuperclass
+    public abstract static class BenchmarkInstance {
+        @Column(name = "uuid")
+        private UUID uuid;
+
+        @Column(name = "class_definition_uuid")
+        private UUID classDefinitionUuid;
+
+        @Column(name = "instructor_uuid")
+        private UUID instructorUuid;
+
+        @Column(name = "start_time")
+        private LocalDateTime startTime;
+
+        @Column(name = "end_time")
+        private LocalDateTime endTime;
+
+        @Column(name = "title")
+        private String title;
+
+        @Column(name = "location_type")
+        private String locationType;
+
+        @Column(name = "max_participants")
+        private Integer maxParticipants;
+
+        @Column(name = "created_by")
+        private String createdBy;
+    }
+
+    @Entity(name = "IdentityInstance")
+    @Table(name = "scheduled_instances")
+    public static class IdentityInstance extends BenchmarkInstance {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @Column(name = "id")
+        private Long id;
+    }
+
+    @Entity(name = "PooledInstance")
+    @Table(name = "scheduled_instances")
+    public static class PooledInstance extends BenchmarkInstance {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE)
+        @Column(name = "id")
+        private Long id;
+    }
+}
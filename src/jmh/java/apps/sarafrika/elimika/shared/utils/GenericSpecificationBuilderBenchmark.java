@@ -0,0 +1,139 @@
+package apps.sarafrika.elimika.shared.utils;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a 10-parameter search (like, startswith, endswith, enum and boolean equality, gte,
+ * in, two betweens and a UUID) into a predicate with Hibernate's criteria builder, for the builder as
+ * it was before search plans and for the plan-caching builder. No database is involved; the session
+ * factory is bootstrapped without JDBC access only to supply the criteria API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GenericSpecificationBuilderBenchmark {
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder criteriaBuilder;
+    private CriteriaQuery<BenchmarkCourse> query;
+    private Root<BenchmarkCourse> root;
+    private Map<String, String> searchParams;
+
+    private BaselineSpecificationBuilder<BenchmarkCourse> baselineBuilder;
+    private GenericSpecificationBuilder<BenchmarkCourse> compiledBuilder;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(BenchmarkCourse.class)
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+                .setProperty("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .setProperty("hibernate.hbm2ddl.auto", "none")
+                .buildSessionFactory();
+        criteriaBuilder = sessionFactory.getCriteriaBuilder();
+        query = criteriaBuilder.createQuery(BenchmarkCourse.class);
+        root = query.from(BenchmarkCourse.class);
+
+        searchParams = new LinkedHashMap<>();
+        searchParams.put("name_like", "Python");
+        searchParams.put("description_startswith", "Intro");
+        searchParams.put("created_by_endswith", "@sarafrika.com");
+        searchParams.put("status", "published");
+        searchParams.put("is_free", "false");
+        searchParams.put("duration_hours_gte", "4");
+        searchParams.put("class_limit_in", "10,20,30,40");
+        searchParams.put("price_between", "10.00,250.00");
+        searchParams.put("created_date_between", "2026-01-01T00:00:00,2026-10-17T23:59:59");
+        searchParams.put("uuid", "5b1c2f9e-7d44-4a8e-9a51-0c7f3f2d6e11");
+        searchParams.put("page", "0");
+        searchParams.put("size", "20");
+
+        baselineBuilder = new BaselineSpecificationBuilder<>();
+        compiledBuilder = new GenericSpecificationBuilder<>();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Predicate baseline() {
+        return baselineBuilder.buildSpecification(BenchmarkCourse.class, searchParams)
+                .toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public Predicate compiled() {
+        return compiledBuilder.buildSpecification(BenchmarkCourse.class, searchParams)
+                .toPredicate(root, query, criteriaBuilder);
+    }
+
+    public enum BenchmarkStatus {
+        DRAFT, PUBLISHED, ARCHIVED
+    }
+
+    @Entity
+    @Table(name = "benchmark_courses")
+    public static class BenchmarkCourse {
+        @Id
+        private Long id;
+
+        @Column(name = "uuid")
+        private UUID uuid;
+
+        @Column(name = "name")
+        private String name;
+
+        @Column(name = "description")
+        private String description;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "status")
+        private BenchmarkStatus status;
+
+        @Column(name = "is_free")
+        private Boolean isFree;
+
+        @Column(name = "duration_hours")
+        private Integer durationHours;
+
+        @Column(name = "class_limit")
+        private Integer classLimit;
+
+        @Column(name = "price")
+        private BigDecimal price;
+
+        @Column(name = "created_date")
+        private LocalDateTime createdDate;
+
+        @Column(name = "created_by")
+        private String createdBy;
+    }
+}
@@ -0,0 +1,100 @@
+package apps.sarafrika.elimika.wallet.ledger.impl;
+
+import apps.sarafrika.elimika.shared.BenchmarkPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Committed balance updates per second from eight threads against one hot platform account, kept as
+ * a single balance row ({@code shards = 1}) and striped over 16 shard rows as {@link LedgerServiceImpl}
+ * stripes platform accounts. Each operation is the balance upsert of one posting in a transaction of
+ * its own, the statement concurrent postings queue on; the entry inserts around it do not contend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class HotAccountBalanceBenchmark {
+
+    private static final BigDecimal DELTA = BigDecimal.TEN;
+
+    // The statements of LedgerAccountBalanceRepository#applyPostedDelta and #applyPostedDeltaToShard.
+    private static final String ROW_SQL = """
+            insert into ledger_account_balances (account_uuid, posted_amount, pending_amount, version, created_by)
+            values (?, ?, 0, 0, 'SYSTEM')
+            on conflict (account_uuid) do update
+                set posted_amount = ledger_account_balances.posted_amount + excluded.posted_amount,
+                    version       = ledger_account_balances.version + 1,
+                    updated_date  = CURRENT_TIMESTAMP
+            """;
+    private static final String SHARD_SQL = """
+            insert into ledger_account_balance_shards (account_uuid, shard, posted_delta)
+            values (?, ?, ?)
+            on conflict (account_uuid, shard) do update
+                set posted_delta = ledger_account_balance_shards.posted_delta + excluded.posted_delta,
+                    updated_date = CURRENT_TIMESTAMP
+            """;
+
+    @Param({"1", "16"})
+    public int shards;
+
+    private BenchmarkPostgres database;
+    private DataSource dataSource;
+    private UUID accountUuid;
+
+    @Setup
+    public void setUp() {
+        database = BenchmarkPostgres.start(8);
+        dataSource = database.dataSource();
+        // Seeded by the ledger migration for the default currency.
+        accountUuid = database.jdbcTemplate().queryForObject(
+                "select uuid from ledger_accounts where owner_type = 'PLATFORM' and purse = 'PLATFORM_CASH_MPESA' limit 1",
+                UUID.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public int applyPostedDelta() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            int updated;
+            if (shards == 1) {
+                try (PreparedStatement statement = connection.prepareStatement(ROW_SQL)) {
+                    statement.setObject(1, accountUuid);
+                    statement.setBigDecimal(2, DELTA);
+                    updated = statement.executeUpdate();
+                }
+            } else {
+                try (PreparedStatement statement = connection.prepareStatement(SHARD_SQL)) {
+                    statement.setObject(1, accountUuid);
+                    statement.setInt(2, ThreadLocalRandom.current().nextInt(shards));
+                    statement.setBigDecimal(3, DELTA);
+                    updated = statement.executeUpdate();
+                }
+            }
+            connection.commit();
+            return updated;
+        }
+    }
+}
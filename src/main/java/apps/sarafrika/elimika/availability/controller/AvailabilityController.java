@@ -91,9 +91,8 @@ public class AvailabilityController {
 
         List<InstructorCalendarEntryDTO> entries = new java.util.ArrayList<>();
 
-        startDate.datesUntil(endDate.plusDays(1))
-                .forEach(date -> availabilityService.getAvailabilityForDate(instructorUuid, date)
-                        .forEach(slot -> entries.add(mapAvailabilityEntry(date, slot))));
+        availabilityService.getAvailabilityForRange(instructorUuid, startDate, endDate)
+                .forEach((date, slots) -> slots.forEach(slot -> entries.add(mapAvailabilityEntry(date, slot))));
 
         List<InstructorScheduleEntry> scheduledInstances = instructorScheduleLookupService.getScheduleForInstructor(
                 instructorUuid, startDate, endDate);
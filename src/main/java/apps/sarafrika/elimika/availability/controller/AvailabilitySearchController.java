@@ -0,0 +1,75 @@
+package apps.sarafrika.elimika.availability.controller;
+
+import apps.sarafrika.elimika.availability.dto.AvailabilitySlotDTO;
+import apps.sarafrika.elimika.availability.spi.AvailabilityService;
+import apps.sarafrika.elimika.shared.dto.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Availability of several instructors at once, for instructor search and listing pages.
+ *
+ * Endpoint Structure:
+ * - /api/v1/instructors/availability/slots - Available slots of a page of instructors
+ */
+@RestController
+@RequestMapping("/api/v1/instructors/availability")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Instructor Availability Management",
+     description = "APIs for managing instructor availability checks and calendar feeds")
+public class AvailabilitySearchController {
+
+    static final int MAX_INSTRUCTOR_UUIDS = 100;
+
+    private final AvailabilityService availabilityService;
+
+    @Operation(
+        summary = "Get available slots for several instructors",
+        description = """
+            Returns, for each instructor, one entry per date an available slot occurs on within the
+            range, with `specific_date` set to that date. Blocked time is cut out of the available
+            slots of the same date. An instructor with no availability maps to an empty list.
+            """
+    )
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Available slots retrieved successfully")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400",
+            description = "More than " + MAX_INSTRUCTOR_UUIDS + " instructors requested, or an invalid date range")
+    @GetMapping("/slots")
+    public ResponseEntity<ApiResponse<Map<UUID, List<AvailabilitySlotDTO>>>> findAvailableSlots(
+            @Parameter(
+                    description = "Comma-separated instructor UUIDs. At most " + MAX_INSTRUCTOR_UUIDS + " per request.",
+                    required = true
+            )
+            @RequestParam("instructor_uuid_in") List<UUID> instructorUuids,
+            @Parameter(description = "Start date of the range (YYYY-MM-DD)")
+            @RequestParam("start_date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date of the range (YYYY-MM-DD)")
+            @RequestParam("end_date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        log.debug("REST request to find available slots for {} instructors from {} to {}",
+                instructorUuids.size(), startDate, endDate);
+
+        if (instructorUuids.size() > MAX_INSTRUCTOR_UUIDS) {
+            throw new IllegalArgumentException(
+                    "An availability lookup accepts at most " + MAX_INSTRUCTOR_UUIDS + " instructors per request, got "
+                            + instructorUuids.size() + ". Split the list into chunks.");
+        }
+
+        Map<UUID, List<AvailabilitySlotDTO>> slots = availabilityService.findAvailableSlots(instructorUuids, startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(slots, "Available slots retrieved successfully"));
+    }
+}
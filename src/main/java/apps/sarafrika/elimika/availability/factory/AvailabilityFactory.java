@@ -5,6 +5,8 @@ import apps.sarafrika.elimika.availability.model.InstructorAvailability;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -37,6 +39,37 @@ public class AvailabilityFactory {
         );
     }
 
+    /**
+     * One dated occurrence of a pattern: the pattern's fields, with {@code specificDate} set to the
+     * date it occurs on and the times narrowed to what is left of it on that date.
+     */
+    public static AvailabilitySlotDTO toOccurrenceDTO(
+            InstructorAvailability entity, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        if (entity == null) {
+            return null;
+        }
+        return new AvailabilitySlotDTO(
+                entity.getUuid(),
+                entity.getInstructorUuid(),
+                entity.getAvailabilityType(),
+                entity.getDayOfWeek(),
+                entity.getDayOfMonth(),
+                date,
+                startTime,
+                endTime,
+                entity.getCustomPattern(),
+                entity.getIsAvailable(),
+                entity.getRecurrenceInterval(),
+                entity.getEffectiveStartDate(),
+                entity.getEffectiveEndDate(),
+                entity.getCreatedDate(),
+                entity.getLastModifiedDate(),
+                entity.getCreatedBy(),
+                entity.getLastModifiedBy(),
+                entity.getColorCode()
+        );
+    }
+
     public static InstructorAvailability toEntity(AvailabilitySlotDTO dto) {
         if (dto == null) {
             return null;
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -52,6 +53,20 @@ public interface AvailabilityRepository extends JpaRepository<InstructorAvailabi
     List<InstructorAvailability> findEffectiveAvailabilityForDate(@Param("instructorUuid") UUID instructorUuid,
                                                                 @Param("date") LocalDate date);
 
+    @Query("SELECT ia FROM InstructorAvailability ia WHERE ia.instructorUuid = :instructorUuid " +
+           "AND (ia.effectiveStartDate IS NULL OR ia.effectiveStartDate <= :endDate) " +
+           "AND (ia.effectiveEndDate IS NULL OR ia.effectiveEndDate >= :startDate)")
+    List<InstructorAvailability> findEffectiveAvailabilityBetween(@Param("instructorUuid") UUID instructorUuid,
+                                                                  @Param("startDate") LocalDate startDate,
+                                                                  @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT ia FROM InstructorAvailability ia WHERE ia.instructorUuid IN :instructorUuids " +
+           "AND (ia.effectiveStartDate IS NULL OR ia.effectiveStartDate <= :endDate) " +
+           "AND (ia.effectiveEndDate IS NULL OR ia.effectiveEndDate >= :startDate)")
+    List<InstructorAvailability> findEffectiveAvailabilityBetweenForInstructors(@Param("instructorUuids") Collection<UUID> instructorUuids,
+                                                                                @Param("startDate") LocalDate startDate,
+                                                                                @Param("endDate") LocalDate endDate);
+
     @Query("SELECT ia FROM InstructorAvailability ia WHERE ia.instructorUuid = :instructorUuid " +
            "AND ia.startTime <= :endTime AND ia.endTime >= :startTime " +
            "AND (ia.effectiveStartDate IS NULL OR ia.effectiveStartDate <= :date) " +
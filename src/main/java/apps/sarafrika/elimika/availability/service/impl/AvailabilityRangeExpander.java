@@ -0,0 +1,182 @@
+package apps.sarafrika.elimika.availability.service.impl;
+
+import apps.sarafrika.elimika.availability.model.InstructorAvailability;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Turns availability patterns into the dates they apply to, for a whole date range at once.
+ * <p>
+ * Each pattern is walked over only the dates it can match inside its effective window (every day,
+ * every seventh day from its weekday, its day of each month, or its specific date), so expanding a
+ * range costs one step per occurrence rather than one pattern check per pattern per day. The dates
+ * matched are exactly those {@code AvailabilityServiceImpl.matchesDate} accepts.
+ * <p>
+ * Blocked patterns override available ones: {@link #subtractBlocked} removes, on each date, every
+ * blocked interval from the available intervals in one sweep over both sorted by start time.
+ */
+final class AvailabilityRangeExpander {
+
+    private AvailabilityRangeExpander() {
+    }
+
+    /**
+     * The patterns that apply on each date from {@code startDate} to {@code endDate} inclusive. Dates
+     * no pattern applies to are absent; on each date patterns keep the order of {@code slots}.
+     */
+    static NavigableMap<LocalDate, List<InstructorAvailability>> expand(
+            List<InstructorAvailability> slots, LocalDate startDate, LocalDate endDate) {
+        NavigableMap<LocalDate, List<InstructorAvailability>> byDate = new TreeMap<>();
+        for (InstructorAvailability slot : slots) {
+            LocalDate from = slot.getEffectiveStartDate() != null && slot.getEffectiveStartDate().isAfter(startDate)
+                    ? slot.getEffectiveStartDate()
+                    : startDate;
+            LocalDate to = slot.getEffectiveEndDate() != null && slot.getEffectiveEndDate().isBefore(endDate)
+                    ? slot.getEffectiveEndDate()
+                    : endDate;
+            if (from.isAfter(to) || slot.getAvailabilityType() == null) {
+                continue;
+            }
+            switch (slot.getAvailabilityType()) {
+                case DAILY -> everyDay(byDate, slot, from, to);
+                case WEEKLY -> weekly(byDate, slot, from, to);
+                case MONTHLY -> monthly(byDate, slot, from, to);
+                case CUSTOM -> {
+                    if (slot.getSpecificDate() == null) {
+                        everyDay(byDate, slot, from, to);
+                    } else if (!slot.getSpecificDate().isBefore(from) && !slot.getSpecificDate().isAfter(to)) {
+                        add(byDate, slot.getSpecificDate(), slot);
+                    }
+                }
+            }
+        }
+        return byDate;
+    }
+
+    /**
+     * The available intervals of one date left once its blocked intervals are taken out. Each
+     * remaining piece is reported with the pattern it came from. Patterns without both times are
+     * never cut and never cut anything, as in the availability check.
+     */
+    static List<Interval> subtractBlocked(List<InstructorAvailability> slotsOnDate) {
+        List<Interval> blocked = new ArrayList<>();
+        List<InstructorAvailability> available = new ArrayList<>();
+        for (InstructorAvailability slot : slotsOnDate) {
+            if (Boolean.TRUE.equals(slot.getIsAvailable())) {
+                available.add(slot);
+            } else if (hasTimes(slot)) {
+                blocked.add(new Interval(slot, slot.getStartTime(), slot.getEndTime()));
+            }
+        }
+        if (available.isEmpty()) {
+            return List.of();
+        }
+        blocked.sort(Comparator.comparing(Interval::start));
+        List<Interval> mergedBlocked = merge(blocked);
+
+        List<Interval> remaining = new ArrayList<>();
+        for (InstructorAvailability slot : available) {
+            if (!hasTimes(slot) || mergedBlocked.isEmpty()) {
+                remaining.add(new Interval(slot, slot.getStartTime(), slot.getEndTime()));
+                continue;
+            }
+            LocalTime cursor = slot.getStartTime();
+            LocalTime end = slot.getEndTime();
+            for (Interval block : mergedBlocked) {
+                if (!block.end().isAfter(cursor)) {
+                    continue;
+                }
+                if (!block.start().isBefore(end)) {
+                    break;
+                }
+                if (block.start().isAfter(cursor)) {
+                    remaining.add(new Interval(slot, cursor, block.start()));
+                }
+                cursor = block.end();
+                if (!cursor.isBefore(end)) {
+                    break;
+                }
+            }
+            if (cursor.isBefore(end)) {
+                remaining.add(new Interval(slot, cursor, end));
+            }
+        }
+        return remaining;
+    }
+
+    private static List<Interval> merge(List<Interval> sorted) {
+        List<Interval> merged = new ArrayList<>();
+        for (Interval interval : sorted) {
+            if (!merged.isEmpty() && !interval.start().isAfter(merged.getLast().end())) {
+                Interval last = merged.removeLast();
+                LocalTime end = interval.end().isAfter(last.end()) ? interval.end() : last.end();
+                merged.add(new Interval(last.source(), last.start(), end));
+            } else {
+                merged.add(interval);
+            }
+        }
+        return merged;
+    }
+
+    private static boolean hasTimes(InstructorAvailability slot) {
+        return slot.getStartTime() != null && slot.getEndTime() != null
+                && slot.getStartTime().isBefore(slot.getEndTime());
+    }
+
+    private static void everyDay(NavigableMap<LocalDate, List<InstructorAvailability>> byDate,
+                                 InstructorAvailability slot, LocalDate from, LocalDate to) {
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            add(byDate, date, slot);
+        }
+    }
+
+    private static void weekly(NavigableMap<LocalDate, List<InstructorAvailability>> byDate,
+                               InstructorAvailability slot, LocalDate from, LocalDate to) {
+        Integer dayOfWeek = slot.getDayOfWeek();
+        if (dayOfWeek == null || dayOfWeek < 1 || dayOfWeek > 7) {
+            return;
+        }
+        long offset = Math.floorMod(dayOfWeek - from.getDayOfWeek().getValue(), 7);
+        for (LocalDate date = from.plusDays(offset); !date.isAfter(to); date = date.plusWeeks(1)) {
+            add(byDate, date, slot);
+        }
+    }
+
+    private static void monthly(NavigableMap<LocalDate, List<InstructorAvailability>> byDate,
+                                InstructorAvailability slot, LocalDate from, LocalDate to) {
+        Integer dayOfMonth = slot.getDayOfMonth();
+        if (dayOfMonth == null || dayOfMonth < 1 || dayOfMonth > 31) {
+            return;
+        }
+        LocalDate month = from.withDayOfMonth(1);
+        long months = ChronoUnit.MONTHS.between(month, to.withDayOfMonth(1));
+        for (long index = 0; index <= months; index++, month = month.plusMonths(1)) {
+            // Months too short for the day are skipped, as matching on the day of month would.
+            if (dayOfMonth > month.lengthOfMonth()) {
+                continue;
+            }
+            LocalDate date = month.withDayOfMonth(dayOfMonth);
+            if (!date.isBefore(from) && !date.isAfter(to)) {
+                add(byDate, date, slot);
+            }
+        }
+    }
+
+    private static void add(NavigableMap<LocalDate, List<InstructorAvailability>> byDate,
+                            LocalDate date, InstructorAvailability slot) {
+        byDate.computeIfAbsent(date, ignored -> new ArrayList<>()).add(slot);
+    }
+
+    /**
+     * A time interval on one date and the pattern it came from.
+     */
+    record Interval(InstructorAvailability source, LocalTime start, LocalTime end) {
+    }
+}
@@ -9,6 +9,7 @@ import apps.sarafrika.elimika.shared.enums.AvailabilityType;
 import apps.sarafrika.elimika.shared.event.availability.InstructorAvailabilityChangedEventDTO;
 import apps.sarafrika.elimika.shared.exceptions.ResourceNotFoundException;
 import apps.sarafrika.elimika.shared.utils.GenericSpecificationBuilder;
+import apps.sarafrika.elimika.shared.utils.recurrence.OccurrenceWindow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -22,8 +23,15 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -192,8 +200,49 @@ public class AvailabilityServiceImpl implements AvailabilityService {
         List<InstructorAvailability> overlappingSlots = 
             availabilityRepository.findOverlappingAvailability(instructorUuid, startTime, endTime, date);
 
+        return isAvailable(overlappingSlots, start, end);
+    }
+
+    @Override
+    public List<Boolean> checkInstructorAvailability(UUID instructorUuid, List<OccurrenceWindow> windows) {
+        if (instructorUuid == null) {
+            throw new IllegalArgumentException("Instructor UUID cannot be null");
+        }
+        if (windows == null || windows.isEmpty()) {
+            return List.of();
+        }
+        for (OccurrenceWindow window : windows) {
+            if (window == null || window.start() == null || window.end() == null) {
+                throw new IllegalArgumentException("Window start and end cannot be null");
+            }
+            if (window.start().isAfter(window.end())) {
+                throw new IllegalArgumentException("Start time must be before end time");
+            }
+        }
+
+        LocalDate firstDate = windows.stream().map(window -> window.start().toLocalDate()).min(LocalDate::compareTo).orElseThrow();
+        LocalDate lastDate = windows.stream().map(window -> window.start().toLocalDate()).max(LocalDate::compareTo).orElseThrow();
+        List<InstructorAvailability> slots =
+            availabilityRepository.findEffectiveAvailabilityBetween(instructorUuid, firstDate, lastDate);
+
+        return windows.stream()
+            .map(window -> isAvailable(slots, window.start(), window.end()))
+            .toList();
+    }
+
+    /**
+     * The rule behind both availability checks. {@code slots} may hold more than the window needs;
+     * only slots effective on the window's date whose times overlap it are considered, the same
+     * filter {@code findOverlappingAvailability} applies in the database.
+     */
+    private boolean isAvailable(List<InstructorAvailability> slots, LocalDateTime start, LocalDateTime end) {
+        LocalDate date = start.toLocalDate();
+        LocalTime startTime = start.toLocalTime();
+        LocalTime endTime = end.toLocalTime();
+
         // Filter by patterns that match the date
-        List<InstructorAvailability> matchingSlots = overlappingSlots.stream()
+        List<InstructorAvailability> matchingSlots = slots.stream()
+            .filter(slot -> overlaps(slot, date, startTime, endTime))
             .filter(slot -> matchesDate(slot, date))
             .collect(Collectors.toList());
 
@@ -207,6 +256,37 @@ public class AvailabilityServiceImpl implements AvailabilityService {
             .noneMatch(slot -> Boolean.FALSE.equals(slot.getIsAvailable()));
     }
 
+    private boolean overlaps(InstructorAvailability slot, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        if (slot.getStartTime() == null || slot.getEndTime() == null) {
+            return false;
+        }
+        if (slot.getStartTime().isAfter(endTime) || slot.getEndTime().isBefore(startTime)) {
+            return false;
+        }
+        if (slot.getEffectiveStartDate() != null && slot.getEffectiveStartDate().isAfter(date)) {
+            return false;
+        }
+        return slot.getEffectiveEndDate() == null || !slot.getEffectiveEndDate().isBefore(date);
+    }
+
+    @Override
+    public Map<LocalDate, List<AvailabilitySlotDTO>> getAvailabilityForRange(UUID instructorUuid, LocalDate startDate, LocalDate endDate) {
+        log.debug("Getting availability for instructor: {} from {} to {}", instructorUuid, startDate, endDate);
+
+        if (instructorUuid == null) {
+            throw new IllegalArgumentException("Instructor UUID cannot be null");
+        }
+        validateDateRange(startDate, endDate);
+
+        List<InstructorAvailability> slots =
+            availabilityRepository.findEffectiveAvailabilityBetween(instructorUuid, startDate, endDate);
+
+        Map<LocalDate, List<AvailabilitySlotDTO>> slotsByDate = new TreeMap<>();
+        AvailabilityRangeExpander.expand(slots, startDate, endDate)
+            .forEach((date, slotsOnDate) -> slotsByDate.put(date, AvailabilityFactory.toDTOList(slotsOnDate)));
+        return slotsByDate;
+    }
+
     @Override
     public List<AvailabilitySlotDTO> findAvailableSlots(UUID instructorUuid, LocalDate startDate, LocalDate endDate) {
         log.debug("Finding available slots for instructor: {} from {} to {}", instructorUuid, startDate, endDate);
@@ -214,6 +294,50 @@ public class AvailabilityServiceImpl implements AvailabilityService {
         if (instructorUuid == null) {
             throw new IllegalArgumentException("Instructor UUID cannot be null");
         }
+        validateDateRange(startDate, endDate);
+
+        List<InstructorAvailability> slots =
+            availabilityRepository.findEffectiveAvailabilityBetween(instructorUuid, startDate, endDate);
+        return expandAvailableSlots(slots, startDate, endDate);
+    }
+
+    @Override
+    public Map<UUID, List<AvailabilitySlotDTO>> findAvailableSlots(Collection<UUID> instructorUuids, LocalDate startDate, LocalDate endDate) {
+        log.debug("Finding available slots for {} instructors from {} to {}",
+            instructorUuids != null ? instructorUuids.size() : 0, startDate, endDate);
+
+        if (instructorUuids == null || instructorUuids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Instructor UUIDs cannot be null");
+        }
+        validateDateRange(startDate, endDate);
+        if (instructorUuids.isEmpty()) {
+            return Map.of();
+        }
+
+        Set<UUID> uniqueInstructorUuids = new LinkedHashSet<>(instructorUuids);
+        Map<UUID, List<InstructorAvailability>> slotsByInstructor = availabilityRepository
+            .findEffectiveAvailabilityBetweenForInstructors(uniqueInstructorUuids, startDate, endDate)
+            .stream()
+            .collect(Collectors.groupingBy(InstructorAvailability::getInstructorUuid));
+
+        Map<UUID, List<AvailabilitySlotDTO>> availableSlots = new LinkedHashMap<>();
+        for (UUID instructorUuid : uniqueInstructorUuids) {
+            availableSlots.put(instructorUuid,
+                expandAvailableSlots(slotsByInstructor.getOrDefault(instructorUuid, List.of()), startDate, endDate));
+        }
+        return availableSlots;
+    }
+
+    private List<AvailabilitySlotDTO> expandAvailableSlots(List<InstructorAvailability> slots, LocalDate startDate, LocalDate endDate) {
+        List<AvailabilitySlotDTO> availableSlots = new ArrayList<>();
+        AvailabilityRangeExpander.expand(slots, startDate, endDate)
+            .forEach((date, slotsOnDate) -> AvailabilityRangeExpander.subtractBlocked(slotsOnDate)
+                .forEach(interval -> availableSlots.add(
+                    AvailabilityFactory.toOccurrenceDTO(interval.source(), date, interval.start(), interval.end()))));
+        return availableSlots;
+    }
+
+    private void validateDateRange(LocalDate startDate, LocalDate endDate) {
         if (startDate == null) {
             throw new IllegalArgumentException("Start date cannot be null");
         }
@@ -223,12 +347,6 @@ public class AvailabilityServiceImpl implements AvailabilityService {
         if (startDate.isAfter(endDate)) {
             throw new IllegalArgumentException("Start date must be before or equal to end date");
         }
-
-        // Iterate through each date in the range and collect available slots
-        return startDate.datesUntil(endDate.plusDays(1))
-            .flatMap(date -> getAvailabilityForDate(instructorUuid, date).stream())
-            .filter(slot -> Boolean.TRUE.equals(slot.isAvailable()))
-            .collect(Collectors.toList());
     }
 
     @Override
@@ -1,11 +1,13 @@
 package apps.sarafrika.elimika.availability.spi;
 
 import apps.sarafrika.elimika.availability.dto.AvailabilitySlotDTO;
+import apps.sarafrika.elimika.shared.utils.recurrence.OccurrenceWindow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -116,19 +118,58 @@ public interface AvailabilityService {
      */
     boolean isInstructorAvailable(UUID instructorUuid, LocalDateTime start, LocalDateTime end);
 
+    /**
+     * Batch form of {@link #isInstructorAvailable(UUID, LocalDateTime, LocalDateTime)}: answers every
+     * window with the same rules from a single read of the instructor's patterns, so checking a
+     * recurring class costs one query rather than one per session.
+     *
+     * @param instructorUuid The UUID of the instructor
+     * @param windows The windows to check
+     * @return one answer per window, in the order given
+     * @throws IllegalArgumentException if instructorUuid is null or any window has a null or inverted range
+     */
+    List<Boolean> checkInstructorAvailability(UUID instructorUuid, List<OccurrenceWindow> windows);
+
+    /**
+     * Retrieves the availability slots that apply on each date of a range, available and blocked
+     * alike, with the same matching rules as {@link #getAvailabilityForDate(UUID, LocalDate)} but
+     * from a single read of the instructor's patterns.
+     *
+     * @param instructorUuid The UUID of the instructor
+     * @param startDate The first date of the range
+     * @param endDate The last date of the range
+     * @return the slots of each date in date order; dates no slot applies to are absent
+     * @throws IllegalArgumentException if any parameter is null or if startDate is after endDate
+     */
+    Map<LocalDate, List<AvailabilitySlotDTO>> getAvailabilityForRange(UUID instructorUuid, LocalDate startDate, LocalDate endDate);
+
     /**
      * Finds available time slots for an instructor within a date range.
-     * Returns only slots where isAvailable = true.
+     * Returns one entry per date an available slot occurs on, with {@code specificDate} set to that
+     * date. Blocked slots override available ones: time they cover is cut out of the available slots
+     * of the same date, which may shorten a slot, split it in two or remove it.
      * Useful for scheduling systems that need to find available periods for booking classes.
      *
      * @param instructorUuid The UUID of the instructor
      * @param startDate The start date of the range to search
      * @param endDate The end date of the range to search
-     * @return List of available slots within the date range (empty list if none found)
+     * @return List of available slots within the date range in date order (empty list if none found)
      * @throws IllegalArgumentException if any parameter is null or if startDate is after endDate
      */
     List<AvailabilitySlotDTO> findAvailableSlots(UUID instructorUuid, LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Batch form of {@link #findAvailableSlots(UUID, LocalDate, LocalDate)} for pages of instructors:
+     * every instructor's patterns are read in one query and expanded with the same rules.
+     *
+     * @param instructorUuids The UUIDs of the instructors
+     * @param startDate The start date of the range to search
+     * @param endDate The end date of the range to search
+     * @return the available slots of each instructor, in the order given; an instructor with none maps to an empty list
+     * @throws IllegalArgumentException if any parameter or instructor UUID is null or if startDate is after endDate
+     */
+    Map<UUID, List<AvailabilitySlotDTO>> findAvailableSlots(Collection<UUID> instructorUuids, LocalDate startDate, LocalDate endDate);
+
     /**
      * Clears all availability patterns for an instructor.
      * This is useful when completely resetting an instructor's availability.
@@ -0,0 +1,35 @@
+package apps.sarafrika.elimika.booking.job;
+
+import apps.sarafrika.elimika.booking.spi.BookingService;
+import apps.sarafrika.elimika.shared.spi.HoldExpiryHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Lapses unpaid booking holds for the shared hold-expiry scheduler, which calls this as each hold's
+ * deadline passes instead of the five-minute sweep that used to free the instructor's slot.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingHoldExpiryHandler implements HoldExpiryHandler {
+
+    private final BookingService bookingService;
+
+    @Override
+    public String holdType() {
+        return BookingService.HOLD_TYPE;
+    }
+
+    @Override
+    public Optional<LocalDateTime> findNextExpiry() {
+        return bookingService.findNextHoldExpiry();
+    }
+
+    @Override
+    public int expireHoldsDueBy(LocalDateTime cutoff) {
+        return bookingService.expireHolds(cutoff);
+    }
+}
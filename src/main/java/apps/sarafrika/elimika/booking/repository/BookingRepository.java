@@ -3,9 +3,13 @@ package apps.sarafrika.elimika.booking.repository;
 import apps.sarafrika.elimika.booking.model.Booking;
 import apps.sarafrika.elimika.shared.enums.BookingStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,6 +23,22 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByStatusAndHoldExpiresAtBefore(BookingStatus status, LocalDateTime cutoff);
 
+    /**
+     * Moves every booking still in {@code held} whose hold expires at or before {@code cutoff} to
+     * {@code expired} in one statement, giving back its availability block. A payment captured at the
+     * same moment has already left {@code held} and is never overwritten.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Booking b SET b.status = :expired, b.availabilityBlockUuid = null, b.lastModifiedDate = :cutoff "
+            + "WHERE b.status = :held AND b.holdExpiresAt <= :cutoff")
+    int expireHoldsDueBy(@Param("held") BookingStatus held,
+                         @Param("expired") BookingStatus expired,
+                         @Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT MIN(b.holdExpiresAt) FROM Booking b WHERE b.status = :held")
+    Optional<LocalDateTime> findEarliestHoldExpiry(@Param("held") BookingStatus held);
+
     Page<Booking> findByStudentUuid(UUID studentUuid, Pageable pageable);
 
     Page<Booking> findByStudentUuidAndStatus(UUID studentUuid, BookingStatus status, Pageable pageable);
@@ -16,6 +16,7 @@ import apps.sarafrika.elimika.classes.dto.ClassDefinitionResponseDTO;
 import apps.sarafrika.elimika.classes.spi.ClassDefinitionService;
 import apps.sarafrika.elimika.course.spi.CourseInfoService;
 import apps.sarafrika.elimika.shared.enums.BookingStatus;
+import apps.sarafrika.elimika.shared.event.hold.HoldPlacedEvent;
 import apps.sarafrika.elimika.shared.exceptions.ResourceNotFoundException;
 import apps.sarafrika.elimika.timetabling.spi.EnrollmentDTO;
 import apps.sarafrika.elimika.timetabling.spi.ScheduleRequestDTO;
@@ -23,6 +24,7 @@ import apps.sarafrika.elimika.timetabling.spi.ScheduledInstanceDTO;
 import apps.sarafrika.elimika.timetabling.spi.TimetableService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -33,6 +35,7 @@ import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -49,6 +52,7 @@ public class BookingServiceImpl implements BookingService {
     private final ClassDefinitionService classDefinitionService;
     private final TimetableService timetableService;
     private final CourseInfoService courseInfoService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public BookingResponseDTO createBooking(CreateBookingRequestDTO request) {
@@ -68,6 +72,7 @@ public class BookingServiceImpl implements BookingService {
         booking.setEndTime(request.endTime());
         booking.setStatus(BookingStatus.PAYMENT_REQUIRED);
         booking.setHoldExpiresAt(resolveHoldExpiry(request.startTime()));
+        eventPublisher.publishEvent(new HoldPlacedEvent(BookingService.HOLD_TYPE, booking.getHoldExpiresAt()));
         booking.setPriceAmount(resolvePrice(request.priceAmount()));
         booking.setCurrency(request.currency());
         booking.setPurpose(request.purpose());
@@ -210,6 +215,7 @@ public class BookingServiceImpl implements BookingService {
 
         booking.setStatus(BookingStatus.PAYMENT_REQUIRED);
         booking.setHoldExpiresAt(resolveHoldExpiry(booking.getStartTime()));
+        eventPublisher.publishEvent(new HoldPlacedEvent(BookingService.HOLD_TYPE, booking.getHoldExpiresAt()));
 
         Booking saved = bookingRepository.save(booking);
         PaymentSession session = paymentGatewayClient.initiatePayment(saved);
@@ -255,17 +261,19 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public void expireHolds() {
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> expired = bookingRepository.findByStatusAndHoldExpiresAtBefore(BookingStatus.PAYMENT_REQUIRED, now);
-        expired.forEach(booking -> {
-            booking.setStatus(BookingStatus.EXPIRED);
-            booking.setAvailabilityBlockUuid(null);
-        });
-        bookingRepository.saveAll(expired);
-        if (!expired.isEmpty()) {
-            log.info("Expired {} booking holds", expired.size());
+    public int expireHolds(LocalDateTime cutoff) {
+        int expired = bookingRepository.expireHoldsDueBy(
+                BookingStatus.PAYMENT_REQUIRED, BookingStatus.EXPIRED, cutoff);
+        if (expired > 0) {
+            log.info("Expired {} booking holds", expired);
         }
+        return expired;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> findNextHoldExpiry() {
+        return bookingRepository.findEarliestHoldExpiry(BookingStatus.PAYMENT_REQUIRED);
     }
 
     private void validateCreateRequest(CreateBookingRequestDTO request) {
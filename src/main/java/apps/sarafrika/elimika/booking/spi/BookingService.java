@@ -9,10 +9,17 @@ import apps.sarafrika.elimika.shared.enums.BookingStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BookingService {
 
+    /**
+     * Hold type under which unpaid booking holds are published and lapsed.
+     */
+    String HOLD_TYPE = "booking";
+
     BookingResponseDTO createBooking(CreateBookingRequestDTO request);
 
     BookingResponseDTO getBooking(UUID bookingUuid);
@@ -31,5 +38,15 @@ public interface BookingService {
 
     BookingResponseDTO declineBooking(UUID bookingUuid);
 
-    void expireHolds();
+    /**
+     * Expires every unpaid booking whose hold lapsed at or before {@code cutoff}.
+     *
+     * @return how many bookings were expired
+     */
+    int expireHolds(LocalDateTime cutoff);
+
+    /**
+     * The earliest hold expiry among bookings still awaiting payment, or empty when there are none.
+     */
+    Optional<LocalDateTime> findNextHoldExpiry();
 }
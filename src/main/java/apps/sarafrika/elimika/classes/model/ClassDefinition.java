@@ -5,7 +5,10 @@ import apps.sarafrika.elimika.classes.util.converter.SessionFormatConverter;
 import apps.sarafrika.elimika.shared.enums.ClassVisibility;
 import apps.sarafrika.elimika.shared.enums.LocationType;
 import apps.sarafrika.elimika.shared.enums.SessionFormat;
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+import apps.sarafrika.elimika.shared.geo.internal.LocationChangeListener;
 import apps.sarafrika.elimika.shared.model.BaseEntity;
+import apps.sarafrika.elimika.shared.model.Locatable;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -22,11 +25,12 @@ import jakarta.persistence.EnumType;
 
 @Entity
 @Table(name = "class_definitions")
+@EntityListeners(LocationChangeListener.class)
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-public class ClassDefinition extends BaseEntity {
+public class ClassDefinition extends BaseEntity implements Locatable {
 
     @Column(name = "title")
     private String title;
@@ -129,4 +133,8 @@ public class ClassDefinition extends BaseEntity {
     @Column(name = "marketplace_job_uuid")
     private UUID marketplaceJobUuid;
 
+    @Override
+    public LocatedContentType locatedContentType() {
+        return LocatedContentType.CLASS_DEFINITION;
+    }
 }
@@ -12,10 +12,14 @@ import apps.sarafrika.elimika.shared.enums.ClassServiceType;
 import apps.sarafrika.elimika.shared.enums.ClassVisibility;
 import apps.sarafrika.elimika.shared.enums.LocationType;
 import apps.sarafrika.elimika.shared.enums.SessionFormat;
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+import apps.sarafrika.elimika.shared.geo.internal.LocationChangeListener;
 import apps.sarafrika.elimika.shared.model.BaseEntity;
+import apps.sarafrika.elimika.shared.model.Locatable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -33,11 +37,12 @@ import jakarta.persistence.EnumType;
 
 @Entity
 @Table(name = "class_marketplace_jobs")
+@EntityListeners(LocationChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class ClassMarketplaceJob extends BaseEntity {
+public class ClassMarketplaceJob extends BaseEntity implements Locatable {
 
     @Column(name = "organisation_uuid")
     private UUID organisationUuid;
@@ -169,4 +174,9 @@ public class ClassMarketplaceJob extends BaseEntity {
 
     @Column(name = "filled_at")
     private LocalDateTime filledAt;
+
+    @Override
+    public LocatedContentType locatedContentType() {
+        return LocatedContentType.MARKETPLACE_JOB;
+    }
 }
@@ -38,6 +38,8 @@ import apps.sarafrika.elimika.shared.storage.service.MediaUploadRequest;
 import apps.sarafrika.elimika.shared.storage.service.MediaValidationService;
 import apps.sarafrika.elimika.shared.storage.util.MediaCategory;
 import apps.sarafrika.elimika.shared.storage.util.MediaOwnerType;
+import apps.sarafrika.elimika.timetabling.spi.ConflictDetector;
+import apps.sarafrika.elimika.timetabling.spi.OccurrenceConflict;
 import apps.sarafrika.elimika.timetabling.spi.ScheduleRequestDTO;
 import apps.sarafrika.elimika.timetabling.spi.ScheduledInstanceDTO;
 import apps.sarafrika.elimika.timetabling.spi.TimetableService;
@@ -74,6 +76,7 @@ public class ClassDefinitionServiceImpl implements ClassDefinitionServiceInterfa
     private final ResourceBookingService resourceBookingService;
     private final ResourceLookupService resourceLookupService;
     private final AvailabilityService availabilityService;
+    private final ConflictDetector conflictDetector;
     private final ApplicationEventPublisher eventPublisher;
     private final CourseInfoService courseInfoService;
     private final CourseTrainingApprovalSpi courseTrainingApprovalSpi;
@@ -284,9 +287,16 @@ public class ClassDefinitionServiceImpl implements ClassDefinitionServiceInterfa
         });
     }
 
+    /**
+     * Expands every template and decides which windows can be scheduled before writing any of them.
+     * Each template's windows are checked against the instructor's calendar in one batch; windows
+     * accepted earlier in the same run are kept in memory and checked too, so two templates cannot
+     * book the instructor twice. The accepted windows are then scheduled together, unless a
+     * {@link ConflictResolutionStrategy#FAIL} conflict means the whole request will be refused.
+     */
     private ClassSchedulingOutcome applySessionTemplates(ClassDefinitionDTO classDefinition,
                                                          List<ClassSessionTemplateDTO> templates) {
-        List<ScheduledInstanceDTO> scheduledInstances = new ArrayList<>();
+        List<OccurrenceWindow> accepted = new ArrayList<>();
         List<ClassSchedulingConflictDTO> conflicts = new ArrayList<>();
         boolean blockingConflict = false;
 
@@ -303,11 +313,20 @@ public class ClassDefinitionServiceImpl implements ClassDefinitionServiceInterfa
                     template.startTime(),
                     template.endTime(),
                     RecurrencePatterns.fromRecurrenceDTO(template.recurrence()));
-
-            for (OccurrenceWindow window : windows) {
-                boolean scheduled = attemptScheduleWindow(classDefinition, window.start(), window.end(), conflicts, scheduledInstances);
-                if (!scheduled && strategy == ConflictResolutionStrategy.ROLLOVER) {
-                    attemptRollover(classDefinition, window.start(), window.end(), template.recurrence(), conflicts, scheduledInstances);
+            List<OccurrenceConflict> detected = windows.isEmpty()
+                    ? List.of()
+                    : conflictDetector.findInstructorConflicts(classDefinition.defaultInstructorUuid(), windows);
+
+            for (int i = 0; i < windows.size(); i++) {
+                OccurrenceWindow window = windows.get(i);
+                List<String> reasons = describeConflicts(classDefinition, window, detected.get(i), accepted);
+                if (reasons.isEmpty()) {
+                    accepted.add(window);
+                    continue;
+                }
+                conflicts.add(new ClassSchedulingConflictDTO(window.start(), window.end(), reasons));
+                if (strategy == ConflictResolutionStrategy.ROLLOVER) {
+                    attemptRollover(classDefinition, window.start(), window.end(), template.recurrence(), conflicts, accepted);
                 }
             }
 
@@ -316,30 +335,18 @@ public class ClassDefinitionServiceImpl implements ClassDefinitionServiceInterfa
             }
         }
 
+        List<ScheduledInstanceDTO> scheduledInstances = blockingConflict
+                ? List.of()
+                : scheduleInstances(classDefinition, accepted);
         return new ClassSchedulingOutcome(scheduledInstances, conflicts, blockingConflict);
     }
 
-    private boolean attemptScheduleWindow(ClassDefinitionDTO classDefinition,
-                                          LocalDateTime start,
-                                          LocalDateTime end,
-                                          List<ClassSchedulingConflictDTO> conflicts,
-                                          List<ScheduledInstanceDTO> scheduledInstances) {
-        List<String> reasons = detectConflicts(classDefinition, start, end);
-        if (reasons.isEmpty()) {
-            scheduledInstances.add(scheduleInstance(classDefinition, start, end));
-            return true;
-        }
-
-        conflicts.add(new ClassSchedulingConflictDTO(start, end, reasons));
-        return false;
-    }
-
     private boolean attemptRollover(ClassDefinitionDTO classDefinition,
                                     LocalDateTime start,
                                     LocalDateTime end,
                                     ClassRecurrenceDTO recurrence,
                                     List<ClassSchedulingConflictDTO> conflicts,
-                                    List<ScheduledInstanceDTO> scheduledInstances) {
+                                    List<OccurrenceWindow> accepted) {
         ClassRecurrenceDTO safeRecurrence = recurrence != null ? recurrence :
                 new ClassRecurrenceDTO(ClassRecurrenceDTO.RecurrenceType.DAILY, 1, null, null, null, 1);
         LocalDateTime rollingStart = start;
@@ -351,9 +358,9 @@ public class ClassDefinitionServiceImpl implements ClassDefinitionServiceInterfa
             rollingStart = advanceByRecurrence(rollingStart, safeRecurrence);
             rollingEnd = advanceByRecurrence(rollingEnd, safeRecurrence);
 
-            List<String> reasons = detectConflicts(classDefinition, rollingStart, rollingEnd);
+            List<String> reasons = detectConflicts(classDefinition, rollingStart, rollingEnd, accepted);
             if (reasons.isEmpty()) {
-                scheduledInstances.add(scheduleInstance(classDefinition, rollingStart, rollingEnd));
+                accepted.add(new OccurrenceWindow(rollingStart, rollingEnd));
                 return true;
             }
             conflicts.add(new ClassSchedulingConflictDTO(rollingStart, rollingEnd, reasons));
@@ -372,28 +379,39 @@ public class ClassDefinitionServiceImpl implements ClassDefinitionServiceInterfa
     }
 
     private List<String> detectConflicts(ClassDefinitionDTO classDefinition, LocalDateTime start, LocalDateTime end) {
-        List<String> reasons = new ArrayList<>();
-        UUID instructorUuid = classDefinition.defaultInstructorUuid();
+        return detectConflicts(classDefinition, start, end, List.of());
+    }
 
-        if (!availabilityService.isInstructorAvailable(instructorUuid, start, end)) {
+    private List<String> detectConflicts(ClassDefinitionDTO classDefinition,
+                                         LocalDateTime start,
+                                         LocalDateTime end,
+                                         List<OccurrenceWindow> accepted) {
+        OccurrenceWindow window = new OccurrenceWindow(start, end);
+        OccurrenceConflict detected = conflictDetector
+                .findInstructorConflicts(classDefinition.defaultInstructorUuid(), List.of(window))
+                .getFirst();
+        return describeConflicts(classDefinition, window, detected, accepted);
+    }
+
+    private List<String> describeConflicts(ClassDefinitionDTO classDefinition,
+                                           OccurrenceWindow window,
+                                           OccurrenceConflict detected,
+                                           List<OccurrenceWindow> accepted) {
+        List<String> reasons = new ArrayList<>();
+        if (detected.declaredUnavailable()) {
             reasons.add("Instructor is not available for the requested time range");
         }
-        ScheduleRequestDTO requestDTO = new ScheduleRequestDTO(
-                classDefinition.uuid(),
-                instructorUuid,
-                start,
-                end,
-                "UTC"
-        );
-        if (timetableService().hasInstructorConflict(instructorUuid, requestDTO)) {
+        boolean overlapsAccepted = accepted.stream().anyMatch(other ->
+                other.start().isBefore(window.end()) && other.end().isAfter(window.start()));
+        if (detected.overlapsSchedule() || overlapsAccepted) {
             reasons.add("Instructor has overlapping scheduled instances");
         }
         if (classDefinition.venueResourceUuid() != null) {
             resourceBookingService.findConflicts(
                             classDefinition.venueResourceUuid(),
                             1,
-                            start,
-                            end,
+                            window.start(),
+                            window.end(),
                             classDefinition.marketplaceJobUuid(),
                             classDefinition.uuid())
                     .forEach(conflict -> reasons.add("Venue conflict: " + conflict.description()));
@@ -401,15 +419,20 @@ public class ClassDefinitionServiceImpl implements ClassDefinitionServiceInterfa
         return reasons;
     }
 
-    private ScheduledInstanceDTO scheduleInstance(ClassDefinitionDTO classDefinition, LocalDateTime start, LocalDateTime end) {
-        ScheduleRequestDTO scheduleRequestDTO = new ScheduleRequestDTO(
-                classDefinition.uuid(),
-                classDefinition.defaultInstructorUuid(),
-                start,
-                end,
-                "UTC"
-        );
-        return timetableService().scheduleClass(scheduleRequestDTO);
+    private List<ScheduledInstanceDTO> scheduleInstances(ClassDefinitionDTO classDefinition, List<OccurrenceWindow> windows) {
+        if (windows.isEmpty()) {
+            return List.of();
+        }
+        List<ScheduleRequestDTO> requests = windows.stream()
+                .map(window -> new ScheduleRequestDTO(
+                        classDefinition.uuid(),
+                        classDefinition.defaultInstructorUuid(),
+                        window.start(),
+                        window.end(),
+                        "UTC"
+                ))
+                .toList();
+        return timetableService().scheduleClasses(requests);
     }
 
     private record ClassSchedulingOutcome(List<ScheduledInstanceDTO> scheduledInstances,
@@ -8,7 +8,6 @@ import apps.sarafrika.elimika.classes.dto.ClassMarketplaceJobAssignmentResponseD
 import apps.sarafrika.elimika.classes.dto.ClassMarketplaceJobDTO;
 import apps.sarafrika.elimika.classes.dto.ClassMarketplaceJobDecisionRequestDTO;
 import apps.sarafrika.elimika.classes.dto.ClassMarketplaceJobEligibilityDTO;
-import apps.sarafrika.elimika.availability.spi.AvailabilityService;
 import apps.sarafrika.elimika.classes.dto.ClassMarketplaceJobRequestDTO;
 import apps.sarafrika.elimika.classes.dto.ClassMarketplaceJobResourceDTO;
 import apps.sarafrika.elimika.classes.dto.ClassRecurrenceDTO;
@@ -39,8 +38,8 @@ import apps.sarafrika.elimika.resourcing.spi.ResourceType;
 import apps.sarafrika.elimika.shared.utils.enums.RateBasis;
 import apps.sarafrika.elimika.shared.utils.recurrence.OccurrenceWindow;
 import apps.sarafrika.elimika.shared.utils.recurrence.RecurrenceExpander;
-import apps.sarafrika.elimika.timetabling.spi.ScheduledInstanceDTO;
-import apps.sarafrika.elimika.timetabling.spi.SchedulingStatus;
+import apps.sarafrika.elimika.timetabling.spi.ConflictDetector;
+import apps.sarafrika.elimika.timetabling.spi.OccurrenceConflict;
 import apps.sarafrika.elimika.timetabling.spi.TimetableService;
 import apps.sarafrika.elimika.course.spi.CourseInfoService;
 import apps.sarafrika.elimika.course.spi.CourseTrainingApprovalSpi;
@@ -72,7 +71,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
@@ -113,7 +111,7 @@ public class ClassMarketplaceJobServiceImpl implements ClassMarketplaceJobServic
     private final ClassDefinitionServiceInterface classDefinitionService;
     private final ResourceBookingService resourceBookingService;
     private final ResourceLookupService resourceLookupService;
-    private final AvailabilityService availabilityService;
+    private final ConflictDetector conflictDetector;
     private final ObjectProvider<TimetableService> timetableServiceProvider;
     private final ApplicationEventPublisher eventPublisher;
     private final MediaStorageService mediaStorageService;
@@ -1031,27 +1029,17 @@ public class ClassMarketplaceJobServiceImpl implements ClassMarketplaceJobServic
             return List.of();
         }
 
-        LocalDate minDate = occurrences.stream().map(w -> w.start().toLocalDate()).min(LocalDate::compareTo).orElseThrow();
-        LocalDate maxDate = occurrences.stream().map(w -> w.end().toLocalDate()).max(LocalDate::compareTo).orElseThrow();
-        List<ScheduledInstanceDTO> existingSchedule = timetableService()
-                .getScheduleForInstructor(instructorUuid, minDate, maxDate)
-                .stream()
-                .filter(instance -> instance.status() != SchedulingStatus.COMPLETED)
-                .toList();
-
         List<ClassSchedulingConflictDTO> conflicts = new ArrayList<>();
-        for (OccurrenceWindow occurrence : occurrences) {
+        for (OccurrenceConflict conflict : conflictDetector.findInstructorConflicts(instructorUuid, occurrences)) {
             List<String> reasons = new ArrayList<>();
-            boolean overlapsSchedule = existingSchedule.stream().anyMatch(instance ->
-                    instance.startTime().isBefore(occurrence.end()) && instance.endTime().isAfter(occurrence.start()));
-            if (overlapsSchedule) {
+            if (conflict.overlapsSchedule()) {
                 reasons.add("Instructor already has a scheduled session or blocked time overlapping this window");
             }
-            if (!availabilityService.isInstructorAvailable(instructorUuid, occurrence.start(), occurrence.end())) {
+            if (conflict.declaredUnavailable()) {
                 reasons.add("Instructor is marked unavailable for this window");
             }
             if (!reasons.isEmpty()) {
-                conflicts.add(new ClassSchedulingConflictDTO(occurrence.start(), occurrence.end(), reasons));
+                conflicts.add(new ClassSchedulingConflictDTO(conflict.window().start(), conflict.window().end(), reasons));
             }
         }
         return conflicts;
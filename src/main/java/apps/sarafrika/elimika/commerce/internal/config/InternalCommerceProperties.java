@@ -1,6 +1,7 @@
 package apps.sarafrika.elimika.commerce.internal.config;
 
 import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -40,4 +41,25 @@ public class InternalCommerceProperties {
      * Endpoint template to resolve country/region from IP. Must contain {ip} placeholder.
      */
     private String geoipCountryEndpoint = "https://ipapi.co/{ip}/country/";
+
+    /**
+     * Local CIDR-to-country dataset consulted before the remote endpoint. Lines are
+     * {@code <network>/<prefix-length>,<country-code>}. Unset disables offline lookups.
+     */
+    private String geoipDatabasePath;
+
+    /**
+     * How often the dataset file is checked for changes and reloaded.
+     */
+    private Duration geoipReloadInterval = Duration.ofSeconds(60);
+
+    /**
+     * Number of remote lookup results remembered, including addresses the endpoint could not place.
+     */
+    private Integer geoipCacheMaxSize = 10_000;
+
+    /**
+     * How long a remote lookup result is remembered.
+     */
+    private Duration geoipCacheTtl = Duration.ofHours(6);
 }
@@ -3,10 +3,15 @@ package apps.sarafrika.elimika.commerce.internal.repository;
 import apps.sarafrika.elimika.commerce.internal.entity.CommerceOrder;
 import apps.sarafrika.elimika.commerce.internal.enums.OrderStatus;
 import apps.sarafrika.elimika.commerce.internal.enums.PaymentStatus;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface CommerceOrderRepository extends JpaRepository<CommerceOrder, Long> {
 
@@ -20,4 +25,18 @@ public interface CommerceOrderRepository extends JpaRepository<CommerceOrder, Lo
      */
     List<CommerceOrder> findByPaymentStatusAndCheckoutRequestIdIsNotNullAndPlacedAtBefore(
             PaymentStatus paymentStatus, java.time.LocalDateTime placedBefore);
+
+    /**
+     * Moves an order's payment status from {@code expected} to {@code next} in one statement, so a
+     * capture committed at the same moment is never overwritten. Returns 1 when the order moved, 0
+     * when it had already left {@code expected}.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CommerceOrder o SET o.paymentStatus = :next, o.lastModifiedDate = :modifiedAt "
+            + "WHERE o.uuid = :orderUuid AND o.paymentStatus = :expected")
+    int updatePaymentStatusIfCurrent(@Param("orderUuid") UUID orderUuid,
+                                     @Param("expected") PaymentStatus expected,
+                                     @Param("next") PaymentStatus next,
+                                     @Param("modifiedAt") LocalDateTime modifiedAt);
 }
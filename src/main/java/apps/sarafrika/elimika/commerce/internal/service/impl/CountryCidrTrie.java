@@ -0,0 +1,121 @@
+package apps.sarafrika.elimika.commerce.internal.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Longest-prefix-match table from CIDR blocks to country codes, as a binary trie held in parallel
+ * primitive arrays: node {@code n} has children {@code zero[n]} and {@code one[n]} and, when a block
+ * ends there, a country index in {@code country[n]}. A lookup walks at most 32 (IPv4) or 128 (IPv6)
+ * array slots and allocates nothing.
+ * <p>
+ * Built single-threaded by {@link #insert}, then {@link #compact()}ed and only read afterwards, so a
+ * built trie can be shared between threads through a safe publication.
+ */
+final class CountryCidrTrie {
+
+    private static final int ROOT = 0;
+    private static final short NO_COUNTRY = -1;
+
+    private int[] zero = new int[1024];
+    private int[] one = new int[1024];
+    private short[] country = new short[1024];
+    private int nodes = 1;
+
+    private final List<String> countries = new ArrayList<>();
+    private final Map<String, Short> countryIndex = new HashMap<>();
+
+    CountryCidrTrie() {
+        Arrays.fill(country, NO_COUNTRY);
+    }
+
+    /**
+     * Maps every address whose first {@code prefixLength} bits equal those of {@code network} to
+     * {@code countryCode}. A later, longer block inside it takes precedence on lookup.
+     */
+    void insert(IpLiteral network, int prefixLength, String countryCode) {
+        if (prefixLength < 0 || prefixLength > network.bitLength()) {
+            throw new IllegalArgumentException("Prefix length " + prefixLength + " is out of range");
+        }
+        int node = ROOT;
+        for (int bit = 0; bit < prefixLength; bit++) {
+            boolean set = bitAt(network, bit) == 1;
+            int child = set ? one[node] : zero[node];
+            if (child == ROOT) {
+                child = newNode();
+                if (set) {
+                    one[node] = child;
+                } else {
+                    zero[node] = child;
+                }
+            }
+            node = child;
+        }
+        country[node] = indexOf(countryCode);
+    }
+
+    /**
+     * @return the country of the most specific block containing {@code address}, or {@code null}
+     */
+    String find(IpLiteral address) {
+        int node = ROOT;
+        short match = country[ROOT];
+        for (int bit = 0, bits = address.bitLength(); bit < bits; bit++) {
+            node = bitAt(address, bit) == 0 ? zero[node] : one[node];
+            if (node == ROOT) {
+                break;
+            }
+            if (country[node] != NO_COUNTRY) {
+                match = country[node];
+            }
+        }
+        return match == NO_COUNTRY ? null : countries.get(match);
+    }
+
+    /**
+     * Trims the node arrays to the nodes actually used once loading is finished.
+     */
+    CountryCidrTrie compact() {
+        zero = Arrays.copyOf(zero, nodes);
+        one = Arrays.copyOf(one, nodes);
+        country = Arrays.copyOf(country, nodes);
+        return this;
+    }
+
+    int nodeCount() {
+        return nodes;
+    }
+
+    private int newNode() {
+        if (nodes == zero.length) {
+            int capacity = zero.length * 2;
+            zero = Arrays.copyOf(zero, capacity);
+            one = Arrays.copyOf(one, capacity);
+            country = Arrays.copyOf(country, capacity);
+            Arrays.fill(country, nodes, capacity, NO_COUNTRY);
+        }
+        return nodes++;
+    }
+
+    private short indexOf(String countryCode) {
+        Short index = countryIndex.get(countryCode);
+        if (index == null) {
+            if (countries.size() == Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct country codes");
+            }
+            index = (short) countries.size();
+            countries.add(countryCode);
+            countryIndex.put(countryCode, index);
+        }
+        return index;
+    }
+
+    private static int bitAt(IpLiteral address, int bit) {
+        return bit < 64
+                ? (int) (address.hi() >>> (63 - bit)) & 1
+                : (int) (address.lo() >>> (127 - bit)) & 1;
+    }
+}
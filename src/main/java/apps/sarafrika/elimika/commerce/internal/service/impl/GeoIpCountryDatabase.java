@@ -0,0 +1,134 @@
+package apps.sarafrika.elimika.commerce.internal.service.impl;
+
+import apps.sarafrika.elimika.commerce.internal.config.InternalCommerceProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+
+/**
+ * Offline IP-to-country lookups from a CIDR dataset on local disk.
+ * <p>
+ * The file named by {@code commerce.internal.geoip-database-path} holds one block per line as
+ * {@code <network>/<prefix-length>,<country-code>}, IPv4 and IPv6 mixed; blank lines, lines starting
+ * with {@code #} and a header line are skipped. It is loaded into a {@link CountryCidrTrie} per address
+ * family and swapped in whole, so lookups never see a half-loaded table.
+ * <p>
+ * The file is checked every {@code commerce.internal.geoip-reload-interval} and reloaded when its
+ * size or modification time changes. A file that is missing or fails to load leaves the previous
+ * table in place.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class GeoIpCountryDatabase {
+
+    private final InternalCommerceProperties internalCommerceProperties;
+
+    private volatile Tables tables;
+
+    /**
+     * @return the upper-case country code for {@code ip}, or {@code null} when no table is loaded,
+     * {@code ip} is not an address literal or no block contains it
+     */
+    String findCountry(String ip) {
+        Tables current = tables;
+        if (current == null) {
+            return null;
+        }
+        IpLiteral address = IpLiteral.parse(ip);
+        if (address == null) {
+            return null;
+        }
+        return (address.ipv4() ? current.ipv4() : current.ipv6()).find(address);
+    }
+
+    @Scheduled(fixedDelayString = "${commerce.internal.geoip-reload-interval:PT60S}")
+    void reloadIfChanged() {
+        String configuredPath = internalCommerceProperties.getGeoipDatabasePath();
+        if (!Boolean.TRUE.equals(internalCommerceProperties.getGeoipEnabled()) || !StringUtils.hasText(configuredPath)) {
+            return;
+        }
+        Path path = Path.of(configuredPath);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            FileVersion version = new FileVersion(attributes.size(), attributes.lastModifiedTime().toMillis());
+            Tables current = tables;
+            if (current != null && current.version().equals(version)) {
+                return;
+            }
+            tables = load(path, version);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("GeoIP database {} could not be loaded; keeping the previous table: {}", path, ex.getMessage());
+        }
+    }
+
+    private Tables load(Path path, FileVersion version) throws IOException {
+        long started = System.nanoTime();
+        CountryCidrTrie ipv4 = new CountryCidrTrie();
+        CountryCidrTrie ipv6 = new CountryCidrTrie();
+        int blocks = 0;
+        int skipped = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                if (addBlock(trimmed, ipv4, ipv6)) {
+                    blocks++;
+                } else {
+                    skipped++;
+                }
+            }
+        }
+
+        ipv4.compact();
+        ipv6.compact();
+        log.info("Loaded GeoIP database {}: {} blocks ({} lines skipped), {} IPv4 and {} IPv6 trie nodes in {} ms",
+                path, blocks, skipped, ipv4.nodeCount(), ipv6.nodeCount(), (System.nanoTime() - started) / 1_000_000);
+        return new Tables(ipv4, ipv6, version);
+    }
+
+    private static boolean addBlock(String line, CountryCidrTrie ipv4, CountryCidrTrie ipv6) {
+        int comma = line.indexOf(',');
+        int slash = line.indexOf('/');
+        if (comma < 0 || slash < 0 || slash > comma) {
+            return false;
+        }
+        IpLiteral network = IpLiteral.parse(line.substring(0, slash));
+        String countryCode = line.substring(comma + 1).trim().toUpperCase(Locale.ROOT);
+        if (network == null || countryCode.length() < 2 || countryCode.length() > 3
+                || !countryCode.chars().allMatch(Character::isLetter)) {
+            return false;
+        }
+        int prefixLength;
+        try {
+            prefixLength = Integer.parseInt(line.substring(slash + 1, comma).trim());
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+        if (prefixLength < 0 || prefixLength > network.bitLength()) {
+            return false;
+        }
+        (network.ipv4() ? ipv4 : ipv6).insert(network, prefixLength, countryCode);
+        return true;
+    }
+
+    private record FileVersion(long size, long lastModifiedMillis) {
+    }
+
+    private record Tables(CountryCidrTrie ipv4, CountryCidrTrie ipv6, FileVersion version) {
+    }
+}
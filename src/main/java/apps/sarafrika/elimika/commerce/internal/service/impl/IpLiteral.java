@@ -0,0 +1,147 @@
+package apps.sarafrika.elimika.commerce.internal.service.impl;
+
+/**
+ * An IPv4 or IPv6 address literal as 128 bits, most significant first. IPv4 addresses occupy the top
+ * 32 bits of {@code hi}; IPv4-mapped IPv6 addresses ({@code ::ffff:a.b.c.d}) are read as IPv4.
+ * <p>
+ * Parsing is done by hand rather than through {@link java.net.InetAddress}, which falls back to a
+ * DNS lookup for anything it does not recognise as a literal.
+ */
+record IpLiteral(long hi, long lo, boolean ipv4) {
+
+    int bitLength() {
+        return ipv4 ? 32 : 128;
+    }
+
+    /**
+     * @return the parsed address, or {@code null} when {@code text} is not an IPv4 or IPv6 literal
+     */
+    static IpLiteral parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        String value = text.trim();
+        if (value.startsWith("[") && value.endsWith("]")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        int zone = value.indexOf('%');
+        if (zone >= 0) {
+            value = value.substring(0, zone);
+        }
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (value.indexOf(':') < 0) {
+            long ipv4 = parseIpv4(value);
+            return ipv4 < 0 ? null : new IpLiteral(ipv4 << 32, 0L, true);
+        }
+        return parseIpv6(value);
+    }
+
+    /**
+     * @return the address as an unsigned 32-bit value, or {@code -1} when not a dotted quad
+     */
+    private static long parseIpv4(String value) {
+        long address = 0;
+        int octets = 0;
+        int octet = -1;
+        int digits = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            char c = i == value.length() ? '.' : value.charAt(i);
+            if (c == '.') {
+                if (digits == 0 || ++octets > 4) {
+                    return -1;
+                }
+                address = (address << 8) | octet;
+                octet = -1;
+                digits = 0;
+            } else if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    return -1;
+                }
+            } else {
+                return -1;
+            }
+        }
+        return octets == 4 ? address : -1;
+    }
+
+    private static IpLiteral parseIpv6(String value) {
+        int[] groups = new int[8];
+        int count = 0;
+        int compressAt = -1;
+
+        int start = 0;
+        if (value.startsWith("::")) {
+            compressAt = 0;
+            start = 2;
+        }
+        while (start < value.length()) {
+            int end = value.indexOf(':', start);
+            String group = end < 0 ? value.substring(start) : value.substring(start, end);
+
+            if (group.indexOf('.') >= 0) {
+                // Embedded IPv4 tail, only allowed as the last two groups.
+                long ipv4 = end < 0 ? parseIpv4(group) : -1;
+                if (ipv4 < 0 || count > 6) {
+                    return null;
+                }
+                groups[count++] = (int) (ipv4 >>> 16);
+                groups[count++] = (int) (ipv4 & 0xFFFF);
+                break;
+            }
+            if (group.isEmpty() || group.length() > 4 || count == 8) {
+                return null;
+            }
+            int parsed = 0;
+            for (int i = 0; i < group.length(); i++) {
+                int digit = Character.digit(group.charAt(i), 16);
+                if (digit < 0) {
+                    return null;
+                }
+                parsed = (parsed << 4) | digit;
+            }
+            groups[count++] = parsed;
+
+            if (end < 0) {
+                break;
+            }
+            if (end + 1 < value.length() && value.charAt(end + 1) == ':') {
+                if (compressAt >= 0) {
+                    return null;
+                }
+                compressAt = count;
+                start = end + 2;
+            } else if (end + 1 == value.length()) {
+                return null;
+            } else {
+                start = end + 1;
+            }
+        }
+
+        if (compressAt >= 0) {
+            if (count == 8) {
+                return null;
+            }
+            int tail = count - compressAt;
+            System.arraycopy(groups, compressAt, groups, 8 - tail, tail);
+            for (int i = compressAt; i < 8 - tail; i++) {
+                groups[i] = 0;
+            }
+        } else if (count != 8) {
+            return null;
+        }
+
+        long hi = 0;
+        long lo = 0;
+        for (int i = 0; i < 4; i++) {
+            hi = (hi << 16) | groups[i];
+            lo = (lo << 16) | groups[i + 4];
+        }
+        if (hi == 0 && (lo >>> 32) == 0xFFFFL) {
+            return new IpLiteral((lo & 0xFFFF_FFFFL) << 32, 0L, true);
+        }
+        return new IpLiteral(hi, lo, false);
+    }
+}
@@ -2,8 +2,9 @@ package apps.sarafrika.elimika.commerce.internal.service.impl;
 
 import apps.sarafrika.elimika.commerce.internal.config.InternalCommerceProperties;
 import apps.sarafrika.elimika.commerce.internal.service.RegionResolver;
+import apps.sarafrika.elimika.shared.utils.cache.ExpiringCache;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestClient;
@@ -11,12 +12,38 @@ import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Derives the commerce region from the caller's IP without ever waiting on the network.
+ * <p>
+ * The local {@link GeoIpCountryDatabase} answers first. Addresses it cannot place are looked up at
+ * the remote endpoint in the background and the answer, including "unknown", is remembered in a
+ * bounded cache; until it arrives the request falls back to the configured default region.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class RegionResolverImpl implements RegionResolver {
 
+    private static final String UNKNOWN_COUNTRY = "";
+    private static final int MAX_REMOTE_LOOKUPS_IN_FLIGHT = 16;
+
     private final InternalCommerceProperties internalCommerceProperties;
     private final RestClient geoRestClient;
+    private final GeoIpCountryDatabase geoIpCountryDatabase;
+    private final ExpiringCache<String, String> remoteCountries;
+    private final Set<String> remoteLookupsInFlight = ConcurrentHashMap.newKeySet();
+
+    RegionResolverImpl(InternalCommerceProperties internalCommerceProperties,
+                       RestClient geoRestClient,
+                       GeoIpCountryDatabase geoIpCountryDatabase) {
+        this.internalCommerceProperties = internalCommerceProperties;
+        this.geoRestClient = geoRestClient;
+        this.geoIpCountryDatabase = geoIpCountryDatabase;
+        this.remoteCountries = new ExpiringCache<>(
+                internalCommerceProperties.getGeoipCacheMaxSize(), internalCommerceProperties.getGeoipCacheTtl());
+    }
 
     @Override
     public String resolveRegionCode(String requestedRegion, String clientIp) {
@@ -40,6 +67,36 @@ public class RegionResolverImpl implements RegionResolver {
         if (!StringUtils.hasText(ip) || isLocalAddress(ip)) {
             return null;
         }
+        String offline = geoIpCountryDatabase.findCountry(ip);
+        if (offline != null) {
+            return offline;
+        }
+        String remembered = remoteCountries.get(ip);
+        if (remembered != null) {
+            return remembered.isEmpty() ? null : remembered;
+        }
+        lookUpRemotelyInBackground(ip);
+        return null;
+    }
+
+    private void lookUpRemotelyInBackground(String ip) {
+        if (remoteLookupsInFlight.size() >= MAX_REMOTE_LOOKUPS_IN_FLIGHT || !remoteLookupsInFlight.add(ip)) {
+            return;
+        }
+        Thread.ofVirtual().name("geoip-remote-lookup").start(() -> {
+            try {
+                remoteCountries.put(ip, fetchRemoteCountry(ip));
+            } finally {
+                remoteLookupsInFlight.remove(ip);
+            }
+        });
+    }
+
+    /**
+     * @return the country code, {@link #UNKNOWN_COUNTRY} when the endpoint answered without one, or
+     * {@code null} when the lookup failed and is worth retrying
+     */
+    private String fetchRemoteCountry(String ip) {
         try {
             String endpoint = internalCommerceProperties.getGeoipCountryEndpoint();
             String response = geoRestClient.get()
@@ -47,13 +104,11 @@ public class RegionResolverImpl implements RegionResolver {
                     .retrieve()
                     .body(String.class);
             String normalized = normalize(response);
-            if (isCountryCode(normalized)) {
-                return normalized;
-            }
-        } catch (Exception ignored) {
-            // Fail silently and fall back
+            return isCountryCode(normalized) ? normalized : UNKNOWN_COUNTRY;
+        } catch (Exception ex) {
+            log.debug("Remote GeoIP lookup failed for {}: {}", ip, ex.getMessage());
+            return null;
         }
-        return null;
     }
 
     private String extractClientIp() {
@@ -3,16 +3,36 @@ package apps.sarafrika.elimika.commerce.payment.internal;
 import apps.sarafrika.elimika.commerce.internal.entity.CommerceOrder;
 import apps.sarafrika.elimika.commerce.internal.enums.PaymentStatus;
 import apps.sarafrika.elimika.commerce.internal.repository.CommerceOrderRepository;
+import apps.sarafrika.elimika.commerce.payment.dto.PaymentStatusResponse;
 import apps.sarafrika.elimika.commerce.payment.service.OrderPaymentService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * Settles M-Pesa payments whose outcome never reached us through the browser.
@@ -27,25 +47,76 @@ import java.util.List;
  * unresolved after 90 seconds is re-queried every minute, and anything past five minutes is given up
  * on and its held seat released. A slower sweep would be useless to the person watching their phone
  * and would leave seats dead long after the buyer walked away.
+ *
+ * <h2>Concurrency</h2>
+ * Each order is settled on its own virtual thread, and at most {@code max-concurrency} of them talk
+ * to the gateway at once, so one slow response holds up one order rather than the whole sweep. No
+ * transaction spans the sweep: the status query captures in its own short transactions, and giving
+ * up on an order is a single conditional update that loses to a capture landing at the same moment.
+ * An order whose query fails is backed off exponentially, in memory, before it is asked about again.
+ * <p>
+ * Publishes {@code elimika.payment.reconciliation.sweep} (duration),
+ * {@code elimika.payment.reconciliation.lag} (age in seconds of the oldest unresolved order at the
+ * last sweep), {@code elimika.payment.reconciliation.backoff} (orders currently backed off) and
+ * {@code elimika.payment.reconciliation.orders} (tagged {@code outcome}).
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 class MpesaPaymentReconciliationScheduler {
 
     private static final int UNRESOLVED_AFTER_SECONDS = 90;
     private static final int GIVE_UP_AFTER_MINUTES = 5;
+    private static final String STATUS_CAPTURED = "CAPTURED";
 
     private final CommerceOrderRepository orderRepository;
     private final OrderPaymentService orderPaymentService;
+    private final Semaphore gatewayPermits;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final ConcurrentMap<UUID, Backoff> backoffs = new ConcurrentHashMap<>();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Timer sweepTimer;
+    private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+
+    MpesaPaymentReconciliationScheduler(
+            CommerceOrderRepository orderRepository,
+            OrderPaymentService orderPaymentService,
+            MeterRegistry meterRegistry,
+            @Value("${commerce.payment.reconciliation.max-concurrency:8}") int maxConcurrency,
+            @Value("${commerce.payment.reconciliation.backoff.initial:PT1M}") Duration initialBackoff,
+            @Value("${commerce.payment.reconciliation.backoff.max:PT10M}") Duration maxBackoff) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Reconciliation concurrency must be positive");
+        }
+        this.orderRepository = orderRepository;
+        this.orderPaymentService = orderPaymentService;
+        this.gatewayPermits = new Semaphore(maxConcurrency);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.sweepTimer = Timer.builder("elimika.payment.reconciliation.sweep")
+                .description("Time taken by one M-Pesa reconciliation sweep")
+                .register(meterRegistry);
+        Gauge.builder("elimika.payment.reconciliation.lag", lagSeconds, AtomicLong::get)
+                .description("Age in seconds of the oldest unresolved M-Pesa order at the last sweep")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("elimika.payment.reconciliation.backoff", backoffs, Map::size)
+                .description("Unresolved M-Pesa orders waiting out a backoff after a failed status query")
+                .register(meterRegistry);
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, Counter.builder("elimika.payment.reconciliation.orders")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .description("Unresolved M-Pesa orders handled by the reconciliation sweep")
+                    .register(meterRegistry));
+        }
+    }
 
     @Scheduled(
             initialDelayString = "${commerce.payment.reconciliation.initial-delay:PT60S}",
             fixedDelayString = "${commerce.payment.reconciliation.interval:PT60S}")
-    @Transactional
     void settleUnresolvedPayments() {
         try {
-            reconcile();
+            sweepTimer.record(this::reconcile);
         } catch (Exception ex) {
             // Never let a sweep kill the scheduler. Unresolved payments stay unresolved and the next
             // pass picks them up; a database that has gone away is not worth a stack trace a minute.
@@ -57,32 +128,120 @@ class MpesaPaymentReconciliationScheduler {
         LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
         List<CommerceOrder> unresolved = orderRepository
                 .findByPaymentStatusAndCheckoutRequestIdIsNotNullAndPlacedAtBefore(
-                        PaymentStatus.AWAITING_PAYMENT, now.minusSeconds(UNRESOLVED_AFTER_SECONDS));
+                        PaymentStatus.AWAITING_PAYMENT, now.minusSeconds(UNRESOLVED_AFTER_SECONDS))
+                .stream()
+                .filter(order -> order.getUuid() != null)
+                .toList();
+
+        // Orders that have settled or been given up on since the last sweep no longer need a backoff.
+        Set<UUID> unresolvedUuids = unresolved.stream().map(CommerceOrder::getUuid).collect(Collectors.toSet());
+        backoffs.keySet().retainAll(unresolvedUuids);
+        lagSeconds.set(unresolved.stream()
+                .map(CommerceOrder::getPlacedAt)
+                .filter(Objects::nonNull)
+                .min(LocalDateTime::compareTo)
+                .map(oldest -> Duration.between(oldest, now).toSeconds())
+                .orElse(0L));
 
         if (unresolved.isEmpty()) {
             return;
         }
 
-        for (CommerceOrder order : unresolved) {
-            String orderId = order.getUuid() == null ? null : order.getUuid().toString();
-            if (orderId == null) {
-                continue;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> settling = new ArrayList<>(unresolved.size());
+            for (CommerceOrder order : unresolved) {
+                settling.add(workers.submit(() -> settle(order, now)));
             }
-            try {
-                // Asking for the status is what captures it, so this is both the question and the
-                // settlement. Enrolment follows from the same event the browser path publishes.
-                orderPaymentService.getPaymentStatus(orderId);
-            } catch (Exception e) {
-                log.warn("Could not settle payment for order {}: {}", orderId, e.getMessage());
+            for (Future<?> future : settling) {
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    log.warn("M-Pesa reconciliation worker failed: {}", ex.getCause().getMessage());
+                }
             }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("M-Pesa reconciliation sweep interrupted; remaining orders wait for the next pass");
+        }
+    }
 
-            if (order.getPlacedAt() != null
-                    && order.getPlacedAt().isBefore(now.minusMinutes(GIVE_UP_AFTER_MINUTES))
-                    && order.getPaymentStatus() == PaymentStatus.AWAITING_PAYMENT) {
-                order.setPaymentStatus(PaymentStatus.CANCELED);
-                orderRepository.save(order);
-                log.info("Abandoned order {} past the STK window; its held seats will lapse", orderId);
-            }
+    private void settle(CommerceOrder order, LocalDateTime now) {
+        UUID orderUuid = order.getUuid();
+        Backoff backoff = backoffs.get(orderUuid);
+        Outcome outcome;
+        if (backoff != null && now.isBefore(backoff.retryAt())) {
+            outcome = Outcome.DEFERRED;
+        } else {
+            outcome = queryGateway(orderUuid, now);
+        }
+        record(outcome);
+        if (outcome == Outcome.CAPTURED) {
+            return;
+        }
+
+        if (order.getPlacedAt() != null
+                && order.getPlacedAt().isBefore(now.minusMinutes(GIVE_UP_AFTER_MINUTES))
+                && orderRepository.updatePaymentStatusIfCurrent(
+                        orderUuid, PaymentStatus.AWAITING_PAYMENT, PaymentStatus.CANCELED, now) > 0) {
+            backoffs.remove(orderUuid);
+            record(Outcome.ABANDONED);
+            log.info("Abandoned order {} past the STK window; its held seats will lapse", orderUuid);
+        }
+    }
+
+    private Outcome queryGateway(UUID orderUuid, LocalDateTime now) {
+        String orderId = orderUuid.toString();
+        try {
+            gatewayPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Outcome.DEFERRED;
+        }
+        try {
+            // Asking for the status is what captures it, so this is both the question and the
+            // settlement. Enrolment follows from the same event the browser path publishes.
+            PaymentStatusResponse response = orderPaymentService.getPaymentStatus(orderId);
+            backoffs.remove(orderUuid);
+            return response != null && STATUS_CAPTURED.equalsIgnoreCase(response.status())
+                    ? Outcome.CAPTURED
+                    : Outcome.PENDING;
+        } catch (Exception e) {
+            Backoff next = backoffs.merge(orderUuid, Backoff.first(now, initialBackoff),
+                    (previous, ignored) -> previous.next(now, initialBackoff, maxBackoff));
+            log.warn("Could not settle payment for order {} (attempt {}, next try after {}): {}",
+                    orderId, next.failures(), next.retryAt(), e.getMessage());
+            return Outcome.FAILED;
+        } finally {
+            gatewayPermits.release();
+        }
+    }
+
+    private void record(Outcome outcome) {
+        outcomes.get(outcome).increment();
+    }
+
+    private enum Outcome {
+        CAPTURED,
+        PENDING,
+        FAILED,
+        DEFERRED,
+        ABANDONED
+    }
+
+    /**
+     * Failed status queries for one order, and the earliest moment it is asked about again. The wait
+     * doubles with each failure, from {@code initial} up to {@code max}.
+     */
+    record Backoff(int failures, LocalDateTime retryAt) {
+
+        static Backoff first(LocalDateTime now, Duration initial) {
+            return new Backoff(1, now.plus(initial));
+        }
+
+        Backoff next(LocalDateTime now, Duration initial, Duration max) {
+            int attempts = failures + 1;
+            Duration delay = initial.multipliedBy(1L << Math.min(attempts - 1, 20));
+            return new Backoff(attempts, now.plus(delay.compareTo(max) > 0 ? max : delay));
         }
     }
 }
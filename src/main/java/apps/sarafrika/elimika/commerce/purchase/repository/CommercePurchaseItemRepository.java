@@ -49,6 +49,7 @@ public interface CommercePurchaseItemRepository extends JpaRepository<CommercePu
                 i.scope,
                 i.courseUuid,
                 i.classDefinitionUuid,
+                i.studentUuid,
                 i.platformFeeAmount,
                 i.creditedAmount
             )
@@ -73,6 +74,7 @@ public interface CommercePurchaseItemRepository extends JpaRepository<CommercePu
                 i.scope,
                 i.courseUuid,
                 i.classDefinitionUuid,
+                i.studentUuid,
                 i.platformFeeAmount,
                 i.creditedAmount
             )
@@ -99,6 +101,7 @@ public interface CommercePurchaseItemRepository extends JpaRepository<CommercePu
                 i.scope,
                 i.courseUuid,
                 i.classDefinitionUuid,
+                i.studentUuid,
                 i.platformFeeAmount,
                 i.creditedAmount
             )
@@ -125,6 +128,7 @@ public interface CommercePurchaseItemRepository extends JpaRepository<CommercePu
                 i.scope,
                 i.courseUuid,
                 i.classDefinitionUuid,
+                i.studentUuid,
                 i.platformFeeAmount,
                 i.creditedAmount
             )
@@ -393,4 +397,24 @@ public interface CommercePurchaseItemRepository extends JpaRepository<CommercePu
             @Param("orderId") String orderId,
             @Param("studentUuids") List<UUID> studentUuids
     );
+
+    /**
+     * Course and class purchases created after {@code createdAfter}, counted in one statement for the
+     * admin dashboard.
+     */
+    @Query("""
+            select count(i) filter (where i.scope = :course) as coursePurchases,
+                   count(i) filter (where i.scope = :classScope) as classPurchases
+            from CommercePurchaseItem i
+            where i.createdDate > :createdAfter
+            """)
+    DashboardCounts countForDashboard(@Param("createdAfter") LocalDateTime createdAfter,
+                                      @Param("course") PurchaseScope course,
+                                      @Param("classScope") PurchaseScope classScope);
+
+    interface DashboardCounts {
+        long getCoursePurchases();
+
+        long getClassPurchases();
+    }
 }
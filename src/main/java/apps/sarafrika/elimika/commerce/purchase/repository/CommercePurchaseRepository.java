@@ -20,6 +20,9 @@ public interface CommercePurchaseRepository extends JpaRepository<CommercePurcha
 
     long countByPaymentStatusIgnoreCase(String paymentStatus);
 
+    @Query("select min(cp.orderCreatedAt) from CommercePurchase cp where lower(cp.paymentStatus) = 'captured'")
+    Optional<OffsetDateTime> findEarliestCapturedOrderCreatedAt();
+
     @Query("SELECT COUNT(DISTINCT cp.customerEmail) FROM CommercePurchase cp WHERE cp.customerEmail IS NOT NULL")
     long countDistinctCustomers();
 
@@ -43,4 +46,29 @@ public interface CommercePurchaseRepository extends JpaRepository<CommercePurcha
             @Param("startDate") OffsetDateTime startDate,
             @Param("endDate") OffsetDateTime endDate
     );
+
+    /**
+     * Order and customer totals for the admin dashboard, counted in one pass over the table.
+     */
+    @Query("""
+            select count(cp) as total,
+                   count(cp) filter (where cp.createdDate > :createdAfter) as createdSince,
+                   count(cp) filter (where lower(cp.paymentStatus) = 'captured') as captured,
+                   count(distinct cp.customerEmail) as customers,
+                   count(distinct cp.customerEmail) filter (where cp.createdDate >= :createdAfter) as customersSince
+            from CommercePurchase cp
+            """)
+    DashboardCounts countForDashboard(@Param("createdAfter") LocalDateTime createdAfter);
+
+    interface DashboardCounts {
+        long getTotal();
+
+        long getCreatedSince();
+
+        long getCaptured();
+
+        long getCustomers();
+
+        long getCustomersSince();
+    }
 }
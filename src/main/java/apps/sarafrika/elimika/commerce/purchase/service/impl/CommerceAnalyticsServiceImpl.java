@@ -18,27 +18,20 @@ public class CommerceAnalyticsServiceImpl implements CommerceAnalyticsService {
 
     @Override
     public CommerceAnalyticsSnapshot captureSnapshot() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime thirtyDaysAgo = now.minusDays(30);
+        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
 
-        long totalOrders = commercePurchaseRepository.count();
-        long ordersLast30Days = commercePurchaseRepository.countByCreatedDateAfter(thirtyDaysAgo);
-        long capturedOrders = commercePurchaseRepository.countByPaymentStatusIgnoreCase("captured");
-        long uniqueCustomers = commercePurchaseRepository.countDistinctCustomers();
-        long newCustomersLast30Days = commercePurchaseRepository.countDistinctCustomersCreatedAfter(thirtyDaysAgo);
-        long coursePurchasesLast30Days = commercePurchaseItemRepository
-                .countByScopeAndCreatedDateAfter(PurchaseScope.COURSE, thirtyDaysAgo);
-        long classPurchasesLast30Days = commercePurchaseItemRepository
-                .countByScopeAndCreatedDateAfter(PurchaseScope.CLASS, thirtyDaysAgo);
+        CommercePurchaseRepository.DashboardCounts orders = commercePurchaseRepository.countForDashboard(thirtyDaysAgo);
+        CommercePurchaseItemRepository.DashboardCounts purchases = commercePurchaseItemRepository
+                .countForDashboard(thirtyDaysAgo, PurchaseScope.COURSE, PurchaseScope.CLASS);
 
         return new CommerceAnalyticsSnapshot(
-                totalOrders,
-                ordersLast30Days,
-                capturedOrders,
-                uniqueCustomers,
-                newCustomersLast30Days,
-                coursePurchasesLast30Days,
-                classPurchasesLast30Days
+                orders.getTotal(),
+                orders.getCreatedSince(),
+                orders.getCaptured(),
+                orders.getCustomers(),
+                orders.getCustomersSince(),
+                purchases.getCoursePurchases(),
+                purchases.getClassPurchases()
         );
     }
 }
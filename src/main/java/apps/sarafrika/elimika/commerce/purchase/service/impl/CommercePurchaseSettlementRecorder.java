@@ -2,10 +2,12 @@ package apps.sarafrika.elimika.commerce.purchase.service.impl;
 
 import apps.sarafrika.elimika.commerce.purchase.entity.CommercePurchaseItem;
 import apps.sarafrika.elimika.commerce.purchase.repository.CommercePurchaseItemRepository;
+import apps.sarafrika.elimika.shared.event.commerce.PurchaseSettlementRecordedEvent;
 import apps.sarafrika.elimika.shared.spi.revenue.PurchaseLineSettlement;
 import apps.sarafrika.elimika.shared.spi.revenue.PurchaseSettlementRecorder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -25,6 +27,7 @@ import org.springframework.util.StringUtils;
 public class CommercePurchaseSettlementRecorder implements PurchaseSettlementRecorder {
 
     private final CommercePurchaseItemRepository purchaseItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -49,6 +52,8 @@ public class CommercePurchaseSettlementRecorder implements PurchaseSettlementRec
         item.setCreditedAmount(settlement.creditedAmount());
         item.setRetainedAmount(settlement.retainedAmount());
         purchaseItemRepository.save(item);
+        eventPublisher.publishEvent(new PurchaseSettlementRecordedEvent(
+                settlement.orderId(), item.getPurchase().getOrderCreatedAt()));
 
         log.debug("Recorded settlement for order {} line {}: gross {}, fee {}, credited {}, retained {}",
                 settlement.orderId(), settlement.lineItemId(), settlement.grossAmount(),
@@ -9,6 +9,7 @@ import apps.sarafrika.elimika.shared.spi.revenue.CommerceSaleLineItemView;
 import apps.sarafrika.elimika.shared.spi.revenue.PurchaseScope;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -130,6 +131,11 @@ public class CommerceRevenueQueryServiceImpl implements CommerceRevenueQueryServ
         return purchaseItemRepository.findSalesByStudentUuids(startDate, endDate, paymentStatus, scope, studentUuids, pageable);
     }
 
+    @Override
+    public Optional<OffsetDateTime> findEarliestCapturedOrderCreatedAt() {
+        return purchaseRepository.findEarliestCapturedOrderCreatedAt();
+    }
+
     @Override
     public List<CommercePlatformFeeSummary> summarizePlatformFees(OffsetDateTime startDate, OffsetDateTime endDate) {
         return purchaseRepository.summarizePlatformFees(startDate, endDate);
@@ -0,0 +1,79 @@
+package apps.sarafrika.elimika.course.dto;
+
+import apps.sarafrika.elimika.course.util.enums.CourseGradeBookRecalculationStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(
+        name = "CourseGradeBookRecalculation",
+        description = "Course-wide gradebook recalculation running in the background, with its progress",
+        example = """
+        {
+            "uuid": "r1e2c3a4-5l6c-7u8l-9a10-abcdefghijkl",
+            "course_uuid": "c1o2u3r4-5s6e-7u8u-9i10-abcdefghijkl",
+            "assessment_uuid": "a1s2s3e4-5s6s-7m8e-9n10-abcdefghijkl",
+            "status": "running",
+            "total_enrollments": 2000,
+            "processed_enrollments": 500,
+            "progress_percentage": 25.00,
+            "started_at": "2026-10-17T09:00:00",
+            "created_date": "2026-10-17T08:59:58",
+            "created_by": "instructor@sarafrika.com"
+        }
+        """
+)
+public record CourseGradeBookRecalculationDTO(
+
+        @JsonProperty(value = "uuid", access = JsonProperty.Access.READ_ONLY)
+        UUID uuid,
+
+        @JsonProperty(value = "course_uuid", access = JsonProperty.Access.READ_ONLY)
+        UUID courseUuid,
+
+        @JsonProperty(value = "assessment_uuid", access = JsonProperty.Access.READ_ONLY)
+        UUID assessmentUuid,
+
+        @JsonProperty(value = "status", access = JsonProperty.Access.READ_ONLY)
+        CourseGradeBookRecalculationStatus status,
+
+        @JsonProperty(value = "total_enrollments", access = JsonProperty.Access.READ_ONLY)
+        Integer totalEnrollments,
+
+        @JsonProperty(value = "processed_enrollments", access = JsonProperty.Access.READ_ONLY)
+        Integer processedEnrollments,
+
+        @JsonProperty(value = "failure_message", access = JsonProperty.Access.READ_ONLY)
+        String failureMessage,
+
+        @JsonProperty(value = "started_at", access = JsonProperty.Access.READ_ONLY)
+        LocalDateTime startedAt,
+
+        @JsonProperty(value = "completed_at", access = JsonProperty.Access.READ_ONLY)
+        LocalDateTime completedAt,
+
+        @JsonProperty(value = "created_date", access = JsonProperty.Access.READ_ONLY)
+        LocalDateTime createdDate,
+
+        @JsonProperty(value = "created_by", access = JsonProperty.Access.READ_ONLY)
+        String createdBy
+) {
+
+    @JsonProperty(value = "progress_percentage", access = JsonProperty.Access.READ_ONLY)
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY, example = "25.00")
+    public BigDecimal getProgressPercentage() {
+        if (status == CourseGradeBookRecalculationStatus.COMPLETED) {
+            return new BigDecimal("100.00");
+        }
+        if (totalEnrollments == null || totalEnrollments <= 0 || processedEnrollments == null) {
+            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        }
+        return BigDecimal.valueOf(Math.min(processedEnrollments, totalEnrollments))
+                .multiply(BigDecimal.valueOf(100))
+                .divide(BigDecimal.valueOf(totalEnrollments), 2, RoundingMode.HALF_UP);
+    }
+}
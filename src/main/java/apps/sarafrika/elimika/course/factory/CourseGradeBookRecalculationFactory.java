@@ -0,0 +1,29 @@
+package apps.sarafrika.elimika.course.factory;
+
+import apps.sarafrika.elimika.course.dto.CourseGradeBookRecalculationDTO;
+import apps.sarafrika.elimika.course.model.CourseGradeBookRecalculation;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CourseGradeBookRecalculationFactory {
+
+    public static CourseGradeBookRecalculationDTO toDTO(CourseGradeBookRecalculation recalculation) {
+        if (recalculation == null) {
+            return null;
+        }
+        return new CourseGradeBookRecalculationDTO(
+                recalculation.getUuid(),
+                recalculation.getCourseUuid(),
+                recalculation.getAssessmentUuid(),
+                recalculation.getStatus(),
+                recalculation.getTotalEnrollments(),
+                recalculation.getProcessedEnrollments(),
+                recalculation.getFailureMessage(),
+                recalculation.getStartedAt(),
+                recalculation.getCompletedAt(),
+                recalculation.getCreatedDate(),
+                recalculation.getCreatedBy()
+        );
+    }
+}
@@ -0,0 +1,54 @@
+package apps.sarafrika.elimika.course.internal;
+
+import apps.sarafrika.elimika.course.model.Course;
+import apps.sarafrika.elimika.course.model.CourseCategoryMapping;
+import apps.sarafrika.elimika.course.model.TrainingProgram;
+import apps.sarafrika.elimika.shared.enums.CatalogueContentType;
+import apps.sarafrika.elimika.shared.event.search.CatalogueContentChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Announces every write to a course or its category mappings as a {@link CourseCatalogueChangedEvent},
+ * and every write to a course or training program as a {@link CatalogueContentChangedEvent}.
+ * <p>
+ * Courses change status from authoring, moderation, drafts and admin tooling, and mappings are
+ * rewritten on every course edit. Hooking the entities keeps derived views of the catalogue, such as
+ * the recommendation index and the catalogue search index, in step without each write path having to
+ * remember them.
+ * <p>
+ * Resolved by Hibernate through Spring's bean container, so the publisher is injected as usual.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseCatalogueChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCatalogueChanged(Object entity) {
+        switch (entity) {
+            case Course course -> courseChanged(course.getUuid());
+            case CourseCategoryMapping mapping -> courseChanged(mapping.getCourseUuid());
+            case TrainingProgram program -> eventPublisher.publishEvent(
+                    new CatalogueContentChangedEvent(CatalogueContentType.TRAINING_PROGRAM, program.getUuid()));
+            default -> {
+            }
+        }
+    }
+
+    private void courseChanged(UUID courseUuid) {
+        if (courseUuid != null) {
+            eventPublisher.publishEvent(new CourseCatalogueChangedEvent(courseUuid));
+            eventPublisher.publishEvent(new CatalogueContentChangedEvent(CatalogueContentType.COURSE, courseUuid));
+        }
+    }
+}
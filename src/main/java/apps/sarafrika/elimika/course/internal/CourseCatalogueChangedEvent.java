@@ -0,0 +1,12 @@
+package apps.sarafrika.elimika.course.internal;
+
+import java.util.UUID;
+
+/**
+ * A course row, or one of its category mappings, was created, updated or deleted. Published from
+ * inside the writing transaction; listeners that read the course back should wait for the commit.
+ *
+ * @param courseUuid the course that changed
+ */
+public record CourseCatalogueChangedEvent(UUID courseUuid) {
+}
@@ -1,5 +1,6 @@
 package apps.sarafrika.elimika.course.model;
 
+import apps.sarafrika.elimika.course.internal.CourseCatalogueChangeListener;
 import apps.sarafrika.elimika.shared.model.BaseEntity;
 import apps.sarafrika.elimika.course.util.converter.ContentStatusConverter;
 import apps.sarafrika.elimika.course.util.enums.ContentStatus;
@@ -20,6 +21,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "courses")
+@EntityListeners(CourseCatalogueChangeListener.class)
 public class Course extends BaseEntity {
 
     @Column(name = "name")
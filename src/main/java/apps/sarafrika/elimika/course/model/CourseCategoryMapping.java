@@ -1,5 +1,6 @@
 package apps.sarafrika.elimika.course.model;
 
+import apps.sarafrika.elimika.course.internal.CourseCatalogueChangeListener;
 import apps.sarafrika.elimika.shared.model.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
@@ -15,6 +16,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "course_category_mappings")
+@EntityListeners(CourseCatalogueChangeListener.class)
 @Builder
 public class CourseCategoryMapping extends BaseEntity {
 
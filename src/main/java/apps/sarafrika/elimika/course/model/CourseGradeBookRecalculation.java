@@ -0,0 +1,44 @@
+package apps.sarafrika.elimika.course.model;
+
+import apps.sarafrika.elimika.course.util.converter.CourseGradeBookRecalculationStatusConverter;
+import apps.sarafrika.elimika.course.util.enums.CourseGradeBookRecalculationStatus;
+import apps.sarafrika.elimika.shared.model.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "course_gradebook_recalculations")
+public class CourseGradeBookRecalculation extends BaseEntity {
+
+    @Column(name = "course_uuid")
+    private UUID courseUuid;
+
+    @Column(name = "assessment_uuid")
+    private UUID assessmentUuid;
+
+    @Column(name = "status")
+    @Convert(converter = CourseGradeBookRecalculationStatusConverter.class)
+    private CourseGradeBookRecalculationStatus status;
+
+    @Column(name = "total_enrollments")
+    private Integer totalEnrollments;
+
+    @Column(name = "processed_enrollments")
+    private Integer processedEnrollments;
+
+    @Column(name = "failure_message")
+    private String failureMessage;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
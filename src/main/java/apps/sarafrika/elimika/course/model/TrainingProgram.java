@@ -1,11 +1,13 @@
 package apps.sarafrika.elimika.course.model;
 
+import apps.sarafrika.elimika.course.internal.CourseCatalogueChangeListener;
 import apps.sarafrika.elimika.shared.model.BaseEntity;
 import apps.sarafrika.elimika.course.util.converter.ContentStatusConverter;
 import apps.sarafrika.elimika.course.util.enums.ContentStatus;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -21,6 +23,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "training_programs")
+@EntityListeners(CourseCatalogueChangeListener.class)
 public class TrainingProgram extends BaseEntity {
 
     @Column(name = "title")
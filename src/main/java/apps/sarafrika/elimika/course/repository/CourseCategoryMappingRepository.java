@@ -1,6 +1,7 @@
 package apps.sarafrika.elimika.course.repository;
 
 import apps.sarafrika.elimika.course.model.CourseCategoryMapping;
+import apps.sarafrika.elimika.course.util.enums.ContentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,6 +23,22 @@ public interface CourseCategoryMappingRepository extends JpaRepository<CourseCat
      */
     List<CourseCategoryMapping> findByCourseUuid(UUID courseUuid);
 
+    /**
+     * Find all category mappings for the given courses
+     */
+    List<CourseCategoryMapping> findByCourseUuidIn(Collection<UUID> courseUuids);
+
+    /**
+     * Get {@code [courseUuid, categoryUuid]} pairs for every course in the given status
+     */
+    @Query("""
+        SELECT ccm.courseUuid, ccm.categoryUuid
+        FROM CourseCategoryMapping ccm
+        JOIN Course c ON ccm.courseUuid = c.uuid
+        WHERE c.status = :status
+        """)
+    List<Object[]> findCourseCategoryPairsByCourseStatus(@Param("status") ContentStatus status);
+
     /**
      * Find all course mappings for a specific category
      */
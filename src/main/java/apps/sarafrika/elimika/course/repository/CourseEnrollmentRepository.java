@@ -36,6 +36,8 @@ public interface CourseEnrollmentRepository extends JpaRepository<CourseEnrollme
 
     List<CourseEnrollment> findByCourseUuid(UUID courseUuid);
 
+    long countByCourseUuid(UUID courseUuid);
+
     boolean existsByCourseUuidAndStatusIn(UUID courseUuid, List<EnrollmentStatus> statuses);
 
     long countByStatus(EnrollmentStatus status);
@@ -62,4 +64,33 @@ public interface CourseEnrollmentRepository extends JpaRepository<CourseEnrollme
             """)
     List<UUID> findCourseUuidsByStudentUuidAndStatusIn(@Param("studentUuid") UUID studentUuid,
                                                        @Param("statuses") Collection<EnrollmentStatus> statuses);
+
+    /**
+     * Enrolment totals for the admin dashboard, counted in one pass over the table. The average
+     * progress is null when no enrolment has any.
+     */
+    @Query("""
+            select count(ce) as total,
+                   count(ce) filter (where ce.status = :active) as active,
+                   count(ce) filter (where ce.enrollmentDate > :enrolledAfter) as enrolledSince,
+                   count(ce) filter (where ce.status = :completed and ce.completionDate > :completedAfter) as completedSince,
+                   avg(ce.progressPercentage) as averageProgress
+            from CourseEnrollment ce
+            """)
+    DashboardCounts countForDashboard(@Param("active") EnrollmentStatus active,
+                                      @Param("enrolledAfter") LocalDateTime enrolledAfter,
+                                      @Param("completed") EnrollmentStatus completed,
+                                      @Param("completedAfter") LocalDateTime completedAfter);
+
+    interface DashboardCounts {
+        long getTotal();
+
+        long getActive();
+
+        long getEnrolledSince();
+
+        long getCompletedSince();
+
+        Double getAverageProgress();
+    }
 }
@@ -0,0 +1,82 @@
+package apps.sarafrika.elimika.course.repository;
+
+import apps.sarafrika.elimika.course.model.CourseGradeBookRecalculation;
+import apps.sarafrika.elimika.course.util.enums.CourseGradeBookRecalculationStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CourseGradeBookRecalculationRepository extends JpaRepository<CourseGradeBookRecalculation, Long> {
+
+    Optional<CourseGradeBookRecalculation> findByUuid(UUID uuid);
+
+    Optional<CourseGradeBookRecalculation> findByUuidAndCourseUuid(UUID uuid, UUID courseUuid);
+
+    Page<CourseGradeBookRecalculation> findByCourseUuid(UUID courseUuid, Pageable pageable);
+
+    Optional<CourseGradeBookRecalculation> findFirstByCourseUuidAndAssessmentUuidAndStatus(
+            UUID courseUuid, UUID assessmentUuid, CourseGradeBookRecalculationStatus status);
+
+    @Query("select r.uuid from CourseGradeBookRecalculation r where r.status = :status order by r.createdDate")
+    List<UUID> findUuidsByStatus(@Param("status") CourseGradeBookRecalculationStatus status);
+
+    /**
+     * Moves a queued recalculation to running. Returns 0 when another worker claimed it first.
+     */
+    @Modifying
+    @Query("""
+            update CourseGradeBookRecalculation r
+            set r.status = :running, r.startedAt = :now, r.processedEnrollments = 0, r.lastModifiedDate = :now
+            where r.uuid = :uuid and r.status = :queued
+            """)
+    int claim(@Param("uuid") UUID uuid,
+              @Param("queued") CourseGradeBookRecalculationStatus queued,
+              @Param("running") CourseGradeBookRecalculationStatus running,
+              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update CourseGradeBookRecalculation r
+            set r.processedEnrollments = :processed, r.lastModifiedDate = :now
+            where r.uuid = :uuid
+            """)
+    int updateProgress(@Param("uuid") UUID uuid, @Param("processed") int processed, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update CourseGradeBookRecalculation r
+            set r.status = :status, r.processedEnrollments = :processed, r.failureMessage = :failureMessage,
+                r.completedAt = :now, r.lastModifiedDate = :now
+            where r.uuid = :uuid
+            """)
+    int finish(@Param("uuid") UUID uuid,
+               @Param("status") CourseGradeBookRecalculationStatus status,
+               @Param("processed") int processed,
+               @Param("failureMessage") String failureMessage,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Returns running recalculations whose worker has not reported progress since {@code staleBefore}
+     * to the queue, so they are picked up again.
+     */
+    @Modifying
+    @Query("""
+            update CourseGradeBookRecalculation r
+            set r.status = :queued, r.lastModifiedDate = :now
+            where r.status = :running and r.lastModifiedDate < :staleBefore
+            """)
+    int requeueStale(@Param("running") CourseGradeBookRecalculationStatus running,
+                     @Param("queued") CourseGradeBookRecalculationStatus queued,
+                     @Param("staleBefore") LocalDateTime staleBefore,
+                     @Param("now") LocalDateTime now);
+}
@@ -33,4 +33,36 @@ public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecif
 
     @Query("select c.uuid from Course c where c.courseCreatorUuid = :courseCreatorUuid")
     List<UUID> findUuidsByCourseCreatorUuid(@Param("courseCreatorUuid") UUID courseCreatorUuid);
+
+    /** {@code [uuid, difficultyUuid, createdDate]} of every course in the given status, for the recommendation index. */
+    @Query("select c.uuid, c.difficultyUuid, c.createdDate from Course c where c.status = :status")
+    List<Object[]> findRecommendationRowsByStatus(@Param("status") ContentStatus status);
+
+    /**
+     * Course totals for the admin dashboard, counted in one pass over the table.
+     */
+    @Query("""
+            select count(c) as total,
+                   count(c) filter (where c.status = :published) as published,
+                   count(c) filter (where c.status = :inReview) as inReview,
+                   count(c) filter (where c.status = :draft) as draft,
+                   count(c) filter (where c.status = :archived) as archived
+            from Course c
+            """)
+    DashboardCounts countForDashboard(@Param("published") ContentStatus published,
+                                      @Param("inReview") ContentStatus inReview,
+                                      @Param("draft") ContentStatus draft,
+                                      @Param("archived") ContentStatus archived);
+
+    interface DashboardCounts {
+        long getTotal();
+
+        long getPublished();
+
+        long getInReview();
+
+        long getDraft();
+
+        long getArchived();
+    }
 }
@@ -6,6 +6,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -39,4 +41,21 @@ public interface ProgramEnrollmentRepository extends JpaRepository<ProgramEnroll
     long countByStatusAndCompletionDateAfter(EnrollmentStatus status, LocalDateTime completionDate);
 
     Page<ProgramEnrollment> findByStudentUuid(UUID studentUuid, Pageable pageable);
+
+    /**
+     * Programme enrolment totals for the admin dashboard, counted in one pass over the table.
+     */
+    @Query("""
+            select count(pe) as total,
+                   count(pe) filter (where pe.status = :completed and pe.completionDate > :completedAfter) as completedSince
+            from ProgramEnrollment pe
+            """)
+    DashboardCounts countForDashboard(@Param("completed") EnrollmentStatus completed,
+                                      @Param("completedAfter") LocalDateTime completedAfter);
+
+    interface DashboardCounts {
+        long getTotal();
+
+        long getCompletedSince();
+    }
 }
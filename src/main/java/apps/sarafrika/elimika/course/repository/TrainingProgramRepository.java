@@ -5,6 +5,7 @@ import apps.sarafrika.elimika.course.model.TrainingProgram;
 import apps.sarafrika.elimika.course.util.enums.ContentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
@@ -39,4 +40,23 @@ public interface TrainingProgramRepository extends JpaRepository<TrainingProgram
     long countByIsPublishedTrue();
 
     long countByStatus(ContentStatus status);
+
+    /**
+     * Programme totals for the admin dashboard, counted in one pass over the table.
+     */
+    @Query("""
+            select count(tp) as total,
+                   count(tp) filter (where tp.isPublished = true) as published,
+                   count(tp) filter (where tp.active = true) as active
+            from TrainingProgram tp
+            """)
+    DashboardCounts countForDashboard();
+
+    interface DashboardCounts {
+        long getTotal();
+
+        long getPublished();
+
+        long getActive();
+    }
 }
@@ -0,0 +1,28 @@
+package apps.sarafrika.elimika.course.service;
+
+import apps.sarafrika.elimika.course.dto.CourseGradeBookRecalculationDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CourseGradeBookRecalculationService {
+
+    /**
+     * Recalculates an assessment component and the final grade of every enrollment in the course.
+     * Small courses are recalculated within the calling transaction and nothing is returned; larger
+     * ones are queued and the queued recalculation is returned so its progress can be followed.
+     */
+    Optional<CourseGradeBookRecalculationDTO> recalculateAssessment(UUID courseUuid, UUID assessmentUuid);
+
+    /**
+     * Queues a course-wide recalculation of an assessment component regardless of course size,
+     * reusing one already queued for the same component.
+     */
+    CourseGradeBookRecalculationDTO requestRecalculation(UUID courseUuid, UUID assessmentUuid);
+
+    CourseGradeBookRecalculationDTO getRecalculation(UUID courseUuid, UUID recalculationUuid);
+
+    Page<CourseGradeBookRecalculationDTO> getRecalculations(UUID courseUuid, Pageable pageable);
+}
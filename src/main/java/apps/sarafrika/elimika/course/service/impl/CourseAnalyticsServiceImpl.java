@@ -8,11 +8,14 @@ import apps.sarafrika.elimika.shared.spi.analytics.CourseAnalyticsService;
 import apps.sarafrika.elimika.shared.spi.analytics.CourseAnalyticsSnapshot;
 import apps.sarafrika.elimika.course.util.enums.ContentStatus;
 import apps.sarafrika.elimika.course.util.enums.EnrollmentStatus;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+/**
+ * Catalogue and enrolment figures for the admin dashboard. Each table is read once, with every
+ * figure drawn from it computed as a filtered aggregate of the same statement.
+ */
 @Service
 @RequiredArgsConstructor
 public class CourseAnalyticsServiceImpl implements CourseAnalyticsService {
@@ -28,45 +31,32 @@ public class CourseAnalyticsServiceImpl implements CourseAnalyticsService {
         LocalDateTime thirtyDaysAgo = now.minusDays(30);
         LocalDateTime sevenDaysAgo = now.minusDays(7);
 
-        long totalCourses = courseRepository.count();
-        long publishedCourses = courseRepository.countByStatus(ContentStatus.PUBLISHED);
-        long inReviewCourses = courseRepository.countByStatus(ContentStatus.IN_REVIEW);
-        long draftCourses = courseRepository.countByStatus(ContentStatus.DRAFT);
-        long archivedCourses = courseRepository.countByStatus(ContentStatus.ARCHIVED);
+        CourseRepository.DashboardCounts courses = courseRepository.countForDashboard(
+                ContentStatus.PUBLISHED, ContentStatus.IN_REVIEW, ContentStatus.DRAFT, ContentStatus.ARCHIVED);
+        CourseEnrollmentRepository.DashboardCounts courseEnrollments = courseEnrollmentRepository.countForDashboard(
+                EnrollmentStatus.ACTIVE, sevenDaysAgo, EnrollmentStatus.COMPLETED, thirtyDaysAgo);
+        TrainingProgramRepository.DashboardCounts programs = trainingProgramRepository.countForDashboard();
+        ProgramEnrollmentRepository.DashboardCounts programEnrollments = programEnrollmentRepository
+                .countForDashboard(EnrollmentStatus.COMPLETED, thirtyDaysAgo);
 
-        long totalCourseEnrollments = courseEnrollmentRepository.count();
-        long activeCourseEnrollments = courseEnrollmentRepository.countByStatus(EnrollmentStatus.ACTIVE);
-        long newCourseEnrollments7d = courseEnrollmentRepository.countByEnrollmentDateAfter(sevenDaysAgo);
-        long completedCourseEnrollments30d = courseEnrollmentRepository
-                .countByStatusAndCompletionDateAfter(EnrollmentStatus.COMPLETED, thirtyDaysAgo);
-
-        BigDecimal averageProgressRaw = courseEnrollmentRepository.calculateAverageProgressPercentage();
-        double averageCourseProgress = averageProgressRaw == null ? 0.0 : averageProgressRaw.doubleValue();
-
-        long totalTrainingPrograms = trainingProgramRepository.count();
-        long publishedTrainingPrograms = trainingProgramRepository.countByIsPublishedTrue();
-        long activeTrainingPrograms = trainingProgramRepository.countByActiveTrue();
-
-        long programEnrollments = programEnrollmentRepository.count();
-        long completedProgramEnrollments30d = programEnrollmentRepository
-                .countByStatusAndCompletionDateAfter(EnrollmentStatus.COMPLETED, thirtyDaysAgo);
+        Double averageProgress = courseEnrollments.getAverageProgress();
 
         return new CourseAnalyticsSnapshot(
-                totalCourses,
-                publishedCourses,
-                inReviewCourses,
-                draftCourses,
-                archivedCourses,
-                totalCourseEnrollments,
-                activeCourseEnrollments,
-                newCourseEnrollments7d,
-                completedCourseEnrollments30d,
-                averageCourseProgress,
-                totalTrainingPrograms,
-                publishedTrainingPrograms,
-                activeTrainingPrograms,
-                programEnrollments,
-                completedProgramEnrollments30d
+                courses.getTotal(),
+                courses.getPublished(),
+                courses.getInReview(),
+                courses.getDraft(),
+                courses.getArchived(),
+                courseEnrollments.getTotal(),
+                courseEnrollments.getActive(),
+                courseEnrollments.getEnrolledSince(),
+                courseEnrollments.getCompletedSince(),
+                averageProgress == null ? 0.0 : averageProgress,
+                programs.getTotal(),
+                programs.getPublished(),
+                programs.getActive(),
+                programEnrollments.getTotal(),
+                programEnrollments.getCompletedSince()
         );
     }
 }
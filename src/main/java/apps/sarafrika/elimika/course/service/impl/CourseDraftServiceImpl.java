@@ -2,7 +2,6 @@ package apps.sarafrika.elimika.course.service.impl;
 
 import apps.sarafrika.elimika.course.dto.CourseEditDiffDTO;
 import apps.sarafrika.elimika.course.model.Assignment;
-import apps.sarafrika.elimika.course.model.AssignmentAttachment;
 import apps.sarafrika.elimika.course.model.Course;
 import apps.sarafrika.elimika.course.model.CourseAssessment;
 import apps.sarafrika.elimika.course.model.CourseAssessmentLineItem;
@@ -12,11 +11,8 @@ import apps.sarafrika.elimika.course.model.CourseTrainingRequirement;
 import apps.sarafrika.elimika.course.model.CourseVersionSnapshot;
 import apps.sarafrika.elimika.course.model.Lesson;
 import apps.sarafrika.elimika.course.model.LessonContent;
-import apps.sarafrika.elimika.course.model.LessonPracticeActivity;
 import apps.sarafrika.elimika.course.model.Quiz;
 import apps.sarafrika.elimika.course.model.QuizQuestion;
-import apps.sarafrika.elimika.course.model.QuizQuestionOption;
-import apps.sarafrika.elimika.course.repository.AssignmentAttachmentRepository;
 import apps.sarafrika.elimika.course.repository.AssignmentRepository;
 import apps.sarafrika.elimika.course.repository.CourseAssessmentLineItemRepository;
 import apps.sarafrika.elimika.course.repository.CourseAssessmentRepository;
@@ -26,9 +22,7 @@ import apps.sarafrika.elimika.course.repository.CourseRequirementRepository;
 import apps.sarafrika.elimika.course.repository.CourseTrainingRequirementRepository;
 import apps.sarafrika.elimika.course.repository.CourseVersionSnapshotRepository;
 import apps.sarafrika.elimika.course.repository.LessonContentRepository;
-import apps.sarafrika.elimika.course.repository.LessonPracticeActivityRepository;
 import apps.sarafrika.elimika.course.repository.LessonRepository;
-import apps.sarafrika.elimika.course.repository.QuizQuestionOptionRepository;
 import apps.sarafrika.elimika.course.repository.QuizQuestionRepository;
 import apps.sarafrika.elimika.course.repository.QuizRepository;
 import apps.sarafrika.elimika.course.service.CourseDraftService;
@@ -41,19 +35,17 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -62,7 +54,8 @@ import java.util.stream.Collectors;
  * Cloning a course produces a shadow course row plus a copy of every authoring row beneath
  * it. Learner data (progress, attempts, submissions) and class scheduling rows are never
  * cloned — they stay bound to the live tree, which is why promotion updates live rows in
- * place rather than swapping them.
+ * place rather than swapping them. Everything beneath the course row is cloned and promoted
+ * in bulk by {@link CourseTreeCopier}.
  */
 @Service
 @RequiredArgsConstructor
@@ -76,17 +69,17 @@ public class CourseDraftServiceImpl implements CourseDraftService {
     private final LessonContentRepository lessonContentRepository;
     private final QuizRepository quizRepository;
     private final QuizQuestionRepository quizQuestionRepository;
-    private final QuizQuestionOptionRepository quizQuestionOptionRepository;
     private final AssignmentRepository assignmentRepository;
-    private final AssignmentAttachmentRepository assignmentAttachmentRepository;
-    private final LessonPracticeActivityRepository practiceActivityRepository;
     private final CourseAssessmentRepository assessmentRepository;
     private final CourseAssessmentLineItemRepository lineItemRepository;
     private final CourseRequirementRepository requirementRepository;
     private final CourseTrainingRequirementRepository trainingRequirementRepository;
     private final CourseVersionSnapshotRepository snapshotRepository;
+    private final CourseTreeCopier treeCopier;
+    private final AuditorAware<String> auditorAware;
     private final ObjectMapper objectMapper;
 
+    private static final String SYSTEM_AUDITOR = "SYSTEM";
     private static final String COURSE_NOT_FOUND = "Course not found with UUID: %s";
     private static final String DRAFT_NOT_FOUND = "No open draft edit for course: %s";
 
@@ -113,12 +106,10 @@ public class CourseDraftServiceImpl implements CourseDraftService {
         draft = courseRepository.save(draft);
 
         cloneCategories(live.getUuid(), draft.getUuid());
-        cloneLessonTree(live.getUuid(), draft.getUuid());
-        cloneAssessments(live.getUuid(), draft.getUuid());
-        cloneRequirements(live.getUuid(), draft.getUuid());
-        cloneTrainingRequirements(live.getUuid(), draft.getUuid());
+        CourseTreeCopier.Result copied = treeCopier.cloneTree(live.getUuid(), draft.getUuid(), currentAuditor());
 
-        log.info("Opened draft {} for live course {}", draft.getUuid(), liveCourseUuid);
+        log.info("Opened draft {} for live course {} ({} rows copied in {} statements)",
+                draft.getUuid(), liveCourseUuid, copied.rows(), copied.statements());
         return draft;
     }
 
@@ -141,17 +132,16 @@ public class CourseDraftServiceImpl implements CourseDraftService {
         courseRepository.save(live);
 
         promoteCategories(draft.getUuid(), live.getUuid());
-        promoteLessons(draft.getUuid(), live.getUuid());
-        promoteAssessments(draft.getUuid(), live.getUuid());
-        promoteRequirements(draft.getUuid(), live.getUuid());
-        promoteTrainingRequirements(draft.getUuid(), live.getUuid());
+        // Clears the persistence context: entities loaded so far no longer match their rows.
+        CourseTreeCopier.Result promoted = treeCopier.promoteTree(draft.getUuid(), live.getUuid(), currentAuditor());
 
         // Snapshot the resulting live tree before the draft goes away, so the version
         // history records what actually went live rather than what was proposed.
         writeSnapshot(live.getUuid(), pendingEditUuid);
 
         courseRepository.delete(draft);
-        log.info("Promoted draft {} onto live course {}", draft.getUuid(), liveCourseUuid);
+        log.info("Promoted draft {} onto live course {} ({} rows written in {} statements)",
+                draft.getUuid(), liveCourseUuid, promoted.rows(), promoted.statements());
     }
 
     @Override
@@ -173,128 +163,6 @@ public class CourseDraftServiceImpl implements CourseDraftService {
         }
     }
 
-    private void cloneLessonTree(UUID liveCourseUuid, UUID draftCourseUuid) {
-        for (Lesson liveLesson : lessonRepository.findByCourseUuidOrderByLessonNumberAsc(liveCourseUuid)) {
-            Lesson draftLesson = new Lesson();
-            copyLessonFields(liveLesson, draftLesson);
-            draftLesson.setCourseUuid(draftCourseUuid);
-            draftLesson.setSourceLessonUuid(liveLesson.getUuid());
-            draftLesson = lessonRepository.save(draftLesson);
-
-            cloneLessonContent(liveLesson.getUuid(), draftLesson.getUuid());
-            cloneQuizzes(liveLesson.getUuid(), draftLesson.getUuid());
-            cloneAssignments(liveLesson.getUuid(), draftLesson.getUuid());
-            clonePracticeActivities(liveLesson.getUuid(), draftLesson.getUuid());
-        }
-    }
-
-    private void cloneLessonContent(UUID liveLessonUuid, UUID draftLessonUuid) {
-        for (LessonContent liveContent : lessonContentRepository.findByLessonUuidOrderByDisplayOrderAsc(liveLessonUuid)) {
-            LessonContent copy = new LessonContent();
-            copyContentFields(liveContent, copy);
-            copy.setLessonUuid(draftLessonUuid);
-            copy.setSourceContentUuid(liveContent.getUuid());
-            lessonContentRepository.save(copy);
-        }
-    }
-
-    private void cloneQuizzes(UUID liveLessonUuid, UUID draftLessonUuid) {
-        for (Quiz liveQuiz : quizRepository.findByLessonUuid(liveLessonUuid)) {
-            Quiz draftQuiz = new Quiz();
-            copyQuizFields(liveQuiz, draftQuiz);
-            draftQuiz.setLessonUuid(draftLessonUuid);
-            draftQuiz.setSourceQuizUuid(liveQuiz.getUuid());
-            draftQuiz = quizRepository.save(draftQuiz);
-
-            for (QuizQuestion liveQuestion : quizQuestionRepository.findByQuizUuidOrderByDisplayOrderAsc(liveQuiz.getUuid())) {
-                QuizQuestion draftQuestion = new QuizQuestion();
-                copyQuestionFields(liveQuestion, draftQuestion);
-                draftQuestion.setQuizUuid(draftQuiz.getUuid());
-                draftQuestion.setSourceQuestionUuid(liveQuestion.getUuid());
-                draftQuestion = quizQuestionRepository.save(draftQuestion);
-
-                for (QuizQuestionOption liveOption :
-                        quizQuestionOptionRepository.findByQuestionUuidOrderByDisplayOrderAsc(liveQuestion.getUuid())) {
-                    QuizQuestionOption draftOption = new QuizQuestionOption();
-                    copyOptionFields(liveOption, draftOption);
-                    draftOption.setQuestionUuid(draftQuestion.getUuid());
-                    draftOption.setSourceOptionUuid(liveOption.getUuid());
-                    quizQuestionOptionRepository.save(draftOption);
-                }
-            }
-        }
-    }
-
-    private void cloneAssignments(UUID liveLessonUuid, UUID draftLessonUuid) {
-        for (Assignment liveAssignment : assignmentRepository.findByLessonUuid(liveLessonUuid)) {
-            Assignment draftAssignment = new Assignment();
-            copyAssignmentFields(liveAssignment, draftAssignment);
-            draftAssignment.setLessonUuid(draftLessonUuid);
-            draftAssignment.setSourceAssignmentUuid(liveAssignment.getUuid());
-            draftAssignment = assignmentRepository.save(draftAssignment);
-
-            // Attachments carry no learner references, so they are copied wholesale and
-            // replaced wholesale on promotion.
-            for (AssignmentAttachment liveAttachment :
-                    assignmentAttachmentRepository.findByAssignmentUuid(liveAssignment.getUuid())) {
-                AssignmentAttachment copy = new AssignmentAttachment();
-                copyAttachmentFields(liveAttachment, copy);
-                copy.setAssignmentUuid(draftAssignment.getUuid());
-                assignmentAttachmentRepository.save(copy);
-            }
-        }
-    }
-
-    private void clonePracticeActivities(UUID liveLessonUuid, UUID draftLessonUuid) {
-        for (LessonPracticeActivity liveActivity :
-                practiceActivityRepository.findByLessonUuidOrderByDisplayOrderAsc(liveLessonUuid)) {
-            LessonPracticeActivity copy = new LessonPracticeActivity();
-            copyPracticeActivityFields(liveActivity, copy);
-            copy.setLessonUuid(draftLessonUuid);
-            practiceActivityRepository.save(copy);
-        }
-    }
-
-    private void cloneAssessments(UUID liveCourseUuid, UUID draftCourseUuid) {
-        for (CourseAssessment liveAssessment :
-                assessmentRepository.findByCourseUuidOrderByCreatedDateAsc(liveCourseUuid)) {
-            CourseAssessment draftAssessment = new CourseAssessment();
-            copyAssessmentFields(liveAssessment, draftAssessment);
-            draftAssessment.setCourseUuid(draftCourseUuid);
-            draftAssessment.setSourceAssessmentUuid(liveAssessment.getUuid());
-            draftAssessment = assessmentRepository.save(draftAssessment);
-
-            for (CourseAssessmentLineItem liveItem :
-                    lineItemRepository.findByCourseAssessmentUuidOrderByDisplayOrderAscCreatedDateAsc(liveAssessment.getUuid())) {
-                CourseAssessmentLineItem draftItem = new CourseAssessmentLineItem();
-                copyLineItemFields(liveItem, draftItem);
-                draftItem.setCourseAssessmentUuid(draftAssessment.getUuid());
-                draftItem.setSourceLineItemUuid(liveItem.getUuid());
-                lineItemRepository.save(draftItem);
-            }
-        }
-    }
-
-    private void cloneRequirements(UUID liveCourseUuid, UUID draftCourseUuid) {
-        for (CourseRequirement live : requirementRepository.findByCourseUuid(liveCourseUuid)) {
-            CourseRequirement copy = new CourseRequirement();
-            copyRequirementFields(live, copy);
-            copy.setCourseUuid(draftCourseUuid);
-            copy.setSourceRequirementUuid(live.getUuid());
-            requirementRepository.save(copy);
-        }
-    }
-
-    private void cloneTrainingRequirements(UUID liveCourseUuid, UUID draftCourseUuid) {
-        for (CourseTrainingRequirement live : trainingRequirementRepository.findByCourseUuid(liveCourseUuid)) {
-            CourseTrainingRequirement copy = new CourseTrainingRequirement();
-            copyTrainingRequirementFields(live, copy);
-            copy.setCourseUuid(draftCourseUuid);
-            copy.setSourceRequirementUuid(live.getUuid());
-            trainingRequirementRepository.save(copy);
-        }
-    }
-
     // ---------------------------------------------------------------- promotion
 
     private void promoteCategories(UUID draftCourseUuid, UUID liveCourseUuid) {
@@ -322,338 +190,6 @@ public class CourseDraftServiceImpl implements CourseDraftService {
                 });
     }
 
-    /**
-     * Reconciles the live lesson tree against the draft. Never deletes: a lesson the edit
-     * removed is deactivated instead, because lesson_progress and content_progress reference
-     * these rows with RESTRICT and learners keep their completion history.
-     */
-    private void promoteLessons(UUID draftCourseUuid, UUID liveCourseUuid) {
-        List<Lesson> draftLessons = lessonRepository.findByCourseUuidOrderByLessonNumberAsc(draftCourseUuid);
-        Map<UUID, Lesson> liveLessons = lessonRepository.findByCourseUuidOrderByLessonNumberAsc(liveCourseUuid).stream()
-                .collect(Collectors.toMap(Lesson::getUuid, Function.identity(), (a, b) -> a, HashMap::new));
-
-        Set<UUID> retained = new LinkedHashSet<>();
-
-        for (Lesson draftLesson : draftLessons) {
-            Lesson target = draftLesson.getSourceLessonUuid() == null
-                    ? null
-                    : liveLessons.get(draftLesson.getSourceLessonUuid());
-
-            if (target == null) {
-                target = new Lesson();
-                target.setCourseUuid(liveCourseUuid);
-            }
-            copyLessonFields(draftLesson, target);
-            target.setCourseUuid(liveCourseUuid);
-            target.setSourceLessonUuid(null);
-            target = lessonRepository.save(target);
-            retained.add(target.getUuid());
-
-            promoteContent(draftLesson.getUuid(), target.getUuid());
-            promoteQuizzes(draftLesson.getUuid(), target.getUuid());
-            promoteAssignments(draftLesson.getUuid(), target.getUuid());
-            promotePracticeActivities(draftLesson.getUuid(), target.getUuid());
-        }
-
-        deactivateRemoved(liveLessons.values(), retained);
-    }
-
-    private void deactivateRemoved(Iterable<Lesson> liveLessons, Set<UUID> retained) {
-        for (Lesson liveLesson : liveLessons) {
-            if (!retained.contains(liveLesson.getUuid()) && !Boolean.FALSE.equals(liveLesson.getActive())) {
-                liveLesson.setActive(false);
-                lessonRepository.save(liveLesson);
-                log.debug("Deactivated lesson {} removed by an approved edit", liveLesson.getUuid());
-            }
-        }
-    }
-
-    private void promoteContent(UUID draftLessonUuid, UUID liveLessonUuid) {
-        List<LessonContent> draftContent = lessonContentRepository.findByLessonUuidOrderByDisplayOrderAsc(draftLessonUuid);
-        Map<UUID, LessonContent> liveContent =
-                lessonContentRepository.findByLessonUuidOrderByDisplayOrderAsc(liveLessonUuid).stream()
-                        .collect(Collectors.toMap(LessonContent::getUuid, Function.identity(), (a, b) -> a, HashMap::new));
-
-        Set<UUID> retained = new LinkedHashSet<>();
-        for (LessonContent draft : draftContent) {
-            LessonContent target = draft.getSourceContentUuid() == null
-                    ? null
-                    : liveContent.get(draft.getSourceContentUuid());
-            if (target == null) {
-                target = new LessonContent();
-            }
-            copyContentFields(draft, target);
-            target.setLessonUuid(liveLessonUuid);
-            target.setSourceContentUuid(null);
-            target = lessonContentRepository.save(target);
-            retained.add(target.getUuid());
-        }
-
-        // content_progress references lesson_contents with RESTRICT, so removed content is
-        // marked not-required and moved out of the way rather than deleted.
-        liveContent.values().stream()
-                .filter(c -> !retained.contains(c.getUuid()))
-                .forEach(c -> {
-                    c.setIsRequired(false);
-                    c.setDisplayOrder(Integer.MAX_VALUE);
-                    lessonContentRepository.save(c);
-                });
-    }
-
-    private void promoteQuizzes(UUID draftLessonUuid, UUID liveLessonUuid) {
-        List<Quiz> draftQuizzes = quizRepository.findByLessonUuid(draftLessonUuid);
-        Map<UUID, Quiz> liveQuizzes = quizRepository.findByLessonUuid(liveLessonUuid).stream()
-                .collect(Collectors.toMap(Quiz::getUuid, Function.identity(), (a, b) -> a, HashMap::new));
-
-        Set<UUID> retained = new LinkedHashSet<>();
-        for (Quiz draft : draftQuizzes) {
-            Quiz target = draft.getSourceQuizUuid() == null ? null : liveQuizzes.get(draft.getSourceQuizUuid());
-            if (target == null) {
-                target = new Quiz();
-            }
-            copyQuizFields(draft, target);
-            target.setLessonUuid(liveLessonUuid);
-            target.setSourceQuizUuid(null);
-            target = quizRepository.save(target);
-            retained.add(target.getUuid());
-
-            promoteQuestions(draft.getUuid(), target.getUuid());
-        }
-
-        liveQuizzes.values().stream()
-                .filter(q -> !retained.contains(q.getUuid()) && !Boolean.FALSE.equals(q.getActive()))
-                .forEach(q -> {
-                    q.setActive(false);
-                    quizRepository.save(q);
-                });
-    }
-
-    private void promoteQuestions(UUID draftQuizUuid, UUID liveQuizUuid) {
-        List<QuizQuestion> draftQuestions = quizQuestionRepository.findByQuizUuidOrderByDisplayOrderAsc(draftQuizUuid);
-        Map<UUID, QuizQuestion> liveQuestions = quizQuestionRepository.findByQuizUuidOrderByDisplayOrderAsc(liveQuizUuid).stream()
-                .collect(Collectors.toMap(QuizQuestion::getUuid, Function.identity(), (a, b) -> a, HashMap::new));
-
-        Set<UUID> retained = new LinkedHashSet<>();
-        for (QuizQuestion draft : draftQuestions) {
-            QuizQuestion target = draft.getSourceQuestionUuid() == null
-                    ? null
-                    : liveQuestions.get(draft.getSourceQuestionUuid());
-            if (target == null) {
-                target = new QuizQuestion();
-            }
-            copyQuestionFields(draft, target);
-            target.setQuizUuid(liveQuizUuid);
-            target.setSourceQuestionUuid(null);
-            target = quizQuestionRepository.save(target);
-            retained.add(target.getUuid());
-
-            promoteOptions(draft.getUuid(), target.getUuid());
-        }
-
-        // quiz_responses reference questions, so a removed question is pushed to the end of
-        // the order rather than deleted.
-        liveQuestions.values().stream()
-                .filter(q -> !retained.contains(q.getUuid()))
-                .forEach(q -> {
-                    q.setDisplayOrder(Integer.MAX_VALUE);
-                    quizQuestionRepository.save(q);
-                });
-    }
-
-    private void promoteOptions(UUID draftQuestionUuid, UUID liveQuestionUuid) {
-        List<QuizQuestionOption> draftOptions =
-                quizQuestionOptionRepository.findByQuestionUuidOrderByDisplayOrderAsc(draftQuestionUuid);
-        Map<UUID, QuizQuestionOption> liveOptions =
-                quizQuestionOptionRepository.findByQuestionUuidOrderByDisplayOrderAsc(liveQuestionUuid).stream()
-                        .collect(Collectors.toMap(QuizQuestionOption::getUuid, Function.identity(), (a, b) -> a, HashMap::new));
-
-        for (QuizQuestionOption draft : draftOptions) {
-            QuizQuestionOption target = draft.getSourceOptionUuid() == null
-                    ? null
-                    : liveOptions.get(draft.getSourceOptionUuid());
-            if (target == null) {
-                target = new QuizQuestionOption();
-            }
-            copyOptionFields(draft, target);
-            target.setQuestionUuid(liveQuestionUuid);
-            target.setSourceOptionUuid(null);
-            quizQuestionOptionRepository.save(target);
-        }
-    }
-
-    private void promoteAssignments(UUID draftLessonUuid, UUID liveLessonUuid) {
-        List<Assignment> draftAssignments = assignmentRepository.findByLessonUuid(draftLessonUuid);
-        Map<UUID, Assignment> liveAssignments = assignmentRepository.findByLessonUuid(liveLessonUuid).stream()
-                .collect(Collectors.toMap(Assignment::getUuid, Function.identity(), (a, b) -> a, HashMap::new));
-
-        Set<UUID> retained = new LinkedHashSet<>();
-        for (Assignment draft : draftAssignments) {
-            Assignment target = draft.getSourceAssignmentUuid() == null
-                    ? null
-                    : liveAssignments.get(draft.getSourceAssignmentUuid());
-            if (target == null) {
-                target = new Assignment();
-            }
-            copyAssignmentFields(draft, target);
-            target.setLessonUuid(liveLessonUuid);
-            target.setSourceAssignmentUuid(null);
-            target = assignmentRepository.save(target);
-            retained.add(target.getUuid());
-
-            replaceAttachments(draft.getUuid(), target.getUuid());
-        }
-
-        // assignment_submissions reference assignments, so a removed assignment is
-        // unpublished rather than deleted.
-        liveAssignments.values().stream()
-                .filter(a -> !retained.contains(a.getUuid()) && !Boolean.FALSE.equals(a.getIsPublished()))
-                .forEach(a -> {
-                    a.setIsPublished(false);
-                    assignmentRepository.save(a);
-                });
-    }
-
-    private void replaceAttachments(UUID draftAssignmentUuid, UUID liveAssignmentUuid) {
-        assignmentAttachmentRepository.findByAssignmentUuid(liveAssignmentUuid)
-                .forEach(assignmentAttachmentRepository::delete);
-        for (AssignmentAttachment draft : assignmentAttachmentRepository.findByAssignmentUuid(draftAssignmentUuid)) {
-            AssignmentAttachment copy = new AssignmentAttachment();
-            copyAttachmentFields(draft, copy);
-            copy.setAssignmentUuid(liveAssignmentUuid);
-            assignmentAttachmentRepository.save(copy);
-        }
-    }
-
-    private void promotePracticeActivities(UUID draftLessonUuid, UUID liveLessonUuid) {
-        practiceActivityRepository.findByLessonUuidOrderByDisplayOrderAsc(liveLessonUuid)
-                .forEach(practiceActivityRepository::delete);
-        for (LessonPracticeActivity draft : practiceActivityRepository.findByLessonUuidOrderByDisplayOrderAsc(draftLessonUuid)) {
-            LessonPracticeActivity copy = new LessonPracticeActivity();
-            copyPracticeActivityFields(draft, copy);
-            copy.setLessonUuid(liveLessonUuid);
-            practiceActivityRepository.save(copy);
-        }
-    }
-
-    /**
-     * Reconciles assessments and their line items in place. Like lessons, removed rows are
-     * deactivated rather than deleted because assessment and line-item scores reference them.
-     */
-    private void promoteAssessments(UUID draftCourseUuid, UUID liveCourseUuid) {
-        List<CourseAssessment> draftAssessments =
-                assessmentRepository.findByCourseUuidOrderByCreatedDateAsc(draftCourseUuid);
-        Map<UUID, CourseAssessment> liveAssessments =
-                assessmentRepository.findByCourseUuidOrderByCreatedDateAsc(liveCourseUuid).stream()
-                        .collect(Collectors.toMap(CourseAssessment::getUuid, Function.identity(), (a, b) -> a, HashMap::new));
-
-        Set<UUID> retained = new LinkedHashSet<>();
-        for (CourseAssessment draft : draftAssessments) {
-            CourseAssessment target = draft.getSourceAssessmentUuid() == null
-                    ? null
-                    : liveAssessments.get(draft.getSourceAssessmentUuid());
-            if (target == null) {
-                target = new CourseAssessment();
-            }
-            copyAssessmentFields(draft, target);
-            target.setCourseUuid(liveCourseUuid);
-            target.setSourceAssessmentUuid(null);
-            target = assessmentRepository.save(target);
-            retained.add(target.getUuid());
-
-            promoteLineItems(draft.getUuid(), target.getUuid());
-        }
-
-        liveAssessments.values().stream()
-                .filter(a -> !retained.contains(a.getUuid()) && !Boolean.FALSE.equals(a.getActive()))
-                .forEach(a -> {
-                    a.setActive(false);
-                    assessmentRepository.save(a);
-                });
-    }
-
-    private void promoteLineItems(UUID draftAssessmentUuid, UUID liveAssessmentUuid) {
-        List<CourseAssessmentLineItem> draftItems =
-                lineItemRepository.findByCourseAssessmentUuidOrderByDisplayOrderAscCreatedDateAsc(draftAssessmentUuid);
-        Map<UUID, CourseAssessmentLineItem> liveItems =
-                lineItemRepository.findByCourseAssessmentUuidOrderByDisplayOrderAscCreatedDateAsc(liveAssessmentUuid).stream()
-                        .collect(Collectors.toMap(CourseAssessmentLineItem::getUuid, Function.identity(), (a, b) -> a, HashMap::new));
-
-        Set<UUID> retained = new LinkedHashSet<>();
-        for (CourseAssessmentLineItem draft : draftItems) {
-            CourseAssessmentLineItem target = draft.getSourceLineItemUuid() == null
-                    ? null
-                    : liveItems.get(draft.getSourceLineItemUuid());
-            if (target == null) {
-                target = new CourseAssessmentLineItem();
-            }
-            copyLineItemFields(draft, target);
-            target.setCourseAssessmentUuid(liveAssessmentUuid);
-            target.setSourceLineItemUuid(null);
-            target = lineItemRepository.save(target);
-            retained.add(target.getUuid());
-        }
-
-        liveItems.values().stream()
-                .filter(i -> !retained.contains(i.getUuid()) && !Boolean.FALSE.equals(i.getActive()))
-                .forEach(i -> {
-                    i.setActive(false);
-                    lineItemRepository.save(i);
-                });
-    }
-
-    /**
-     * Requirements carry no learner data, so a removed one is hard-deleted. Matched ones are
-     * updated in place by source link, preserving their uuids, and new ones are inserted.
-     */
-    private void promoteRequirements(UUID draftCourseUuid, UUID liveCourseUuid) {
-        List<CourseRequirement> draftReqs = requirementRepository.findByCourseUuid(draftCourseUuid);
-        Map<UUID, CourseRequirement> liveReqs = requirementRepository.findByCourseUuid(liveCourseUuid).stream()
-                .collect(Collectors.toMap(CourseRequirement::getUuid, Function.identity(), (a, b) -> a, HashMap::new));
-
-        Set<UUID> retained = new LinkedHashSet<>();
-        for (CourseRequirement draft : draftReqs) {
-            CourseRequirement target = draft.getSourceRequirementUuid() == null
-                    ? null
-                    : liveReqs.get(draft.getSourceRequirementUuid());
-            if (target == null) {
-                target = new CourseRequirement();
-            }
-            copyRequirementFields(draft, target);
-            target.setCourseUuid(liveCourseUuid);
-            target.setSourceRequirementUuid(null);
-            target = requirementRepository.save(target);
-            retained.add(target.getUuid());
-        }
-        liveReqs.values().stream()
-                .filter(r -> !retained.contains(r.getUuid()))
-                .forEach(requirementRepository::delete);
-    }
-
-    private void promoteTrainingRequirements(UUID draftCourseUuid, UUID liveCourseUuid) {
-        List<CourseTrainingRequirement> draftReqs = trainingRequirementRepository.findByCourseUuid(draftCourseUuid);
-        Map<UUID, CourseTrainingRequirement> liveReqs =
-                trainingRequirementRepository.findByCourseUuid(liveCourseUuid).stream()
-                        .collect(Collectors.toMap(CourseTrainingRequirement::getUuid, Function.identity(), (a, b) -> a, HashMap::new));
-
-        Set<UUID> retained = new LinkedHashSet<>();
-        for (CourseTrainingRequirement draft : draftReqs) {
-            CourseTrainingRequirement target = draft.getSourceRequirementUuid() == null
-                    ? null
-                    : liveReqs.get(draft.getSourceRequirementUuid());
-            if (target == null) {
-                target = new CourseTrainingRequirement();
-            }
-            copyTrainingRequirementFields(draft, target);
-            target.setCourseUuid(liveCourseUuid);
-            target.setSourceRequirementUuid(null);
-            target = trainingRequirementRepository.save(target);
-            retained.add(target.getUuid());
-        }
-        liveReqs.values().stream()
-                .filter(r -> !retained.contains(r.getUuid()))
-                .forEach(trainingRequirementRepository::delete);
-    }
-
     // ---------------------------------------------------------------- snapshot
 
     private void writeSnapshot(UUID courseUuid, UUID pendingEditUuid) {
@@ -1052,133 +588,12 @@ public class CourseDraftServiceImpl implements CourseDraftService {
         to.setBannerUrl(from.getBannerUrl());
     }
 
-    private void copyLessonFields(Lesson from, Lesson to) {
-        to.setLessonNumber(from.getLessonNumber());
-        to.setTitle(from.getTitle());
-        to.setDescription(from.getDescription());
-        to.setLearningObjectives(from.getLearningObjectives());
-        to.setStatus(from.getStatus());
-        to.setActive(from.getActive());
-    }
-
-    private void copyContentFields(LessonContent from, LessonContent to) {
-        to.setContentTypeUuid(from.getContentTypeUuid());
-        to.setTitle(from.getTitle());
-        to.setDescription(from.getDescription());
-        to.setContentText(from.getContentText());
-        to.setFileUrl(from.getFileUrl());
-        to.setFileSizeBytes(from.getFileSizeBytes());
-        to.setMimeType(from.getMimeType());
-        to.setDisplayOrder(from.getDisplayOrder());
-        to.setIsRequired(from.getIsRequired());
-    }
-
-    private void copyQuizFields(Quiz from, Quiz to) {
-        to.setTitle(from.getTitle());
-        to.setDescription(from.getDescription());
-        to.setInstructions(from.getInstructions());
-        to.setTimeLimitMinutes(from.getTimeLimitMinutes());
-        to.setAttemptsAllowed(from.getAttemptsAllowed());
-        to.setPassingScore(from.getPassingScore());
-        to.setRubricUuid(from.getRubricUuid());
-        to.setStatus(from.getStatus());
-        to.setActive(from.getActive());
-        to.setScope(from.getScope());
-        to.setClassDefinitionUuid(from.getClassDefinitionUuid());
-    }
-
-    private void copyQuestionFields(QuizQuestion from, QuizQuestion to) {
-        to.setQuestionText(from.getQuestionText());
-        to.setQuestionType(from.getQuestionType());
-        to.setPoints(from.getPoints());
-        to.setDisplayOrder(from.getDisplayOrder());
-    }
-
-    private void copyOptionFields(QuizQuestionOption from, QuizQuestionOption to) {
-        to.setOptionText(from.getOptionText());
-        to.setIsCorrect(from.getIsCorrect());
-        to.setDisplayOrder(from.getDisplayOrder());
-    }
-
-    private void copyAssignmentFields(Assignment from, Assignment to) {
-        to.setTitle(from.getTitle());
-        to.setDescription(from.getDescription());
-        to.setInstructions(from.getInstructions());
-        to.setDueDate(from.getDueDate());
-        to.setMaxPoints(from.getMaxPoints());
-        to.setRubricUuid(from.getRubricUuid());
-        to.setSubmissionTypes(from.getSubmissionTypes());
-        to.setIsPublished(from.getIsPublished());
-        to.setScope(from.getScope());
-        to.setClassDefinitionUuid(from.getClassDefinitionUuid());
-    }
-
-    private void copyAttachmentFields(AssignmentAttachment from, AssignmentAttachment to) {
-        to.setOriginalFilename(from.getOriginalFilename());
-        to.setStoredFilename(from.getStoredFilename());
-        to.setFileUrl(from.getFileUrl());
-        to.setFileSizeBytes(from.getFileSizeBytes());
-        to.setMimeType(from.getMimeType());
-    }
-
-    private void copyAssessmentFields(CourseAssessment from, CourseAssessment to) {
-        to.setAssessmentType(from.getAssessmentType());
-        to.setTitle(from.getTitle());
-        to.setDescription(from.getDescription());
-        to.setWeightPercentage(from.getWeightPercentage());
-        to.setAggregationStrategy(from.getAggregationStrategy());
-        to.setRubricUuid(from.getRubricUuid());
-        to.setSyncClassAttendance(from.getSyncClassAttendance());
-        to.setIsRequired(from.getIsRequired());
-        to.setActive(from.getActive() == null ? Boolean.TRUE : from.getActive());
-    }
-
-    private void copyLineItemFields(CourseAssessmentLineItem from, CourseAssessmentLineItem to) {
-        to.setTitle(from.getTitle());
-        to.setDescription(from.getDescription());
-        to.setItemType(from.getItemType());
-        to.setAssignmentUuid(from.getAssignmentUuid());
-        to.setQuizUuid(from.getQuizUuid());
-        to.setRubricUuid(from.getRubricUuid());
-        to.setScheduledInstanceUuid(from.getScheduledInstanceUuid());
-        to.setMaxScore(from.getMaxScore());
-        to.setWeightPercentage(from.getWeightPercentage());
-        to.setDisplayOrder(from.getDisplayOrder());
-        to.setActive(from.getActive() == null ? Boolean.TRUE : from.getActive());
-        to.setDueAt(from.getDueAt());
-    }
-
-    private void copyRequirementFields(CourseRequirement from, CourseRequirement to) {
-        to.setRequirementType(from.getRequirementType());
-        to.setRequirementText(from.getRequirementText());
-        to.setIsMandatory(from.getIsMandatory());
-    }
-
-    private void copyTrainingRequirementFields(CourseTrainingRequirement from, CourseTrainingRequirement to) {
-        to.setRequirementType(from.getRequirementType());
-        to.setName(from.getName());
-        to.setDescription(from.getDescription());
-        to.setQuantity(from.getQuantity());
-        to.setUnit(from.getUnit());
-        to.setProvidedBy(from.getProvidedBy());
-        to.setIsMandatory(from.getIsMandatory());
-    }
+    // ---------------------------------------------------------------- helpers
 
-    private void copyPracticeActivityFields(LessonPracticeActivity from, LessonPracticeActivity to) {
-        to.setTitle(from.getTitle());
-        to.setInstructions(from.getInstructions());
-        to.setActivityType(from.getActivityType());
-        to.setGrouping(from.getGrouping());
-        to.setEstimatedMinutes(from.getEstimatedMinutes());
-        to.setMaterials(from.getMaterials());
-        to.setExpectedOutput(from.getExpectedOutput());
-        to.setDisplayOrder(from.getDisplayOrder());
-        to.setStatus(from.getStatus());
-        to.setActive(from.getActive());
+    private String currentAuditor() {
+        return auditorAware.getCurrentAuditor().orElse(SYSTEM_AUDITOR);
     }
 
-    // ---------------------------------------------------------------- helpers
-
     private Course findCourse(UUID uuid) {
         return courseRepository.findByUuid(uuid)
                 .orElseThrow(() -> new ResourceNotFoundException(String.format(COURSE_NOT_FOUND, uuid)));
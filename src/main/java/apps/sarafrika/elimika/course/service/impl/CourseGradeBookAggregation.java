@@ -0,0 +1,155 @@
+package apps.sarafrika.elimika.course.service.impl;
+
+import apps.sarafrika.elimika.course.model.CourseAssessment;
+import apps.sarafrika.elimika.course.model.CourseAssessmentLineItem;
+import apps.sarafrika.elimika.course.model.CourseAssessmentLineItemScore;
+import apps.sarafrika.elimika.course.util.enums.CourseAssessmentAggregationStrategy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * The gradebook arithmetic, shared by the per-enrollment recalculation in
+ * {@link CourseGradeBookServiceImpl} and the course-wide one in {@link CourseGradeBookRecalculator}
+ * so the two can never disagree on a grade.
+ */
+final class CourseGradeBookAggregation {
+
+    static final BigDecimal ONE_HUNDRED = new BigDecimal("100.00");
+    static final int DIVISION_SCALE = 4;
+
+    private CourseGradeBookAggregation() {
+    }
+
+    static String derivedComment(int gradedLineItems) {
+        return "Derived from " + gradedLineItems + " graded line items";
+    }
+
+    /**
+     * The course final grade: the weighted mean of the component percentages that exist, over the
+     * weights of those components only, or {@code null} when no weighted component is graded.
+     */
+    static BigDecimal finalGrade(List<CourseAssessment> assessments, Function<UUID, BigDecimal> percentageByAssessmentUuid) {
+        BigDecimal weightedScoreTotal = BigDecimal.ZERO;
+        BigDecimal appliedWeightTotal = BigDecimal.ZERO;
+
+        for (CourseAssessment assessment : assessments) {
+            BigDecimal percentage = percentageByAssessmentUuid.apply(assessment.getUuid());
+            if (percentage == null) {
+                continue;
+            }
+
+            BigDecimal assessmentWeight = assessment.getWeightPercentage() != null
+                    ? assessment.getWeightPercentage()
+                    : BigDecimal.ZERO;
+            if (assessmentWeight.compareTo(BigDecimal.ZERO) <= 0) {
+                continue;
+            }
+
+            weightedScoreTotal = weightedScoreTotal.add(percentage.multiply(assessmentWeight));
+            appliedWeightTotal = appliedWeightTotal.add(assessmentWeight);
+        }
+
+        if (appliedWeightTotal.compareTo(BigDecimal.ZERO) <= 0) {
+            return null;
+        }
+        return weightedScoreTotal
+                .divide(appliedWeightTotal, DIVISION_SCALE, RoundingMode.HALF_UP)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    static AggregationResult aggregateAssessmentScore(
+            CourseAssessment assessment,
+            List<ScoredLineItem> scoredLineItems
+    ) {
+        CourseAssessmentAggregationStrategy aggregationStrategy = assessment.getAggregationStrategy() != null
+                ? assessment.getAggregationStrategy()
+                : CourseAssessmentAggregationStrategy.POINTS_SUM;
+
+        return switch (aggregationStrategy) {
+            case POINTS_SUM -> aggregatePointsSum(scoredLineItems);
+            case WEIGHTED_AVERAGE -> aggregateWeightedAverage(scoredLineItems);
+        };
+    }
+
+    private static AggregationResult aggregatePointsSum(List<ScoredLineItem> scoredLineItems) {
+        BigDecimal totalScore = scoredLineItems.stream()
+                .map(ScoredLineItem::score)
+                .map(CourseAssessmentLineItemScore::getScore)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalMaxScore = scoredLineItems.stream()
+                .map(ScoredLineItem::score)
+                .map(CourseAssessmentLineItemScore::getMaxScore)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        if (totalMaxScore.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalStateException("Cannot aggregate line items without a positive total maximum score");
+        }
+
+        BigDecimal percentage = totalScore
+                .divide(totalMaxScore, DIVISION_SCALE, RoundingMode.HALF_UP)
+                .multiply(ONE_HUNDRED)
+                .setScale(2, RoundingMode.HALF_UP);
+
+        LocalDateTime latestGradedAt = scoredLineItems.stream()
+                .map(ScoredLineItem::score)
+                .map(CourseAssessmentLineItemScore::getGradedAt)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+
+        return new AggregationResult(totalScore, totalMaxScore, percentage, latestGradedAt);
+    }
+
+    private static AggregationResult aggregateWeightedAverage(List<ScoredLineItem> scoredLineItems) {
+        BigDecimal weightedTotal = BigDecimal.ZERO;
+        BigDecimal weightTotal = BigDecimal.ZERO;
+
+        for (ScoredLineItem scoredLineItem : scoredLineItems) {
+            BigDecimal lineItemWeight = scoredLineItem.lineItem().getWeightPercentage();
+            if (lineItemWeight == null || lineItemWeight.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalStateException(
+                        "Weighted line item aggregation requires a positive weight for line item " + scoredLineItem.lineItem().getUuid()
+                );
+            }
+
+            weightedTotal = weightedTotal.add(scoredLineItem.score().getPercentage().multiply(lineItemWeight));
+            weightTotal = weightTotal.add(lineItemWeight);
+        }
+
+        if (weightTotal.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalStateException("Cannot aggregate weighted line items without a positive weight total");
+        }
+
+        BigDecimal percentage = weightedTotal
+                .divide(weightTotal, DIVISION_SCALE, RoundingMode.HALF_UP)
+                .setScale(2, RoundingMode.HALF_UP);
+
+        LocalDateTime latestGradedAt = scoredLineItems.stream()
+                .map(ScoredLineItem::score)
+                .map(CourseAssessmentLineItemScore::getGradedAt)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+
+        return new AggregationResult(percentage, ONE_HUNDRED, percentage, latestGradedAt);
+    }
+
+    record ScoredLineItem(CourseAssessmentLineItem lineItem, CourseAssessmentLineItemScore score) {
+    }
+
+    record AggregationResult(
+            BigDecimal score,
+            BigDecimal maxScore,
+            BigDecimal percentage,
+            LocalDateTime gradedAt
+    ) {
+    }
+}
@@ -0,0 +1,258 @@
+package apps.sarafrika.elimika.course.service.impl;
+
+import apps.sarafrika.elimika.course.dto.CourseGradeBookRecalculationDTO;
+import apps.sarafrika.elimika.course.factory.CourseGradeBookRecalculationFactory;
+import apps.sarafrika.elimika.course.model.CourseGradeBookRecalculation;
+import apps.sarafrika.elimika.course.repository.CourseAssessmentRepository;
+import apps.sarafrika.elimika.course.repository.CourseEnrollmentRepository;
+import apps.sarafrika.elimika.course.repository.CourseGradeBookRecalculationRepository;
+import apps.sarafrika.elimika.course.service.CourseGradeBookRecalculationService;
+import apps.sarafrika.elimika.course.util.enums.CourseGradeBookRecalculationStatus;
+import apps.sarafrika.elimika.shared.exceptions.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Decides where a course-wide gradebook recalculation runs and tracks the ones run in the
+ * background.
+ * <p>
+ * A course with at most {@code app.gradebook.recalculation.inline-threshold} enrollments is
+ * recalculated inside the request that changed it. A larger one is queued as a
+ * {@code course_gradebook_recalculations} row and run on a virtual thread once the request commits,
+ * at most {@code max-concurrency} at a time on this node. The worker records its progress after
+ * every batch in a transaction of its own, so the row can be polled while the recalculation is
+ * still uncommitted. A row left running by a node that stopped is requeued once it has not
+ * reported progress for {@code stale-after}, and the periodic sweep picks up anything queued.
+ */
+@Service
+@Slf4j
+public class CourseGradeBookRecalculationServiceImpl implements CourseGradeBookRecalculationService {
+
+    private static final String RECALCULATION_NOT_FOUND_TEMPLATE = "Gradebook recalculation with UUID %s not found for course %s";
+    private static final String ASSESSMENT_NOT_FOUND_TEMPLATE = "Assessment with UUID %s not found for course %s";
+    private static final String SYSTEM_AUDITOR = "SYSTEM";
+    private static final int MAX_FAILURE_MESSAGE_LENGTH = 1000;
+
+    private final CourseGradeBookRecalculationRepository recalculationRepository;
+    private final CourseEnrollmentRepository courseEnrollmentRepository;
+    private final CourseAssessmentRepository courseAssessmentRepository;
+    private final CourseGradeBookRecalculator gradeBookRecalculator;
+    private final AuditorAware<String> auditorAware;
+    private final TransactionTemplate workTransaction;
+    private final TransactionTemplate bookkeepingTransaction;
+    private final long inlineThreshold;
+    private final Duration staleAfter;
+    private final Semaphore workerPermits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<UUID> dispatched = ConcurrentHashMap.newKeySet();
+
+    public CourseGradeBookRecalculationServiceImpl(
+            CourseGradeBookRecalculationRepository recalculationRepository,
+            CourseEnrollmentRepository courseEnrollmentRepository,
+            CourseAssessmentRepository courseAssessmentRepository,
+            CourseGradeBookRecalculator gradeBookRecalculator,
+            AuditorAware<String> auditorAware,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.gradebook.recalculation.inline-threshold:200}") long inlineThreshold,
+            @Value("${app.gradebook.recalculation.max-concurrency:2}") int maxConcurrency,
+            @Value("${app.gradebook.recalculation.stale-after:PT15M}") Duration staleAfter) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Gradebook recalculation concurrency must be positive");
+        }
+        this.recalculationRepository = recalculationRepository;
+        this.courseEnrollmentRepository = courseEnrollmentRepository;
+        this.courseAssessmentRepository = courseAssessmentRepository;
+        this.gradeBookRecalculator = gradeBookRecalculator;
+        this.auditorAware = auditorAware;
+        this.workTransaction = new TransactionTemplate(transactionManager);
+        this.bookkeepingTransaction = new TransactionTemplate(transactionManager);
+        this.bookkeepingTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.inlineThreshold = inlineThreshold;
+        this.staleAfter = staleAfter;
+        this.workerPermits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    @Transactional
+    public Optional<CourseGradeBookRecalculationDTO> recalculateAssessment(UUID courseUuid, UUID assessmentUuid) {
+        long enrollments = courseEnrollmentRepository.countByCourseUuid(courseUuid);
+        if (enrollments <= inlineThreshold) {
+            gradeBookRecalculator.recalculate(courseUuid, assessmentUuid, currentAuditor(), processed -> { });
+            return Optional.empty();
+        }
+        return Optional.of(queue(courseUuid, assessmentUuid, enrollments));
+    }
+
+    @Override
+    @Transactional
+    public CourseGradeBookRecalculationDTO requestRecalculation(UUID courseUuid, UUID assessmentUuid) {
+        courseAssessmentRepository.findByUuidAndCourseUuid(assessmentUuid, courseUuid)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format(ASSESSMENT_NOT_FOUND_TEMPLATE, assessmentUuid, courseUuid)));
+        return queue(courseUuid, assessmentUuid, courseEnrollmentRepository.countByCourseUuid(courseUuid));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CourseGradeBookRecalculationDTO getRecalculation(UUID courseUuid, UUID recalculationUuid) {
+        return recalculationRepository.findByUuidAndCourseUuid(recalculationUuid, courseUuid)
+                .map(CourseGradeBookRecalculationFactory::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format(RECALCULATION_NOT_FOUND_TEMPLATE, recalculationUuid, courseUuid)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<CourseGradeBookRecalculationDTO> getRecalculations(UUID courseUuid, Pageable pageable) {
+        return recalculationRepository.findByCourseUuid(courseUuid, pageable)
+                .map(CourseGradeBookRecalculationFactory::toDTO);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.gradebook.recalculation.sweep.initial-delay:PT1M}",
+            fixedDelayString = "${app.gradebook.recalculation.sweep.interval:PT1M}")
+    void sweep() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer requeued = bookkeepingTransaction.execute(status -> recalculationRepository.requeueStale(
+                    CourseGradeBookRecalculationStatus.RUNNING,
+                    CourseGradeBookRecalculationStatus.QUEUED,
+                    now.minus(staleAfter),
+                    now));
+            if (requeued != null && requeued > 0) {
+                log.warn("Requeued {} gradebook recalculations that stopped reporting progress", requeued);
+            }
+            List<UUID> queued = recalculationRepository.findUuidsByStatus(CourseGradeBookRecalculationStatus.QUEUED);
+            queued.forEach(this::dispatch);
+        } catch (Exception ex) {
+            // Queued rows stay queued and the next sweep tries again.
+            log.warn("Gradebook recalculation sweep could not run: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CourseGradeBookRecalculationDTO queue(UUID courseUuid, UUID assessmentUuid, long enrollments) {
+        Optional<CourseGradeBookRecalculation> alreadyQueued = recalculationRepository
+                .findFirstByCourseUuidAndAssessmentUuidAndStatus(courseUuid, assessmentUuid, CourseGradeBookRecalculationStatus.QUEUED);
+        if (alreadyQueued.isPresent()) {
+            return CourseGradeBookRecalculationFactory.toDTO(alreadyQueued.get());
+        }
+
+        CourseGradeBookRecalculation recalculation = new CourseGradeBookRecalculation();
+        recalculation.setCourseUuid(courseUuid);
+        recalculation.setAssessmentUuid(assessmentUuid);
+        recalculation.setStatus(CourseGradeBookRecalculationStatus.QUEUED);
+        recalculation.setTotalEnrollments(Math.toIntExact(enrollments));
+        recalculation.setProcessedEnrollments(0);
+        CourseGradeBookRecalculation saved = recalculationRepository.save(recalculation);
+
+        UUID recalculationUuid = saved.getUuid();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(recalculationUuid);
+                }
+            });
+        } else {
+            dispatch(recalculationUuid);
+        }
+        return CourseGradeBookRecalculationFactory.toDTO(saved);
+    }
+
+    private void dispatch(UUID recalculationUuid) {
+        if (recalculationUuid == null || !dispatched.add(recalculationUuid)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    workerPermits.acquire();
+                    try {
+                        run(recalculationUuid);
+                    } finally {
+                        workerPermits.release();
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    dispatched.remove(recalculationUuid);
+                }
+            });
+        } catch (RuntimeException ex) {
+            dispatched.remove(recalculationUuid);
+            log.warn("Could not start gradebook recalculation {}: {}", recalculationUuid, ex.getMessage());
+        }
+    }
+
+    void run(UUID recalculationUuid) {
+        CourseGradeBookRecalculation recalculation = bookkeepingTransaction.execute(status -> {
+            int claimed = recalculationRepository.claim(
+                    recalculationUuid,
+                    CourseGradeBookRecalculationStatus.QUEUED,
+                    CourseGradeBookRecalculationStatus.RUNNING,
+                    LocalDateTime.now());
+            return claimed == 1 ? recalculationRepository.findByUuid(recalculationUuid).orElse(null) : null;
+        });
+        if (recalculation == null) {
+            return;
+        }
+
+        String auditor = recalculation.getCreatedBy() != null ? recalculation.getCreatedBy() : SYSTEM_AUDITOR;
+        try {
+            Integer processed = workTransaction.execute(status -> gradeBookRecalculator.recalculate(
+                    recalculation.getCourseUuid(),
+                    recalculation.getAssessmentUuid(),
+                    auditor,
+                    count -> bookkeepingTransaction.executeWithoutResult(progress ->
+                            recalculationRepository.updateProgress(recalculationUuid, count, LocalDateTime.now()))));
+            finish(recalculationUuid, CourseGradeBookRecalculationStatus.COMPLETED, processed != null ? processed : 0, null);
+        } catch (RuntimeException ex) {
+            log.error("Gradebook recalculation {} of course {} failed", recalculationUuid, recalculation.getCourseUuid(), ex);
+            finish(recalculationUuid, CourseGradeBookRecalculationStatus.FAILED, 0, truncate(ex.getMessage()));
+        }
+    }
+
+    private void finish(UUID recalculationUuid, CourseGradeBookRecalculationStatus status, int processed, String failureMessage) {
+        bookkeepingTransaction.executeWithoutResult(transaction -> recalculationRepository.finish(
+                recalculationUuid, status, processed, failureMessage, LocalDateTime.now()));
+    }
+
+    private String currentAuditor() {
+        return auditorAware.getCurrentAuditor().orElse(SYSTEM_AUDITOR);
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_FAILURE_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_FAILURE_MESSAGE_LENGTH);
+    }
+}
@@ -0,0 +1,352 @@
+package apps.sarafrika.elimika.course.service.impl;
+
+import apps.sarafrika.elimika.course.model.CourseAssessment;
+import apps.sarafrika.elimika.course.model.CourseAssessmentLineItem;
+import apps.sarafrika.elimika.course.model.CourseAssessmentLineItemScore;
+import apps.sarafrika.elimika.course.repository.CourseAssessmentLineItemRepository;
+import apps.sarafrika.elimika.course.repository.CourseAssessmentRepository;
+import apps.sarafrika.elimika.course.service.impl.CourseGradeBookAggregation.AggregationResult;
+import apps.sarafrika.elimika.course.service.impl.CourseGradeBookAggregation.ScoredLineItem;
+import apps.sarafrika.elimika.shared.exceptions.ResourceNotFoundException;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * Recalculates one assessment component, and with it the final grade, for every enrollment of a
+ * course in a single pass.
+ * <p>
+ * The course structure (its assessments and the component's active line items) is loaded once.
+ * Every enrollment's line item scores for the component and all of its component scores then
+ * arrive in one cursor ordered by enrollment, so each enrollment is aggregated in memory as soon
+ * as its rows are read. Only rows whose values actually change are written, in JDBC batches of
+ * {@code app.gradebook.recalculation.batch-size} enrollments.
+ * <p>
+ * The pass holds an exclusive transaction-scoped advisory lock on the course. Grading a single
+ * enrollment takes the same lock shared through {@link #awaitCourseRecalculation(UUID)} before it
+ * touches component scores, so it waits for a running pass instead of being overwritten by it.
+ */
+@Component
+@Slf4j
+class CourseGradeBookRecalculator {
+
+    private static final long COURSE_LOCK_NAMESPACE = 0x4752414445424B00L;
+    private static final String LINE_ITEM_ROW = "L";
+
+    private static final String SCORE_CURSOR_SQL = """
+            SELECT e.uuid AS enrollment_uuid, e.final_grade, 'L' AS kind, s.line_item_uuid AS ref_uuid,
+                   s.score, s.max_score, s.percentage, s.graded_at,
+                   NULL::text AS comments, NULL::uuid AS graded_by_uuid
+            FROM course_enrollments e
+                     LEFT JOIN course_assessment_line_item_scores s
+                               ON s.enrollment_uuid = e.uuid
+                                   AND s.line_item_uuid = ANY (?)
+                                   AND s.percentage IS NOT NULL
+            WHERE e.course_uuid = ?
+            UNION ALL
+            SELECT cs.enrollment_uuid, NULL, 'A', cs.assessment_uuid,
+                   cs.score, cs.max_score, cs.percentage, cs.graded_at,
+                   cs.comments, cs.graded_by_uuid
+            FROM course_assessment_scores cs
+                     JOIN course_enrollments e ON e.uuid = cs.enrollment_uuid
+            WHERE e.course_uuid = ?
+            ORDER BY enrollment_uuid
+            """;
+
+    private static final String UPSERT_SCORE_SQL = """
+            INSERT INTO course_assessment_scores (
+                enrollment_uuid, assessment_uuid, score, max_score, percentage, graded_at, graded_by_uuid,
+                comments, created_date, created_by, updated_date, updated_by
+            ) VALUES (?, ?, ?, ?, ?, ?, NULL, ?, ?, ?, ?, ?)
+            ON CONFLICT (enrollment_uuid, assessment_uuid) DO UPDATE
+                SET score          = EXCLUDED.score,
+                    max_score      = EXCLUDED.max_score,
+                    percentage     = EXCLUDED.percentage,
+                    graded_at      = EXCLUDED.graded_at,
+                    graded_by_uuid = NULL,
+                    comments       = EXCLUDED.comments,
+                    updated_date   = EXCLUDED.updated_date,
+                    updated_by     = EXCLUDED.updated_by
+            """;
+
+    private static final String DELETE_SCORE_SQL =
+            "DELETE FROM course_assessment_scores WHERE enrollment_uuid = ? AND assessment_uuid = ?";
+
+    private static final String UPDATE_FINAL_GRADE_SQL =
+            "UPDATE course_enrollments SET final_grade = ?, updated_date = ?, updated_by = ? WHERE uuid = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final CourseAssessmentRepository courseAssessmentRepository;
+    private final CourseAssessmentLineItemRepository lineItemRepository;
+    private final int batchSize;
+
+    CourseGradeBookRecalculator(
+            JdbcTemplate jdbcTemplate,
+            EntityManager entityManager,
+            CourseAssessmentRepository courseAssessmentRepository,
+            CourseAssessmentLineItemRepository lineItemRepository,
+            @Value("${app.gradebook.recalculation.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.courseAssessmentRepository = courseAssessmentRepository;
+        this.lineItemRepository = lineItemRepository;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Waits until no course-wide recalculation of the course is running, and keeps one from starting
+     * until the current transaction ends. Must be called inside a transaction.
+     */
+    void awaitCourseRecalculation(UUID courseUuid) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(?)", rs -> null, courseLockKey(courseUuid));
+    }
+
+    /**
+     * Recalculates {@code assessmentUuid} and the final grade of every enrollment in the course,
+     * reporting the number of enrollments processed after each batch is written. Must be called
+     * inside a transaction; returns the number of enrollments processed.
+     */
+    int recalculate(UUID courseUuid, UUID assessmentUuid, String auditor, IntConsumer progress) {
+        // Pending entity changes of the calling request must be visible to the cursor below.
+        entityManager.flush();
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, courseLockKey(courseUuid));
+
+        List<CourseAssessment> assessments = courseAssessmentRepository.findByCourseUuidOrderByCreatedDateAsc(courseUuid);
+        CourseAssessment assessment = assessments.stream()
+                .filter(candidate -> assessmentUuid.equals(candidate.getUuid()))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException(String.format(
+                        "Assessment with UUID %s not found for course %s", assessmentUuid, courseUuid)));
+        List<CourseAssessmentLineItem> lineItems = lineItemRepository
+                .findByCourseAssessmentUuidOrderByDisplayOrderAscCreatedDateAsc(assessmentUuid)
+                .stream()
+                .filter(lineItem -> !Boolean.FALSE.equals(lineItem.getActive()))
+                .toList();
+        Object[] lineItemUuids = lineItems.stream().map(CourseAssessmentLineItem::getUuid).toArray();
+
+        Pass pass = new Pass(assessments, assessment, lineItems, auditor, progress);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    SCORE_CURSOR_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(batchSize);
+            statement.setArray(1, connection.createArrayOf("uuid", lineItemUuids));
+            statement.setObject(2, courseUuid);
+            statement.setObject(3, courseUuid);
+            return statement;
+        }, pass);
+        pass.complete();
+
+        log.debug("Recalculated assessment {} for {} enrollments of course {}: {} scores written, {} removed, {} final grades changed",
+                assessmentUuid, pass.processed, courseUuid, pass.scoresWritten, pass.scoresRemoved, pass.finalGradesChanged);
+        return pass.processed;
+    }
+
+    private static long courseLockKey(UUID courseUuid) {
+        return COURSE_LOCK_NAMESPACE ^ courseUuid.getMostSignificantBits() ^ courseUuid.getLeastSignificantBits();
+    }
+
+    private static boolean sameValue(BigDecimal left, BigDecimal right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        return left.compareTo(right) == 0;
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static LocalDateTime localDateTime(Timestamp value) {
+        return value != null ? value.toLocalDateTime() : null;
+    }
+
+    /**
+     * A component score as currently stored.
+     */
+    private record StoredScore(
+            BigDecimal score,
+            BigDecimal maxScore,
+            BigDecimal percentage,
+            LocalDateTime gradedAt,
+            String comments,
+            UUID gradedByUuid
+    ) {
+
+        boolean matches(AggregationResult result, String derivedComment) {
+            return gradedByUuid == null
+                    && sameValue(score, result.score())
+                    && sameValue(maxScore, result.maxScore())
+                    && sameValue(percentage, result.percentage())
+                    && Objects.equals(gradedAt, result.gradedAt())
+                    && Objects.equals(comments, derivedComment);
+        }
+    }
+
+    /**
+     * One pass over the cursor: collects the rows of the current enrollment, settles it when the
+     * next one starts, and writes the settled enrollments in batches.
+     */
+    private final class Pass implements RowCallbackHandler {
+
+        private final List<CourseAssessment> assessments;
+        private final CourseAssessment assessment;
+        private final List<CourseAssessmentLineItem> lineItems;
+        private final String auditor;
+        private final IntConsumer progress;
+
+        private final List<Object[]> upserts = new ArrayList<>();
+        private final List<Object[]> deletes = new ArrayList<>();
+        private final List<Object[]> finalGrades = new ArrayList<>();
+
+        private UUID enrollmentUuid;
+        private BigDecimal currentFinalGrade;
+        private final Map<UUID, CourseAssessmentLineItemScore> lineItemScores = new HashMap<>();
+        private final Map<UUID, StoredScore> componentScores = new HashMap<>();
+
+        private int processed;
+        private int pendingEnrollments;
+        private int scoresWritten;
+        private int scoresRemoved;
+        private int finalGradesChanged;
+
+        private Pass(List<CourseAssessment> assessments, CourseAssessment assessment,
+                     List<CourseAssessmentLineItem> lineItems, String auditor, IntConsumer progress) {
+            this.assessments = assessments;
+            this.assessment = assessment;
+            this.lineItems = lineItems;
+            this.auditor = auditor;
+            this.progress = progress;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID rowEnrollmentUuid = rs.getObject("enrollment_uuid", UUID.class);
+            if (!rowEnrollmentUuid.equals(enrollmentUuid)) {
+                settleEnrollment();
+                enrollmentUuid = rowEnrollmentUuid;
+            }
+
+            UUID refUuid = rs.getObject("ref_uuid", UUID.class);
+            if (LINE_ITEM_ROW.equals(rs.getString("kind"))) {
+                currentFinalGrade = rs.getBigDecimal("final_grade");
+                if (refUuid != null) {
+                    CourseAssessmentLineItemScore score = new CourseAssessmentLineItemScore();
+                    score.setLineItemUuid(refUuid);
+                    score.setEnrollmentUuid(rowEnrollmentUuid);
+                    score.setScore(rs.getBigDecimal("score"));
+                    score.setMaxScore(rs.getBigDecimal("max_score"));
+                    score.setPercentage(rs.getBigDecimal("percentage"));
+                    score.setGradedAt(localDateTime(rs.getTimestamp("graded_at")));
+                    lineItemScores.put(refUuid, score);
+                }
+            } else {
+                componentScores.put(refUuid, new StoredScore(
+                        rs.getBigDecimal("score"),
+                        rs.getBigDecimal("max_score"),
+                        rs.getBigDecimal("percentage"),
+                        localDateTime(rs.getTimestamp("graded_at")),
+                        rs.getString("comments"),
+                        rs.getObject("graded_by_uuid", UUID.class)));
+            }
+        }
+
+        void complete() {
+            settleEnrollment();
+            flush();
+        }
+
+        private void settleEnrollment() {
+            if (enrollmentUuid == null) {
+                return;
+            }
+
+            List<ScoredLineItem> scoredLineItems = new ArrayList<>();
+            for (CourseAssessmentLineItem lineItem : lineItems) {
+                CourseAssessmentLineItemScore score = lineItemScores.get(lineItem.getUuid());
+                if (score != null) {
+                    scoredLineItems.add(new ScoredLineItem(lineItem, score));
+                }
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            StoredScore stored = componentScores.get(assessment.getUuid());
+            BigDecimal componentPercentage;
+            if (scoredLineItems.isEmpty()) {
+                componentPercentage = null;
+                if (stored != null) {
+                    deletes.add(new Object[]{enrollmentUuid, assessment.getUuid()});
+                    scoresRemoved++;
+                }
+            } else {
+                AggregationResult result = CourseGradeBookAggregation.aggregateAssessmentScore(assessment, scoredLineItems);
+                String comment = CourseGradeBookAggregation.derivedComment(scoredLineItems.size());
+                componentPercentage = result.percentage();
+                if (stored == null || !stored.matches(result, comment)) {
+                    upserts.add(new Object[]{
+                            enrollmentUuid, assessment.getUuid(), result.score(), result.maxScore(),
+                            result.percentage(), timestamp(result.gradedAt()), comment,
+                            Timestamp.valueOf(now), auditor, Timestamp.valueOf(now), auditor});
+                    scoresWritten++;
+                }
+            }
+
+            BigDecimal finalGrade = CourseGradeBookAggregation.finalGrade(assessments, assessmentUuid -> {
+                if (assessment.getUuid().equals(assessmentUuid)) {
+                    return componentPercentage;
+                }
+                StoredScore componentScore = componentScores.get(assessmentUuid);
+                return componentScore != null ? componentScore.percentage() : null;
+            });
+            if (!sameValue(finalGrade, currentFinalGrade)) {
+                finalGrades.add(new Object[]{finalGrade, Timestamp.valueOf(now), auditor, enrollmentUuid});
+                finalGradesChanged++;
+            }
+
+            processed++;
+            pendingEnrollments++;
+            enrollmentUuid = null;
+            currentFinalGrade = null;
+            lineItemScores.clear();
+            componentScores.clear();
+
+            if (pendingEnrollments >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!upserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SCORE_SQL, upserts);
+                upserts.clear();
+            }
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SCORE_SQL, deletes);
+                deletes.clear();
+            }
+            if (!finalGrades.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_FINAL_GRADE_SQL, finalGrades);
+                finalGrades.clear();
+            }
+            pendingEnrollments = 0;
+            progress.accept(processed);
+        }
+    }
+}
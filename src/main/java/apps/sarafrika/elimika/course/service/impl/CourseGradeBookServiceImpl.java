@@ -37,7 +37,10 @@ import apps.sarafrika.elimika.course.repository.LessonRepository;
 import apps.sarafrika.elimika.course.repository.QuizRepository;
 import apps.sarafrika.elimika.course.repository.RubricCriteriaRepository;
 import apps.sarafrika.elimika.course.repository.RubricScoringLevelRepository;
+import apps.sarafrika.elimika.course.service.CourseGradeBookRecalculationService;
 import apps.sarafrika.elimika.course.service.CourseGradeBookService;
+import apps.sarafrika.elimika.course.service.impl.CourseGradeBookAggregation.AggregationResult;
+import apps.sarafrika.elimika.course.service.impl.CourseGradeBookAggregation.ScoredLineItem;
 import apps.sarafrika.elimika.course.util.enums.AttemptStatus;
 import apps.sarafrika.elimika.course.util.enums.CourseAssessmentAggregationStrategy;
 import apps.sarafrika.elimika.course.util.enums.CourseAssessmentLineItemRubricEvaluationStatus;
@@ -95,6 +98,8 @@ public class CourseGradeBookServiceImpl implements CourseGradeBookService {
     private final RubricCriteriaRepository rubricCriteriaRepository;
     private final RubricScoringLevelRepository rubricScoringLevelRepository;
     private final ClassDefinitionLookupService classDefinitionLookupService;
+    private final CourseGradeBookRecalculationService gradeBookRecalculationService;
+    private final CourseGradeBookRecalculator gradeBookRecalculator;
 
     @Override
     public CourseAssessmentLineItemDTO createLineItem(UUID courseUuid, UUID assessmentUuid, CourseAssessmentLineItemDTO lineItemDTO) {
@@ -1001,14 +1006,12 @@ public class CourseGradeBookServiceImpl implements CourseGradeBookService {
     }
 
     private void recalculateAssessmentForCourseEnrollments(UUID courseUuid, UUID assessmentUuid) {
-        CourseAssessment assessment = getAssessmentOrThrow(courseUuid, assessmentUuid);
-        for (CourseEnrollment enrollment : courseEnrollmentRepository.findByCourseUuid(courseUuid)) {
-            recalculateAssessmentForEnrollment(enrollment.getUuid(), assessment);
-            recalculateCourseFinalGrade(courseUuid, enrollment.getUuid());
-        }
+        getAssessmentOrThrow(courseUuid, assessmentUuid);
+        gradeBookRecalculationService.recalculateAssessment(courseUuid, assessmentUuid);
     }
 
     private CourseAssessmentScore recalculateAssessmentForEnrollment(UUID enrollmentUuid, CourseAssessment assessment) {
+        gradeBookRecalculator.awaitCourseRecalculation(assessment.getCourseUuid());
         List<CourseAssessmentLineItem> lineItems = lineItemRepository
                 .findByCourseAssessmentUuidOrderByDisplayOrderAscCreatedDateAsc(assessment.getUuid())
                 .stream()
@@ -1042,7 +1045,7 @@ public class CourseGradeBookServiceImpl implements CourseGradeBookService {
             return null;
         }
 
-        AggregationResult aggregationResult = aggregateAssessmentScore(assessment, scoredLineItems);
+        AggregationResult aggregationResult = CourseGradeBookAggregation.aggregateAssessmentScore(assessment, scoredLineItems);
         CourseAssessmentScore aggregateScore = courseAssessmentScoreRepository
                 .findByEnrollmentUuidAndAssessmentUuid(enrollmentUuid, assessment.getUuid())
                 .orElseGet(CourseAssessmentScore::new);
@@ -1052,7 +1055,7 @@ public class CourseGradeBookServiceImpl implements CourseGradeBookService {
         aggregateScore.setScore(aggregationResult.score());
         aggregateScore.setMaxScore(aggregationResult.maxScore());
         aggregateScore.setPercentage(aggregationResult.percentage());
-        aggregateScore.setComments("Derived from " + scoredLineItems.size() + " graded line items");
+        aggregateScore.setComments(CourseGradeBookAggregation.derivedComment(scoredLineItems.size()));
         aggregateScore.setGradedAt(aggregationResult.gradedAt());
         aggregateScore.setGradedByUuid(null);
 
@@ -1060,6 +1063,7 @@ public class CourseGradeBookServiceImpl implements CourseGradeBookService {
     }
 
     private BigDecimal recalculateCourseFinalGrade(UUID courseUuid, UUID enrollmentUuid) {
+        gradeBookRecalculator.awaitCourseRecalculation(courseUuid);
         CourseEnrollment enrollment = getEnrollmentOrThrow(courseUuid, enrollmentUuid);
         List<CourseAssessment> assessments = courseAssessmentRepository.findByCourseUuidOrderByCreatedDateAsc(courseUuid);
         if (assessments.isEmpty()) {
@@ -1076,115 +1080,16 @@ public class CourseGradeBookServiceImpl implements CourseGradeBookService {
                 .stream()
                 .collect(Collectors.toMap(CourseAssessmentScore::getAssessmentUuid, Function.identity()));
 
-        BigDecimal weightedScoreTotal = BigDecimal.ZERO;
-        BigDecimal appliedWeightTotal = BigDecimal.ZERO;
-
-        for (CourseAssessment assessment : assessments) {
-            CourseAssessmentScore componentScore = componentScoresByAssessmentUuid.get(assessment.getUuid());
-            if (componentScore == null || componentScore.getPercentage() == null) {
-                continue;
-            }
-
-            BigDecimal assessmentWeight = defaultWeight(assessment.getWeightPercentage());
-            if (assessmentWeight.compareTo(BigDecimal.ZERO) <= 0) {
-                continue;
-            }
-
-            weightedScoreTotal = weightedScoreTotal.add(componentScore.getPercentage().multiply(assessmentWeight));
-            appliedWeightTotal = appliedWeightTotal.add(assessmentWeight);
-        }
-
-        BigDecimal finalGrade = null;
-        if (appliedWeightTotal.compareTo(BigDecimal.ZERO) > 0) {
-            finalGrade = weightedScoreTotal
-                    .divide(appliedWeightTotal, DIVISION_SCALE, RoundingMode.HALF_UP)
-                    .setScale(2, RoundingMode.HALF_UP);
-        }
+        BigDecimal finalGrade = CourseGradeBookAggregation.finalGrade(assessments, assessmentUuid -> {
+            CourseAssessmentScore componentScore = componentScoresByAssessmentUuid.get(assessmentUuid);
+            return componentScore != null ? componentScore.getPercentage() : null;
+        });
 
         enrollment.setFinalGrade(finalGrade);
         courseEnrollmentRepository.save(enrollment);
         return finalGrade;
     }
 
-    private AggregationResult aggregateAssessmentScore(
-            CourseAssessment assessment,
-            List<ScoredLineItem> scoredLineItems
-    ) {
-        CourseAssessmentAggregationStrategy aggregationStrategy = assessment.getAggregationStrategy() != null
-                ? assessment.getAggregationStrategy()
-                : CourseAssessmentAggregationStrategy.POINTS_SUM;
-
-        return switch (aggregationStrategy) {
-            case POINTS_SUM -> aggregatePointsSum(scoredLineItems);
-            case WEIGHTED_AVERAGE -> aggregateWeightedAverage(scoredLineItems);
-        };
-    }
-
-    private AggregationResult aggregatePointsSum(List<ScoredLineItem> scoredLineItems) {
-        BigDecimal totalScore = scoredLineItems.stream()
-                .map(ScoredLineItem::score)
-                .map(CourseAssessmentLineItemScore::getScore)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal totalMaxScore = scoredLineItems.stream()
-                .map(ScoredLineItem::score)
-                .map(CourseAssessmentLineItemScore::getMaxScore)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        if (totalMaxScore.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalStateException("Cannot aggregate line items without a positive total maximum score");
-        }
-
-        BigDecimal percentage = totalScore
-                .divide(totalMaxScore, DIVISION_SCALE, RoundingMode.HALF_UP)
-                .multiply(ONE_HUNDRED)
-                .setScale(2, RoundingMode.HALF_UP);
-
-        LocalDateTime latestGradedAt = scoredLineItems.stream()
-                .map(ScoredLineItem::score)
-                .map(CourseAssessmentLineItemScore::getGradedAt)
-                .filter(Objects::nonNull)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
-
-        return new AggregationResult(totalScore, totalMaxScore, percentage, latestGradedAt);
-    }
-
-    private AggregationResult aggregateWeightedAverage(List<ScoredLineItem> scoredLineItems) {
-        BigDecimal weightedTotal = BigDecimal.ZERO;
-        BigDecimal weightTotal = BigDecimal.ZERO;
-
-        for (ScoredLineItem scoredLineItem : scoredLineItems) {
-            BigDecimal lineItemWeight = scoredLineItem.lineItem().getWeightPercentage();
-            if (lineItemWeight == null || lineItemWeight.compareTo(BigDecimal.ZERO) <= 0) {
-                throw new IllegalStateException(
-                        "Weighted line item aggregation requires a positive weight for line item " + scoredLineItem.lineItem().getUuid()
-                );
-            }
-
-            weightedTotal = weightedTotal.add(scoredLineItem.score().getPercentage().multiply(lineItemWeight));
-            weightTotal = weightTotal.add(lineItemWeight);
-        }
-
-        if (weightTotal.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalStateException("Cannot aggregate weighted line items without a positive weight total");
-        }
-
-        BigDecimal percentage = weightedTotal
-                .divide(weightTotal, DIVISION_SCALE, RoundingMode.HALF_UP)
-                .setScale(2, RoundingMode.HALF_UP);
-
-        LocalDateTime latestGradedAt = scoredLineItems.stream()
-                .map(ScoredLineItem::score)
-                .map(CourseAssessmentLineItemScore::getGradedAt)
-                .filter(Objects::nonNull)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
-
-        return new AggregationResult(percentage, ONE_HUNDRED, percentage, latestGradedAt);
-    }
-
     private void applyCreateDefaults(CourseAssessmentLineItem lineItem) {
         if (lineItem.getDisplayOrder() == null && lineItem.getCourseAssessmentUuid() != null) {
             lineItem.setDisplayOrder(nextDisplayOrder(lineItem.getCourseAssessmentUuid()));
@@ -1371,17 +1276,6 @@ public class CourseGradeBookServiceImpl implements CourseGradeBookService {
                         String.format(ENROLLMENT_NOT_FOUND_TEMPLATE, enrollmentUuid, courseUuid)));
     }
 
-    private record ScoredLineItem(CourseAssessmentLineItem lineItem, CourseAssessmentLineItemScore score) {
-    }
-
-    private record AggregationResult(
-            BigDecimal score,
-            BigDecimal maxScore,
-            BigDecimal percentage,
-            LocalDateTime gradedAt
-    ) {
-    }
-
     private record ValidatedRubricSelection(
             RubricCriteria criteria,
             RubricScoringLevel scoringLevel,
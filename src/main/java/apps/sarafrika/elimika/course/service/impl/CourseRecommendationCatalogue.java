@@ -0,0 +1,150 @@
+package apps.sarafrika.elimika.course.service.impl;
+
+import apps.sarafrika.elimika.course.internal.CourseCatalogueChangedEvent;
+import apps.sarafrika.elimika.course.model.Course;
+import apps.sarafrika.elimika.course.model.CourseCategoryMapping;
+import apps.sarafrika.elimika.course.repository.CourseCategoryMappingRepository;
+import apps.sarafrika.elimika.course.repository.CourseRepository;
+import apps.sarafrika.elimika.course.util.enums.ContentStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the {@link CourseRecommendationIndex} of published courses.
+ * <p>
+ * The index is built from two projection queries on first use and then kept current course by course:
+ * every {@link CourseCatalogueChangedEvent} re-reads that one course and its categories once the
+ * writing transaction has committed, and adds, replaces or removes it depending on whether it is still
+ * published. The index is rebuilt whole every {@code app.course-recommendations.rebuild-interval} as
+ * the safety net for writes made on another node or directly in the database; courses that change
+ * while a rebuild is loading are re-read once it is swapped in.
+ */
+@Component
+@Slf4j
+class CourseRecommendationCatalogue {
+
+    private final CourseRepository courseRepository;
+    private final CourseCategoryMappingRepository categoryMappingRepository;
+
+    private volatile CourseRecommendationIndex index;
+    /** Non-null while a rebuild is loading: courses changed meanwhile, re-read after the swap. */
+    private volatile Set<UUID> changedDuringRebuild;
+
+    CourseRecommendationCatalogue(CourseRepository courseRepository,
+                                  CourseCategoryMappingRepository categoryMappingRepository) {
+        this.courseRepository = courseRepository;
+        this.categoryMappingRepository = categoryMappingRepository;
+    }
+
+    CourseRecommendationIndex index() {
+        CourseRecommendationIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index != null ? index : rebuild();
+            }
+        }
+        return current;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.course-recommendations.rebuild-interval:PT1H}",
+            fixedDelayString = "${app.course-recommendations.rebuild-interval:PT1H}")
+    void scheduledRebuild() {
+        rebuild();
+    }
+
+    synchronized CourseRecommendationIndex rebuild() {
+        Set<UUID> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild = changed;
+        CourseRecommendationIndex rebuilt;
+        try {
+            rebuilt = load();
+            index = rebuilt;
+        } finally {
+            changedDuringRebuild = null;
+        }
+        changed.forEach(courseUuid -> refreshQuietly(rebuilt, courseUuid));
+        return rebuilt;
+    }
+
+    @EventListener
+    void onCatalogueChanged(CourseCatalogueChangedEvent event) {
+        UUID courseUuid = event.courseUuid();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(courseUuid);
+                }
+            });
+        } else {
+            apply(courseUuid);
+        }
+    }
+
+    private void apply(UUID courseUuid) {
+        Set<UUID> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.add(courseUuid);
+        }
+        CourseRecommendationIndex current = index;
+        if (current == null) {
+            // Not built yet: the first build reads the committed row anyway.
+            return;
+        }
+        refreshQuietly(current, courseUuid);
+    }
+
+    private void refreshQuietly(CourseRecommendationIndex target, UUID courseUuid) {
+        try {
+            refresh(target, courseUuid);
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh course {} in the recommendation index; the next rebuild will: {}",
+                    courseUuid, ex.getMessage());
+        }
+    }
+
+    private void refresh(CourseRecommendationIndex target, UUID courseUuid) {
+        Optional<Course> course = courseRepository.findByUuid(courseUuid);
+        if (course.isEmpty() || course.get().getStatus() != ContentStatus.PUBLISHED) {
+            target.remove(courseUuid);
+            return;
+        }
+        List<UUID> categories = categoryMappingRepository.findByCourseUuid(courseUuid).stream()
+                .map(CourseCategoryMapping::getCategoryUuid)
+                .toList();
+        target.put(courseUuid, categories, course.get().getDifficultyUuid(), course.get().getCreatedDate());
+    }
+
+    private CourseRecommendationIndex load() {
+        long started = System.nanoTime();
+        Map<UUID, List<UUID>> categoriesByCourse = new HashMap<>();
+        for (Object[] pair : categoryMappingRepository.findCourseCategoryPairsByCourseStatus(ContentStatus.PUBLISHED)) {
+            categoriesByCourse.computeIfAbsent((UUID) pair[0], uuid -> new ArrayList<>()).add((UUID) pair[1]);
+        }
+
+        CourseRecommendationIndex loaded = new CourseRecommendationIndex();
+        for (Object[] row : courseRepository.findRecommendationRowsByStatus(ContentStatus.PUBLISHED)) {
+            UUID courseUuid = (UUID) row[0];
+            loaded.put(courseUuid, categoriesByCourse.getOrDefault(courseUuid, List.of()),
+                    (UUID) row[1], (LocalDateTime) row[2]);
+        }
+        log.info("Built course recommendation index: {} published courses in {} ms",
+                loaded.size(), (System.nanoTime() - started) / 1_000_000);
+        return loaded;
+    }
+}
@@ -0,0 +1,258 @@
+package apps.sarafrika.elimika.course.service.impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory view of the published catalogue shaped for recommendation scoring.
+ * <p>
+ * Category and difficulty UUIDs are given dense int ids the first time they are seen, so each course
+ * is a category bitset ({@code long} words over the category ids), a difficulty id and its creation
+ * time, held in parallel arrays. Scoring a candidate is a popcount of the intersection of two bitsets
+ * and a bit test, and the best {@code limit} are kept in a bounded heap rather than sorting the whole
+ * catalogue.
+ * <p>
+ * Courses are added, replaced and removed one at a time; a removed course's slot is reused. Reads
+ * share a read lock and writes take the write lock, so a query never sees a half-written course.
+ */
+final class CourseRecommendationIndex {
+
+    static final double CATEGORY_WEIGHT = 3.0;
+    static final double DIFFICULTY_WEIGHT = 1.0;
+
+    private static final long NO_CREATED_DATE = Long.MIN_VALUE;
+    private static final long[] NO_CATEGORIES = new long[0];
+
+    /** Best first: highest score, then newest, with courses that have no creation date last. */
+    private static final Comparator<Match> RANKING = Comparator
+            .comparingDouble(Match::score).reversed()
+            .thenComparing(Comparator.comparingLong(Match::createdAt).reversed());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Integer> categoryIds = new HashMap<>();
+    private final Map<UUID, Integer> difficultyIds = new HashMap<>();
+    private final Map<UUID, Integer> slotsByCourse = new HashMap<>();
+
+    private UUID[] courses = new UUID[64];
+    private long[][] categoryBits = new long[64][];
+    private int[] difficulties = new int[64];
+    private long[] createdAt = new long[64];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /**
+     * Adds {@code courseUuid}, or replaces what the index holds for it.
+     */
+    void put(UUID courseUuid, Collection<UUID> categories, UUID difficultyUuid, LocalDateTime createdDate) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotsByCourse.get(courseUuid);
+            int slot = existing != null ? existing : allocateSlot();
+            courses[slot] = courseUuid;
+            categoryBits[slot] = bitsFor(categories);
+            difficulties[slot] = difficultyUuid == null
+                    ? -1
+                    : difficultyIds.computeIfAbsent(difficultyUuid, uuid -> difficultyIds.size());
+            createdAt[slot] = createdDate == null ? NO_CREATED_DATE : epochMicros(createdDate);
+            if (existing == null) {
+                slotsByCourse.put(courseUuid, slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops {@code courseUuid}; a no-op when the index does not hold it.
+     */
+    void remove(UUID courseUuid) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByCourse.remove(courseUuid);
+            if (slot == null) {
+                return;
+            }
+            courses[slot] = null;
+            categoryBits[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByCourse.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code limit} best-scoring courses for a profile, best first. A course scores
+     * {@link #CATEGORY_WEIGHT} per category it shares with the profile plus {@link #DIFFICULTY_WEIGHT}
+     * when its difficulty is one of the profile's; courses scoring zero and {@code excluded} courses
+     * are never returned.
+     */
+    List<Match> topMatches(Set<UUID> profileCategories, Set<UUID> profileDifficulties, Set<UUID> excluded, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] profileBits = knownBitsFor(profileCategories);
+            boolean[] wantedDifficulties = new boolean[difficultyIds.size()];
+            for (UUID difficultyUuid : profileDifficulties) {
+                Integer id = difficultyIds.get(difficultyUuid);
+                if (id != null) {
+                    wantedDifficulties[id] = true;
+                }
+            }
+
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (int slot = 0; slot < slotCount; slot++) {
+                UUID courseUuid = courses[slot];
+                if (courseUuid == null) {
+                    continue;
+                }
+                int shared = sharedCount(categoryBits[slot], profileBits);
+                int difficulty = difficulties[slot];
+                boolean sameDifficulty = difficulty >= 0 && wantedDifficulties[difficulty];
+                double score = shared * CATEGORY_WEIGHT + (sameDifficulty ? DIFFICULTY_WEIGHT : 0.0);
+                if (score > 0 && beats(best, limit, score, createdAt[slot]) && !excluded.contains(courseUuid)) {
+                    offer(best, limit, new Match(courseUuid, score, shared, sameDifficulty, createdAt[slot]));
+                }
+            }
+            return drain(best);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code limit} most recently created courses not in {@code excluded}, newest first.
+     */
+    List<Match> newest(Set<UUID> excluded, int limit) {
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (int slot = 0; slot < slotCount; slot++) {
+                UUID courseUuid = courses[slot];
+                if (courseUuid != null && beats(best, limit, 0.0, createdAt[slot]) && !excluded.contains(courseUuid)) {
+                    offer(best, limit, new Match(courseUuid, 0.0, 0, false, createdAt[slot]));
+                }
+            }
+            return drain(best);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == courses.length) {
+            int capacity = courses.length * 2;
+            courses = Arrays.copyOf(courses, capacity);
+            categoryBits = Arrays.copyOf(categoryBits, capacity);
+            difficulties = Arrays.copyOf(difficulties, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+        }
+        return slotCount++;
+    }
+
+    /** Bitset over the categories, giving unseen categories the next free id. Write lock held. */
+    private long[] bitsFor(Collection<UUID> categories) {
+        if (categories == null || categories.isEmpty()) {
+            return NO_CATEGORIES;
+        }
+        long[] bits = NO_CATEGORIES;
+        for (UUID categoryUuid : categories) {
+            if (categoryUuid == null) {
+                continue;
+            }
+            int id = categoryIds.computeIfAbsent(categoryUuid, uuid -> categoryIds.size());
+            bits = setBit(bits, id);
+        }
+        return bits;
+    }
+
+    /** Bitset over the categories the index already knows; the rest cannot match anything. Read lock held. */
+    private long[] knownBitsFor(Collection<UUID> categories) {
+        long[] bits = NO_CATEGORIES;
+        for (UUID categoryUuid : categories) {
+            Integer id = categoryIds.get(categoryUuid);
+            if (id != null) {
+                bits = setBit(bits, id);
+            }
+        }
+        return bits;
+    }
+
+    private static long[] setBit(long[] bits, int id) {
+        int word = id >>> 6;
+        long[] target = word < bits.length ? bits : Arrays.copyOf(bits, word + 1);
+        target[word] |= 1L << id;
+        return target;
+    }
+
+    private static int sharedCount(long[] candidate, long[] profile) {
+        int words = Math.min(candidate.length, profile.length);
+        int shared = 0;
+        for (int i = 0; i < words; i++) {
+            shared += Long.bitCount(candidate[i] & profile[i]);
+        }
+        return shared;
+    }
+
+    /** Whether a candidate would enter the heap, checked before allocating it. */
+    private static boolean beats(PriorityQueue<Match> best, int limit, double score, long created) {
+        if (best.size() < limit) {
+            return true;
+        }
+        Match worst = best.peek();
+        return score > worst.score() || (score == worst.score() && created > worst.createdAt());
+    }
+
+    private static void offer(PriorityQueue<Match> best, int limit, Match match) {
+        best.add(match);
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    private static List<Match> drain(PriorityQueue<Match> best) {
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked;
+    }
+
+    private static long epochMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    /**
+     * One ranked course.
+     *
+     * @param sharedCategories categories shared with the profile
+     * @param sameDifficulty   whether the difficulty is one of the profile's
+     * @param createdAt        creation time in epoch microseconds, {@link Long#MIN_VALUE} when unknown
+     */
+    record Match(UUID courseUuid, double score, int sharedCategories, boolean sameDifficulty, long createdAt) {
+    }
+}
@@ -7,7 +7,6 @@ import apps.sarafrika.elimika.course.repository.CourseCategoryMappingRepository;
 import apps.sarafrika.elimika.course.repository.CourseRepository;
 import apps.sarafrika.elimika.course.repository.CourseTrainingApplicationRepository;
 import apps.sarafrika.elimika.course.service.CourseRecommendationService;
-import apps.sarafrika.elimika.course.util.enums.ContentStatus;
 import apps.sarafrika.elimika.course.util.enums.CourseTrainingApplicationStatus;
 import apps.sarafrika.elimika.coursecreator.spi.CourseCreatorLookupService;
 import apps.sarafrika.elimika.instructor.spi.InstructorLookupService;
@@ -16,11 +15,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -32,6 +31,9 @@ import java.util.UUID;
  * category count (weighted) and matching difficulty, excluding courses already taken.
  * When there is no usable history — or nothing overlaps — it falls back to the most
  * recently published courses.
+ * <p>
+ * Scoring and ranking run against the in-memory {@link CourseRecommendationIndex} of published
+ * courses, so a request costs the profile lookups plus one query for the courses it returns.
  */
 @Service
 @RequiredArgsConstructor
@@ -41,14 +43,13 @@ public class CourseRecommendationServiceImpl implements CourseRecommendationServ
 
     private static final int DEFAULT_LIMIT = 6;
     private static final int MAX_LIMIT = 50;
-    private static final double CATEGORY_WEIGHT = 3.0;
-    private static final double DIFFICULTY_WEIGHT = 1.0;
 
     private final CourseRepository courseRepository;
     private final CourseCategoryMappingRepository categoryMappingRepository;
     private final CourseTrainingApplicationRepository trainingApplicationRepository;
     private final CourseCreatorLookupService courseCreatorLookupService;
     private final InstructorLookupService instructorLookupService;
+    private final CourseRecommendationCatalogue recommendationCatalogue;
 
     @Override
     public List<RecommendedCourseDTO> recommendForUser(UUID userUuid, int limit) {
@@ -62,11 +63,16 @@ public class CourseRecommendationServiceImpl implements CourseRecommendationServ
         final Set<UUID> profileCategories = new HashSet<>();
         final Set<UUID> profileDifficulties = new HashSet<>();
         if (!pastCourseUuids.isEmpty()) {
-            for (Course past : courseRepository.findByUuidIn(new ArrayList<>(pastCourseUuids))) {
+            final List<UUID> pastCourses = new ArrayList<>(pastCourseUuids);
+            for (Course past : courseRepository.findByUuidIn(pastCourses)) {
                 if (past.getDifficultyUuid() != null) {
                     profileDifficulties.add(past.getDifficultyUuid());
                 }
-                profileCategories.addAll(categoriesOf(past.getUuid()));
+            }
+            for (CourseCategoryMapping mapping : categoryMappingRepository.findByCourseUuidIn(pastCourses)) {
+                if (mapping.getCategoryUuid() != null) {
+                    profileCategories.add(mapping.getCategoryUuid());
+                }
             }
         }
 
@@ -75,34 +81,12 @@ public class CourseRecommendationServiceImpl implements CourseRecommendationServ
             return popularityFallback(pastCourseUuids, cappedLimit);
         }
 
-        final List<Scored> scored = new ArrayList<>();
-        for (Course candidate : courseRepository.findByStatus(ContentStatus.PUBLISHED)) {
-            if (pastCourseUuids.contains(candidate.getUuid())) {
-                continue;
-            }
-            final Set<UUID> candidateCategories = categoriesOf(candidate.getUuid());
-            final long sharedCategories = candidateCategories.stream()
-                    .filter(profileCategories::contains)
-                    .count();
-            final boolean sameDifficulty = candidate.getDifficultyUuid() != null
-                    && profileDifficulties.contains(candidate.getDifficultyUuid());
-            final double score = sharedCategories * CATEGORY_WEIGHT + (sameDifficulty ? DIFFICULTY_WEIGHT : 0.0);
-            if (score > 0) {
-                scored.add(new Scored(candidate, score, sharedCategories, sameDifficulty));
-            }
-        }
-
-        if (scored.isEmpty()) {
+        final List<CourseRecommendationIndex.Match> matches = recommendationCatalogue.index()
+                .topMatches(profileCategories, profileDifficulties, pastCourseUuids, cappedLimit);
+        if (matches.isEmpty()) {
             return popularityFallback(pastCourseUuids, cappedLimit);
         }
-
-        return scored.stream()
-                .sorted(Comparator.comparingDouble((Scored s) -> s.score).reversed()
-                        .thenComparing(s -> s.course.getCreatedDate(),
-                                Comparator.nullsLast(Comparator.reverseOrder())))
-                .limit(cappedLimit)
-                .map(s -> toDto(s.course, s.score, reasonFor(s)))
-                .toList();
+        return toDtos(matches);
     }
 
     private Set<UUID> resolvePastCourseUuids(UUID userUuid) {
@@ -123,31 +107,38 @@ public class CourseRecommendationServiceImpl implements CourseRecommendationServ
         return past;
     }
 
-    private Set<UUID> categoriesOf(UUID courseUuid) {
-        final Set<UUID> categories = new HashSet<>();
-        for (CourseCategoryMapping mapping : categoryMappingRepository.findByCourseUuid(courseUuid)) {
-            if (mapping.getCategoryUuid() != null) {
-                categories.add(mapping.getCategoryUuid());
-            }
-        }
-        return categories;
+    private List<RecommendedCourseDTO> popularityFallback(Set<UUID> excluded, int limit) {
+        return toDtos(recommendationCatalogue.index().newest(excluded, limit));
     }
 
-    private List<RecommendedCourseDTO> popularityFallback(Set<UUID> excluded, int limit) {
-        return courseRepository.findByStatus(ContentStatus.PUBLISHED).stream()
-                .filter(course -> !excluded.contains(course.getUuid()))
-                .sorted(Comparator.comparing(Course::getCreatedDate,
-                        Comparator.nullsLast(Comparator.reverseOrder())))
-                .limit(limit)
-                .map(course -> toDto(course, 0.0, "Popular right now"))
-                .toList();
+    /** Loads the ranked courses in one query, keeping the ranking; a course deleted meanwhile is skipped. */
+    private List<RecommendedCourseDTO> toDtos(List<CourseRecommendationIndex.Match> matches) {
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        final Map<UUID, Course> courses = new HashMap<>();
+        for (Course course : courseRepository.findByUuidIn(
+                matches.stream().map(CourseRecommendationIndex.Match::courseUuid).toList())) {
+            courses.put(course.getUuid(), course);
+        }
+        final List<RecommendedCourseDTO> recommendations = new ArrayList<>(matches.size());
+        for (CourseRecommendationIndex.Match match : matches) {
+            final Course course = courses.get(match.courseUuid());
+            if (course != null) {
+                recommendations.add(toDto(course, match.score(), reasonFor(match)));
+            }
+        }
+        return recommendations;
     }
 
-    private String reasonFor(Scored scored) {
-        if (scored.sharedCategories > 0) {
-            return scored.sharedCategories == 1
+    private String reasonFor(CourseRecommendationIndex.Match match) {
+        if (match.score() == 0.0) {
+            return "Popular right now";
+        }
+        if (match.sharedCategories() > 0) {
+            return match.sharedCategories() == 1
                     ? "Shares a topic with your courses"
-                    : "Shares " + scored.sharedCategories + " topics with your courses";
+                    : "Shares " + match.sharedCategories() + " topics with your courses";
         }
         return "Matches the level you usually teach";
     }
@@ -162,7 +153,4 @@ public class CourseRecommendationServiceImpl implements CourseRecommendationServ
                 score
         );
     }
-
-    private record Scored(Course course, double score, long sharedCategories, boolean sameDifficulty) {
-    }
 }
@@ -0,0 +1,483 @@
+package apps.sarafrika.elimika.course.service.impl;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Copies the authoring tree beneath a course (lessons and everything hanging off them,
+ * assessments with their line items, requirements and training requirements) for
+ * {@link CourseDraftServiceImpl}, one level at a time.
+ * <p>
+ * Each level is read for the whole course in a single query that returns only the keys of its
+ * rows: uuid, parent uuid and source link. The uuids of the written rows are decided in memory and
+ * every level is then written back with one {@code INSERT ... SELECT} and, when promoting, one
+ * {@code UPDATE ... FROM}, both joining the source rows through {@code unnest} of the key arrays.
+ * Column values never leave the database, and opening or promoting a draft takes the same number
+ * of statements for a three-lesson course as for a sixty-lesson one.
+ * <p>
+ * The course rows themselves and the category mappings stay with JPA in the service, because the
+ * catalogue listens for those entity events.
+ */
+@Component
+@Slf4j
+public class CourseTreeCopier {
+
+    private static final Level LESSON_LEVEL = new Level("lessons", "course_uuid", "source_lesson_uuid",
+            columns("lesson_number", "title", "description", "learning_objectives", "status", "active"),
+            // lesson_progress and content_progress reference lessons with RESTRICT, and learners keep
+            // their completion history, so a removed lesson is deactivated.
+            Removal.update("active = FALSE", "active IS DISTINCT FROM FALSE"));
+
+    private static final Level CONTENT_LEVEL = new Level("lesson_contents", "lesson_uuid", "source_content_uuid",
+            columns("content_type_uuid", "title", "description", "content_text", "file_url", "file_size_bytes",
+                    "mime_type", "display_order", "is_required"),
+            // content_progress references lesson_contents with RESTRICT, so removed content is marked
+            // not-required and moved out of the way.
+            Removal.update("is_required = FALSE, display_order = 2147483647",
+                    "(is_required IS DISTINCT FROM FALSE OR display_order IS DISTINCT FROM 2147483647)"));
+
+    private static final Level QUIZ_LEVEL = new Level("quizzes", "lesson_uuid", "source_quiz_uuid",
+            columns("title", "description", "instructions", "time_limit_minutes", "attempts_allowed",
+                    "passing_score", "rubric_uuid", "status", "active", "scope", "class_definition_uuid"),
+            Removal.update("active = FALSE", "active IS DISTINCT FROM FALSE"));
+
+    private static final Level QUESTION_LEVEL = new Level("quiz_questions", "quiz_uuid", "source_question_uuid",
+            columns("question_text", "question_type", "points", "display_order"),
+            // quiz_responses reference questions, so a removed question goes to the end of the order.
+            Removal.update("display_order = 2147483647", "display_order IS DISTINCT FROM 2147483647"));
+
+    private static final Level OPTION_LEVEL = new Level("quiz_question_options", "question_uuid", "source_option_uuid",
+            columns("option_text", "is_correct", "display_order"),
+            Removal.KEEP);
+
+    private static final Level ASSIGNMENT_LEVEL = new Level("assignments", "lesson_uuid", "source_assignment_uuid",
+            columns("title", "description", "instructions", "due_date", "max_points", "rubric_uuid",
+                    "submission_types", "is_published", "scope", "class_definition_uuid"),
+            // assignment_submissions reference assignments, so a removed assignment is unpublished.
+            Removal.update("is_published = FALSE", "is_published IS DISTINCT FROM FALSE"));
+
+    // Attachments and practice activities carry no learner references and no source link, so they
+    // are copied wholesale and replaced wholesale on promotion.
+    private static final Level ATTACHMENT_LEVEL = new Level("assignment_attachments", "assignment_uuid", null,
+            columns("original_filename", "stored_filename", "file_url", "file_size_bytes", "mime_type"),
+            Removal.REPLACE);
+
+    private static final Level PRACTICE_ACTIVITY_LEVEL = new Level("lesson_practice_activities", "lesson_uuid", null,
+            columns("title", "instructions", "activity_type", "grouping", "estimated_minutes", "materials",
+                    "expected_output", "display_order", "status", "active"),
+            Removal.REPLACE);
+
+    // Assessment and line-item scores reference these rows, so removed ones are deactivated.
+    private static final Level ASSESSMENT_LEVEL = new Level("course_assessments", "course_uuid", "source_assessment_uuid",
+            columns("assessment_type", "title", "description", "weight_percentage", "aggregation_strategy",
+                    "rubric_uuid", "sync_class_attendance", "is_required", "active = COALESCE(d.active, TRUE)"),
+            Removal.update("active = FALSE", "active IS DISTINCT FROM FALSE"));
+
+    private static final Level LINE_ITEM_LEVEL = new Level("course_assessment_line_items", "course_assessment_uuid",
+            "source_line_item_uuid",
+            columns("title", "description", "item_type", "assignment_uuid", "quiz_uuid", "rubric_uuid",
+                    "scheduled_instance_uuid", "max_score", "weight_percentage", "display_order",
+                    "active = COALESCE(d.active, TRUE)", "due_at"),
+            Removal.update("active = FALSE", "active IS DISTINCT FROM FALSE"),
+            // Each quiz and assignment backs at most one line item, so a copied line item follows
+            // the copy of its quiz or assignment instead of sharing the original's.
+            List.of("assignment_uuid", "quiz_uuid"));
+
+    // Requirements carry no learner data, so a removed one is hard-deleted.
+    private static final Level REQUIREMENT_LEVEL = new Level("course_requirements", "course_uuid",
+            "source_requirement_uuid",
+            columns("requirement_type", "requirement_text", "is_mandatory"),
+            Removal.DELETE);
+
+    private static final Level TRAINING_REQUIREMENT_LEVEL = new Level("course_training_requirements", "course_uuid",
+            "source_requirement_uuid",
+            columns("requirement_type", "name", "description", "quantity", "unit", "provided_by", "is_mandatory"),
+            Removal.DELETE);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    CourseTreeCopier(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Copies the tree of {@code liveCourseUuid} beneath the already saved draft course. Every copy
+     * gets a new uuid and points back at its live row through its source link. Must be called
+     * inside a transaction.
+     */
+    public Result cloneTree(UUID liveCourseUuid, UUID draftCourseUuid, String auditor) {
+        // The draft course row (and anything else pending) must exist before rows reference it.
+        entityManager.flush();
+
+        Pass pass = new Pass(auditor);
+        Map<UUID, UUID> course = Map.of(liveCourseUuid, draftCourseUuid);
+
+        Map<UUID, UUID> lessons = pass.clone(LESSON_LEVEL, course);
+        pass.clone(CONTENT_LEVEL, lessons);
+        Map<UUID, UUID> quizzes = pass.clone(QUIZ_LEVEL, lessons);
+        Map<UUID, UUID> questions = pass.clone(QUESTION_LEVEL, quizzes);
+        pass.clone(OPTION_LEVEL, questions);
+        Map<UUID, UUID> assignments = pass.clone(ASSIGNMENT_LEVEL, lessons);
+        pass.clone(ATTACHMENT_LEVEL, assignments);
+        pass.clone(PRACTICE_ACTIVITY_LEVEL, lessons);
+        Map<UUID, UUID> assessments = pass.clone(ASSESSMENT_LEVEL, course);
+        pass.clone(LINE_ITEM_LEVEL, assessments, List.of(assignments, quizzes));
+        pass.clone(REQUIREMENT_LEVEL, course);
+        pass.clone(TRAINING_REQUIREMENT_LEVEL, course);
+
+        log.debug("Cloned {} rows of course {} into draft {} in {} statements",
+                pass.rows, liveCourseUuid, draftCourseUuid, pass.statements);
+        return pass.result();
+    }
+
+    /**
+     * Reconciles the live tree of {@code liveCourseUuid} against the draft. A draft row whose
+     * source link names a live row under the matching live parent updates that row in place, so
+     * its uuid and the learner data behind it survive; any other draft row becomes a new live row.
+     * Live rows the draft no longer has are retired according to what references them.
+     * <p>
+     * Must be called inside a transaction. The persistence context is cleared afterwards, since
+     * entities loaded before the call no longer match their rows.
+     */
+    public Result promoteTree(UUID draftCourseUuid, UUID liveCourseUuid, String auditor) {
+        entityManager.flush();
+
+        Pass pass = new Pass(auditor);
+        Map<UUID, UUID> course = Map.of(draftCourseUuid, liveCourseUuid);
+
+        Map<UUID, UUID> lessons = pass.promote(LESSON_LEVEL, course);
+        pass.promote(CONTENT_LEVEL, lessons);
+        Map<UUID, UUID> quizzes = pass.promote(QUIZ_LEVEL, lessons);
+        Map<UUID, UUID> questions = pass.promote(QUESTION_LEVEL, quizzes);
+        pass.promote(OPTION_LEVEL, questions);
+        Map<UUID, UUID> assignments = pass.promote(ASSIGNMENT_LEVEL, lessons);
+        pass.promote(ATTACHMENT_LEVEL, assignments);
+        pass.promote(PRACTICE_ACTIVITY_LEVEL, lessons);
+        Map<UUID, UUID> assessments = pass.promote(ASSESSMENT_LEVEL, course);
+        pass.promote(LINE_ITEM_LEVEL, assessments, List.of(assignments, quizzes));
+        pass.promote(REQUIREMENT_LEVEL, course);
+        pass.promote(TRAINING_REQUIREMENT_LEVEL, course);
+
+        entityManager.clear();
+        log.debug("Promoted {} rows of draft {} onto course {} in {} statements",
+                pass.rows, draftCourseUuid, liveCourseUuid, pass.statements);
+        return pass.result();
+    }
+
+    private static List<String> columns(String... columns) {
+        return List.of(columns);
+    }
+
+    /**
+     * Rows written and statements sent by one clone or promotion.
+     */
+    public record Result(int rows, int statements) {
+    }
+
+    /**
+     * Key columns of one row as read for remapping.
+     */
+    private record KeyRow(UUID uuid, UUID parentUuid, UUID sourceUuid) {
+    }
+
+    /**
+     * What promotion does with a live row the draft no longer has. {@code assignments} and
+     * {@code condition} are SQL fragments for an UPDATE of the removed rows that still need it,
+     * so rows retired by an earlier promotion are left alone; {@code DELETE} removes
+     * them and {@code REPLACE} deletes every live row under a promoted parent before the draft rows
+     * are copied in.
+     */
+    private record Removal(String assignments, String condition, boolean delete, boolean replace) {
+
+        static final Removal KEEP = new Removal(null, null, false, false);
+        static final Removal DELETE = new Removal(null, null, true, false);
+        static final Removal REPLACE = new Removal(null, null, false, true);
+
+        static Removal update(String assignments, String condition) {
+            return new Removal(assignments, condition, false, false);
+        }
+
+        boolean retires() {
+            return delete || assignments != null;
+        }
+    }
+
+    /**
+     * One table of the tree and the statements that copy it. A column entry is either a column
+     * name copied as is, or {@code name = expression} over the source row {@code d}. A column in
+     * {@code references} points at another level of the tree and is translated through that
+     * level's uuid mapping, bound as a further pair of arrays, when the row it names was copied.
+     */
+    private record Level(String table, String parentColumn, String sourceColumn, List<String> columns,
+                         Removal removal, List<String> references) {
+
+        Level(String table, String parentColumn, String sourceColumn, List<String> columns, Removal removal) {
+            this(table, parentColumn, sourceColumn, columns, removal, List.of());
+        }
+
+        String keysSql() {
+            return "SELECT uuid, " + parentColumn + " AS parent_uuid, "
+                    + (sourceColumn != null ? sourceColumn : "NULL::uuid") + " AS source_uuid"
+                    + " FROM " + table + " WHERE " + parentColumn + " = ANY (?) ORDER BY created_date, id";
+        }
+
+        /**
+         * Inserts a copy of each {@code from_uuid} row as {@code target_uuid} under
+         * {@code target_parent_uuid}, optionally linking it back to its source. Copies are stamped a
+         * microsecond apart in key order so lists ordered by creation keep their order.
+         */
+        String insertSql(boolean linkSource) {
+            boolean link = linkSource && sourceColumn != null;
+            return "INSERT INTO " + table + " (uuid, " + parentColumn + (link ? ", " + sourceColumn : "") + ", "
+                    + columns.stream().map(Level::name).collect(Collectors.joining(", "))
+                    + ", created_date, created_by)"
+                    + " SELECT m.target_uuid, m.target_parent_uuid" + (link ? ", m.from_uuid" : "") + ", "
+                    + columns.stream().map(this::expression).collect(Collectors.joining(", "))
+                    + ", CAST(? AS timestamp) + m.ordinal * INTERVAL '1 microsecond', ?"
+                    + " FROM unnest(?::uuid[], ?::uuid[], ?::uuid[]) WITH ORDINALITY"
+                    + " AS m(from_uuid, target_uuid, target_parent_uuid, ordinal)"
+                    + " JOIN " + table + " d ON d.uuid = m.from_uuid" + referenceJoins();
+        }
+
+        String updateSql() {
+            return "UPDATE " + table + " l SET "
+                    + columns.stream().map(column -> name(column) + " = " + expression(column))
+                    .collect(Collectors.joining(", "))
+                    + ", " + sourceColumn + " = NULL, updated_date = ?, updated_by = ?"
+                    + " FROM unnest(?::uuid[], ?::uuid[]) AS m(from_uuid, target_uuid)"
+                    + " JOIN " + table + " d ON d.uuid = m.from_uuid" + referenceJoins()
+                    + " WHERE l.uuid = m.target_uuid";
+        }
+
+        String removeSql() {
+            if (removal.replace()) {
+                return "DELETE FROM " + table + " WHERE " + parentColumn + " = ANY (?)";
+            }
+            String scope = " WHERE " + parentColumn + " = ANY (?) AND uuid <> ALL (?)";
+            if (removal.delete()) {
+                return "DELETE FROM " + table + scope;
+            }
+            return "UPDATE " + table + " SET " + removal.assignments() + ", updated_date = ?, updated_by = ?" + scope
+                    + " AND " + removal.condition();
+        }
+
+        private String referenceJoins() {
+            StringBuilder joins = new StringBuilder();
+            for (int i = 0; i < references.size(); i++) {
+                joins.append(" LEFT JOIN unnest(?::uuid[], ?::uuid[]) AS r").append(i).append("(from_uuid, target_uuid)")
+                        .append(" ON r").append(i).append(".from_uuid = d.").append(references.get(i));
+            }
+            return joins.toString();
+        }
+
+        private static String name(String column) {
+            int assignment = column.indexOf('=');
+            return assignment < 0 ? column : column.substring(0, assignment).trim();
+        }
+
+        private String expression(String column) {
+            int reference = references.indexOf(column);
+            if (reference >= 0) {
+                return "COALESCE(r" + reference + ".target_uuid, d." + column + ")";
+            }
+            int assignment = column.indexOf('=');
+            return assignment < 0 ? "d." + column : column.substring(assignment + 1).trim();
+        }
+    }
+
+    /**
+     * One clone or promotion: the auditor and timestamp every written row is stamped with, and the
+     * running totals.
+     */
+    private final class Pass {
+
+        private final String auditor;
+        private final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        private int rows;
+        private int statements;
+
+        private Pass(String auditor) {
+            this.auditor = auditor;
+        }
+
+        Map<UUID, UUID> clone(Level level, Map<UUID, UUID> parents) {
+            return clone(level, parents, List.of());
+        }
+
+        /**
+         * Copies every row under the keys of {@code parents} beneath the parent they map to and
+         * returns the uuid each source row was copied to. {@code references} holds the mapping of
+         * each of the level's reference columns, in order.
+         */
+        Map<UUID, UUID> clone(Level level, Map<UUID, UUID> parents, List<Map<UUID, UUID>> references) {
+            List<UUID> from = new ArrayList<>();
+            List<UUID> targets = new ArrayList<>();
+            List<UUID> targetParents = new ArrayList<>();
+            Map<UUID, UUID> copies = new LinkedHashMap<>();
+            for (KeyRow row : keys(level, parents.keySet())) {
+                UUID copy = UUID.randomUUID();
+                from.add(row.uuid());
+                targets.add(copy);
+                targetParents.add(parents.get(row.parentUuid()));
+                copies.put(row.uuid(), copy);
+            }
+            insert(level, from, targets, targetParents, true, references);
+            return copies;
+        }
+
+        Map<UUID, UUID> promote(Level level, Map<UUID, UUID> parents) {
+            return promote(level, parents, List.of());
+        }
+
+        /**
+         * Writes the draft rows under the keys of {@code parents} onto the live parents they map to
+         * and retires the live rows left out, returning the live uuid each draft row now has.
+         */
+        Map<UUID, UUID> promote(Level level, Map<UUID, UUID> parents, List<Map<UUID, UUID>> references) {
+            Set<UUID> liveParents = new LinkedHashSet<>(parents.values());
+            Set<UUID> scope = new HashSet<>(parents.keySet());
+            scope.addAll(liveParents);
+
+            List<KeyRow> draftRows = new ArrayList<>();
+            Map<UUID, UUID> liveParentOf = new HashMap<>();
+            for (KeyRow row : keys(level, scope)) {
+                if (parents.containsKey(row.parentUuid())) {
+                    draftRows.add(row);
+                } else {
+                    liveParentOf.put(row.uuid(), row.parentUuid());
+                }
+            }
+
+            List<UUID> matchedFrom = new ArrayList<>();
+            List<UUID> matchedTargets = new ArrayList<>();
+            List<UUID> insertedFrom = new ArrayList<>();
+            List<UUID> insertedTargets = new ArrayList<>();
+            List<UUID> insertedParents = new ArrayList<>();
+            Map<UUID, UUID> promoted = new LinkedHashMap<>();
+            Set<UUID> claimed = new HashSet<>();
+
+            for (KeyRow row : draftRows) {
+                UUID liveParent = parents.get(row.parentUuid());
+                UUID source = row.sourceUuid();
+                UUID target;
+                // A source link only counts when the live row still sits under the same live parent,
+                // and only the first draft row to claim it updates it in place.
+                if (source != null && liveParent.equals(liveParentOf.get(source)) && claimed.add(source)) {
+                    target = source;
+                    matchedFrom.add(row.uuid());
+                    matchedTargets.add(target);
+                } else {
+                    target = UUID.randomUUID();
+                    insertedFrom.add(row.uuid());
+                    insertedTargets.add(target);
+                    insertedParents.add(liveParent);
+                }
+                promoted.put(row.uuid(), target);
+            }
+
+            if (level.removal().replace() && !liveParentOf.isEmpty()) {
+                rows += execute(level.removeSql(), (Object) uuids(liveParents));
+            }
+            update(level, matchedFrom, matchedTargets, references);
+            insert(level, insertedFrom, insertedTargets, insertedParents, false, references);
+            if (level.removal().retires() && !liveParentOf.isEmpty()) {
+                retire(level, liveParents, promoted.values());
+            }
+            return promoted;
+        }
+
+        private List<KeyRow> keys(Level level, Set<UUID> parents) {
+            if (parents.isEmpty()) {
+                return List.of();
+            }
+            statements++;
+            return jdbcTemplate.query(
+                    connection -> prepare(connection, level.keysSql(), (Object) uuids(parents)),
+                    (rs, rowNum) -> new KeyRow(
+                            rs.getObject("uuid", UUID.class),
+                            rs.getObject("parent_uuid", UUID.class),
+                            rs.getObject("source_uuid", UUID.class)));
+        }
+
+        private void insert(Level level, List<UUID> from, List<UUID> targets, List<UUID> targetParents,
+                            boolean linkSource, List<Map<UUID, UUID>> references) {
+            if (from.isEmpty()) {
+                return;
+            }
+            List<Object> args = new ArrayList<>(List.of(now, auditor, uuids(from), uuids(targets), uuids(targetParents)));
+            rows += execute(level.insertSql(linkSource), withReferences(args, references));
+        }
+
+        private void update(Level level, List<UUID> from, List<UUID> targets, List<Map<UUID, UUID>> references) {
+            if (from.isEmpty()) {
+                return;
+            }
+            List<Object> args = new ArrayList<>(List.of(now, auditor, uuids(from), uuids(targets)));
+            rows += execute(level.updateSql(), withReferences(args, references));
+        }
+
+        private void retire(Level level, Set<UUID> liveParents, Collection<UUID> retained) {
+            if (level.removal().delete()) {
+                rows += execute(level.removeSql(), uuids(liveParents), uuids(retained));
+            } else {
+                rows += execute(level.removeSql(), now, auditor, uuids(liveParents), uuids(retained));
+            }
+        }
+
+        private Object[] withReferences(List<Object> args, List<Map<UUID, UUID>> references) {
+            for (Map<UUID, UUID> reference : references) {
+                args.add(uuids(reference.keySet()));
+                args.add(uuids(reference.values()));
+            }
+            return args.toArray();
+        }
+
+        private int execute(String sql, Object... args) {
+            statements++;
+            return jdbcTemplate.update(connection -> prepare(connection, sql, args));
+        }
+
+        Result result() {
+            return new Result(rows, statements);
+        }
+    }
+
+    private static UUID[] uuids(Collection<UUID> values) {
+        return values.toArray(UUID[]::new);
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, Object... args) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg instanceof UUID[] values) {
+                statement.setArray(i + 1, connection.createArrayOf("uuid", values));
+            } else {
+                statement.setObject(i + 1, arg);
+            }
+        }
+        return statement;
+    }
+}
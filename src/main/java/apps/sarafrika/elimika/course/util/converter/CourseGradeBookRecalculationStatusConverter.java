@@ -0,0 +1,20 @@
+package apps.sarafrika.elimika.course.util.converter;
+
+import apps.sarafrika.elimika.course.util.enums.CourseGradeBookRecalculationStatus;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class CourseGradeBookRecalculationStatusConverter
+        implements AttributeConverter<CourseGradeBookRecalculationStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(CourseGradeBookRecalculationStatus attribute) {
+        return attribute != null ? attribute.getValue() : null;
+    }
+
+    @Override
+    public CourseGradeBookRecalculationStatus convertToEntityAttribute(String dbData) {
+        return dbData != null ? CourseGradeBookRecalculationStatus.fromString(dbData) : null;
+    }
+}
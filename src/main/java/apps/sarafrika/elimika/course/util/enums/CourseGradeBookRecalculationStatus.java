@@ -0,0 +1,49 @@
+package apps.sarafrika.elimika.course.util.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+public enum CourseGradeBookRecalculationStatus {
+    QUEUED("queued"),
+    RUNNING("running"),
+    COMPLETED("completed"),
+    FAILED("failed");
+
+    private final String value;
+
+    CourseGradeBookRecalculationStatus(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    @JsonCreator
+    public static CourseGradeBookRecalculationStatus fromValue(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (CourseGradeBookRecalculationStatus status : values()) {
+            if (status.value.equals(normalized)) {
+                return status;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown CourseGradeBookRecalculationStatus: " + value);
+    }
+
+    public static CourseGradeBookRecalculationStatus fromString(String value) {
+        return fromValue(value);
+    }
+}
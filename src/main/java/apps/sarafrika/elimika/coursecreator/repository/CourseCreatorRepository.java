@@ -3,6 +3,7 @@ package apps.sarafrika.elimika.coursecreator.repository;
 import apps.sarafrika.elimika.coursecreator.model.CourseCreator;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -22,4 +23,24 @@ public interface CourseCreatorRepository extends JpaRepository<CourseCreator, Lo
     long countByAdminVerified(Boolean adminVerified);
 
     long countByAdminVerifiedIsNull();
+
+    /**
+     * Course creator totals for the admin dashboard, in one statement. Creators never reviewed
+     * (a null flag) count as pending, as do those explicitly left unverified.
+     */
+    @Query("""
+            select count(c) as total,
+                   count(c) filter (where c.adminVerified = true) as verified,
+                   count(c) filter (where c.adminVerified = false or c.adminVerified is null) as pending
+            from CourseCreator c
+            """)
+    DashboardCounts countForDashboard();
+
+    interface DashboardCounts {
+        long getTotal();
+
+        long getVerified();
+
+        long getPending();
+    }
 }
@@ -14,15 +14,12 @@ public class CourseCreatorAnalyticsServiceImpl implements CourseCreatorAnalytics
 
     @Override
     public CourseCreatorAnalyticsSnapshot captureSnapshot() {
-        long totalCourseCreators = courseCreatorRepository.count();
-        long verifiedCourseCreators = courseCreatorRepository.countByAdminVerified(Boolean.TRUE);
-        long pendingCourseCreators = courseCreatorRepository.countByAdminVerified(Boolean.FALSE)
-                + courseCreatorRepository.countByAdminVerifiedIsNull();
+        CourseCreatorRepository.DashboardCounts creators = courseCreatorRepository.countForDashboard();
 
         return new CourseCreatorAnalyticsSnapshot(
-                totalCourseCreators,
-                verifiedCourseCreators,
-                pendingCourseCreators
+                creators.getTotal(),
+                creators.getVerified(),
+                creators.getPending()
         );
     }
 }
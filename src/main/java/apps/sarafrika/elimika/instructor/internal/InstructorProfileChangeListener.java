@@ -0,0 +1,33 @@
+package apps.sarafrika.elimika.instructor.internal;
+
+import apps.sarafrika.elimika.instructor.model.Instructor;
+import apps.sarafrika.elimika.shared.enums.CatalogueContentType;
+import apps.sarafrika.elimika.shared.event.search.CatalogueContentChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Announces every write to an instructor profile as a {@link CatalogueContentChangedEvent}, so the
+ * catalogue search index follows name, headline and bio changes from registration, profile edits and
+ * admin tooling alike.
+ * <p>
+ * Resolved by Hibernate through Spring's bean container, so the publisher is injected as usual.
+ */
+@Component
+@RequiredArgsConstructor
+public class InstructorProfileChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onProfileChanged(Instructor instructor) {
+        eventPublisher.publishEvent(
+                new CatalogueContentChangedEvent(CatalogueContentType.INSTRUCTOR, instructor.getUuid()));
+    }
+}
@@ -1,8 +1,13 @@
 package apps.sarafrika.elimika.instructor.model;
 
+import apps.sarafrika.elimika.instructor.internal.InstructorProfileChangeListener;
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+import apps.sarafrika.elimika.shared.geo.internal.LocationChangeListener;
 import apps.sarafrika.elimika.shared.model.BaseEntity;
+import apps.sarafrika.elimika.shared.model.Locatable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
 import lombok.*;
 
@@ -15,7 +20,8 @@ import java.util.UUID;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor @Table(name = "instructors")
-public class Instructor extends BaseEntity {
+@EntityListeners({InstructorProfileChangeListener.class, LocationChangeListener.class})
+public class Instructor extends BaseEntity implements Locatable {
 
     @Column(name = "user_uuid")
     private UUID userUuid;
@@ -43,5 +49,9 @@ public class Instructor extends BaseEntity {
 
     @Column(name="admin_verified")
     private Boolean adminVerified;
-}
 
+    @Override
+    public LocatedContentType locatedContentType() {
+        return LocatedContentType.INSTRUCTOR;
+    }
+}
@@ -37,4 +37,24 @@ public interface InstructorDocumentRepository extends JpaRepository<InstructorDo
     long countExpiringBetweenExcludingStatus(@Param("start") LocalDate start,
                                              @Param("end") LocalDate end,
                                              @Param("excludedStatus") DocumentStatus excludedStatus);
+
+    /**
+     * Document totals for the admin dashboard in one statement: unverified documents, and documents
+     * expiring in {@code [start, end]} that are not already in {@code excludedStatus}.
+     */
+    @Query("""
+            select count(d) filter (where d.isVerified = false) as pendingVerification,
+                   count(d) filter (where d.expiryDate between :start and :end
+                                      and (d.status is null or d.status <> :excludedStatus)) as expiring
+            from InstructorDocument d
+            """)
+    DashboardCounts countForDashboard(@Param("start") LocalDate start,
+                                      @Param("end") LocalDate end,
+                                      @Param("excludedStatus") DocumentStatus excludedStatus);
+
+    interface DashboardCounts {
+        long getPendingVerification();
+
+        long getExpiring();
+    }
 }
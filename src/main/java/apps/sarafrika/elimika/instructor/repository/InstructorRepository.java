@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -76,6 +77,8 @@ public interface InstructorRepository extends JpaRepository<Instructor, Long>, J
 
     Optional<Instructor> findByUuid(UUID uuid);
 
+    List<Instructor> findByUuidIn(Collection<UUID> uuids);
+
     void deleteByUuid(UUID uuid);
 
     boolean existsByUuid(UUID uuid);
@@ -100,4 +103,20 @@ public interface InstructorRepository extends JpaRepository<Instructor, Long>, J
      * @return number of instructors with the specified verification status
      */
     long countByAdminVerified(Boolean adminVerified);
+
+    /**
+     * Verified and unverified instructor totals for the admin dashboard, in one statement.
+     */
+    @Query("""
+            select count(i) filter (where i.adminVerified = true) as verified,
+                   count(i) filter (where i.adminVerified = false) as pending
+            from Instructor i
+            """)
+    VerificationCounts countVerificationForDashboard();
+
+    interface VerificationCounts {
+        long getVerified();
+
+        long getPending();
+    }
 }
@@ -21,17 +21,15 @@ public class InstructorAnalyticsServiceImpl implements InstructorAnalyticsServic
         LocalDate today = LocalDate.now();
         LocalDate thirtyDaysAhead = today.plusDays(30);
 
-        long verified = instructorRepository.countByAdminVerified(Boolean.TRUE);
-        long pending = instructorRepository.countByAdminVerified(Boolean.FALSE);
-        long documentsPendingVerification = instructorDocumentRepository.countByIsVerifiedFalse();
-        long expiringDocuments = instructorDocumentRepository
-                .countExpiringBetweenExcludingStatus(today, thirtyDaysAhead, DocumentStatus.EXPIRED);
+        InstructorRepository.VerificationCounts instructors = instructorRepository.countVerificationForDashboard();
+        InstructorDocumentRepository.DashboardCounts documents = instructorDocumentRepository
+                .countForDashboard(today, thirtyDaysAhead, DocumentStatus.EXPIRED);
 
         return new InstructorAnalyticsSnapshot(
-                verified,
-                pending,
-                documentsPendingVerification,
-                expiringDocuments
+                instructors.getVerified(),
+                instructors.getPending(),
+                documents.getPendingVerification(),
+                documents.getExpiring()
         );
     }
 }
@@ -7,8 +7,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of Instructor Lookup Service
@@ -43,6 +46,16 @@ public class InstructorLookupServiceImpl implements InstructorLookupService {
                 .map(Instructor::getUserUuid);
     }
 
+    @Override
+    public Map<UUID, UUID> getInstructorUserUuids(Collection<UUID> instructorUuids) {
+        if (instructorUuids == null || instructorUuids.isEmpty()) {
+            return Map.of();
+        }
+        return instructorRepository.findByUuidIn(instructorUuids).stream()
+                .filter(instructor -> instructor.getUserUuid() != null)
+                .collect(Collectors.toMap(Instructor::getUuid, Instructor::getUserUuid));
+    }
+
     @Override
     public Optional<Boolean> getInstructorProfileCompleteByUserUuid(UUID userUuid) {
         return instructorRepository.findByUserUuid(userUuid)
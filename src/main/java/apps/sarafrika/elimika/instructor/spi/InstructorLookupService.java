@@ -1,5 +1,7 @@
 package apps.sarafrika.elimika.instructor.spi;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -40,6 +42,14 @@ public interface InstructorLookupService {
      */
     Optional<UUID> getInstructorUserUuid(UUID instructorUuid);
 
+    /**
+     * Gets the user UUIDs of many instructors in one lookup.
+     *
+     * @param instructorUuids The UUIDs of the instructors
+     * @return Map from instructor UUID to user UUID; instructors that are not found are left out
+     */
+    Map<UUID, UUID> getInstructorUserUuids(Collection<UUID> instructorUuids);
+
     /**
      * Gets the instructor profile completion state for a base user UUID.
      *
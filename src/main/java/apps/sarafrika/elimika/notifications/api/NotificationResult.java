@@ -41,6 +41,18 @@ public record NotificationResult(
         );
     }
     
+    public static NotificationResult queued(UUID notificationId, String channel) {
+        return new NotificationResult(
+            notificationId,
+            DeliveryStatus.QUEUED,
+            channel,
+            null,
+            null,
+            null,
+            0
+        );
+    }
+    
     public static NotificationResult failed(UUID notificationId, String channel, String errorMessage) {
         return new NotificationResult(
             notificationId,
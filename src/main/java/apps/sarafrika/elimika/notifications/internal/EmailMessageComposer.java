@@ -0,0 +1,88 @@
+package apps.sarafrika.elimika.notifications.internal;
+
+import apps.sarafrika.elimika.notifications.internal.EmailOutboxStore.ClaimedEmail;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns a rendered outbox email into a MIME message with the platform logos inline.
+ * <p>
+ * The logos are read from the classpath once, when the application starts, and every message shares
+ * the same bytes; they are never handed out, so they cannot change underneath a message being built.
+ */
+@Component
+@Slf4j
+public class EmailMessageComposer {
+
+    private static final String LOGO_CONTENT_TYPE = "image/svg+xml";
+    private static final Map<String, String> LOGO_PATHS = Map.of(
+            "elimikaLogo", "static/logos/elimika/elimika-logo-full-color.svg",
+            "sarafrikaLogo", "static/logos/sarafrika/sarafrika-logo-full-color.svg");
+
+    private final JavaMailSender mailSender;
+    private final Map<String, byte[]> logos;
+
+    @Value("${app.email.from:no-reply@sarafrika.com}")
+    private String fromEmail;
+
+    @Value("${app.email.from-name:Elimika}")
+    private String fromName;
+
+    public EmailMessageComposer(JavaMailSender mailSender) {
+        this.mailSender = mailSender;
+        this.logos = loadLogos();
+    }
+
+    public MimeMessage compose(ClaimedEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        try {
+            helper.setFrom(fromEmail, fromName);
+        } catch (UnsupportedEncodingException e) {
+            helper.setFrom(fromEmail);
+        }
+        helper.setTo(email.recipientEmail());
+        helper.setSubject(email.subject());
+        helper.setText(email.htmlBody(), true);
+        if (email.replyTo() != null) {
+            helper.setReplyTo(email.replyTo());
+        }
+        for (Map.Entry<String, byte[]> logo : logos.entrySet()) {
+            helper.addInline(logo.getKey(), new ByteArrayResource(logo.getValue()), LOGO_CONTENT_TYPE);
+        }
+        return message;
+    }
+
+    private static Map<String, byte[]> loadLogos() {
+        Map<String, byte[]> loaded = new LinkedHashMap<>();
+        LOGO_PATHS.forEach((contentId, path) -> {
+            ClassPathResource resource = new ClassPathResource(path);
+            if (!resource.exists()) {
+                // Emails still go out without it; the template just shows a broken image.
+                log.warn("Email logo not found at: {}", path);
+                return;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                loaded.put(contentId, StreamUtils.copyToByteArray(in));
+            } catch (IOException e) {
+                log.warn("Could not read email logo {}: {}", path, e.getMessage());
+            }
+        });
+        return Map.copyOf(loaded);
+    }
+}
@@ -0,0 +1,394 @@
+package apps.sarafrika.elimika.notifications.internal;
+
+import apps.sarafrika.elimika.notifications.api.DeliveryStatus;
+import apps.sarafrika.elimika.notifications.api.NotificationPriority;
+import apps.sarafrika.elimika.notifications.internal.EmailOutboxStore.ClaimedEmail;
+import apps.sarafrika.elimika.notifications.model.NotificationDeliveryLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains {@code notification_email_outbox} into the mail server.
+ *
+ * <h2>Connections</h2>
+ * A fixed pool of {@code connections} workers does the sending, so the mail server never sees more
+ * than that many sessions from this node however many emails are queued. Each worker is handed a
+ * batch of up to {@code messages-per-connection} emails and sends the whole batch over one SMTP
+ * session, rather than opening a session per email.
+ *
+ * <h2>Priority and rate</h2>
+ * A single dispatcher thread claims the work. Each time a worker is free it claims the next batch
+ * from the highest priority with anything due, so a password reset is never stuck behind a class-wide
+ * announcement. Claims are metered by token buckets: one for the whole outbox, which protects the
+ * mail server, and optionally one per priority, which keeps bulk mail from using all of it.
+ *
+ * <h2>Failures</h2>
+ * An email the server did not accept goes back in the queue after an exponential backoff, starting
+ * at {@code backoff.initial} and doubling up to {@code backoff.max}; after {@code max-attempts} it is
+ * marked failed and left in the table. An email that cannot be built at all, such as one with a
+ * malformed address, fails at once. Its delivery log entry follows each step.
+ * <p>
+ * Publishes {@code elimika.email.outbox.sent}, {@code elimika.email.outbox.retried} and
+ * {@code elimika.email.outbox.failed}.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final List<NotificationPriority> PRIORITY_ORDER = List.of(
+            NotificationPriority.CRITICAL, NotificationPriority.HIGH, NotificationPriority.NORMAL, NotificationPriority.LOW);
+
+    private final EmailOutboxStore outboxStore;
+    private final EmailMessageComposer messageComposer;
+    private final JavaMailSender mailSender;
+    private final NotificationDeliveryLogRepository deliveryLogRepository;
+
+    private final boolean dispatcherEnabled;
+    private final int messagesPerConnection;
+    private final int maxAttempts;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final TokenBucket totalRate;
+    private final Map<NotificationPriority, TokenBucket> priorityRates = new EnumMap<>(NotificationPriority.class);
+    private final Semaphore idleConnections;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final ExecutorService workers;
+    private volatile Thread dispatcher;
+    /** How long until a rate limit that held back the last claim lets something through. */
+    private volatile long throttledForNanos = Long.MAX_VALUE;
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public EmailOutboxDispatcher(
+            EmailOutboxStore outboxStore,
+            EmailMessageComposer messageComposer,
+            JavaMailSender mailSender,
+            NotificationDeliveryLogRepository deliveryLogRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.email.outbox.dispatcher-enabled:true}") boolean dispatcherEnabled,
+            @Value("${app.email.outbox.connections:4}") int connections,
+            @Value("${app.email.outbox.messages-per-connection:50}") int messagesPerConnection,
+            @Value("${app.email.outbox.max-attempts:6}") int maxAttempts,
+            @Value("${app.email.outbox.poll-interval:PT5S}") Duration pollInterval,
+            @Value("${app.email.outbox.lease:PT5M}") Duration lease,
+            @Value("${app.email.outbox.backoff.initial:PT1M}") Duration initialBackoff,
+            @Value("${app.email.outbox.backoff.max:PT1H}") Duration maxBackoff,
+            @Value("${app.email.outbox.rate-per-second.total:20}") double totalPerSecond,
+            @Value("${app.email.outbox.rate-per-second.critical:0}") double criticalPerSecond,
+            @Value("${app.email.outbox.rate-per-second.high:0}") double highPerSecond,
+            @Value("${app.email.outbox.rate-per-second.normal:10}") double normalPerSecond,
+            @Value("${app.email.outbox.rate-per-second.low:5}") double lowPerSecond) {
+        if (connections < 1 || messagesPerConnection < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException(
+                    "Email outbox connections, messages-per-connection and max-attempts must be positive");
+        }
+        this.outboxStore = outboxStore;
+        this.messageComposer = messageComposer;
+        this.mailSender = mailSender;
+        this.deliveryLogRepository = deliveryLogRepository;
+        this.dispatcherEnabled = dispatcherEnabled;
+        this.messagesPerConnection = messagesPerConnection;
+        this.maxAttempts = maxAttempts;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        this.totalRate = new TokenBucket(totalPerSecond);
+        priorityRates.put(NotificationPriority.CRITICAL, new TokenBucket(criticalPerSecond));
+        priorityRates.put(NotificationPriority.HIGH, new TokenBucket(highPerSecond));
+        priorityRates.put(NotificationPriority.NORMAL, new TokenBucket(normalPerSecond));
+        priorityRates.put(NotificationPriority.LOW, new TokenBucket(lowPerSecond));
+
+        this.idleConnections = new Semaphore(connections);
+        this.workers = Executors.newFixedThreadPool(connections, Thread.ofPlatform().name("email-outbox-", 0).factory());
+
+        this.sentCounter = Counter.builder("elimika.email.outbox.sent")
+                .description("Outbox emails accepted by the mail server")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("elimika.email.outbox.retried")
+                .description("Outbox emails put back in the queue after a failed attempt")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("elimika.email.outbox.failed")
+                .description("Outbox emails given up on")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!dispatcherEnabled) {
+            log.info("Email outbox dispatcher disabled on this node; emails are queued for other nodes to send");
+            return;
+        }
+        dispatcher = Thread.ofPlatform().name("email-outbox-dispatcher").daemon().start(this::dispatch);
+        log.info("Email outbox dispatcher started with {} connections", idleConnections.availablePermits());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        Thread running = dispatcher;
+        dispatcher = null;
+        if (running != null) {
+            running.interrupt();
+        }
+        workers.shutdown();
+        // Anything still unsent when this gives up is claimed again once its lease runs out.
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Tells the dispatcher that emails were queued, so it need not wait for its next poll.
+     */
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    /**
+     * Sends everything due that the rate limits allow on the calling thread, one batch at a time.
+     *
+     * @return the number of emails claimed
+     */
+    int dispatchDue() {
+        int claimed = 0;
+        for (List<ClaimedEmail> batch = claimNextBatch(); !batch.isEmpty(); batch = claimNextBatch()) {
+            claimed += batch.size();
+            send(batch);
+        }
+        return claimed;
+    }
+
+    private void dispatch() {
+        while (dispatcher != null) {
+            try {
+                idleConnections.acquire();
+                List<ClaimedEmail> batch;
+                try {
+                    batch = claimNextBatch();
+                } catch (RuntimeException ex) {
+                    idleConnections.release();
+                    throw ex;
+                }
+                if (batch.isEmpty()) {
+                    idleConnections.release();
+                    awaitWork();
+                    continue;
+                }
+                workers.execute(() -> {
+                    try {
+                        send(batch);
+                    } catch (Exception ex) {
+                        // The batch's lease runs out and it is claimed again.
+                        log.warn("Email outbox worker could not finish a batch of {}: {}", batch.size(), ex.getMessage());
+                    } finally {
+                        idleConnections.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.warn("Email outbox dispatcher hit an unexpected error: {}", ex.getMessage());
+                sleepQuietly(pollInterval);
+            }
+        }
+    }
+
+    /**
+     * Waits until emails are queued or the next poll is due - or, when the rate limits are what held
+     * the last claim back, until the next token is.
+     */
+    private void awaitWork() throws InterruptedException {
+        long waitNanos = Math.max(Math.min(pollInterval.toNanos(), throttledForNanos), TimeUnit.MILLISECONDS.toNanos(10));
+        if (wakeUps.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+            wakeUps.drainPermits();
+        }
+    }
+
+    /**
+     * Claims the next batch from the highest priority with anything due, as far as the rate limits
+     * allow. Empty when nothing is due or nothing may be sent yet.
+     */
+    private List<ClaimedEmail> claimNextBatch() {
+        throttledForNanos = Long.MAX_VALUE;
+        if (totalRate.available() == 0) {
+            throttledForNanos = totalRate.nanosUntilAvailable();
+            return List.of();
+        }
+        for (NotificationPriority priority : PRIORITY_ORDER) {
+            TokenBucket lane = priorityRates.get(priority);
+            int allowance = Math.min(messagesPerConnection, Math.min(totalRate.available(), lane.available()));
+            if (allowance == 0) {
+                throttledForNanos = Math.min(throttledForNanos, lane.nanosUntilAvailable());
+                continue;
+            }
+            List<ClaimedEmail> claimed = outboxStore.claimDue(priority, allowance, lease);
+            if (!claimed.isEmpty()) {
+                totalRate.take(claimed.size());
+                lane.take(claimed.size());
+                return claimed;
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Sends one batch over one SMTP session and settles each email according to whether the server
+     * accepted it.
+     */
+    private void send(List<ClaimedEmail> batch) {
+        Map<MimeMessage, ClaimedEmail> messages = new LinkedHashMap<>();
+        for (ClaimedEmail email : batch) {
+            try {
+                messages.put(messageComposer.compose(email), email);
+            } catch (Exception ex) {
+                giveUp(email, "Email could not be built: " + ex.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+        try {
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException ex) {
+            failures = ex.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchFailure = ex;
+            }
+        } catch (MailException ex) {
+            batchFailure = ex;
+        }
+
+        List<ClaimedEmail> sent = new ArrayList<>();
+        for (Map.Entry<MimeMessage, ClaimedEmail> entry : messages.entrySet()) {
+            Exception failure = batchFailure != null ? batchFailure : failures.get(entry.getKey());
+            if (failure == null) {
+                sent.add(entry.getValue());
+            } else {
+                retryOrGiveUp(entry.getValue(), failure.getMessage());
+            }
+        }
+        if (!sent.isEmpty()) {
+            outboxStore.deleteSent(sent.stream().map(ClaimedEmail::id).toList());
+            deliveryLogRepository.markDelivered(
+                    sent.stream().map(ClaimedEmail::notificationId).toList(), DeliveryStatus.DELIVERED, LocalDateTime.now());
+            sentCounter.increment(sent.size());
+            log.debug("Sent {} outbox emails over one connection", sent.size());
+        }
+    }
+
+    private void retryOrGiveUp(ClaimedEmail email, String error) {
+        if (email.attempts() >= maxAttempts) {
+            giveUp(email, error);
+            return;
+        }
+        Duration delay = backoff(email.attempts());
+        outboxStore.reschedule(email.id(), delay, error);
+        deliveryLogRepository.recordFailedAttempt(
+                email.notificationId(), DeliveryStatus.QUEUED, email.attempts(), truncate(error), LocalDateTime.now());
+        retriedCounter.increment();
+        log.info("Email notification {} to {} failed on attempt {}, retrying in {}: {}",
+                email.notificationId(), email.recipientEmail(), email.attempts(), delay, error);
+    }
+
+    private void giveUp(ClaimedEmail email, String error) {
+        outboxStore.markFailed(email.id(), error);
+        deliveryLogRepository.recordFailedAttempt(
+                email.notificationId(), DeliveryStatus.FAILED, email.attempts(), truncate(error), LocalDateTime.now());
+        failedCounter.increment();
+        log.error("Giving up on email notification {} to {} after {} attempt(s): {}",
+                email.notificationId(), email.recipientEmail(), email.attempts(), error);
+    }
+
+    /** {@code initial}, doubling per further attempt, capped at {@code max}. */
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Permits per second, refilled continuously, with at most one second's worth banked. A rate of
+     * zero or less means no limit.
+     */
+    private static final class TokenBucket {
+
+        private final double perSecond;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        TokenBucket(double perSecond) {
+            this.perSecond = perSecond;
+            this.tokens = Math.max(perSecond, 1.0);
+        }
+
+        synchronized int available() {
+            if (perSecond <= 0) {
+                return Integer.MAX_VALUE;
+            }
+            refill();
+            return (int) tokens;
+        }
+
+        synchronized void take(int permits) {
+            if (perSecond > 0) {
+                tokens -= permits;
+            }
+        }
+
+        synchronized long nanosUntilAvailable() {
+            if (perSecond <= 0) {
+                return 0L;
+            }
+            refill();
+            return tokens >= 1.0 ? 0L : (long) ((1.0 - tokens) / perSecond * 1_000_000_000L);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(Math.max(perSecond, 1.0), tokens + (now - refilledAt) / 1_000_000_000.0 * perSecond);
+            refilledAt = now;
+        }
+    }
+}
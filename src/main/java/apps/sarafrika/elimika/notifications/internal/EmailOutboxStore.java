@@ -0,0 +1,145 @@
+package apps.sarafrika.elimika.notifications.internal;
+
+import apps.sarafrika.elimika.notifications.api.NotificationPriority;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and writes {@code notification_email_outbox}.
+ * <p>
+ * Issued through JDBC rather than JPA: claiming is a single {@code UPDATE ... RETURNING} over rows
+ * picked with {@code FOR UPDATE SKIP LOCKED}, so several workers - on one node or many - each take a
+ * different slice of the queue without waiting on one another. A claim pushes the email's
+ * {@code next_attempt_at} out by a lease rather than holding a lock, so an email whose worker died
+ * mid-send becomes due again by itself.
+ */
+@Component
+public class EmailOutboxStore {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmailOutboxStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Queues a rendered email for delivery. An email already queued for the same notification is
+     * left as it is.
+     *
+     * @return whether the email was queued
+     */
+    public boolean enqueue(OutboxEmail email) {
+        return jdbcTemplate.update("""
+                        INSERT INTO notification_email_outbox
+                            (notification_id, recipient_email, subject, html_body, reply_to, priority)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        ON CONFLICT (notification_id) DO NOTHING
+                        """,
+                email.notificationId(), email.recipientEmail(), email.subject(), email.htmlBody(),
+                email.replyTo(), email.priority().getValue()) > 0;
+    }
+
+    /**
+     * Claims up to {@code limit} due emails of one priority, oldest first, for {@code lease}. Each
+     * claim counts as an attempt.
+     */
+    public List<ClaimedEmail> claimDue(NotificationPriority priority, int limit, Duration lease) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query("""
+                        UPDATE notification_email_outbox o
+                        SET status          = 'SENDING',
+                            attempts        = o.attempts + 1,
+                            next_attempt_at = CURRENT_TIMESTAMP + make_interval(secs => ?)
+                        WHERE o.id IN (SELECT d.id
+                                       FROM notification_email_outbox d
+                                       WHERE d.priority = ?
+                                         AND d.status IN ('QUEUED', 'SENDING')
+                                         AND d.next_attempt_at <= CURRENT_TIMESTAMP
+                                       ORDER BY d.next_attempt_at, d.id
+                                       LIMIT ? FOR UPDATE SKIP LOCKED)
+                        RETURNING o.id, o.notification_id, o.recipient_email, o.subject, o.html_body,
+                                  o.reply_to, o.priority, o.attempts
+                        """,
+                (rs, rowNum) -> new ClaimedEmail(
+                        rs.getLong("id"),
+                        rs.getObject("notification_id", UUID.class),
+                        rs.getString("recipient_email"),
+                        rs.getString("subject"),
+                        rs.getString("html_body"),
+                        rs.getString("reply_to"),
+                        NotificationPriority.fromValue(rs.getString("priority")),
+                        rs.getInt("attempts")),
+                lease.toSeconds(), priority.getValue(), limit);
+    }
+
+    /** Removes emails the mail server accepted; their delivery log entries keep the record. */
+    public void deleteSent(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM notification_email_outbox WHERE id = ANY (?)",
+                (Object) ids.toArray(Long[]::new));
+    }
+
+    /** Puts an email back in the queue, due again after {@code delay}. */
+    public void reschedule(long id, Duration delay, String error) {
+        jdbcTemplate.update("""
+                        UPDATE notification_email_outbox
+                        SET status          = 'QUEUED',
+                            next_attempt_at = CURRENT_TIMESTAMP + make_interval(secs => ?),
+                            last_error      = ?
+                        WHERE id = ?
+                        """,
+                delay.toSeconds(), truncate(error), id);
+    }
+
+    /** Gives up on an email. It stays in the table, out of the queue, until someone requeues it. */
+    public void markFailed(long id, String error) {
+        jdbcTemplate.update(
+                "UPDATE notification_email_outbox SET status = 'FAILED', last_error = ? WHERE id = ?",
+                truncate(error), id);
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * A rendered email waiting to be queued.
+     */
+    public record OutboxEmail(
+            UUID notificationId,
+            String recipientEmail,
+            String subject,
+            String htmlBody,
+            String replyTo,
+            NotificationPriority priority
+    ) {
+    }
+
+    /**
+     * An email claimed for sending. {@code attempts} includes the attempt this claim is for.
+     */
+    public record ClaimedEmail(
+            long id,
+            UUID notificationId,
+            String recipientEmail,
+            String subject,
+            String htmlBody,
+            String replyTo,
+            NotificationPriority priority,
+            int attempts
+    ) {
+    }
+}
@@ -36,6 +36,9 @@ public class NotificationEventListener {
                     if (result.isSuccessful()) {
                         log.info("Notification {} sent successfully via {}", 
                             event.getNotificationId(), result.channel());
+                    } else if (result.isPending()) {
+                        log.debug("Notification {} queued for delivery via {}",
+                            event.getNotificationId(), result.channel());
                     } else {
                         log.warn("Notification {} failed: {} ({})", 
                             event.getNotificationId(), result.errorMessage(), result.status());
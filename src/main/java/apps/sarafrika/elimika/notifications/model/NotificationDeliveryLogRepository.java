@@ -3,11 +3,14 @@ package apps.sarafrika.elimika.notifications.model;
 import apps.sarafrika.elimika.notifications.api.DeliveryStatus;
 import apps.sarafrika.elimika.notifications.api.NotificationType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -35,9 +38,62 @@ public interface NotificationDeliveryLogRepository extends JpaRepository<Notific
                                    @Param("start") LocalDateTime start,
                                    @Param("end") LocalDateTime end);
 
+    /**
+     * Marks every notification in {@code notificationIds} delivered in one statement, for a batch of
+     * emails the mail server accepted together.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationDeliveryLog l SET l.deliveryStatus = :delivered, l.sentAt = :at, "
+            + "l.deliveredAt = :at, l.errorMessage = null, l.lastModifiedDate = :at "
+            + "WHERE l.notificationId IN :notificationIds")
+    int markDelivered(@Param("notificationIds") Collection<UUID> notificationIds,
+                      @Param("delivered") DeliveryStatus delivered,
+                      @Param("at") LocalDateTime at);
+
+    /**
+     * Records a failed delivery attempt: {@code status} stays queued while the email will be retried
+     * and becomes failed once it will not.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationDeliveryLog l SET l.deliveryStatus = :status, l.retryCount = :retryCount, "
+            + "l.errorMessage = :error, l.lastModifiedDate = :at WHERE l.notificationId = :notificationId")
+    int recordFailedAttempt(@Param("notificationId") UUID notificationId,
+                            @Param("status") DeliveryStatus status,
+                            @Param("retryCount") int retryCount,
+                            @Param("error") String error,
+                            @Param("at") LocalDateTime at);
+
     long countByCreatedDateAfter(LocalDateTime createdAfter);
 
     long countByDeliveryStatus(DeliveryStatus deliveryStatus);
 
     long countByDeliveryStatusAndCreatedDateAfter(DeliveryStatus deliveryStatus, LocalDateTime createdAfter);
+
+    /**
+     * Delivery totals for the admin dashboard in one statement: notifications created after
+     * {@code createdAfter}, how many of those were delivered or failed, and everything still pending.
+     */
+    @Query("""
+            select count(l) filter (where l.createdDate > :createdAfter) as created,
+                   count(l) filter (where l.deliveryStatus = :delivered and l.createdDate > :createdAfter) as delivered,
+                   count(l) filter (where l.deliveryStatus = :failed and l.createdDate > :createdAfter) as failed,
+                   count(l) filter (where l.deliveryStatus = :pending) as pending
+            from NotificationDeliveryLog l
+            """)
+    DashboardCounts countForDashboard(@Param("createdAfter") LocalDateTime createdAfter,
+                                      @Param("delivered") DeliveryStatus delivered,
+                                      @Param("failed") DeliveryStatus failed,
+                                      @Param("pending") DeliveryStatus pending);
+
+    interface DashboardCounts {
+        long getCreated();
+
+        long getDelivered();
+
+        long getFailed();
+
+        long getPending();
+    }
 }
@@ -1,126 +1,121 @@
 package apps.sarafrika.elimika.notifications.service;
 
 import apps.sarafrika.elimika.notifications.api.NotificationEvent;
+import apps.sarafrika.elimika.notifications.api.NotificationPriority;
 import apps.sarafrika.elimika.notifications.api.NotificationResult;
 import apps.sarafrika.elimika.notifications.api.DeliveryStatus;
+import apps.sarafrika.elimika.notifications.internal.EmailOutboxDispatcher;
+import apps.sarafrika.elimika.notifications.internal.EmailOutboxStore;
+import apps.sarafrika.elimika.notifications.internal.EmailOutboxStore.OutboxEmail;
 import apps.sarafrika.elimika.notifications.model.NotificationDeliveryLog;
 import apps.sarafrika.elimika.notifications.model.NotificationDeliveryLogRepository;
 import apps.sarafrika.elimika.notifications.template.EmailTemplateService;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.LocalDateTime;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for sending email notifications using the existing mail infrastructure.
  * Integrates with the EmailTemplateService for dynamic content generation.
+ * <p>
+ * Emails are not sent on the caller's thread. Each one is rendered here and written to the email
+ * outbox together with its delivery log entry, in one transaction, and {@link EmailOutboxDispatcher}
+ * delivers it by priority over a small pool of SMTP connections, retrying with backoff. An email that
+ * was queued therefore survives a restart or a mail server outage.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailNotificationService {
-    
+
     private final JavaMailSender mailSender;
     private final EmailTemplateService templateService;
     private final NotificationDeliveryLogRepository deliveryLogRepository;
-    
+    private final EmailOutboxStore outboxStore;
+    private final EmailOutboxDispatcher outboxDispatcher;
+
     @Value("${app.email.from:no-reply@sarafrika.com}")
     private String fromEmail;
-    
-    @Value("${app.email.from-name:Elimika}")
-    private String fromName;
-    
+
     /**
-     * Send an email notification asynchronously
+     * Queue an email notification for delivery. The returned result is {@code QUEUED} once the email
+     * is safely in the outbox; its delivery log entry records the outcome.
      */
+    @Transactional
     public CompletableFuture<NotificationResult> sendEmail(NotificationEvent event) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return sendEmailSync(event);
-            } catch (Exception e) {
-                log.error("Failed to send email notification {}: {}", event.getNotificationId(), e.getMessage(), e);
-                return handleEmailFailure(event, e.getMessage());
-            }
-        });
+        try {
+            return CompletableFuture.completedFuture(queueEmail(event));
+        } catch (Exception e) {
+            log.error("Failed to queue email notification {}: {}", event.getNotificationId(), e.getMessage(), e);
+            return CompletableFuture.completedFuture(handleEmailFailure(event, e.getMessage()));
+        }
     }
-    
+
     /**
-     * Send email notification synchronously
+     * Render the email and write it to the outbox
      */
-    private NotificationResult sendEmailSync(NotificationEvent event) {
-        log.debug("Sending email notification {} to {}", event.getNotificationId(), event.getRecipientEmail());
-        
-        // Create delivery log entry
-        NotificationDeliveryLog deliveryLog = NotificationDeliveryLog.builder()
+    private NotificationResult queueEmail(NotificationEvent event) {
+        log.debug("Queueing email notification {} to {}", event.getNotificationId(), event.getRecipientEmail());
+
+        // Generate email content from template
+        String subject = templateService.generateSubject(event);
+        String htmlContent = templateService.generateEmailContent(event);
+        NotificationPriority priority = event.getPriority() != null ? event.getPriority() : NotificationPriority.NORMAL;
+
+        // Add reply-to if organization context exists
+        String replyTo = event.getOrganizationId() != null ? fromEmail : null; // Could be customized per organization
+
+        boolean queued = outboxStore.enqueue(new OutboxEmail(
+            event.getNotificationId(), event.getRecipientEmail(), subject, htmlContent, replyTo, priority));
+        if (!queued) {
+            // A redelivered event: the email and its delivery log entry are already there.
+            log.debug("Email notification {} is already in the outbox", event.getNotificationId());
+            return NotificationResult.queued(event.getNotificationId(), "email");
+        }
+
+        // Create delivery log entry; the outbox worker moves it on from here
+        deliveryLogRepository.save(NotificationDeliveryLog.builder()
             .notificationId(event.getNotificationId())
             .userUuid(event.getRecipientId())
             .recipientEmail(event.getRecipientEmail())
             .notificationType(event.getNotificationType())
-            .priority(event.getPriority())
+            .priority(priority)
             .deliveryChannel("email")
-            .deliveryStatus(DeliveryStatus.PENDING)
+            .deliveryStatus(DeliveryStatus.QUEUED)
             .templateUsed(event.getNotificationType().getTemplateName())
             .organizationUuid(event.getOrganizationId())
-            .build();
-        
-        deliveryLog = deliveryLogRepository.save(deliveryLog);
-        
-        try {
-            // Generate email content from template
-            String subject = templateService.generateSubject(event);
-            String htmlContent = templateService.generateEmailContent(event);
-            
-            // Create and send email
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            try {
-                helper.setFrom(fromEmail, fromName);
-            } catch (java.io.UnsupportedEncodingException e) {
-                helper.setFrom(fromEmail);
-            }
-            helper.setTo(event.getRecipientEmail());
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-            
-            // Add reply-to if organization context exists
-            if (event.getOrganizationId() != null) {
-                helper.setReplyTo(fromEmail); // Could be customized per organization
-            }
-            
-            // Attach logos as inline content
-            attachLogos(helper);
-            
-            mailSender.send(message);
-            
-            // Update delivery log as successful
-            deliveryLog.markAsDelivered();
-            deliveryLogRepository.save(deliveryLog);
-            
-            log.info("Email notification {} sent successfully to {}", 
-                event.getNotificationId(), event.getRecipientEmail());
-            
-            return NotificationResult.success(event.getNotificationId(), "email");
-            
-        } catch (MessagingException e) {
-            log.error("Failed to send email notification {}: {}", event.getNotificationId(), e.getMessage());
-            deliveryLog.markAsFailed(e.getMessage());
-            deliveryLogRepository.save(deliveryLog);
-            return NotificationResult.failed(event.getNotificationId(), "email", e.getMessage());
+            .build());
+        wakeDispatcherAfterCommit();
+
+        return NotificationResult.queued(event.getNotificationId(), "email");
+    }
+
+    /**
+     * The dispatcher polls anyway; this only saves a new email waiting for the next poll. It must not
+     * look before the email is committed, or it would find nothing.
+     */
+    private void wakeDispatcherAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxDispatcher.wakeUp();
+                }
+            });
+        } else {
+            outboxDispatcher.wakeUp();
         }
     }
-    
+
     /**
-     * Handle email sending failure
+     * Handle email queueing failure
      */
     private NotificationResult handleEmailFailure(NotificationEvent event, String errorMessage) {
         // Try to find existing delivery log or create new one
@@ -136,42 +131,13 @@ public class EmailNotificationService {
                 .deliveryStatus(DeliveryStatus.FAILED)
                 .organizationUuid(event.getOrganizationId())
                 .build());
-        
+
         deliveryLog.markAsFailed(errorMessage);
         deliveryLogRepository.save(deliveryLog);
-        
+
         return NotificationResult.failed(event.getNotificationId(), "email", errorMessage);
     }
-    
-    /**
-     * Attach logos as inline content for email templates
-     */
-    private void attachLogos(MimeMessageHelper helper) {
-        try {
-            // Attach Elimika full color logo
-            Resource elimikaLogo = new ClassPathResource("static/logos/elimika/elimika-logo-full-color.svg");
-            if (elimikaLogo.exists()) {
-                helper.addInline("elimikaLogo", elimikaLogo, "image/svg+xml");
-                log.debug("Attached Elimika logo to email");
-            } else {
-                log.warn("Elimika logo not found at: static/logos/elimika/elimika-logo-full-color.svg");
-            }
-            
-            // Attach Sarafrika full color logo
-            Resource sarafrikaLogo = new ClassPathResource("static/logos/sarafrika/sarafrika-logo-full-color.svg");
-            if (sarafrikaLogo.exists()) {
-                helper.addInline("sarafrikaLogo", sarafrikaLogo, "image/svg+xml");
-                log.debug("Attached Sarafrika logo to email");
-            } else {
-                log.warn("Sarafrika logo not found at: static/logos/sarafrika/sarafrika-logo-full-color.svg");
-            }
-            
-        } catch (MessagingException e) {
-            log.error("Failed to attach logos to email: {}", e.getMessage());
-            // Don't throw exception - email can still be sent without logos
-        }
-    }
-    
+
     /**
      * Check if email service is available
      */
@@ -185,4 +151,4 @@ public class EmailNotificationService {
             return false;
         }
     }
-}
\ No newline at end of file
+}
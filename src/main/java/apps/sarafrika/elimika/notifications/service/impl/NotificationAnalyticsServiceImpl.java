@@ -19,18 +19,14 @@ public class NotificationAnalyticsServiceImpl implements NotificationAnalyticsSe
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime sevenDaysAgo = now.minusDays(7);
 
-        long createdLast7Days = notificationDeliveryLogRepository.countByCreatedDateAfter(sevenDaysAgo);
-        long deliveredLast7Days = notificationDeliveryLogRepository
-                .countByDeliveryStatusAndCreatedDateAfter(DeliveryStatus.DELIVERED, sevenDaysAgo);
-        long failedLast7Days = notificationDeliveryLogRepository
-                .countByDeliveryStatusAndCreatedDateAfter(DeliveryStatus.FAILED, sevenDaysAgo);
-        long pendingNotifications = notificationDeliveryLogRepository.countByDeliveryStatus(DeliveryStatus.PENDING);
+        NotificationDeliveryLogRepository.DashboardCounts deliveries = notificationDeliveryLogRepository
+                .countForDashboard(sevenDaysAgo, DeliveryStatus.DELIVERED, DeliveryStatus.FAILED, DeliveryStatus.PENDING);
 
         return new NotificationAnalyticsSnapshot(
-                createdLast7Days,
-                deliveredLast7Days,
-                failedLast7Days,
-                pendingNotifications
+                deliveries.getCreated(),
+                deliveries.getDelivered(),
+                deliveries.getFailed(),
+                deliveries.getPending()
         );
     }
 }
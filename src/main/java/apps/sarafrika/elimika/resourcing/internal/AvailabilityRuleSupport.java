@@ -23,13 +23,20 @@ public final class AvailabilityRuleSupport {
      * bounds and, when days_of_week is set, on one of the listed days.
      */
     public static boolean ruleAppliesOn(ResourceAvailabilityRule rule, LocalDate date) {
+        return ruleAppliesOn(rule, parseDaysOfWeek(rule.getDaysOfWeek()), date);
+    }
+
+    /**
+     * As {@link #ruleAppliesOn(ResourceAvailabilityRule, LocalDate)}, with the rule's days_of_week
+     * already parsed so callers testing many dates parse them once.
+     */
+    public static boolean ruleAppliesOn(ResourceAvailabilityRule rule, Set<DayOfWeek> days, LocalDate date) {
         if (rule.getEffectiveStartDate() != null && date.isBefore(rule.getEffectiveStartDate())) {
             return false;
         }
         if (rule.getEffectiveEndDate() != null && date.isAfter(rule.getEffectiveEndDate())) {
             return false;
         }
-        Set<DayOfWeek> days = parseDaysOfWeek(rule.getDaysOfWeek());
         return days.isEmpty() || days.contains(date.getDayOfWeek());
     }
 
@@ -0,0 +1,75 @@
+package apps.sarafrika.elimika.resourcing.internal;
+
+import apps.sarafrika.elimika.resourcing.model.ResourceBooking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable interval tree over one resource's bookings.
+ * <p>
+ * Bookings are sorted by start time and the sorted array is read as a balanced binary tree (each
+ * range's middle element is its root), with every node recording the latest end time in its subtree.
+ * An overlap query skips any subtree that ends before the window starts and anything to the right of
+ * a booking that starts after the window ends, so it costs O(log n + k) for k overlaps.
+ */
+final class BookingIntervalTree {
+
+    private final ResourceBooking[] bookings;
+    private final LocalDateTime[] maxEnd;
+
+    BookingIntervalTree(Collection<ResourceBooking> bookings) {
+        this.bookings = bookings.stream()
+                .sorted(Comparator.comparing(ResourceBooking::getStartTime))
+                .toArray(ResourceBooking[]::new);
+        this.maxEnd = new LocalDateTime[this.bookings.length];
+        build(0, this.bookings.length - 1);
+    }
+
+    /**
+     * Bookings overlapping the window, in start order. Strict inequalities so back-to-back bookings
+     * sharing a boundary do not collide, as in the repository's overlap query.
+     */
+    List<ResourceBooking> overlapping(LocalDateTime start, LocalDateTime end) {
+        List<ResourceBooking> overlaps = new ArrayList<>();
+        collect(0, bookings.length - 1, start, end, overlaps);
+        return overlaps;
+    }
+
+    private LocalDateTime build(int low, int high) {
+        if (low > high) {
+            return null;
+        }
+        int middle = (low + high) >>> 1;
+        LocalDateTime latest = later(bookings[middle].getEndTime(), build(low, middle - 1));
+        latest = later(latest, build(middle + 1, high));
+        maxEnd[middle] = latest;
+        return latest;
+    }
+
+    private void collect(int low, int high, LocalDateTime start, LocalDateTime end, List<ResourceBooking> overlaps) {
+        if (low > high) {
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        if (!maxEnd[middle].isAfter(start)) {
+            return;
+        }
+        collect(low, middle - 1, start, end, overlaps);
+        ResourceBooking booking = bookings[middle];
+        if (!booking.getStartTime().isBefore(end)) {
+            return;
+        }
+        if (booking.getEndTime().isAfter(start)) {
+            overlaps.add(booking);
+        }
+        collect(middle + 1, high, start, end, overlaps);
+    }
+
+    private static LocalDateTime later(LocalDateTime first, LocalDateTime second) {
+        return second != null && second.isAfter(first) ? second : first;
+    }
+}
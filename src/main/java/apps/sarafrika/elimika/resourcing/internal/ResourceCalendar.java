@@ -0,0 +1,182 @@
+package apps.sarafrika.elimika.resourcing.internal;
+
+import apps.sarafrika.elimika.resourcing.model.OrganisationResource;
+import apps.sarafrika.elimika.resourcing.model.ResourceAvailabilityRule;
+import apps.sarafrika.elimika.resourcing.model.ResourceBooking;
+import apps.sarafrika.elimika.resourcing.spi.AvailabilityRuleType;
+import apps.sarafrika.elimika.resourcing.spi.ResourceBookingStatus;
+import apps.sarafrika.elimika.resourcing.spi.ResourceConflictDetail;
+import apps.sarafrika.elimika.resourcing.spi.ResourceConflictType;
+import apps.sarafrika.elimika.resourcing.spi.ResourceType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * One resource's availability rules and active bookings over a span of time, loaded once so that
+ * every requested window inside the span is checked in memory.
+ * <p>
+ * The bookings must include every active booking overlapping any window that will be checked;
+ * callers load them with a single overlap query over the span of all their windows. Bookings sit in
+ * an interval tree, so a recurring job's windows each cost a tree lookup rather than a query, and the
+ * resource's row lock is held only for the one load.
+ */
+public final class ResourceCalendar {
+
+    private final OrganisationResource resource;
+    private final List<DatedRule> openHours = new ArrayList<>();
+    private final List<DatedRule> blackouts = new ArrayList<>();
+    private final BookingIntervalTree bookings;
+
+    public ResourceCalendar(OrganisationResource resource,
+                            Collection<ResourceAvailabilityRule> rules,
+                            Collection<ResourceBooking> bookings) {
+        this.resource = resource;
+        for (ResourceAvailabilityRule rule : rules) {
+            DatedRule dated = new DatedRule(rule, AvailabilityRuleSupport.parseDaysOfWeek(rule.getDaysOfWeek()));
+            if (rule.getRuleType() == AvailabilityRuleType.OPEN_HOURS) {
+                openHours.add(dated);
+            } else if (rule.getRuleType() == AvailabilityRuleType.BLACKOUT) {
+                blackouts.add(dated);
+            }
+        }
+        this.bookings = new BookingIntervalTree(bookings);
+    }
+
+    /**
+     * Every reason the window cannot be booked with {@code quantity} units; empty when it fits.
+     *
+     * @param excluded bookings that must not count against the window, such as the caller's own holds
+     */
+    public List<ResourceConflictDetail> conflicts(int quantity,
+                                                  LocalDateTime start,
+                                                  LocalDateTime end,
+                                                  Predicate<ResourceBooking> excluded) {
+        List<ResourceConflictDetail> conflicts = new ArrayList<>();
+
+        if (!Boolean.TRUE.equals(resource.getIsActive())) {
+            conflicts.add(conflict(start, end, ResourceConflictType.RESOURCE_INACTIVE, null, null,
+                    String.format("Resource '%s' is deactivated", resource.getName())));
+            return conflicts;
+        }
+
+        checkOpenHours(start, end, conflicts);
+        checkBlackouts(start, end, conflicts);
+        checkBookingOverlaps(quantity, start, end, excluded, conflicts);
+
+        return conflicts;
+    }
+
+    private void checkOpenHours(LocalDateTime start, LocalDateTime end, List<ResourceConflictDetail> conflicts) {
+        if (openHours.isEmpty()) {
+            return;
+        }
+
+        boolean fits = false;
+        if (start.toLocalDate().equals(end.toLocalDate())) {
+            LocalDate date = start.toLocalDate();
+            fits = openHours.stream().anyMatch(open -> open.appliesOn(date)
+                    && open.rule().getStartTime() != null && open.rule().getEndTime() != null
+                    && !start.toLocalTime().isBefore(open.rule().getStartTime())
+                    && !end.toLocalTime().isAfter(open.rule().getEndTime()));
+        }
+        if (!fits) {
+            conflicts.add(conflict(start, end, ResourceConflictType.OUTSIDE_OPEN_HOURS, null, null,
+                    String.format("Window falls outside the open hours of '%s'", resource.getName())));
+        }
+    }
+
+    private void checkBlackouts(LocalDateTime start, LocalDateTime end, List<ResourceConflictDetail> conflicts) {
+        for (DatedRule blackout : blackouts) {
+            ResourceAvailabilityRule rule = blackout.rule();
+            if (rule.getSpecificStart() != null && rule.getSpecificEnd() != null) {
+                if (rule.getSpecificStart().isBefore(end) && rule.getSpecificEnd().isAfter(start)) {
+                    conflicts.add(conflict(start, end, ResourceConflictType.BLACKOUT, null, null,
+                            blackoutDescription(rule)));
+                }
+                continue;
+            }
+            if (rule.getStartTime() == null || rule.getEndTime() == null) {
+                continue;
+            }
+            LocalDate date = start.toLocalDate();
+            LocalDate lastDate = end.toLocalDate();
+            while (!date.isAfter(lastDate)) {
+                if (blackout.appliesOn(date)) {
+                    LocalDateTime blackoutStart = date.atTime(rule.getStartTime());
+                    LocalDateTime blackoutEnd = date.atTime(rule.getEndTime());
+                    if (blackoutStart.isBefore(end) && blackoutEnd.isAfter(start)) {
+                        conflicts.add(conflict(start, end, ResourceConflictType.BLACKOUT, null, null,
+                                blackoutDescription(rule)));
+                        break;
+                    }
+                }
+                date = date.plusDays(1);
+            }
+        }
+    }
+
+    private void checkBookingOverlaps(int quantity,
+                                      LocalDateTime start,
+                                      LocalDateTime end,
+                                      Predicate<ResourceBooking> excluded,
+                                      List<ResourceConflictDetail> conflicts) {
+        List<ResourceBooking> overlaps = bookings.overlapping(start, end).stream()
+                .filter(excluded.negate())
+                .toList();
+        if (overlaps.isEmpty()) {
+            return;
+        }
+
+        if (resource.getResourceType() == ResourceType.VENUE) {
+            for (ResourceBooking overlap : overlaps) {
+                ResourceConflictType type = overlap.getStatus() == ResourceBookingStatus.HOLD
+                        ? ResourceConflictType.ACTIVE_HOLD
+                        : ResourceConflictType.CONFIRMED_BOOKING;
+                conflicts.add(conflict(start, end, type, overlap.getUuid(), overlap.getJobUuid(),
+                        String.format("Venue '%s' is already reserved from %s to %s",
+                                resource.getName(), overlap.getStartTime(), overlap.getEndTime())));
+            }
+            return;
+        }
+
+        int reserved = overlaps.stream().mapToInt(b -> b.getQuantity() == null ? 1 : b.getQuantity()).sum();
+        int total = resource.getTotalQuantity() == null ? 0 : resource.getTotalQuantity();
+        if (reserved + quantity > total) {
+            conflicts.add(conflict(start, end, ResourceConflictType.INSUFFICIENT_QUANTITY, null, null,
+                    String.format("Equipment pool '%s' has %d of %d units free for this window but %d were requested",
+                            resource.getName(), Math.max(0, total - reserved), total, quantity)));
+        }
+    }
+
+    private String blackoutDescription(ResourceAvailabilityRule rule) {
+        String notes = rule.getNotes() == null || rule.getNotes().isBlank() ? "" : " (" + rule.getNotes() + ")";
+        return String.format("Window intersects a blackout of '%s'%s", resource.getName(), notes);
+    }
+
+    private ResourceConflictDetail conflict(LocalDateTime start,
+                                            LocalDateTime end,
+                                            ResourceConflictType type,
+                                            UUID conflictingBookingUuid,
+                                            UUID conflictingJobUuid,
+                                            String description) {
+        return new ResourceConflictDetail(
+                resource.getUuid(), resource.getName(), start, end, type,
+                conflictingBookingUuid, conflictingJobUuid, description);
+    }
+
+    /** A rule with its days_of_week parsed once rather than for every date tested. */
+    private record DatedRule(ResourceAvailabilityRule rule, Set<DayOfWeek> days) {
+
+        boolean appliesOn(LocalDate date) {
+            return AvailabilityRuleSupport.ruleAppliesOn(rule, days, date);
+        }
+    }
+}
@@ -1,14 +1,13 @@
 package apps.sarafrika.elimika.resourcing.service.impl;
 
 import apps.sarafrika.elimika.resourcing.factory.OrganisationResourceFactory;
-import apps.sarafrika.elimika.resourcing.internal.AvailabilityRuleSupport;
+import apps.sarafrika.elimika.resourcing.internal.ResourceCalendar;
 import apps.sarafrika.elimika.resourcing.model.OrganisationResource;
 import apps.sarafrika.elimika.resourcing.model.ResourceAvailabilityRule;
 import apps.sarafrika.elimika.resourcing.model.ResourceBooking;
 import apps.sarafrika.elimika.resourcing.repository.OrganisationResourceRepository;
 import apps.sarafrika.elimika.resourcing.repository.ResourceAvailabilityRuleRepository;
 import apps.sarafrika.elimika.resourcing.repository.ResourceBookingRepository;
-import apps.sarafrika.elimika.resourcing.spi.AvailabilityRuleType;
 import apps.sarafrika.elimika.resourcing.spi.InstanceWindow;
 import apps.sarafrika.elimika.resourcing.spi.ResourceBookingConflictException;
 import apps.sarafrika.elimika.resourcing.spi.ResourceBookingRequest;
@@ -16,7 +15,6 @@ import apps.sarafrika.elimika.resourcing.spi.ResourceBookingService;
 import apps.sarafrika.elimika.resourcing.spi.ResourceBookingSourceType;
 import apps.sarafrika.elimika.resourcing.spi.ResourceBookingStatus;
 import apps.sarafrika.elimika.resourcing.spi.ResourceConflictDetail;
-import apps.sarafrika.elimika.resourcing.spi.ResourceConflictType;
 import apps.sarafrika.elimika.resourcing.spi.ResourceLookupService;
 import apps.sarafrika.elimika.resourcing.spi.ResourceSummary;
 import apps.sarafrika.elimika.resourcing.spi.ResourceType;
@@ -28,10 +26,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -161,8 +160,10 @@ public class ResourceBookingServiceImpl implements ResourceBookingService, Resou
                                                       UUID excludeClassDefinitionUuid) {
         OrganisationResource resource = requireResource(resourceUuid);
         List<ResourceAvailabilityRule> rules = ruleRepository.findByResourceUuidOrderByCreatedDateAsc(resourceUuid);
-        return conflictsForWindow(resource, rules, quantity, start, end,
-                new Exclusions(excludeJobUuid, excludeClassDefinitionUuid, null));
+        requireValidWindow(start, end);
+        ResourceCalendar calendar = loadCalendar(resource, rules, List.of(new OccurrenceWindow(start, end)));
+        return calendar.conflicts(quantity, start, end,
+                new Exclusions(excludeJobUuid, excludeClassDefinitionUuid, null)::excludes);
     }
 
     @Override
@@ -213,21 +214,24 @@ public class ResourceBookingServiceImpl implements ResourceBookingService, Resou
             return;
         }
 
+        requireValidWindow(newStart, newEnd);
         Set<UUID> resourceUuids = bookings.stream().map(ResourceBooking::getResourceUuid)
                 .collect(Collectors.toCollection(LinkedHashSet::new));
         Map<UUID, OrganisationResource> resources = lockResources(resourceUuids);
         Map<UUID, List<ResourceAvailabilityRule>> rulesByResource = loadRules(resourceUuids);
+        List<OccurrenceWindow> newWindow = List.of(new OccurrenceWindow(newStart, newEnd));
+        Map<UUID, ResourceCalendar> calendars = new HashMap<>();
+        for (UUID resourceUuid : resourceUuids) {
+            calendars.put(resourceUuid, loadCalendar(resources.get(resourceUuid),
+                    rulesByResource.getOrDefault(resourceUuid, List.of()), newWindow));
+        }
 
         List<ResourceConflictDetail> conflicts = new ArrayList<>();
         for (ResourceBooking booking : bookings) {
-            OrganisationResource resource = resources.get(booking.getResourceUuid());
-            conflicts.addAll(conflictsForWindow(
-                    resource,
-                    rulesByResource.getOrDefault(resource.getUuid(), List.of()),
-                    booking.getQuantity(),
-                    newStart,
-                    newEnd,
-                    new Exclusions(booking.getJobUuid(), booking.getClassDefinitionUuid(), scheduledInstanceUuid)));
+            Exclusions exclusions =
+                    new Exclusions(booking.getJobUuid(), booking.getClassDefinitionUuid(), scheduledInstanceUuid);
+            conflicts.addAll(calendars.get(booking.getResourceUuid())
+                    .conflicts(booking.getQuantity(), newStart, newEnd, exclusions::excludes));
         }
         if (!conflicts.isEmpty()) {
             throw new ResourceBookingConflictException(
@@ -306,166 +310,66 @@ public class ResourceBookingServiceImpl implements ResourceBookingService, Resou
         }
     }
 
+    /**
+     * Checks every requested window, loading each resource's calendar once for the span of its
+     * windows. A recurring job's thirty sessions cost one booking query per resource, not thirty.
+     */
     private List<ResourceConflictDetail> collectConflicts(Map<UUID, OrganisationResource> resources,
                                                           List<ResourceBookingRequest> requests,
                                                           Exclusions exclusions) {
-        Map<UUID, List<ResourceAvailabilityRule>> rulesByResource = loadRules(resources.keySet());
-        List<ResourceConflictDetail> conflicts = new ArrayList<>();
+        Map<UUID, List<OccurrenceWindow>> windowsByResource = new LinkedHashMap<>();
         for (ResourceBookingRequest request : requests) {
-            OrganisationResource resource = resources.get(request.resourceUuid());
-            List<ResourceAvailabilityRule> rules = rulesByResource.getOrDefault(resource.getUuid(), List.of());
             for (OccurrenceWindow window : request.windows()) {
-                conflicts.addAll(conflictsForWindow(
-                        resource, rules, request.quantity(), window.start(), window.end(), exclusions));
+                requireValidWindow(window.start(), window.end());
             }
+            windowsByResource.computeIfAbsent(request.resourceUuid(), uuid -> new ArrayList<>())
+                    .addAll(request.windows());
         }
-        return conflicts;
-    }
 
-    private List<ResourceConflictDetail> conflictsForWindow(OrganisationResource resource,
-                                                            List<ResourceAvailabilityRule> rules,
-                                                            int quantity,
-                                                            LocalDateTime start,
-                                                            LocalDateTime end,
-                                                            Exclusions exclusions) {
-        if (start == null || end == null || !start.isBefore(end)) {
-            throw new IllegalArgumentException("Booking windows require start_time before end_time");
-        }
+        Map<UUID, List<ResourceAvailabilityRule>> rulesByResource = loadRules(resources.keySet());
+        Map<UUID, ResourceCalendar> calendars = new HashMap<>();
+        windowsByResource.forEach((uuid, windows) -> calendars.put(uuid, loadCalendar(
+                resources.get(uuid), rulesByResource.getOrDefault(uuid, List.of()), windows)));
 
         List<ResourceConflictDetail> conflicts = new ArrayList<>();
-
-        if (!Boolean.TRUE.equals(resource.getIsActive())) {
-            conflicts.add(conflict(resource, start, end, ResourceConflictType.RESOURCE_INACTIVE, null, null,
-                    String.format("Resource '%s' is deactivated", resource.getName())));
-            return conflicts;
+        for (ResourceBookingRequest request : requests) {
+            ResourceCalendar calendar = calendars.get(request.resourceUuid());
+            for (OccurrenceWindow window : request.windows()) {
+                conflicts.addAll(calendar.conflicts(
+                        request.quantity(), window.start(), window.end(), exclusions::excludes));
+            }
         }
-
-        checkOpenHours(resource, rules, start, end, conflicts);
-        checkBlackouts(resource, rules, start, end, conflicts);
-        checkBookingOverlaps(resource, quantity, start, end, exclusions, conflicts);
-
         return conflicts;
     }
 
-    private void checkOpenHours(OrganisationResource resource,
-                                List<ResourceAvailabilityRule> rules,
-                                LocalDateTime start,
-                                LocalDateTime end,
-                                List<ResourceConflictDetail> conflicts) {
-        List<ResourceAvailabilityRule> openRules = rules.stream()
-                .filter(rule -> rule.getRuleType() == AvailabilityRuleType.OPEN_HOURS)
-                .toList();
-        if (openRules.isEmpty()) {
-            return;
-        }
-
-        boolean fits = false;
-        if (start.toLocalDate().equals(end.toLocalDate())) {
-            LocalDate date = start.toLocalDate();
-            fits = openRules.stream().anyMatch(rule -> ruleAppliesOn(rule, date)
-                    && rule.getStartTime() != null && rule.getEndTime() != null
-                    && !start.toLocalTime().isBefore(rule.getStartTime())
-                    && !end.toLocalTime().isAfter(rule.getEndTime()));
-        }
-        if (!fits) {
-            conflicts.add(conflict(resource, start, end, ResourceConflictType.OUTSIDE_OPEN_HOURS, null, null,
-                    String.format("Window falls outside the open hours of '%s'", resource.getName())));
+    /**
+     * The resource's rules and every active booking overlapping the span from the earliest window
+     * start to the latest window end. Deactivated resources conflict outright, so their bookings
+     * are not read.
+     */
+    private ResourceCalendar loadCalendar(OrganisationResource resource,
+                                          List<ResourceAvailabilityRule> rules,
+                                          List<OccurrenceWindow> windows) {
+        if (!Boolean.TRUE.equals(resource.getIsActive())) {
+            return new ResourceCalendar(resource, rules, List.of());
         }
-    }
-
-    private void checkBlackouts(OrganisationResource resource,
-                                List<ResourceAvailabilityRule> rules,
-                                LocalDateTime start,
-                                LocalDateTime end,
-                                List<ResourceConflictDetail> conflicts) {
-        for (ResourceAvailabilityRule rule : rules) {
-            if (rule.getRuleType() != AvailabilityRuleType.BLACKOUT) {
-                continue;
-            }
-            if (rule.getSpecificStart() != null && rule.getSpecificEnd() != null) {
-                if (rule.getSpecificStart().isBefore(end) && rule.getSpecificEnd().isAfter(start)) {
-                    conflicts.add(conflict(resource, start, end, ResourceConflictType.BLACKOUT, null, null,
-                            blackoutDescription(resource, rule)));
-                }
-                continue;
-            }
-            if (rule.getStartTime() == null || rule.getEndTime() == null) {
-                continue;
-            }
-            LocalDate date = start.toLocalDate();
-            LocalDate lastDate = end.toLocalDate();
-            while (!date.isAfter(lastDate)) {
-                if (ruleAppliesOn(rule, date)) {
-                    LocalDateTime blackoutStart = date.atTime(rule.getStartTime());
-                    LocalDateTime blackoutEnd = date.atTime(rule.getEndTime());
-                    if (blackoutStart.isBefore(end) && blackoutEnd.isAfter(start)) {
-                        conflicts.add(conflict(resource, start, end, ResourceConflictType.BLACKOUT, null, null,
-                                blackoutDescription(resource, rule)));
-                        break;
-                    }
-                }
-                date = date.plusDays(1);
-            }
+        LocalDateTime spanStart = windows.getFirst().start();
+        LocalDateTime spanEnd = windows.getFirst().end();
+        for (OccurrenceWindow window : windows) {
+            spanStart = window.start().isBefore(spanStart) ? window.start() : spanStart;
+            spanEnd = window.end().isAfter(spanEnd) ? window.end() : spanEnd;
         }
+        List<ResourceBooking> bookings =
+                bookingRepository.findActiveOverlaps(resource.getUuid(), ACTIVE_STATUSES, spanStart, spanEnd);
+        return new ResourceCalendar(resource, rules, bookings);
     }
 
-    private void checkBookingOverlaps(OrganisationResource resource,
-                                      int quantity,
-                                      LocalDateTime start,
-                                      LocalDateTime end,
-                                      Exclusions exclusions,
-                                      List<ResourceConflictDetail> conflicts) {
-        List<ResourceBooking> overlaps = bookingRepository
-                .findActiveOverlaps(resource.getUuid(), ACTIVE_STATUSES, start, end)
-                .stream()
-                .filter(booking -> !exclusions.excludes(booking))
-                .toList();
-        if (overlaps.isEmpty()) {
-            return;
-        }
-
-        if (resource.getResourceType() == ResourceType.VENUE) {
-            for (ResourceBooking overlap : overlaps) {
-                ResourceConflictType type = overlap.getStatus() == ResourceBookingStatus.HOLD
-                        ? ResourceConflictType.ACTIVE_HOLD
-                        : ResourceConflictType.CONFIRMED_BOOKING;
-                conflicts.add(conflict(resource, start, end, type, overlap.getUuid(), overlap.getJobUuid(),
-                        String.format("Venue '%s' is already reserved from %s to %s",
-                                resource.getName(), overlap.getStartTime(), overlap.getEndTime())));
-            }
-            return;
-        }
-
-        int reserved = overlaps.stream().mapToInt(b -> b.getQuantity() == null ? 1 : b.getQuantity()).sum();
-        int total = resource.getTotalQuantity() == null ? 0 : resource.getTotalQuantity();
-        if (reserved + quantity > total) {
-            conflicts.add(conflict(resource, start, end, ResourceConflictType.INSUFFICIENT_QUANTITY, null, null,
-                    String.format("Equipment pool '%s' has %d of %d units free for this window but %d were requested",
-                            resource.getName(), Math.max(0, total - reserved), total, quantity)));
+    private static void requireValidWindow(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Booking windows require start_time before end_time");
         }
     }
 
-    private String blackoutDescription(OrganisationResource resource, ResourceAvailabilityRule rule) {
-        String notes = rule.getNotes() == null || rule.getNotes().isBlank() ? "" : " (" + rule.getNotes() + ")";
-        return String.format("Window intersects a blackout of '%s'%s", resource.getName(), notes);
-    }
-
-    private boolean ruleAppliesOn(ResourceAvailabilityRule rule, LocalDate date) {
-        return AvailabilityRuleSupport.ruleAppliesOn(rule, date);
-    }
-
-    private ResourceConflictDetail conflict(OrganisationResource resource,
-                                            LocalDateTime start,
-                                            LocalDateTime end,
-                                            ResourceConflictType type,
-                                            UUID conflictingBookingUuid,
-                                            UUID conflictingJobUuid,
-                                            String description) {
-        return new ResourceConflictDetail(
-                resource.getUuid(), resource.getName(), start, end, type,
-                conflictingBookingUuid, conflictingJobUuid, description);
-    }
-
     // ===== Loading helpers =====
 
     /**
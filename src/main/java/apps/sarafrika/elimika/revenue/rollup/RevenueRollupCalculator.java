@@ -0,0 +1,126 @@
+package apps.sarafrika.elimika.revenue.rollup;
+
+import apps.sarafrika.elimika.shared.spi.revenue.CommerceRevenueLineItem;
+import apps.sarafrika.elimika.shared.spi.revenue.PurchaseScope;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import org.springframework.util.StringUtils;
+
+/**
+ * Folds one day's captured lines into rollup rows for every dimension.
+ * <p>
+ * The result depends only on the lines, not on the order they arrive in: rows come out in key
+ * order, and the orders come out once per dimension member and currency, in the same order. That
+ * is what lets the consistency check compare a recomputation against what is stored.
+ */
+final class RevenueRollupCalculator {
+
+    static final String UNKNOWN_CURRENCY = "UNKNOWN";
+
+    private static final Comparator<Key> KEY_ORDER = Comparator
+            .comparing(Key::dimension)
+            .thenComparing(Key::dimensionUuid)
+            .thenComparing(Key::courseUuid)
+            .thenComparing(key -> key.scope() == null ? "" : key.scope().name())
+            .thenComparing(Key::currencyCode);
+
+    private static final Comparator<RevenueRollupOrder> ORDER_ORDER = Comparator
+            .comparing(RevenueRollupOrder::dimension)
+            .thenComparing(RevenueRollupOrder::dimensionUuid)
+            .thenComparing(RevenueRollupOrder::currencyCode)
+            .thenComparing(RevenueRollupOrder::orderId);
+
+    private RevenueRollupCalculator() {
+    }
+
+    static RevenueRollupDay aggregate(LocalDate day, List<CommerceRevenueLineItem> lines) {
+        Map<Key, Totals> totals = new TreeMap<>(KEY_ORDER);
+        Set<RevenueRollupOrder> orders = new TreeSet<>(ORDER_ORDER);
+
+        for (CommerceRevenueLineItem line : lines) {
+            if (line == null) {
+                continue;
+            }
+            String currency = normalizeCurrency(line.currencyCode());
+            for (RevenueRollupDimension dimension : RevenueRollupDimension.values()) {
+                UUID member = dimension.memberOf(line);
+                if (member == null) {
+                    continue;
+                }
+                UUID course = dimension.keepsCourse() && line.courseUuid() != null
+                        ? line.courseUuid()
+                        : RevenueRollupDimension.NIL;
+                Key key = new Key(dimension, member, course, line.scope(), currency);
+                totals.computeIfAbsent(key, ignored -> new Totals()).add(line);
+                if (StringUtils.hasText(line.orderId())) {
+                    orders.add(new RevenueRollupOrder(day, dimension, member, currency, line.orderId()));
+                }
+            }
+        }
+
+        List<RevenueRollupRow> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, total) -> rows.add(new RevenueRollupRow(
+                day,
+                key.dimension(),
+                key.dimensionUuid(),
+                key.courseUuid(),
+                key.scope(),
+                key.currencyCode(),
+                total.gross,
+                total.credited,
+                total.uncreditedNet,
+                total.lines,
+                total.units)));
+        return new RevenueRollupDay(rows, List.copyOf(orders));
+    }
+
+    static String normalizeCurrency(String currencyCode) {
+        if (!StringUtils.hasText(currencyCode)) {
+            return UNKNOWN_CURRENCY;
+        }
+        return currencyCode.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record Key(
+            RevenueRollupDimension dimension,
+            UUID dimensionUuid,
+            UUID courseUuid,
+            PurchaseScope scope,
+            String currencyCode
+    ) {
+    }
+
+    private static final class Totals {
+        private BigDecimal gross = BigDecimal.ZERO;
+        private BigDecimal credited = BigDecimal.ZERO;
+        private BigDecimal uncreditedNet = BigDecimal.ZERO;
+        private long lines;
+        private long units;
+
+        private void add(CommerceRevenueLineItem line) {
+            BigDecimal total = line.itemTotal() != null ? line.itemTotal() : BigDecimal.ZERO;
+            gross = gross.add(total);
+            if (line.creditedAmount() != null) {
+                credited = credited.add(line.creditedAmount());
+            } else {
+                // A null fee means the line was settled before the fee was charged: it nets off zero.
+                BigDecimal fee = line.itemPlatformFeeAmount() != null ? line.itemPlatformFeeAmount() : BigDecimal.ZERO;
+                BigDecimal net = total.subtract(fee);
+                if (net.signum() > 0) {
+                    uncreditedNet = uncreditedNet.add(net);
+                }
+            }
+            lines++;
+            units += Math.max(line.quantity(), 0);
+        }
+    }
+}
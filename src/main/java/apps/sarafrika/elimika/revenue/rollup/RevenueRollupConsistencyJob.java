@@ -0,0 +1,111 @@
+package apps.sarafrika.elimika.revenue.rollup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the most recent days of revenue rollups from the raw captured lines and compares them
+ * against what is stored.
+ * <p>
+ * This is the safety net for the event-driven refresh: a change whose mark was lost, or a line
+ * edited outside the capture and settlement paths, leaves a day that looks computed but is not. A
+ * day that differs while it is not pending is reported as divergent, counted on
+ * {@code elimika.revenue.rollup.divergent.days} and repaired in place; one that is pending is just
+ * recomputed early.
+ */
+@Component
+@Slf4j
+public class RevenueRollupConsistencyJob {
+
+    private final RevenueRollups revenueRollups;
+    private final RevenueRollupStore rollupStore;
+    private final Counter divergentDays;
+    private final int days;
+
+    public RevenueRollupConsistencyJob(
+            RevenueRollups revenueRollups,
+            RevenueRollupStore rollupStore,
+            MeterRegistry meterRegistry,
+            @Value("${revenue.rollup.consistency.days:7}") int days) {
+        this.revenueRollups = revenueRollups;
+        this.rollupStore = rollupStore;
+        this.days = Math.max(1, days);
+        this.divergentDays = Counter.builder("elimika.revenue.rollup.divergent.days")
+                .description("Days whose stored revenue rollups differed from the raw captured lines")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${revenue.rollup.consistency.initial-delay:PT10M}",
+            fixedDelayString = "${revenue.rollup.consistency.interval:PT6H}")
+    public void check() {
+        try {
+            List<LocalDate> divergent = runOnce();
+            if (divergent.isEmpty()) {
+                log.info("Revenue rollup consistency check clean over the last {} day(s)", days);
+                return;
+            }
+            log.error("Revenue rollups diverged from the captured lines on {} day(s) and were repaired: {}",
+                    divergent.size(), divergent);
+        } catch (Exception ex) {
+            // A failed check must never kill the scheduler; the next one covers the same days.
+            log.error("Revenue rollup consistency check failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Checks and repairs the last {@code days} days and returns those that had diverged.
+     */
+    public List<LocalDate> runOnce() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<LocalDate> divergent = new ArrayList<>();
+        for (LocalDate day = today.minusDays(days - 1L); !day.isAfter(today); day = day.plusDays(1)) {
+            long version = rollupStore.markedVersion(day);
+            RevenueRollupDay expected = revenueRollups.compute(day);
+            if (matches(expected.rows(), rollupStore.findRowsForDay(day))
+                    && new HashSet<>(expected.orders()).equals(new HashSet<>(rollupStore.findOrdersForDay(day)))) {
+                continue;
+            }
+            if (rollupStore.findPendingDays(day, day, 1).isEmpty()) {
+                divergent.add(day);
+                divergentDays.increment();
+            }
+            rollupStore.replaceDay(day, expected, version);
+        }
+        return divergent;
+    }
+
+    private static boolean matches(List<RevenueRollupRow> expected, List<RevenueRollupRow> stored) {
+        if (expected.size() != stored.size()) {
+            return false;
+        }
+        Map<List<Object>, RevenueRollupRow> storedByKey = new HashMap<>();
+        for (RevenueRollupRow row : stored) {
+            storedByKey.put(key(row), row);
+        }
+        for (RevenueRollupRow row : expected) {
+            RevenueRollupRow match = storedByKey.get(key(row));
+            if (match == null || !row.sameAs(match)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Object> key(RevenueRollupRow row) {
+        return List.of(row.dimension(), row.dimensionUuid(), row.courseUuid(),
+                Objects.toString(row.scope(), ""), row.currencyCode());
+    }
+}
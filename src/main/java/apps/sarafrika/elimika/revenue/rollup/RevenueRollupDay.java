@@ -0,0 +1,9 @@
+package apps.sarafrika.elimika.revenue.rollup;
+
+import java.util.List;
+
+/**
+ * Everything the rollups hold for one day: the summed rows and the orders behind them.
+ */
+public record RevenueRollupDay(List<RevenueRollupRow> rows, List<RevenueRollupOrder> orders) {
+}
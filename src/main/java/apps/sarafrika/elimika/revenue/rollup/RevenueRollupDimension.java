@@ -0,0 +1,49 @@
+package apps.sarafrika.elimika.revenue.rollup;
+
+import apps.sarafrika.elimika.shared.spi.revenue.CommerceRevenueLineItem;
+import java.util.UUID;
+
+/**
+ * The groups a captured line is rolled up under. Every line counts once in each dimension it has a
+ * member for.
+ */
+public enum RevenueRollupDimension {
+
+    /** Every line, under {@link #NIL}: what the admin dashboard reads. */
+    PLATFORM(false),
+    /** Lines for a course, whichever scope they were sold under: the course creator's view. */
+    COURSE(true),
+    /** Lines for a class definition: the instructor's and the organisation's view. */
+    CLASS_DEFINITION(true),
+    /** Lines bought for a student: the student's and the guardian's view. */
+    STUDENT(false);
+
+    /** Stands in for "no member" and "no course" in the rollup key, which cannot hold nulls. */
+    public static final UUID NIL = new UUID(0L, 0L);
+
+    private final boolean keepsCourse;
+
+    RevenueRollupDimension(boolean keepsCourse) {
+        this.keepsCourse = keepsCourse;
+    }
+
+    /**
+     * Whether rows of this dimension are split by the line's course, so earnings can be derived
+     * from that course's revenue share.
+     */
+    public boolean keepsCourse() {
+        return keepsCourse;
+    }
+
+    /**
+     * The member of this dimension a line is rolled up under, or null when it has none.
+     */
+    UUID memberOf(CommerceRevenueLineItem line) {
+        return switch (this) {
+            case PLATFORM -> NIL;
+            case COURSE -> line.courseUuid();
+            case CLASS_DEFINITION -> line.classDefinitionUuid();
+            case STUDENT -> line.studentUuid();
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package apps.sarafrika.elimika.revenue.rollup;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * An order with at least one line under a dimension member on one day and in one currency. Stored
+ * alongside the rollup rows so a viewer's orders can be counted distinctly across all of their
+ * members, which summing per-member counts cannot do.
+ *
+ * @param dimensionUuid the dimension member, {@link RevenueRollupDimension#NIL} for
+ *                      {@link RevenueRollupDimension#PLATFORM}
+ */
+public record RevenueRollupOrder(
+        LocalDate bucketDate,
+        RevenueRollupDimension dimension,
+        UUID dimensionUuid,
+        String currencyCode,
+        String orderId
+) {
+}
@@ -0,0 +1,12 @@
+package apps.sarafrika.elimika.revenue.rollup;
+
+import java.time.LocalDate;
+
+/**
+ * The distinct orders of a set of dimension members on one day.
+ *
+ * @param currencyCode the currency the orders have lines in, or null for the orders of that day in
+ *                     any currency
+ */
+public record RevenueRollupOrderCount(LocalDate bucketDate, String currencyCode, long orderCount) {
+}
@@ -0,0 +1,15 @@
+package apps.sarafrika.elimika.revenue.rollup;
+
+import java.util.List;
+
+/**
+ * What the rollups hold for a set of dimension members between two days.
+ *
+ * @param rows        the rollup rows summed over the members per day, course, scope and currency
+ * @param orderCounts the members' distinct orders per day, both per currency and over all currencies;
+ *                    an order shared by several members counts once
+ */
+public record RevenueRollupRange(List<RevenueRollupRow> rows, List<RevenueRollupOrderCount> orderCounts) {
+
+    static final RevenueRollupRange EMPTY = new RevenueRollupRange(List.of(), List.of());
+}
@@ -0,0 +1,69 @@
+package apps.sarafrika.elimika.revenue.rollup;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the revenue rollups of days that changed since they were last computed, and backfills
+ * days that never were.
+ * <p>
+ * Both kinds of day are picked from the span between the first captured order and today, latest
+ * first, so recent dashboards are served from the rollups soonest. A run recomputes at most
+ * {@code max-days-per-run} days; a long history is backfilled over several runs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RevenueRollupRefreshJob {
+
+    private final RevenueRollups revenueRollups;
+    private final RevenueRollupStore rollupStore;
+
+    /** Ceiling on how many days one run recomputes. */
+    @Value("${revenue.rollup.refresh.max-days-per-run:90}")
+    private int maxDaysPerRun;
+
+    @Scheduled(
+            initialDelayString = "${revenue.rollup.refresh.initial-delay:PT1M}",
+            fixedDelayString = "${revenue.rollup.refresh.interval:PT30S}")
+    public void refresh() {
+        try {
+            int recomputed = runOnce();
+            if (recomputed > 0) {
+                log.debug("Recomputed revenue rollups for {} day(s)", recomputed);
+            }
+        } catch (Exception ex) {
+            // A failed run must never kill the scheduler; pending days stay pending for the next one.
+            log.error("Revenue rollup refresh failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Recomputes one batch of pending days and returns how many were recomputed.
+     */
+    public int runOnce() {
+        Optional<LocalDate> firstDay = revenueRollups.firstDay();
+        if (firstDay.isEmpty()) {
+            return 0;
+        }
+        List<LocalDate> pending = rollupStore.findPendingDays(
+                firstDay.get(), LocalDate.now(ZoneOffset.UTC), Math.max(1, maxDaysPerRun));
+        int recomputed = 0;
+        for (LocalDate day : pending) {
+            try {
+                revenueRollups.recompute(day);
+                recomputed++;
+            } catch (RuntimeException ex) {
+                log.warn("Could not recompute revenue rollups for {}: {}", day, ex.getMessage());
+            }
+        }
+        return recomputed;
+    }
+}
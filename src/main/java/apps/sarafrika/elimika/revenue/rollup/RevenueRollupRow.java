@@ -0,0 +1,53 @@
+package apps.sarafrika.elimika.revenue.rollup;
+
+import apps.sarafrika.elimika.shared.spi.revenue.PurchaseScope;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * One day's captured revenue for one group of lines. Orders are kept apart, as
+ * {@link RevenueRollupOrder}s, since a count of them cannot be summed across members.
+ *
+ * @param dimensionUuid       the dimension member, {@link RevenueRollupDimension#NIL} for
+ *                            {@link RevenueRollupDimension#PLATFORM}; null on rows read back summed
+ *                            over several members
+ * @param courseUuid          the lines' course where the dimension keeps it, otherwise
+ *                            {@link RevenueRollupDimension#NIL}
+ * @param scope               null for lines recorded without a scope
+ * @param creditedAmount      the credits payout recorded for lines that have one
+ * @param uncreditedNetAmount the totals net of the platform fee, floored at zero, of lines whose
+ *                            credit has not been recorded
+ */
+public record RevenueRollupRow(
+        LocalDate bucketDate,
+        RevenueRollupDimension dimension,
+        UUID dimensionUuid,
+        UUID courseUuid,
+        PurchaseScope scope,
+        String currencyCode,
+        BigDecimal grossAmount,
+        BigDecimal creditedAmount,
+        BigDecimal uncreditedNetAmount,
+        long lineCount,
+        long unitsSold
+) {
+
+    /**
+     * Whether two rows hold the same figures, ignoring the scale the amounts happen to carry.
+     */
+    boolean sameAs(RevenueRollupRow other) {
+        return bucketDate.equals(other.bucketDate)
+                && dimension == other.dimension
+                && Objects.equals(dimensionUuid, other.dimensionUuid)
+                && courseUuid.equals(other.courseUuid)
+                && scope == other.scope
+                && currencyCode.equals(other.currencyCode)
+                && grossAmount.compareTo(other.grossAmount) == 0
+                && creditedAmount.compareTo(other.creditedAmount) == 0
+                && uncreditedNetAmount.compareTo(other.uncreditedNetAmount) == 0
+                && lineCount == other.lineCount
+                && unitsSold == other.unitsSold;
+    }
+}
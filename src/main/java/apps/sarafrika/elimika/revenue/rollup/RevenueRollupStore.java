@@ -0,0 +1,271 @@
+package apps.sarafrika.elimika.revenue.rollup;
+
+import apps.sarafrika.elimika.shared.spi.revenue.PurchaseScope;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads and writes {@code revenue_daily_rollups}, {@code revenue_daily_rollup_orders} and
+ * {@code revenue_rollup_days}.
+ * <p>
+ * Issued through JDBC rather than JPA: a day is replaced wholesale with a delete per table and a
+ * few multi-row inserts, and dashboards read sums and distinct counts grouped in the database,
+ * neither of which gains anything from entities. Replacing a day takes a transaction-scoped advisory lock on that day, so
+ * two nodes recomputing it at once write one after the other rather than interleaving rows.
+ */
+@Component
+public class RevenueRollupStore {
+
+    private static final int INSERT_CHUNK = 500;
+    private static final long DAY_LOCK_NAMESPACE = 0x5245564455500000L;
+    private static final String NO_SCOPE = "NONE";
+    private static final String INSERT_PREFIX = """
+            INSERT INTO revenue_daily_rollups (
+                bucket_date, dimension_type, dimension_uuid, course_uuid, scope, currency_code,
+                gross_amount, credited_amount, uncredited_net_amount, line_count, units_sold
+            ) VALUES\s""";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDERS_PREFIX = """
+            INSERT INTO revenue_daily_rollup_orders (
+                bucket_date, dimension_type, dimension_uuid, currency_code, order_id
+            ) VALUES\s""";
+    private static final String ORDER_PLACEHOLDERS = "(?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public RevenueRollupStore(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * The rows of {@code members} in one dimension between two days inclusive, summed over the
+     * members per day, course, scope and currency. The returned rows carry no dimension member.
+     */
+    public List<RevenueRollupRow> findSummedRows(
+            RevenueRollupDimension dimension, Collection<UUID> members, LocalDate from, LocalDate to) {
+        if (members.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query("""
+                        SELECT bucket_date, course_uuid, scope, currency_code,
+                               SUM(gross_amount) AS gross_amount,
+                               SUM(credited_amount) AS credited_amount,
+                               SUM(uncredited_net_amount) AS uncredited_net_amount,
+                               SUM(line_count) AS line_count,
+                               SUM(units_sold) AS units_sold
+                        FROM revenue_daily_rollups
+                        WHERE dimension_type = :dimension
+                          AND dimension_uuid IN (:members)
+                          AND bucket_date BETWEEN :from AND :to
+                        GROUP BY bucket_date, course_uuid, scope, currency_code
+                        """,
+                Map.of("dimension", dimension.name(), "members", members, "from", from, "to", to),
+                (rs, rowNum) -> mapRow(rs, dimension, null));
+    }
+
+    /**
+     * The distinct orders of {@code members} in one dimension per day between two days inclusive,
+     * once per currency and once over all currencies. An order several of the members share counts
+     * once, as it does when the lines themselves are counted.
+     */
+    public List<RevenueRollupOrderCount> findOrderCounts(
+            RevenueRollupDimension dimension, Collection<UUID> members, LocalDate from, LocalDate to) {
+        if (members.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query("""
+                        SELECT bucket_date, currency_code, COUNT(DISTINCT order_id) AS order_count
+                        FROM revenue_daily_rollup_orders
+                        WHERE dimension_type = :dimension
+                          AND dimension_uuid IN (:members)
+                          AND bucket_date BETWEEN :from AND :to
+                        GROUP BY GROUPING SETS ((bucket_date, currency_code), (bucket_date))
+                        """,
+                Map.of("dimension", dimension.name(), "members", members, "from", from, "to", to),
+                (rs, rowNum) -> new RevenueRollupOrderCount(
+                        rs.getObject("bucket_date", LocalDate.class),
+                        rs.getString("currency_code"),
+                        rs.getLong("order_count")));
+    }
+
+    /**
+     * Every stored row of one day, one per dimension member and key.
+     */
+    public List<RevenueRollupRow> findRowsForDay(LocalDate day) {
+        return jdbcTemplate.query("""
+                        SELECT bucket_date, dimension_type, dimension_uuid, course_uuid, scope, currency_code,
+                               gross_amount, credited_amount, uncredited_net_amount,
+                               line_count, units_sold
+                        FROM revenue_daily_rollups
+                        WHERE bucket_date = ?
+                        """,
+                (rs, rowNum) -> mapRow(rs,
+                        RevenueRollupDimension.valueOf(rs.getString("dimension_type")),
+                        rs.getObject("dimension_uuid", UUID.class)),
+                day);
+    }
+
+    /**
+     * Every stored order of one day, one per dimension member and currency.
+     */
+    public List<RevenueRollupOrder> findOrdersForDay(LocalDate day) {
+        return jdbcTemplate.query("""
+                        SELECT bucket_date, dimension_type, dimension_uuid, currency_code, order_id
+                        FROM revenue_daily_rollup_orders
+                        WHERE bucket_date = ?
+                        """,
+                (rs, rowNum) -> new RevenueRollupOrder(
+                        rs.getObject("bucket_date", LocalDate.class),
+                        RevenueRollupDimension.valueOf(rs.getString("dimension_type")),
+                        rs.getObject("dimension_uuid", UUID.class),
+                        rs.getString("currency_code"),
+                        rs.getString("order_id")),
+                day);
+    }
+
+    /**
+     * How many days between two days inclusive have been computed at least once.
+     */
+    public long countComputedDays(LocalDate from, LocalDate to) {
+        Long count = jdbcTemplate.queryForObject("""
+                        SELECT COUNT(*) FROM revenue_rollup_days
+                        WHERE bucket_date BETWEEN ? AND ? AND computed_at IS NOT NULL
+                        """,
+                Long.class, from, to);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Days between two days inclusive that were never computed or have changed since, latest first.
+     */
+    public List<LocalDate> findPendingDays(LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT d.day::date AS bucket_date
+                        FROM generate_series(?::date, ?::date, INTERVAL '1 day') AS d(day)
+                                 LEFT JOIN revenue_rollup_days r ON r.bucket_date = d.day::date
+                        WHERE r.bucket_date IS NULL
+                           OR r.computed_at IS NULL
+                           OR r.marked_version > r.computed_version
+                        ORDER BY d.day DESC
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> rs.getObject("bucket_date", LocalDate.class),
+                from, to, limit);
+    }
+
+    /**
+     * Records that a day's lines have changed, so it is recomputed on the next refresh.
+     */
+    public void markChanged(LocalDate day) {
+        jdbcTemplate.update("""
+                INSERT INTO revenue_rollup_days (bucket_date, marked_version)
+                VALUES (?, 1)
+                ON CONFLICT (bucket_date) DO UPDATE SET marked_version = revenue_rollup_days.marked_version + 1
+                """, day);
+    }
+
+    /**
+     * The change count of a day, read before its lines so a change committed meanwhile stays pending.
+     */
+    public long markedVersion(LocalDate day) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT marked_version FROM revenue_rollup_days WHERE bucket_date = ?", Long.class, day);
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+
+    /**
+     * Replaces everything stored for {@code day} with {@code computed} and records it as computed up
+     * to {@code version}.
+     */
+    @Transactional
+    public void replaceDay(LocalDate day, RevenueRollupDay computed, long version) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, DAY_LOCK_NAMESPACE ^ day.toEpochDay());
+        jdbcTemplate.update("DELETE FROM revenue_daily_rollups WHERE bucket_date = ?", day);
+        jdbcTemplate.update("DELETE FROM revenue_daily_rollup_orders WHERE bucket_date = ?", day);
+        List<RevenueRollupRow> rows = computed.rows();
+        for (int start = 0; start < rows.size(); start += INSERT_CHUNK) {
+            insert(rows.subList(start, Math.min(rows.size(), start + INSERT_CHUNK)));
+        }
+        List<RevenueRollupOrder> orders = computed.orders();
+        for (int start = 0; start < orders.size(); start += INSERT_CHUNK) {
+            insertOrders(orders.subList(start, Math.min(orders.size(), start + INSERT_CHUNK)));
+        }
+        jdbcTemplate.update("""
+                INSERT INTO revenue_rollup_days (bucket_date, computed_at, computed_version)
+                VALUES (?, NOW(), ?)
+                ON CONFLICT (bucket_date) DO UPDATE
+                    SET computed_at = NOW(), computed_version = EXCLUDED.computed_version
+                """, day, version);
+    }
+
+    private void insert(List<RevenueRollupRow> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(rows.size() * 11);
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            RevenueRollupRow row = rows.get(i);
+            args.add(row.bucketDate());
+            args.add(row.dimension().name());
+            args.add(row.dimensionUuid());
+            args.add(row.courseUuid());
+            args.add(row.scope() != null ? row.scope().name() : NO_SCOPE);
+            args.add(row.currencyCode());
+            args.add(row.grossAmount());
+            args.add(row.creditedAmount());
+            args.add(row.uncreditedNetAmount());
+            args.add(row.lineCount());
+            args.add(row.unitsSold());
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private void insertOrders(List<RevenueRollupOrder> orders) {
+        StringBuilder sql = new StringBuilder(INSERT_ORDERS_PREFIX);
+        List<Object> args = new ArrayList<>(orders.size() * 5);
+        for (int i = 0; i < orders.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ORDER_PLACEHOLDERS);
+            RevenueRollupOrder order = orders.get(i);
+            args.add(order.bucketDate());
+            args.add(order.dimension().name());
+            args.add(order.dimensionUuid());
+            args.add(order.currencyCode());
+            args.add(order.orderId());
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private static RevenueRollupRow mapRow(ResultSet rs, RevenueRollupDimension dimension, UUID dimensionUuid)
+            throws SQLException {
+        String scope = rs.getString("scope");
+        return new RevenueRollupRow(
+                rs.getObject("bucket_date", LocalDate.class),
+                dimension,
+                dimensionUuid,
+                rs.getObject("course_uuid", UUID.class),
+                NO_SCOPE.equals(scope) ? null : PurchaseScope.valueOf(scope),
+                rs.getString("currency_code"),
+                rs.getBigDecimal("gross_amount"),
+                rs.getBigDecimal("credited_amount"),
+                rs.getBigDecimal("uncredited_net_amount"),
+                rs.getLong("line_count"),
+                rs.getLong("units_sold"));
+    }
+}
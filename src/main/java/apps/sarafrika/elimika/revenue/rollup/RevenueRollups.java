@@ -0,0 +1,136 @@
+package apps.sarafrika.elimika.revenue.rollup;
+
+import apps.sarafrika.elimika.shared.event.commerce.OrderCompletedEvent;
+import apps.sarafrika.elimika.shared.event.commerce.PurchaseSettlementRecordedEvent;
+import apps.sarafrika.elimika.shared.spi.revenue.CommerceRevenueQueryService;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Serves dashboards from the daily revenue rollups and keeps those rollups current.
+ * <p>
+ * A day is only ever computed whole, from the captured lines the dashboards would otherwise read,
+ * so there is no delta arithmetic to drift: a capture and a settlement both just mark the order's
+ * day as changed once their transaction has committed, and {@link RevenueRollupRefreshJob}
+ * recomputes marked and never-computed days in the background. Until that happens a dashboard sees
+ * the day as it was last computed.
+ * <p>
+ * A range is served from the rollups only when every day from the first captured order up to today
+ * has been computed; otherwise the caller falls back to the raw lines, so a fresh deployment reports
+ * correctly while the history is still being backfilled.
+ */
+@Component
+@Slf4j
+public class RevenueRollups {
+
+    private final RevenueRollupStore rollupStore;
+    private final CommerceRevenueQueryService revenueQueryService;
+
+    /** UTC day of the first captured order; cached once known, since it can only move earlier by backdating. */
+    private volatile LocalDate firstDay;
+
+    public RevenueRollups(RevenueRollupStore rollupStore, CommerceRevenueQueryService revenueQueryService) {
+        this.rollupStore = rollupStore;
+        this.revenueQueryService = revenueQueryService;
+    }
+
+    /**
+     * The rollup rows of {@code members} in one dimension between two days inclusive, summed over
+     * the members, and their distinct orders, or empty when the rollups do not cover that range yet.
+     */
+    public Optional<RevenueRollupRange> find(
+            RevenueRollupDimension dimension, Collection<UUID> members, LocalDate from, LocalDate to) {
+        Optional<LocalDate> first = firstDay();
+        if (first.isEmpty()) {
+            return Optional.of(RevenueRollupRange.EMPTY);
+        }
+        LocalDate coveredFrom = from.isBefore(first.get()) ? first.get() : from;
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate coveredTo = to.isAfter(today) ? today : to;
+        if (!coveredFrom.isAfter(coveredTo)) {
+            long days = ChronoUnit.DAYS.between(coveredFrom, coveredTo) + 1;
+            if (rollupStore.countComputedDays(coveredFrom, coveredTo) < days) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(new RevenueRollupRange(
+                rollupStore.findSummedRows(dimension, members, from, to),
+                rollupStore.findOrderCounts(dimension, members, from, to)));
+    }
+
+    /**
+     * Recomputes one day from its captured lines and replaces what is stored for it.
+     */
+    public void recompute(LocalDate day) {
+        long version = rollupStore.markedVersion(day);
+        rollupStore.replaceDay(day, compute(day), version);
+    }
+
+    /**
+     * What the rollups of one day should hold, computed from its captured lines.
+     */
+    RevenueRollupDay compute(LocalDate day) {
+        OffsetDateTime start = day.atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime end = start.plusDays(1).minusNanos(1);
+        return RevenueRollupCalculator.aggregate(day, revenueQueryService.findCapturedRevenueLines(start, end));
+    }
+
+    Optional<LocalDate> firstDay() {
+        LocalDate known = firstDay;
+        if (known != null) {
+            return Optional.of(known);
+        }
+        Optional<LocalDate> found = revenueQueryService.findEarliestCapturedOrderCreatedAt()
+                .map(createdAt -> createdAt.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate());
+        found.ifPresent(day -> firstDay = day);
+        return found;
+    }
+
+    @EventListener
+    void onOrderCompleted(OrderCompletedEvent event) {
+        if (event == null || event.order() == null) {
+            return;
+        }
+        markAfterCommit(event.order().getCreatedAt());
+    }
+
+    @EventListener
+    void onSettlementRecorded(PurchaseSettlementRecordedEvent event) {
+        markAfterCommit(event.orderCreatedAt());
+    }
+
+    private void markAfterCommit(OffsetDateTime orderCreatedAt) {
+        LocalDate day = orderCreatedAt != null
+                ? orderCreatedAt.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate()
+                : LocalDate.now(ZoneOffset.UTC);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markQuietly(day);
+                }
+            });
+        } else {
+            markQuietly(day);
+        }
+    }
+
+    private void markQuietly(LocalDate day) {
+        try {
+            rollupStore.markChanged(day);
+        } catch (RuntimeException ex) {
+            // The consistency job recomputes recent days regardless, so a lost mark heals on its own.
+            log.warn("Could not mark revenue rollups for {} as changed: {}", day, ex.getMessage());
+        }
+    }
+}
@@ -14,6 +14,11 @@ import apps.sarafrika.elimika.revenue.dto.RevenuePaymentDTO;
 import apps.sarafrika.elimika.revenue.dto.RevenueSaleLineItemDTO;
 import apps.sarafrika.elimika.revenue.dto.RevenueScopeBreakdownDTO;
 import apps.sarafrika.elimika.revenue.dto.RevenueTimeSeriesPointDTO;
+import apps.sarafrika.elimika.revenue.rollup.RevenueRollupDimension;
+import apps.sarafrika.elimika.revenue.rollup.RevenueRollupOrderCount;
+import apps.sarafrika.elimika.revenue.rollup.RevenueRollupRange;
+import apps.sarafrika.elimika.revenue.rollup.RevenueRollupRow;
+import apps.sarafrika.elimika.revenue.rollup.RevenueRollups;
 import apps.sarafrika.elimika.revenue.service.RevenueAnalyticsService;
 import apps.sarafrika.elimika.shared.security.DomainSecurityService;
 import apps.sarafrika.elimika.shared.spi.ClassDefinitionLookupService;
@@ -40,9 +45,11 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -68,6 +75,7 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
     private final StudentGuardianLookupService studentGuardianLookupService;
     private final UserLookupService userLookupService;
     private final DomainSecurityService domainSecurityService;
+    private final RevenueRollups revenueRollups;
 
     @Override
     public RevenueDashboardDTO getRevenueDashboard(UserDomain domain, LocalDate startDate, LocalDate endDate) {
@@ -79,8 +87,20 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
         }
 
         DateRange range = resolveDateRange(startDate, endDate);
-        List<CommerceRevenueLineItem> lineItems = loadRevenueLines(domain, range);
-        Map<UUID, RevenueShare> revenueShares = loadRevenueShares(domain, lineItems);
+        RevenueViewer viewer = resolveViewer(domain);
+
+        Optional<RevenueRollupRange> rollups = revenueRollups.find(
+                viewer.dimension(), viewer.members(), range.startDate(), range.endDate());
+        if (rollups.isPresent()) {
+            RevenueRollupRange covered = rollups.get();
+            Map<UUID, RevenueShare> revenueShares =
+                    loadRevenueShares(domain, covered.rows().stream().map(RevenueRollupRow::courseUuid));
+            return buildDashboardFromRollups(domain, range, covered, revenueShares);
+        }
+
+        List<CommerceRevenueLineItem> lineItems = loadRevenueLines(viewer, range);
+        Map<UUID, RevenueShare> revenueShares =
+                loadRevenueShares(domain, lineItems.stream().map(CommerceRevenueLineItem::courseUuid));
 
         return buildDashboard(domain, range, lineItems, revenueShares);
     }
@@ -400,116 +420,48 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
     }
 
 
-    private List<CommerceRevenueLineItem> loadRevenueLines(UserDomain domain, DateRange range) {
+    /**
+     * Who a dashboard is for: the rollup dimension and members whose sales it reports.
+     */
+    private RevenueViewer resolveViewer(UserDomain domain) {
         return switch (domain) {
-            case admin -> revenueQueryService.findCapturedRevenueLines(range.startDateTime(), range.endDateTime());
-            case course_creator -> loadCourseCreatorLines(range);
-            case instructor -> loadInstructorLines(range);
-            case organisation_user -> loadOrganisationLines(range);
-            case student -> loadStudentLines(range);
-            case parent -> loadGuardianLines(range);
+            case admin -> new RevenueViewer(RevenueRollupDimension.PLATFORM, List.of(RevenueRollupDimension.NIL));
+            case course_creator -> new RevenueViewer(RevenueRollupDimension.COURSE, resolveCourseCreatorCourseUuids());
+            case instructor -> new RevenueViewer(
+                    RevenueRollupDimension.CLASS_DEFINITION, resolveInstructorClassDefinitionUuids());
+            case organisation_user -> new RevenueViewer(
+                    RevenueRollupDimension.CLASS_DEFINITION, resolveOrganisationClassDefinitionUuids());
+            case student -> {
+                UUID studentUuid = resolveCurrentStudentUuid();
+                yield new RevenueViewer(RevenueRollupDimension.STUDENT,
+                        studentUuid != null ? List.of(studentUuid) : List.of());
+            }
+            case parent -> new RevenueViewer(RevenueRollupDimension.STUDENT, resolveGuardianStudentUuids());
         };
     }
 
-    private List<CommerceRevenueLineItem> loadStudentLines(DateRange range) {
-        UUID userUuid = domainSecurityService.getCurrentUserUuid();
-        if (userUuid == null) {
-            return List.of();
-        }
-        UUID studentUuid = studentLookupService.findStudentUuidByUserUuid(userUuid).orElse(null);
-        if (studentUuid == null) {
-            return List.of();
-        }
-        return revenueQueryService.findCapturedRevenueLinesByStudentUuids(
-                range.startDateTime(),
-                range.endDateTime(),
-                List.of(studentUuid)
-        );
-    }
-
-    private List<CommerceRevenueLineItem> loadGuardianLines(DateRange range) {
-        UUID guardianUserUuid = domainSecurityService.getCurrentUserUuid();
-        if (guardianUserUuid == null) {
-            return List.of();
-        }
-        List<UUID> studentUuids =
-                studentGuardianLookupService.findActiveGuardianStudentUuidsWithFullAccess(guardianUserUuid);
-        if (studentUuids.isEmpty()) {
-            return List.of();
-        }
-        return revenueQueryService.findCapturedRevenueLinesByStudentUuids(
-                range.startDateTime(),
-                range.endDateTime(),
-                studentUuids
-        );
-    }
-
-    private List<CommerceRevenueLineItem> loadCourseCreatorLines(DateRange range) {
-        UUID userUuid = domainSecurityService.getCurrentUserUuid();
-        if (userUuid == null) {
-            return List.of();
-        }
-        UUID creatorUuid = courseCreatorLookupService.findCourseCreatorUuidByUserUuid(userUuid).orElse(null);
-        if (creatorUuid == null) {
-            return List.of();
-        }
-        List<UUID> courseUuids = courseInfoService.findCourseUuidsByCourseCreatorUuid(creatorUuid);
-        return revenueQueryService.findCapturedRevenueLinesByCourseUuids(
-                range.startDateTime(),
-                range.endDateTime(),
-                courseUuids
-        );
-    }
-
-    private List<CommerceRevenueLineItem> loadInstructorLines(DateRange range) {
-        UUID userUuid = domainSecurityService.getCurrentUserUuid();
-        if (userUuid == null) {
+    private List<CommerceRevenueLineItem> loadRevenueLines(RevenueViewer viewer, DateRange range) {
+        if (viewer.members().isEmpty()) {
             return List.of();
         }
-        UUID instructorUuid = instructorLookupService.findInstructorUuidByUserUuid(userUuid).orElse(null);
-        if (instructorUuid == null) {
-            return List.of();
-        }
-        List<UUID> classDefinitionUuids =
-                classDefinitionLookupService.findClassDefinitionUuidsByInstructorUuid(instructorUuid);
-        return revenueQueryService.findCapturedRevenueLinesByClassDefinitionUuids(
-                range.startDateTime(),
-                range.endDateTime(),
-                classDefinitionUuids
-        );
-    }
-
-    private List<CommerceRevenueLineItem> loadOrganisationLines(DateRange range) {
-        UUID userUuid = domainSecurityService.getCurrentUserUuid();
-        if (userUuid == null) {
-            return List.of();
-        }
-        List<UUID> organisations = userLookupService.getUserOrganizations(userUuid);
-        if (organisations == null || organisations.isEmpty()) {
-            return List.of();
-        }
-        Set<UUID> classDefinitionUuids = new HashSet<>();
-        for (UUID organisationUuid : organisations) {
-            if (organisationUuid == null) {
-                continue;
-            }
-            classDefinitionUuids.addAll(
-                    classDefinitionLookupService.findClassDefinitionUuidsByOrganisationUuid(organisationUuid));
-        }
-        return revenueQueryService.findCapturedRevenueLinesByClassDefinitionUuids(
-                range.startDateTime(),
-                range.endDateTime(),
-                new ArrayList<>(classDefinitionUuids)
-        );
+        return switch (viewer.dimension()) {
+            case PLATFORM -> revenueQueryService.findCapturedRevenueLines(range.startDateTime(), range.endDateTime());
+            case COURSE -> revenueQueryService.findCapturedRevenueLinesByCourseUuids(
+                    range.startDateTime(), range.endDateTime(), viewer.members());
+            case CLASS_DEFINITION -> revenueQueryService.findCapturedRevenueLinesByClassDefinitionUuids(
+                    range.startDateTime(), range.endDateTime(), viewer.members());
+            case STUDENT -> revenueQueryService.findCapturedRevenueLinesByStudentUuids(
+                    range.startDateTime(), range.endDateTime(), viewer.members());
+        };
     }
 
-    private Map<UUID, RevenueShare> loadRevenueShares(UserDomain domain, List<CommerceRevenueLineItem> lineItems) {
+    private Map<UUID, RevenueShare> loadRevenueShares(UserDomain domain, Stream<UUID> lineCourseUuids) {
         if (domain != UserDomain.course_creator && domain != UserDomain.instructor) {
             return Map.of();
         }
-        List<UUID> courseUuids = lineItems.stream()
-                .map(CommerceRevenueLineItem::courseUuid)
+        List<UUID> courseUuids = lineCourseUuids
                 .filter(Objects::nonNull)
+                .filter(courseUuid -> !RevenueRollupDimension.NIL.equals(courseUuid))
                 .distinct()
                 .toList();
         return courseInfoService.getRevenueShares(courseUuids);
@@ -553,7 +505,66 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
             }
         }
 
-        List<RevenueAmountDTO> averageOrderValue = buildAverageOrderValues(overall.grossTotals, ordersByCurrency);
+        Map<String, Long> orderCountsByCurrency = new HashMap<>();
+        ordersByCurrency.forEach((currency, orderIds) -> orderCountsByCurrency.put(currency, (long) orderIds.size()));
+        return toDashboard(domain, range, overall, orderCountsByCurrency, scopeAggregates, dailyAggregates);
+    }
+
+    /**
+     * Builds the same dashboard as {@link #buildDashboard} from daily rollup rows summed over the
+     * viewer's members, so its cost follows the number of days and groups rather than line items.
+     * <p>
+     * Amounts, line and unit counts are exactly those of the lines. Order counts come from the
+     * distinct orders of the viewer's members per day, so an order that spans several of them (two
+     * of a creator's courses, two of a guardian's students) counts once, as it does above. An order
+     * belongs to the day it was created, so the days' counts add up to the range's.
+     */
+    private RevenueDashboardDTO buildDashboardFromRollups(
+            UserDomain domain,
+            DateRange range,
+            RevenueRollupRange rollups,
+            Map<UUID, RevenueShare> revenueShares
+    ) {
+        Aggregate overall = new Aggregate();
+        Map<String, Long> orderCountsByCurrency = new HashMap<>();
+        Map<PurchaseScope, Aggregate> scopeAggregates = new EnumMap<>(PurchaseScope.class);
+        Map<LocalDate, Aggregate> dailyAggregates = new TreeMap<>();
+
+        for (RevenueRollupRow row : rollups.rows()) {
+            String currency = normalizeCurrency(row.currencyCode());
+            BigDecimal gross = safeAmount(row.grossAmount());
+            BigDecimal earnings = calculateEarnings(domain, row, revenueShares);
+
+            overall.addRollup(currency, gross, earnings, row.lineCount(), row.unitsSold());
+            if (row.scope() != null) {
+                scopeAggregates.computeIfAbsent(row.scope(), scope -> new Aggregate())
+                        .addRollup(currency, gross, earnings, row.lineCount(), row.unitsSold());
+            }
+            dailyAggregates.computeIfAbsent(row.bucketDate(), key -> new Aggregate())
+                    .addRollup(currency, gross, earnings, row.lineCount(), row.unitsSold());
+        }
+        for (RevenueRollupOrderCount count : rollups.orderCounts()) {
+            if (count.currencyCode() == null) {
+                overall.addRolledUpOrders(count.orderCount());
+                dailyAggregates.computeIfAbsent(count.bucketDate(), key -> new Aggregate())
+                        .addRolledUpOrders(count.orderCount());
+            } else {
+                orderCountsByCurrency.merge(normalizeCurrency(count.currencyCode()), count.orderCount(), Long::sum);
+            }
+        }
+
+        return toDashboard(domain, range, overall, orderCountsByCurrency, scopeAggregates, dailyAggregates);
+    }
+
+    private RevenueDashboardDTO toDashboard(
+            UserDomain domain,
+            DateRange range,
+            Aggregate overall,
+            Map<String, Long> orderCountsByCurrency,
+            Map<PurchaseScope, Aggregate> scopeAggregates,
+            Map<LocalDate, Aggregate> dailyAggregates
+    ) {
+        List<RevenueAmountDTO> averageOrderValue = buildAverageOrderValues(overall.grossTotals, orderCountsByCurrency);
         List<RevenueScopeBreakdownDTO> scopeBreakdown = buildScopeBreakdown(scopeAggregates);
         List<RevenueTimeSeriesPointDTO> dailySeries = buildDailySeries(dailyAggregates);
 
@@ -563,7 +574,7 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
                 range.endDate(),
                 toAmountList(overall.grossTotals),
                 toAmountList(overall.earningsTotals),
-                overall.orderIds.size(),
+                overall.orderCount(),
                 overall.lineItemCount,
                 overall.unitsSold,
                 averageOrderValue,
@@ -574,12 +585,12 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
 
     private List<RevenueAmountDTO> buildAverageOrderValues(
             Map<String, BigDecimal> grossTotals,
-            Map<String, Set<String>> ordersByCurrency
+            Map<String, Long> orderCountsByCurrency
     ) {
         List<RevenueAmountDTO> averages = new ArrayList<>();
         for (Map.Entry<String, BigDecimal> entry : grossTotals.entrySet()) {
             String currency = entry.getKey();
-            int orderCount = ordersByCurrency.getOrDefault(currency, Set.of()).size();
+            long orderCount = orderCountsByCurrency.getOrDefault(currency, 0L);
             BigDecimal avg = orderCount > 0
                     ? entry.getValue().divide(BigDecimal.valueOf(orderCount), SCALE, RoundingMode.HALF_UP)
                     : BigDecimal.ZERO;
@@ -613,7 +624,7 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
                     entry.getKey(),
                     toAmountList(aggregate.grossTotals),
                     toAmountList(aggregate.earningsTotals),
-                    aggregate.orderIds.size(),
+                    aggregate.orderCount(),
                     aggregate.unitsSold
             ));
         }
@@ -668,6 +679,30 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
         };
     }
 
+    /**
+     * {@link #calculateEarnings(UserDomain, CommerceRevenueLineItem, Map)} for a rollup row: the
+     * credits recorded for its lines, plus the earner's share of the net of the lines whose credit
+     * has not been recorded. The share is applied to the row's summed net rather than line by line,
+     * which can differ from the per-line figure in the fourth decimal place.
+     */
+    private BigDecimal calculateEarnings(
+            UserDomain domain,
+            RevenueRollupRow row,
+            Map<UUID, RevenueShare> revenueShares
+    ) {
+        return switch (domain) {
+            case course_creator -> row.scope() == PurchaseScope.COURSE
+                    ? safeAmount(row.creditedAmount()).add(applyShare(
+                            safeAmount(row.uncreditedNetAmount()), revenueShares.get(row.courseUuid()), true))
+                    : BigDecimal.ZERO;
+            case instructor -> row.scope() == PurchaseScope.CLASS
+                    ? safeAmount(row.creditedAmount()).add(applyShare(
+                            safeAmount(row.uncreditedNetAmount()), revenueShares.get(row.courseUuid()), false))
+                    : BigDecimal.ZERO;
+            default -> safeAmount(row.grossAmount());
+        };
+    }
+
     /**
      * What the earner's wallet holds for this line.
      * <p>
@@ -855,6 +890,7 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
         private final Map<String, BigDecimal> grossTotals = new HashMap<>();
         private final Map<String, BigDecimal> earningsTotals = new HashMap<>();
         private final Set<String> orderIds = new HashSet<>();
+        private long rolledUpOrderCount;
         private long lineItemCount;
         private long unitsSold;
 
@@ -868,11 +904,29 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
             mergeAmount(earningsTotals, currency, earnings);
         }
 
+        private void addRollup(String currency, BigDecimal gross, BigDecimal earnings, long lineCount, long units) {
+            lineItemCount += lineCount;
+            unitsSold += units;
+            mergeAmount(grossTotals, currency, gross);
+            mergeAmount(earningsTotals, currency, earnings);
+        }
+
+        private void addRolledUpOrders(long orderCount) {
+            rolledUpOrderCount += orderCount;
+        }
+
+        private long orderCount() {
+            return orderIds.size() + rolledUpOrderCount;
+        }
+
         private void mergeAmount(Map<String, BigDecimal> totals, String currency, BigDecimal amount) {
             totals.merge(currency, amount, BigDecimal::add);
         }
     }
 
+    private record RevenueViewer(RevenueRollupDimension dimension, List<UUID> members) {
+    }
+
     private record DateRange(
             LocalDate startDate,
             LocalDate endDate,
@@ -0,0 +1,47 @@
+package apps.sarafrika.elimika.shared.config;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.QualifiedSequenceName;
+import org.hibernate.boot.model.relational.QualifiedTableName;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.ImplicitDatabaseObjectNamingStrategy;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+
+import java.util.Map;
+
+/**
+ * Names the implicit id sequence of an entity {@code <table>_id_seq}, the sequence PostgreSQL created
+ * for each {@code BIGSERIAL id} column.
+ * <p>
+ * {@link apps.sarafrika.elimika.shared.model.BaseEntity} ids come from a sequence so that Hibernate
+ * can batch inserts, but the tables already have one sequence each; Hibernate's own implicit name
+ * ({@code <EntityName>_SEQ}) would mean a second, competing set. Pointing it at the existing
+ * sequences keeps a single source of ids for Hibernate, the JDBC stores and plain
+ * {@code INSERT ... SELECT} statements that still rely on the column default.
+ */
+public class TableIdSequenceNamingStrategy implements ImplicitDatabaseObjectNamingStrategy {
+
+    @Override
+    public QualifiedName determineSequenceName(Identifier catalogName, Identifier schemaName,
+                                               Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        String table = ConfigurationHelper.getString(PersistentIdentifierGenerator.TABLE, configValues);
+        if (table == null || table.isBlank()) {
+            throw new IllegalStateException("Cannot name an id sequence without the entity's table");
+        }
+        return new QualifiedSequenceName(catalogName, schemaName, Identifier.toIdentifier(unqualified(table) + "_id_seq"));
+    }
+
+    @Override
+    public QualifiedName determineTableName(Identifier catalogName, Identifier schemaName,
+                                            Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        // Only sequence generators are used; a table generator keeps Hibernate's usual name.
+        return new QualifiedTableName(catalogName, schemaName, Identifier.toIdentifier("hibernate_sequences"));
+    }
+
+    private static String unqualified(String table) {
+        String name = table.substring(table.lastIndexOf('.') + 1);
+        return name.startsWith("\"") && name.endsWith("\"") ? name.substring(1, name.length() - 1) : name;
+    }
+}
@@ -4,11 +4,16 @@ import apps.sarafrika.elimika.course.dto.CourseAssessmentLineItemDTO;
 import apps.sarafrika.elimika.course.dto.CourseAssessmentLineItemRubricEvaluationDTO;
 import apps.sarafrika.elimika.course.dto.CourseAssessmentLineItemScoreDTO;
 import apps.sarafrika.elimika.course.dto.CourseGradeBookDTO;
+import apps.sarafrika.elimika.course.dto.CourseGradeBookRecalculationDTO;
+import apps.sarafrika.elimika.course.service.CourseGradeBookRecalculationService;
 import apps.sarafrika.elimika.course.service.CourseGradeBookService;
+import apps.sarafrika.elimika.shared.dto.PagedDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +25,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 import java.util.UUID;
@@ -58,6 +64,7 @@ public class CourseGradeBookController {
             + "or @learnerAssessmentScope.ownsEnrollment(#enrollmentUuid)";
 
     private final CourseGradeBookService courseGradeBookService;
+    private final CourseGradeBookRecalculationService courseGradeBookRecalculationService;
 
     @Operation(summary = "Create gradebook line item", description = "Adds a linked task under a weighted course assessment component.")
     @PostMapping("/{courseUuid}/assessments/{assessmentUuid}/line-items")
@@ -175,4 +182,37 @@ public class CourseGradeBookController {
         CourseGradeBookDTO gradeBook = courseGradeBookService.getEnrollmentGradeBook(courseUuid, enrollmentUuid);
         return ResponseEntity.ok(apps.sarafrika.elimika.shared.dto.ApiResponse.success(gradeBook, "Course gradebook retrieved successfully"));
     }
+
+    @Operation(summary = "Recalculate assessment across the course", description = "Queues a background recalculation of an assessment component and every learner's final grade in the course.")
+    @PostMapping("/{courseUuid}/assessments/{assessmentUuid}/gradebook/recalculations")
+    public ResponseEntity<apps.sarafrika.elimika.shared.dto.ApiResponse<CourseGradeBookRecalculationDTO>> requestRecalculation(
+            @PathVariable UUID courseUuid,
+            @PathVariable UUID assessmentUuid
+    ) {
+        CourseGradeBookRecalculationDTO recalculation = courseGradeBookRecalculationService.requestRecalculation(courseUuid, assessmentUuid);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(apps.sarafrika.elimika.shared.dto.ApiResponse.success(recalculation, "Gradebook recalculation queued successfully"));
+    }
+
+    @Operation(summary = "List gradebook recalculations", description = "Returns the course-wide gradebook recalculations of a course with their progress.")
+    @GetMapping("/{courseUuid}/gradebook/recalculations")
+    public ResponseEntity<apps.sarafrika.elimika.shared.dto.ApiResponse<PagedDTO<CourseGradeBookRecalculationDTO>>> getRecalculations(
+            @PathVariable UUID courseUuid,
+            Pageable pageable
+    ) {
+        Page<CourseGradeBookRecalculationDTO> recalculations = courseGradeBookRecalculationService.getRecalculations(courseUuid, pageable);
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentRequestUri().build().toString();
+        return ResponseEntity.ok(apps.sarafrika.elimika.shared.dto.ApiResponse.success(
+                PagedDTO.from(recalculations, baseUrl), "Gradebook recalculations retrieved successfully"));
+    }
+
+    @Operation(summary = "Get gradebook recalculation", description = "Returns the status and progress of a course-wide gradebook recalculation.")
+    @GetMapping("/{courseUuid}/gradebook/recalculations/{recalculationUuid}")
+    public ResponseEntity<apps.sarafrika.elimika.shared.dto.ApiResponse<CourseGradeBookRecalculationDTO>> getRecalculation(
+            @PathVariable UUID courseUuid,
+            @PathVariable UUID recalculationUuid
+    ) {
+        CourseGradeBookRecalculationDTO recalculation = courseGradeBookRecalculationService.getRecalculation(courseUuid, recalculationUuid);
+        return ResponseEntity.ok(apps.sarafrika.elimika.shared.dto.ApiResponse.success(recalculation, "Gradebook recalculation retrieved successfully"));
+    }
 }
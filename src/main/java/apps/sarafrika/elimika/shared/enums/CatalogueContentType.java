@@ -0,0 +1,11 @@
+package apps.sarafrika.elimika.shared.enums;
+
+/**
+ * The kinds of catalogue content that can be found through catalogue search.
+ */
+public enum CatalogueContentType {
+    COURSE,
+    CLASS_DEFINITION,
+    TRAINING_PROGRAM,
+    INSTRUCTOR
+}
@@ -0,0 +1,13 @@
+package apps.sarafrika.elimika.shared.enums;
+
+/**
+ * The kinds of located content that can be found through proximity search.
+ */
+public enum LocatedContentType {
+    CLASS_DEFINITION,
+    SCHEDULED_INSTANCE,
+    MARKETPLACE_JOB,
+    ORGANISATION,
+    TRAINING_BRANCH,
+    INSTRUCTOR
+}
@@ -0,0 +1,16 @@
+package apps.sarafrika.elimika.shared.event.commerce;
+
+import java.time.OffsetDateTime;
+
+/**
+ * What payout did with a purchase line's money - fee, credit, retained remainder - has been stamped
+ * onto the purchase record. Published from inside the recording transaction.
+ *
+ * @param orderId        the order the line belongs to
+ * @param orderCreatedAt when the order was placed, which is the day its revenue is reported under
+ */
+public record PurchaseSettlementRecordedEvent(
+        String orderId,
+        OffsetDateTime orderCreatedAt
+) {
+}
@@ -0,0 +1,16 @@
+package apps.sarafrika.elimika.shared.event.geo;
+
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+
+import java.util.UUID;
+
+/**
+ * Published whenever located content is created, updated or deleted, whether or not its coordinates
+ * moved: visibility and status decide whether it is findable too. Published from inside the writing
+ * transaction; the proximity index re-reads the content once that transaction has committed.
+ *
+ * @param contentType the kind of content that changed
+ * @param contentUuid the content that changed
+ */
+public record LocationChangedEvent(LocatedContentType contentType, UUID contentUuid) {
+}
@@ -0,0 +1,21 @@
+package apps.sarafrika.elimika.shared.event.hold;
+
+import java.time.LocalDateTime;
+
+/**
+ * A time-limited hold has been placed or extended and lapses at {@code expiresAt} unless it is
+ * settled first.
+ * <p>
+ * Published by the module that owns the hold so the shared hold-expiry scheduler can wake up at that
+ * moment rather than waiting for a sweep. It names no hold in particular: the scheduler lapses every
+ * hold of the type that is due, so one event per placing operation is enough however many rows it
+ * wrote.
+ *
+ * @param holdType  the {@code HoldExpiryHandler#holdType()} of the hold
+ * @param expiresAt UTC time the hold lapses
+ */
+public record HoldPlacedEvent(
+        String holdType,
+        LocalDateTime expiresAt
+) {
+}
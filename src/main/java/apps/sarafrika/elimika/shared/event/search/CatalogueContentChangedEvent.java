@@ -0,0 +1,16 @@
+package apps.sarafrika.elimika.shared.event.search;
+
+import apps.sarafrika.elimika.shared.enums.CatalogueContentType;
+
+import java.util.UUID;
+
+/**
+ * Published whenever searchable catalogue content, or something its search entry is built from, is
+ * created, updated or deleted. Published from inside the writing transaction; the search index re-reads
+ * the content once that transaction has committed.
+ *
+ * @param contentType the kind of content that changed
+ * @param contentUuid the content that changed
+ */
+public record CatalogueContentChangedEvent(CatalogueContentType contentType, UUID contentUuid) {
+}
@@ -0,0 +1,10 @@
+package apps.sarafrika.elimika.shared.event.user;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a user's global or organisation-scoped domain mappings are written or removed,
+ * so anything caching authorization answers for that user can drop them.
+ */
+public record UserAuthorizationChangedEvent(UUID userUuid) {
+}
@@ -0,0 +1,95 @@
+package apps.sarafrika.elimika.shared.geo.controller;
+
+import apps.sarafrika.elimika.shared.dto.ApiResponse;
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+import apps.sarafrika.elimika.shared.geo.dto.NearbyHitDTO;
+import apps.sarafrika.elimika.shared.geo.service.NearbySearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * "Near me" discovery across classes, scheduled sessions, marketplace jobs, organisations, training
+ * branches and instructors, ordered by great-circle distance from the caller's point.
+ */
+@RestController
+@RequestMapping(NearbySearchController.API_ROOT_PATH)
+@RequiredArgsConstructor
+@Tag(name = "Nearby Search", description = "Radius and nearest-neighbour search over located classes, sessions, jobs, organisations, branches and instructors")
+public class NearbySearchController {
+
+    public static final String API_ROOT_PATH = "/api/v1/nearby";
+
+    private final NearbySearchService nearbySearchService;
+
+    @Operation(
+            summary = "Find content within a radius",
+            description = """
+                    Returns public active classes, upcoming sessions, open marketplace jobs, organisations, training
+                    branches and instructors within `radius_km` of the point, nearest first. Sessions that have
+                    ended are never returned; `starts_from` and `starts_before` further restrict the results to
+                    sessions starting in that window.
+                    """
+    )
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<NearbyHitDTO>>> withinRadius(
+            @Parameter(description = "Latitude of the search point", required = true, example = "-1.2921")
+            @RequestParam double lat,
+            @Parameter(description = "Longitude of the search point", required = true, example = "36.8219")
+            @RequestParam double lng,
+            @Parameter(description = "Search radius in kilometres, at most 200", example = "5")
+            @RequestParam(name = "radius_km", defaultValue = "5") double radiusKm,
+            @Parameter(description = "Kinds of content to include; all when omitted")
+            @RequestParam(required = false) List<LocatedContentType> types,
+            @Parameter(description = "Only sessions starting at or after this time")
+            @RequestParam(name = "starts_from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime startsFrom,
+            @Parameter(description = "Only sessions starting before this time")
+            @RequestParam(name = "starts_before", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime startsBefore,
+            @Parameter(description = "Maximum number of results, at most 200", example = "50")
+            @RequestParam(defaultValue = "50") int limit) {
+        List<NearbyHitDTO> hits = nearbySearchService.withinRadius(
+                lat, lng, radiusKm * 1000, types, startsFrom, startsBefore, limit);
+        return ResponseEntity.ok(ApiResponse.success(hits, "Nearby content retrieved successfully"));
+    }
+
+    @Operation(
+            summary = "Find the nearest content",
+            description = """
+                    Returns the `k` public active classes, upcoming sessions, open marketplace jobs, organisations,
+                    training branches and instructors nearest to the point, however far away they are. The same
+                    type and session start filters as the radius search apply.
+                    """
+    )
+    @GetMapping(value = "/nearest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<NearbyHitDTO>>> nearest(
+            @Parameter(description = "Latitude of the search point", required = true, example = "-1.2921")
+            @RequestParam double lat,
+            @Parameter(description = "Longitude of the search point", required = true, example = "36.8219")
+            @RequestParam double lng,
+            @Parameter(description = "Number of results, at most 200", example = "10")
+            @RequestParam(defaultValue = "10") int k,
+            @Parameter(description = "Kinds of content to include; all when omitted")
+            @RequestParam(required = false) List<LocatedContentType> types,
+            @Parameter(description = "Only sessions starting at or after this time")
+            @RequestParam(name = "starts_from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime startsFrom,
+            @Parameter(description = "Only sessions starting before this time")
+            @RequestParam(name = "starts_before", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime startsBefore) {
+        List<NearbyHitDTO> hits = nearbySearchService.nearest(lat, lng, k, types, startsFrom, startsBefore);
+        return ResponseEntity.ok(ApiResponse.success(hits, "Nearest content retrieved successfully"));
+    }
+}
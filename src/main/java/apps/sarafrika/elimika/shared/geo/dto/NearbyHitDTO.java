@@ -0,0 +1,48 @@
+package apps.sarafrika.elimika.shared.geo.dto;
+
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Schema(name = "NearbyHit", description = "A class, session, marketplace job, organisation, branch or instructor near the searched point")
+public record NearbyHitDTO(
+        @Schema(description = "Kind of content found", example = "SCHEDULED_INSTANCE")
+        @JsonProperty("content_type")
+        LocatedContentType contentType,
+
+        @Schema(description = "UUID of the content found", example = "35b49d4c-aec0-4a88-873b-5fa91342198f")
+        @JsonProperty("content_uuid")
+        UUID contentUuid,
+
+        @Schema(description = "Title of the class, session or job, or the name of the organisation, branch or instructor", example = "Weekend Python Bootcamp")
+        @JsonProperty("title")
+        String title,
+
+        @Schema(description = "Place name or address recorded with the coordinates", example = "Westlands, Nairobi")
+        @JsonProperty("location_name")
+        String locationName,
+
+        @Schema(description = "Latitude of the content", example = "-1.2676")
+        @JsonProperty("latitude")
+        double latitude,
+
+        @Schema(description = "Longitude of the content", example = "36.8108")
+        @JsonProperty("longitude")
+        double longitude,
+
+        @Schema(description = "When the session starts; only set for scheduled sessions", example = "2026-10-20T09:00:00Z")
+        @JsonProperty("starts_at")
+        OffsetDateTime startsAt,
+
+        @Schema(description = "When the session ends; only set for scheduled sessions", example = "2026-10-20T11:00:00Z")
+        @JsonProperty("ends_at")
+        OffsetDateTime endsAt,
+
+        @Schema(description = "Great-circle distance from the searched point in metres", example = "1240.5")
+        @JsonProperty("distance_meters")
+        double distanceMeters
+) {
+}
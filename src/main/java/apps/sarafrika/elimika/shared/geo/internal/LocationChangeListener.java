@@ -0,0 +1,31 @@
+package apps.sarafrika.elimika.shared.geo.internal;
+
+import apps.sarafrika.elimika.shared.event.geo.LocationChangedEvent;
+import apps.sarafrika.elimika.shared.model.Locatable;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Announces every write to a {@link Locatable} entity as a {@link LocationChangedEvent}.
+ * <p>
+ * Located content lives in several modules and is written from many service paths; hooking the
+ * entities keeps the proximity index in step without each of them having to remember it.
+ * Resolved by Hibernate through Spring's bean container, so the publisher is injected as usual.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocationChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onLocationChanged(Locatable entity) {
+        eventPublisher.publishEvent(new LocationChangedEvent(entity.locatedContentType(), entity.getUuid()));
+    }
+}
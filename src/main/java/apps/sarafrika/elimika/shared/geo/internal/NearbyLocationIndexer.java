@@ -0,0 +1,172 @@
+package apps.sarafrika.elimika.shared.geo.internal;
+
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+import apps.sarafrika.elimika.shared.internal.ContentIndexSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes rows of {@code nearby_locations}, one per located item that the public may find.
+ * <p>
+ * Each content type has one source query restricted to what may be shown to anyone nearby: active
+ * public classes and their upcoming sessions, open public marketplace jobs, and active organisations,
+ * branches and instructors, each only with valid coordinates. Refreshing content deletes its row and
+ * re-inserts whatever the source still returns. A class definition's sessions inherit its visibility,
+ * so refreshing a class also re-reads its sessions.
+ */
+@Component
+@Slf4j
+public class NearbyLocationIndexer {
+
+    private static final Map<LocatedContentType, ContentIndexSource> SOURCES = new EnumMap<>(LocatedContentType.class);
+
+    static {
+        SOURCES.put(LocatedContentType.CLASS_DEFINITION, new ContentIndexSource("""
+                SELECT d.uuid, NULL::uuid, d.title, d.location_name, d.location_latitude, d.location_longitude,
+                       NULL::timestamptz, NULL::timestamptz
+                FROM class_definitions d
+                WHERE d.is_active
+                  AND d.class_visibility = 'PUBLIC'
+                  AND d.location_latitude BETWEEN -90 AND 90
+                  AND d.location_longitude BETWEEN -180 AND 180
+                  AND %s
+                """, "d.uuid"));
+        SOURCES.put(LocatedContentType.SCHEDULED_INSTANCE, new ContentIndexSource("""
+                SELECT s.uuid, s.class_definition_uuid, s.title, s.location_name, s.location_latitude,
+                       s.location_longitude, s.start_time, s.end_time
+                FROM scheduled_instances s
+                         JOIN class_definitions d ON d.uuid = s.class_definition_uuid
+                WHERE s.status IN ('SCHEDULED', 'ONGOING')
+                  AND s.end_time > CURRENT_TIMESTAMP
+                  AND d.is_active
+                  AND d.class_visibility = 'PUBLIC'
+                  AND s.location_latitude BETWEEN -90 AND 90
+                  AND s.location_longitude BETWEEN -180 AND 180
+                  AND %s
+                """, "s.uuid"));
+        SOURCES.put(LocatedContentType.MARKETPLACE_JOB, new ContentIndexSource("""
+                SELECT j.uuid, NULL::uuid, j.title, j.location_name, j.location_latitude, j.location_longitude,
+                       NULL::timestamptz, NULL::timestamptz
+                FROM class_marketplace_jobs j
+                WHERE j.status = 'OPEN'
+                  AND j.class_visibility = 'PUBLIC'
+                  AND j.location_latitude BETWEEN -90 AND 90
+                  AND j.location_longitude BETWEEN -180 AND 180
+                  AND %s
+                """, "j.uuid"));
+        SOURCES.put(LocatedContentType.ORGANISATION, new ContentIndexSource("""
+                SELECT o.uuid, NULL::uuid, o.name, o.location, o.lat, o.long, NULL::timestamptz, NULL::timestamptz
+                FROM organisation o
+                WHERE o.active
+                  AND NOT o.deleted
+                  AND o.lat BETWEEN -90 AND 90
+                  AND o.long BETWEEN -180 AND 180
+                  AND %s
+                """, "o.uuid"));
+        SOURCES.put(LocatedContentType.TRAINING_BRANCH, new ContentIndexSource("""
+                SELECT b.uuid, NULL::uuid, b.branch_name, b.address, b.lat, b.long, NULL::timestamptz,
+                       NULL::timestamptz
+                FROM training_branches b
+                WHERE b.active
+                  AND NOT b.deleted
+                  AND b.lat BETWEEN -90 AND 90
+                  AND b.long BETWEEN -180 AND 180
+                  AND %s
+                """, "b.uuid"));
+        SOURCES.put(LocatedContentType.INSTRUCTOR, new ContentIndexSource("""
+                SELECT i.uuid, NULL::uuid, i.full_name, i.location_name, i.lat, i.long, NULL::timestamptz,
+                       NULL::timestamptz
+                FROM instructors i
+                WHERE NOT i.deleted
+                  AND i.lat BETWEEN -90 AND 90
+                  AND i.long BETWEEN -180 AND 180
+                  AND %s
+                """, "i.uuid"));
+    }
+
+    private static final String DELETE_SQL = """
+            DELETE FROM nearby_locations
+            WHERE content_type = ?
+              AND %s
+            """;
+
+    // A concurrent refresh of the same content may insert first; the later read of the source wins.
+    private static final String INSERT_SQL = """
+            INSERT INTO nearby_locations (content_type, content_uuid, parent_uuid, title, location_name, latitude,
+                                          longitude, starts_at, ends_at, indexed_at)
+            SELECT ?, s.*, CURRENT_TIMESTAMP
+            FROM (%s) s(uuid, parent_uuid, title, location_name, latitude, longitude, starts_at, ends_at)
+            ON CONFLICT (content_type, content_uuid) DO UPDATE
+                SET parent_uuid   = EXCLUDED.parent_uuid,
+                    title         = EXCLUDED.title,
+                    location_name = EXCLUDED.location_name,
+                    latitude      = EXCLUDED.latitude,
+                    longitude     = EXCLUDED.longitude,
+                    starts_at     = EXCLUDED.starts_at,
+                    ends_at       = EXCLUDED.ends_at,
+                    indexed_at    = EXCLUDED.indexed_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    NearbyLocationIndexer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Re-reads the given content from its source tables. Runs in its own transaction because it is
+     * called once the transaction that changed the content has committed.
+     *
+     * @return the number of the given items that are findable after the refresh
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int refresh(LocatedContentType contentType, Collection<UUID> contentUuids) {
+        if (contentUuids.isEmpty()) {
+            return 0;
+        }
+        UUID[] uuids = contentUuids.toArray(UUID[]::new);
+        int rows = write(contentType, "content_uuid = ANY(?)",
+                SOURCES.get(contentType).uuidColumn() + " = ANY(?)", uuids);
+        if (contentType == LocatedContentType.CLASS_DEFINITION) {
+            write(LocatedContentType.SCHEDULED_INSTANCE, "parent_uuid = ANY(?)",
+                    "s.class_definition_uuid = ANY(?)", uuids);
+        }
+        return rows;
+    }
+
+    /**
+     * Replaces every row of one content type with a fresh read of its source, which also drops
+     * sessions that have ended. Readers keep seeing the previous rows until the rebuild commits.
+     *
+     * @return the number of findable items of that type
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int rebuild(LocatedContentType contentType) {
+        long started = System.nanoTime();
+        int rows = write(contentType, "TRUE", "TRUE", null);
+        log.debug("Rebuilt {} nearby locations of type {} in {} ms",
+                rows, contentType, (System.nanoTime() - started) / 1_000_000);
+        return rows;
+    }
+
+    /** Deletes the index rows matching one condition and re-inserts the source rows matching the other. */
+    private int write(LocatedContentType contentType, String indexCondition, String sourceCondition, UUID[] uuids) {
+        String type = contentType.name();
+        String deleteSql = DELETE_SQL.formatted(indexCondition);
+        String insertSql = INSERT_SQL.formatted(SOURCES.get(contentType).select(sourceCondition));
+        if (uuids == null) {
+            jdbcTemplate.update(deleteSql, type);
+            return jdbcTemplate.update(insertSql, type);
+        }
+        jdbcTemplate.update(connection -> ContentIndexSource.prepare(connection, deleteSql, type, uuids));
+        return jdbcTemplate.update(connection -> ContentIndexSource.prepare(connection, insertSql, type, uuids));
+    }
+}
@@ -0,0 +1,52 @@
+package apps.sarafrika.elimika.shared.geo.internal;
+
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+import apps.sarafrika.elimika.shared.event.geo.LocationChangedEvent;
+import apps.sarafrika.elimika.shared.internal.ContentIndexSynchronizer;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps {@code nearby_locations} in step with the located content it is built from.
+ * <p>
+ * {@link LocationChangedEvent}s are batched until the writing transaction commits, so bulk scheduling a
+ * term of sessions re-indexes them together. Every {@code app.nearby.rebuild-interval} each content type
+ * is rebuilt whole, which drops sessions that have ended and picks up rows written straight to the
+ * database.
+ */
+@Component
+class NearbyLocationSynchronizer extends ContentIndexSynchronizer<LocatedContentType> {
+
+    private final NearbyLocationIndexer indexer;
+
+    NearbyLocationSynchronizer(NearbyLocationIndexer indexer) {
+        super(LocatedContentType.class, "nearby locations");
+        this.indexer = indexer;
+    }
+
+    @EventListener
+    void onLocationChanged(LocationChangedEvent event) {
+        changed(event.contentType(), event.contentUuid());
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.nearby.rebuild-interval:PT1H}",
+            fixedDelayString = "${app.nearby.rebuild-interval:PT1H}")
+    void scheduledRebuild() {
+        rebuildAll();
+    }
+
+    @Override
+    protected void refresh(LocatedContentType contentType, Set<UUID> contentUuids) {
+        indexer.refresh(contentType, contentUuids);
+    }
+
+    @Override
+    protected void rebuild(LocatedContentType contentType) {
+        indexer.rebuild(contentType);
+    }
+}
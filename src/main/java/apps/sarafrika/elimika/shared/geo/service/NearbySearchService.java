@@ -0,0 +1,228 @@
+package apps.sarafrika.elimika.shared.geo.service;
+
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+import apps.sarafrika.elimika.shared.geo.dto.NearbyHitDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Radius and nearest-neighbour search over the {@code nearby_locations} proximity index.
+ * <p>
+ * A radius search turns the circle into a latitude/longitude bounding box, lets the GiST index on
+ * {@code position} return the rows inside it, and keeps those within the exact great-circle (haversine)
+ * distance. A nearest search first takes the {@code k} rows nearest in planar degrees from the same
+ * index, which are not necessarily the {@code k} nearest on the sphere. The farthest of them, measured
+ * properly, bounds the true {@code k}-th nearest distance, so a radius search of that size returns the
+ * exact answer. Either way only rows near the point are read, however large the index grows.
+ * <p>
+ * Scheduled sessions carry a start and end time. Sessions that have ended are never returned, and a
+ * start window restricts the results to sessions starting within it ("classes within 5 km, starting
+ * this week").
+ */
+@Service
+@RequiredArgsConstructor
+public class NearbySearchService {
+
+    /** Mean Earth radius (IUGG), in metres. */
+    static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    public static final double MAX_RADIUS_METERS = 200_000;
+    public static final int MAX_RESULTS = 200;
+
+    private static final String DISTANCE_SQL = """
+            2 * %s * asin(least(1, sqrt(power(sin(radians(latitude - ?) / 2), 2)
+                + cos(radians(?)) * cos(radians(latitude)) * power(sin(radians(longitude - ?) / 2), 2))))
+            """.formatted(EARTH_RADIUS_METERS);
+
+    private static final String RADIUS_SQL = """
+            SELECT *
+            FROM (SELECT content_type, content_uuid, title, location_name, latitude, longitude, starts_at, ends_at,
+                         %s AS distance_meters
+                  FROM nearby_locations
+                  WHERE position <@ box(point(?, ?), point(?, ?))
+                    AND %s) n
+            WHERE distance_meters <= ?
+            ORDER BY distance_meters, content_uuid
+            LIMIT ?
+            """;
+
+    private static final String NEAREST_CANDIDATES_SQL = """
+            SELECT latitude, longitude
+            FROM nearby_locations
+            WHERE %s
+            ORDER BY position <-> point(?, ?)
+            LIMIT ?
+            """;
+
+    private static final RowMapper<NearbyHitDTO> HIT_MAPPER = (rs, rowNum) -> new NearbyHitDTO(
+            LocatedContentType.valueOf(rs.getString("content_type")),
+            rs.getObject("content_uuid", UUID.class),
+            rs.getString("title"),
+            rs.getString("location_name"),
+            rs.getDouble("latitude"),
+            rs.getDouble("longitude"),
+            rs.getObject("starts_at", OffsetDateTime.class),
+            rs.getObject("ends_at", OffsetDateTime.class),
+            rs.getDouble("distance_meters"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Everything within {@code radiusMeters} of the point, nearest first.
+     *
+     * @param contentTypes the kinds of content to include, or empty for all
+     * @param startsFrom   if set, only sessions starting at or after it
+     * @param startsBefore if set, only sessions starting before it
+     */
+    public List<NearbyHitDTO> withinRadius(double latitude, double longitude, double radiusMeters,
+                                           Collection<LocatedContentType> contentTypes,
+                                           OffsetDateTime startsFrom, OffsetDateTime startsBefore, int limit) {
+        requireCoordinates(latitude, longitude);
+        if (!(radiusMeters > 0) || radiusMeters > MAX_RADIUS_METERS) {
+            throw new IllegalArgumentException("Radius must be between 0 and " + MAX_RADIUS_METERS + " metres");
+        }
+        Filter filter = new Filter(contentTypes, startsFrom, startsBefore);
+        return radius(latitude, longitude, radiusMeters, filter, requireLimit(limit));
+    }
+
+    /**
+     * The {@code k} items nearest to the point, nearest first.
+     *
+     * @param contentTypes the kinds of content to include, or empty for all
+     * @param startsFrom   if set, only sessions starting at or after it
+     * @param startsBefore if set, only sessions starting before it
+     */
+    public List<NearbyHitDTO> nearest(double latitude, double longitude, int k,
+                                      Collection<LocatedContentType> contentTypes,
+                                      OffsetDateTime startsFrom, OffsetDateTime startsBefore) {
+        requireCoordinates(latitude, longitude);
+        int limit = requireLimit(k);
+        Filter filter = new Filter(contentTypes, startsFrom, startsBefore);
+
+        List<double[]> candidates = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(NEAREST_CANDIDATES_SQL.formatted(filter.sql()));
+            int index = filter.bind(connection, statement, 1);
+            statement.setDouble(index++, longitude);
+            statement.setDouble(index++, latitude);
+            statement.setInt(index, limit);
+            return statement;
+        }, (rs, rowNum) -> new double[]{rs.getDouble("latitude"), rs.getDouble("longitude")});
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        double bound = 0;
+        for (double[] candidate : candidates) {
+            bound = Math.max(bound, distanceMeters(latitude, longitude, candidate[0], candidate[1]));
+        }
+        // Rounding in the SQL and Java distance must not drop the farthest candidate itself.
+        return radius(latitude, longitude, bound + 0.01, filter, limit);
+    }
+
+    private List<NearbyHitDTO> radius(double latitude, double longitude, double radiusMeters, Filter filter, int limit) {
+        double[] box = boundingBox(latitude, longitude, radiusMeters);
+        String sql = RADIUS_SQL.formatted(DISTANCE_SQL, filter.sql());
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            int index = 1;
+            statement.setDouble(index++, latitude);
+            statement.setDouble(index++, latitude);
+            statement.setDouble(index++, longitude);
+            for (double corner : box) {
+                statement.setDouble(index++, corner);
+            }
+            index = filter.bind(connection, statement, index);
+            statement.setDouble(index++, radiusMeters);
+            statement.setInt(index, limit);
+            return statement;
+        }, HIT_MAPPER);
+    }
+
+    /**
+     * The box around a circle as {@code {minLongitude, minLatitude, maxLongitude, maxLatitude}}, in the
+     * (longitude, latitude) order of {@code position}. A circle that reaches a pole or crosses the
+     * antimeridian gets the full longitude range, which is correct and only wider than needed.
+     */
+    static double[] boundingBox(double latitude, double longitude, double radiusMeters) {
+        double angular = radiusMeters / EARTH_RADIUS_METERS;
+        double minLatitude = latitude - Math.toDegrees(angular);
+        double maxLatitude = latitude + Math.toDegrees(angular);
+        if (minLatitude <= -90 || maxLatitude >= 90) {
+            return new double[]{-180, Math.max(minLatitude, -90), 180, Math.min(maxLatitude, 90)};
+        }
+        double deltaLongitude = Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(Math.toRadians(latitude))));
+        double minLongitude = longitude - deltaLongitude;
+        double maxLongitude = longitude + deltaLongitude;
+        if (minLongitude < -180 || maxLongitude > 180) {
+            return new double[]{-180, minLatitude, 180, maxLatitude};
+        }
+        return new double[]{minLongitude, minLatitude, maxLongitude, maxLatitude};
+    }
+
+    /** Haversine great-circle distance in metres; the same formula the radius query uses. */
+    static double distanceMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double sinLatitude = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+        double sinLongitude = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double h = sinLatitude * sinLatitude
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * sinLongitude * sinLongitude;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    private static void requireCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+    }
+
+    private static int requireLimit(int limit) {
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("Result limit must be between 1 and " + MAX_RESULTS);
+        }
+        return limit;
+    }
+
+    /** Content type and session start conditions shared by both queries. */
+    private record Filter(String[] contentTypes, OffsetDateTime startsFrom, OffsetDateTime startsBefore) {
+
+        Filter(Collection<LocatedContentType> contentTypes, OffsetDateTime startsFrom, OffsetDateTime startsBefore) {
+            this((contentTypes == null || contentTypes.isEmpty()
+                            ? EnumSet.allOf(LocatedContentType.class)
+                            : EnumSet.copyOf(contentTypes)).stream().map(Enum::name).toArray(String[]::new),
+                    startsFrom, startsBefore);
+        }
+
+        String sql() {
+            List<String> conditions = new ArrayList<>();
+            conditions.add("content_type = ANY(?)");
+            conditions.add("(ends_at IS NULL OR ends_at > CURRENT_TIMESTAMP)");
+            if (startsFrom != null) {
+                conditions.add("starts_at >= ?");
+            }
+            if (startsBefore != null) {
+                conditions.add("starts_at < ?");
+            }
+            return String.join(" AND ", conditions);
+        }
+
+        int bind(Connection connection, PreparedStatement statement, int index) throws SQLException {
+            statement.setArray(index++, connection.createArrayOf("varchar", contentTypes));
+            if (startsFrom != null) {
+                statement.setObject(index++, startsFrom);
+            }
+            if (startsBefore != null) {
+                statement.setObject(index++, startsBefore);
+            }
+            return index;
+        }
+    }
+}
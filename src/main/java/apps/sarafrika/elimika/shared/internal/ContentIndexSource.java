@@ -0,0 +1,31 @@
+package apps.sarafrika.elimika.shared.internal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * The query a derived index table is filled from for one content type.
+ *
+ * @param sql        the source query, with a {@code %s} placeholder for the uuid condition
+ * @param uuidColumn the column holding the content uuid
+ */
+public record ContentIndexSource(String sql, String uuidColumn) {
+
+    public String select(String condition) {
+        return sql.formatted(condition);
+    }
+
+    /**
+     * Prepares an index statement whose parameters are the content type followed by the changed uuids,
+     * bound as one array however many there are.
+     */
+    public static PreparedStatement prepare(Connection connection, String sql, String contentType, UUID[] uuids)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setString(1, contentType);
+        statement.setArray(2, connection.createArrayOf("uuid", uuids));
+        return statement;
+    }
+}
@@ -0,0 +1,103 @@
+package apps.sarafrika.elimika.shared.internal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps a derived index table in step with the content it is built from, for indexes split by a
+ * content type enum.
+ * <p>
+ * Subclasses report changed content with {@link #changed}, typically from event listeners that run
+ * inside the writing transaction. Changes are collected per transaction and, once it has committed,
+ * each content type is refreshed once with all of its changed items, however many there were. A
+ * rolled-back transaction leaves the index alone; outside a transaction the item is refreshed at once.
+ * A failed refresh is logged and left to the next {@link #rebuildAll() rebuild}, which subclasses
+ * schedule to pick up changes no event announces.
+ *
+ * @param <K> the content types of the index
+ */
+@Slf4j
+public abstract class ContentIndexSynchronizer<K extends Enum<K>> {
+
+    private final Class<K> contentTypes;
+    private final String indexName;
+
+    /**
+     * @param indexName what the index holds, for log messages, e.g. "nearby locations"
+     */
+    protected ContentIndexSynchronizer(Class<K> contentTypes, String indexName) {
+        this.contentTypes = contentTypes;
+        this.indexName = indexName;
+    }
+
+    /** Re-reads the given items of one content type into the index, in a transaction of its own. */
+    protected abstract void refresh(K contentType, Set<UUID> contentUuids);
+
+    /** Replaces every row of one content type with a fresh read of its source. */
+    protected abstract void rebuild(K contentType);
+
+    protected final void changed(K contentType, UUID contentUuid) {
+        if (contentType == null || contentUuid == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshQuietly(contentType, Set.of(contentUuid));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(contentType, contentUuid);
+    }
+
+    /** Rebuilds every content type in turn; one that fails is logged and does not stop the others. */
+    protected final void rebuildAll() {
+        for (K contentType : contentTypes.getEnumConstants()) {
+            try {
+                rebuild(contentType);
+            } catch (RuntimeException ex) {
+                log.warn("Could not rebuild {} {}; the next rebuild will retry: {}",
+                        contentType, indexName, ex.getMessage());
+            }
+        }
+    }
+
+    private void refreshQuietly(K contentType, Set<UUID> contentUuids) {
+        try {
+            refresh(contentType, contentUuids);
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh {} {} {}; the next rebuild will: {}",
+                    contentUuids.size(), contentType, indexName, ex.getMessage());
+        }
+    }
+
+    /** The content changed by one transaction, refreshed after it commits. */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Map<K, Set<UUID>> changed = new EnumMap<>(contentTypes);
+
+        void add(K contentType, UUID contentUuid) {
+            changed.computeIfAbsent(contentType, type -> new LinkedHashSet<>()).add(contentUuid);
+        }
+
+        @Override
+        public void afterCommit() {
+            changed.forEach(ContentIndexSynchronizer.this::refreshQuietly);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ContentIndexSynchronizer.this);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package apps.sarafrika.elimika.shared.internal;
+
+import apps.sarafrika.elimika.shared.event.hold.HoldPlacedEvent;
+import apps.sarafrika.elimika.shared.spi.HoldExpiryHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lapses time-limited holds — unpaid bookings, seats held through checkout — within moments of
+ * their expiry, for every module that registers a {@link HoldExpiryHandler}.
+ *
+ * <h2>Why this exists</h2>
+ * Holds used to lapse only when a cron sweep happened to pass, so a seat or instructor slot stayed
+ * dead for up to the sweep interval after its buyer walked away, and every sweep scanned for expired
+ * rows whether or not anything was due.
+ *
+ * <h2>How</h2>
+ * Upcoming deadlines sit in an in-memory {@link DelayQueue} drained by one virtual thread. Only the
+ * earliest deadline of each hold type needs to be queued: when it passes, the type's handler lapses
+ * everything due in one bulk update and is asked for its next expiry, which is queued in turn. A
+ * {@link HoldPlacedEvent} queues its deadline only when it is earlier than the one already queued
+ * for its type, so the queue stays at about one entry per type however many holds exist. A deadline
+ * queued and then superseded still fires; it finds nothing due and costs one statement.
+ *
+ * <h2>Durability</h2>
+ * Nothing here needs to survive a restart: the queue is rebuilt from each handler's next expiry once
+ * the application is ready, and a slow sweep through every handler remains as a safety net for a
+ * missed event or a deadline queued on another node. Lapsing is a conditional update, so running it
+ * on several nodes at once is harmless.
+ * <p>
+ * Publishes {@code elimika.holds.expired} (tagged {@code type}) and {@code elimika.holds.queued}
+ * (deadlines currently waiting).
+ */
+@Component
+@Slf4j
+public class HoldExpiryScheduler {
+
+    private final Map<String, HoldExpiryHandler> handlers = new HashMap<>();
+    private final Map<String, Counter> expiredCounters = new HashMap<>();
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+    private final ConcurrentMap<String, LocalDateTime> earliestQueued = new ConcurrentHashMap<>();
+    private final Duration retryDelay;
+    private volatile Thread worker;
+
+    public HoldExpiryScheduler(
+            List<HoldExpiryHandler> handlers,
+            MeterRegistry meterRegistry,
+            @Value("${app.holds.expiry.retry-delay:PT30S}") Duration retryDelay) {
+        if (retryDelay.isNegative() || retryDelay.isZero()) {
+            throw new IllegalArgumentException("Hold expiry retry delay must be positive");
+        }
+        for (HoldExpiryHandler handler : handlers) {
+            if (this.handlers.putIfAbsent(handler.holdType(), handler) != null) {
+                throw new IllegalStateException("More than one hold expiry handler for type " + handler.holdType());
+            }
+            expiredCounters.put(handler.holdType(), Counter.builder("elimika.holds.expired")
+                    .tag("type", handler.holdType())
+                    .description("Time-limited holds lapsed because their expiry passed")
+                    .register(meterRegistry));
+        }
+        this.retryDelay = retryDelay;
+        Gauge.builder("elimika.holds.queued", deadlines, DelayQueue::size)
+                .description("Hold expiry deadlines waiting in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lapses whatever expired while the application was down and queues each type's next deadline,
+     * then starts draining the queue.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        sweep();
+        worker = Thread.ofVirtual().name("hold-expiry").start(this::drain);
+        log.info("Hold expiry scheduler started for hold types {}", handlers.keySet());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        Thread running = worker;
+        worker = null;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    /**
+     * Queues the new hold's deadline once the transaction that placed it commits. A hold rolled back
+     * is never queued; one placed outside a transaction is queued at once.
+     */
+    @EventListener
+    void onHoldPlaced(HoldPlacedEvent event) {
+        if (event == null || event.holdType() == null || event.expiresAt() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(event.holdType(), event.expiresAt());
+                }
+            });
+        } else {
+            schedule(event.holdType(), event.expiresAt());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.holds.expiry.safety-net.initial-delay:PT15M}",
+            fixedDelayString = "${app.holds.expiry.safety-net.interval:PT15M}")
+    void safetyNetSweep() {
+        try {
+            sweep();
+        } catch (Exception ex) {
+            // Never let the sweep kill the scheduler; the queued deadlines keep working without it.
+            log.warn("Hold expiry safety-net sweep could not run: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Queues {@code expiresAt} for {@code holdType} unless an earlier or equal deadline of that type is
+     * already queued, which will find this one when it fires.
+     */
+    void schedule(String holdType, LocalDateTime expiresAt) {
+        if (!handlers.containsKey(holdType)) {
+            log.debug("Ignoring hold expiry for unregistered hold type {}", holdType);
+            return;
+        }
+        boolean[] queued = {false};
+        earliestQueued.compute(holdType, (type, current) -> {
+            if (current != null && !expiresAt.isBefore(current)) {
+                return current;
+            }
+            queued[0] = true;
+            return expiresAt;
+        });
+        if (queued[0]) {
+            deadlines.add(new Deadline(holdType, expiresAt));
+        }
+    }
+
+    /**
+     * Handles the next deadline if it has already passed, without waiting.
+     *
+     * @return whether a deadline was handled
+     */
+    boolean runNextDue() {
+        Deadline due = deadlines.poll();
+        if (due == null) {
+            return false;
+        }
+        expire(due);
+        return true;
+    }
+
+    private void drain() {
+        while (worker != null) {
+            try {
+                expire(deadlines.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.warn("Hold expiry worker hit an unexpected error: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private void expire(Deadline due) {
+        // The fired deadline no longer guards its type; anything placed from here on queues itself.
+        earliestQueued.remove(due.holdType(), due.expiresAt());
+        expireAndReschedule(due.holdType());
+    }
+
+    private void sweep() {
+        handlers.keySet().forEach(this::expireAndReschedule);
+    }
+
+    private void expireAndReschedule(String holdType) {
+        HoldExpiryHandler handler = handlers.get(holdType);
+        try {
+            int expired = handler.expireHoldsDueBy(LocalDateTime.now(ZoneOffset.UTC));
+            if (expired > 0) {
+                expiredCounters.get(holdType).increment(expired);
+                log.info("Lapsed {} expired {} holds", expired, holdType);
+            }
+            handler.findNextExpiry().ifPresent(next -> schedule(holdType, next));
+        } catch (Exception ex) {
+            // A database blip must not drop the type off the queue until the next safety-net sweep.
+            log.warn("Could not lapse expired {} holds, retrying in {}: {}", holdType, retryDelay, ex.getMessage());
+            schedule(holdType, LocalDateTime.now(ZoneOffset.UTC).plus(retryDelay));
+        }
+    }
+
+    private record Deadline(String holdType, LocalDateTime expiresAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            Duration remaining = Duration.between(LocalDateTime.now(ZoneOffset.UTC), expiresAt);
+            return unit.convert(remaining);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Deadline deadline) {
+                return expiresAt.compareTo(deadline.expiresAt);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
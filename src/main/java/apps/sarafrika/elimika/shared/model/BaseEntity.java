@@ -25,8 +25,15 @@ import java.util.UUID;
 @MappedSuperclass
 @EntityListeners({AuditingEntityListener.class, DatabaseAuditListener.class})
 public abstract class BaseEntity {
+    /**
+     * Allocated from the table's own {@code <table>_id_seq} in blocks (pooled-lo), so inserts are
+     * deferred to flush and sent as JDBC batches. IDENTITY would force an immediate INSERT per row.
+     * The block size is the sequence's own increment, so a table kept at INCREMENT BY 1 takes one id
+     * per row in insert order; see {@link apps.sarafrika.elimika.wallet.entity.LedgerEntry}.
+     * See {@link apps.sarafrika.elimika.shared.config.TableIdSequenceNamingStrategy}.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @Column(name = "id")
     private Long id;
 
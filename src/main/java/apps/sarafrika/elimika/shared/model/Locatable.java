@@ -0,0 +1,18 @@
+package apps.sarafrika.elimika.shared.model;
+
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+
+import java.util.UUID;
+
+/**
+ * An entity with coordinates that can be found through proximity search. Entities implementing it
+ * register {@link apps.sarafrika.elimika.shared.geo.internal.LocationChangeListener} so that every
+ * write reaches the proximity index.
+ */
+public interface Locatable {
+
+    UUID getUuid();
+
+    /** The kind of content this entity is indexed as. */
+    LocatedContentType locatedContentType();
+}
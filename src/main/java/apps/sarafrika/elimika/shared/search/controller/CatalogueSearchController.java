@@ -0,0 +1,57 @@
+package apps.sarafrika.elimika.shared.search.controller;
+
+import apps.sarafrika.elimika.shared.dto.ApiResponse;
+import apps.sarafrika.elimika.shared.dto.PagedDTO;
+import apps.sarafrika.elimika.shared.enums.CatalogueContentType;
+import apps.sarafrika.elimika.shared.search.dto.CatalogueSearchHitDTO;
+import apps.sarafrika.elimika.shared.search.service.CatalogueSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Single search box over the whole catalogue: courses, classes, training programs and instructors,
+ * ranked by relevance and tolerant of prefixes and typos.
+ */
+@RestController
+@RequestMapping(CatalogueSearchController.API_ROOT_PATH)
+@RequiredArgsConstructor
+@Tag(name = "Catalogue Search", description = "Ranked full-text search across courses, classes, training programs and instructors")
+public class CatalogueSearchController {
+
+    public static final String API_ROOT_PATH = "/api/v1/search";
+
+    private final CatalogueSearchService catalogueSearchService;
+
+    @Operation(
+            summary = "Search the catalogue",
+            description = """
+                    Searches published courses and training programs, public active classes and instructor profiles.
+                    Every word of the query prefix-matches titles, category names and descriptions (`intro pyth`
+                    finds "Introduction to Python"), and titles also match with small typos (`pyton`).
+                    Results are ordered by relevance: title matches rank above category matches, which rank
+                    above description matches. Sort parameters are ignored.
+                    """
+    )
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<PagedDTO<CatalogueSearchHitDTO>>> search(
+            @Parameter(description = "Search text", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Kinds of content to include; all when omitted")
+            @RequestParam(required = false) List<CatalogueContentType> types,
+            Pageable pageable) {
+        Page<CatalogueSearchHitDTO> hits = catalogueSearchService.search(q, types, pageable);
+        return ResponseEntity.ok(ApiResponse.success(PagedDTO.from(hits, API_ROOT_PATH), "Search results retrieved successfully"));
+    }
+}
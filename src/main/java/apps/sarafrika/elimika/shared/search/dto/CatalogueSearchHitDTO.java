@@ -0,0 +1,35 @@
+package apps.sarafrika.elimika.shared.search.dto;
+
+import apps.sarafrika.elimika.shared.enums.CatalogueContentType;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(name = "CatalogueSearchHit", description = "A course, class, training program or instructor matching a catalogue search")
+public record CatalogueSearchHitDTO(
+        @Schema(description = "Kind of content that matched", example = "COURSE")
+        @JsonProperty("content_type")
+        CatalogueContentType contentType,
+
+        @Schema(description = "UUID of the matching content", example = "35b49d4c-aec0-4a88-873b-5fa91342198f")
+        @JsonProperty("content_uuid")
+        UUID contentUuid,
+
+        @Schema(description = "Title of the course, class or program, or the instructor's name", example = "Introduction to Python")
+        @JsonProperty("title")
+        String title,
+
+        @Schema(description = "Category names, or the instructor's professional headline", example = "Programming Data Science")
+        @JsonProperty("category")
+        String category,
+
+        @Schema(description = "Opening of the description, at most 280 characters", example = "Learn Python from first principles")
+        @JsonProperty("summary")
+        String summary,
+
+        @Schema(description = "Relevance score; higher is more relevant. Only meaningful relative to other hits of the same search", example = "1.27")
+        @JsonProperty("score")
+        double score
+) {
+}
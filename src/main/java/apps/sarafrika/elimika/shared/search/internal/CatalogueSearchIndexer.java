@@ -0,0 +1,133 @@
+package apps.sarafrika.elimika.shared.search.internal;
+
+import apps.sarafrika.elimika.shared.enums.CatalogueContentType;
+import apps.sarafrika.elimika.shared.internal.ContentIndexSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes rows of {@code catalogue_search_documents}, one per searchable piece of content.
+ * <p>
+ * Each content type has one source query that yields the content's uuid, title, category names and
+ * description, restricted to what the public catalogue shows: published courses and programmes, active
+ * public classes and instructors that have not been deleted. Refreshing content deletes its rows and
+ * re-inserts whatever the source query still returns, so content that was unpublished or deactivated
+ * simply drops out. Both statements take the uuids as one array, however many changed.
+ */
+@Component
+@Slf4j
+public class CatalogueSearchIndexer {
+
+    private static final Map<CatalogueContentType, ContentIndexSource> SOURCES = new EnumMap<>(CatalogueContentType.class);
+
+    static {
+        SOURCES.put(CatalogueContentType.COURSE, new ContentIndexSource("""
+                SELECT c.uuid, c.name, string_agg(cat.name, ' ' ORDER BY cat.name),
+                       concat_ws(' ', c.description, c.objectives)
+                FROM courses c
+                         LEFT JOIN course_category_mappings m ON m.course_uuid = c.uuid
+                         LEFT JOIN course_categories cat ON cat.uuid = m.category_uuid
+                WHERE c.status = 'published'
+                  AND %s
+                GROUP BY c.uuid, c.name, c.description, c.objectives
+                """, "c.uuid"));
+        SOURCES.put(CatalogueContentType.CLASS_DEFINITION, new ContentIndexSource("""
+                SELECT d.uuid, d.title, cat.name, d.description
+                FROM class_definitions d
+                         LEFT JOIN course_categories cat ON cat.uuid = d.category_uuid
+                WHERE d.is_active
+                  AND d.class_visibility = 'PUBLIC'
+                  AND %s
+                """, "d.uuid"));
+        SOURCES.put(CatalogueContentType.TRAINING_PROGRAM, new ContentIndexSource("""
+                SELECT p.uuid, p.title, cat.name, concat_ws(' ', p.description, p.objectives)
+                FROM training_programs p
+                         LEFT JOIN course_categories cat ON cat.uuid = p.category_uuid
+                WHERE p.status = 'published'
+                  AND COALESCE(p.is_active, TRUE)
+                  AND %s
+                """, "p.uuid"));
+        SOURCES.put(CatalogueContentType.INSTRUCTOR, new ContentIndexSource("""
+                SELECT i.uuid, i.full_name, i.professional_headline, i.bio
+                FROM instructors i
+                WHERE NOT i.deleted
+                  AND %s
+                """, "i.uuid"));
+    }
+
+    private static final String DELETE_SQL = """
+            DELETE FROM catalogue_search_documents
+            WHERE content_type = ?
+              AND %s
+            """;
+
+    // A concurrent refresh of the same content may insert first; the later read of the source wins.
+    private static final String INSERT_SQL = """
+            INSERT INTO catalogue_search_documents (content_type, content_uuid, title, category_text, description,
+                                                    indexed_at)
+            SELECT ?, s.*, CURRENT_TIMESTAMP
+            FROM (%s) s(uuid, title, category_text, description)
+            ON CONFLICT (content_type, content_uuid) DO UPDATE
+                SET title         = EXCLUDED.title,
+                    category_text = EXCLUDED.category_text,
+                    description   = EXCLUDED.description,
+                    indexed_at    = EXCLUDED.indexed_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    CatalogueSearchIndexer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Re-reads the given content from its source tables. Runs in its own transaction because it is
+     * called once the transaction that changed the content has committed.
+     *
+     * @return the number of the given items that are searchable after the refresh
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int refresh(CatalogueContentType contentType, Collection<UUID> contentUuids) {
+        if (contentUuids.isEmpty()) {
+            return 0;
+        }
+        return write(contentType, contentUuids.toArray(UUID[]::new));
+    }
+
+    /**
+     * Replaces every row of one content type with a fresh read of its source. Readers keep seeing the
+     * previous rows until the rebuild commits.
+     *
+     * @return the number of searchable items of that type
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int rebuild(CatalogueContentType contentType) {
+        long started = System.nanoTime();
+        int rows = write(contentType, null);
+        log.debug("Rebuilt {} catalogue search documents of type {} in {} ms",
+                rows, contentType, (System.nanoTime() - started) / 1_000_000);
+        return rows;
+    }
+
+    /** Writes the given content, or every item of the type when {@code contentUuids} is null. */
+    private int write(CatalogueContentType contentType, UUID[] contentUuids) {
+        ContentIndexSource source = SOURCES.get(contentType);
+        String type = contentType.name();
+        if (contentUuids == null) {
+            jdbcTemplate.update(DELETE_SQL.formatted("TRUE"), type);
+            return jdbcTemplate.update(INSERT_SQL.formatted(source.select("TRUE")), type);
+        }
+        String deleteSql = DELETE_SQL.formatted("content_uuid = ANY(?)");
+        String insertSql = INSERT_SQL.formatted(source.select(source.uuidColumn() + " = ANY(?)"));
+        jdbcTemplate.update(connection -> ContentIndexSource.prepare(connection, deleteSql, type, contentUuids));
+        return jdbcTemplate.update(connection -> ContentIndexSource.prepare(connection, insertSql, type, contentUuids));
+    }
+}
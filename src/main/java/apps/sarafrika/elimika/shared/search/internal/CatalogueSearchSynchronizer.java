@@ -0,0 +1,72 @@
+package apps.sarafrika.elimika.shared.search.internal;
+
+import apps.sarafrika.elimika.shared.enums.CatalogueContentType;
+import apps.sarafrika.elimika.shared.event.classes.ClassDefinedEventDTO;
+import apps.sarafrika.elimika.shared.event.classes.ClassDefinitionDeactivatedEventDTO;
+import apps.sarafrika.elimika.shared.event.classes.ClassDefinitionUpdatedEventDTO;
+import apps.sarafrika.elimika.shared.event.search.CatalogueContentChangedEvent;
+import apps.sarafrika.elimika.shared.internal.ContentIndexSynchronizer;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps {@code catalogue_search_documents} in step with the content it is built from.
+ * <p>
+ * Content changes arrive as {@link CatalogueContentChangedEvent}s and class definition events, published
+ * inside the writing transaction, and are batched until it commits, so saving a course together with its
+ * category mappings re-indexes the course once. Every {@code app.catalogue-search.rebuild-interval} each
+ * content type is rebuilt whole, which picks up changes no event announces: a renamed category, an
+ * instructor name copied from a renamed user by trigger, or a row written on another path straight to
+ * the database.
+ */
+@Component
+class CatalogueSearchSynchronizer extends ContentIndexSynchronizer<CatalogueContentType> {
+
+    private final CatalogueSearchIndexer indexer;
+
+    CatalogueSearchSynchronizer(CatalogueSearchIndexer indexer) {
+        super(CatalogueContentType.class, "catalogue search documents");
+        this.indexer = indexer;
+    }
+
+    @EventListener
+    void onContentChanged(CatalogueContentChangedEvent event) {
+        changed(event.contentType(), event.contentUuid());
+    }
+
+    @EventListener
+    void onClassDefined(ClassDefinedEventDTO event) {
+        changed(CatalogueContentType.CLASS_DEFINITION, event.definitionUuid());
+    }
+
+    @EventListener
+    void onClassDefinitionUpdated(ClassDefinitionUpdatedEventDTO event) {
+        changed(CatalogueContentType.CLASS_DEFINITION, event.definitionUuid());
+    }
+
+    @EventListener
+    void onClassDefinitionDeactivated(ClassDefinitionDeactivatedEventDTO event) {
+        changed(CatalogueContentType.CLASS_DEFINITION, event.definitionUuid());
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.catalogue-search.rebuild-interval:PT6H}",
+            fixedDelayString = "${app.catalogue-search.rebuild-interval:PT6H}")
+    void scheduledRebuild() {
+        rebuildAll();
+    }
+
+    @Override
+    protected void refresh(CatalogueContentType contentType, Set<UUID> contentUuids) {
+        indexer.refresh(contentType, contentUuids);
+    }
+
+    @Override
+    protected void rebuild(CatalogueContentType contentType) {
+        indexer.rebuild(contentType);
+    }
+}
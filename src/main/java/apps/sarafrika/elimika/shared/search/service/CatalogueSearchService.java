@@ -0,0 +1,109 @@
+package apps.sarafrika.elimika.shared.search.service;
+
+import apps.sarafrika.elimika.shared.enums.CatalogueContentType;
+import apps.sarafrika.elimika.shared.search.dto.CatalogueSearchHitDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ranked search over the catalogue search index: published courses and training programs, public
+ * classes and instructor profiles.
+ * <p>
+ * Every word of the query must prefix-match a word of the title, category names or description, so
+ * {@code "intro pyth"} finds "Introduction to Python". Titles are also matched by trigram word
+ * similarity, which tolerates a missing or wrong letter ({@code "pyton"}). Hits are ordered by
+ * full-text rank, where a title match outweighs a category match and a category match outweighs a
+ * description match, plus the title's similarity to the query. Both matches are served by GIN indexes, so the cost of a
+ * search follows the number of hits rather than the size of the catalogue.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogueSearchService {
+
+    /** Longer queries are cut to their first words; nobody types a paragraph into a search box. */
+    static final int MAX_QUERY_WORDS = 8;
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private static final String SEARCH_SQL = """
+            SELECT d.content_type, d.content_uuid, d.title, d.category_text, left(d.description, 280) AS summary,
+                   ts_rank_cd(d.document, q.query, 1) + word_similarity(?, d.title) AS score,
+                   COUNT(*) OVER () AS total
+            FROM catalogue_search_documents d,
+                 to_tsquery('simple', ?) AS q(query)
+            WHERE (d.document @@ q.query OR ? <% d.title)
+              AND d.content_type = ANY(?)
+            ORDER BY score DESC, d.title, d.content_uuid
+            LIMIT ? OFFSET ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param query        free text as typed; punctuation is ignored
+     * @param contentTypes the kinds of content to search, or empty for all
+     * @param pageable     page and size; any sort is ignored in favour of relevance
+     */
+    public Page<CatalogueSearchHitDTO> search(String query, Collection<CatalogueContentType> contentTypes,
+                                              Pageable pageable) {
+        List<String> words = words(query);
+        if (words.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        String text = String.join(" ", words);
+        String prefixQuery = String.join(" & ", words.stream().map(word -> word + ":*").toList());
+        String[] types = (contentTypes == null || contentTypes.isEmpty()
+                ? EnumSet.allOf(CatalogueContentType.class)
+                : EnumSet.copyOf(contentTypes)).stream().map(Enum::name).toArray(String[]::new);
+
+        List<CatalogueSearchHitDTO> hits = new ArrayList<>();
+        long[] total = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SEARCH_SQL);
+            statement.setString(1, text);
+            statement.setString(2, prefixQuery);
+            statement.setString(3, text);
+            statement.setArray(4, connection.createArrayOf("varchar", types));
+            statement.setInt(5, pageable.getPageSize());
+            statement.setLong(6, pageable.getOffset());
+            return statement;
+        }, rs -> {
+            total[0] = rs.getLong("total");
+            hits.add(new CatalogueSearchHitDTO(
+                    CatalogueContentType.valueOf(rs.getString("content_type")),
+                    rs.getObject("content_uuid", UUID.class),
+                    rs.getString("title"),
+                    rs.getString("category_text"),
+                    rs.getString("summary"),
+                    rs.getDouble("score")));
+        });
+        return new PageImpl<>(hits, pageable, total[0]);
+    }
+
+    /** Lower-cased words of the query; tsquery operators and other punctuation never reach the database. */
+    static List<String> words(String query) {
+        List<String> words = new ArrayList<>();
+        if (query == null) {
+            return words;
+        }
+        Matcher matcher = WORD.matcher(query.toLowerCase(Locale.ROOT));
+        while (matcher.find() && words.size() < MAX_QUERY_WORDS) {
+            words.add(matcher.group());
+        }
+        return words;
+    }
+}
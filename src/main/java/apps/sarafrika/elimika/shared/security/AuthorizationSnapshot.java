@@ -0,0 +1,54 @@
+package apps.sarafrika.elimika.shared.security;
+
+import apps.sarafrika.elimika.shared.utils.enums.UserDomain;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Everything {@link DomainSecurityService} needs to know about one user to answer its predicates,
+ * loaded together and held by {@link AuthorizationSnapshotCache}.
+ *
+ * @param userUuid              the user the snapshot describes
+ * @param globalDomains         platform-level domains ({@code user_domain_mapping})
+ * @param organisationDomains   active domains per organisation, keyed by organisation UUID
+ * @param memberOrganisations   every organisation the user has a mapping with, active or not - the
+ *                              same set {@code UserLookupService.getUserOrganizations} returns
+ * @param effectiveDomains      global domains plus every active organisation-scoped domain
+ * @param studentUuid           the user's student profile, or {@code null}
+ * @param instructorUuid        the user's instructor profile, or {@code null}
+ */
+public record AuthorizationSnapshot(
+        UUID userUuid,
+        Set<UserDomain> globalDomains,
+        Map<UUID, Set<UserDomain>> organisationDomains,
+        Set<UUID> memberOrganisations,
+        Set<UserDomain> effectiveDomains,
+        UUID studentUuid,
+        UUID instructorUuid
+) {
+
+    public AuthorizationSnapshot {
+        globalDomains = globalDomains.isEmpty()
+                ? Collections.unmodifiableSet(EnumSet.noneOf(UserDomain.class))
+                : Collections.unmodifiableSet(EnumSet.copyOf(globalDomains));
+        organisationDomains = organisationDomains.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> Set.copyOf(entry.getValue())));
+        memberOrganisations = Set.copyOf(memberOrganisations);
+        effectiveDomains = effectiveDomains.isEmpty()
+                ? Collections.unmodifiableSet(EnumSet.noneOf(UserDomain.class))
+                : Collections.unmodifiableSet(EnumSet.copyOf(effectiveDomains));
+    }
+
+    /**
+     * True when the user holds {@code domain} in the given organisation through an active mapping.
+     */
+    public boolean holdsInOrganisation(UUID organisationUuid, UserDomain domain) {
+        Set<UserDomain> domains = organisationDomains.get(organisationUuid);
+        return domains != null && domains.contains(domain);
+    }
+}
@@ -0,0 +1,209 @@
+package apps.sarafrika.elimika.shared.security;
+
+import apps.sarafrika.elimika.instructor.spi.InstructorLookupService;
+import apps.sarafrika.elimika.shared.event.role.AssignRoleToUserEvent;
+import apps.sarafrika.elimika.shared.event.user.LogoutUserOnRoleUpdate;
+import apps.sarafrika.elimika.shared.event.user.SuccessfulUserUpdateEvent;
+import apps.sarafrika.elimika.shared.event.user.UserAuthorizationChangedEvent;
+import apps.sarafrika.elimika.shared.event.user.UserDomainMappingEvent;
+import apps.sarafrika.elimika.shared.event.user.UserDomainRemovedEvent;
+import apps.sarafrika.elimika.shared.utils.cache.ExpiringCache;
+import apps.sarafrika.elimika.shared.utils.enums.UserDomain;
+import apps.sarafrika.elimika.student.spi.StudentLookupService;
+import apps.sarafrika.elimika.tenancy.spi.UserLookupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Second-level cache behind {@link RequestScopedCache}: holds one {@link AuthorizationSnapshot} per
+ * user across requests, so a guarded endpoint stops re-querying the caller's domains, organisation
+ * roles and profiles on every call.
+ * <p>
+ * The request cache's guarantee - no revoked role is ever honoured - is kept by invalidation rather
+ * than by scope. Every change that can alter an answer evicts the affected user:
+ * <ul>
+ *     <li>{@link UserAuthorizationChangedEvent}, published by tenancy whenever a global or
+ *     organisation-scoped domain mapping is written or removed;</li>
+ *     <li>{@link UserDomainMappingEvent} / {@link UserDomainRemovedEvent}, which also mark a student
+ *     or instructor profile appearing or going away;</li>
+ *     <li>{@link AssignRoleToUserEvent} and {@link SuccessfulUserUpdateEvent} from the Keycloak side;</li>
+ *     <li>{@link LogoutUserOnRoleUpdate}, which carries no user and so clears everything.</li>
+ * </ul>
+ * An eviction is applied immediately and again once the surrounding transaction commits, so a
+ * request that reloads between the two cannot re-cache the pre-commit state. Loads that straddle an
+ * eviction are discarded rather than cached. The short hard {@code ttl} is the safety net for any
+ * write that slips past all of the above.
+ */
+@Component
+@Slf4j
+public class AuthorizationSnapshotCache {
+
+    private final UserLookupService userLookupService;
+    private final StudentLookupService studentLookupService;
+    private final InstructorLookupService instructorLookupService;
+    private final ExpiringCache<UUID, AuthorizationSnapshot> snapshots;
+    private final ExpiringCache<String, UUID> userUuidsBySubject;
+    /** Bumped on every eviction; a load that sees it move is not cached. */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public AuthorizationSnapshotCache(
+            UserLookupService userLookupService,
+            StudentLookupService studentLookupService,
+            InstructorLookupService instructorLookupService,
+            @Value("${app.security.authorization-cache.max-size:50000}") int maxSize,
+            @Value("${app.security.authorization-cache.ttl:PT60S}") Duration ttl) {
+        this.userLookupService = userLookupService;
+        this.studentLookupService = studentLookupService;
+        this.instructorLookupService = instructorLookupService;
+        this.snapshots = new ExpiringCache<>(maxSize, ttl);
+        this.userUuidsBySubject = new ExpiringCache<>(maxSize, ttl);
+    }
+
+    /**
+     * Resolves the local user UUID for a Keycloak subject, or {@code null} when there is none.
+     * The mapping never changes for a live user, so only positive answers are cached.
+     */
+    public UUID userUuidForSubject(String keycloakId) {
+        UUID cached = userUuidsBySubject.get(keycloakId);
+        if (cached != null) {
+            return cached;
+        }
+        UUID userUuid = userLookupService.findUserUuidByKeycloakId(keycloakId).orElse(null);
+        userUuidsBySubject.put(keycloakId, userUuid);
+        return userUuid;
+    }
+
+    /**
+     * Returns the user's snapshot, loading it if absent, expired or evicted.
+     */
+    public AuthorizationSnapshot snapshotFor(UUID userUuid) {
+        AuthorizationSnapshot cached = snapshots.get(userUuid);
+        if (cached != null) {
+            return cached;
+        }
+        long before = invalidations.get();
+        AuthorizationSnapshot snapshot = load(userUuid);
+        if (invalidations.get() == before) {
+            snapshots.put(userUuid, snapshot);
+        } else {
+            log.debug("Authorization snapshot for {} raced an invalidation; not caching it", userUuid);
+        }
+        return snapshot;
+    }
+
+    public void evict(UUID userUuid) {
+        if (userUuid == null) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        snapshots.invalidate(userUuid);
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            snapshots.invalidate(userUuid);
+        });
+    }
+
+    public void evictAll() {
+        invalidations.incrementAndGet();
+        snapshots.invalidateAll();
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            snapshots.invalidateAll();
+        });
+    }
+
+    @EventListener
+    void onAuthorizationChanged(UserAuthorizationChangedEvent event) {
+        evict(event.userUuid());
+    }
+
+    @EventListener
+    void onDomainAssigned(UserDomainMappingEvent event) {
+        evict(event.userUuid());
+    }
+
+    @EventListener
+    void onDomainRemoved(UserDomainRemovedEvent event) {
+        evict(event.userUuid());
+    }
+
+    @EventListener
+    void onKeycloakRoleAssigned(AssignRoleToUserEvent event) {
+        if (event.userKeyCloakId() != null) {
+            evictSubject(event.userKeyCloakId().toString());
+        }
+    }
+
+    @EventListener
+    void onUserUpdated(SuccessfulUserUpdateEvent event) {
+        evictSubject(event.keyCloakId());
+    }
+
+    @EventListener
+    void onLogoutOnRoleUpdate(LogoutUserOnRoleUpdate event) {
+        evictAll();
+    }
+
+    private void evictSubject(String keycloakId) {
+        if (keycloakId == null) {
+            return;
+        }
+        UUID userUuid = userUuidsBySubject.get(keycloakId);
+        if (userUuid != null) {
+            evict(userUuid);
+        }
+    }
+
+    private AuthorizationSnapshot load(UUID userUuid) {
+        Set<UserDomain> globalDomains = EnumSet.noneOf(UserDomain.class);
+        globalDomains.addAll(userLookupService.getUserDomains(userUuid));
+
+        Map<UUID, Set<UserDomain>> organisationDomains = userLookupService.getActiveOrganisationDomains(userUuid)
+                .entrySet().stream()
+                .filter(entry -> entry.getKey() != null)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        Set<UUID> memberOrganisations = userLookupService.getUserOrganizations(userUuid).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Set<UserDomain> effectiveDomains = EnumSet.noneOf(UserDomain.class);
+        effectiveDomains.addAll(globalDomains);
+        organisationDomains.values().forEach(effectiveDomains::addAll);
+
+        return new AuthorizationSnapshot(
+                userUuid,
+                globalDomains,
+                organisationDomains,
+                memberOrganisations,
+                effectiveDomains,
+                studentLookupService.findStudentUuidByUserUuid(userUuid).orElse(null),
+                instructorLookupService.findInstructorUuidByUserUuid(userUuid).orElse(null)
+        );
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
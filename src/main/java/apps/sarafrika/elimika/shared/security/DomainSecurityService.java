@@ -1,9 +1,6 @@
 package apps.sarafrika.elimika.shared.security;
 
-import apps.sarafrika.elimika.instructor.spi.InstructorLookupService;
 import apps.sarafrika.elimika.shared.utils.enums.UserDomain;
-import apps.sarafrika.elimika.student.spi.StudentLookupService;
-import apps.sarafrika.elimika.tenancy.spi.UserLookupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
@@ -12,7 +9,6 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -21,6 +17,10 @@ import java.util.UUID;
  * Replaces role-based authorization with domain-based checks.
  * <p>
  * Refactored to use Spring Modulith SPIs instead of direct repository access.
+ * <p>
+ * Answers about the caller come from their {@link AuthorizationSnapshot}, which
+ * {@link AuthorizationSnapshotCache} keeps across requests and evicts on every role or domain
+ * change; {@link RequestScopedCache} still memoises within a request on top of it.
  */
 @Service("domainSecurityService")
 @RequiredArgsConstructor
@@ -28,14 +28,11 @@ import java.util.UUID;
 public class DomainSecurityService {
 
     private static final String CACHE_USER_UUID = "security.userUuid";
-    private static final String CACHE_STUDENT_UUID = "security.studentUuid";
-    private static final String CACHE_DOMAINS = "security.domains";
+    private static final String CACHE_SNAPSHOT = "security.snapshot";
     private static final String CACHE_ADMINISTERS_USER_PREFIX = "security.administersUser.";
 
-    private final UserLookupService userLookupService;
-    private final StudentLookupService studentLookupService;
-    private final InstructorLookupService instructorLookupService;
     private final RequestScopedCache requestScopedCache;
+    private final AuthorizationSnapshotCache authorizationSnapshotCache;
 
     /**
      * Checks if the currently authenticated user is a student.
@@ -67,8 +64,8 @@ public class DomainSecurityService {
      */
     public boolean isPlatformAdmin() {
         try {
-            UUID currentUserUuid = getCurrentUserUuid();
-            return currentUserUuid != null && userLookupService.userHasGlobalDomain(currentUserUuid, UserDomain.admin);
+            AuthorizationSnapshot snapshot = currentSnapshot();
+            return snapshot != null && snapshot.globalDomains().contains(UserDomain.admin);
         } catch (Exception e) {
             log.error("Error checking platform admin status", e);
             return false;
@@ -87,8 +84,8 @@ public class DomainSecurityService {
      * <p>
      * Lives here rather than beside the tenancy predicates because the modules that need it — the
      * wallet in particular — are only permitted to depend on {@code shared}. Fails closed, and is
-     * memoised per request and per target because the answer costs a query per organisation the
-     * target belongs to.
+     * answered from the caller's and the target's snapshots: the caller's per-organisation domains
+     * against the target's organisations, with no query per organisation.
      *
      * @param targetUserUuid the user being acted on
      */
@@ -98,13 +95,12 @@ public class DomainSecurityService {
         }
         return requestScopedCache.get(CACHE_ADMINISTERS_USER_PREFIX + targetUserUuid, () -> {
             try {
-                UUID callerUuid = getCurrentUserUuid();
-                if (callerUuid == null) {
+                AuthorizationSnapshot caller = currentSnapshot();
+                if (caller == null) {
                     return false;
                 }
-                return userLookupService.getUserOrganizations(targetUserUuid).stream()
-                        .anyMatch(organisationUuid -> userLookupService.userBelongsToOrganizationWithDomain(
-                                callerUuid, organisationUuid, UserDomain.admin));
+                return authorizationSnapshotCache.snapshotFor(targetUserUuid).memberOrganisations().stream()
+                        .anyMatch(organisationUuid -> caller.holdsInOrganisation(organisationUuid, UserDomain.admin));
             } catch (Exception e) {
                 log.error("Error checking administrative reach over user {}", targetUserUuid, e);
                 return false;
@@ -146,24 +142,38 @@ public class DomainSecurityService {
     }
 
     /**
-     * The current caller's effective domains, loaded once per request.
+     * The current caller's effective domains, read from their authorization snapshot.
      * <p>
      * Every {@code @PreAuthorize} on a request funnels through here, so this is the hottest path in
-     * the authorization layer. Resolving it once and answering from a set keeps a guarded endpoint
-     * at a constant cost no matter how many domains its expression tests.
+     * the authorization layer. Answering from a cached set keeps a guarded endpoint at a constant
+     * cost no matter how many domains its expression tests, and at no query at all once the
+     * caller's snapshot is warm.
      */
     private Set<UserDomain> currentUserDomains() {
-        return requestScopedCache.get(CACHE_DOMAINS, () -> {
+        AuthorizationSnapshot snapshot = currentSnapshot();
+        if (snapshot == null) {
+            log.debug("No authenticated user found");
+            return Set.of();
+        }
+        return snapshot.effectiveDomains();
+    }
+
+    /**
+     * The caller's authorization snapshot, or {@code null} when nobody is authenticated or the
+     * snapshot cannot be loaded. Resolved once per request; every predicate that fails closed on
+     * {@code null} therefore also fails closed when the lookup does.
+     */
+    private AuthorizationSnapshot currentSnapshot() {
+        return requestScopedCache.get(CACHE_SNAPSHOT, () -> {
             try {
                 UUID currentUserUuid = getCurrentUserUuid();
                 if (currentUserUuid == null) {
-                    log.debug("No authenticated user found");
-                    return Set.<UserDomain>of();
+                    return null;
                 }
-                return userLookupService.getEffectiveUserDomains(currentUserUuid);
+                return authorizationSnapshotCache.snapshotFor(currentUserUuid);
             } catch (Exception e) {
-                log.error("Error loading user domains", e);
-                return Set.<UserDomain>of();
+                log.error("Error loading authorization snapshot", e);
+                return null;
             }
         });
     }
@@ -189,17 +199,12 @@ public class DomainSecurityService {
      */
     public boolean isInstructorWithUuid(UUID instructorUuid) {
         try {
-            UUID currentUserUuid = getCurrentUserUuid();
-            if (currentUserUuid == null) {
-                return false;
-            }
-
-            UUID instructorUserUuid = instructorLookupService.findInstructorUuidByUserUuid(currentUserUuid).orElse(null);
-            if (instructorUserUuid == null) {
+            AuthorizationSnapshot snapshot = currentSnapshot();
+            if (snapshot == null || snapshot.instructorUuid() == null) {
                 return false;
             }
 
-            return instructorUserUuid.equals(instructorUuid);
+            return snapshot.instructorUuid().equals(instructorUuid);
         } catch (Exception e) {
             log.error("Error checking instructor identity for instructorUuid: {}", instructorUuid, e);
             return false;
@@ -211,17 +216,12 @@ public class DomainSecurityService {
      */
     public boolean isStudentWithUuid(UUID studentUuid) {
         try {
-            UUID currentUserUuid = getCurrentUserUuid();
-            if (currentUserUuid == null) {
+            AuthorizationSnapshot snapshot = currentSnapshot();
+            if (snapshot == null || snapshot.studentUuid() == null) {
                 return false;
             }
 
-            UUID studentUserUuid = studentLookupService.findStudentUuidByUserUuid(currentUserUuid).orElse(null);
-            if (studentUserUuid == null) {
-                return false;
-            }
-
-            return studentUserUuid.equals(studentUuid);
+            return snapshot.studentUuid().equals(studentUuid);
         } catch (Exception e) {
             log.error("Error checking student identity for studentUuid: {}", studentUuid, e);
             return false;
@@ -244,7 +244,7 @@ public class DomainSecurityService {
             return;
         }
 
-        if (isAdminWithAdditionalDomains(currentUserUuid)) {
+        if (isAdminWithAdditionalDomains(currentSnapshot())) {
             throw new AccessDeniedException(
                     String.format("Admins with multiple domains cannot approve their own %s profile.", profileLabel)
             );
@@ -262,11 +262,12 @@ public class DomainSecurityService {
             return;
         }
 
-        if (!isAdminWithAdditionalDomains(currentUserUuid)) {
+        AuthorizationSnapshot snapshot = currentSnapshot();
+        if (!isAdminWithAdditionalDomains(snapshot)) {
             return;
         }
 
-        if (userLookupService.userBelongsToOrganization(currentUserUuid, organisationUuid)) {
+        if (snapshot.memberOrganisations().contains(organisationUuid)) {
             throw new AccessDeniedException(
                     "Admins with multiple domains cannot approve organisations they belong to."
             );
@@ -279,18 +280,8 @@ public class DomainSecurityService {
      * records to the caller rather than trusting a client-supplied student identifier.
      */
     public UUID getCurrentStudentUuid() {
-        return requestScopedCache.get(CACHE_STUDENT_UUID, () -> {
-            try {
-                UUID currentUserUuid = getCurrentUserUuid();
-                if (currentUserUuid == null) {
-                    return null;
-                }
-                return studentLookupService.findStudentUuidByUserUuid(currentUserUuid).orElse(null);
-            } catch (Exception e) {
-                log.error("Error resolving current student UUID", e);
-                return null;
-            }
-        });
+        AuthorizationSnapshot snapshot = currentSnapshot();
+        return snapshot == null ? null : snapshot.studentUuid();
     }
 
     /**
@@ -310,7 +301,7 @@ public class DomainSecurityService {
                     return null;
                 }
 
-                return userLookupService.findUserUuidByKeycloakId(keycloakId).orElse(null);
+                return authorizationSnapshotCache.userUuidForSubject(keycloakId);
             } catch (Exception e) {
                 log.error("Error getting current user UUID", e);
                 return null;
@@ -318,11 +309,12 @@ public class DomainSecurityService {
         });
     }
 
-    private boolean isAdminWithAdditionalDomains(UUID userUuid) {
-        List<UserDomain> domains = userLookupService.getUserDomains(userUuid);
-        boolean hasAdminDomain = domains.stream().anyMatch(UserDomain.admin::equals);
-        boolean hasOtherDomains = domains.stream().anyMatch(domain -> domain != UserDomain.admin);
-        return hasAdminDomain && hasOtherDomains;
+    private boolean isAdminWithAdditionalDomains(AuthorizationSnapshot snapshot) {
+        if (snapshot == null) {
+            return false;
+        }
+        Set<UserDomain> domains = snapshot.globalDomains();
+        return domains.contains(UserDomain.admin) && domains.size() > 1;
     }
 
     /**
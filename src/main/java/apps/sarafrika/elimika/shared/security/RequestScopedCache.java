@@ -17,9 +17,10 @@ import java.util.function.Supplier;
  * user's domains once per domain tested, and a page that fans out to twenty of them multiplies that
  * again. Caching per request collapses all of it to one load.
  * <p>
- * Scoped to the request rather than to a TTL cache on purpose: an authorization decision must never
- * outlive the request that asked for it, so there is no window in which a revoked role is still
- * honoured.
+ * Scoped to the request on purpose: a decision computed here never outlives the request that asked
+ * for it. The data behind those decisions is cached across requests one level down, by
+ * {@link AuthorizationSnapshotCache}, which is evicted on every role or domain change so that a
+ * revoked role is still never honoured.
  * <p>
  * Outside a request — schedulers, event listeners, async work — this degrades to computing the value
  * directly. Correctness never depends on the cache being present.
@@ -0,0 +1,102 @@
+package apps.sarafrika.elimika.shared.security;
+
+import apps.sarafrika.elimika.shared.utils.cache.ExpiringCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which Keycloak subjects are already present in the local {@code users} table, so
+ * {@link UserSyncFilter} does not open a transaction and run an existence query on every
+ * authenticated request.
+ * <p>
+ * Only positive answers are cached. A subject that is not in the cache always goes through the full
+ * sync, so a user created moments ago is never mistaken for a missing one, and a failed sync is
+ * retried by the next request rather than remembered. Entries expire after {@code ttl} as a bound
+ * on how long a deleted user's subject is still treated as synced.
+ * <p>
+ * Concurrent first requests for the same subject are collapsed: the first caller runs the sync and
+ * the rest wait on its outcome. A new user whose client fires a dozen parallel calls on sign-in
+ * therefore costs one Keycloak lookup, not a dozen racing inserts.
+ * <p>
+ * Publishes {@code elimika.user.sync.cache} (tagged {@code result=hit|miss}) and
+ * {@code elimika.user.sync.cache.size}.
+ */
+@Component
+@Slf4j
+public class SyncedUserCache {
+
+    private final ExpiringCache<String, Boolean> syncedSubjects;
+    private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public SyncedUserCache(
+            @Value("${app.user-sync.cache.max-size:100000}") int maxSize,
+            @Value("${app.user-sync.cache.ttl:PT6H}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.syncedSubjects = new ExpiringCache<>(maxSize, ttl);
+        this.hits = Counter.builder("elimika.user.sync.cache")
+                .tag("result", "hit")
+                .description("User sync checks answered from the synced-subject cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("elimika.user.sync.cache")
+                .tag("result", "miss")
+                .description("User sync checks that went to the database")
+                .register(meterRegistry);
+        Gauge.builder("elimika.user.sync.cache.size", syncedSubjects, ExpiringCache::size)
+                .description("Keycloak subjects currently cached as synced")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code sync} for {@code keycloakUserId} unless the subject is already known to be synced.
+     * Concurrent callers for the same subject share one execution of {@code sync}; if it fails, every
+     * waiting caller sees the failure and nothing is cached.
+     */
+    public void ensureSynced(String keycloakUserId, Runnable sync) {
+        if (Boolean.TRUE.equals(syncedSubjects.get(keycloakUserId))) {
+            hits.increment();
+            return;
+        }
+        misses.increment();
+
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> existing = inFlight.putIfAbsent(keycloakUserId, mine);
+        if (existing != null) {
+            log.debug("Waiting on in-flight user sync for Keycloak ID: {}", keycloakUserId);
+            awaitPeer(existing);
+            return;
+        }
+
+        try {
+            sync.run();
+            syncedSubjects.put(keycloakUserId, Boolean.TRUE);
+            mine.complete(null);
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(keycloakUserId, mine);
+        }
+    }
+
+    private void awaitPeer(CompletableFuture<Void> peer) {
+        try {
+            peer.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -22,6 +22,9 @@ import java.io.IOException;
  * This filter intercepts authenticated requests and synchronizes user data from Keycloak
  * to the local database if the user doesn't exist locally.
  *
+ * <p>Subjects that have already been synced are remembered by {@link SyncedUserCache}, so the
+ * steady-state cost of this filter is an in-memory lookup rather than a transaction and a query.</p>
+ *
  * <p>The filter skips processing for certain paths like actuator endpoints, health checks,
  * API documentation, and error pages to avoid unnecessary overhead.</p>
  *
@@ -41,6 +44,7 @@ public class UserSyncFilter implements Filter {
     private String realm;
 
     private final UserManagementService userManagementService;
+    private final SyncedUserCache syncedUserCache;
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -73,7 +77,8 @@ public class UserSyncFilter implements Filter {
 
             if (keycloakUserId != null && !keycloakUserId.trim().isEmpty()) {
                 try {
-                    userManagementService.ensureUserExists(keycloakUserId, realm);
+                    syncedUserCache.ensureSynced(keycloakUserId,
+                            () -> userManagementService.ensureUserExists(keycloakUserId, realm));
                 } catch (Exception e) {
                     log.error("Critical error in user sync filter for user ID: {}", keycloakUserId, e);
                     // Continue to avoid blocking legitimate requests
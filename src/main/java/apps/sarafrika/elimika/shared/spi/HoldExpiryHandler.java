@@ -0,0 +1,34 @@
+package apps.sarafrika.elimika.shared.spi;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Cross-module contract for one kind of time-limited hold — an unpaid booking, a seat held through
+ * checkout — so a single scheduler can lapse every kind the moment it expires.
+ * <p>
+ * Implementations live in the module that owns the hold and must be safe to call at any time and
+ * any number of times: the scheduler calls {@link #expireHoldsDueBy} whenever a deadline it knows
+ * of passes, and again on a slow safety-net sweep, so a call that finds nothing due is normal.
+ */
+public interface HoldExpiryHandler {
+
+    /**
+     * Names the kind of hold, matching {@code HoldPlacedEvent#holdType()} for holds of this kind.
+     */
+    String holdType();
+
+    /**
+     * The earliest expiry among holds of this kind that are still held, or empty when there are none.
+     * Times are UTC, as stored.
+     */
+    Optional<LocalDateTime> findNextExpiry();
+
+    /**
+     * Lapses every hold of this kind that is still held and expires at or before {@code cutoff}, in
+     * as few statements as the owning module can manage.
+     *
+     * @return how many holds were lapsed
+     */
+    int expireHoldsDueBy(LocalDateTime cutoff);
+}
@@ -23,6 +23,7 @@ public record CommerceRevenueLineItem(
         PurchaseScope scope,
         UUID courseUuid,
         UUID classDefinitionUuid,
+        UUID studentUuid,
         BigDecimal itemPlatformFeeAmount,
         BigDecimal creditedAmount
 ) {
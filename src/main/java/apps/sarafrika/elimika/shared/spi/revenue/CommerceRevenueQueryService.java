@@ -5,6 +5,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CommerceRevenueQueryService {
@@ -64,6 +65,11 @@ public interface CommerceRevenueQueryService {
             Pageable pageable
     );
 
+    /**
+     * When the oldest captured order was placed, or empty when nothing has been captured yet.
+     */
+    Optional<OffsetDateTime> findEarliestCapturedOrderCreatedAt();
+
     List<CommercePlatformFeeSummary> summarizePlatformFees(OffsetDateTime startDate, OffsetDateTime endDate);
 
     boolean orderBelongsToCourseUuids(String orderId, List<UUID> courseUuids);
@@ -0,0 +1,168 @@
+package apps.sarafrika.elimika.shared.storage.service;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A contiguous byte range of a stored file, served as a resource of its own.
+ * <p>
+ * For a file on disk the bytes are handed to the response with {@link FileChannel#transferTo}, so a
+ * range deep inside a large video is reached by position rather than by reading up to it, and the
+ * copy goes through the channel rather than through a buffer loop of our own. Any other resource is
+ * read from its stream, skipping to the start of the range.
+ */
+class ByteRangeResource extends AbstractResource {
+
+    private final Resource source;
+    private final long position;
+    private final long count;
+
+    ByteRangeResource(Resource source, long position, long count) {
+        this.source = source;
+        this.position = position;
+        this.count = count;
+    }
+
+    /** The whole of {@code source}, which is {@code length} bytes long. */
+    static ByteRangeResource whole(Resource source, long length) {
+        return new ByteRangeResource(source, 0, length);
+    }
+
+    @Override
+    public long contentLength() {
+        return count;
+    }
+
+    @Override
+    public boolean exists() {
+        return source.exists();
+    }
+
+    @Override
+    public String getDescription() {
+        return "bytes " + position + "-" + (position + count - 1) + " of " + source.getDescription();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        if (source.isFile()) {
+            return new FileRangeInputStream(source.getFile(), position, count);
+        }
+        InputStream in = source.getInputStream();
+        try {
+            in.skipNBytes(position);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new BoundedInputStream(in, count);
+    }
+
+    /**
+     * Reads one range of a file through its channel. {@link #transferTo} - which the response writer
+     * uses - sends the whole remaining range with {@link FileChannel#transferTo}.
+     */
+    private static final class FileRangeInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+        private long remaining;
+
+        FileRangeInputStream(File file, long position, long count) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            this.position = position;
+            this.remaining = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(buffer, offset, (int) Math.min(length, remaining)), position);
+            if (read > 0) {
+                position += read;
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            WritableByteChannel target = Channels.newChannel(out);
+            long transferred = 0;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    // The file is shorter than the range promised; stop rather than spin.
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+                transferred += sent;
+            }
+            return transferred;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static final class BoundedInputStream extends InputStream {
+
+        private final InputStream in;
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long count) {
+            this.in = in;
+            this.remaining = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int next = in.read();
+            if (next != -1) {
+                remaining--;
+            }
+            return next;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
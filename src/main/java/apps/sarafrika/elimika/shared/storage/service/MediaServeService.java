@@ -1,23 +1,78 @@
 package apps.sarafrika.elimika.shared.storage.service;
 
+import apps.sarafrika.elimika.shared.storage.model.MediaFile;
+import apps.sarafrika.elimika.shared.storage.repository.MediaFileRepository;
 import apps.sarafrika.elimika.shared.storage.util.StoragePathUtils;
-import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
 
 /**
  * Shared implementation behind every file-serving endpoint. The unified
  * {@code GET /api/v1/files/{*key}} endpoint and all legacy per-module media
  * endpoints delegate here so headers and error handling stay consistent.
+ * <p>
+ * Stored files are immutable (UUID-named), which makes every response cheap to validate: the strong
+ * {@code ETag} is derived from the storage key and size alone, and a client that already holds the
+ * file gets a {@code 304} from {@code If-None-Match} or {@code If-Modified-Since} without any body.
+ * Single and multiple byte ranges are answered with {@code 206} (multiple as
+ * {@code multipart/byteranges}), honouring {@code If-Range}, so seeking in a long video fetches only
+ * what is watched.
+ * <p>
+ * Size, content type and modification time come from the {@code media_files} registry and are then
+ * kept in a bounded in-memory cache, rather than probing the disk on every hit. A key the registry
+ * does not describe falls back to the file itself, once. File bodies are written through
+ * {@code FileChannel.transferTo}.
  */
 @Service
-@RequiredArgsConstructor
 public class MediaServeService {
 
+    private static final int METADATA_CACHE_SIZE = 10_000;
+    /** More ranges than this in one request are ignored and the whole file is sent instead. */
+    private static final int MAX_RANGES = 16;
+    private static final String CACHE_CONTROL = "max-age=31536000, immutable";
+
     private final StorageService storageService;
+    private final MediaFileRepository mediaFileRepository;
+    private final Map<String, FileMetadata> metadataCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, FileMetadata> eldest) {
+                    return size() > METADATA_CACHE_SIZE;
+                }
+            });
+
+    public MediaServeService(StorageService storageService, MediaFileRepository mediaFileRepository) {
+        this.storageService = storageService;
+        this.mediaFileRepository = mediaFileRepository;
+    }
 
     /**
      * Serves the file for a bare storage key. Stored files are immutable
@@ -36,24 +91,282 @@ public class MediaServeService {
         if (key == null || key.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        if (!storageService.exists(key) && fallbackKey != null) {
+        StoredFile file = open(key);
+        if (file == null && fallbackKey != null) {
             String fallback = StoragePathUtils.normalizeRelativePath(fallbackKey);
-            if (fallback != null && storageService.exists(fallback)) {
-                key = fallback;
+            if (fallback != null && !fallback.isEmpty()) {
+                file = open(fallback);
             }
         }
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return respond(file, currentRequest());
+    }
+
+    private ResponseEntity<Resource> respond(StoredFile file, HttpServletRequest request) {
+        FileMetadata metadata = file.metadata();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(metadata.etag());
+        if (metadata.lastModified() != null) {
+            headers.setLastModified(metadata.lastModified());
+        }
+        headers.set(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (request != null && isNotModified(request, metadata)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + file.fileName() + "\"");
+        String rangeHeader = request != null ? request.getHeader(HttpHeaders.RANGE) : null;
+        if (rangeHeader == null) {
+            return full(file, headers);
+        }
+        if (!rangeStillApplies(request, metadata)) {
+            // The client's partial copy is of something else. Sent as a plain stream so the ranges in
+            // the request are not applied on the way out.
+            return fullIgnoringRange(file, headers);
+        }
+
+        List<long[]> ranges;
         try {
-            Resource resource = storageService.load(key);
-            String contentType = storageService.getContentType(key);
-            String fileName = key.substring(key.lastIndexOf('/') + 1);
+            ranges = satisfiableRanges(HttpRange.parseRanges(rangeHeader), metadata.size());
+        } catch (IllegalArgumentException e) {
+            return notSatisfiable(headers, metadata);
+        }
+        if (ranges == null) {
+            return fullIgnoringRange(file, headers);
+        }
+        if (ranges.isEmpty()) {
+            return notSatisfiable(headers, metadata);
+        }
+
+        if (ranges.size() == 1) {
+            long[] range = ranges.getFirst();
+            headers.set(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range[0] + "-" + range[1] + "/" + metadata.size());
+            headers.setContentLength(range[1] - range[0] + 1);
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .headers(headers)
+                    .contentType(metadata.mediaType())
+                    .body(new ByteRangeResource(file.resource(), range[0], range[1] - range[0] + 1));
+        }
+
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        MultipartByteRangesResource body = new MultipartByteRangesResource(
+                file.resource(), metadata.size(), metadata.mediaType().toString(), ranges, boundary);
+        headers.setContentLength(body.contentLength());
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .headers(headers)
+                .contentType(MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary))
+                .body(body);
+    }
+
+    private ResponseEntity<Resource> full(StoredFile file, HttpHeaders headers) {
+        Resource resource = file.resource();
+        Resource body = resource.isFile() ? ByteRangeResource.whole(resource, file.metadata().size()) : resource;
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(file.metadata().mediaType())
+                .body(body);
+    }
 
+    private ResponseEntity<Resource> fullIgnoringRange(StoredFile file, HttpHeaders headers) {
+        try {
+            headers.setContentLength(file.metadata().size());
+            InputStreamResource body = new InputStreamResource(
+                    ByteRangeResource.whole(file.resource(), file.metadata().size()).getInputStream());
             return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CACHE_CONTROL, "max-age=31536000, immutable")
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
-                    .body(resource);
-        } catch (Exception e) {
+                    .headers(headers)
+                    .contentType(file.metadata().mediaType())
+                    .body(body);
+        } catch (IOException e) {
             return ResponseEntity.notFound().build();
         }
     }
+
+    private static ResponseEntity<Resource> notSatisfiable(HttpHeaders headers, FileMetadata metadata) {
+        headers.remove(HttpHeaders.CONTENT_DISPOSITION);
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + metadata.size());
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+    }
+
+    /**
+     * The requested ranges that overlap the file, clamped to it, sorted and with overlapping or
+     * adjacent ranges merged - so a request cannot make the same bytes go out twice. Empty when none
+     * overlap the file; {@code null} when there are too many to be worth answering piecemeal.
+     */
+    static List<long[]> satisfiableRanges(List<HttpRange> requested, long size) {
+        List<long[]> ranges = new ArrayList<>();
+        for (HttpRange range : requested) {
+            long first;
+            long last;
+            try {
+                first = range.getRangeStart(size);
+                last = range.getRangeEnd(size);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            if (first <= last) {
+                ranges.add(new long[]{first, last});
+            }
+        }
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+        List<long[]> merged = new ArrayList<>();
+        for (long[] range : ranges) {
+            if (!merged.isEmpty() && range[0] <= merged.getLast()[1] + 1) {
+                merged.getLast()[1] = Math.max(merged.getLast()[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged.size() > MAX_RANGES ? null : merged;
+    }
+
+    /**
+     * {@code If-None-Match} wins when present (RFC 9110, section 13.2.2); {@code If-Modified-Since} is
+     * only consulted without it.
+     */
+    private static boolean isNotModified(HttpServletRequest request, FileMetadata metadata) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+                String candidate = tag.trim();
+                if (candidate.equals("*") || weakTag(candidate).equals(metadata.etag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        Instant since = parseHttpDate(request.getHeader(HttpHeaders.IF_MODIFIED_SINCE));
+        return since != null && metadata.lastModified() != null
+                && !metadata.lastModified().truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+    }
+
+    /**
+     * {@code If-Range} holds a validator of the copy the client has part of. Ranges apply only when it
+     * still matches: the same strong entity tag, or exactly the same modification time.
+     */
+    private static boolean rangeStillApplies(HttpServletRequest request, FileMetadata metadata) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        String validator = ifRange.trim();
+        if (validator.startsWith("\"")) {
+            return validator.equals(metadata.etag());
+        }
+        Instant date = parseHttpDate(validator);
+        return date != null && metadata.lastModified() != null
+                && metadata.lastModified().truncatedTo(ChronoUnit.SECONDS).equals(date);
+    }
+
+    private static String weakTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static Instant parseHttpDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The file behind {@code key} with its metadata, or {@code null} when there is none to serve.
+     */
+    private StoredFile open(String key) {
+        FileMetadata metadata = metadataCache.get(key);
+        if (metadata == null) {
+            MediaFile registered = mediaFileRepository.findByFileKey(key).orElse(null);
+            if (registered != null && !registered.isFileExists()) {
+                return null;
+            }
+            metadata = fromRegistry(key, registered);
+        }
+        Resource resource;
+        try {
+            resource = storageService.load(key);
+        } catch (Exception e) {
+            metadataCache.remove(key);
+            return null;
+        }
+        if (metadata == null) {
+            metadata = fromFile(key, resource);
+            if (metadata == null) {
+                return null;
+            }
+        }
+        metadataCache.put(key, metadata);
+        return new StoredFile(key.substring(key.lastIndexOf('/') + 1), resource, metadata);
+    }
+
+    private static FileMetadata fromRegistry(String key, MediaFile registered) {
+        if (registered == null || registered.getSizeBytes() == null || !StringUtils.hasText(registered.getMimeType())) {
+            return null;
+        }
+        MediaType mediaType = parseMediaType(registered.getMimeType());
+        if (mediaType == null) {
+            return null;
+        }
+        Instant lastModified = registered.getCreatedDate() != null
+                ? registered.getCreatedDate().toInstant(ZoneOffset.UTC)
+                : null;
+        return FileMetadata.of(key, registered.getSizeBytes(), mediaType, lastModified);
+    }
+
+    /** For keys the registry does not describe (or describes only in part): asks the file itself. */
+    private FileMetadata fromFile(String key, Resource resource) {
+        long size;
+        try {
+            size = resource.contentLength();
+        } catch (IOException e) {
+            return null;
+        }
+        Instant lastModified;
+        try {
+            lastModified = Instant.ofEpochMilli(resource.lastModified());
+        } catch (IOException e) {
+            lastModified = null;
+        }
+        MediaType mediaType = parseMediaType(storageService.getContentType(key));
+        return FileMetadata.of(key, size, mediaType != null ? mediaType : MediaType.APPLICATION_OCTET_STREAM, lastModified);
+    }
+
+    private static MediaType parseMediaType(String value) {
+        try {
+            return value != null ? MediaType.parseMediaType(value) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet ? servlet.getRequest() : null;
+    }
+
+    private record StoredFile(String fileName, Resource resource, FileMetadata metadata) {
+    }
+
+    /**
+     * What a response needs to know about a stored file without touching it.
+     */
+    record FileMetadata(long size, MediaType mediaType, Instant lastModified, String etag) {
+
+        /**
+         * The entity tag is strong: a key names one immutable file, so key and size pin its bytes.
+         */
+        static FileMetadata of(String key, long size, MediaType mediaType, Instant lastModified) {
+            CRC32 crc = new CRC32();
+            crc.update(key.getBytes(StandardCharsets.UTF_8));
+            String etag = "\"" + Long.toHexString(crc.getValue()) + "-" + Long.toHexString(size) + "\"";
+            return new FileMetadata(size, mediaType, lastModified, etag);
+        }
+    }
 }
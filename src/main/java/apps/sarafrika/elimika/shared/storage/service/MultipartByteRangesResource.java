@@ -0,0 +1,83 @@
+package apps.sarafrika.elimika.shared.storage.service;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Several byte ranges of one stored file as a single {@code multipart/byteranges} body (RFC 9110,
+ * section 14.6).
+ * <p>
+ * The length is known up front, so the response carries a {@code Content-Length} like any other.
+ * The parts are streamed one after the other, each from its own {@link ByteRangeResource}, so every
+ * range still goes out through {@code FileChannel.transferTo}.
+ */
+class MultipartByteRangesResource extends AbstractResource {
+
+    private final List<Part> parts = new ArrayList<>();
+    private final byte[] closingDelimiter;
+    private final long contentLength;
+
+    /**
+     * @param ranges inclusive {@code [first, last]} byte positions, in the order they are to be sent
+     */
+    MultipartByteRangesResource(Resource source, long length, String contentType, List<long[]> ranges, String boundary) {
+        long total = 0;
+        for (long[] range : ranges) {
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                    + "Content-Type: " + contentType + "\r\n"
+                    + "Content-Range: bytes " + range[0] + "-" + range[1] + "/" + length + "\r\n"
+                    + "\r\n").getBytes(StandardCharsets.US_ASCII);
+            ByteRangeResource body = new ByteRangeResource(source, range[0], range[1] - range[0] + 1);
+            parts.add(new Part(header, body));
+            total += header.length + body.contentLength();
+        }
+        this.closingDelimiter = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        this.contentLength = total + closingDelimiter.length;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return "multipart/byteranges of " + parts.size() + " ranges";
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        List<InputStream> streams = new ArrayList<>();
+        try {
+            for (Part part : parts) {
+                streams.add(new ByteArrayInputStream(part.header()));
+                streams.add(part.body().getInputStream());
+            }
+        } catch (IOException e) {
+            for (InputStream opened : streams) {
+                opened.close();
+            }
+            throw e;
+        }
+        streams.add(new ByteArrayInputStream(closingDelimiter));
+        // SequenceInputStream hands transferTo on to each part, so the file ranges keep their channel copy.
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    private record Part(byte[] header, ByteRangeResource body) {
+    }
+}
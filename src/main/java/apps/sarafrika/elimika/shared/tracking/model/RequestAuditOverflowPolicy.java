@@ -0,0 +1,18 @@
+package apps.sarafrika.elimika.shared.tracking.model;
+
+/**
+ * What the request thread does when the audit buffer is full.
+ */
+public enum RequestAuditOverflowPolicy {
+
+    /**
+     * Discard the record and count it. The request never waits on auditing.
+     */
+    DROP,
+
+    /**
+     * Wait up to the configured block timeout for the writer to make room, then drop and count.
+     * Trades request latency for audit completeness during bursts.
+     */
+    BLOCK
+}
@@ -0,0 +1,30 @@
+package apps.sarafrika.elimika.shared.tracking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Everything about one inbound request that can be read off the servlet request and the security
+ * context without touching the database.
+ * <p>
+ * Captured on the request thread and handed to the audit buffer as-is; the user profile fields of
+ * {@code request_audit_log} (uuid, email, name, domains) are resolved later from {@code keycloakId}
+ * by the background writer, once per distinct subject per batch.
+ */
+public record RequestAuditRecord(
+        String requestId,
+        String httpMethod,
+        String requestUri,
+        String queryString,
+        String ipAddress,
+        String remoteHost,
+        String userAgent,
+        String referer,
+        String sessionId,
+        String headerSnapshot,
+        int responseStatus,
+        long processingTimeMs,
+        String authenticationName,
+        String keycloakId,
+        LocalDateTime capturedAt
+) {
+}
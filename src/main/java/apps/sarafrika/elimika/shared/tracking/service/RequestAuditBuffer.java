@@ -0,0 +1,103 @@
+package apps.sarafrika.elimika.shared.tracking.service;
+
+import apps.sarafrika.elimika.shared.tracking.model.RequestAuditOverflowPolicy;
+import apps.sarafrika.elimika.shared.tracking.model.RequestAuditRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded hand-off between the request threads that capture audit records and the single writer
+ * that persists them.
+ * <p>
+ * The queue is a fixed-size array ring, so memory is capped no matter how far the writer falls
+ * behind. What happens when it is full is a deployment choice ({@link RequestAuditOverflowPolicy}):
+ * by default the record is dropped and counted, because an audit trail with a visible gap is a
+ * better outcome than an API that slows down to wait for it.
+ * <p>
+ * Publishes {@code elimika.request.audit.queue.depth} and {@code elimika.request.audit.dropped} so
+ * a writer that cannot keep up shows on a dashboard rather than in a support ticket.
+ */
+@Component
+@Slf4j
+public class RequestAuditBuffer {
+
+    private final BlockingQueue<RequestAuditRecord> queue;
+    private final RequestAuditOverflowPolicy overflowPolicy;
+    private final Duration blockTimeout;
+    private final Counter droppedCounter;
+
+    public RequestAuditBuffer(
+            @Value("${app.request-audit.capacity:10000}") int capacity,
+            @Value("${app.request-audit.overflow-policy:DROP}") RequestAuditOverflowPolicy overflowPolicy,
+            @Value("${app.request-audit.block-timeout:PT0.5S}") Duration blockTimeout,
+            MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.droppedCounter = Counter.builder("elimika.request.audit.dropped")
+                .description("Request audit records discarded because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("elimika.request.audit.queue.depth", queue, BlockingQueue::size)
+                .description("Request audit records waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a record for the writer. Never touches the database and never throws; a record that
+     * cannot be queued under the configured policy is counted as dropped.
+     *
+     * @return true when the record was queued
+     */
+    public boolean offer(RequestAuditRecord auditRecord) {
+        boolean accepted;
+        if (overflowPolicy == RequestAuditOverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(auditRecord, blockTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(auditRecord);
+        }
+
+        if (!accepted) {
+            droppedCounter.increment();
+            log.debug("Request audit buffer full; dropped record for request {}", auditRecord.requestId());
+        }
+        return accepted;
+    }
+
+    /**
+     * Waits up to {@code timeout} for the first record, then moves whatever else is immediately
+     * available into {@code sink}, up to {@code maxRecords} in total.
+     *
+     * @return the number of records drained
+     */
+    public int drainTo(Collection<RequestAuditRecord> sink, int maxRecords, Duration timeout)
+            throws InterruptedException {
+        RequestAuditRecord first = queue.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return 0;
+        }
+        sink.add(first);
+        return 1 + queue.drainTo(sink, maxRecords - 1);
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    public double droppedCount() {
+        return droppedCounter.count();
+    }
+}
@@ -1,19 +1,19 @@
 package apps.sarafrika.elimika.shared.tracking.service;
 
-import apps.sarafrika.elimika.shared.tracking.entity.RequestAuditLog;
-import apps.sarafrika.elimika.shared.tracking.model.RequestUserMetadata;
-import apps.sarafrika.elimika.shared.tracking.repository.RequestAuditLogRepository;
+import apps.sarafrika.elimika.shared.tracking.model.RequestAuditRecord;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 @Service
@@ -25,43 +25,60 @@ public class RequestAuditService {
     private static final int MAX_USER_AGENT_LENGTH = 1024;
     private static final int MAX_HEADER_SNAPSHOT_LENGTH = 4000;
 
-    private final RequestAuditLogRepository requestAuditLogRepository;
-    private final RequestUserMetadataResolver userMetadataResolver;
+    private final RequestAuditBuffer requestAuditBuffer;
     private final ObjectMapper objectMapper;
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    /**
+     * Captures the request into an immutable {@link RequestAuditRecord} and hands it to the audit
+     * buffer. Does no database work: the row is written later, in a batch, by
+     * {@link RequestAuditWriter}, which also resolves the user profile fields from the captured
+     * Keycloak subject.
+     */
     public void recordRequest(HttpServletRequest request, int responseStatus, long processingTimeMs, String requestId) {
         try {
-            RequestUserMetadata metadata = userMetadataResolver.resolve();
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             String ipAddress = resolveClientIpAddress(request);
             String headerSnapshot = buildHeaderSnapshot(request, processingTimeMs);
 
-            RequestAuditLog logEntry = new RequestAuditLog();
-            logEntry.setRequestId(truncate(requestId, MAX_REQUEST_ID_LENGTH));
-            logEntry.setHttpMethod(request.getMethod());
-            logEntry.setRequestUri(request.getRequestURI());
-            logEntry.setQueryString(request.getQueryString());
-            logEntry.setIpAddress(ipAddress);
-            logEntry.setRemoteHost(request.getRemoteHost());
-            logEntry.setUserAgent(truncate(request.getHeader("User-Agent"), MAX_USER_AGENT_LENGTH));
-            logEntry.setReferer(request.getHeader("Referer"));
-            logEntry.setSessionId(request.getRequestedSessionId());
-            logEntry.setHeaderSnapshot(truncate(headerSnapshot, MAX_HEADER_SNAPSHOT_LENGTH));
-            logEntry.setResponseStatus(responseStatus);
-            logEntry.setProcessingTimeMs(processingTimeMs);
-            logEntry.setAuthenticationName(metadata.getAuthenticationName());
-            logEntry.setUserUuid(metadata.getUserUuid());
-            logEntry.setUserEmail(metadata.getEmail());
-            logEntry.setUserFullName(metadata.getFullName());
-            logEntry.setUserDomains(formatDomains(metadata));
-            logEntry.setKeycloakId(metadata.getKeycloakId());
-
-            requestAuditLogRepository.save(logEntry);
+            RequestAuditRecord auditRecord = new RequestAuditRecord(
+                    truncate(requestId, MAX_REQUEST_ID_LENGTH),
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    request.getQueryString(),
+                    ipAddress,
+                    request.getRemoteHost(),
+                    truncate(request.getHeader("User-Agent"), MAX_USER_AGENT_LENGTH),
+                    request.getHeader("Referer"),
+                    request.getRequestedSessionId(),
+                    truncate(headerSnapshot, MAX_HEADER_SNAPSHOT_LENGTH),
+                    responseStatus,
+                    processingTimeMs,
+                    extractAuthenticationName(authentication),
+                    extractKeycloakId(authentication),
+                    LocalDateTime.now()
+            );
+
+            requestAuditBuffer.offer(auditRecord);
         } catch (Exception ex) {
-            log.error("Failed to record request audit entry", ex);
+            log.error("Failed to capture request audit entry", ex);
         }
     }
 
+    private String extractAuthenticationName(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private String extractKeycloakId(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            return jwt.getClaimAsString("sub");
+        }
+        return null;
+    }
+
     private String resolveClientIpAddress(HttpServletRequest request) {
         String[] headerCandidates = {
                 "X-Forwarded-For",
@@ -116,14 +133,6 @@ public class RequestAuditService {
         }
     }
 
-    private String formatDomains(RequestUserMetadata metadata) {
-        List<String> domains = metadata.getDomains();
-        if (metadata.isAnonymous() || domains == null || domains.isEmpty()) {
-            return null;
-        }
-        return String.join(",", domains);
-    }
-
     private String truncate(String value, int maxLength) {
         if (!StringUtils.hasText(value)) {
             return value;
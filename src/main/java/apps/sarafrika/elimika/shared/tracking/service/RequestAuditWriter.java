@@ -0,0 +1,222 @@
+package apps.sarafrika.elimika.shared.tracking.service;
+
+import apps.sarafrika.elimika.shared.tracking.model.RequestAuditRecord;
+import apps.sarafrika.elimika.shared.tracking.model.RequestUserMetadata;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Drains the {@link RequestAuditBuffer} on a dedicated thread and writes {@code request_audit_log}
+ * rows in batches.
+ * <p>
+ * Each batch is one multi-row {@code INSERT}, issued through JDBC rather than JPA: the rows are
+ * write-only telemetry, so entity validation, identity round-trips and the persistence context buy
+ * nothing here. The writer flushes as soon as {@code batch-size} records are queued or
+ * {@code flush-interval} has passed with at least one waiting, whichever comes first.
+ * <p>
+ * User profile fields are resolved from the captured Keycloak subject once per distinct subject per
+ * batch, so a burst from one user costs a single lookup. A batch that fails to write is logged and
+ * discarded; auditing must never wedge behind a bad row.
+ * <p>
+ * On shutdown the thread is stopped and whatever is still queued is flushed before the data source
+ * goes away.
+ */
+@Component
+@Slf4j
+public class RequestAuditWriter implements SmartLifecycle {
+
+    private static final int MAX_CREATED_BY_LENGTH = 50;
+    private static final String SYSTEM_USER = "SYSTEM";
+    private static final String INSERT_PREFIX = """
+            INSERT INTO request_audit_log (
+                request_id, http_method, request_uri, query_string, ip_address, remote_host,
+                user_agent, referer, session_id, header_snapshot, response_status, processing_time_ms,
+                authentication_name, user_uuid, user_email, user_full_name, user_domains, keycloak_id,
+                created_date, created_by
+            ) VALUES\s""";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final RequestAuditBuffer buffer;
+    private final RequestUserMetadataResolver userMetadataResolver;
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer flushTimer;
+    private final int batchSize;
+    private final Duration flushInterval;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public RequestAuditWriter(
+            RequestAuditBuffer buffer,
+            RequestUserMetadataResolver userMetadataResolver,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.request-audit.batch-size:200}") int batchSize,
+            @Value("${app.request-audit.flush-interval:PT1S}") Duration flushInterval) {
+        this.buffer = buffer;
+        this.userMetadataResolver = userMetadataResolver;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = flushInterval;
+        this.flushTimer = Timer.builder("elimika.request.audit.flush")
+                .description("Time taken to write one batch of request audit records")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform()
+                .name("request-audit-writer")
+                .daemon(true)
+                .start(this::drainLoop);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(flushInterval.multipliedBy(5).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushRemaining();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<RequestAuditRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                if (buffer.drainTo(batch, batchSize, flushInterval) > 0) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (Exception e) {
+                log.error("Request audit writer failed to flush {} record(s)", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushRemaining() {
+        List<RequestAuditRecord> batch = new ArrayList<>(batchSize);
+        try {
+            while (buffer.drainTo(batch, batchSize, Duration.ZERO) > 0) {
+                flush(batch);
+                batch.clear();
+            }
+        } catch (Exception e) {
+            log.error("Failed to flush request audit records on shutdown; {} left unwritten", buffer.depth(), e);
+        }
+    }
+
+    /**
+     * Writes one batch as a single multi-row insert. Package-private so the batching can be
+     * exercised without a running writer thread.
+     */
+    void flush(List<RequestAuditRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        flushTimer.record(() -> {
+            Map<String, RequestUserMetadata> metadataBySubject = resolveMetadata(batch);
+            List<Object> parameters = new ArrayList<>(batch.size() * 20);
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+            for (int i = 0; i < batch.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(ROW_PLACEHOLDERS);
+                RequestAuditRecord auditRecord = batch.get(i);
+                appendRow(parameters, auditRecord, metadataBySubject.get(auditRecord.keycloakId()));
+            }
+            jdbcTemplate.update(sql.toString(), parameters.toArray());
+        });
+    }
+
+    private Map<String, RequestUserMetadata> resolveMetadata(List<RequestAuditRecord> batch) {
+        Map<String, RequestUserMetadata> metadataBySubject = new HashMap<>();
+        for (RequestAuditRecord auditRecord : batch) {
+            String keycloakId = auditRecord.keycloakId();
+            if (!StringUtils.hasText(keycloakId) || metadataBySubject.containsKey(keycloakId)) {
+                continue;
+            }
+            try {
+                metadataBySubject.put(keycloakId,
+                        userMetadataResolver.resolve(keycloakId, auditRecord.authenticationName()));
+            } catch (Exception e) {
+                log.warn("Unable to resolve audit user metadata for subject {}: {}", keycloakId, e.getMessage());
+                metadataBySubject.put(keycloakId, RequestUserMetadata.anonymous(auditRecord.authenticationName()));
+            }
+        }
+        return metadataBySubject;
+    }
+
+    private void appendRow(List<Object> parameters, RequestAuditRecord auditRecord, RequestUserMetadata metadata) {
+        boolean known = metadata != null && !metadata.isAnonymous();
+        parameters.add(auditRecord.requestId());
+        parameters.add(auditRecord.httpMethod());
+        parameters.add(auditRecord.requestUri());
+        parameters.add(auditRecord.queryString());
+        parameters.add(StringUtils.hasText(auditRecord.ipAddress()) ? auditRecord.ipAddress() : "unknown");
+        parameters.add(auditRecord.remoteHost());
+        parameters.add(auditRecord.userAgent());
+        parameters.add(auditRecord.referer());
+        parameters.add(auditRecord.sessionId());
+        parameters.add(auditRecord.headerSnapshot());
+        parameters.add(auditRecord.responseStatus());
+        parameters.add(auditRecord.processingTimeMs());
+        parameters.add(auditRecord.authenticationName());
+        parameters.add(known ? metadata.getUserUuid() : null);
+        parameters.add(known ? metadata.getEmail() : null);
+        parameters.add(known ? metadata.getFullName() : null);
+        parameters.add(known ? formatDomains(metadata.getDomains()) : null);
+        parameters.add(known ? metadata.getKeycloakId() : null);
+        parameters.add(Timestamp.valueOf(auditRecord.capturedAt()));
+        parameters.add(createdBy(auditRecord.authenticationName()));
+    }
+
+    private String formatDomains(List<String> domains) {
+        if (domains == null || domains.isEmpty()) {
+            return null;
+        }
+        return String.join(",", domains);
+    }
+
+    private String createdBy(String authenticationName) {
+        if (!StringUtils.hasText(authenticationName)) {
+            return SYSTEM_USER;
+        }
+        return authenticationName.length() <= MAX_CREATED_BY_LENGTH
+                ? authenticationName
+                : authenticationName.substring(0, MAX_CREATED_BY_LENGTH);
+    }
+}
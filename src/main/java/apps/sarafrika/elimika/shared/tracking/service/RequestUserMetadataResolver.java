@@ -1,6 +1,5 @@
 package apps.sarafrika.elimika.shared.tracking.service;
 
-import apps.sarafrika.elimika.shared.security.DomainSecurityService;
 import apps.sarafrika.elimika.shared.tracking.model.RequestUserMetadata;
 import apps.sarafrika.elimika.tenancy.spi.UserLookupService;
 import java.util.List;
@@ -8,25 +7,28 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AnonymousAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+/**
+ * Resolves the user profile snapshot stored alongside an audited request.
+ * <p>
+ * Works from the Keycloak subject captured at request time rather than from the security context,
+ * because it runs on the audit writer thread, after the request that carried the token has ended.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class RequestUserMetadataResolver {
 
-    private final DomainSecurityService domainSecurityService;
     private final UserLookupService userLookupService;
 
-    public RequestUserMetadata resolve() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String authenticationName = extractAuthenticationName(authentication);
+    public RequestUserMetadata resolve(String keycloakId, String authenticationName) {
+        if (!StringUtils.hasText(keycloakId)) {
+            return RequestUserMetadata.anonymous(authenticationName);
+        }
 
-        UUID userUuid = domainSecurityService.getCurrentUserUuid();
+        UUID userUuid = userLookupService.findUserUuidByKeycloakId(keycloakId).orElse(null);
         if (userUuid == null) {
             return RequestUserMetadata.anonymous(authenticationName);
         }
@@ -36,11 +38,6 @@ public class RequestUserMetadataResolver {
         String fullName = userLookupService.getUserFullName(userUuid).orElse("Unknown User");
         String email = userLookupService.getUserEmail(userUuid).orElse("unknown@example.com");
 
-        // Get keycloak ID from JWT
-        String keycloakId = authentication != null && authentication.getPrincipal() instanceof org.springframework.security.oauth2.jwt.Jwt jwt
-                ? jwt.getClaimAsString("sub")
-                : null;
-
         return new RequestUserMetadata(
                 userUuid,
                 email,
@@ -51,14 +48,6 @@ public class RequestUserMetadataResolver {
         );
     }
 
-    private String extractAuthenticationName(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()
-                || authentication instanceof AnonymousAuthenticationToken) {
-            return null;
-        }
-        return authentication.getName();
-    }
-
     private List<String> resolveDomainNames(UUID userUuid) {
         return userLookupService.getUserDomains(userUuid).stream()
                 .map(Enum::name)
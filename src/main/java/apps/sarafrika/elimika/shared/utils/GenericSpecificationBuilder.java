@@ -17,82 +17,145 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Turns {@code search} endpoint query parameters ({@code name_like=py}, {@code price_between=10,20},
+ * {@code status=published}, ...) into a {@link Specification}.
+ * <p>
+ * Parsing the keys, mapping column names to attribute paths, choosing each attribute's value parser
+ * and operator only depends on the entity and the set of parameter names, so that work is compiled
+ * once into a {@link SearchPlan} and cached. Building a specification then just converts the values
+ * with the plan's parsers, and applying it just walks the pre-split paths. Invalid values are
+ * rejected with an {@link IllegalArgumentException} when the specification is built.
+ */
 @Component
 @Slf4j
 public class GenericSpecificationBuilder<T> {
-    private static final List<String> EXCLUDED_PARAMS = List.of("page", "size", "sort");
-    private static final Set<String> SUPPORTED_OPERATIONS = Set.of(
-            "eq",
-            "gt",
-            "lt",
-            "gte",
-            "lte",
-            "like",
-            "startswith",
-            "endswith",
-            "in",
-            "notin",
-            "noteq",
-            "between",
-            "notingroup"
+    private static final Set<String> EXCLUDED_PARAMS = Set.of("page", "size", "sort");
+    // Keys come from request parameters, so clients choose them freely: only plans whose every key names an
+    // entity field are cached, and the cache keeps the most recently used of those.
+    private static final int MAX_CACHED_PLANS = 2048;
+    private static final Map<Class<?>, Class<?>> BOXED_TYPES = Map.of(
+            boolean.class, Boolean.class,
+            int.class, Integer.class,
+            long.class, Long.class,
+            double.class, Double.class,
+            float.class, Float.class
     );
+
     private final Map<Class<?>, Map<String, String>> fieldColumnCache = new ConcurrentHashMap<>();
     private final Map<Class<?>, Map<String, Class<?>>> relationshipCache = new ConcurrentHashMap<>();
     private final Map<RelationshipKey, String> inverseRelationshipCache = new ConcurrentHashMap<>();
+    private final Map<PlanKey, SearchPlan<?>> planCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PlanKey, SearchPlan<?>> eldest) {
+                    return size() > MAX_CACHED_PLANS;
+                }
+            });
+    private final Map<Class<?>, ValueParser> parserCache = new ConcurrentHashMap<>();
 
     private record RelationshipKey(Class<?> entityClass, Class<?> targetClass) {
     }
 
-    public Specification<T> buildSpecification(Class<T> entityClass, Map<String, String> searchParams) {
-        Map<String, String> fieldColumnMap = getFieldColumnMap(entityClass);
-        List<SearchCriteria> criteriaList = buildSearchCriteria(searchParams, fieldColumnMap);
-        return criteriaList.isEmpty() ? null : createSpecification(criteriaList);
+    /**
+     * @param keys the valid parameter names, sorted, so any order of the same parameters shares a plan
+     */
+    private record PlanKey(Class<?> entityClass, List<String> keys) {
     }
 
-    private Map<String, String> getFieldColumnMap(Class<?> entityClass) {
-        return fieldColumnCache.computeIfAbsent(entityClass, this::buildFieldColumnMap);
-    }
-
-    private List<SearchCriteria> buildSearchCriteria(Map<String, String> searchParams, Map<String, String> fieldColumnMap) {
-        List<SearchCriteria> criteriaList = new ArrayList<>();
+    public Specification<T> buildSpecification(Class<T> entityClass, Map<String, String> searchParams) {
+        SortedMap<String, String> params = new TreeMap<>();
         searchParams.forEach((key, value) -> {
             if (isValidSearchParam(key, value)) {
-                addSearchCriteria(criteriaList, key, value, fieldColumnMap);
+                params.put(key, value);
             }
         });
-        return criteriaList;
+        if (params.isEmpty()) {
+            return null;
+        }
+        return planFor(entityClass, params.keySet()).bind(params.values());
     }
 
     private boolean isValidSearchParam(String key, String value) {
-        return value != null && !value.isEmpty() && !EXCLUDED_PARAMS.contains(key.toLowerCase());
+        return value != null && !value.isEmpty() && !EXCLUDED_PARAMS.contains(key.toLowerCase(Locale.ROOT));
+    }
+
+    @SuppressWarnings("unchecked")
+    private SearchPlan<T> planFor(Class<T> entityClass, Set<String> keys) {
+        PlanKey planKey = new PlanKey(entityClass, List.copyOf(keys));
+        SearchPlan<?> plan = planCache.get(planKey);
+        if (plan == null) {
+            SearchPlan<T> compiled = compile(entityClass, planKey.keys());
+            if (compiled.resolvesEveryField()) {
+                planCache.put(planKey, compiled);
+            }
+            plan = compiled;
+        }
+        return (SearchPlan<T>) plan;
     }
 
-    private void addSearchCriteria(List<SearchCriteria> criteriaList, String key, String value, Map<String, String> fieldColumnMap) {
-        SearchCriteriaInfo criteriaInfo = parseSearchKey(key);
-        String resolvedField = fieldColumnMap.get(criteriaInfo.fieldName().toLowerCase());
+    // ===== Compiling plans =====
 
-        criteriaList.add(new SearchCriteria(
-                resolvedField != null ? resolvedField : criteriaInfo.fieldName(),
-                criteriaInfo.operation(),
-                value
-        ));
+    private SearchPlan<T> compile(Class<T> entityClass, List<String> keys) {
+        Map<String, String> fieldColumnMap = getFieldColumnMap(entityClass);
+        List<PlannedCriterion> criteria = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            SearchCriteriaInfo criteriaInfo = parseSearchKey(key);
+            String resolvedField = fieldColumnMap.get(criteriaInfo.fieldName().toLowerCase());
+            String[] path = (resolvedField != null ? resolvedField : criteriaInfo.fieldName()).split("\\.");
+            Class<?> fieldType = resolveFieldType(entityClass, path);
+            if (fieldType != null && criteriaInfo.operation().isStringOperation()) {
+                validateStringOperation(fieldType, criteriaInfo.operation());
+            }
+            criteria.add(new PlannedCriterion(path, criteriaInfo.operation(), fieldType,
+                    fieldType == null ? null : parserFor(fieldType)));
+        }
+        return new SearchPlan<>(entityClass, criteria);
     }
 
-    private record SearchCriteriaInfo(String fieldName, String operation) {
+    private record SearchCriteriaInfo(String fieldName, SearchOperation operation) {
     }
 
     private SearchCriteriaInfo parseSearchKey(String key) {
         int lastUnderscoreIndex = key.lastIndexOf("_");
         if (lastUnderscoreIndex != -1 && lastUnderscoreIndex < key.length() - 1) {
-            String potentialOperation = key.substring(lastUnderscoreIndex + 1).toLowerCase(Locale.ROOT);
-            if (SUPPORTED_OPERATIONS.contains(potentialOperation)) {
-                return new SearchCriteriaInfo(
-                        key.substring(0, lastUnderscoreIndex),
-                        potentialOperation
-                );
+            SearchOperation operation = SearchOperation.fromSuffix(key.substring(lastUnderscoreIndex + 1));
+            if (operation != null) {
+                return new SearchCriteriaInfo(key.substring(0, lastUnderscoreIndex), operation);
             }
         }
-        return new SearchCriteriaInfo(key, "eq");
+        return new SearchCriteriaInfo(key, SearchOperation.EQ);
+    }
+
+    /**
+     * The attribute's Java type read from the entity's fields, boxed the way JPA paths report it, or
+     * {@code null} when a path element is not a plain field; such criteria are typed when applied.
+     */
+    private static Class<?> resolveFieldType(Class<?> entityClass, String[] path) {
+        Class<?> type = entityClass;
+        for (String element : path) {
+            Field field = findField(type, element);
+            if (field == null || Collection.class.isAssignableFrom(field.getType())) {
+                return null;
+            }
+            type = field.getType();
+        }
+        return BOXED_TYPES.getOrDefault(type, type);
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Map<String, String> getFieldColumnMap(Class<?> entityClass) {
+        return fieldColumnCache.computeIfAbsent(entityClass, this::buildFieldColumnMap);
     }
 
     private Map<String, String> buildFieldColumnMap(Class<?> entityClass) {
@@ -147,154 +210,229 @@ public class GenericSpecificationBuilder<T> {
         }
     }
 
-    private Specification<T> createSpecification(List<SearchCriteria> criteriaList) {
-        return (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = criteriaList.stream()
-                    .map(criteria -> buildPredicate(criteria, root, criteriaBuilder, query))
-                    .toList();
+    private String getColumnAnnotationName(Field field) {
+        Column columnAnnotation = field.getAnnotation(Column.class);
+        return (columnAnnotation != null && !columnAnnotation.name().isEmpty())
+                ? columnAnnotation.name()
+                : null;
+    }
 
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
+    // ===== Plans =====
+
+    private enum SearchOperation {
+        EQ, GT, LT, GTE, LTE, LIKE, STARTSWITH, ENDSWITH, IN, NOTIN, NOTEQ, BETWEEN, NOTINGROUP;
+
+        private static final Map<String, SearchOperation> BY_SUFFIX = new HashMap<>();
+
+        static {
+            for (SearchOperation operation : values()) {
+                BY_SUFFIX.put(operation.name().toLowerCase(Locale.ROOT), operation);
+            }
+        }
+
+        static SearchOperation fromSuffix(String suffix) {
+            return BY_SUFFIX.get(suffix.toLowerCase(Locale.ROOT));
+        }
+
+        boolean isStringOperation() {
+            return this == LIKE || this == STARTSWITH || this == ENDSWITH;
+        }
     }
 
-    private Predicate buildPredicate(SearchCriteria criteria, Root<T> root, CriteriaBuilder criteriaBuilder, CriteriaQuery query) {
-        Path<?> field = resolveFieldPath(root, criteria.getKey());
-        Class<?> fieldType = field.getJavaType();
-        String operation = criteria.getOperation();
-        Object value = requiresRawValue(operation)
-                ? criteria.getValue()
-                : convertToPostgresType(criteria.getValue(), fieldType);
+    /**
+     * One parameter of a plan: the attribute path already split, the operator, and the attribute's
+     * type and value parser when they could be read from the entity.
+     */
+    private record PlannedCriterion(String[] path, SearchOperation operation, Class<?> fieldType, ValueParser parser) {
+    }
 
-        return createOperationPredicate(criteriaBuilder, field, value, operation, fieldType, query, root);
+    /** A criterion with its value converted for the operator, ready to become a predicate. */
+    private record BoundCriterion(PlannedCriterion planned, String rawValue, Object operand) {
     }
 
-    private Predicate createOperationPredicate(
-            CriteriaBuilder criteriaBuilder,
-            Path<?> field,
-            Object value,
-            String operation,
-            Class<?> fieldType,
-            CriteriaQuery<?> query,
-            Root<T> root) {
-
-        return switch (operation.toLowerCase()) {
-            case "gt" -> compare(criteriaBuilder, field, value, ComparisonOperator.GREATER_THAN);
-            case "lt" -> compare(criteriaBuilder, field, value, ComparisonOperator.LESS_THAN);
-            case "gte" -> compare(criteriaBuilder, field, value, ComparisonOperator.GREATER_THAN_OR_EQUAL);
-            case "lte" -> compare(criteriaBuilder, field, value, ComparisonOperator.LESS_THAN_OR_EQUAL);
-            case "like" -> createLikePredicate(criteriaBuilder, field, value);
-            case "startswith" -> createStartsWithPredicate(criteriaBuilder, field, value);
-            case "endswith" -> createEndsWithPredicate(criteriaBuilder, field, value);
-            case "in" -> createInPredicate(field, value);
-            case "notin" -> createNotInPredicate(criteriaBuilder, field, value);
-            case "noteq" -> criteriaBuilder.notEqual(field, value);
-            case "between" -> createBetweenPredicate(criteriaBuilder, field, value, fieldType);
-            case "notingroup" -> createNotInGroupPredicate(criteriaBuilder, value, query, root);
-            default -> criteriaBuilder.equal(field, value);
-        };
+    /** The lower-cased pattern of a like, startswith or endswith on a String attribute. */
+    private record LikePattern(String pattern) {
     }
 
-    private LocalDateTime parseLocalDateTime(Object value) {
-        if (value instanceof LocalDateTime) {
-            return (LocalDateTime) value;
-        } else if (value instanceof String) {
-            return LocalDateTime.parse(value.toString());
-        } else {
-            throw new IllegalArgumentException("Invalid value for LocalDateTime: " + value);
-        }
+    private record Range(Object start, Object end) {
     }
 
-    private void validateStringOperation(Class<?> fieldType, String operation) {
-        if (fieldType.equals(Boolean.class) ||
-                fieldType.equals(Date.class) ||
-                fieldType.equals(Timestamp.class) ||
-                fieldType.equals(LocalDateTime.class)) {
-            log.warn("Applying string operation '{}' to field of type '{}' - this may not produce expected results",
-                    operation, fieldType.getSimpleName());
-        }
+    private record GroupExclusion(Class<?> joinTableClass, String inverseField, UUID groupUuid) {
     }
 
-    private Predicate createLikePredicate(CriteriaBuilder criteriaBuilder, Path<?> field, Object value) {
-        Class<?> fieldType = field.getJavaType();
-        validateStringOperation(fieldType, "like");
+    /**
+     * Everything about a search that depends only on the entity and its parameter names, compiled
+     * once and shared by every request with the same parameters.
+     */
+    private final class SearchPlan<E> {
 
-        if (fieldType.equals(String.class)) {
-            return criteriaBuilder.like(
-                    criteriaBuilder.lower(field.as(String.class)),
-                    "%" + value.toString().toLowerCase() + "%"
-            );
-        } else {
-            return criteriaBuilder.equal(field, convertToPostgresType(value.toString(), fieldType));
+        private final Class<E> entityClass;
+        private final List<PlannedCriterion> criteria;
+
+        private SearchPlan(Class<E> entityClass, List<PlannedCriterion> criteria) {
+            this.entityClass = entityClass;
+            this.criteria = List.copyOf(criteria);
         }
-    }
 
-    private Predicate createStartsWithPredicate(CriteriaBuilder criteriaBuilder, Path<?> field, Object value) {
-        Class<?> fieldType = field.getJavaType();
-        validateStringOperation(fieldType, "startswith");
+        /**
+         * Whether every criterion names a field of the entity. Plans for unknown names are not cached:
+         * any string a client sends would otherwise take a slot.
+         */
+        boolean resolvesEveryField() {
+            for (PlannedCriterion criterion : criteria) {
+                if (criterion.fieldType() == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
 
-        if (fieldType.equals(String.class)) {
-            return criteriaBuilder.like(
-                    criteriaBuilder.lower(field.as(String.class)),
-                    value.toString().toLowerCase() + "%"
-            );
-        } else {
-            return criteriaBuilder.equal(field, convertToPostgresType(value.toString(), fieldType));
+        /**
+         * @param values the parameter values in the order of the plan's sorted keys
+         */
+        Specification<E> bind(Collection<String> values) {
+            BoundCriterion[] bound = new BoundCriterion[criteria.size()];
+            Iterator<String> value = values.iterator();
+            for (int i = 0; i < bound.length; i++) {
+                PlannedCriterion planned = criteria.get(i);
+                String rawValue = value.next();
+                Object operand = planned.operation() == SearchOperation.NOTINGROUP
+                        ? groupExclusion(entityClass, rawValue)
+                        : planned.fieldType() == null ? null : prepareOperand(planned, rawValue, planned.fieldType(), planned.parser());
+                bound[i] = new BoundCriterion(planned, rawValue, operand);
+            }
+            return (root, query, criteriaBuilder) -> {
+                Predicate[] predicates = new Predicate[bound.length];
+                for (int i = 0; i < bound.length; i++) {
+                    predicates[i] = buildPredicate(bound[i], root, query, criteriaBuilder);
+                }
+                return criteriaBuilder.and(predicates);
+            };
         }
     }
 
-    private Predicate createEndsWithPredicate(CriteriaBuilder criteriaBuilder, Path<?> field, Object value) {
-        Class<?> fieldType = field.getJavaType();
-        validateStringOperation(fieldType, "endswith");
+    // ===== Binding values =====
+
+    private Object prepareOperand(PlannedCriterion planned, String rawValue, Class<?> fieldType, ValueParser parser) {
+        return switch (planned.operation()) {
+            case IN, NOTIN -> Arrays.stream(rawValue.split(","))
+                    .map(parser::parse)
+                    .toList();
+            case BETWEEN -> prepareRange(rawValue, parser);
+            case LIKE -> fieldType.equals(String.class)
+                    ? new LikePattern("%" + rawValue.trim().toLowerCase() + "%")
+                    : parser.parse(rawValue);
+            case STARTSWITH -> fieldType.equals(String.class)
+                    ? new LikePattern(rawValue.trim().toLowerCase() + "%")
+                    : parser.parse(rawValue);
+            case ENDSWITH -> fieldType.equals(String.class)
+                    ? new LikePattern("%" + rawValue.trim().toLowerCase())
+                    : parser.parse(rawValue);
+            default -> parser.parse(rawValue);
+        };
+    }
+
+    private Range prepareRange(String rawValue, ValueParser parser) {
+        String[] rangeValues = rawValue.split(",");
+        validateBetweenValues(rangeValues);
+
+        Object startValue = parser.parse(rangeValues[0]);
+        Object endValue = parser.parse(rangeValues[1]);
 
-        if (fieldType.equals(String.class)) {
-            return criteriaBuilder.like(
-                    criteriaBuilder.lower(field.as(String.class)),
-                    "%" + value.toString().toLowerCase()
+        validateComparableTypes(startValue, endValue);
+        return new Range(startValue, endValue);
+    }
+
+    private GroupExclusion groupExclusion(Class<?> entityClass, String rawValue) {
+        String[] parts = rawValue.split(",");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("notingroup value must be in format: 'relationshipField,groupId'");
+        }
+        Class<?> joinTableClass = getRelationshipClass(entityClass, parts[0]);
+        String inverseField = getInverseRelationshipField(joinTableClass, entityClass);
+        return new GroupExclusion(joinTableClass, inverseField, UUID.fromString(parts[1]));
+    }
+
+    private void validateBetweenValues(String[] rangeValues) {
+        if (rangeValues.length != 2) {
+            throw new IllegalArgumentException(
+                    "Invalid range for 'between' operation. Expected format: 'startValue,endValue'"
             );
-        } else {
-            return criteriaBuilder.equal(field, convertToPostgresType(value.toString(), fieldType));
         }
     }
 
-    private Predicate createInPredicate(Path<?> field, Object value) {
-        List<Object> typedValues = Arrays.stream(value.toString().split(","))
-                .map(val -> convertToPostgresType(val.trim(), field.getJavaType()))
-                .toList();
-        return field.in(typedValues);
+    private void validateComparableTypes(Object startValue, Object endValue) {
+        if (!(startValue instanceof Comparable) || !(endValue instanceof Comparable)) {
+            throw new IllegalArgumentException("'between' operation is only supported for comparable types");
+        }
+    }
+
+    private void validateStringOperation(Class<?> fieldType, SearchOperation operation) {
+        if (fieldType.equals(Boolean.class) ||
+                fieldType.equals(Date.class) ||
+                fieldType.equals(Timestamp.class) ||
+                fieldType.equals(LocalDateTime.class)) {
+            log.warn("Applying string operation '{}' to field of type '{}' - this may not produce expected results",
+                    operation.name().toLowerCase(Locale.ROOT), fieldType.getSimpleName());
+        }
     }
 
-    private Predicate createNotInPredicate(CriteriaBuilder criteriaBuilder, Path<?> field, Object value) {
-        List<String> values = Arrays.asList(value.toString().split(","));
+    // ===== Applying plans =====
 
-        List<Object> typedValues = values.stream().map(val -> convertToPostgresType(val.trim(), field.getJavaType())).toList();
+    private Predicate buildPredicate(BoundCriterion criterion,
+                                     Root<?> root,
+                                     CriteriaQuery<?> query,
+                                     CriteriaBuilder criteriaBuilder) {
+        PlannedCriterion planned = criterion.planned();
+        if (planned.operation() == SearchOperation.NOTINGROUP) {
+            return createNotInGroupPredicate(criteriaBuilder, (GroupExclusion) criterion.operand(), query, root);
+        }
 
-        return criteriaBuilder.not(field.in(typedValues));
+        Path<?> field = resolveFieldPath(root, planned.path());
+        Class<?> fieldType = field.getJavaType();
+        Object operand = criterion.operand();
+        if (!fieldType.equals(planned.fieldType())) {
+            // The mapped type differs from the declared field (or could not be read); convert for it instead.
+            operand = prepareOperand(planned, criterion.rawValue(), fieldType, parserFor(fieldType));
+        }
+
+        return switch (planned.operation()) {
+            case GT -> compare(criteriaBuilder, field, operand, ComparisonOperator.GREATER_THAN);
+            case LT -> compare(criteriaBuilder, field, operand, ComparisonOperator.LESS_THAN);
+            case GTE -> compare(criteriaBuilder, field, operand, ComparisonOperator.GREATER_THAN_OR_EQUAL);
+            case LTE -> compare(criteriaBuilder, field, operand, ComparisonOperator.LESS_THAN_OR_EQUAL);
+            case LIKE, STARTSWITH, ENDSWITH -> operand instanceof LikePattern like
+                    ? criteriaBuilder.like(criteriaBuilder.lower(field.as(String.class)), like.pattern())
+                    : criteriaBuilder.equal(field, operand);
+            case IN -> field.in((List<?>) operand);
+            case NOTIN -> criteriaBuilder.not(field.in((List<?>) operand));
+            case NOTEQ -> criteriaBuilder.notEqual(field, operand);
+            case BETWEEN -> between(criteriaBuilder, field, ((Range) operand).start(), ((Range) operand).end());
+            default -> criteriaBuilder.equal(field, operand);
+        };
+    }
+
+    private Path<?> resolveFieldPath(Root<?> root, String[] path) {
+        Path<?> resolved = root;
+        for (String element : path) {
+            resolved = resolved.get(element);
+        }
+        return resolved;
     }
 
     private Predicate createNotInGroupPredicate(
             CriteriaBuilder criteriaBuilder,
-            Object value,
+            GroupExclusion exclusion,
             CriteriaQuery<?> query,
-            Root<T> root
+            Root<?> root
     ) {
-        String[] parts = value.toString().split(",");
-        if (parts.length != 2) {
-            throw new IllegalArgumentException("notingroup value must be in format: 'relationshipField,groupId'");
-        }
-
-        String relationshipField = parts[0];
-        String groupId = parts[1];
-
         Subquery<Long> subquery = query.subquery(Long.class);
 
-        Class<?> joinTableClass = getRelationshipClass(root.getJavaType(), relationshipField);
-
-        Root<?> groupRoot = subquery.from(joinTableClass);
-        String inverseField = getInverseRelationshipField(joinTableClass, root.getJavaType());
-        Join<?, ?> entityJoin = groupRoot.join(inverseField);
+        Root<?> groupRoot = subquery.from(exclusion.joinTableClass());
+        Join<?, ?> entityJoin = groupRoot.join(exclusion.inverseField());
 
         subquery.select(entityJoin.get("id"))
-                .where(criteriaBuilder.equal(groupRoot.get("uuid"), UUID.fromString(groupId)));
+                .where(criteriaBuilder.equal(groupRoot.get("uuid"), exclusion.groupUuid()));
 
         return criteriaBuilder.not(root.get("id").in(subquery));
     }
@@ -336,49 +474,6 @@ public class GenericSpecificationBuilder<T> {
         return field.getType().equals(targetClass);
     }
 
-    private Predicate createBetweenPredicate(
-            CriteriaBuilder criteriaBuilder,
-            Path<?> field,
-            Object value,
-            Class<?> fieldType) {
-        String[] rangeValues = value.toString().split(",");
-        validateBetweenValues(rangeValues);
-
-        if (fieldType.equals(LocalDateTime.class)) {
-            LocalDateTime startDate = parseLocalDateTime(rangeValues[0].trim());
-            LocalDateTime endDate = parseLocalDateTime(rangeValues[1].trim());
-
-            log.debug("Parsed date range - Start: {}, End: {}", startDate, endDate);
-
-            return criteriaBuilder.between(
-                    field.as(LocalDateTime.class),
-                    startDate,
-                    endDate
-            );
-        }
-
-        Object startValue = convertToPostgresType(rangeValues[0].trim(), fieldType);
-        Object endValue = convertToPostgresType(rangeValues[1].trim(), fieldType);
-
-        validateComparableTypes(startValue, endValue);
-
-        return between(criteriaBuilder, field, startValue, endValue);
-    }
-
-    private void validateBetweenValues(String[] rangeValues) {
-        if (rangeValues.length != 2) {
-            throw new IllegalArgumentException(
-                    "Invalid range for 'between' operation. Expected format: 'startValue,endValue'"
-            );
-        }
-    }
-
-    private void validateComparableTypes(Object startValue, Object endValue) {
-        if (!(startValue instanceof Comparable) || !(endValue instanceof Comparable)) {
-            throw new IllegalArgumentException("'between' operation is only supported for comparable types");
-        }
-    }
-
     private <Y extends Comparable<? super Y>> Predicate compare(
             CriteriaBuilder criteriaBuilder,
             Path<?> field,
@@ -427,90 +522,82 @@ public class GenericSpecificationBuilder<T> {
         LESS_THAN_OR_EQUAL
     }
 
-    private Path<?> resolveFieldPath(Root<T> root, String fieldKey) {
-        if (fieldKey.contains(".")) {
-            return resolveNestedFieldPath(root, fieldKey);
-        }
-        return root.get(fieldKey);
-    }
+    // ===== Value parsers =====
 
-    private Path<?> resolveNestedFieldPath(Root<T> root, String fieldKey) {
-        String[] pathElements = fieldKey.split("\\.");
-        Path<?> path = root;
-        for (String element : pathElements) {
-            path = path.get(element);
-        }
-        return path;
+    /** Converts one request value to an attribute type, rejecting values it cannot convert. */
+    @FunctionalInterface
+    private interface ValueParser {
+        Object parse(String value);
     }
 
-    private String getColumnAnnotationName(Field field) {
-        Column columnAnnotation = field.getAnnotation(Column.class);
-        return (columnAnnotation != null && !columnAnnotation.name().isEmpty())
-                ? columnAnnotation.name()
-                : null;
+    private ValueParser parserFor(Class<?> fieldType) {
+        return parserCache.computeIfAbsent(fieldType, this::createParser);
     }
 
-    private Object convertToPostgresType(Object value, Class<?> fieldType) {
-        if (value == null) {
-            return null;
-        }
-
-        String stringValue = value.toString().trim();
-        try {
-            return convertValue(stringValue, fieldType);
-        } catch (Exception e) {
-            log.error("Error converting value '{}' to type '{}': {}",
-                    stringValue, fieldType, e.getMessage());
-            throw new IllegalArgumentException("Invalid value for field type: " + fieldType, e);
-        }
+    private ValueParser createParser(Class<?> fieldType) {
+        ValueParser parser = createTypedParser(fieldType);
+        return value -> {
+            String stringValue = value.trim();
+            try {
+                return parser.parse(stringValue);
+            } catch (Exception e) {
+                log.error("Error converting value '{}' to type '{}': {}", stringValue, fieldType, e.getMessage());
+                throw new IllegalArgumentException("Invalid value for field type: " + fieldType, e);
+            }
+        };
     }
 
-    private Object convertValue(String stringValue, Class<?> fieldType) {
-        if (fieldType.equals(UUID.class)) return UUID.fromString(stringValue);
-        if (fieldType.equals(Boolean.class)) return convertToBoolean(stringValue);
-        if (fieldType.equals(Integer.class)) return Integer.parseInt(stringValue);
-        if (fieldType.equals(Long.class)) return Long.parseLong(stringValue);
-        if (fieldType.equals(Double.class)) return Double.parseDouble(stringValue);
-        if (fieldType.equals(Float.class)) return Float.parseFloat(stringValue);
-        if (fieldType.equals(BigDecimal.class)) return new BigDecimal(stringValue);
-        if (fieldType.equals(Date.class)) return Date.valueOf(stringValue);
-        if (fieldType.equals(Timestamp.class)) return Timestamp.valueOf(stringValue);
-        if (fieldType.equals(LocalDateTime.class)) return LocalDateTime.parse(stringValue);
-        if (Enum.class.isAssignableFrom(fieldType)) return convertEnumValue(stringValue, fieldType);
-        if (fieldType.equals(String.class)) return stringValue;
+    private ValueParser createTypedParser(Class<?> fieldType) {
+        if (fieldType.equals(UUID.class)) return UUID::fromString;
+        if (fieldType.equals(Boolean.class)) return this::convertToBoolean;
+        if (fieldType.equals(Integer.class)) return Integer::parseInt;
+        if (fieldType.equals(Long.class)) return Long::parseLong;
+        if (fieldType.equals(Double.class)) return Double::parseDouble;
+        if (fieldType.equals(Float.class)) return Float::parseFloat;
+        if (fieldType.equals(BigDecimal.class)) return BigDecimal::new;
+        if (fieldType.equals(Date.class)) return Date::valueOf;
+        if (fieldType.equals(Timestamp.class)) return Timestamp::valueOf;
+        if (fieldType.equals(LocalDateTime.class)) return LocalDateTime::parse;
+        if (Enum.class.isAssignableFrom(fieldType)) return createEnumParser(fieldType);
+        if (fieldType.equals(String.class)) return value -> value;
 
         log.warn("Unhandled field type: {}", fieldType);
-        return stringValue;
+        return value -> value;
     }
 
-    private boolean requiresRawValue(String operation) {
-        if (operation == null) {
-            return false;
+    /**
+     * Matches constant names case-insensitively, then falls back to the enum's own
+     * {@code fromValue(String)} when it declares one.
+     */
+    private ValueParser createEnumParser(Class<?> fieldType) {
+        Map<String, Object> constants = new HashMap<>();
+        for (Object constant : fieldType.getEnumConstants()) {
+            constants.putIfAbsent(((Enum<?>) constant).name().toUpperCase(Locale.ROOT), constant);
         }
-        return switch (operation.toLowerCase(Locale.ROOT)) {
-            case "in", "notin", "between", "notingroup" -> true;
-            default -> false;
-        };
-    }
-
-    private Object convertEnumValue(String value, Class<?> fieldType) {
-        Class<? extends Enum> enumClass = ((Class<?>) fieldType).asSubclass(Enum.class);
-        String normalizedValue = value.trim();
+        Method fromValueMethod;
+        try {
+            fromValueMethod = fieldType.getDeclaredMethod("fromValue", String.class);
+        } catch (NoSuchMethodException e) {
+            fromValueMethod = null;
+        }
+        Method fromValue = fromValueMethod;
 
-        for (Enum<?> constant : enumClass.getEnumConstants()) {
-            if (constant.name().equalsIgnoreCase(normalizedValue)) {
+        return value -> {
+            Object constant = constants.get(value.toUpperCase(Locale.ROOT));
+            if (constant != null) {
                 return constant;
             }
-        }
-
-        try {
-            Method fromValueMethod = fieldType.getDeclaredMethod("fromValue", String.class);
-            return fromValueMethod.invoke(null, normalizedValue);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException reflectionException) {
-            log.error("Unable to convert '{}' to enum {}: {}", normalizedValue, fieldType.getSimpleName(), reflectionException.getMessage());
-            throw new IllegalArgumentException(
-                    "Invalid enum value '" + normalizedValue + "' for " + fieldType.getSimpleName());
-        }
+            try {
+                if (fromValue == null) {
+                    throw new NoSuchMethodException(fieldType.getName() + ".fromValue(String)");
+                }
+                return fromValue.invoke(null, value);
+            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException reflectionException) {
+                log.error("Unable to convert '{}' to enum {}: {}", value, fieldType.getSimpleName(), reflectionException.getMessage());
+                throw new IllegalArgumentException(
+                        "Invalid enum value '" + value + "' for " + fieldType.getSimpleName());
+            }
+        };
     }
 
     private boolean convertToBoolean(String value) {
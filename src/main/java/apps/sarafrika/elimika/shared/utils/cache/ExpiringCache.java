@@ -0,0 +1,109 @@
+package apps.sarafrika.elimika.shared.utils.cache;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * A small, bounded, process-local cache whose entries expire a fixed time after they were written.
+ * <p>
+ * Reads are a single {@link ConcurrentHashMap} lookup plus a clock comparison, so it is safe to put
+ * in front of per-request paths. The bound is enforced on write: once the map grows past
+ * {@code maxSize}, expired entries are purged first and, if that is not enough, the entries closest
+ * to expiry are evicted until the cache is back to {@code 90%} of its bound. That keeps the eviction
+ * scan amortised across many writes rather than paid on every one.
+ * <p>
+ * There is deliberately no loader, refresh or statistics machinery here; callers that need
+ * single-flight loading or hit/miss metrics layer them on top, where they know what a miss means.
+ *
+ * @param <K> key type
+ * @param <V> value type; {@code null} values are not stored
+ */
+public final class ExpiringCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock monotonic time source, injectable so expiry can be tested without sleeping
+     */
+    public ExpiringCache(int maxSize, Duration ttl, LongSupplier nanoClock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the live value for {@code key}, or {@code null} when absent or expired.
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() - nanoClock.getAsLong() <= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, nanoClock.getAsLong() + ttlNanos));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private synchronized void evict() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        entries.entrySet().removeIf(e -> e.getValue().expiresAt() - now <= 0);
+
+        int target = Math.max(1, maxSize - maxSize / 10);
+        int excess = entries.size() - target;
+        if (excess <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt() - now))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
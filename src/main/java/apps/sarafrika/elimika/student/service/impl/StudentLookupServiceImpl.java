@@ -7,8 +7,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of Student Lookup Service
@@ -43,4 +46,14 @@ public class StudentLookupServiceImpl implements StudentLookupService {
                 .map(Student::getUserUuid);
     }
 
+    @Override
+    public Map<UUID, UUID> getStudentUserUuids(Collection<UUID> studentUuids) {
+        if (studentUuids == null || studentUuids.isEmpty()) {
+            return Map.of();
+        }
+        return studentRepository.findByUuidIn(studentUuids).stream()
+                .filter(student -> student.getUserUuid() != null)
+                .collect(Collectors.toMap(Student::getUuid, Student::getUserUuid));
+    }
+
 }
\ No newline at end of file
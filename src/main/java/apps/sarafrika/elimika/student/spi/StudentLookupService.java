@@ -1,5 +1,7 @@
 package apps.sarafrika.elimika.student.spi;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -40,4 +42,12 @@ public interface StudentLookupService {
      */
     Optional<UUID> getStudentUserUuid(UUID studentUuid);
 
+    /**
+     * Gets the user UUIDs of many students in one lookup.
+     *
+     * @param studentUuids The UUIDs of the students
+     * @return Map from student UUID to user UUID; students that are not found are left out
+     */
+    Map<UUID, UUID> getStudentUserUuids(Collection<UUID> studentUuids);
+
 }
\ No newline at end of file
@@ -27,6 +27,7 @@ import java.util.UUID;
 public class SystemRuleAdminServiceImpl implements SystemRuleAdminService {
 
     private final SystemRuleRepository systemRuleRepository;
+    private final SystemRuleSnapshotCache ruleSnapshotCache;
 
     @Override
     public Page<SystemRuleResponse> listRules(RuleCategory category, RuleStatus status, Pageable pageable) {
@@ -64,6 +65,7 @@ public class SystemRuleAdminServiceImpl implements SystemRuleAdminService {
         SystemRule rule = new SystemRule();
         applyRequest(rule, request);
         SystemRule saved = systemRuleRepository.save(rule);
+        ruleSnapshotCache.invalidate(saved.getCategory());
         return toResponse(saved);
     }
 
@@ -71,8 +73,11 @@ public class SystemRuleAdminServiceImpl implements SystemRuleAdminService {
     public SystemRuleResponse updateRule(UUID uuid, SystemRuleRequest request) {
         SystemRule existing = systemRuleRepository.findByUuid(uuid)
                 .orElseThrow(() -> new ResourceNotFoundException("System rule %s not found".formatted(uuid)));
+        RuleCategory previousCategory = existing.getCategory();
         applyRequest(existing, request);
         SystemRule saved = systemRuleRepository.save(existing);
+        ruleSnapshotCache.invalidate(previousCategory);
+        ruleSnapshotCache.invalidate(saved.getCategory());
         return toResponse(saved);
     }
 
@@ -0,0 +1,262 @@
+package apps.sarafrika.elimika.systemconfig.service.impl;
+
+import apps.sarafrika.elimika.systemconfig.dto.AgeGateConfig;
+import apps.sarafrika.elimika.systemconfig.dto.PlatformFeeConfig;
+import apps.sarafrika.elimika.systemconfig.dto.RuleContext;
+import apps.sarafrika.elimika.systemconfig.enums.RuleCategory;
+import apps.sarafrika.elimika.systemconfig.enums.RuleScope;
+import apps.sarafrika.elimika.systemconfig.enums.RuleStatus;
+import apps.sarafrika.elimika.systemconfig.model.SystemRule;
+import apps.sarafrika.elimika.systemconfig.repository.SystemRuleRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Compiled, immutable view of the active system rules, one {@link RuleSnapshot} per
+ * {@link RuleCategory}, so evaluation on the checkout and onboarding paths is an array walk instead
+ * of a query, a sort and a JSON conversion per call.
+ * <p>
+ * A snapshot holds every active rule of its category already in precedence order, indexed by rule
+ * key, with the scope reference normalised and the payload converted to the category's config type
+ * once. Snapshots are never changed: the category map is replaced whole (copy-on-write) when one is
+ * compiled or dropped, so readers need no locking.
+ * <p>
+ * {@link SystemRuleAdminServiceImpl} invalidates a category whenever it writes a rule of it. The
+ * eviction is applied immediately and again once the surrounding transaction commits, and a
+ * compilation that straddles an eviction is used once but not kept. The {@code ttl} is the safety
+ * net for rule writes made on another node or directly in the database.
+ */
+@Component
+@Slf4j
+class SystemRuleSnapshotCache {
+
+    private static final Comparator<SystemRule> RULE_COMPARATOR = Comparator
+            .comparing((Function<SystemRule, Integer>) rule -> Optional.ofNullable(rule.getPriority()).orElse(0))
+            .reversed()
+            .thenComparing(rule -> scopeWeight(rule.getScope()), Comparator.reverseOrder())
+            .thenComparing(SystemRule::getEffectiveFrom, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private static final Map<RuleCategory, Class<?>> PAYLOAD_TYPES = Map.of(
+            RuleCategory.PLATFORM_FEE, PlatformFeeConfig.class,
+            RuleCategory.AGE_GATE, AgeGateConfig.class);
+
+    private final SystemRuleRepository systemRuleRepository;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+
+    private volatile Map<RuleCategory, RuleSnapshot> snapshots = Map.of();
+    /** Bumped on every eviction; a compilation that sees it move is not kept. */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    SystemRuleSnapshotCache(SystemRuleRepository systemRuleRepository,
+                            ObjectMapper objectMapper,
+                            @Value("${app.system-rules.snapshot-ttl:PT5M}") Duration ttl) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("System rule snapshot ttl must be positive");
+        }
+        this.systemRuleRepository = systemRuleRepository;
+        this.objectMapper = objectMapper;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    RuleSnapshot snapshotFor(RuleCategory category) {
+        RuleSnapshot current = snapshots.get(category);
+        if (current != null && System.nanoTime() - current.compiledAt() < ttlNanos) {
+            return current;
+        }
+        long generation = invalidations.get();
+        RuleSnapshot compiled = compile(category);
+        synchronized (this) {
+            if (invalidations.get() == generation) {
+                Map<RuleCategory, RuleSnapshot> next = new EnumMap<>(RuleCategory.class);
+                next.putAll(snapshots);
+                next.put(category, compiled);
+                snapshots = Collections.unmodifiableMap(next);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Drops the compiled snapshot of {@code category}; the next evaluation recompiles it.
+     */
+    void invalidate(RuleCategory category) {
+        if (category == null) {
+            return;
+        }
+        evict(category);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(category);
+                }
+            });
+        }
+    }
+
+    private synchronized void evict(RuleCategory category) {
+        invalidations.incrementAndGet();
+        if (snapshots.containsKey(category)) {
+            Map<RuleCategory, RuleSnapshot> next = new EnumMap<>(RuleCategory.class);
+            next.putAll(snapshots);
+            next.remove(category);
+            snapshots = Collections.unmodifiableMap(next);
+        }
+    }
+
+    private RuleSnapshot compile(RuleCategory category) {
+        List<SystemRule> ordered = new ArrayList<>(systemRuleRepository
+                .findByCategoryAndStatusOrderByPriorityDescEffectiveFromDesc(category, RuleStatus.ACTIVE));
+        ordered.sort(RULE_COMPARATOR);
+
+        Class<?> payloadType = PAYLOAD_TYPES.get(category);
+        CompiledRule[] rules = new CompiledRule[ordered.size()];
+        Map<String, List<CompiledRule>> byKey = new HashMap<>();
+        for (int i = 0; i < rules.length; i++) {
+            SystemRule rule = ordered.get(i);
+            rules[i] = new CompiledRule(
+                    rule,
+                    Optional.ofNullable(rule.getScope()).orElse(RuleScope.GLOBAL),
+                    normalizeValue(rule.getScopeReference()),
+                    rule.getEffectiveFrom(),
+                    rule.getEffectiveTo(),
+                    convertPayload(rule, payloadType));
+            if (StringUtils.hasText(rule.getKey())) {
+                byKey.computeIfAbsent(rule.getKey().toLowerCase(Locale.ROOT), key -> new ArrayList<>()).add(rules[i]);
+            }
+        }
+
+        Map<String, CompiledRule[]> keyIndex = new HashMap<>(byKey.size() * 2);
+        byKey.forEach((key, matches) -> keyIndex.put(key, matches.toArray(CompiledRule[]::new)));
+        return new RuleSnapshot(rules, Map.copyOf(keyIndex), System.nanoTime());
+    }
+
+    private Object convertPayload(SystemRule rule, Class<?> payloadType) {
+        if (payloadType == null || rule.getPayload() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.treeToValue(rule.getPayload(), payloadType);
+        } catch (JsonProcessingException ex) {
+            log.error("Failed to convert system rule {} payload into {}", rule.getUuid(), payloadType.getSimpleName(), ex);
+            return null;
+        }
+    }
+
+    private static int scopeWeight(RuleScope scope) {
+        RuleScope safeScope = scope == null ? RuleScope.GLOBAL : scope;
+        return switch (safeScope) {
+            case GLOBAL -> 0;
+            case REGION -> 1;
+            case DEMOGRAPHIC -> 2;
+            case SEGMENT -> 3;
+            case TENANT -> 4;
+        };
+    }
+
+    static String normalizeValue(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * True when any non-blank value of {@code values}, normalised, equals {@code normalized}. Walks the
+     * set in place rather than building a normalised copy.
+     */
+    static boolean containsNormalized(Set<String> values, String normalized) {
+        if (normalized == null || values == null) {
+            return false;
+        }
+        for (String value : values) {
+            if (StringUtils.hasText(value) && normalized.equals(normalizeValue(value))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One active rule, ready to evaluate.
+     *
+     * @param scopeReference trimmed and lower-cased
+     * @param payload        the payload as the category's config type, or {@code null} when the
+     *                       category has none or the payload could not be converted
+     */
+    record CompiledRule(
+            SystemRule rule,
+            RuleScope scope,
+            String scopeReference,
+            OffsetDateTime effectiveFrom,
+            OffsetDateTime effectiveTo,
+            Object payload
+    ) {
+
+        boolean matchesScope(RuleContext context) {
+            return switch (scope) {
+                case GLOBAL -> true;
+                case TENANT -> StringUtils.hasText(scopeReference) && scopeReference.equalsIgnoreCase(context.tenantId());
+                case REGION -> StringUtils.hasText(scopeReference) && scopeReference.equalsIgnoreCase(context.regionCode());
+                case DEMOGRAPHIC -> StringUtils.hasText(scopeReference)
+                        && containsNormalized(context.demographicTags(), scopeReference);
+                case SEGMENT -> StringUtils.hasText(scopeReference) && containsNormalized(context.segments(), scopeReference);
+            };
+        }
+
+        boolean isActive(OffsetDateTime evaluationTime) {
+            boolean afterStart = effectiveFrom == null || !evaluationTime.isBefore(effectiveFrom);
+            boolean beforeEnd = effectiveTo == null || !evaluationTime.isAfter(effectiveTo);
+            return afterStart && beforeEnd;
+        }
+    }
+
+    /**
+     * The active rules of one category in precedence order: priority, then scope specificity, then
+     * the most recent effective start.
+     *
+     * @param rules    every rule
+     * @param byKey    the same rules grouped by lower-cased rule key, each group still in order
+     * @param compiledAt {@link System#nanoTime()} at compilation
+     */
+    record RuleSnapshot(CompiledRule[] rules, Map<String, CompiledRule[]> byKey, long compiledAt) {
+
+        /**
+         * The first rule in precedence order that has {@code ruleKey} (any rule when blank), applies to
+         * the context's scope and is in effect at {@code evaluationTime}.
+         */
+        CompiledRule find(String ruleKey, RuleContext context, OffsetDateTime evaluationTime) {
+            CompiledRule[] candidates = StringUtils.hasText(ruleKey)
+                    ? byKey.get(ruleKey.toLowerCase(Locale.ROOT))
+                    : rules;
+            if (candidates == null) {
+                return null;
+            }
+            for (CompiledRule candidate : candidates) {
+                if (candidate.matchesScope(context) && candidate.isActive(evaluationTime)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+}
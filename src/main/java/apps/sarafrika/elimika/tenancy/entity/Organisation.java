@@ -1,8 +1,12 @@
 package apps.sarafrika.elimika.tenancy.entity;
 
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+import apps.sarafrika.elimika.shared.geo.internal.LocationChangeListener;
 import apps.sarafrika.elimika.shared.model.BaseEntity;
+import apps.sarafrika.elimika.shared.model.Locatable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -14,11 +18,12 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "organisation")
+@EntityListeners(LocationChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class Organisation extends BaseEntity {
+public class Organisation extends BaseEntity implements Locatable {
 
     @Column(name = "name")
     private String name;
@@ -59,4 +64,9 @@ public class Organisation extends BaseEntity {
     /** When the organisation submitted itself for admin verification; null if never submitted. */
     @Column(name = "verification_requested_at")
     private LocalDateTime verificationRequestedAt;
-}
\ No newline at end of file
+
+    @Override
+    public LocatedContentType locatedContentType() {
+        return LocatedContentType.ORGANISATION;
+    }
+}
@@ -1,6 +1,9 @@
 package apps.sarafrika.elimika.tenancy.entity;
 
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+import apps.sarafrika.elimika.shared.geo.internal.LocationChangeListener;
 import apps.sarafrika.elimika.shared.model.BaseEntity;
+import apps.sarafrika.elimika.shared.model.Locatable;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -11,11 +14,12 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "training_branches")
+@EntityListeners(LocationChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class TrainingBranch extends BaseEntity {
+public class TrainingBranch extends BaseEntity implements Locatable {
 
     @Column(name = "organisation_uuid")
     private UUID organisationUuid;
@@ -53,4 +57,9 @@ public class TrainingBranch extends BaseEntity {
 
     @Column(name = "deleted")
     private boolean deleted = false;
-}
\ No newline at end of file
+
+    @Override
+    public LocatedContentType locatedContentType() {
+        return LocatedContentType.TRAINING_BRANCH;
+    }
+}
@@ -1,5 +1,6 @@
 package apps.sarafrika.elimika.tenancy.entity;
 
+import apps.sarafrika.elimika.tenancy.internal.AuthorizationMappingChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -13,6 +14,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "user_domain_mapping")
+@EntityListeners(AuthorizationMappingChangeListener.class)
 @Getter
 @Setter
 @AllArgsConstructor
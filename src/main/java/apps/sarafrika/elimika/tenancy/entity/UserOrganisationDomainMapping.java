@@ -1,6 +1,7 @@
 package apps.sarafrika.elimika.tenancy.entity;
 
 import apps.sarafrika.elimika.shared.model.BaseEntity;
+import apps.sarafrika.elimika.tenancy.internal.AuthorizationMappingChangeListener;
 import apps.sarafrika.elimika.tenancy.util.enums.ConsentSource;
 import jakarta.persistence.*;
 import lombok.*;
@@ -12,6 +13,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "user_organisation_domain_mapping")
+@EntityListeners(AuthorizationMappingChangeListener.class)
 @Getter @Setter @ToString
 @SuperBuilder
 @NoArgsConstructor @AllArgsConstructor
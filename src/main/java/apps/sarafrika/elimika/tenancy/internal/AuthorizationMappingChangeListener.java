@@ -0,0 +1,45 @@
+package apps.sarafrika.elimika.tenancy.internal;
+
+import apps.sarafrika.elimika.shared.event.user.UserAuthorizationChangedEvent;
+import apps.sarafrika.elimika.tenancy.entity.UserDomainMapping;
+import apps.sarafrika.elimika.tenancy.entity.UserOrganisationDomainMapping;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Announces every write to a user's global or organisation-scoped domain mappings as a
+ * {@link UserAuthorizationChangedEvent}.
+ * <p>
+ * Mappings are written from a dozen places across tenancy - onboarding, invitations, affiliation,
+ * branch assignment, admin tooling - and any one of them can grant or revoke access. Hooking the
+ * entities rather than each call site means a new write path cannot forget to tell the
+ * authorization cache.
+ * <p>
+ * Resolved by Hibernate through Spring's bean container, so the publisher is injected as usual.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthorizationMappingChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onMappingChanged(Object entity) {
+        UUID userUuid = switch (entity) {
+            case UserDomainMapping mapping -> mapping.getUserUuid();
+            case UserOrganisationDomainMapping mapping -> mapping.getUserUuid();
+            default -> null;
+        };
+        if (userUuid != null) {
+            eventPublisher.publishEvent(new UserAuthorizationChangedEvent(userUuid));
+        }
+    }
+}
@@ -36,4 +36,27 @@ public interface OrganisationRepository extends JpaRepository<Organisation, Long
 
     @Query("SELECT COUNT(o) FROM Organisation o WHERE (o.adminVerified = false OR o.adminVerified IS NULL) AND o.deleted = false")
     long countPendingApproval();
+
+    /**
+     * Totals of organisations that are not deleted, for the admin dashboard, counted in one statement.
+     */
+    @Query("""
+            select count(o) as total,
+                   count(o) filter (where o.adminVerified = false or o.adminVerified is null) as pendingApproval,
+                   count(o) filter (where o.active = true) as active,
+                   count(o) filter (where o.active = false) as inactive
+            from Organisation o
+            where o.deleted = false
+            """)
+    DashboardCounts countForDashboard();
+
+    interface DashboardCounts {
+        long getTotal();
+
+        long getPendingApproval();
+
+        long getActive();
+
+        long getInactive();
+    }
 }
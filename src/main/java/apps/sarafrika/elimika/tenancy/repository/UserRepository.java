@@ -51,4 +51,27 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     long countByLastModifiedDateAfter(LocalDateTime lastModifiedDate);
 
     List<User> findByCreatedDateBetween(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * User totals for the admin dashboard, counted in one pass over the table.
+     */
+    @Query("""
+            select count(u) as total,
+                   count(u) filter (where u.active = false) as suspended,
+                   count(u) filter (where u.lastModifiedDate > :activeSince) as activeSince,
+                   count(u) filter (where u.createdDate > :registeredSince) as registeredSince
+            from User u
+            """)
+    DashboardCounts countForDashboard(@Param("activeSince") LocalDateTime activeSince,
+                                      @Param("registeredSince") LocalDateTime registeredSince);
+
+    interface DashboardCounts {
+        long getTotal();
+
+        long getSuspended();
+
+        long getActiveSince();
+
+        long getRegisteredSince();
+    }
 }
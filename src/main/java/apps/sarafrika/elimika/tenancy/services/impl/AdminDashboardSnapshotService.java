@@ -0,0 +1,267 @@
+package apps.sarafrika.elimika.tenancy.services.impl;
+
+import apps.sarafrika.elimika.authentication.spi.KeycloakAdminEventService;
+import apps.sarafrika.elimika.authentication.spi.KeycloakAdminEventSummary;
+import apps.sarafrika.elimika.shared.spi.analytics.CommerceAnalyticsService;
+import apps.sarafrika.elimika.shared.spi.analytics.CommerceAnalyticsSnapshot;
+import apps.sarafrika.elimika.shared.spi.analytics.CourseAnalyticsService;
+import apps.sarafrika.elimika.shared.spi.analytics.CourseAnalyticsSnapshot;
+import apps.sarafrika.elimika.shared.spi.analytics.CourseCreatorAnalyticsService;
+import apps.sarafrika.elimika.shared.spi.analytics.CourseCreatorAnalyticsSnapshot;
+import apps.sarafrika.elimika.shared.spi.analytics.InstructorAnalyticsService;
+import apps.sarafrika.elimika.shared.spi.analytics.InstructorAnalyticsSnapshot;
+import apps.sarafrika.elimika.shared.spi.analytics.NotificationAnalyticsService;
+import apps.sarafrika.elimika.shared.spi.analytics.NotificationAnalyticsSnapshot;
+import apps.sarafrika.elimika.shared.spi.analytics.TimetablingAnalyticsService;
+import apps.sarafrika.elimika.shared.spi.analytics.TimetablingAnalyticsSnapshot;
+import apps.sarafrika.elimika.tenancy.repository.OrganisationRepository;
+import apps.sarafrika.elimika.tenancy.repository.UserDomainMappingRepository;
+import apps.sarafrika.elimika.tenancy.repository.UserDomainRepository;
+import apps.sarafrika.elimika.tenancy.repository.UserOrganisationDomainMappingRepository;
+import apps.sarafrika.elimika.tenancy.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Captures and caches everything the admin dashboard counts.
+ * <p>
+ * A capture asks each module for its snapshot at the same time, each on its own virtual thread and
+ * in its own read-only transaction, so the dashboard takes as long as its slowest module rather than
+ * the sum of them. The Keycloak event summary is fetched alongside, outside any transaction.
+ * <p>
+ * The last capture is served for {@code app.admin-dashboard.freshness}. After that it is still
+ * served, stale, while one background capture replaces it; concurrent callers share that capture
+ * rather than starting their own. Only the very first request waits for a capture. A failed capture
+ * is logged and the previous snapshot keeps being served until one succeeds.
+ */
+@Component
+@Slf4j
+class AdminDashboardSnapshotService {
+
+    private static final String SYSTEM_ADMIN_DOMAIN = "admin";
+    private static final String ORGANISATION_ADMIN_DOMAIN = "organisation_user";
+
+    private final UserRepository userRepository;
+    private final OrganisationRepository organisationRepository;
+    private final UserDomainRepository userDomainRepository;
+    private final UserDomainMappingRepository userDomainMappingRepository;
+    private final UserOrganisationDomainMappingRepository userOrganisationDomainMappingRepository;
+    private final CourseAnalyticsService courseAnalyticsService;
+    private final TimetablingAnalyticsService timetablingAnalyticsService;
+    private final CommerceAnalyticsService commerceAnalyticsService;
+    private final NotificationAnalyticsService notificationAnalyticsService;
+    private final InstructorAnalyticsService instructorAnalyticsService;
+    private final CourseCreatorAnalyticsService courseCreatorAnalyticsService;
+    private final KeycloakAdminEventService keycloakAdminEventService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration freshness;
+    private final AtomicReference<CompletableFuture<AdminDashboardSnapshot>> inFlight = new AtomicReference<>();
+
+    private volatile AdminDashboardSnapshot latest;
+
+    AdminDashboardSnapshotService(
+            UserRepository userRepository,
+            OrganisationRepository organisationRepository,
+            UserDomainRepository userDomainRepository,
+            UserDomainMappingRepository userDomainMappingRepository,
+            UserOrganisationDomainMappingRepository userOrganisationDomainMappingRepository,
+            CourseAnalyticsService courseAnalyticsService,
+            TimetablingAnalyticsService timetablingAnalyticsService,
+            CommerceAnalyticsService commerceAnalyticsService,
+            NotificationAnalyticsService notificationAnalyticsService,
+            InstructorAnalyticsService instructorAnalyticsService,
+            CourseCreatorAnalyticsService courseCreatorAnalyticsService,
+            KeycloakAdminEventService keycloakAdminEventService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.admin-dashboard.freshness:PT30S}") Duration freshness) {
+        this.userRepository = userRepository;
+        this.organisationRepository = organisationRepository;
+        this.userDomainRepository = userDomainRepository;
+        this.userDomainMappingRepository = userDomainMappingRepository;
+        this.userOrganisationDomainMappingRepository = userOrganisationDomainMappingRepository;
+        this.courseAnalyticsService = courseAnalyticsService;
+        this.timetablingAnalyticsService = timetablingAnalyticsService;
+        this.commerceAnalyticsService = commerceAnalyticsService;
+        this.notificationAnalyticsService = notificationAnalyticsService;
+        this.instructorAnalyticsService = instructorAnalyticsService;
+        this.courseCreatorAnalyticsService = courseCreatorAnalyticsService;
+        this.keycloakAdminEventService = keycloakAdminEventService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.freshness = freshness;
+    }
+
+    /**
+     * The latest snapshot, capturing one first only if none has been captured yet. A snapshot older
+     * than the freshness window is returned as is and replaced in the background.
+     */
+    AdminDashboardSnapshot current() {
+        AdminDashboardSnapshot snapshot = latest;
+        if (snapshot == null) {
+            return await(refresh());
+        }
+        if (!snapshot.capturedAt().plus(freshness).isAfter(LocalDateTime.now())) {
+            refresh();
+        }
+        return snapshot;
+    }
+
+    /**
+     * The capture in progress, or a new one if none is.
+     */
+    private CompletableFuture<AdminDashboardSnapshot> refresh() {
+        while (true) {
+            CompletableFuture<AdminDashboardSnapshot> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<AdminDashboardSnapshot> started = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, started)) {
+                Thread.ofVirtual().name("admin-dashboard-refresh").start(() -> {
+                    try {
+                        AdminDashboardSnapshot captured = capture();
+                        latest = captured;
+                        started.complete(captured);
+                    } catch (RuntimeException ex) {
+                        log.warn("Could not capture admin dashboard statistics: {}", ex.getMessage());
+                        started.completeExceptionally(ex);
+                    } finally {
+                        inFlight.set(null);
+                    }
+                });
+                return started;
+            }
+        }
+    }
+
+    AdminDashboardSnapshot capture() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime twentyFourHoursAgo = now.minusHours(24);
+        LocalDateTime sevenDaysAgo = now.minusDays(7);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<CourseAnalyticsSnapshot> courses =
+                    executor.submit(() -> readOnly(courseAnalyticsService::captureSnapshot));
+            Future<TimetablingAnalyticsSnapshot> timetabling =
+                    executor.submit(() -> readOnly(timetablingAnalyticsService::captureSnapshot));
+            Future<CommerceAnalyticsSnapshot> commerce =
+                    executor.submit(() -> readOnly(commerceAnalyticsService::captureSnapshot));
+            Future<NotificationAnalyticsSnapshot> notifications =
+                    executor.submit(() -> readOnly(notificationAnalyticsService::captureSnapshot));
+            Future<InstructorAnalyticsSnapshot> instructors =
+                    executor.submit(() -> readOnly(instructorAnalyticsService::captureSnapshot));
+            Future<CourseCreatorAnalyticsSnapshot> courseCreators =
+                    executor.submit(() -> readOnly(courseCreatorAnalyticsService::captureSnapshot));
+            Future<KeycloakAdminEventSummary> keycloakEvents =
+                    executor.submit(keycloakAdminEventService::getAdminEventSummary);
+            Future<TenancyCounts> tenancy =
+                    executor.submit(() -> readOnly(() -> countTenancy(twentyFourHoursAgo, sevenDaysAgo)));
+
+            return new AdminDashboardSnapshot(
+                    now,
+                    await(courses),
+                    await(timetabling),
+                    await(commerce),
+                    await(notifications),
+                    await(instructors),
+                    await(courseCreators),
+                    await(keycloakEvents),
+                    await(tenancy));
+        }
+    }
+
+    private TenancyCounts countTenancy(LocalDateTime activeSince, LocalDateTime registeredSince) {
+        UserRepository.DashboardCounts users = userRepository.countForDashboard(activeSince, registeredSince);
+        OrganisationRepository.DashboardCounts organisations = organisationRepository.countForDashboard();
+        long systemAdmins = userDomainRepository.findByDomainName(SYSTEM_ADMIN_DOMAIN)
+                .map(domain -> userDomainMappingRepository.countByUserDomainUuid(domain.getUuid()))
+                .orElse(0L);
+        long organisationAdmins = userOrganisationDomainMappingRepository.countActiveByDomainName(ORGANISATION_ADMIN_DOMAIN);
+
+        return new TenancyCounts(
+                users.getTotal(),
+                users.getActiveSince(),
+                users.getRegisteredSince(),
+                users.getSuspended(),
+                organisations.getTotal(),
+                organisations.getPendingApproval(),
+                organisations.getActive(),
+                organisations.getInactive(),
+                systemAdmins,
+                organisationAdmins);
+    }
+
+    private <T> T readOnly(Supplier<T> query) {
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while capturing admin dashboard statistics", ex);
+        } catch (ExecutionException ex) {
+            throw rethrow(ex.getCause());
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw rethrow(ex.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException("Could not capture admin dashboard statistics", cause);
+    }
+
+    /**
+     * Everything the admin dashboard counts, as of {@code capturedAt}.
+     */
+    record AdminDashboardSnapshot(
+            LocalDateTime capturedAt,
+            CourseAnalyticsSnapshot courses,
+            TimetablingAnalyticsSnapshot timetabling,
+            CommerceAnalyticsSnapshot commerce,
+            NotificationAnalyticsSnapshot notifications,
+            InstructorAnalyticsSnapshot instructors,
+            CourseCreatorAnalyticsSnapshot courseCreators,
+            KeycloakAdminEventSummary keycloakEvents,
+            TenancyCounts tenancy
+    ) {
+    }
+
+    record TenancyCounts(
+            long totalUsers,
+            long activeUsers24h,
+            long newRegistrations7d,
+            long suspendedUsers,
+            long totalOrganizations,
+            long pendingApprovals,
+            long activeOrganizations,
+            long suspendedOrganizations,
+            long systemAdmins,
+            long organizationAdmins
+    ) {
+    }
+}
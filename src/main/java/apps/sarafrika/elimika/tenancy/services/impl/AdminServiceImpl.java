@@ -1,20 +1,13 @@
 package apps.sarafrika.elimika.tenancy.services.impl;
 
-import apps.sarafrika.elimika.authentication.spi.KeycloakAdminEventService;
 import apps.sarafrika.elimika.authentication.spi.KeycloakAdminEventSummary;
 import apps.sarafrika.elimika.coursecreator.spi.CourseCreatorLookupService;
 import apps.sarafrika.elimika.instructor.spi.InstructorLookupService;
-import apps.sarafrika.elimika.shared.spi.analytics.CommerceAnalyticsService;
 import apps.sarafrika.elimika.shared.spi.analytics.CommerceAnalyticsSnapshot;
-import apps.sarafrika.elimika.shared.spi.analytics.CourseAnalyticsService;
 import apps.sarafrika.elimika.shared.spi.analytics.CourseAnalyticsSnapshot;
-import apps.sarafrika.elimika.shared.spi.analytics.CourseCreatorAnalyticsService;
 import apps.sarafrika.elimika.shared.spi.analytics.CourseCreatorAnalyticsSnapshot;
-import apps.sarafrika.elimika.shared.spi.analytics.InstructorAnalyticsService;
 import apps.sarafrika.elimika.shared.spi.analytics.InstructorAnalyticsSnapshot;
-import apps.sarafrika.elimika.shared.spi.analytics.NotificationAnalyticsService;
 import apps.sarafrika.elimika.shared.spi.analytics.NotificationAnalyticsSnapshot;
-import apps.sarafrika.elimika.shared.spi.analytics.TimetablingAnalyticsService;
 import apps.sarafrika.elimika.shared.spi.analytics.TimetablingAnalyticsSnapshot;
 import apps.sarafrika.elimika.shared.exceptions.ResourceNotFoundException;
 import io.micrometer.core.instrument.Gauge;
@@ -61,7 +54,6 @@ import org.springframework.context.ApplicationEventPublisher;
 
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
@@ -95,13 +87,7 @@ public class AdminServiceImpl implements AdminService {
     private final InstructorManagementService instructorManagementService;
     private final InstructorLookupService instructorLookupService;
     private final CourseCreatorLookupService courseCreatorLookupService;
-    private final CourseAnalyticsService courseAnalyticsService;
-    private final TimetablingAnalyticsService timetablingAnalyticsService;
-    private final CommerceAnalyticsService commerceAnalyticsService;
-    private final NotificationAnalyticsService notificationAnalyticsService;
-    private final InstructorAnalyticsService instructorAnalyticsService;
-    private final CourseCreatorAnalyticsService courseCreatorAnalyticsService;
-    private final KeycloakAdminEventService keycloakAdminEventService;
+    private final AdminDashboardSnapshotService adminDashboardSnapshotService;
     private final RequestAuditLogRepository requestAuditLogRepository;
     private final MeterRegistry meterRegistry;
     private final KeycloakUserService keycloakUserService;
@@ -418,61 +404,40 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public AdminDashboardStatsDTO getDashboardStatistics() {
         log.debug("Generating admin dashboard statistics");
 
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime twentyFourHoursAgo = now.minusHours(24);
-        LocalDateTime sevenDaysAgo = now.minusDays(7);
-
-        // Cross-module snapshots
-        CourseAnalyticsSnapshot courseAnalytics = courseAnalyticsService.captureSnapshot();
-        TimetablingAnalyticsSnapshot timetablingAnalytics = timetablingAnalyticsService.captureSnapshot();
-        CommerceAnalyticsSnapshot commerceAnalytics = commerceAnalyticsService.captureSnapshot();
-        NotificationAnalyticsSnapshot notificationAnalytics = notificationAnalyticsService.captureSnapshot();
-        InstructorAnalyticsSnapshot instructorAnalytics = instructorAnalyticsService.captureSnapshot();
-        CourseCreatorAnalyticsSnapshot courseCreatorAnalytics = courseCreatorAnalyticsService.captureSnapshot();
-        KeycloakAdminEventSummary keycloakAdminEventSummary = keycloakAdminEventService.getAdminEventSummary();
-
-        // User metrics
-        long totalUsers = userRepository.count();
-        long suspendedUsers = userRepository.countByActiveFalse();
-        long activeUsers24h = userRepository.countByLastModifiedDateAfter(twentyFourHoursAgo);
-        long newRegistrations7d = userRepository.countByCreatedDateAfter(sevenDaysAgo);
-
-        // Organization metrics
-        long totalOrganizations = organisationRepository.countByDeletedFalse();
-        long pendingApprovals = organisationRepository.countPendingApproval();
-        long activeOrganizations = organisationRepository.countByActiveTrueAndDeletedFalse();
-        long suspendedOrganizations = organisationRepository.countByActiveFalseAndDeletedFalse();
-
-        // Admin metrics
-        UserDomain adminDomain = userDomainRepository.findByDomainName("admin").orElse(null);
-        long systemAdmins = adminDomain != null ?
-                userDomainMappingRepository.countByUserDomainUuid(adminDomain.getUuid()) : 0;
-
-        long organizationAdmins = userOrganisationDomainMappingRepository
-                .countActiveByDomainName("organisation_user");
-
+        AdminDashboardSnapshotService.AdminDashboardSnapshot snapshot = adminDashboardSnapshotService.current();
+        CourseAnalyticsSnapshot courseAnalytics = snapshot.courses();
+        TimetablingAnalyticsSnapshot timetablingAnalytics = snapshot.timetabling();
+        CommerceAnalyticsSnapshot commerceAnalytics = snapshot.commerce();
+        NotificationAnalyticsSnapshot notificationAnalytics = snapshot.notifications();
+        InstructorAnalyticsSnapshot instructorAnalytics = snapshot.instructors();
+        CourseCreatorAnalyticsSnapshot courseCreatorAnalytics = snapshot.courseCreators();
+        KeycloakAdminEventSummary keycloakAdminEventSummary = snapshot.keycloakEvents();
+        AdminDashboardSnapshotService.TenancyCounts tenancy = snapshot.tenancy();
+
+        long systemAdmins = tenancy.systemAdmins();
+        long organizationAdmins = tenancy.organizationAdmins();
         long totalAdmins = systemAdmins + organizationAdmins;
 
+        // Performance figures are read live from the meter registry; they cost nothing to collect.
         AdminDashboardStatsDTO.SystemPerformance systemPerformance = buildSystemPerformance();
 
         return new AdminDashboardStatsDTO(
-                now,
+                snapshot.capturedAt(),
                 "HEALTHY",
                 new AdminDashboardStatsDTO.UserMetrics(
-                        totalUsers,
-                        activeUsers24h,
-                        newRegistrations7d,
-                        suspendedUsers
+                        tenancy.totalUsers(),
+                        tenancy.activeUsers24h(),
+                        tenancy.newRegistrations7d(),
+                        tenancy.suspendedUsers()
                 ),
                 new AdminDashboardStatsDTO.OrganizationMetrics(
-                        totalOrganizations,
-                        pendingApprovals,
-                        activeOrganizations,
-                        suspendedOrganizations
+                        tenancy.totalOrganizations(),
+                        tenancy.pendingApprovals(),
+                        tenancy.activeOrganizations(),
+                        tenancy.suspendedOrganizations()
                 ),
                 new AdminDashboardStatsDTO.ContentMetrics(
                         courseAnalytics.totalCourses(),
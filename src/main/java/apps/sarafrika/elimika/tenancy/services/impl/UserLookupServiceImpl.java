@@ -14,7 +14,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -159,6 +161,17 @@ public class UserLookupServiceImpl implements UserLookupService {
         }
     }
 
+    @Override
+    public Map<UUID, Set<UserDomain>> getActiveOrganisationDomains(UUID userUuid) {
+        Map<UUID, Set<UserDomain>> byOrganisation = new HashMap<>();
+        for (UserOrganisationDomainMapping mapping :
+                userOrganisationDomainMappingRepository.findByUserUuidAndActiveTrueAndDeletedFalse(userUuid)) {
+            addIfKnown(byOrganisation.computeIfAbsent(mapping.getOrganisationUuid(),
+                    organisationUuid -> EnumSet.noneOf(UserDomain.class)), mapping.getDomain().getDomainName());
+        }
+        return byOrganisation;
+    }
+
     @Override
     public List<UUID> getUserOrganizations(UUID userUuid) {
         List<UserOrganisationDomainMapping> mappings =
@@ -4,6 +4,7 @@ import apps.sarafrika.elimika.shared.utils.enums.UserDomain;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -119,6 +120,19 @@ public interface UserLookupService {
      */
     Set<UserDomain> getEffectiveUserDomains(UUID userUuid);
 
+    /**
+     * Returns the domains the user actively holds inside each organisation, keyed by organisation
+     * UUID. Only active, non-deleted organisation mappings count; organisations without one are
+     * absent from the map.
+     * <p>
+     * One load answers every {@link #userBelongsToOrganizationWithDomain(UUID, UUID, UserDomain)}
+     * question about this user, which otherwise costs a query per organisation tested.
+     *
+     * @param userUuid The UUID of the user
+     * @return organisation UUID to the user's domains in it, never null
+     */
+    Map<UUID, Set<UserDomain>> getActiveOrganisationDomains(UUID userUuid);
+
     /**
      * Gets the organization UUIDs for a user.
      *
@@ -0,0 +1,52 @@
+package apps.sarafrika.elimika.timetabling.internal;
+
+import apps.sarafrika.elimika.shared.spi.HoldExpiryHandler;
+import apps.sarafrika.elimika.timetabling.repository.EnrollmentRepository;
+import apps.sarafrika.elimika.timetabling.spi.EnrollmentStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Lapses class seats held through checkout once their {@code reserved_until} passes, for the shared
+ * hold-expiry scheduler.
+ * <p>
+ * A seat hold normally ends with the payment: captured, it becomes an enrolment; abandoned, the
+ * payment reconciliation releases it. This is what frees the seat when neither happens, so a buyer
+ * who walked away mid-checkout cannot keep the last place on a class indefinitely.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatHoldExpiryHandler implements HoldExpiryHandler {
+
+    public static final String HOLD_TYPE = "class-seat";
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    @Override
+    public String holdType() {
+        return HOLD_TYPE;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> findNextExpiry() {
+        return enrollmentRepository.findEarliestSeatHoldExpiry(EnrollmentStatus.RESERVED);
+    }
+
+    @Override
+    @Transactional
+    public int expireHoldsDueBy(LocalDateTime cutoff) {
+        int released = enrollmentRepository.releaseSeatHoldsDueBy(
+                EnrollmentStatus.RESERVED, EnrollmentStatus.CANCELLED, cutoff);
+        if (released > 0) {
+            log.info("Released {} lapsed class seat holds", released);
+        }
+        return released;
+    }
+}
@@ -9,20 +9,35 @@ import apps.sarafrika.elimika.timetabling.model.ScheduledInstance;
 import apps.sarafrika.elimika.timetabling.repository.EnrollmentRepository;
 import apps.sarafrika.elimika.timetabling.repository.ScheduledInstanceRepository;
 import apps.sarafrika.elimika.timetabling.spi.EnrollmentStatus;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
-
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends the "class starts soon" popup to the instructor and enrolled students of a scheduled
+ * instance once its class's reminder lead time is reached.
+ * <p>
+ * Due times are not worked out here. {@code scheduled_instance_reminders} holds one row per upcoming
+ * instance with its due time, kept by trigger whenever an instance is created or rescheduled or its
+ * class changes its lead time. Each run claims only the rows that have fallen due and are still
+ * unsent, resolves the recipients of the whole batch with one enrolment query and one user lookup per
+ * role, publishes, and marks the batch sent. A quiet minute therefore costs one index probe, however
+ * many classes are on the calendar.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 class UpcomingClassReminderScheduler {
 
@@ -32,43 +47,100 @@ class UpcomingClassReminderScheduler {
     private final StudentLookupService studentLookupService;
     private final InstructorLookupService instructorLookupService;
     private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    UpcomingClassReminderScheduler(
+            ScheduledInstanceRepository scheduledInstanceRepository,
+            EnrollmentRepository enrollmentRepository,
+            ClassDefinitionLookupService classDefinitionLookupService,
+            StudentLookupService studentLookupService,
+            InstructorLookupService instructorLookupService,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.class-reminders.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Class reminder batch size must be positive");
+        }
+        this.scheduledInstanceRepository = scheduledInstanceRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.classDefinitionLookupService = classDefinitionLookupService;
+        this.studentLookupService = studentLookupService;
+        this.instructorLookupService = instructorLookupService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
 
     @Scheduled(cron = "0 * * * * *")
+    @Transactional
     void sendUpcomingClassReminders() {
         LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
-        List<ScheduledInstance> upcomingInstances = scheduledInstanceRepository
-                .findScheduledInstancesStartingBetween(now, now.plusHours(24));
-
-        for (ScheduledInstance instance : upcomingInstances) {
-            publishReminderIfDue(instance, now);
+        int sent = 0;
+        List<DueReminder> batch;
+        do {
+            batch = claimDueReminders(now);
+            if (batch.isEmpty()) {
+                break;
+            }
+            publishReminders(batch);
+            scheduledInstanceRepository.markRemindersSent(
+                    batch.stream().map(DueReminder::instanceUuid).toList(), now);
+            sent += batch.size();
+        } while (batch.size() == batchSize);
+
+        if (sent > 0) {
+            log.debug("Sent upcoming class reminders for {} scheduled instances", sent);
         }
     }
 
-    private void publishReminderIfDue(ScheduledInstance instance, LocalDateTime now) {
-        ClassDefinitionLookupService.ClassDefinitionSnapshot snapshot = instance.getClassDefinitionUuid() == null
-                ? null
-                : classDefinitionLookupService.findByUuid(instance.getClassDefinitionUuid()).orElse(null);
-        Integer reminderMinutes = snapshot == null ? null : snapshot.classReminderMinutes();
-        if (reminderMinutes == null || reminderMinutes < 0 || instance.getStartTime() == null) {
-            return;
-        }
+    private List<DueReminder> claimDueReminders(LocalDateTime now) {
+        return scheduledInstanceRepository.lockDueReminders(now, batchSize).stream()
+                .map(row -> new DueReminder((UUID) row[0], ((Number) row[1]).intValue()))
+                .toList();
+    }
 
-        LocalDateTime reminderAt = instance.getStartTime().minusMinutes(reminderMinutes);
-        if (now.isBefore(reminderAt) || !now.isBefore(instance.getStartTime())) {
-            return;
+    private void publishReminders(List<DueReminder> batch) {
+        List<UUID> instanceUuids = batch.stream().map(DueReminder::instanceUuid).toList();
+        Map<UUID, ScheduledInstance> instances = scheduledInstanceRepository.findByUuidIn(instanceUuids).stream()
+                .collect(Collectors.toMap(ScheduledInstance::getUuid, Function.identity()));
+
+        Map<UUID, ClassDefinitionLookupService.ClassDefinitionSnapshot> snapshots = new HashMap<>();
+        instances.values().stream()
+                .map(ScheduledInstance::getClassDefinitionUuid)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(classDefinitionUuid -> classDefinitionLookupService.findByUuid(classDefinitionUuid)
+                        .ifPresent(snapshot -> snapshots.put(classDefinitionUuid, snapshot)));
+
+        Map<UUID, List<Enrollment>> enrollmentsByInstance = enrollmentRepository
+                .findByScheduledInstanceUuidInAndStatus(instanceUuids, EnrollmentStatus.ENROLLED).stream()
+                .filter(enrollment -> enrollment.getStudentUuid() != null)
+                .collect(Collectors.groupingBy(Enrollment::getScheduledInstanceUuid));
+
+        Map<UUID, UUID> instructorUserUuids = instructorLookupService.getInstructorUserUuids(
+                instances.values().stream()
+                        .map(ScheduledInstance::getInstructorUuid)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()));
+        Map<UUID, UUID> studentUserUuids = studentLookupService.getStudentUserUuids(
+                enrollmentsByInstance.values().stream()
+                        .flatMap(List::stream)
+                        .map(Enrollment::getStudentUuid)
+                        .collect(Collectors.toSet()));
+
+        for (DueReminder reminder : batch) {
+            ScheduledInstance instance = instances.get(reminder.instanceUuid());
+            if (instance == null) {
+                continue;
+            }
+            String classTitle = resolveClassTitle(instance, snapshots.get(instance.getClassDefinitionUuid()));
+            publishInstructorReminder(instance, classTitle, reminder.reminderMinutes(),
+                    instance.getInstructorUuid() == null ? null : instructorUserUuids.get(instance.getInstructorUuid()));
+            publishStudentReminders(instance, classTitle, reminder.reminderMinutes(),
+                    enrollmentsByInstance.getOrDefault(instance.getUuid(), List.of()), studentUserUuids);
         }
-
-        String classTitle = resolveClassTitle(instance, snapshot);
-        publishInstructorReminder(instance, classTitle, reminderMinutes);
-        publishStudentReminders(instance, classTitle, reminderMinutes);
     }
 
-    private void publishInstructorReminder(ScheduledInstance instance, String classTitle, int reminderMinutes) {
-        if (instance.getInstructorUuid() == null) {
-            return;
-        }
-        UUID recipientUserUuid = instructorLookupService.getInstructorUserUuid(instance.getInstructorUuid())
-                .orElse(null);
+    private void publishInstructorReminder(ScheduledInstance instance, String classTitle, int reminderMinutes,
+                                           UUID recipientUserUuid) {
         if (recipientUserUuid == null) {
             return;
         }
@@ -85,18 +157,10 @@ class UpcomingClassReminderScheduler {
         ));
     }
 
-    private void publishStudentReminders(ScheduledInstance instance, String classTitle, int reminderMinutes) {
-        List<Enrollment> enrollments = enrollmentRepository.findByScheduledInstanceUuidAndStatus(
-                instance.getUuid(),
-                EnrollmentStatus.ENROLLED
-        );
-
+    private void publishStudentReminders(ScheduledInstance instance, String classTitle, int reminderMinutes,
+                                         List<Enrollment> enrollments, Map<UUID, UUID> studentUserUuids) {
         for (Enrollment enrollment : enrollments) {
-            if (enrollment.getStudentUuid() == null) {
-                continue;
-            }
-            UUID recipientUserUuid = studentLookupService.getStudentUserUuid(enrollment.getStudentUuid())
-                    .orElse(null);
+            UUID recipientUserUuid = studentUserUuids.get(enrollment.getStudentUuid());
             if (recipientUserUuid == null) {
                 continue;
             }
@@ -141,4 +205,7 @@ class UpcomingClassReminderScheduler {
         }
         return "/dashboard/classes/schedule/" + instance.getUuid();
     }
+
+    private record DueReminder(UUID instanceUuid, int reminderMinutes) {
+    }
 }
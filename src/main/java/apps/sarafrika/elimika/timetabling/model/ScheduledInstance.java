@@ -1,6 +1,9 @@
 package apps.sarafrika.elimika.timetabling.model;
 
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+import apps.sarafrika.elimika.shared.geo.internal.LocationChangeListener;
 import apps.sarafrika.elimika.shared.model.BaseEntity;
+import apps.sarafrika.elimika.shared.model.Locatable;
 import apps.sarafrika.elimika.timetabling.util.converter.SchedulingStatusConverter;
 import apps.sarafrika.elimika.timetabling.spi.SchedulingStatus;
 import jakarta.persistence.*;
@@ -25,11 +28,12 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "scheduled_instances")
+@EntityListeners(LocationChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class ScheduledInstance extends BaseEntity {
+public class ScheduledInstance extends BaseEntity implements Locatable {
     
     @Column(name = "class_definition_uuid")
     private UUID classDefinitionUuid;
@@ -76,4 +80,9 @@ public class ScheduledInstance extends BaseEntity {
 
     @Column(name = "concluded_at")
     private LocalDateTime concludedAt;
+
+    @Override
+    public LocatedContentType locatedContentType() {
+        return LocatedContentType.SCHEDULED_INSTANCE;
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -64,10 +65,14 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, J
 
     List<Enrollment> findByScheduledInstanceUuidAndStatus(UUID scheduledInstanceUuid, EnrollmentStatus status);
 
+    List<Enrollment> findByScheduledInstanceUuidInAndStatus(Collection<UUID> scheduledInstanceUuids, EnrollmentStatus status);
+
     Optional<Enrollment> findByScheduledInstanceUuidAndStudentUuid(UUID scheduledInstanceUuid, UUID studentUuid);
 
     boolean existsByScheduledInstanceUuidAndStudentUuid(UUID scheduledInstanceUuid, UUID studentUuid);
 
+    List<Enrollment> findByStudentUuidAndScheduledInstanceUuidIn(UUID studentUuid, Collection<UUID> scheduledInstanceUuids);
+
     @Query("SELECT e FROM Enrollment e JOIN ScheduledInstance si ON e.scheduledInstanceUuid = si.uuid " +
            "WHERE e.studentUuid = :studentUuid " +
            "AND si.startTime >= :startTime AND si.endTime <= :endTime " +
@@ -160,14 +165,6 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, J
            "(SELECT si.uuid FROM ScheduledInstance si WHERE si.status = 'ONGOING')")
     List<Enrollment> findEnrollmentsNeedingAttendance();
 
-    @Query("SELECT e FROM Enrollment e JOIN ScheduledInstance si ON e.scheduledInstanceUuid = si.uuid " +
-           "WHERE e.studentUuid = :studentUuid " +
-           "AND si.startTime <= :endTime AND si.endTime >= :startTime " +
-           "AND e.status NOT IN ('CANCELLED')")
-    List<Enrollment> findOverlappingEnrollmentsForStudent(@Param("studentUuid") UUID studentUuid,
-                                                        @Param("startTime") LocalDateTime startTime,
-                                                        @Param("endTime") LocalDateTime endTime);
-
     long countByStatusAndAttendanceMarkedAtBetween(EnrollmentStatus status, LocalDateTime start, LocalDateTime end);
 
     long countByStatusAndCreatedDateBetween(EnrollmentStatus status, LocalDateTime start, LocalDateTime end);
@@ -261,4 +258,43 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, J
            nativeQuery = true)
     List<Object[]> findStudentPerformanceForOrganisation(@Param("organisationUuid") UUID organisationUuid,
                                                          @Param("studentUuid") UUID studentUuid);
+
+    /**
+     * Attendance totals for the admin dashboard: attended and absent enrolments marked in
+     * {@code [from, to]}, in one statement.
+     */
+    @Query("""
+            select count(e) filter (where e.status = :attended) as attended,
+                   count(e) filter (where e.status = :absent) as absent
+            from Enrollment e
+            where e.attendanceMarkedAt between :from and :to
+            """)
+    AttendanceCounts countAttendanceForDashboard(@Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 @Param("attended") EnrollmentStatus attended,
+                                                 @Param("absent") EnrollmentStatus absent);
+
+    /**
+     * Gives back every seat still {@code RESERVED} whose hold lapsed at or before {@code cutoff}, in one
+     * statement. The seat counter trigger frees each seat as its row leaves {@code RESERVED}, and a
+     * payment captured at the same moment has already moved its row to {@code ENROLLED}.
+     */
+    @Modifying
+    @Query("""
+            update Enrollment e
+            set e.status = :cancelled, e.reservedUntil = null, e.lastModifiedDate = :cutoff
+            where e.status = :reserved and e.reservedUntil <= :cutoff
+            """)
+    int releaseSeatHoldsDueBy(@Param("reserved") EnrollmentStatus reserved,
+                              @Param("cancelled") EnrollmentStatus cancelled,
+                              @Param("cutoff") LocalDateTime cutoff);
+
+    @Query("select min(e.reservedUntil) from Enrollment e where e.status = :reserved")
+    Optional<LocalDateTime> findEarliestSeatHoldExpiry(@Param("reserved") EnrollmentStatus reserved);
+
+    interface AttendanceCounts {
+        long getAttended();
+
+        long getAbsent();
+    }
 }
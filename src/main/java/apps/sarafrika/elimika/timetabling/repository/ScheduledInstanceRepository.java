@@ -4,6 +4,7 @@ import apps.sarafrika.elimika.timetabling.model.ScheduledInstance;
 import apps.sarafrika.elimika.timetabling.spi.SchedulingStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -60,6 +61,18 @@ public interface ScheduledInstanceRepository extends JpaRepository<ScheduledInst
                                                                 @Param("startTime") LocalDateTime startTime,
                                                                 @Param("endTime") LocalDateTime endTime);
 
+    /**
+     * Sessions the student holds a non-cancelled enrolment in that overlap the range - the student's
+     * busy time, loaded once for a whole batch of windows.
+     */
+    @Query("SELECT si FROM ScheduledInstance si WHERE si.uuid IN (" +
+           "SELECT e.scheduledInstanceUuid FROM Enrollment e " +
+           "WHERE e.studentUuid = :studentUuid AND e.status NOT IN ('CANCELLED')) " +
+           "AND si.startTime < :endTime AND si.endTime > :startTime")
+    List<ScheduledInstance> findOverlappingInstancesForStudent(@Param("studentUuid") UUID studentUuid,
+                                                               @Param("startTime") LocalDateTime startTime,
+                                                               @Param("endTime") LocalDateTime endTime);
+
     @Query("SELECT si FROM ScheduledInstance si WHERE si.status = 'SCHEDULED' AND si.startTime <= :currentTime")
     List<ScheduledInstance> findScheduledInstancesPastStartTime(@Param("currentTime") LocalDateTime currentTime);
 
@@ -93,4 +106,119 @@ public interface ScheduledInstanceRepository extends JpaRepository<ScheduledInst
     long countByStatusAndEndTimeBetween(SchedulingStatus status, LocalDateTime start, LocalDateTime end);
 
     long countByClassDefinitionUuid(UUID classDefinitionUuid);
+
+    /**
+     * Seat counters for the given instances, read without locking. Returns rows of
+     * {@code [scheduled_instance_uuid (UUID), max_participants (Integer), seats_taken (Number)]}; an
+     * instance whose counter row is missing falls back to counting its enrolments.
+     */
+    @Query(value = "SELECT si.uuid, si.max_participants, " +
+                   "COALESCE(c.seats_taken, (SELECT COUNT(*) FROM class_enrollments ce " +
+                   "WHERE ce.scheduled_instance_uuid = si.uuid " +
+                   "AND ce.status NOT IN ('CANCELLED', 'WAITLISTED'))) " +
+                   "FROM scheduled_instances si " +
+                   "LEFT JOIN scheduled_instance_seat_counters c ON c.scheduled_instance_uuid = si.uuid " +
+                   "WHERE si.uuid IN (:instanceUuids)",
+           nativeQuery = true)
+    List<Object[]> findSeatCounters(@Param("instanceUuids") Collection<UUID> instanceUuids);
+
+    /**
+     * Same rows as {@link #findSeatCounters}, but locks every counter until the calling transaction
+     * ends. Rows are locked in UUID order so two reservations over overlapping instance sets cannot
+     * deadlock each other.
+     */
+    @Query(value = "SELECT c.scheduled_instance_uuid, si.max_participants, c.seats_taken " +
+                   "FROM scheduled_instance_seat_counters c " +
+                   "JOIN scheduled_instances si ON si.uuid = c.scheduled_instance_uuid " +
+                   "WHERE c.scheduled_instance_uuid IN (:instanceUuids) " +
+                   "ORDER BY c.scheduled_instance_uuid " +
+                   "FOR UPDATE OF c",
+           nativeQuery = true)
+    List<Object[]> lockSeatCounters(@Param("instanceUuids") Collection<UUID> instanceUuids);
+
+    /**
+     * Creates the counter row for any of the given instances that lacks one, seeded from the live
+     * enrolments. Instances created after the counters were introduced get their row by trigger, so
+     * this only ever does work for rows that were somehow missed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scheduled_instance_seat_counters (scheduled_instance_uuid, seats_taken) " +
+                   "SELECT si.uuid, " +
+                   "(SELECT COUNT(*) FROM class_enrollments ce WHERE ce.scheduled_instance_uuid = si.uuid " +
+                   "AND ce.status NOT IN ('CANCELLED', 'WAITLISTED')) " +
+                   "FROM scheduled_instances si " +
+                   "WHERE si.uuid IN (:instanceUuids) " +
+                   "ON CONFLICT (scheduled_instance_uuid) DO NOTHING",
+           nativeQuery = true)
+    int initialiseSeatCounters(@Param("instanceUuids") Collection<UUID> instanceUuids);
+
+    /**
+     * Locks up to {@code limit} pending reminders that have fallen due for instances that are still
+     * scheduled and have not started, earliest first. Returns rows of
+     * {@code [scheduled_instance_uuid (UUID), reminder_minutes (Number)]}. Rows locked by another node
+     * are skipped rather than waited on, so two schedulers never send the same batch.
+     */
+    @Query(value = "SELECT r.scheduled_instance_uuid, r.reminder_minutes " +
+                   "FROM scheduled_instance_reminders r " +
+                   "JOIN scheduled_instances si ON si.uuid = r.scheduled_instance_uuid " +
+                   "WHERE r.sent_at IS NULL " +
+                   "AND r.due_at <= :now " +
+                   "AND si.start_time > :now " +
+                   "AND si.status = 'SCHEDULED' " +
+                   "ORDER BY r.due_at " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE OF r SKIP LOCKED",
+           nativeQuery = true)
+    List<Object[]> lockDueReminders(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE scheduled_instance_reminders " +
+                   "SET sent_at = :sentAt, updated_date = NOW() " +
+                   "WHERE scheduled_instance_uuid IN (:instanceUuids)",
+           nativeQuery = true)
+    int markRemindersSent(@Param("instanceUuids") Collection<UUID> instanceUuids,
+                          @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * True when at least one open (scheduled or ongoing) instance of the class still has a free seat.
+     * An instance with no capacity limit always has one.
+     */
+    @Query(value = "SELECT EXISTS (" +
+                   "SELECT 1 FROM scheduled_instances si " +
+                   "LEFT JOIN scheduled_instance_seat_counters c ON c.scheduled_instance_uuid = si.uuid " +
+                   "WHERE si.class_definition_uuid = :classDefinitionUuid " +
+                   "AND si.status IN ('SCHEDULED', 'ONGOING') " +
+                   "AND (si.max_participants IS NULL OR si.max_participants <= 0 " +
+                   "OR COALESCE(c.seats_taken, 0) < si.max_participants))",
+           nativeQuery = true)
+    boolean existsOpenSeatForClassDefinition(@Param("classDefinitionUuid") UUID classDefinitionUuid);
+
+    /**
+     * Session totals for the admin dashboard in one statement: sessions starting in
+     * {@code [now, upcomingUntil]}, and sessions started, completed and cancelled in {@code [from, now]}.
+     */
+    @Query("""
+            select count(si) filter (where si.startTime between :now and :upcomingUntil) as upcoming,
+                   count(si) filter (where si.startTime between :from and :now) as recent,
+                   count(si) filter (where si.status = :completed and si.endTime between :from and :now) as completedRecently,
+                   count(si) filter (where si.status = :cancelled and si.startTime between :from and :now) as cancelledRecently
+            from ScheduledInstance si
+            where si.startTime between :from and :upcomingUntil
+               or si.endTime between :from and :now
+            """)
+    DashboardCounts countForDashboard(@Param("from") LocalDateTime from,
+                                      @Param("now") LocalDateTime now,
+                                      @Param("upcomingUntil") LocalDateTime upcomingUntil,
+                                      @Param("completed") SchedulingStatus completed,
+                                      @Param("cancelled") SchedulingStatus cancelled);
+
+    interface DashboardCounts {
+        long getUpcoming();
+
+        long getRecent();
+
+        long getCompletedRecently();
+
+        long getCancelledRecently();
+    }
 }
@@ -0,0 +1,122 @@
+package apps.sarafrika.elimika.timetabling.service.impl;
+
+import apps.sarafrika.elimika.timetabling.repository.ScheduledInstanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Seat capacity for many scheduled instances at once, answered from the per-instance counters in
+ * {@code scheduled_instance_seat_counters} instead of one {@code COUNT} over enrolments per instance.
+ * <p>
+ * The counters are kept by a trigger on {@code class_enrollments}, so nothing here writes them.
+ * {@link #seatsFor} is a plain snapshot, good enough for display and for pre-checks that are repeated
+ * before anything is written. {@link #claim} is the check that guards a write: it locks the counter of
+ * every requested instance in one statement and holds the locks until the caller's transaction ends.
+ * A second buyer racing for the same last seat blocks on the counter row, then sees the first buyer's
+ * enrolment already counted and is refused, instead of both passing a count taken before either wrote.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class SeatAllocator {
+
+    private final ScheduledInstanceRepository scheduledInstanceRepository;
+
+    /**
+     * Current seat state of each instance, in request order, without locking. Instances that do not
+     * exist are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<SeatAvailability> seatsFor(Collection<UUID> instanceUuids) {
+        if (instanceUuids == null || instanceUuids.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> requested = new LinkedHashSet<>(instanceUuids);
+        return inRequestOrder(requested, toAvailability(scheduledInstanceRepository.findSeatCounters(requested)));
+    }
+
+    /**
+     * Locks the seat counters of every requested instance and reports, per instance, whether one more
+     * seat fits. Nothing is reserved by this call alone: the caller writes its enrolments in the same
+     * transaction, which moves the locked counters, and the locks stop anyone else deciding on the same
+     * seats in between. A caller that finds any instance full simply writes nothing.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<SeatAvailability> claim(Collection<UUID> instanceUuids) {
+        if (instanceUuids == null || instanceUuids.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> requested = new LinkedHashSet<>(instanceUuids);
+        Map<UUID, SeatAvailability> locked = toAvailability(scheduledInstanceRepository.lockSeatCounters(requested));
+        if (locked.size() < requested.size()) {
+            locked.putAll(lockMissing(requested, locked));
+        }
+        return inRequestOrder(requested, locked);
+    }
+
+    /**
+     * Instances created after the counters were introduced get their row by trigger, so this only does
+     * work for a row that was somehow missed: it is created from the live enrolments, then locked.
+     */
+    private Map<UUID, SeatAvailability> lockMissing(Set<UUID> requested, Map<UUID, SeatAvailability> locked) {
+        List<UUID> missing = requested.stream()
+                .filter(uuid -> !locked.containsKey(uuid))
+                .toList();
+        int created = scheduledInstanceRepository.initialiseSeatCounters(missing);
+        if (created > 0) {
+            log.warn("Initialised {} missing seat counters for scheduled instances {}", created, missing);
+        }
+        return toAvailability(scheduledInstanceRepository.lockSeatCounters(missing));
+    }
+
+    private static Map<UUID, SeatAvailability> toAvailability(List<Object[]> rows) {
+        Map<UUID, SeatAvailability> seats = new HashMap<>();
+        for (Object[] row : rows) {
+            UUID instanceUuid = (UUID) row[0];
+            Integer capacity = row[1] == null ? null : ((Number) row[1]).intValue();
+            int seatsTaken = row[2] == null ? 0 : ((Number) row[2]).intValue();
+            seats.put(instanceUuid, new SeatAvailability(instanceUuid, capacity, seatsTaken));
+        }
+        return seats;
+    }
+
+    private static List<SeatAvailability> inRequestOrder(Set<UUID> requested, Map<UUID, SeatAvailability> seats) {
+        List<SeatAvailability> ordered = new ArrayList<>(requested.size());
+        for (UUID uuid : requested) {
+            SeatAvailability availability = seats.get(uuid);
+            if (availability != null) {
+                ordered.add(availability);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Seat state of one instance.
+     *
+     * @param capacity   {@code max_participants}; {@code null} or non-positive means unlimited
+     * @param seatsTaken enrolments that are neither cancelled nor waitlisted
+     */
+    record SeatAvailability(UUID instanceUuid, Integer capacity, int seatsTaken) {
+
+        boolean isUnlimited() {
+            return capacity == null || capacity <= 0;
+        }
+
+        boolean hasRoom() {
+            return isUnlimited() || seatsTaken < capacity;
+        }
+    }
+}
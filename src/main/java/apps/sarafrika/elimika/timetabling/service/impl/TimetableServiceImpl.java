@@ -6,6 +6,7 @@ import apps.sarafrika.elimika.course.spi.LearnerCourseProgressView;
 import apps.sarafrika.elimika.course.spi.LearnerProgressLookupService;
 import apps.sarafrika.elimika.instructor.spi.InstructorLookupService;
 import apps.sarafrika.elimika.resourcing.spi.ResourceBookingService;
+import apps.sarafrika.elimika.shared.event.hold.HoldPlacedEvent;
 import apps.sarafrika.elimika.shared.event.notification.NotificationRequestedEvent;
 import apps.sarafrika.elimika.shared.event.timetabling.ClassSessionCompletedEvent;
 import apps.sarafrika.elimika.shared.exceptions.DuplicateResourceException;
@@ -13,9 +14,9 @@ import apps.sarafrika.elimika.shared.exceptions.ResourceNotFoundException;
 import apps.sarafrika.elimika.shared.service.AgeVerificationService;
 import apps.sarafrika.elimika.shared.spi.ClassDefinitionLookupService;
 import apps.sarafrika.elimika.shared.utils.GenericSpecificationBuilder;
+import apps.sarafrika.elimika.shared.utils.recurrence.OccurrenceWindow;
 import apps.sarafrika.elimika.student.spi.StudentLookupService;
 import apps.sarafrika.elimika.commerce.spi.paywall.CommercePaywallService;
-import apps.sarafrika.elimika.availability.spi.AvailabilityService;
 import apps.sarafrika.elimika.timetabling.dto.ClassScheduledEventDTO;
 import apps.sarafrika.elimika.timetabling.spi.EnrollmentDTO;
 import apps.sarafrika.elimika.timetabling.spi.EnrollmentRequestDTO;
@@ -31,12 +32,15 @@ import apps.sarafrika.elimika.timetabling.spi.ScheduleRequestDTO;
 import apps.sarafrika.elimika.timetabling.factory.EnrollmentFactory;
 import apps.sarafrika.elimika.timetabling.factory.ScheduledInstanceFactory;
 import apps.sarafrika.elimika.timetabling.factory.StudentScheduleFactory;
+import apps.sarafrika.elimika.timetabling.internal.SeatHoldExpiryHandler;
 import apps.sarafrika.elimika.timetabling.internal.SchedulingEventListener.ScheduledInstanceCompletedEvent;
 import apps.sarafrika.elimika.timetabling.internal.SchedulingEventListener.ScheduledInstanceStartedEvent;
 import apps.sarafrika.elimika.timetabling.model.Enrollment;
 import apps.sarafrika.elimika.timetabling.model.ScheduledInstance;
 import apps.sarafrika.elimika.timetabling.repository.EnrollmentRepository;
 import apps.sarafrika.elimika.timetabling.repository.ScheduledInstanceRepository;
+import apps.sarafrika.elimika.timetabling.spi.ConflictDetector;
+import apps.sarafrika.elimika.timetabling.spi.OccurrenceConflict;
 import apps.sarafrika.elimika.timetabling.spi.TimetableService;
 import apps.sarafrika.elimika.timetabling.spi.EnrollmentStatus;
 import apps.sarafrika.elimika.timetabling.spi.EnrolmentTrendPointDTO;
@@ -85,11 +89,12 @@ public class TimetableServiceImpl implements TimetableService {
     private final LearnerProgressLookupService learnerProgressLookupService;
     private final AgeVerificationService ageVerificationService;
     private final CommercePaywallService commercePaywallService;
-    private final AvailabilityService availabilityService;
     private final StudentLookupService studentLookupService;
     private final apps.sarafrika.elimika.tenancy.spi.UserLookupService userLookupService;
     private final InstructorLookupService instructorLookupService;
     private final ResourceBookingService resourceBookingService;
+    private final SeatAllocator seatAllocator;
+    private final ConflictDetector conflictDetector;
 
     private static final String SCHEDULED_INSTANCE_NOT_FOUND_TEMPLATE = "Scheduled instance with UUID %s not found";
     private static final String ENROLLMENT_NOT_FOUND_TEMPLATE = "Enrollment with UUID %s not found";
@@ -106,10 +111,41 @@ public class TimetableServiceImpl implements TimetableService {
             throw new IllegalArgumentException(String.join("; ", conflicts));
         }
         
-        ScheduledInstance entity = ScheduledInstanceFactory.toEntity(request);
+        ScheduledInstance entity = toScheduledInstance(request, classDefinitionLookupService.findByUuid(request.classDefinitionUuid()));
+        ScheduledInstance savedEntity = scheduledInstanceRepository.save(entity);
+        publishClassScheduled(savedEntity);
         
-        Optional<ClassDefinitionLookupService.ClassDefinitionSnapshot> classSnapshot =
-                classDefinitionLookupService.findByUuid(request.classDefinitionUuid());
+        log.debug("Scheduled class with UUID: {}", savedEntity.getUuid());
+        return ScheduledInstanceFactory.toDTO(savedEntity);
+    }
+
+    @Override
+    public List<ScheduledInstanceDTO> scheduleClasses(List<ScheduleRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return List.of();
+        }
+        log.debug("Scheduling {} class instances", requests.size());
+
+        requests.forEach(this::validateScheduleRequest);
+        Map<UUID, List<ScheduleRequestDTO>> requestsByInstructor = requests.stream()
+                .collect(Collectors.groupingBy(ScheduleRequestDTO::instructorUuid, LinkedHashMap::new, Collectors.toList()));
+        requestsByInstructor.forEach(this::rejectInstructorConflicts);
+
+        Map<UUID, Optional<ClassDefinitionLookupService.ClassDefinitionSnapshot>> classSnapshots = new HashMap<>();
+        List<ScheduledInstance> entities = requests.stream()
+                .map(request -> toScheduledInstance(request, classSnapshots.computeIfAbsent(
+                        request.classDefinitionUuid(), classDefinitionLookupService::findByUuid)))
+                .toList();
+        List<ScheduledInstance> savedEntities = scheduledInstanceRepository.saveAll(entities);
+        savedEntities.forEach(this::publishClassScheduled);
+
+        log.debug("Scheduled {} class instances", savedEntities.size());
+        return savedEntities.stream().map(ScheduledInstanceFactory::toDTO).toList();
+    }
+
+    private ScheduledInstance toScheduledInstance(ScheduleRequestDTO request,
+                                                  Optional<ClassDefinitionLookupService.ClassDefinitionSnapshot> classSnapshot) {
+        ScheduledInstance entity = ScheduledInstanceFactory.toEntity(request);
         entity.setTitle(classSnapshot
                 .map(ClassDefinitionLookupService.ClassDefinitionSnapshot::title)
                 .filter(title -> title != null && !title.isBlank())
@@ -121,10 +157,10 @@ public class TimetableServiceImpl implements TimetableService {
         entity.setMaxParticipants(classSnapshot
                 .map(ClassDefinitionLookupService.ClassDefinitionSnapshot::maxParticipants)
                 .orElse(25));
-        
-        ScheduledInstance savedEntity = scheduledInstanceRepository.save(entity);
-        
-        // Publish ClassScheduled event
+        return entity;
+    }
+
+    private void publishClassScheduled(ScheduledInstance savedEntity) {
         ClassScheduledEventDTO event = new ClassScheduledEventDTO(
                 savedEntity.getUuid(),
                 savedEntity.getClassDefinitionUuid(),
@@ -136,9 +172,35 @@ public class TimetableServiceImpl implements TimetableService {
                 savedEntity.getMaxParticipants()
         );
         eventPublisher.publishEvent(event);
-        
-        log.debug("Scheduled class with UUID: {}", savedEntity.getUuid());
-        return ScheduledInstanceFactory.toDTO(savedEntity);
+    }
+
+    /**
+     * Refuses the batch if any of one instructor's requests clashes with their calendar or with
+     * another request in the same batch. The calendar is checked for all of them in one pass.
+     */
+    private void rejectInstructorConflicts(UUID instructorUuid, List<ScheduleRequestDTO> requests) {
+        List<ScheduleRequestDTO> byStart = requests.stream()
+                .sorted(java.util.Comparator.comparing(ScheduleRequestDTO::startTime))
+                .toList();
+        LocalDateTime latestEnd = null;
+        for (ScheduleRequestDTO request : byStart) {
+            if (latestEnd != null && request.startTime().isBefore(latestEnd)) {
+                throw new IllegalArgumentException(String.format(
+                        "Requested sessions overlap each other at %s", request.startTime()));
+            }
+            latestEnd = latestEnd == null || request.endTime().isAfter(latestEnd) ? request.endTime() : latestEnd;
+        }
+
+        List<OccurrenceWindow> windows = requests.stream()
+                .map(request -> new OccurrenceWindow(request.startTime(), request.endTime()))
+                .toList();
+        for (OccurrenceConflict conflict : conflictDetector.findInstructorConflicts(instructorUuid, windows)) {
+            List<String> reasons = describeInstructorConflict(conflict);
+            if (!reasons.isEmpty()) {
+                throw new IllegalArgumentException(String.format("%s - %s: %s",
+                        conflict.window().start(), conflict.window().end(), String.join("; ", reasons)));
+            }
+        }
     }
 
     @Override
@@ -378,15 +440,18 @@ public class TimetableServiceImpl implements TimetableService {
             throw new ResourceNotFoundException(String.format("No scheduled instances found for class definition with UUID %s", classDefinitionUuid));
         }
 
-        // A seat held at checkout is this student's own reservation, not a duplicate enrolment, so
-        // it must be promoted rather than skipped.
-        Set<UUID> alreadyEnrolledInstanceUuids = enrollmentRepository.findByStudentUuid(studentUuid).stream()
-                .filter(enrollment -> enrollment.getStatus() != EnrollmentStatus.RESERVED)
-                .map(Enrollment::getScheduledInstanceUuid)
-                .collect(Collectors.toSet());
+        Map<UUID, Enrollment> existingByInstance = findStudentEnrollments(studentUuid, scheduledInstances);
 
+        // A seat held at checkout is this student's own reservation, not a duplicate enrolment, so
+        // it must be promoted rather than skipped. A cancelled row - a hold that lapsed before a late
+        // payment was captured, or an enrolment cancelled earlier - is revived the same way.
         List<ScheduledInstance> instancesToEnroll = scheduledInstances.stream()
-                .filter(instance -> !alreadyEnrolledInstanceUuids.contains(instance.getUuid()))
+                .filter(instance -> {
+                    Enrollment existing = existingByInstance.get(instance.getUuid());
+                    return existing == null
+                            || existing.getStatus() == EnrollmentStatus.RESERVED
+                            || existing.getStatus() == EnrollmentStatus.CANCELLED;
+                })
                 .toList();
 
         if (instancesToEnroll.isEmpty()) {
@@ -395,31 +460,41 @@ public class TimetableServiceImpl implements TimetableService {
 
         // Validate constraints before persisting any enrollment
         for (ScheduledInstance instance : instancesToEnroll) {
-            if (!hasCapacityForEnrollment(instance.getUuid())) {
+            if (!isInstanceOpenForEnrollment(instance)) {
                 throw new IllegalArgumentException(
-                        String.format("Scheduled instance %s has reached maximum capacity", instance.getUuid()));
+                        String.format("Scheduled instance %s is not open for enrollment", instance.getUuid()));
             }
+        }
+        rejectStudentConflicts(studentUuid, instancesToEnroll);
 
-            ScheduleRequestDTO scheduleRequest = new ScheduleRequestDTO(
-                instance.getClassDefinitionUuid(),
-                instance.getInstructorUuid(),
-                instance.getStartTime(),
-                instance.getEndTime(),
-                instance.getTimezone()
-            );
+        // A promoted hold already owns its seat; a cancelled row gave its seat back, so reviving it
+        // claims one just like a new enrolment, as reserveSeatsForClass does for a lapsed hold.
+        List<UUID> instancesNeedingSeat = instancesToEnroll.stream()
+                .map(ScheduledInstance::getUuid)
+                .filter(instanceUuid -> {
+                    Enrollment existing = existingByInstance.get(instanceUuid);
+                    return existing == null || existing.getStatus() != EnrollmentStatus.RESERVED;
+                })
+                .toList();
+        rejectFullInstances(seatAllocator.claim(instancesNeedingSeat));
 
-            if (hasStudentConflict(studentUuid, scheduleRequest)) {
-                throw new IllegalArgumentException(
-                        String.format("Student has a scheduling conflict with instance %s starting at %s",
-                                instance.getUuid(), instance.getStartTime()));
+        List<Enrollment> toSave = new ArrayList<>(instancesToEnroll.size());
+        for (ScheduledInstance instance : instancesToEnroll) {
+            Enrollment entity = existingByInstance.get(instance.getUuid());
+            if (entity == null) {
+                entity = EnrollmentFactory.toEntity(instance.getUuid(), studentUuid);
+            } else {
+                entity.setStatus(EnrollmentStatus.ENROLLED);
+                entity.setReservedUntil(null);
             }
+            toSave.add(entity);
         }
 
-        List<Enrollment> createdEnrollments = new java.util.ArrayList<>();
+        List<Enrollment> createdEnrollments = enrollmentRepository.saveAll(toSave);
 
-        for (ScheduledInstance instance : instancesToEnroll) {
-            Enrollment entity = EnrollmentFactory.toEntity(instance.getUuid(), studentUuid);
-            Enrollment savedEntity = enrollmentRepository.save(entity);
+        for (int i = 0; i < createdEnrollments.size(); i++) {
+            Enrollment savedEntity = createdEnrollments.get(i);
+            ScheduledInstance instance = instancesToEnroll.get(i);
 
             StudentEnrolledEventDTO event = new StudentEnrolledEventDTO(
                     savedEntity.getUuid(),
@@ -432,8 +507,6 @@ public class TimetableServiceImpl implements TimetableService {
             );
             eventPublisher.publishEvent(event);
             publishEnrollmentStatusChanged(savedEntity, instance);
-
-            createdEnrollments.add(savedEntity);
         }
 
         if (!createdEnrollments.isEmpty()) {
@@ -470,24 +543,12 @@ public class TimetableServiceImpl implements TimetableService {
             throw new DuplicateResourceException("Student is already enrolled for this scheduled instance");
         }
 
-        if (!hasCapacityForEnrollment(instanceUuid)) {
-            throw new IllegalArgumentException(
-                    String.format("Scheduled instance %s has reached maximum capacity", instanceUuid));
-        }
-
-        ScheduleRequestDTO scheduleRequest = new ScheduleRequestDTO(
-                instance.getClassDefinitionUuid(),
-                instance.getInstructorUuid(),
-                instance.getStartTime(),
-                instance.getEndTime(),
-                instance.getTimezone()
-        );
-
-        if (hasStudentConflict(studentUuid, scheduleRequest)) {
+        if (!isInstanceOpenForEnrollment(instance)) {
             throw new IllegalArgumentException(
-                    String.format("Student has a scheduling conflict with instance %s starting at %s",
-                            instance.getUuid(), instance.getStartTime()));
+                    String.format("Scheduled instance %s is not open for enrollment", instanceUuid));
         }
+        rejectStudentConflicts(studentUuid, List.of(instance));
+        rejectFullInstances(seatAllocator.claim(List.of(instanceUuid)));
 
         Enrollment enrollment = existing.orElseGet(() -> EnrollmentFactory.toEntity(instanceUuid, studentUuid));
         enrollment.setStatus(EnrollmentStatus.ENROLLED);
@@ -531,25 +592,26 @@ public class TimetableServiceImpl implements TimetableService {
             throw new IllegalStateException("Waitlisting is disabled for this class");
         }
 
-        boolean hasAvailableSeat = scheduledInstances.stream()
-                .filter(this::isInstanceOpenForEnrollment)
-                .anyMatch(this::hasCapacityForInstance);
-        if (hasAvailableSeat) {
+        if (hasOpenSeat(scheduledInstances)) {
             throw new IllegalStateException("Class has available seats; enroll instead of joining the waitlist");
         }
 
-        List<Enrollment> waitlisted = new ArrayList<>();
+        Map<UUID, Enrollment> existingByInstance = findStudentEnrollments(studentUuid, scheduledInstances);
+        List<Enrollment> toSave = new ArrayList<>(scheduledInstances.size());
         for (ScheduledInstance instance : scheduledInstances) {
-            Optional<Enrollment> existing = enrollmentRepository.findByScheduledInstanceUuidAndStudentUuid(instance.getUuid(), studentUuid);
-            if (existing.isPresent() && !EnrollmentStatus.CANCELLED.equals(existing.get().getStatus())) {
+            Enrollment existing = existingByInstance.get(instance.getUuid());
+            if (existing != null && !EnrollmentStatus.CANCELLED.equals(existing.getStatus())) {
                 throw new DuplicateResourceException("Student is already enrolled or waitlisted for this class");
             }
 
-            Enrollment enrollment = existing.orElseGet(() -> EnrollmentFactory.toEntity(instance.getUuid(), studentUuid));
+            Enrollment enrollment = existing != null ? existing : EnrollmentFactory.toEntity(instance.getUuid(), studentUuid);
             enrollment.setStatus(EnrollmentStatus.WAITLISTED);
-            Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
-            publishEnrollmentStatusChanged(savedEnrollment, instance);
-            waitlisted.add(savedEnrollment);
+            toSave.add(enrollment);
+        }
+
+        List<Enrollment> waitlisted = enrollmentRepository.saveAll(toSave);
+        for (int i = 0; i < waitlisted.size(); i++) {
+            publishEnrollmentStatusChanged(waitlisted.get(i), scheduledInstances.get(i));
         }
 
         log.info("Student {} added to waitlist for class definition {}", studentUuid, classDefinitionUuid);
@@ -997,10 +1059,10 @@ public class TimetableServiceImpl implements TimetableService {
             throw new IllegalArgumentException("Student UUID and schedule request cannot be null");
         }
 
-        List<Enrollment> conflictingEnrollments = enrollmentRepository
-            .findOverlappingEnrollmentsForStudent(studentUuid, request.startTime(), request.endTime());
-
-        return !conflictingEnrollments.isEmpty();
+        return conflictDetector.findStudentConflicts(
+                        studentUuid, List.of(new OccurrenceWindow(request.startTime(), request.endTime())))
+                .get(0)
+                .hasConflict();
     }
 
     @Override
@@ -1062,11 +1124,7 @@ public class TimetableServiceImpl implements TimetableService {
             .orElseThrow(() -> new ResourceNotFoundException(
                 String.format(SCHEDULED_INSTANCE_NOT_FOUND_TEMPLATE, instanceUuid)));
 
-        if (!isInstanceOpenForEnrollment(instance)) {
-            return false;
-        }
-
-        return hasCapacityForInstance(instance);
+        return hasOpenSeat(List.of(instance));
     }
 
     @Override
@@ -1076,26 +1134,70 @@ public class TimetableServiceImpl implements TimetableService {
             throw new IllegalArgumentException("Class definition UUID cannot be null");
         }
 
-        List<ScheduledInstance> scheduledInstances = scheduledInstanceRepository.findByClassDefinitionUuid(classDefinitionUuid);
-        if (scheduledInstances.isEmpty()) {
-            return false;
-        }
+        return scheduledInstanceRepository.existsOpenSeatForClassDefinition(classDefinitionUuid);
+    }
 
-        return scheduledInstances.stream()
+    /**
+     * True when any of the open instances has a free seat, decided from one read of their seat counters.
+     */
+    private boolean hasOpenSeat(List<ScheduledInstance> instances) {
+        List<UUID> openInstanceUuids = instances.stream()
                 .filter(this::isInstanceOpenForEnrollment)
-                .anyMatch(this::hasCapacityForInstance);
+                .map(ScheduledInstance::getUuid)
+                .filter(Objects::nonNull)
+                .toList();
+        return seatAllocator.seatsFor(openInstanceUuids).stream()
+                .anyMatch(SeatAllocator.SeatAvailability::hasRoom);
     }
 
-    private boolean hasCapacityForInstance(ScheduledInstance instance) {
-        if (instance == null || instance.getUuid() == null) {
-            return false;
+    private void rejectFullInstances(List<SeatAllocator.SeatAvailability> seats) {
+        seats.stream()
+                .filter(availability -> !availability.hasRoom())
+                .findFirst()
+                .ifPresent(full -> {
+                    throw new IllegalArgumentException(
+                            String.format("Scheduled instance %s has reached maximum capacity", full.instanceUuid()));
+                });
+    }
+
+    /**
+     * Rejects the enrolment if any target instance overlaps something the student already holds,
+     * reporting the earliest clash. All targets are checked in one pass; the student's own row on a
+     * target (a held seat being promoted) is not a clash with that target.
+     */
+    private void rejectStudentConflicts(UUID studentUuid, List<ScheduledInstance> targets) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        List<OccurrenceWindow> windows = targets.stream()
+                .map(instance -> new OccurrenceWindow(instance.getStartTime(), instance.getEndTime()))
+                .toList();
+        List<OccurrenceConflict> detected = conflictDetector.findStudentConflicts(studentUuid, windows);
+
+        ScheduledInstance earliest = null;
+        for (int i = 0; i < targets.size(); i++) {
+            ScheduledInstance target = targets.get(i);
+            boolean clashes = detected.get(i).overlappingInstanceUuids().stream()
+                    .anyMatch(uuid -> !uuid.equals(target.getUuid()));
+            if (clashes && (earliest == null || target.getStartTime().isBefore(earliest.getStartTime()))) {
+                earliest = target;
+            }
         }
-        Integer maxParticipants = instance.getMaxParticipants();
-        if (maxParticipants == null || maxParticipants <= 0) {
-            return true;
+        if (earliest != null) {
+            throw new IllegalArgumentException(
+                    String.format("Student has a scheduling conflict with instance %s starting at %s",
+                            earliest.getUuid(), earliest.getStartTime()));
         }
-        long currentEnrollments = enrollmentRepository.countActiveEnrollmentsByScheduledInstance(instance.getUuid());
-        return currentEnrollments < maxParticipants;
+    }
+
+    private Map<UUID, Enrollment> findStudentEnrollments(UUID studentUuid, List<ScheduledInstance> instances) {
+        List<UUID> instanceUuids = instances.stream().map(ScheduledInstance::getUuid).toList();
+        if (instanceUuids.isEmpty()) {
+            return Map.of();
+        }
+        return enrollmentRepository.findByStudentUuidAndScheduledInstanceUuidIn(studentUuid, instanceUuids).stream()
+                .collect(Collectors.toMap(Enrollment::getScheduledInstanceUuid, enrollment -> enrollment,
+                        (first, second) -> first));
     }
 
     private boolean isInstanceOpenForEnrollment(ScheduledInstance instance) {
@@ -1148,21 +1250,22 @@ public class TimetableServiceImpl implements TimetableService {
     private List<String> resolveInstructorConflicts(UUID instructorUuid,
                                                     ScheduleRequestDTO request,
                                                     UUID excludedInstanceUuid) {
-        List<String> conflicts = new java.util.ArrayList<>();
+        OccurrenceConflict conflict = conflictDetector.findInstructorConflicts(
+                        instructorUuid,
+                        List.of(new OccurrenceWindow(request.startTime(), request.endTime())),
+                        excludedInstanceUuid)
+                .get(0);
+        return describeInstructorConflict(conflict);
+    }
 
-        if (!availabilityService.isInstructorAvailable(instructorUuid, request.startTime(), request.endTime())) {
+    private List<String> describeInstructorConflict(OccurrenceConflict conflict) {
+        List<String> conflicts = new java.util.ArrayList<>();
+        if (conflict.declaredUnavailable()) {
             conflicts.add("Instructor is not available for the requested time range");
         }
-
-        List<ScheduledInstance> overlapping = scheduledInstanceRepository
-                .findOverlappingInstancesForInstructor(instructorUuid, request.startTime(), request.endTime())
-                .stream()
-                .filter(instance -> excludedInstanceUuid == null || !Objects.equals(instance.getUuid(), excludedInstanceUuid))
-                .toList();
-        if (!overlapping.isEmpty()) {
+        if (conflict.overlapsSchedule()) {
             conflicts.add("Instructor has existing scheduled instances that overlap this time");
         }
-
         return conflicts;
     }
 
@@ -1224,9 +1327,9 @@ public class TimetableServiceImpl implements TimetableService {
 
         boolean alreadyEnrolled = !instances.isEmpty()
                 && instances.stream().allMatch(instance -> held.contains(instance.getUuid()));
-        boolean seatsAvailable = instances.stream()
+        boolean seatsAvailable = hasOpenSeat(instances.stream()
                 .filter(instance -> !held.contains(instance.getUuid()))
-                .anyMatch(instance -> hasCapacityForEnrollment(instance.getUuid()));
+                .toList());
 
         String reason = null;
         if (!dateOfBirthOnFile) {
@@ -1305,35 +1408,47 @@ public class TimetableServiceImpl implements TimetableService {
             return false;
         }
 
+        Map<UUID, Enrollment> existingByInstance = findStudentEnrollments(studentUuid, instances);
         List<Enrollment> toSave = new ArrayList<>();
+        List<UUID> instancesNeedingSeat = new ArrayList<>();
         for (ScheduledInstance instance : instances) {
-            Optional<Enrollment> existing = enrollmentRepository
-                    .findByScheduledInstanceUuidAndStudentUuid(instance.getUuid(), studentUuid);
-
-            if (existing.isPresent()) {
-                Enrollment held = existing.get();
-                // Already holding or holding a lapsed seat: refresh it rather than doubling up.
-                if (held.getStatus() == EnrollmentStatus.RESERVED
-                        || held.getStatus() == EnrollmentStatus.CANCELLED) {
-                    held.setStatus(EnrollmentStatus.RESERVED);
-                    held.setReservedUntil(reservedUntil);
-                    toSave.add(held);
-                    continue;
-                }
+            Enrollment held = existingByInstance.get(instance.getUuid());
+
+            if (held != null && held.getStatus() == EnrollmentStatus.RESERVED) {
+                // Already holding this seat: refresh the hold rather than doubling up.
+                held.setReservedUntil(reservedUntil);
+                toSave.add(held);
+                continue;
+            }
+            if (held != null && held.getStatus() != EnrollmentStatus.CANCELLED) {
                 // Anything else means they already have this seat; nothing to reserve.
                 continue;
             }
 
-            if (!hasCapacityForEnrollment(instance.getUuid())) {
+            // A lapsed hold gave its seat back, so reviving it takes a seat just like a new hold.
+            if (!isInstanceOpenForEnrollment(instance)) {
                 return false;
             }
-            Enrollment reservation = EnrollmentFactory.toEntity(instance.getUuid(), studentUuid);
+            Enrollment reservation = held != null ? held : EnrollmentFactory.toEntity(instance.getUuid(), studentUuid);
             reservation.setStatus(EnrollmentStatus.RESERVED);
             reservation.setReservedUntil(reservedUntil);
             toSave.add(reservation);
+            instancesNeedingSeat.add(instance.getUuid());
+        }
+
+        // All or nothing: the counters stay locked until commit, so the holds written below cannot
+        // push any instance past its capacity.
+        boolean allSeatsFree = seatAllocator.claim(instancesNeedingSeat).stream()
+                .allMatch(SeatAllocator.SeatAvailability::hasRoom);
+        if (!allSeatsFree) {
+            log.debug("Class {} has no seat left for student {} on at least one session", classDefinitionUuid, studentUuid);
+            return false;
         }
 
         enrollmentRepository.saveAll(toSave);
+        if (!toSave.isEmpty() && reservedUntil != null) {
+            eventPublisher.publishEvent(new HoldPlacedEvent(SeatHoldExpiryHandler.HOLD_TYPE, reservedUntil));
+        }
         return true;
     }
 
@@ -1343,16 +1458,13 @@ public class TimetableServiceImpl implements TimetableService {
             return;
         }
         List<ScheduledInstance> instances = scheduledInstanceRepository.findByClassDefinitionUuid(classDefinitionUuid);
-        List<Enrollment> released = new ArrayList<>();
-        for (ScheduledInstance instance : instances) {
-            enrollmentRepository.findByScheduledInstanceUuidAndStudentUuid(instance.getUuid(), studentUuid)
-                    .filter(enrollment -> enrollment.getStatus() == EnrollmentStatus.RESERVED)
-                    .ifPresent(enrollment -> {
-                        enrollment.setStatus(EnrollmentStatus.CANCELLED);
-                        enrollment.setReservedUntil(null);
-                        released.add(enrollment);
-                    });
-        }
+        List<Enrollment> released = findStudentEnrollments(studentUuid, instances).values().stream()
+                .filter(enrollment -> enrollment.getStatus() == EnrollmentStatus.RESERVED)
+                .toList();
+        released.forEach(enrollment -> {
+            enrollment.setStatus(EnrollmentStatus.CANCELLED);
+            enrollment.setReservedUntil(null);
+        });
         if (!released.isEmpty()) {
             enrollmentRepository.saveAll(released);
             log.info("Released {} held seats on class {} for student {}",
@@ -23,25 +23,18 @@ public class TimetablingAnalyticsServiceImpl implements TimetablingAnalyticsServ
         LocalDateTime sevenDaysAhead = now.plusDays(7);
         LocalDateTime thirtyDaysAgo = now.minusDays(30);
 
-        long sessionsNext7Days = scheduledInstanceRepository.countByStartTimeBetween(now, sevenDaysAhead);
-        long sessionsLast30Days = scheduledInstanceRepository.countByStartTimeBetween(thirtyDaysAgo, now);
-        long sessionsCompletedLast30Days = scheduledInstanceRepository
-                .countByStatusAndEndTimeBetween(SchedulingStatus.COMPLETED, thirtyDaysAgo, now);
-        long sessionsCancelledLast30Days = scheduledInstanceRepository
-                .countByStatusAndStartTimeBetween(SchedulingStatus.CANCELLED, thirtyDaysAgo, now);
-
-        long attendedEnrollmentsLast30Days = enrollmentRepository
-                .countByStatusAndAttendanceMarkedAtBetween(EnrollmentStatus.ATTENDED, thirtyDaysAgo, now);
-        long absentEnrollmentsLast30Days = enrollmentRepository
-                .countByStatusAndAttendanceMarkedAtBetween(EnrollmentStatus.ABSENT, thirtyDaysAgo, now);
+        ScheduledInstanceRepository.DashboardCounts sessions = scheduledInstanceRepository.countForDashboard(
+                thirtyDaysAgo, now, sevenDaysAhead, SchedulingStatus.COMPLETED, SchedulingStatus.CANCELLED);
+        EnrollmentRepository.AttendanceCounts attendance = enrollmentRepository.countAttendanceForDashboard(
+                thirtyDaysAgo, now, EnrollmentStatus.ATTENDED, EnrollmentStatus.ABSENT);
 
         return new TimetablingAnalyticsSnapshot(
-                sessionsNext7Days,
-                sessionsLast30Days,
-                sessionsCompletedLast30Days,
-                sessionsCancelledLast30Days,
-                attendedEnrollmentsLast30Days,
-                absentEnrollmentsLast30Days
+                sessions.getUpcoming(),
+                sessions.getRecent(),
+                sessions.getCompletedRecently(),
+                sessions.getCancelledRecently(),
+                attendance.getAttended(),
+                attendance.getAbsent()
         );
     }
 }
@@ -0,0 +1,46 @@
+package apps.sarafrika.elimika.timetabling.spi;
+
+import apps.sarafrika.elimika.shared.utils.recurrence.OccurrenceWindow;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Checks many candidate windows against one person's schedule at once.
+ * <p>
+ * The person's busy time is loaded once for the span the windows cover and swept against the
+ * windows in start order, so a semester of weekly sessions costs the same couple of queries as a
+ * single session. Two intervals overlap when each starts before the other ends: a session that ends
+ * exactly when the next begins is back to back, not a clash. Cancelled sessions never count.
+ */
+public interface ConflictDetector {
+
+    /**
+     * Checks each window against the instructor's live sessions and blocked time (anything not
+     * cancelled or completed) and against time they have marked unavailable.
+     *
+     * @param instructorUuid the instructor whose schedule is checked
+     * @param windows        candidate windows, in any order
+     * @return one result per window, in the order given
+     * @throws IllegalArgumentException if instructorUuid is null or any window has a null or inverted range
+     */
+    List<OccurrenceConflict> findInstructorConflicts(UUID instructorUuid, List<OccurrenceWindow> windows);
+
+    /**
+     * Same as {@link #findInstructorConflicts(UUID, List)}, ignoring one existing session - the one
+     * being moved when a session is rescheduled.
+     */
+    List<OccurrenceConflict> findInstructorConflicts(UUID instructorUuid,
+                                                     List<OccurrenceWindow> windows,
+                                                     UUID excludedInstanceUuid);
+
+    /**
+     * Checks each window against the sessions the student holds a non-cancelled enrolment in.
+     *
+     * @param studentUuid the student whose schedule is checked
+     * @param windows     candidate windows, in any order
+     * @return one result per window, in the order given
+     * @throws IllegalArgumentException if studentUuid is null or any window has a null or inverted range
+     */
+    List<OccurrenceConflict> findStudentConflicts(UUID studentUuid, List<OccurrenceWindow> windows);
+}
@@ -0,0 +1,155 @@
+package apps.sarafrika.elimika.timetabling.spi;
+
+import apps.sarafrika.elimika.availability.spi.AvailabilityService;
+import apps.sarafrika.elimika.shared.utils.recurrence.OccurrenceWindow;
+import apps.sarafrika.elimika.timetabling.model.ScheduledInstance;
+import apps.sarafrika.elimika.timetabling.repository.ScheduledInstanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Timetabling-backed implementation of {@link ConflictDetector}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConflictDetectorImpl implements ConflictDetector {
+
+    private final ScheduledInstanceRepository scheduledInstanceRepository;
+    private final AvailabilityService availabilityService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OccurrenceConflict> findInstructorConflicts(UUID instructorUuid, List<OccurrenceWindow> windows) {
+        return findInstructorConflicts(instructorUuid, windows, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OccurrenceConflict> findInstructorConflicts(UUID instructorUuid,
+                                                            List<OccurrenceWindow> windows,
+                                                            UUID excludedInstanceUuid) {
+        if (instructorUuid == null) {
+            throw new IllegalArgumentException("Instructor UUID cannot be null");
+        }
+        validateWindows(windows);
+        if (windows.isEmpty()) {
+            return List.of();
+        }
+
+        List<ScheduledInstance> busy = scheduledInstanceRepository
+                .findOverlappingInstancesForInstructor(instructorUuid, spanStart(windows), spanEnd(windows))
+                .stream()
+                .filter(instance -> excludedInstanceUuid == null || !Objects.equals(instance.getUuid(), excludedInstanceUuid))
+                .toList();
+        List<List<UUID>> overlaps = sweep(windows, busy);
+        List<Boolean> available = availabilityService.checkInstructorAvailability(instructorUuid, windows);
+
+        List<OccurrenceConflict> results = new ArrayList<>(windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            results.add(new OccurrenceConflict(windows.get(i), !available.get(i), overlaps.get(i)));
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OccurrenceConflict> findStudentConflicts(UUID studentUuid, List<OccurrenceWindow> windows) {
+        if (studentUuid == null) {
+            throw new IllegalArgumentException("Student UUID cannot be null");
+        }
+        validateWindows(windows);
+        if (windows.isEmpty()) {
+            return List.of();
+        }
+
+        List<ScheduledInstance> busy = scheduledInstanceRepository
+                .findOverlappingInstancesForStudent(studentUuid, spanStart(windows), spanEnd(windows));
+        List<List<UUID>> overlaps = sweep(windows, busy);
+
+        List<OccurrenceConflict> results = new ArrayList<>(windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            results.add(new OccurrenceConflict(windows.get(i), false, overlaps.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Finds, for every window, the busy intervals overlapping it. Windows and intervals are both walked
+     * in start order: an interval joins the active set once it starts before the current window ends
+     * and leaves it for good once it ends at or before the current window starts, since every later
+     * window starts later still. Each window then only looks at the intervals still active, so the
+     * cost follows the number of real overlaps rather than windows times intervals.
+     *
+     * @return the overlapping instance UUIDs per window, in the order the windows were given
+     */
+    static List<List<UUID>> sweep(List<OccurrenceWindow> windows, List<ScheduledInstance> busy) {
+        List<Integer> windowOrder = new ArrayList<>(windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            windowOrder.add(i);
+        }
+        windowOrder.sort(Comparator.comparing((Integer index) -> windows.get(index).start()));
+
+        List<ScheduledInstance> intervals = busy.stream()
+                .filter(instance -> instance.getStartTime() != null && instance.getEndTime() != null)
+                .sorted(Comparator.comparing(ScheduledInstance::getStartTime))
+                .toList();
+        PriorityQueue<ScheduledInstance> active = new PriorityQueue<>(Comparator.comparing(ScheduledInstance::getEndTime));
+
+        List<List<UUID>> overlaps = new ArrayList<>(windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            overlaps.add(List.of());
+        }
+
+        int next = 0;
+        for (int index : windowOrder) {
+            OccurrenceWindow window = windows.get(index);
+            while (next < intervals.size() && intervals.get(next).getStartTime().isBefore(window.end())) {
+                active.add(intervals.get(next++));
+            }
+            while (!active.isEmpty() && !active.peek().getEndTime().isAfter(window.start())) {
+                active.poll();
+            }
+
+            // An interval admitted for an earlier, longer window may still start after this one ends.
+            List<ScheduledInstance> overlapping = active.stream()
+                    .filter(instance -> instance.getStartTime().isBefore(window.end()))
+                    .sorted(Comparator.comparing(ScheduledInstance::getStartTime))
+                    .toList();
+            if (!overlapping.isEmpty()) {
+                overlaps.set(index, overlapping.stream().map(ScheduledInstance::getUuid).toList());
+            }
+        }
+        return overlaps;
+    }
+
+    private static void validateWindows(List<OccurrenceWindow> windows) {
+        if (windows == null) {
+            throw new IllegalArgumentException("Windows cannot be null");
+        }
+        for (OccurrenceWindow window : windows) {
+            if (window == null || window.start() == null || window.end() == null) {
+                throw new IllegalArgumentException("Window start and end cannot be null");
+            }
+            if (window.start().isAfter(window.end())) {
+                throw new IllegalArgumentException("Start time must be before end time");
+            }
+        }
+    }
+
+    private static LocalDateTime spanStart(List<OccurrenceWindow> windows) {
+        return windows.stream().map(OccurrenceWindow::start).min(LocalDateTime::compareTo).orElseThrow();
+    }
+
+    private static LocalDateTime spanEnd(List<OccurrenceWindow> windows) {
+        return windows.stream().map(OccurrenceWindow::end).max(LocalDateTime::compareTo).orElseThrow();
+    }
+}
@@ -0,0 +1,33 @@
+package apps.sarafrika.elimika.timetabling.spi;
+
+import apps.sarafrika.elimika.shared.utils.recurrence.OccurrenceWindow;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * What {@link ConflictDetector} found for one candidate window.
+ *
+ * @param window                   the window that was checked
+ * @param declaredUnavailable      the instructor has marked this time unavailable; always {@code false}
+ *                                 for student checks
+ * @param overlappingInstanceUuids existing sessions that overlap the window, in start order
+ */
+public record OccurrenceConflict(
+        OccurrenceWindow window,
+        boolean declaredUnavailable,
+        List<UUID> overlappingInstanceUuids
+) {
+
+    public OccurrenceConflict {
+        overlappingInstanceUuids = List.copyOf(overlappingInstanceUuids);
+    }
+
+    public boolean overlapsSchedule() {
+        return !overlappingInstanceUuids.isEmpty();
+    }
+
+    public boolean hasConflict() {
+        return declaredUnavailable || overlapsSchedule();
+    }
+}
@@ -42,6 +42,17 @@ public interface TimetableService {
      */
     ScheduledInstanceDTO scheduleClass(ScheduleRequestDTO request);
 
+    /**
+     * Schedules several class instances in one call, as when a recurring class is expanded.
+     * Every request is checked before anything is written: each instructor's calendar is checked
+     * for all of their requests in one pass, and requests that overlap one another are refused too.
+     *
+     * @param requests The schedule requests
+     * @return The created scheduled instances, in request order
+     * @throws IllegalArgumentException if any request is invalid or conflicts; nothing is scheduled then
+     */
+    List<ScheduledInstanceDTO> scheduleClasses(List<ScheduleRequestDTO> requests);
+
     /**
      * Cancels a scheduled instance with the provided reason.
      * This will also cancel all active enrollments for the instance.
@@ -18,6 +18,11 @@ import lombok.Setter;
  * <p>
  * {@code amount} is always positive; {@link #direction} carries the sign. A deferred constraint
  * trigger checks at COMMIT that the entries of a transaction net to zero in every currency.
+ * <p>
+ * Unlike other tables, {@code ledger_entries_id_seq} hands out one id per row rather than blocks:
+ * wallet reconciliation keeps a watermark on entry ids and relies on an entry written later never
+ * getting a lower id than one that has already settled, which a block reserved earlier by another
+ * node would break.
  */
 @Entity
 @Table(name = "ledger_entries")
@@ -0,0 +1,35 @@
+package apps.sarafrika.elimika.wallet.ledger;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Folds the striped sub-balances of hot ledger accounts back into their cached balance rows.
+ * <p>
+ * Nothing depends on this for correctness - a cached balance read already sums the shards - so
+ * it only keeps the number of shard rows a read has to add up small. A failed run leaves the shards
+ * where they are for the next one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerBalanceCompactionJob {
+
+    private final LedgerService ledgerService;
+
+    @Scheduled(
+            initialDelayString = "${wallet.ledger.striping.compaction.initial-delay:PT5M}",
+            fixedDelayString = "${wallet.ledger.striping.compaction.interval:PT5M}")
+    public void compact() {
+        try {
+            int compacted = ledgerService.compactStripedBalances();
+            if (compacted > 0) {
+                log.debug("Compacted striped ledger balances of {} account(s)", compacted);
+            }
+        } catch (Exception ex) {
+            log.warn("Ledger balance compaction could not run: {}", ex.getMessage());
+        }
+    }
+}
@@ -36,6 +36,16 @@ public interface LedgerService {
     /** Recomputed from the entries. The truth. */
     BigDecimal derivedBalance(UUID accountUuid);
 
-    /** Read from the cache. Should always equal {@link #derivedBalance(UUID)}. */
+    /**
+     * Read from the cache, summing a striped account's uncompacted shards. Should always equal
+     * {@link #derivedBalance(UUID)}, whether or not a compaction has run.
+     */
     BigDecimal cachedBalance(UUID accountUuid);
+
+    /**
+     * Folds the striped sub-balances of hot accounts back into their cached balance rows.
+     *
+     * @return how many accounts had anything to fold
+     */
+    int compactStripedBalances();
 }
@@ -1,9 +1,11 @@
 package apps.sarafrika.elimika.wallet.ledger;
 
 import apps.sarafrika.elimika.wallet.ledger.WalletLedgerReconciliationReport.Divergence;
+import apps.sarafrika.elimika.wallet.ledger.WalletLedgerReconciliationStore.Watermark;
 import apps.sarafrika.elimika.wallet.repository.UserWalletRepository;
 import apps.sarafrika.elimika.wallet.repository.WalletLedgerComparison;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -23,9 +25,16 @@ import org.springframework.stereotype.Component;
  * <p>
  * The sweep is bounded on purpose. It walks the wallet table by keyset on {@code id}, in batches
  * of {@code batch-size}, and stops after {@code max-batches-per-run} batches; each batch is one
- * query that computes the derived balances alongside the wallets. A table that outgrows one sweep
+ * query that computes the ledger balances alongside the wallets. A table that outgrows one sweep
  * is reported as truncated rather than allowed to hold a transaction open for minutes at a time.
- * The next sweep starts again from the beginning, so nothing is skipped permanently.
+ * <p>
+ * Sweeps are checkpointed so that coverage is complete at any table size. Each one resumes after
+ * the last wallet the previous one compared and wraps around to the start of the table, stopping
+ * when it is back where it began. Every wallet is still compared on every lap - a wallet edited
+ * behind the ledger's back has no ledger activity to give it away - but its ledger balance is not
+ * re-derived: each account keeps a watermark of its balance verified up to an entry id, only the
+ * entries after it are summed, and the watermark moves forward once they have settled. The ledger
+ * side of a sweep therefore costs in proportion to the postings since the last one.
  */
 @Component
 @RequiredArgsConstructor
@@ -33,6 +42,7 @@ import org.springframework.stereotype.Component;
 public class WalletLedgerReconciliationJob {
 
     private final UserWalletRepository userWalletRepository;
+    private final WalletLedgerReconciliationStore reconciliationStore;
 
     /** Wallets compared per query. */
     @Value("${wallet.ledger.reconciliation.batch-size:500}")
@@ -42,6 +52,10 @@ public class WalletLedgerReconciliationJob {
     @Value("${wallet.ledger.reconciliation.max-batches-per-run:20}")
     private int maxBatchesPerRun;
 
+    /** How old a ledger entry must be before a watermark may move past it. */
+    @Value("${wallet.ledger.reconciliation.settle-after:PT5M}")
+    private Duration settleAfter;
+
     @Scheduled(
             initialDelayString = "${wallet.ledger.reconciliation.initial-delay:PT5M}",
             fixedDelayString = "${wallet.ledger.reconciliation.interval:PT1H}")
@@ -62,7 +76,7 @@ public class WalletLedgerReconciliationJob {
                         divergence.difference().toPlainString());
             }
         } catch (Exception ex) {
-            // A failed sweep must never kill the scheduler; the next one runs from scratch.
+            // A failed sweep must never kill the scheduler; the next one resumes from the saved cursor.
             log.error("Wallet/ledger reconciliation sweep failed: {}", ex.getMessage(), ex);
         }
     }
@@ -73,36 +87,53 @@ public class WalletLedgerReconciliationJob {
      * <p>
      * Deliberately not wrapped in one transaction: each batch query runs in its own short read-only
      * transaction, so a sweep over a large table never holds a snapshot open across the whole walk.
+     * The cursor is saved once at the end; a sweep that dies part-way is simply repeated.
      */
     public WalletLedgerReconciliationReport runOnce() {
         List<Divergence> divergences = new ArrayList<>();
-        long cursor = 0L;
+        long start = reconciliationStore.loadCursor();
+        long cursor = start;
+        long lastCompared = start;
+        boolean wrapped = start == 0L;
         int scanned = 0;
-        boolean truncated = false;
 
         for (int batch = 0; batch < maxBatchesPerRun; batch++) {
-            List<WalletLedgerComparison> page = userWalletRepository.compareWalletsAgainstLedger(cursor, batchSize);
-            if (page.isEmpty()) {
-                return new WalletLedgerReconciliationReport(scanned, cursor, false, divergences);
-            }
+            // Before wrapping: everything after the starting point. After: the start of the table up to it.
+            long upTo = wrapped && start != 0L ? start : Long.MAX_VALUE;
+            List<WalletLedgerComparison> page = userWalletRepository.compareWalletsAgainstLedger(
+                    cursor, upTo, batchSize, settleAfter.toSeconds());
 
+            List<Watermark> watermarks = new ArrayList<>();
             for (WalletLedgerComparison row : page) {
                 scanned++;
                 cursor = row.getWalletId();
+                lastCompared = cursor;
                 BigDecimal wallet = row.getWalletBalance();
                 BigDecimal ledger = row.getLedgerBalance();
                 if (wallet.compareTo(ledger) != 0) {
                     divergences.add(new Divergence(
                             row.getWalletUuid(), row.getUserUuid(), row.getCurrencyCode(), wallet, ledger));
                 }
+                Long settled = row.getSettledEntryId();
+                if (row.getAccountUuid() != null && settled != null && settled > row.getVerifiedEntryId()) {
+                    watermarks.add(new Watermark(
+                            row.getAccountUuid(), settled, row.getVerifiedBalance().add(row.getSettledDelta())));
+                }
             }
+            reconciliationStore.advanceWatermarks(watermarks);
 
             if (page.size() < batchSize) {
-                return new WalletLedgerReconciliationReport(scanned, cursor, false, divergences);
+                if (wrapped) {
+                    // Back where this sweep began: the next one starts from the same place.
+                    reconciliationStore.saveCursor(start);
+                    return new WalletLedgerReconciliationReport(scanned, lastCompared, false, divergences);
+                }
+                wrapped = true;
+                cursor = 0L;
             }
-            truncated = true;
         }
 
-        return new WalletLedgerReconciliationReport(scanned, cursor, truncated, divergences);
+        reconciliationStore.saveCursor(cursor);
+        return new WalletLedgerReconciliationReport(scanned, lastCompared, true, divergences);
     }
 }
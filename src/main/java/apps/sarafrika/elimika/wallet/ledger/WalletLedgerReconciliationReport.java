@@ -8,8 +8,9 @@ import java.util.UUID;
  * What one reconciliation sweep found.
  *
  * @param scanned    wallets compared in this sweep
- * @param truncated  true when the sweep hit its batch cap before reaching the end of the table, so
- *                   the wallets past {@code lastWalletId} were not looked at this time
+ * @param lastWalletId the last wallet compared; when truncated, the next sweep resumes after it
+ * @param truncated  true when the sweep hit its batch cap before coming back round to where it
+ *                   started, so the rest of the lap is left to the next sweep
  * @param divergences wallets whose balance does not match their derived ledger balance
  */
 public record WalletLedgerReconciliationReport(
@@ -0,0 +1,74 @@
+package apps.sarafrika.elimika.wallet.ledger;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and writes the reconciliation checkpoints: the sweep cursor in
+ * {@code ledger_reconciliation_cursors} and the per-account watermarks in
+ * {@code ledger_account_reconciliation_watermarks}.
+ * <p>
+ * Issued through JDBC rather than JPA: both are single-statement upserts with nothing an entity
+ * would add. A watermark only ever moves forward, so two nodes sweeping at once cannot wind one back.
+ */
+@Component
+public class WalletLedgerReconciliationStore {
+
+    private static final String CURSOR_NAME = "wallet-ledger";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WalletLedgerReconciliationStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** The id of the last wallet the previous sweep compared; zero before the first sweep. */
+    public long loadCursor() {
+        List<Long> cursor = jdbcTemplate.queryForList(
+                "SELECT last_wallet_id FROM ledger_reconciliation_cursors WHERE name = ?", Long.class, CURSOR_NAME);
+        return cursor.isEmpty() ? 0L : cursor.getFirst();
+    }
+
+    public void saveCursor(long lastWalletId) {
+        jdbcTemplate.update("""
+                INSERT INTO ledger_reconciliation_cursors (name, last_wallet_id)
+                VALUES (?, ?)
+                ON CONFLICT (name) DO UPDATE
+                    SET last_wallet_id = EXCLUDED.last_wallet_id,
+                        updated_date   = CURRENT_TIMESTAMP
+                """, CURSOR_NAME, lastWalletId);
+    }
+
+    /**
+     * Moves the watermarks forward in one batch. A watermark already past the one given is left
+     * where it is.
+     */
+    public void advanceWatermarks(List<Watermark> watermarks) {
+        if (watermarks.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO ledger_account_reconciliation_watermarks (account_uuid, verified_entry_id, verified_balance)
+                        VALUES (?, ?, ?)
+                        ON CONFLICT (account_uuid) DO UPDATE
+                            SET verified_entry_id = EXCLUDED.verified_entry_id,
+                                verified_balance  = EXCLUDED.verified_balance,
+                                updated_date      = CURRENT_TIMESTAMP
+                            WHERE ledger_account_reconciliation_watermarks.verified_entry_id < EXCLUDED.verified_entry_id
+                        """,
+                watermarks, watermarks.size(), (statement, watermark) -> {
+                    statement.setObject(1, watermark.accountUuid());
+                    statement.setLong(2, watermark.verifiedEntryId());
+                    statement.setBigDecimal(3, watermark.verifiedBalance());
+                });
+    }
+
+    /**
+     * An account's ledger balance, verified up to and including entry {@code verifiedEntryId}.
+     */
+    public record Watermark(UUID accountUuid, long verifiedEntryId, BigDecimal verifiedBalance) {
+    }
+}
@@ -1,9 +1,9 @@
 package apps.sarafrika.elimika.wallet.ledger.impl;
 
 import apps.sarafrika.elimika.wallet.entity.LedgerAccount;
-import apps.sarafrika.elimika.wallet.entity.LedgerAccountBalance;
 import apps.sarafrika.elimika.wallet.entity.LedgerTransaction;
 import apps.sarafrika.elimika.wallet.enums.LedgerEntryDirection;
+import apps.sarafrika.elimika.wallet.enums.LedgerOwnerType;
 import apps.sarafrika.elimika.wallet.factory.LedgerFactory;
 import apps.sarafrika.elimika.wallet.ledger.LedgerAccountRef;
 import apps.sarafrika.elimika.wallet.ledger.LedgerPostingLeg;
@@ -17,9 +17,10 @@ import java.math.BigDecimal;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,9 +31,19 @@ import org.springframework.transaction.annotation.Transactional;
  * Postings run in their own transaction ({@link Propagation#REQUIRES_NEW}) so a ledger failure -
  * including a constraint violation, which poisons whatever transaction it happens in - is contained
  * and cannot take a wallet operation down with it.
+ *
+ * <h2>Hot accounts</h2>
+ * Every sale touches the same platform accounts, so a single cached-balance row per account would
+ * make concurrent checkouts queue on its row lock. Platform and organisation accounts are striped
+ * instead: each posting lands on one of {@code shards} sub-balance rows, picked from its transaction
+ * UUID, and a periodic compaction folds the shards back into the account's row. The cached balance
+ * is always the row plus its shards, read in one statement, so striping never changes what it says.
+ * User accounts see one posting per wallet operation and are never striped.
+ * <p>
+ * Within a posting the balance rows are updated in account order, so two postings touching the same
+ * accounts lock them in the same order and cannot deadlock on each other.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class LedgerServiceImpl implements LedgerService {
 
@@ -40,6 +51,26 @@ public class LedgerServiceImpl implements LedgerService {
     private final LedgerTransactionRepository transactionRepository;
     private final LedgerEntryRepository entryRepository;
     private final LedgerAccountBalanceRepository balanceRepository;
+    private final int platformShards;
+    private final int organisationShards;
+
+    public LedgerServiceImpl(
+            LedgerAccountRepository accountRepository,
+            LedgerTransactionRepository transactionRepository,
+            LedgerEntryRepository entryRepository,
+            LedgerAccountBalanceRepository balanceRepository,
+            @Value("${wallet.ledger.striping.platform-shards:16}") int platformShards,
+            @Value("${wallet.ledger.striping.organisation-shards:4}") int organisationShards) {
+        if (platformShards < 1 || organisationShards < 1) {
+            throw new IllegalArgumentException("Ledger balance shard counts must be at least 1");
+        }
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.entryRepository = entryRepository;
+        this.balanceRepository = balanceRepository;
+        this.platformShards = platformShards;
+        this.organisationShards = organisationShards;
+    }
 
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -56,11 +87,14 @@ public class LedgerServiceImpl implements LedgerService {
         LedgerTransaction transaction = transactionRepository.save(LedgerFactory.toTransaction(request));
         UUID transactionUuid = transaction.getUuid();
 
+        Map<UUID, BalanceDelta> deltas = new TreeMap<>();
         for (LedgerPostingLeg leg : request.legs()) {
             UUID accountUuid = getOrCreateAccountUuid(leg.account());
             entryRepository.save(LedgerFactory.toEntry(transactionUuid, accountUuid, leg));
-            balanceRepository.applyPostedDelta(accountUuid, naturalDelta(leg));
+            deltas.merge(accountUuid, new BalanceDelta(shardsFor(leg.account().ownerType()), naturalDelta(leg)),
+                    BalanceDelta::plus);
         }
+        deltas.forEach((accountUuid, delta) -> applyPostedDelta(accountUuid, delta, transactionUuid));
 
         // Push the inserts out now so anything wrong with them surfaces here. The zero-sum trigger
         // is deferred by design and still fires at commit.
@@ -99,9 +133,39 @@ public class LedgerServiceImpl implements LedgerService {
     @Override
     @Transactional(readOnly = true)
     public BigDecimal cachedBalance(UUID accountUuid) {
-        return balanceRepository.findByAccountUuid(accountUuid)
-                .map(LedgerAccountBalance::getPostedAmount)
-                .orElse(BigDecimal.ZERO);
+        BigDecimal cached = balanceRepository.sumPostedAmount(accountUuid);
+        return cached == null ? BigDecimal.ZERO : cached;
+    }
+
+    /**
+     * Not transactional on purpose: each account is compacted in its own short transaction, see
+     * {@link LedgerAccountBalanceRepository#compactShards(UUID)}.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int compactStripedBalances() {
+        int compacted = 0;
+        for (UUID accountUuid : balanceRepository.findStripedAccountUuids()) {
+            compacted += balanceRepository.compactShards(accountUuid);
+        }
+        return compacted;
+    }
+
+    private void applyPostedDelta(UUID accountUuid, BalanceDelta delta, UUID transactionUuid) {
+        if (delta.shards() == 1) {
+            balanceRepository.applyPostedDelta(accountUuid, delta.amount());
+            return;
+        }
+        int shard = Math.floorMod(transactionUuid.hashCode(), delta.shards());
+        balanceRepository.applyPostedDeltaToShard(accountUuid, shard, delta.amount());
+    }
+
+    private int shardsFor(LedgerOwnerType ownerType) {
+        return switch (ownerType) {
+            case PLATFORM -> platformShards;
+            case ORGANISATION -> organisationShards;
+            case USER -> 1;
+        };
     }
 
     /**
@@ -135,4 +199,11 @@ public class LedgerServiceImpl implements LedgerService {
             }
         });
     }
+
+    private record BalanceDelta(int shards, BigDecimal amount) {
+
+        BalanceDelta plus(BalanceDelta other) {
+            return new BalanceDelta(shards, amount.add(other.amount));
+        }
+    }
 }
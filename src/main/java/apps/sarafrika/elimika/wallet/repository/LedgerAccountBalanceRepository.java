@@ -2,12 +2,14 @@ package apps.sarafrika.elimika.wallet.repository;
 
 import apps.sarafrika.elimika.wallet.entity.LedgerAccountBalance;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface LedgerAccountBalanceRepository extends JpaRepository<LedgerAccountBalance, Long> {
 
@@ -31,4 +33,59 @@ public interface LedgerAccountBalanceRepository extends JpaRepository<LedgerAcco
                     updated_date  = CURRENT_TIMESTAMP
             """, nativeQuery = true)
     void applyPostedDelta(@Param("accountUuid") UUID accountUuid, @Param("delta") BigDecimal delta);
+
+    /**
+     * Applies a signed delta to one shard of a striped (hot) account. The same atomic upsert as
+     * {@link #applyPostedDelta}, against a row that only the postings hashed to {@code shard} share.
+     */
+    @Modifying
+    @Query(value = """
+            insert into ledger_account_balance_shards (account_uuid, shard, posted_delta)
+            values (:accountUuid, :shard, :delta)
+            on conflict (account_uuid, shard) do update
+                set posted_delta = ledger_account_balance_shards.posted_delta + excluded.posted_delta,
+                    updated_date = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    void applyPostedDeltaToShard(@Param("accountUuid") UUID accountUuid,
+                                 @Param("shard") int shard,
+                                 @Param("delta") BigDecimal delta);
+
+    /**
+     * The cached posted balance: the account's balance row plus whatever its shards hold that has not
+     * been compacted yet. One statement, so it sees a compaction either entirely or not at all.
+     */
+    @Query(value = """
+            select coalesce((select b.posted_amount from ledger_account_balances b where b.account_uuid = :accountUuid), 0)
+                 + coalesce((select sum(s.posted_delta) from ledger_account_balance_shards s where s.account_uuid = :accountUuid), 0)
+            """, nativeQuery = true)
+    BigDecimal sumPostedAmount(@Param("accountUuid") UUID accountUuid);
+
+    @Query(value = "select distinct account_uuid from ledger_account_balance_shards", nativeQuery = true)
+    List<UUID> findStripedAccountUuids();
+
+    /**
+     * Drains every shard of one account into its balance row, in one statement and its own
+     * transaction. One account at a time on purpose: a posting holds at most one shard of each
+     * account, so compaction that never holds two accounts' shards at once cannot deadlock with it.
+     *
+     * @return 1 when anything was folded, 0 when the account had no shards left
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            with drained as (
+                delete from ledger_account_balance_shards
+                where account_uuid = :accountUuid
+                returning posted_delta
+            )
+            insert into ledger_account_balances (account_uuid, posted_amount, pending_amount, version, created_by)
+            select :accountUuid, sum(posted_delta), 0, 0, 'SYSTEM'
+            from drained
+            having count(*) > 0
+            on conflict (account_uuid) do update
+                set posted_amount = ledger_account_balances.posted_amount + excluded.posted_amount,
+                    version       = ledger_account_balances.version + 1,
+                    updated_date  = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    int compactShards(@Param("accountUuid") UUID accountUuid);
 }
@@ -24,37 +24,68 @@ public interface UserWalletRepository extends JpaRepository<UserWallet, Long> {
     );
 
     /**
-     * One page of wallets alongside the balance derived from their ledger entries, for
-     * reconciliation.
+     * One page of wallets alongside their ledger balance, for reconciliation: the wallets with
+     * {@code after < id <= upTo}, in id order.
      * <p>
      * Keyset paging on {@code id} rather than OFFSET so a large wallet table is walked in bounded,
-     * constant-cost slices instead of degrading as the offset grows. The derived balance is
-     * computed in the same statement, so a batch of N wallets costs one query rather than N.
+     * constant-cost slices instead of degrading as the offset grows. The ledger balance is computed
+     * in the same statement, so a batch of N wallets costs one query rather than N.
+     * <p>
+     * The ledger balance is not re-derived from the whole history. Each earnings account carries a
+     * watermark - the balance verified up to some entry id - and only the entries after it are
+     * summed, using {@code (account_uuid, id)}. The same statement reports how far the watermark
+     * may move: up to the last new entry older than {@code settleSeconds} with no younger entry
+     * below it, and not at all while the oldest new entry is still unsettled. Entry ids are taken one
+     * at a time as each entry is written (never from a pre-allocated block) but become visible at
+     * commit, so an entry only just written may still be joined by a lower id from a transaction that
+     * has not committed yet; the watermark only ever lands on an entry that has settled, so it never
+     * steps over one.
      * <p>
      * A user's earnings account is credit-normal (the platform owes the money), so its natural
      * balance is credits minus debits.
      */
     @Query(value = """
-            select w.id             as "walletId",
-                   w.uuid           as "walletUuid",
-                   w.user_uuid      as "userUuid",
-                   w.currency_code  as "currencyCode",
-                   w.balance_amount as "walletBalance",
-                   coalesce((select sum(case when e.direction = 'CREDIT' then e.amount else -e.amount end)
-                             from ledger_entries e
-                             where e.account_uuid = la.uuid), 0) as "ledgerBalance"
+            select w.id                                              as "walletId",
+                   w.uuid                                            as "walletUuid",
+                   w.user_uuid                                       as "userUuid",
+                   w.currency_code                                   as "currencyCode",
+                   w.balance_amount                                  as "walletBalance",
+                   la.uuid                                           as "accountUuid",
+                   coalesce(m.verified_entry_id, 0)                  as "verifiedEntryId",
+                   coalesce(m.verified_balance, 0)                   as "verifiedBalance",
+                   coalesce(m.verified_balance, 0) + coalesce(n.delta, 0) as "ledgerBalance",
+                   n.settled_entry_id                                as "settledEntryId",
+                   coalesce(n.settled_delta, 0)                      as "settledDelta"
             from user_wallets w
                      left join ledger_accounts la
                                on la.owner_type = 'USER'
                                    and la.owner_uuid = w.user_uuid
                                    and la.purse = 'EARNINGS'
                                    and la.currency_code = w.currency_code
-            where w.id > :cursor
+                     left join ledger_account_reconciliation_watermarks m on m.account_uuid = la.uuid
+                     left join lateral (
+                select sum(s.signed)                                           as delta,
+                       max(s.id) filter (where s.first_unsettled_id is null
+                                            or s.id < s.first_unsettled_id)     as settled_entry_id,
+                       sum(s.signed) filter (where s.first_unsettled_id is null
+                                                or s.id < s.first_unsettled_id) as settled_delta
+                from (select e.id,
+                             case when e.direction = 'CREDIT' then e.amount else -e.amount end as signed,
+                             min(e.id) filter (where e.created_date > now() - make_interval(secs => :settleSeconds))
+                                 over () as first_unsettled_id
+                      from ledger_entries e
+                      where e.account_uuid = la.uuid
+                        and e.id > coalesce(m.verified_entry_id, 0)) s
+                ) n on true
+            where w.id > :after
+              and w.id <= :upTo
             order by w.id
             limit :batchSize
             """, nativeQuery = true)
     List<WalletLedgerComparison> compareWalletsAgainstLedger(
-            @Param("cursor") long cursor,
-            @Param("batchSize") int batchSize
+            @Param("after") long after,
+            @Param("upTo") long upTo,
+            @Param("batchSize") int batchSize,
+            @Param("settleSeconds") long settleSeconds
     );
 }
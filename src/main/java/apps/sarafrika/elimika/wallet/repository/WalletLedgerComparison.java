@@ -5,7 +5,7 @@ import java.util.UUID;
 
 /**
  * One wallet placed next to its derived ledger balance. Projection for
- * {@link UserWalletRepository#compareWalletsAgainstLedger(long, int)}.
+ * {@link UserWalletRepository#compareWalletsAgainstLedger(long, long, int, long)}.
  */
 public interface WalletLedgerComparison {
 
@@ -20,6 +20,24 @@ public interface WalletLedgerComparison {
 
     BigDecimal getWalletBalance();
 
+    /** Null when the wallet has no ledger account yet. */
+    UUID getAccountUuid();
+
+    /** Entry id the account's ledger balance has been verified up to; zero when never verified. */
+    Long getVerifiedEntryId();
+
+    /** The account's ledger balance as of {@link #getVerifiedEntryId()}. */
+    BigDecimal getVerifiedBalance();
+
     /** Zero when the wallet has no ledger account yet, which is itself a divergence worth seeing. */
     BigDecimal getLedgerBalance();
+
+    /**
+     * How far the watermark may move now: the last new entry with nothing unsettled below it. Null
+     * when the account has no such entry, so the watermark stays where it is.
+     */
+    Long getSettledEntryId();
+
+    /** Sum of the new entries up to {@link #getSettledEntryId()}, in the account's natural sign. */
+    BigDecimal getSettledDelta();
 }
@@ -0,0 +1,88 @@
+-- One counter row per scheduled instance holding the number of seats currently taken, so capacity is
+-- read with a key lookup instead of a COUNT over class_enrollments, and a reservation can lock the
+-- rows it is about to fill. A seat is taken by any enrolment that is not CANCELLED or WAITLISTED,
+-- which is the same rule countActiveEnrollmentsByScheduledInstance has always applied.
+--
+-- The counters are maintained by triggers rather than by the application, so every path that
+-- writes an enrolment (checkout holds, paid enrolment, cancellation, attendance, hold expiry) moves
+-- them without having to know they exist.
+
+CREATE TABLE IF NOT EXISTS scheduled_instance_seat_counters
+(
+    scheduled_instance_uuid UUID PRIMARY KEY,
+    seats_taken             INTEGER                  NOT NULL DEFAULT 0 CHECK (seats_taken >= 0),
+    updated_date            TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+INSERT INTO scheduled_instance_seat_counters (scheduled_instance_uuid, seats_taken)
+SELECT si.uuid,
+       COUNT(ce.id) FILTER (WHERE ce.status NOT IN ('CANCELLED', 'WAITLISTED'))
+FROM scheduled_instances si
+         LEFT JOIN class_enrollments ce ON ce.scheduled_instance_uuid = si.uuid
+GROUP BY si.uuid
+ON CONFLICT (scheduled_instance_uuid) DO NOTHING;
+
+-- Every new instance starts with an empty counter, so a reservation always has a row to lock.
+CREATE OR REPLACE FUNCTION create_scheduled_instance_seat_counter()
+    RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO scheduled_instance_seat_counters (scheduled_instance_uuid, seats_taken)
+    VALUES (NEW.uuid, 0)
+    ON CONFLICT (scheduled_instance_uuid) DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_create_scheduled_instance_seat_counter
+    AFTER INSERT ON scheduled_instances
+    FOR EACH ROW
+EXECUTE FUNCTION create_scheduled_instance_seat_counter();
+
+-- Moves the counter whenever an enrolment starts or stops taking a seat, or moves between instances.
+CREATE OR REPLACE FUNCTION adjust_scheduled_instance_seats_taken()
+    RETURNS TRIGGER AS $$
+DECLARE
+    was_seated BOOLEAN := FALSE;
+    is_seated  BOOLEAN := FALSE;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        was_seated := OLD.status NOT IN ('CANCELLED', 'WAITLISTED');
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        is_seated := NEW.status NOT IN ('CANCELLED', 'WAITLISTED');
+    END IF;
+
+    -- RESERVED -> ENROLLED -> ATTENDED keeps the same seat.
+    IF TG_OP = 'UPDATE' AND was_seated AND is_seated
+        AND OLD.scheduled_instance_uuid = NEW.scheduled_instance_uuid THEN
+        RETURN NULL;
+    END IF;
+
+    IF was_seated THEN
+        UPDATE scheduled_instance_seat_counters
+        SET seats_taken  = GREATEST(seats_taken - 1, 0),
+            updated_date = NOW()
+        WHERE scheduled_instance_uuid = OLD.scheduled_instance_uuid;
+    END IF;
+
+    IF is_seated THEN
+        INSERT INTO scheduled_instance_seat_counters (scheduled_instance_uuid, seats_taken)
+        VALUES (NEW.scheduled_instance_uuid, 1)
+        ON CONFLICT (scheduled_instance_uuid) DO UPDATE
+            SET seats_taken  = scheduled_instance_seat_counters.seats_taken + 1,
+                updated_date = NOW();
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_adjust_scheduled_instance_seats_taken
+    AFTER INSERT OR DELETE OR UPDATE OF status, scheduled_instance_uuid ON class_enrollments
+    FOR EACH ROW
+EXECUTE FUNCTION adjust_scheduled_instance_seats_taken();
+
+COMMENT ON TABLE scheduled_instance_seat_counters
+    IS 'Seats taken per scheduled instance, maintained by trigger from class_enrollments. Reservations lock these rows to stop two buyers taking the last seat.';
+COMMENT ON COLUMN scheduled_instance_seat_counters.seats_taken
+    IS 'Enrolments on the instance whose status is neither CANCELLED nor WAITLISTED';
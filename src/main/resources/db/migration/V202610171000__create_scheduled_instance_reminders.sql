@@ -0,0 +1,127 @@
+-- One row per upcoming scheduled instance whose class has a reminder configured, holding the moment
+-- the reminder falls due. The reminder scheduler used to reload every instance starting in the next
+-- 24 hours each minute and work the due time out again per instance; it now reads only the rows
+-- whose due_at has passed and that have not been sent, through a partial index, so a run costs in
+-- proportion to the reminders actually due.
+--
+-- The due time is computed once, by trigger, whenever an instance is created or rescheduled or its
+-- class changes its reminder lead time, so every path that writes an instance keeps the index right
+-- without having to know it exists.
+
+CREATE TABLE IF NOT EXISTS scheduled_instance_reminders
+(
+    scheduled_instance_uuid UUID PRIMARY KEY REFERENCES scheduled_instances (uuid) ON DELETE CASCADE,
+    reminder_minutes        INTEGER                  NOT NULL CHECK (reminder_minutes >= 0),
+    due_at                  TIMESTAMP WITH TIME ZONE NOT NULL,
+    sent_at                 TIMESTAMP WITH TIME ZONE,
+    updated_date            TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_scheduled_instance_reminders_pending_due_at
+    ON scheduled_instance_reminders (due_at)
+    WHERE sent_at IS NULL;
+
+-- Reminders already inside their window were sent by the old per-minute scan, so they start out sent.
+INSERT INTO scheduled_instance_reminders (scheduled_instance_uuid, reminder_minutes, due_at, sent_at)
+SELECT si.uuid,
+       cd.class_reminder_minutes,
+       si.start_time - make_interval(mins => cd.class_reminder_minutes),
+       CASE WHEN si.start_time - make_interval(mins => cd.class_reminder_minutes) <= NOW() THEN NOW() END
+FROM scheduled_instances si
+         JOIN class_definitions cd ON cd.uuid = si.class_definition_uuid
+WHERE si.status = 'SCHEDULED'
+  AND si.start_time > NOW()
+  AND cd.class_reminder_minutes IS NOT NULL
+ON CONFLICT (scheduled_instance_uuid) DO NOTHING;
+
+-- Keeps an instance's reminder in step with its start time, status and class. Only SCHEDULED
+-- instances are reminded; a reminder that moves to a new due time is due to be sent again.
+CREATE OR REPLACE FUNCTION sync_scheduled_instance_reminder()
+    RETURNS TRIGGER AS $$
+DECLARE
+    lead_minutes INTEGER;
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND OLD.start_time = NEW.start_time
+        AND OLD.status = NEW.status
+        AND OLD.class_definition_uuid IS NOT DISTINCT FROM NEW.class_definition_uuid THEN
+        RETURN NULL;
+    END IF;
+
+    SELECT cd.class_reminder_minutes
+    INTO lead_minutes
+    FROM class_definitions cd
+    WHERE cd.uuid = NEW.class_definition_uuid;
+
+    IF NEW.status <> 'SCHEDULED' OR lead_minutes IS NULL THEN
+        DELETE FROM scheduled_instance_reminders WHERE scheduled_instance_uuid = NEW.uuid;
+        RETURN NULL;
+    END IF;
+
+    INSERT INTO scheduled_instance_reminders (scheduled_instance_uuid, reminder_minutes, due_at)
+    VALUES (NEW.uuid, lead_minutes, NEW.start_time - make_interval(mins => lead_minutes))
+    ON CONFLICT (scheduled_instance_uuid) DO UPDATE
+        SET reminder_minutes = EXCLUDED.reminder_minutes,
+            due_at           = EXCLUDED.due_at,
+            sent_at          = CASE
+                                   WHEN scheduled_instance_reminders.due_at = EXCLUDED.due_at
+                                       THEN scheduled_instance_reminders.sent_at
+                                   END,
+            updated_date     = NOW();
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_sync_scheduled_instance_reminder
+    AFTER INSERT OR UPDATE OF start_time, status, class_definition_uuid ON scheduled_instances
+    FOR EACH ROW
+EXECUTE FUNCTION sync_scheduled_instance_reminder();
+
+-- Moves the unsent reminders of a class's upcoming instances when its lead time changes. Reminders
+-- that have already gone out are left alone.
+CREATE OR REPLACE FUNCTION sync_class_definition_reminders()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF OLD.class_reminder_minutes IS NOT DISTINCT FROM NEW.class_reminder_minutes THEN
+        RETURN NULL;
+    END IF;
+
+    IF NEW.class_reminder_minutes IS NULL THEN
+        DELETE FROM scheduled_instance_reminders r
+            USING scheduled_instances si
+        WHERE si.uuid = r.scheduled_instance_uuid
+          AND si.class_definition_uuid = NEW.uuid
+          AND r.sent_at IS NULL;
+        RETURN NULL;
+    END IF;
+
+    INSERT INTO scheduled_instance_reminders (scheduled_instance_uuid, reminder_minutes, due_at)
+    SELECT si.uuid,
+           NEW.class_reminder_minutes,
+           si.start_time - make_interval(mins => NEW.class_reminder_minutes)
+    FROM scheduled_instances si
+    WHERE si.class_definition_uuid = NEW.uuid
+      AND si.status = 'SCHEDULED'
+      AND si.start_time > NOW()
+    ON CONFLICT (scheduled_instance_uuid) DO UPDATE
+        SET reminder_minutes = EXCLUDED.reminder_minutes,
+            due_at           = EXCLUDED.due_at,
+            updated_date     = NOW()
+    WHERE scheduled_instance_reminders.sent_at IS NULL;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_sync_class_definition_reminders
+    AFTER UPDATE OF class_reminder_minutes ON class_definitions
+    FOR EACH ROW
+EXECUTE FUNCTION sync_class_definition_reminders();
+
+COMMENT ON TABLE scheduled_instance_reminders
+    IS 'Due time of the upcoming-class reminder per SCHEDULED instance, maintained by trigger from scheduled_instances and class_definitions.';
+COMMENT ON COLUMN scheduled_instance_reminders.due_at
+    IS 'start_time minus the class reminder lead time; the reminder is sent at the first scheduler run at or after this moment';
+COMMENT ON COLUMN scheduled_instance_reminders.sent_at
+    IS 'When the reminder was handed to notifications; NULL while it is still pending';
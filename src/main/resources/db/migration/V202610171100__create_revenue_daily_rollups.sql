@@ -0,0 +1,50 @@
+-- Daily pre-aggregates of captured revenue lines, so a dashboard reads a row per day and group
+-- instead of every purchase line in its range.
+--
+-- Each captured line is counted once per dimension it belongs to: PLATFORM (every line, under the
+-- nil UUID), COURSE, CLASS_DEFINITION and STUDENT (under that course, class definition or student).
+-- Within a dimension the rows are split by scope, currency and, for the COURSE and CLASS_DEFINITION
+-- dimensions, the line's course, which is what the revenue share is looked up by. A line's day is
+-- the UTC day its order was created, as the dashboards have always bucketed it.
+--
+-- Earnings are not stored: they depend on the viewer's domain and on the revenue share at read
+-- time. What is stored is enough to derive them - the credits payout actually recorded, and the
+-- line totals net of the platform fee for lines whose credit has not been recorded.
+--
+-- order_count attributes each (order, dimension member) pair to exactly one row of its day, so
+-- summing it over one member's rows counts that member's orders exactly once.
+
+CREATE TABLE IF NOT EXISTS revenue_daily_rollups
+(
+    bucket_date           DATE           NOT NULL,
+    dimension_type        VARCHAR(32)    NOT NULL,
+    dimension_uuid        UUID           NOT NULL,
+    course_uuid           UUID           NOT NULL,
+    scope                 VARCHAR(32)    NOT NULL,
+    currency_code         VARCHAR(16)    NOT NULL,
+    gross_amount          NUMERIC(19, 4) NOT NULL DEFAULT 0,
+    credited_amount       NUMERIC(19, 4) NOT NULL DEFAULT 0,
+    uncredited_net_amount NUMERIC(19, 4) NOT NULL DEFAULT 0,
+    line_count            BIGINT         NOT NULL DEFAULT 0,
+    units_sold            BIGINT         NOT NULL DEFAULT 0,
+    order_count           BIGINT         NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_date, dimension_type, dimension_uuid, course_uuid, scope, currency_code)
+);
+
+CREATE INDEX IF NOT EXISTS idx_revenue_daily_rollups_dimension
+    ON revenue_daily_rollups (dimension_type, dimension_uuid, bucket_date);
+
+-- One row per day the rollups know about. A day is served from the rollups once it has been
+-- computed; it is due for recomputation while marked_version is ahead of computed_version, which
+-- is how a capture or settlement committed after the last computation is picked up.
+CREATE TABLE IF NOT EXISTS revenue_rollup_days
+(
+    bucket_date      DATE PRIMARY KEY,
+    computed_at      TIMESTAMP WITH TIME ZONE,
+    marked_version   BIGINT NOT NULL DEFAULT 0,
+    computed_version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_revenue_rollup_days_pending
+    ON revenue_rollup_days (bucket_date)
+    WHERE computed_at IS NULL OR marked_version > computed_version;
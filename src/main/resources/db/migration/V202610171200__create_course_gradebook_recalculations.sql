@@ -0,0 +1,30 @@
+-- Course-wide gradebook recalculations run off the request thread. Changing a line item or the
+-- aggregation of an assessment in a large course queues one row here; a worker claims it, recomputes
+-- every enrollment's component score and final grade in one pass, and reports progress as it goes.
+-- updated_date doubles as the worker's heartbeat, so a run abandoned by a stopped node is requeued.
+
+CREATE TABLE IF NOT EXISTS course_gradebook_recalculations
+(
+    id                    BIGSERIAL PRIMARY KEY,
+    uuid                  UUID                     NOT NULL UNIQUE DEFAULT gen_random_uuid(),
+    course_uuid           UUID                     NOT NULL REFERENCES courses (uuid) ON DELETE CASCADE,
+    assessment_uuid       UUID                     NOT NULL REFERENCES course_assessments (uuid) ON DELETE CASCADE,
+    status                VARCHAR(20)              NOT NULL DEFAULT 'queued'
+        CHECK (status IN ('queued', 'running', 'completed', 'failed')),
+    total_enrollments     INTEGER                  NOT NULL DEFAULT 0 CHECK (total_enrollments >= 0),
+    processed_enrollments INTEGER                  NOT NULL DEFAULT 0 CHECK (processed_enrollments >= 0),
+    failure_message       TEXT,
+    started_at            TIMESTAMP WITH TIME ZONE,
+    completed_at          TIMESTAMP WITH TIME ZONE,
+    created_date          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT (CURRENT_TIMESTAMP AT TIME ZONE 'UTC' + INTERVAL '3 hours'),
+    updated_date          TIMESTAMP WITH TIME ZONE          DEFAULT (CURRENT_TIMESTAMP AT TIME ZONE 'UTC' + INTERVAL '3 hours'),
+    created_by            VARCHAR(255)             NOT NULL,
+    updated_by            VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_course_gradebook_recalculations_course_created
+    ON course_gradebook_recalculations (course_uuid, created_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_course_gradebook_recalculations_unfinished
+    ON course_gradebook_recalculations (status, updated_date)
+    WHERE status IN ('queued', 'running');
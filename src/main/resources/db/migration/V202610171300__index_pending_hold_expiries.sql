@@ -0,0 +1,11 @@
+-- Holds now lapse the moment they expire, so each hold type is asked for its earliest pending expiry
+-- after every lapse. The existing bookings index covers every booking ever made and would be walked
+-- past all the paid and expired ones to find it; these cover only holds still awaiting payment.
+
+CREATE INDEX IF NOT EXISTS idx_bookings_pending_hold_expires
+    ON bookings (hold_expires_at)
+    WHERE status = 'PAYMENT_REQUIRED';
+
+CREATE INDEX IF NOT EXISTS idx_class_enrollments_reserved_hold_expires
+    ON class_enrollments (reserved_until)
+    WHERE status = 'RESERVED';
@@ -0,0 +1,25 @@
+-- Striped sub-balances for hot ledger accounts.
+--
+-- Every sale posts to the same few platform accounts, so every checkout used to update the same
+-- ledger_account_balances row and concurrent checkouts queued on its row lock. A hot account's
+-- postings now land on one of several shard rows here, picked from the transaction, and only
+-- contend when they pick the same shard.
+--
+-- An account's cached balance is its ledger_account_balances row plus every shard row it has,
+-- read in one statement so a compaction is either wholly counted or not at all. Compaction drains
+-- the shard rows into the account's row in one statement, so the sum never changes while it runs.
+-- Like the balances, this is derived and rebuildable: ledger_entries remain the truth.
+CREATE TABLE IF NOT EXISTS ledger_account_balance_shards
+(
+    account_uuid  UUID           NOT NULL,
+    shard         SMALLINT       NOT NULL,
+    posted_delta  NUMERIC(18, 4) NOT NULL DEFAULT 0,
+    created_date  TIMESTAMPTZ    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_date  TIMESTAMPTZ    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_ledger_account_balance_shards PRIMARY KEY (account_uuid, shard),
+    CONSTRAINT fk_ledger_account_balance_shard_account FOREIGN KEY (account_uuid) REFERENCES ledger_accounts (uuid) ON DELETE CASCADE,
+    CONSTRAINT chk_ledger_account_balance_shard CHECK (shard >= 0)
+);
+
+COMMENT ON TABLE ledger_account_balance_shards
+    IS 'Posted deltas of hot ledger accounts not yet folded into ledger_account_balances. Cached balance = balance row + sum of shards.';
@@ -0,0 +1,30 @@
+-- Checkpoints for the wallet/ledger reconciliation sweep.
+--
+-- Each sweep used to start from the first wallet and stop at its batch cap, so past that many
+-- wallets the tail of the table was never reconciled, and every wallet it did reach re-derived its
+-- ledger balance from the whole history.
+
+-- Where the last sweep stopped. The next one resumes there and wraps around to the start of the
+-- table, so every wallet is reached however large the table grows.
+CREATE TABLE IF NOT EXISTS ledger_reconciliation_cursors
+(
+    name           VARCHAR(64) PRIMARY KEY,
+    last_wallet_id BIGINT      NOT NULL DEFAULT 0,
+    updated_date   TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- The ledger balance of an account as verified up to one entry id. Entries are immutable, so the
+-- balance at an id never changes and a sweep only has to sum the entries after it.
+CREATE TABLE IF NOT EXISTS ledger_account_reconciliation_watermarks
+(
+    account_uuid      UUID           NOT NULL PRIMARY KEY,
+    verified_entry_id BIGINT         NOT NULL,
+    verified_balance  NUMERIC(18, 4) NOT NULL,
+    updated_date      TIMESTAMPTZ    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_ledger_reconciliation_watermark_account FOREIGN KEY (account_uuid) REFERENCES ledger_accounts (uuid) ON DELETE CASCADE
+);
+
+-- Lets "entries of this account after this id" be a range scan. It serves every lookup by account
+-- the single-column index did, so that one goes.
+CREATE INDEX IF NOT EXISTS idx_ledger_entry_account_id ON ledger_entries (account_uuid, id);
+DROP INDEX IF EXISTS idx_ledger_entry_account;
@@ -0,0 +1,32 @@
+-- Durable outbox for notification emails.
+--
+-- Emails used to be rendered and sent on the common ForkJoinPool, one SMTP session per message, so a
+-- class-wide announcement saturated both the shared pool and the mail server, and an email whose send
+-- failed was simply lost. Each email is now rendered once and written here in the same transaction as
+-- its delivery log entry; a dedicated worker pool drains the table by priority.
+
+CREATE TABLE IF NOT EXISTS notification_email_outbox
+(
+    id              BIGSERIAL PRIMARY KEY,
+    notification_id UUID         NOT NULL,
+    recipient_email VARCHAR(255) NOT NULL,
+    subject         VARCHAR(998) NOT NULL,
+    html_body       TEXT         NOT NULL,
+    reply_to        VARCHAR(255),
+    priority        VARCHAR(20)  NOT NULL,
+    status          VARCHAR(20)  NOT NULL DEFAULT 'QUEUED',
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ  NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error      VARCHAR(1000),
+    created_date    TIMESTAMPTZ  NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_notification_email_outbox_notification UNIQUE (notification_id),
+    CONSTRAINT chk_notification_email_outbox_priority CHECK (priority IN ('LOW', 'NORMAL', 'HIGH', 'CRITICAL')),
+    CONSTRAINT chk_notification_email_outbox_status CHECK (status IN ('QUEUED', 'SENDING', 'FAILED'))
+);
+
+-- Sent emails are deleted, so only what is waiting, in flight or given up on stays here. Workers claim
+-- the oldest due emails of one priority at a time. Claiming pushes next_attempt_at out by a lease, so
+-- an email whose worker died becomes due again once the lease runs out, with no separate lock column.
+CREATE INDEX IF NOT EXISTS idx_notification_email_outbox_due
+    ON notification_email_outbox (priority, next_attempt_at)
+    WHERE status IN ('QUEUED', 'SENDING');
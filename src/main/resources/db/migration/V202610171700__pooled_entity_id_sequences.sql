@@ -0,0 +1,70 @@
+-- BaseEntity ids move from IDENTITY to pooled-lo sequence allocation.
+--
+-- With IDENTITY, Hibernate has to INSERT each row the moment it is persisted to learn its id, which
+-- rules out JDBC batching: every saveAll is one round trip per row. Ids are now taken from each
+-- table's own <table>_id_seq (see TableIdSequenceNamingStrategy), 50 at a time. Under pooled-lo a
+-- nextval of v reserves v .. v+49, so the sequence has to advance by 50 per call.
+--
+-- The column default stays nextval(<table>_id_seq). JDBC stores and INSERT ... SELECT statements
+-- that rely on it simply reserve a whole block for one row, so they never collide with Hibernate.
+--
+-- Tables that were renamed kept their original sequence name (enrollments_id_seq, ...); those are
+-- renamed to match the table so Hibernate finds them.
+DO $$
+DECLARE
+    tbl      TEXT;
+    seq      TEXT;
+    expected TEXT;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY[
+        'academic_tiers', 'assessment_rubrics', 'assignment_attachments',
+        'assignment_submission_attachments', 'assignment_submissions', 'assignments', 'bookings',
+        'certificate_templates', 'certificates', 'class_assignment_schedules',
+        'class_definition_resources', 'class_definitions', 'class_enrollments',
+        'class_marketplace_job_applications', 'class_marketplace_job_resources',
+        'class_marketplace_job_session_templates', 'class_marketplace_jobs',
+        'class_quiz_schedules', 'class_resources', 'class_reviews', 'class_scheduling_conflicts',
+        'class_session_templates', 'commerce_cart', 'commerce_cart_item',
+        'commerce_catalogue_item', 'commerce_order', 'commerce_order_item', 'commerce_payment',
+        'commerce_product', 'commerce_product_variant', 'commerce_purchase',
+        'commerce_purchase_item', 'competition_teams', 'competitions',
+        'content_moderation_history', 'content_progress',
+        'course_assessment_line_item_rubric_evaluation_rows',
+        'course_assessment_line_item_rubric_evaluations', 'course_assessment_line_item_scores',
+        'course_assessment_line_items', 'course_assessment_scores', 'course_assessments',
+        'course_categories', 'course_category_mappings', 'course_creator_certifications',
+        'course_creator_documents', 'course_creator_education', 'course_creator_experience',
+        'course_creator_professional_memberships', 'course_creator_skills', 'course_creators',
+        'course_difficulty_levels', 'course_enrollments', 'course_gradebook_recalculations',
+        'course_pending_edits', 'course_requirements', 'course_reviews',
+        'course_rubric_associations', 'course_training_applications',
+        'course_training_requirements', 'course_version_snapshots', 'courses', 'currencies',
+        'document_types', 'grading_levels', 'instructor_availability', 'instructor_documents',
+        'instructor_education', 'instructor_experience', 'instructor_obligations',
+        'instructor_professional_memberships', 'instructor_reviews', 'instructor_skills',
+        'instructors', 'ledger_account_balances', 'ledger_accounts', 'ledger_entries',
+        'ledger_transactions', 'lesson_content_types', 'lesson_contents',
+        'lesson_practice_activities', 'lesson_progress', 'lessons', 'media_files',
+        'notification_delivery_log', 'organisation', 'organisation_invitation_classes',
+        'organisation_invitations', 'organisation_resources', 'program_courses',
+        'program_enrollments', 'program_requirements', 'program_reviews',
+        'program_training_applications', 'quiz_attempts', 'quiz_question_options',
+        'quiz_questions', 'quiz_responses', 'quizzes', 'request_audit_log',
+        'resource_availability_rules', 'resource_bookings', 'rubric_criteria', 'rubric_scoring',
+        'rubric_scoring_levels', 'scheduled_instances', 'skills_fund_sources',
+        'skills_fund_transactions', 'student_group_members', 'student_groups',
+        'student_guardian_links', 'students', 'system_rules', 'training_branches',
+        'training_programs', 'user_notification_preferences', 'user_notifications',
+        'user_organisation_domain_mapping', 'user_wallet_transactions', 'user_wallets', 'users'
+    ] LOOP
+        expected := tbl || '_id_seq';
+        seq := pg_get_serial_sequence(tbl, 'id');
+        IF seq IS NULL THEN
+            RAISE EXCEPTION 'Table % has no sequence behind its id column', tbl;
+        END IF;
+        IF seq <> 'public.' || expected THEN
+            EXECUTE format('ALTER SEQUENCE %s RENAME TO %I', seq, expected);
+        END IF;
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', expected);
+    END LOOP;
+END $$;
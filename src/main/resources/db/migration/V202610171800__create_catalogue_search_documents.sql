@@ -0,0 +1,66 @@
+-- Search index for catalogue discovery.
+--
+-- Catalogue search used to compile to lower(col) LIKE '%x%' predicates joined across courses, categories
+-- and difficulty levels, which no index can serve, so every search scanned the whole catalogue. Each
+-- searchable course, class definition, training programme and instructor profile now has one row here
+-- with its title, category names and description pre-joined. The weighted document column is matched by
+-- full-text prefix queries and the title by trigram similarity, both through GIN indexes, so a search
+-- touches the matching rows rather than the catalogue.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE TABLE IF NOT EXISTS catalogue_search_documents
+(
+    content_type  VARCHAR(32)  NOT NULL,
+    content_uuid  UUID         NOT NULL,
+    title         TEXT         NOT NULL,
+    category_text TEXT,
+    description   TEXT,
+    document      TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(category_text, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'C')
+        ) STORED,
+    indexed_at    TIMESTAMPTZ  NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_catalogue_search_documents PRIMARY KEY (content_type, content_uuid),
+    CONSTRAINT chk_catalogue_search_documents_type
+        CHECK (content_type IN ('COURSE', 'CLASS_DEFINITION', 'TRAINING_PROGRAM', 'INSTRUCTOR'))
+);
+
+-- The 'simple' configuration neither stems nor drops stop words: titles mix English, Swahili and product
+-- names, and prefix matching already covers the inflections stemming would.
+CREATE INDEX IF NOT EXISTS idx_catalogue_search_documents_document
+    ON catalogue_search_documents USING GIN (document);
+
+-- Serves the typo-tolerant word_similarity match on titles.
+CREATE INDEX IF NOT EXISTS idx_catalogue_search_documents_title_trgm
+    ON catalogue_search_documents USING GIN (title gin_trgm_ops);
+
+-- Backfill. From here on the application keeps rows current from content change events and rebuilds
+-- each content type periodically; the selects below mirror CatalogueSearchIndexer.
+INSERT INTO catalogue_search_documents (content_type, content_uuid, title, category_text, description)
+SELECT 'COURSE', c.uuid, c.name, string_agg(cat.name, ' ' ORDER BY cat.name), concat_ws(' ', c.description, c.objectives)
+FROM courses c
+         LEFT JOIN course_category_mappings m ON m.course_uuid = c.uuid
+         LEFT JOIN course_categories cat ON cat.uuid = m.category_uuid
+WHERE c.status = 'published'
+GROUP BY c.uuid, c.name, c.description, c.objectives;
+
+INSERT INTO catalogue_search_documents (content_type, content_uuid, title, category_text, description)
+SELECT 'CLASS_DEFINITION', d.uuid, d.title, cat.name, d.description
+FROM class_definitions d
+         LEFT JOIN course_categories cat ON cat.uuid = d.category_uuid
+WHERE d.is_active
+  AND d.class_visibility = 'PUBLIC';
+
+INSERT INTO catalogue_search_documents (content_type, content_uuid, title, category_text, description)
+SELECT 'TRAINING_PROGRAM', p.uuid, p.title, cat.name, concat_ws(' ', p.description, p.objectives)
+FROM training_programs p
+         LEFT JOIN course_categories cat ON cat.uuid = p.category_uuid
+WHERE p.status = 'published'
+  AND COALESCE(p.is_active, TRUE);
+
+INSERT INTO catalogue_search_documents (content_type, content_uuid, title, category_text, description)
+SELECT 'INSTRUCTOR', i.uuid, i.full_name, i.professional_headline, i.bio
+FROM instructors i
+WHERE NOT i.deleted;
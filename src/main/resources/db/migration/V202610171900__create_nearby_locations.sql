@@ -0,0 +1,86 @@
+-- Proximity index for "near me" discovery.
+--
+-- Class definitions, scheduled sessions, marketplace jobs, organisations, training branches and
+-- instructors all store coordinates, but nothing could query by distance: the only option was to load
+-- rows and filter by exact fields. Every located, publicly visible item now has one row here. The GiST
+-- index on position serves both the bounding box of a radius search and the ordered nearest-neighbour
+-- scan; exact great-circle distance is then computed for the few rows the index returns.
+
+CREATE TABLE IF NOT EXISTS nearby_locations
+(
+    content_type  VARCHAR(32)      NOT NULL,
+    content_uuid  UUID             NOT NULL,
+    -- The class definition a scheduled session belongs to, so class changes can re-read its sessions.
+    parent_uuid   UUID,
+    title         TEXT,
+    location_name TEXT,
+    latitude      DOUBLE PRECISION NOT NULL,
+    longitude     DOUBLE PRECISION NOT NULL,
+    -- Planar (longitude, latitude) point in degrees; only used to narrow candidates through the index.
+    position      POINT GENERATED ALWAYS AS (point(longitude, latitude)) STORED,
+    starts_at     TIMESTAMPTZ,
+    ends_at       TIMESTAMPTZ,
+    indexed_at    TIMESTAMPTZ      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_nearby_locations PRIMARY KEY (content_type, content_uuid),
+    CONSTRAINT chk_nearby_locations_type CHECK (content_type IN
+        ('CLASS_DEFINITION', 'SCHEDULED_INSTANCE', 'MARKETPLACE_JOB', 'ORGANISATION', 'TRAINING_BRANCH', 'INSTRUCTOR')),
+    CONSTRAINT chk_nearby_locations_coordinates CHECK (latitude BETWEEN -90 AND 90 AND longitude BETWEEN -180 AND 180)
+);
+
+CREATE INDEX IF NOT EXISTS idx_nearby_locations_position
+    ON nearby_locations USING GIST (position);
+
+CREATE INDEX IF NOT EXISTS idx_nearby_locations_parent
+    ON nearby_locations (parent_uuid)
+    WHERE parent_uuid IS NOT NULL;
+
+-- Backfill. From here on the application keeps rows current from entity change events and rebuilds
+-- each content type periodically; the selects below mirror NearbyLocationIndexer.
+INSERT INTO nearby_locations (content_type, content_uuid, parent_uuid, title, location_name, latitude, longitude,
+                              starts_at, ends_at)
+SELECT 'CLASS_DEFINITION', d.uuid, NULL, d.title, d.location_name, d.location_latitude, d.location_longitude,
+       NULL::timestamptz, NULL::timestamptz
+FROM class_definitions d
+WHERE d.is_active
+  AND d.class_visibility = 'PUBLIC'
+  AND d.location_latitude BETWEEN -90 AND 90
+  AND d.location_longitude BETWEEN -180 AND 180
+UNION ALL
+SELECT 'SCHEDULED_INSTANCE', s.uuid, s.class_definition_uuid, s.title, s.location_name, s.location_latitude,
+       s.location_longitude, s.start_time, s.end_time
+FROM scheduled_instances s
+         JOIN class_definitions d ON d.uuid = s.class_definition_uuid
+WHERE s.status IN ('SCHEDULED', 'ONGOING')
+  AND s.end_time > CURRENT_TIMESTAMP
+  AND d.is_active
+  AND d.class_visibility = 'PUBLIC'
+  AND s.location_latitude BETWEEN -90 AND 90
+  AND s.location_longitude BETWEEN -180 AND 180
+UNION ALL
+SELECT 'MARKETPLACE_JOB', j.uuid, NULL, j.title, j.location_name, j.location_latitude, j.location_longitude,
+       NULL, NULL
+FROM class_marketplace_jobs j
+WHERE j.status = 'OPEN'
+  AND j.class_visibility = 'PUBLIC'
+  AND j.location_latitude BETWEEN -90 AND 90
+  AND j.location_longitude BETWEEN -180 AND 180
+UNION ALL
+SELECT 'ORGANISATION', o.uuid, NULL, o.name, o.location, o.lat, o.long, NULL, NULL
+FROM organisation o
+WHERE o.active
+  AND NOT o.deleted
+  AND o.lat BETWEEN -90 AND 90
+  AND o.long BETWEEN -180 AND 180
+UNION ALL
+SELECT 'TRAINING_BRANCH', b.uuid, NULL, b.branch_name, b.address, b.lat, b.long, NULL, NULL
+FROM training_branches b
+WHERE b.active
+  AND NOT b.deleted
+  AND b.lat BETWEEN -90 AND 90
+  AND b.long BETWEEN -180 AND 180
+UNION ALL
+SELECT 'INSTRUCTOR', i.uuid, NULL, i.full_name, i.location_name, i.lat, i.long, NULL, NULL
+FROM instructors i
+WHERE NOT i.deleted
+  AND i.lat BETWEEN -90 AND 90
+  AND i.long BETWEEN -180 AND 180;
@@ -0,0 +1,10 @@
+-- scope_order_count counts every distinct order with a line in the row, so an order spanning both
+-- scopes is counted under each of them - the per-scope order count the line-level dashboards report.
+-- order_count, which attributes each order to one row, still serves the member-wide totals.
+ALTER TABLE revenue_daily_rollups
+    ADD COLUMN IF NOT EXISTS scope_order_count BIGINT NOT NULL DEFAULT 0;
+
+-- Rows written before this column existed carry zero. Returning every day to uncomputed makes the
+-- dashboards read raw lines for it until the rollup job has recomputed the day.
+UPDATE revenue_rollup_days
+SET computed_at = NULL;
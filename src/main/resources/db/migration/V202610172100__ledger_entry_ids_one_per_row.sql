@@ -0,0 +1,9 @@
+-- Ledger entries take their ids one at a time, in the order they are written.
+--
+-- V202610171700 moved every BaseEntity sequence to INCREMENT BY 50 for pooled-lo allocation. For
+-- ledger_entries that lets a node hold a block of ids and write a low one long after a higher id
+-- from another node has settled, and wallet reconciliation would step its entry-id watermark over
+-- it. Hibernate takes the block size from the sequence (increment_size_mismatch_strategy: fix), so
+-- this table goes back to one nextval per row; its inserts still batch at flush.
+
+ALTER SEQUENCE ledger_entries_id_seq INCREMENT BY 1;
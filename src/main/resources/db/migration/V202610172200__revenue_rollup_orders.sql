@@ -0,0 +1,27 @@
+-- Order counts summed from per-member rollup rows count an order once for every member of the
+-- viewer it touches: an order for two of a creator's courses counted twice. The rollups now keep
+-- the orders themselves - one row per order, day, dimension member and currency - and dashboards
+-- count them distinctly over the viewer's members, as they do from raw lines.
+CREATE TABLE IF NOT EXISTS revenue_daily_rollup_orders
+(
+    bucket_date    DATE         NOT NULL,
+    dimension_type VARCHAR(32)  NOT NULL,
+    dimension_uuid UUID         NOT NULL,
+    currency_code  VARCHAR(16)  NOT NULL,
+    order_id       VARCHAR(255) NOT NULL,
+    PRIMARY KEY (dimension_type, dimension_uuid, bucket_date, currency_code, order_id)
+);
+
+-- A day is replaced wholesale, by date.
+CREATE INDEX IF NOT EXISTS idx_revenue_daily_rollup_orders_bucket_date
+    ON revenue_daily_rollup_orders (bucket_date);
+
+-- The per-row counts have no reader left.
+ALTER TABLE revenue_daily_rollups
+    DROP COLUMN IF EXISTS order_count,
+    DROP COLUMN IF EXISTS scope_order_count;
+
+-- No day has its orders stored yet. Returning every day to uncomputed makes the dashboards read raw
+-- lines for it until the rollup job has recomputed the day.
+UPDATE revenue_rollup_days
+SET computed_at = NULL;
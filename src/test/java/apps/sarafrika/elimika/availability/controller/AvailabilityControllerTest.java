@@ -3,6 +3,7 @@ package apps.sarafrika.elimika.availability.controller;
 import apps.sarafrika.elimika.availability.dto.AvailabilitySlotDTO;
 import apps.sarafrika.elimika.availability.spi.AvailabilityService;
 import apps.sarafrika.elimika.shared.enums.AvailabilityType;
+import apps.sarafrika.elimika.shared.security.SyncedUserCache;
 import apps.sarafrika.elimika.shared.spi.timetabling.InstructorScheduleLookupService;
 import apps.sarafrika.elimika.shared.tracking.service.RequestAuditService;
 import apps.sarafrika.elimika.tenancy.spi.UserManagementService;
@@ -126,6 +127,11 @@ class AvailabilityControllerTest {
             return Mockito.mock(UserManagementService.class);
         }
 
+        @Bean
+        SyncedUserCache syncedUserCache() {
+            return Mockito.mock(SyncedUserCache.class);
+        }
+
         @Bean
         RequestAuditService requestAuditService() {
             return Mockito.mock(RequestAuditService.class);
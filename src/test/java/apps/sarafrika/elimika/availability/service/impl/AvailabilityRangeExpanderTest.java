@@ -0,0 +1,96 @@
+package apps.sarafrika.elimika.availability.service.impl;
+
+import apps.sarafrika.elimika.availability.model.InstructorAvailability;
+import apps.sarafrika.elimika.shared.enums.AvailabilityType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityRangeExpanderTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+    private static final LocalDate END = LocalDate.of(2026, 3, 31);
+
+    @Test
+    void expandsEachPatternOnlyOnTheDatesItMatches() {
+        InstructorAvailability mondays = slot(AvailabilityType.WEEKLY, "09:00", "12:00", true);
+        mondays.setDayOfWeek(1);
+        InstructorAvailability thirtieth = slot(AvailabilityType.MONTHLY, "14:00", "16:00", true);
+        thirtieth.setDayOfMonth(30);
+        InstructorAvailability oneOff = slot(AvailabilityType.CUSTOM, "08:00", "10:00", false);
+        oneOff.setSpecificDate(LocalDate.of(2026, 1, 5));
+        InstructorAvailability januaryOnly = slot(AvailabilityType.DAILY, "18:00", "19:00", true);
+        januaryOnly.setEffectiveStartDate(LocalDate.of(2025, 12, 1));
+        januaryOnly.setEffectiveEndDate(LocalDate.of(2026, 1, 31));
+
+        NavigableMap<LocalDate, List<InstructorAvailability>> byDate = AvailabilityRangeExpander.expand(
+                List.of(mondays, thirtieth, oneOff, januaryOnly), START, END);
+
+        assertThat(datesOf(byDate, mondays)).hasSize(13)
+                .allMatch(date -> date.getDayOfWeek().getValue() == 1);
+        // February has no 30th.
+        assertThat(datesOf(byDate, thirtieth))
+                .containsExactly(LocalDate.of(2026, 1, 30), LocalDate.of(2026, 3, 30));
+        assertThat(datesOf(byDate, oneOff)).containsExactly(LocalDate.of(2026, 1, 5));
+        assertThat(datesOf(byDate, januaryOnly)).hasSize(31)
+                .allMatch(date -> date.getMonthValue() == 1);
+        assertThat(byDate.get(LocalDate.of(2026, 1, 5))).containsExactly(mondays, oneOff, januaryOnly);
+    }
+
+    @Test
+    void blockedTimeIsCutOutOfAvailableSlotsOnTheSameDate() {
+        InstructorAvailability morning = slot(AvailabilityType.DAILY, "08:00", "17:00", true);
+        InstructorAvailability meeting = slot(AvailabilityType.CUSTOM, "10:00", "11:00", false);
+        InstructorAvailability lunch = slot(AvailabilityType.CUSTOM, "10:30", "13:00", false);
+        InstructorAvailability evening = slot(AvailabilityType.DAILY, "18:00", "19:00", true);
+        InstructorAvailability allEvening = slot(AvailabilityType.CUSTOM, "17:30", "20:00", false);
+
+        List<AvailabilityRangeExpander.Interval> remaining = AvailabilityRangeExpander.subtractBlocked(
+                List.of(morning, meeting, lunch, evening, allEvening));
+
+        assertThat(remaining).extracting(AvailabilityRangeExpander.Interval::source)
+                .containsExactly(morning, morning);
+        assertThat(remaining).extracting(AvailabilityRangeExpander.Interval::start)
+                .containsExactly(LocalTime.of(8, 0), LocalTime.of(13, 0));
+        assertThat(remaining).extracting(AvailabilityRangeExpander.Interval::end)
+                .containsExactly(LocalTime.of(10, 0), LocalTime.of(17, 0));
+    }
+
+    @Test
+    void slotsWithoutBlockedTimeAreKeptWhole() {
+        InstructorAvailability morning = slot(AvailabilityType.DAILY, "08:00", "12:00", true);
+        InstructorAvailability untimedBlock = slot(AvailabilityType.CUSTOM, null, null, false);
+
+        List<AvailabilityRangeExpander.Interval> remaining = AvailabilityRangeExpander.subtractBlocked(
+                List.of(morning, untimedBlock));
+
+        assertThat(remaining).containsExactly(
+                new AvailabilityRangeExpander.Interval(morning, LocalTime.of(8, 0), LocalTime.of(12, 0)));
+        assertThat(AvailabilityRangeExpander.subtractBlocked(List.of(untimedBlock))).isEmpty();
+    }
+
+    private static List<LocalDate> datesOf(
+            NavigableMap<LocalDate, List<InstructorAvailability>> byDate, InstructorAvailability slot) {
+        return byDate.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(slot))
+                .map(java.util.Map.Entry::getKey)
+                .toList();
+    }
+
+    private static InstructorAvailability slot(AvailabilityType type, String start, String end, boolean available) {
+        InstructorAvailability slot = new InstructorAvailability();
+        slot.setUuid(UUID.randomUUID());
+        slot.setInstructorUuid(UUID.randomUUID());
+        slot.setAvailabilityType(type);
+        slot.setStartTime(start != null ? LocalTime.parse(start) : null);
+        slot.setEndTime(end != null ? LocalTime.parse(end) : null);
+        slot.setIsAvailable(available);
+        return slot;
+    }
+}
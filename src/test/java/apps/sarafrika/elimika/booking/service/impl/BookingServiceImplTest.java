@@ -7,6 +7,7 @@ import apps.sarafrika.elimika.booking.model.Booking;
 import apps.sarafrika.elimika.booking.payment.PaymentGatewayClient;
 import apps.sarafrika.elimika.booking.payment.PaymentSession;
 import apps.sarafrika.elimika.booking.repository.BookingRepository;
+import apps.sarafrika.elimika.booking.spi.BookingService;
 import apps.sarafrika.elimika.classes.dto.ClassDefinitionDTO;
 import apps.sarafrika.elimika.classes.dto.ClassDefinitionResponseDTO;
 import apps.sarafrika.elimika.classes.spi.ClassDefinitionService;
@@ -15,6 +16,7 @@ import apps.sarafrika.elimika.shared.enums.BookingStatus;
 import apps.sarafrika.elimika.shared.enums.ClassVisibility;
 import apps.sarafrika.elimika.shared.enums.LocationType;
 import apps.sarafrika.elimika.shared.enums.SessionFormat;
+import apps.sarafrika.elimika.shared.event.hold.HoldPlacedEvent;
 import apps.sarafrika.elimika.timetabling.spi.EnrollmentDTO;
 import apps.sarafrika.elimika.timetabling.spi.EnrollmentStatus;
 import apps.sarafrika.elimika.timetabling.spi.ScheduleRequestDTO;
@@ -23,10 +25,10 @@ import apps.sarafrika.elimika.timetabling.spi.SchedulingStatus;
 import apps.sarafrika.elimika.timetabling.spi.TimetableService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -60,6 +62,9 @@ class BookingServiceImplTest {
     @Mock
     private CourseInfoService courseInfoService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -103,6 +108,7 @@ class BookingServiceImplTest {
         assertThat(response.paymentSessionId()).isEqualTo("sess_123");
 
         verify(availabilityService).isInstructorAvailable(instructorUuid, start, end);
+        verify(eventPublisher).publishEvent(new HoldPlacedEvent(BookingService.HOLD_TYPE, start));
     }
 
     @Test
@@ -250,28 +256,15 @@ class BookingServiceImplTest {
     }
 
     @Test
-    void expireHolds_marksExpiredAndReleasesAvailability() {
-        UUID blockUuid = UUID.randomUUID();
-        Booking booking = new Booking();
-        booking.setUuid(UUID.randomUUID());
-        booking.setStatus(BookingStatus.PAYMENT_REQUIRED);
-        booking.setHoldExpiresAt(LocalDateTime.now().minusMinutes(1));
-        booking.setAvailabilityBlockUuid(blockUuid);
-
-        when(bookingRepository.findByStatusAndHoldExpiresAtBefore(eq(BookingStatus.PAYMENT_REQUIRED), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
-        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
-
-        bookingService.expireHolds();
+    void expireHolds_expiresEveryLapsedHoldInOneStatement() {
+        LocalDateTime cutoff = LocalDateTime.of(2026, 10, 17, 12, 0);
+        when(bookingRepository.expireHoldsDueBy(BookingStatus.PAYMENT_REQUIRED, BookingStatus.EXPIRED, cutoff))
+                .thenReturn(3);
 
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<List<Booking>> captor = ArgumentCaptor.forClass(List.class);
-        verify(bookingRepository).saveAll(captor.capture());
-        List<Booking> saved = captor.getValue();
+        int expired = bookingService.expireHolds(cutoff);
 
-        assertThat(saved).hasSize(1);
-        assertThat(saved.get(0).getStatus()).isEqualTo(BookingStatus.EXPIRED);
-        assertThat(saved.get(0).getAvailabilityBlockUuid()).isNull();
+        assertThat(expired).isEqualTo(3);
+        verify(bookingRepository, never()).saveAll(anyList());
     }
 
     @Test
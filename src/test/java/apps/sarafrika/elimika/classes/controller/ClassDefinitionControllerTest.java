@@ -17,6 +17,7 @@ import apps.sarafrika.elimika.shared.config.GlobalExceptionHandler;
 import apps.sarafrika.elimika.shared.enums.ClassVisibility;
 import apps.sarafrika.elimika.shared.enums.LocationType;
 import apps.sarafrika.elimika.shared.enums.SessionFormat;
+import apps.sarafrika.elimika.shared.security.SyncedUserCache;
 import apps.sarafrika.elimika.shared.storage.config.StorageProperties;
 import apps.sarafrika.elimika.shared.storage.service.StorageService;
 import apps.sarafrika.elimika.shared.tracking.service.RequestAuditService;
@@ -736,6 +737,11 @@ class ClassDefinitionControllerTest {
             return Mockito.mock(UserManagementService.class);
         }
 
+        @Bean
+        SyncedUserCache syncedUserCache() {
+            return Mockito.mock(SyncedUserCache.class);
+        }
+
         @Bean
         RequestAuditService requestAuditService() {
             return Mockito.mock(RequestAuditService.class);
@@ -748,7 +754,8 @@ class ClassDefinitionControllerTest {
 
         @Bean
         apps.sarafrika.elimika.shared.storage.service.MediaServeService mediaServeService(StorageService storageService) {
-            return new apps.sarafrika.elimika.shared.storage.service.MediaServeService(storageService);
+            return new apps.sarafrika.elimika.shared.storage.service.MediaServeService(
+                    storageService, Mockito.mock(apps.sarafrika.elimika.shared.storage.repository.MediaFileRepository.class));
         }
 
         @Bean
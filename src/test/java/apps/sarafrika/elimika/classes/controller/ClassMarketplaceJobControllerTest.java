@@ -14,6 +14,7 @@ import apps.sarafrika.elimika.shared.enums.ClassServiceType;
 import apps.sarafrika.elimika.shared.enums.ClassVisibility;
 import apps.sarafrika.elimika.shared.enums.LocationType;
 import apps.sarafrika.elimika.shared.enums.SessionFormat;
+import apps.sarafrika.elimika.shared.security.SyncedUserCache;
 import apps.sarafrika.elimika.shared.tracking.service.RequestAuditService;
 import apps.sarafrika.elimika.tenancy.spi.UserManagementService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -385,6 +386,11 @@ class ClassMarketplaceJobControllerTest {
             return Mockito.mock(UserManagementService.class);
         }
 
+        @Bean
+        SyncedUserCache syncedUserCache() {
+            return Mockito.mock(SyncedUserCache.class);
+        }
+
         @Bean
         RequestAuditService requestAuditService() {
             return Mockito.mock(RequestAuditService.class);
@@ -24,7 +24,9 @@ import apps.sarafrika.elimika.shared.storage.service.MediaUploadRequest;
 import apps.sarafrika.elimika.shared.storage.service.MediaValidationService;
 import apps.sarafrika.elimika.shared.storage.service.StoredMedia;
 import apps.sarafrika.elimika.shared.storage.util.MediaCategory;
-import apps.sarafrika.elimika.timetabling.spi.ScheduleRequestDTO;
+import apps.sarafrika.elimika.shared.utils.recurrence.OccurrenceWindow;
+import apps.sarafrika.elimika.timetabling.spi.ConflictDetector;
+import apps.sarafrika.elimika.timetabling.spi.OccurrenceConflict;
 import apps.sarafrika.elimika.timetabling.spi.ScheduledInstanceDTO;
 import apps.sarafrika.elimika.timetabling.spi.SchedulingStatus;
 import apps.sarafrika.elimika.timetabling.spi.TimetableService;
@@ -47,6 +49,7 @@ import java.util.stream.StreamSupport;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.verify;
@@ -73,6 +76,9 @@ class ClassDefinitionServiceImplTest {
     @Mock
     private AvailabilityService availabilityService;
 
+    @Mock
+    private ConflictDetector conflictDetector;
+
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
@@ -131,6 +137,7 @@ class ClassDefinitionServiceImplTest {
                 resourceBookingService,
                 resourceLookupService,
                 availabilityService,
+                conflictDetector,
                 eventPublisher,
                 courseInfoService,
                 courseTrainingApprovalSpi,
@@ -159,15 +166,10 @@ class ClassDefinitionServiceImplTest {
             return templates;
         });
         when(availabilityService.getAvailabilityForInstructor(request.defaultInstructorUuid())).thenReturn(List.of());
-        when(availabilityService.isInstructorAvailable(
-                request.defaultInstructorUuid(),
-                request.sessionTemplates().getFirst().startTime(),
-                request.sessionTemplates().getFirst().endTime()))
-                .thenReturn(true);
+        instructorHasNoConflicts(request.defaultInstructorUuid());
         when(timetableServiceProvider.getIfAvailable()).thenReturn(timetableService);
         when(classScheduleServiceProvider.getIfAvailable()).thenReturn(null);
-        when(timetableService.hasInstructorConflict(any(UUID.class), any(ScheduleRequestDTO.class))).thenReturn(false);
-        when(timetableService.scheduleClass(any(ScheduleRequestDTO.class))).thenReturn(sampleScheduledInstance(classUuid));
+        when(timetableService.scheduleClasses(anyList())).thenReturn(List.of(sampleScheduledInstance(classUuid)));
 
         ClassDefinitionResponseDTO response = service.createClassDefinition(request);
 
@@ -186,7 +188,7 @@ class ClassDefinitionServiceImplTest {
                     });
             return true;
         }));
-        verify(timetableService).scheduleClass(any(ScheduleRequestDTO.class));
+        verify(timetableService).scheduleClasses(argThat(requests -> requests.size() == 1));
     }
 
     @Test
@@ -214,15 +216,10 @@ class ClassDefinitionServiceImplTest {
         when(classSessionTemplateRepository.findByClassDefinitionUuidOrderByTemplateOrderAscCreatedDateAsc(classUuid))
                 .thenReturn(List.of());
         when(availabilityService.getAvailabilityForInstructor(request.defaultInstructorUuid())).thenReturn(List.of());
-        when(availabilityService.isInstructorAvailable(
-                request.defaultInstructorUuid(),
-                request.sessionTemplates().getFirst().startTime(),
-                request.sessionTemplates().getFirst().endTime()))
-                .thenReturn(true);
+        instructorHasNoConflicts(request.defaultInstructorUuid());
         when(timetableServiceProvider.getIfAvailable()).thenReturn(timetableService);
         when(classScheduleServiceProvider.getIfAvailable()).thenReturn(null);
-        when(timetableService.hasInstructorConflict(any(UUID.class), any(ScheduleRequestDTO.class))).thenReturn(false);
-        when(timetableService.scheduleClass(any(ScheduleRequestDTO.class))).thenReturn(sampleScheduledInstance(classUuid));
+        when(timetableService.scheduleClasses(anyList())).thenReturn(List.of(sampleScheduledInstance(classUuid)));
         when(mediaStorageService.store(argThat((MediaUploadRequest r) -> r != null && r.file() == thumbnail)))
                 .thenReturn(new StoredMedia("class_thumbnails/" + classUuid + "/generated.png", "image.png", 5, "image/png"));
         when(mediaStorageService.store(argThat((MediaUploadRequest r) -> r != null && r.file() == promotionalVideo)))
@@ -456,6 +453,14 @@ class ClassDefinitionServiceImplTest {
         return template;
     }
 
+    @SuppressWarnings("unchecked")
+    private void instructorHasNoConflicts(UUID instructorUuid) {
+        when(conflictDetector.findInstructorConflicts(eq(instructorUuid), anyList())).thenAnswer(invocation ->
+                ((List<OccurrenceWindow>) invocation.getArgument(1)).stream()
+                        .map(window -> new OccurrenceConflict(window, false, List.of()))
+                        .toList());
+    }
+
     private ScheduledInstanceDTO sampleScheduledInstance(UUID classUuid) {
         return new ScheduledInstanceDTO(
                 UUID.randomUUID(),
@@ -33,7 +33,10 @@ import apps.sarafrika.elimika.resourcing.spi.InstanceWindow;
 import apps.sarafrika.elimika.resourcing.spi.ResourceBookingRequest;
 import apps.sarafrika.elimika.resourcing.spi.ResourceSummary;
 import apps.sarafrika.elimika.resourcing.spi.ResourceType;
+import apps.sarafrika.elimika.shared.utils.recurrence.OccurrenceWindow;
 import apps.sarafrika.elimika.tenancy.spi.UserLookupService;
+import apps.sarafrika.elimika.timetabling.spi.ConflictDetector;
+import apps.sarafrika.elimika.timetabling.spi.OccurrenceConflict;
 import apps.sarafrika.elimika.timetabling.spi.ScheduledInstanceDTO;
 import apps.sarafrika.elimika.timetabling.spi.SchedulingStatus;
 import org.junit.jupiter.api.BeforeEach;
@@ -42,6 +45,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
@@ -51,11 +55,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import apps.sarafrika.elimika.shared.event.notification.NotificationRequestedEvent;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.never;
@@ -87,7 +93,7 @@ class ClassMarketplaceJobServiceImplTest {
     private apps.sarafrika.elimika.resourcing.spi.ResourceLookupService resourceLookupService;
 
     @Mock
-    private apps.sarafrika.elimika.availability.spi.AvailabilityService availabilityService;
+    private ConflictDetector conflictDetector;
 
     @Mock
     private org.springframework.beans.factory.ObjectProvider<apps.sarafrika.elimika.timetabling.spi.TimetableService> timetableServiceProvider;
@@ -151,7 +157,7 @@ class ClassMarketplaceJobServiceImplTest {
                 classDefinitionService,
                 resourceBookingService,
                 resourceLookupService,
-                availabilityService,
+                conflictDetector,
                 timetableServiceProvider,
                 eventPublisher,
                 mediaStorageService,
@@ -166,11 +172,8 @@ class ClassMarketplaceJobServiceImplTest {
                 .thenReturn(Optional.of(new BigDecimal("240.00")));
         org.mockito.Mockito.lenient().when(timetableServiceProvider.getIfAvailable()).thenReturn(timetableService);
         org.mockito.Mockito.lenient()
-                .when(availabilityService.isInstructorAvailable(
-                        org.mockito.ArgumentMatchers.any(),
-                        org.mockito.ArgumentMatchers.any(),
-                        org.mockito.ArgumentMatchers.any()))
-                .thenReturn(true);
+                .when(conflictDetector.findInstructorConflicts(any(), anyList()))
+                .thenAnswer(instructorConflicts(window -> false, false));
     }
 
     @Test
@@ -1667,11 +1670,8 @@ class ClassMarketplaceJobServiceImplTest {
         when(sessionTemplateRepository.findByJobUuidOrderByCreatedDateAsc(job.getUuid()))
                 .thenReturn(List.of(sampleSessionTemplate(job.getUuid())));
         // existing session overlaps the first Saturday occurrence (2026-05-02 09:00-12:00)
-        when(timetableService.getScheduleForInstructor(eq(instructorUuid), any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(List.of(scheduledInstance(
-                        LocalDateTime.of(2026, 5, 2, 10, 0),
-                        LocalDateTime.of(2026, 5, 2, 11, 0),
-                        SchedulingStatus.SCHEDULED)));
+        when(conflictDetector.findInstructorConflicts(eq(instructorUuid), anyList()))
+                .thenAnswer(instructorConflicts(window -> window.start().equals(LocalDateTime.of(2026, 5, 2, 9, 0)), false));
 
         assertThatThrownBy(() -> service.applyToJob(job.getUuid(), new ClassMarketplaceJobApplicationRequestDTO("Keen")))
                 .isInstanceOfSatisfying(SchedulingConflictException.class, ex -> {
@@ -1684,7 +1684,7 @@ class ClassMarketplaceJobServiceImplTest {
     }
 
     @Test
-    void applyToJobIgnoresCompletedAndBoundaryTouchingSessions() {
+    void applyToJobAcceptsInstructorWhoseScheduleIsClear() {
         UUID currentUserUuid = UUID.randomUUID();
         UUID instructorUuid = UUID.randomUUID();
         ClassMarketplaceJob job = sampleJob();
@@ -1697,18 +1697,8 @@ class ClassMarketplaceJobServiceImplTest {
         when(courseTrainingApprovalSpi.isInstructorApproved(job.getCourseUuid(), instructorUuid)).thenReturn(true);
         when(sessionTemplateRepository.findByJobUuidOrderByCreatedDateAsc(job.getUuid()))
                 .thenReturn(List.of(sampleSessionTemplate(job.getUuid())));
-        when(timetableService.getScheduleForInstructor(eq(instructorUuid), any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(List.of(
-                        // completed session overlapping the window: ignored
-                        scheduledInstance(
-                                LocalDateTime.of(2026, 5, 2, 10, 0),
-                                LocalDateTime.of(2026, 5, 2, 11, 0),
-                                SchedulingStatus.COMPLETED),
-                        // back-to-back session ending exactly at the occurrence start: no overlap
-                        scheduledInstance(
-                                LocalDateTime.of(2026, 5, 2, 7, 0),
-                                LocalDateTime.of(2026, 5, 2, 9, 0),
-                                SchedulingStatus.SCHEDULED)));
+        when(conflictDetector.findInstructorConflicts(eq(instructorUuid), anyList()))
+                .thenAnswer(instructorConflicts(window -> false, false));
         when(applicationRepository.findByJobUuidAndInstructorUuid(job.getUuid(), instructorUuid))
                 .thenReturn(Optional.empty());
         when(applicationRepository.save(any(ClassMarketplaceJobApplication.class)))
@@ -1733,9 +1723,8 @@ class ClassMarketplaceJobServiceImplTest {
         when(courseTrainingApprovalSpi.isInstructorApproved(job.getCourseUuid(), instructorUuid)).thenReturn(true);
         when(sessionTemplateRepository.findByJobUuidOrderByCreatedDateAsc(job.getUuid()))
                 .thenReturn(List.of(sampleSessionTemplate(job.getUuid())));
-        when(timetableService.getScheduleForInstructor(eq(instructorUuid), any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(List.of());
-        when(availabilityService.isInstructorAvailable(eq(instructorUuid), any(), any())).thenReturn(false);
+        when(conflictDetector.findInstructorConflicts(eq(instructorUuid), anyList()))
+                .thenAnswer(instructorConflicts(window -> false, true));
 
         assertThatThrownBy(() -> service.applyToJob(job.getUuid(), new ClassMarketplaceJobApplicationRequestDTO("Keen")))
                 .isInstanceOfSatisfying(SchedulingConflictException.class, ex ->
@@ -1757,11 +1746,8 @@ class ClassMarketplaceJobServiceImplTest {
         when(applicationRepository.findByJobUuidAndInstructorUuid(job.getUuid(), instructorUuid)).thenReturn(Optional.empty());
         when(sessionTemplateRepository.findByJobUuidOrderByCreatedDateAsc(job.getUuid()))
                 .thenReturn(List.of(sampleSessionTemplate(job.getUuid())));
-        when(timetableService.getScheduleForInstructor(eq(instructorUuid), any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(List.of(scheduledInstance(
-                        LocalDateTime.of(2026, 5, 9, 9, 0),
-                        LocalDateTime.of(2026, 5, 9, 12, 0),
-                        SchedulingStatus.BLOCKED)));
+        when(conflictDetector.findInstructorConflicts(eq(instructorUuid), anyList()))
+                .thenAnswer(instructorConflicts(window -> window.start().equals(LocalDateTime.of(2026, 5, 9, 9, 0)), false));
 
         var eligibility = service.getMyJobEligibility(job.getUuid());
 
@@ -1793,8 +1779,6 @@ class ClassMarketplaceJobServiceImplTest {
         when(courseTrainingApprovalSpi.isInstructorApproved(job.getCourseUuid(), instructorUuid)).thenReturn(true);
         when(sessionTemplateRepository.findByJobUuidOrderByCreatedDateAsc(job.getUuid()))
                 .thenReturn(List.of(sampleSessionTemplate(job.getUuid())));
-        when(timetableService.getScheduleForInstructor(eq(instructorUuid), any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(List.of());
         when(userLookupService.getUserEmail(currentUserUuid)).thenReturn(Optional.of("manager@org.test"));
         when(classDefinitionService.createClassDefinition(any(ClassDefinitionDTO.class)))
                 .thenReturn(new ClassDefinitionResponseDTO(createdClassDefinition(classDefinitionUuid, instructorUuid, job)));
@@ -1861,11 +1845,8 @@ class ClassMarketplaceJobServiceImplTest {
         when(courseTrainingApprovalSpi.isInstructorApproved(job.getCourseUuid(), instructorUuid)).thenReturn(true);
         when(sessionTemplateRepository.findByJobUuidOrderByCreatedDateAsc(job.getUuid()))
                 .thenReturn(List.of(sampleSessionTemplate(job.getUuid())));
-        when(timetableService.getScheduleForInstructor(eq(instructorUuid), any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(List.of(scheduledInstance(
-                        LocalDateTime.of(2026, 5, 16, 9, 0),
-                        LocalDateTime.of(2026, 5, 16, 12, 0),
-                        SchedulingStatus.SCHEDULED)));
+        when(conflictDetector.findInstructorConflicts(eq(instructorUuid), anyList()))
+                .thenAnswer(instructorConflicts(window -> window.start().equals(LocalDateTime.of(2026, 5, 16, 9, 0)), false));
 
         assertThatThrownBy(() -> service.assignInstructor(job.getUuid(),
                 new ClassMarketplaceJobAssignmentRequestDTO(application.getUuid())))
@@ -1888,6 +1869,21 @@ class ClassMarketplaceJobServiceImplTest {
                 base.remindInstructor(), base.remindViaEmail(), base.remindViaSms(), base.remindViaPush());
     }
 
+    /**
+     * Answers a conflict check window by window: {@code overlapsSchedule} marks the windows that
+     * clash with an existing session, {@code unavailable} marks every window as declared unavailable.
+     */
+    @SuppressWarnings("unchecked")
+    private static Answer<List<OccurrenceConflict>> instructorConflicts(Predicate<OccurrenceWindow> overlapsSchedule,
+                                                                        boolean unavailable) {
+        return invocation -> ((List<OccurrenceWindow>) invocation.getArgument(1)).stream()
+                .map(window -> new OccurrenceConflict(
+                        window,
+                        unavailable,
+                        overlapsSchedule.test(window) ? List.of(UUID.randomUUID()) : List.of()))
+                .toList();
+    }
+
     private ResourceSummary venueSummary(UUID resourceUuid, UUID organisationUuid, int seatCapacity, boolean active) {
         return new ResourceSummary(resourceUuid, organisationUuid, null, ResourceType.VENUE,
                 "Physics Lab", seatCapacity, null, active);
@@ -0,0 +1,88 @@
+package apps.sarafrika.elimika.commerce.internal.service.impl;
+
+import apps.sarafrika.elimika.commerce.internal.config.InternalCommerceProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoIpCountryDatabaseTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path dataset;
+    private GeoIpCountryDatabase database;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataset = tempDir.resolve("country-cidr.csv");
+        Files.writeString(dataset, """
+                network,country_code
+                # East Africa
+                41.89.0.0/16,KE
+                41.89.64.0/18,UG
+                196.200.0.0/13,tz
+                2c0f:fe38::/32,KE
+                2c0f:fe38:2000::/35,RW
+                not-a-block,ZZ
+                """);
+
+        InternalCommerceProperties properties = new InternalCommerceProperties();
+        properties.setGeoipEnabled(true);
+        properties.setGeoipDatabasePath(dataset.toString());
+        database = new GeoIpCountryDatabase(properties);
+    }
+
+    @Test
+    void findsTheMostSpecificBlockForIpv4AndIpv6() {
+        database.reloadIfChanged();
+
+        assertThat(database.findCountry("41.89.10.1")).isEqualTo("KE");
+        assertThat(database.findCountry("41.89.100.7")).isEqualTo("UG");
+        assertThat(database.findCountry("196.207.255.255")).isEqualTo("TZ");
+        assertThat(database.findCountry("196.208.0.0")).isNull();
+        assertThat(database.findCountry("2c0f:fe38:1::1")).isEqualTo("KE");
+        assertThat(database.findCountry("2C0F:FE38:2001:0:0:0:0:1")).isEqualTo("RW");
+        assertThat(database.findCountry("[2c0f:fe38::1%eth0]")).isEqualTo("KE");
+        assertThat(database.findCountry("::ffff:41.89.10.1")).isEqualTo("KE");
+    }
+
+    @Test
+    void ignoresAnythingThatIsNotAnAddressLiteral() {
+        database.reloadIfChanged();
+
+        assertThat(database.findCountry("example.com")).isNull();
+        assertThat(database.findCountry("41.89.10")).isNull();
+        assertThat(database.findCountry("41.89.10.256")).isNull();
+        assertThat(database.findCountry("2c0f::fe38::1")).isNull();
+    }
+
+    @Test
+    void reloadsWhenTheFileChangesAndKeepsTheTableWhenItDisappears() throws IOException {
+        database.reloadIfChanged();
+        assertThat(database.findCountry("102.0.0.1")).isNull();
+
+        Files.writeString(dataset, "102.0.0.0/8,NG\n");
+        Files.setLastModifiedTime(dataset, FileTime.from(Instant.now().plusSeconds(5)));
+        database.reloadIfChanged();
+        assertThat(database.findCountry("102.0.0.1")).isEqualTo("NG");
+        assertThat(database.findCountry("41.89.10.1")).isNull();
+
+        Files.delete(dataset);
+        database.reloadIfChanged();
+        assertThat(database.findCountry("102.0.0.1")).isEqualTo("NG");
+    }
+
+    @Test
+    void answersNothingUntilADatasetIsLoaded() {
+        assertThat(database.findCountry("41.89.10.1")).isNull();
+    }
+}
@@ -0,0 +1,204 @@
+package apps.sarafrika.elimika.commerce.payment.internal;
+
+import apps.sarafrika.elimika.commerce.internal.entity.CommerceOrder;
+import apps.sarafrika.elimika.commerce.internal.enums.PaymentStatus;
+import apps.sarafrika.elimika.commerce.internal.repository.CommerceOrderRepository;
+import apps.sarafrika.elimika.commerce.internal.service.InternalOrderService;
+import apps.sarafrika.elimika.commerce.internal.service.impl.PlatformFeeCalculator;
+import apps.sarafrika.elimika.commerce.payment.client.MpesaGatewayClient;
+import apps.sarafrika.elimika.commerce.payment.client.MpesaGatewayException;
+import apps.sarafrika.elimika.commerce.payment.service.impl.OrderPaymentServiceImpl;
+import apps.sarafrika.elimika.shared.dto.commerce.OrderResponse;
+import apps.sarafrika.elimika.shared.spi.ClassEnrolmentGateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MpesaPaymentReconciliationSchedulerTest {
+
+    private static final int MAX_CONCURRENCY = 3;
+
+    @Mock
+    private CommerceOrderRepository orderRepository;
+    @Mock
+    private InternalOrderService internalOrderService;
+    @Mock
+    private PlatformFeeCalculator platformFeeCalculator;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ClassEnrolmentGateService classEnrolmentGateService;
+
+    private StubGatewayClient gateway;
+    private SimpleMeterRegistry meterRegistry;
+    private MpesaPaymentReconciliationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        gateway = new StubGatewayClient();
+        meterRegistry = new SimpleMeterRegistry();
+        OrderPaymentServiceImpl orderPaymentService = new OrderPaymentServiceImpl(
+                internalOrderService, gateway, platformFeeCalculator, eventPublisher, classEnrolmentGateService);
+        scheduler = new MpesaPaymentReconciliationScheduler(
+                orderRepository, orderPaymentService, meterRegistry,
+                MAX_CONCURRENCY, Duration.ofMinutes(1), Duration.ofMinutes(10));
+
+        lenient().when(internalOrderService.getOrder(anyString()))
+                .thenAnswer(invocation -> awaitingPayment(invocation.getArgument(0)));
+        lenient().when(internalOrderService.findCheckoutRequestId(anyString()))
+                .thenAnswer(invocation -> Optional.of(checkoutId(invocation.getArgument(0))));
+    }
+
+    @Test
+    void settlesEveryOrderWithoutExceedingTheGatewayConcurrencyCap() {
+        List<CommerceOrder> orders = IntStream.range(0, 12)
+                .mapToObj(i -> order(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(2)))
+                .toList();
+        String paidOrderId = orders.get(4).getUuid().toString();
+        gateway.statuses.put(checkoutId(paidOrderId), "SUCCESS");
+        when(orderRepository.findByPaymentStatusAndCheckoutRequestIdIsNotNullAndPlacedAtBefore(
+                eq(PaymentStatus.AWAITING_PAYMENT), any())).thenReturn(orders);
+        when(internalOrderService.markOrderCaptured(paidOrderId)).thenReturn(awaitingPayment(paidOrderId));
+
+        scheduler.settleUnresolvedPayments();
+
+        assertThat(gateway.calls.get()).isEqualTo(12);
+        assertThat(gateway.maxInFlight.get()).isBetween(1, MAX_CONCURRENCY);
+        verify(internalOrderService).markOrderCaptured(paidOrderId);
+        assertThat(outcomeCount("captured")).isEqualTo(1.0);
+        assertThat(outcomeCount("pending")).isEqualTo(11.0);
+        assertThat(meterRegistry.get("elimika.payment.reconciliation.sweep").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("elimika.payment.reconciliation.lag").gauge().value()).isGreaterThanOrEqualTo(120.0);
+    }
+
+    @Test
+    void failedQueryIsBackedOffInsteadOfRetriedNextSweep() {
+        CommerceOrder flaky = order(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(2));
+        CommerceOrder healthy = order(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(2));
+        gateway.failing.add(checkoutId(flaky.getUuid().toString()));
+        when(orderRepository.findByPaymentStatusAndCheckoutRequestIdIsNotNullAndPlacedAtBefore(
+                eq(PaymentStatus.AWAITING_PAYMENT), any())).thenReturn(List.of(flaky, healthy));
+
+        scheduler.settleUnresolvedPayments();
+        scheduler.settleUnresolvedPayments();
+
+        assertThat(gateway.callsFor(flaky)).isEqualTo(1);
+        assertThat(gateway.callsFor(healthy)).isEqualTo(2);
+        assertThat(outcomeCount("failed")).isEqualTo(1.0);
+        assertThat(outcomeCount("deferred")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("elimika.payment.reconciliation.backoff").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void givesUpOnlyOnOrdersStillAwaitingPaymentPastTheStkWindow() {
+        CommerceOrder abandoned = order(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(10));
+        CommerceOrder paidLate = order(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(10));
+        CommerceOrder recent = order(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(2));
+        String paidLateId = paidLate.getUuid().toString();
+        gateway.statuses.put(checkoutId(paidLateId), "SUCCESS");
+        when(orderRepository.findByPaymentStatusAndCheckoutRequestIdIsNotNullAndPlacedAtBefore(
+                eq(PaymentStatus.AWAITING_PAYMENT), any())).thenReturn(List.of(abandoned, paidLate, recent));
+        when(internalOrderService.markOrderCaptured(paidLateId)).thenReturn(awaitingPayment(paidLateId));
+        when(orderRepository.updatePaymentStatusIfCurrent(
+                eq(abandoned.getUuid()), eq(PaymentStatus.AWAITING_PAYMENT), eq(PaymentStatus.CANCELED), any()))
+                .thenReturn(1);
+
+        scheduler.settleUnresolvedPayments();
+
+        verify(orderRepository, never()).updatePaymentStatusIfCurrent(eq(paidLate.getUuid()), any(), any(), any());
+        verify(orderRepository, never()).updatePaymentStatusIfCurrent(eq(recent.getUuid()), any(), any(), any());
+        assertThat(outcomeCount("abandoned")).isEqualTo(1.0);
+    }
+
+    private double outcomeCount(String outcome) {
+        return meterRegistry.get("elimika.payment.reconciliation.orders").tag("outcome", outcome).counter().count();
+    }
+
+    private static CommerceOrder order(LocalDateTime placedAt) {
+        CommerceOrder order = new CommerceOrder();
+        order.setUuid(UUID.randomUUID());
+        order.setPaymentStatus(PaymentStatus.AWAITING_PAYMENT);
+        order.setPlacedAt(placedAt);
+        order.setCheckoutRequestId(checkoutId(order.getUuid().toString()));
+        return order;
+    }
+
+    private static OrderResponse awaitingPayment(String orderId) {
+        return OrderResponse.builder()
+                .id(orderId)
+                .paymentStatus("AWAITING_PAYMENT")
+                .currencyCode("KES")
+                .build();
+    }
+
+    private static String checkoutId(String orderId) {
+        return "ws_CO_" + orderId;
+    }
+
+    /**
+     * Local stand-in for the mpesa-service gateway. Every status query takes a little while, so
+     * overlapping queries are actually observed, and records how many were in flight at once.
+     */
+    private static class StubGatewayClient extends MpesaGatewayClient {
+
+        private final Map<String, String> statuses = new ConcurrentHashMap<>();
+        private final Set<String> failing = ConcurrentHashMap.newKeySet();
+        private final Map<String, AtomicInteger> callsByCheckout = new ConcurrentHashMap<>();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        StubGatewayClient() {
+            super(null, null);
+        }
+
+        @Override
+        public String getPaymentStatus(String checkoutRequestId) {
+            calls.incrementAndGet();
+            callsByCheckout.computeIfAbsent(checkoutRequestId, id -> new AtomicInteger()).incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(25);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            if (failing.contains(checkoutRequestId)) {
+                throw new MpesaGatewayException("Failed to fetch M-Pesa payment status");
+            }
+            return statuses.getOrDefault(checkoutRequestId, "PENDING");
+        }
+
+        int callsFor(CommerceOrder order) {
+            AtomicInteger count = callsByCheckout.get(checkoutId(order.getUuid().toString()));
+            return count == null ? 0 : count.get();
+        }
+    }
+}
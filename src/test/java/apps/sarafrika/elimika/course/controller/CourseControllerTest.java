@@ -4,6 +4,7 @@ import apps.sarafrika.elimika.course.dto.LessonContentDTO;
 import apps.sarafrika.elimika.course.service.*;
 import apps.sarafrika.elimika.shared.dto.ApiResponse;
 import apps.sarafrika.elimika.shared.storage.config.StorageProperties;
+import apps.sarafrika.elimika.shared.storage.repository.MediaFileRepository;
 import apps.sarafrika.elimika.shared.storage.service.MediaServeService;
 import apps.sarafrika.elimika.shared.storage.service.MediaStorageService;
 import apps.sarafrika.elimika.shared.storage.service.MediaUploadRequest;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpHeaders;
@@ -101,7 +103,7 @@ class CourseControllerTest {
                 storageService,
                 storageProperties,
                 mediaStorageService,
-                new MediaServeService(storageService)
+                new MediaServeService(storageService, Mockito.mock(MediaFileRepository.class))
         );
     }
 
@@ -9,6 +9,7 @@ import apps.sarafrika.elimika.course.repository.CourseRepository;
 import apps.sarafrika.elimika.course.repository.LessonContentRepository;
 import apps.sarafrika.elimika.course.repository.LessonRepository;
 import apps.sarafrika.elimika.course.service.impl.CourseDraftServiceImpl;
+import apps.sarafrika.elimika.course.service.impl.CourseTreeCopier;
 import apps.sarafrika.elimika.course.util.enums.ContentStatus;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -49,7 +50,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @Testcontainers
-@Import({CourseDraftServiceImpl.class, CourseDraftPromotionIntegrationTest.TestConfig.class})
+@Import({CourseDraftServiceImpl.class, CourseTreeCopier.class, CourseDraftPromotionIntegrationTest.TestConfig.class})
 @DisplayName("Draft-over-live course promotion")
 class CourseDraftPromotionIntegrationTest {
 
@@ -96,6 +97,8 @@ class CourseDraftPromotionIntegrationTest {
     @Autowired
     private apps.sarafrika.elimika.course.repository.CourseRequirementRepository requirementRepository;
     @Autowired
+    private CourseTreeCopier treeCopier;
+    @Autowired
     private JdbcTemplate jdbc;
 
     private UUID courseCreatorUuid;
@@ -430,6 +433,92 @@ class CourseDraftPromotionIntegrationTest {
         assertThat(requirementRepository.findByUuid(requirement.getUuid())).isPresent();
     }
 
+    @Test
+    @DisplayName("the whole authoring tree round-trips through a draft, keeping live uuids")
+    void wholeTreeRoundTripsThroughDraft() {
+        Course live = publishedApprovedCourse("Deep Course");
+        LessonTree first = addLessonTree(live.getUuid(), 1);
+        LessonTree second = addLessonTree(live.getUuid(), 2);
+        CourseAssessment assessment = addAssessment(live.getUuid(), "Quizzes");
+        UUID liveLineItem = addLineItem(assessment.getUuid(), first.quiz());
+
+        Course draft = draftService.openDraft(live.getUuid());
+
+        UUID draftQuiz = jdbc.queryForObject("""
+                SELECT q.uuid FROM quizzes q JOIN lessons l ON l.uuid = q.lesson_uuid
+                WHERE l.course_uuid = ? AND q.source_quiz_uuid = ?""", UUID.class, draft.getUuid(), first.quiz());
+        assertThat(countUnder(draft.getUuid())).isEqualTo(countUnder(live.getUuid()));
+        // The draft's line item follows the draft's copy of the quiz, not the live quiz.
+        assertThat(jdbc.queryForObject("""
+                SELECT i.quiz_uuid FROM course_assessment_line_items i
+                    JOIN course_assessments a ON a.uuid = i.course_assessment_uuid
+                WHERE a.course_uuid = ?""", UUID.class, draft.getUuid())).isEqualTo(draftQuiz);
+
+        UUID draftQuestion = jdbc.queryForObject(
+                "SELECT uuid FROM quiz_questions WHERE quiz_uuid = ? AND source_question_uuid = ?",
+                UUID.class, draftQuiz, first.question());
+        jdbc.update("UPDATE quiz_questions SET question_text = 'Edited question' WHERE uuid = ?", draftQuestion);
+        jdbc.update("""
+                INSERT INTO quiz_questions (quiz_uuid, question_text, question_type, points, display_order, created_by)
+                VALUES (?, 'Added question', 'essay', 2.00, 3, 'test')""", draftQuiz);
+        UUID draftFirstLesson = jdbc.queryForObject(
+                "SELECT uuid FROM lessons WHERE source_lesson_uuid = ?", UUID.class, first.lesson());
+        jdbc.update("DELETE FROM lesson_practice_activities WHERE lesson_uuid = ?", draftFirstLesson);
+        addPracticeActivity(draftFirstLesson, "Replacement activity");
+        jdbc.update("DELETE FROM lessons WHERE source_lesson_uuid = ?", second.lesson());
+
+        draftService.promote(live.getUuid(), null);
+
+        assertThat(jdbc.queryForObject("SELECT question_text FROM quiz_questions WHERE uuid = ?",
+                String.class, first.question())).isEqualTo("Edited question");
+        assertThat(jdbc.queryForList("""
+                SELECT question_text FROM quiz_questions WHERE quiz_uuid = ? AND source_question_uuid IS NULL
+                ORDER BY display_order""", String.class, first.quiz()))
+                .containsExactly("Edited question", "Question B", "Added question");
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM quiz_question_options o "
+                + "JOIN quiz_questions q ON q.uuid = o.question_uuid WHERE q.quiz_uuid = ?", Integer.class, first.quiz()))
+                .isEqualTo(6);
+        assertThat(jdbc.queryForList("SELECT title FROM lesson_practice_activities WHERE lesson_uuid = ?",
+                String.class, first.lesson())).containsExactly("Replacement activity");
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM assignment_attachments WHERE assignment_uuid = ?",
+                Integer.class, first.assignment())).isEqualTo(1);
+        assertThat(lessonRepository.findByUuid(second.lesson()).orElseThrow().getActive()).isFalse();
+        assertThat(jdbc.queryForObject("SELECT quiz_uuid FROM course_assessment_line_items WHERE uuid = ?",
+                UUID.class, liveLineItem)).isEqualTo(first.quiz());
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM quizzes WHERE source_quiz_uuid IS NOT NULL "
+                + "AND lesson_uuid IN (SELECT uuid FROM lessons WHERE course_uuid = ?)", Integer.class, live.getUuid()))
+                .isZero();
+        assertThat(courseRepository.findByParentCourseUuid(live.getUuid())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("cloning and promoting take the same number of statements whatever the course size")
+    void treeCopyStatementsDoNotGrowWithCourseSize() {
+        Course small = publishedApprovedCourse("Small");
+        addLessonTree(small.getUuid(), 1);
+        addLineItem(addAssessment(small.getUuid(), "Small assessment").getUuid(), null);
+        Course large = publishedApprovedCourse("Large");
+        for (int number = 1; number <= 12; number++) {
+            addLessonTree(large.getUuid(), number);
+        }
+        CourseAssessment largeAssessment = addAssessment(large.getUuid(), "Large assessment");
+        for (int i = 0; i < 12; i++) {
+            addLineItem(largeAssessment.getUuid(), null);
+        }
+
+        Course smallCopy = publishedApprovedCourse("Small copy");
+        Course largeCopy = publishedApprovedCourse("Large copy");
+        CourseTreeCopier.Result smallClone = treeCopier.cloneTree(small.getUuid(), smallCopy.getUuid(), "test");
+        CourseTreeCopier.Result largeClone = treeCopier.cloneTree(large.getUuid(), largeCopy.getUuid(), "test");
+        CourseTreeCopier.Result smallPromotion = treeCopier.promoteTree(smallCopy.getUuid(), small.getUuid(), "test");
+        CourseTreeCopier.Result largePromotion = treeCopier.promoteTree(largeCopy.getUuid(), large.getUuid(), "test");
+
+        assertThat(largeClone.rows()).isGreaterThan(smallClone.rows() * 10);
+        assertThat(largeClone.statements()).isEqualTo(smallClone.statements());
+        assertThat(largePromotion.rows()).isGreaterThan(smallPromotion.rows() * 10);
+        assertThat(largePromotion.statements()).isEqualTo(smallPromotion.statements());
+    }
+
     // ---------------------------------------------------------------- fixtures
 
     private Course publishedApprovedCourse(String name) {
@@ -504,6 +593,86 @@ class CourseDraftPromotionIntegrationTest {
         return requirementRepository.saveAndFlush(requirement);
     }
 
+    /**
+     * Live uuids of a lesson with content, a quiz of two questions with three options each, an
+     * assignment with an attachment and a practice activity.
+     */
+    private record LessonTree(UUID lesson, UUID quiz, UUID question, UUID assignment) {
+    }
+
+    private LessonTree addLessonTree(UUID courseUuid, int number) {
+        Lesson lesson = addLesson(courseUuid, number, "Lesson " + number);
+        addContent(lesson.getUuid(), "Reading " + number, 1);
+
+        UUID quiz = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO quizzes (uuid, lesson_uuid, title, status, active, created_by)
+                VALUES (?, ?, ?, 'published', true, 'test')""", quiz, lesson.getUuid(), "Quiz " + number);
+        UUID firstQuestion = null;
+        for (int q = 1; q <= 2; q++) {
+            UUID question = UUID.randomUUID();
+            jdbc.update("""
+                    INSERT INTO quiz_questions (uuid, quiz_uuid, question_text, question_type, points, display_order, created_by)
+                    VALUES (?, ?, ?, 'multiple_choice', 1.00, ?, 'test')""",
+                    question, quiz, "Question " + (char) ('A' + q - 1), q);
+            for (int o = 1; o <= 3; o++) {
+                jdbc.update("""
+                        INSERT INTO quiz_question_options (question_uuid, option_text, is_correct, display_order, created_by)
+                        VALUES (?, ?, ?, ?, 'test')""", question, "Option " + o, o == 1, o);
+            }
+            firstQuestion = firstQuestion == null ? question : firstQuestion;
+        }
+
+        UUID assignment = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO assignments (uuid, lesson_uuid, title, submission_types, is_published, created_by)
+                VALUES (?, ?, ?, ARRAY['file_upload'], true, 'test')""", assignment, lesson.getUuid(), "Assignment " + number);
+        jdbc.update("""
+                INSERT INTO assignment_attachments (assignment_uuid, original_filename, stored_filename, file_url,
+                                                    file_size_bytes, mime_type, created_by)
+                VALUES (?, 'brief.pdf', 'stored-brief.pdf', '/files/brief.pdf', 2048, 'application/pdf', 'test')""",
+                assignment);
+        addPracticeActivity(lesson.getUuid(), "Practice " + number);
+        return new LessonTree(lesson.getUuid(), quiz, firstQuestion, assignment);
+    }
+
+    private void addPracticeActivity(UUID lessonUuid, String title) {
+        jdbc.update("""
+                INSERT INTO lesson_practice_activities (lesson_uuid, title, instructions, materials, created_by)
+                VALUES (?, ?, 'Work through it', ARRAY['worksheet'], 'test')""", lessonUuid, title);
+    }
+
+    private UUID addLineItem(UUID assessmentUuid, UUID quizUuid) {
+        UUID lineItem = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO course_assessment_line_items (uuid, course_assessment_uuid, title, item_type, quiz_uuid,
+                                                          max_score, created_by)
+                VALUES (?, ?, 'Line item', ?, ?, 10.00, 'test')""",
+                lineItem, assessmentUuid, quizUuid != null ? "quiz" : "manual", quizUuid);
+        return lineItem;
+    }
+
+    /**
+     * Row counts of every level of the tree beneath a course, in a fixed order.
+     */
+    private List<Integer> countUnder(UUID courseUuid) {
+        return List.of(
+                jdbc.queryForObject("SELECT count(*) FROM lessons WHERE course_uuid = ?", Integer.class, courseUuid),
+                jdbc.queryForObject("SELECT count(*) FROM lesson_contents c JOIN lessons l ON l.uuid = c.lesson_uuid "
+                        + "WHERE l.course_uuid = ?", Integer.class, courseUuid),
+                jdbc.queryForObject("SELECT count(*) FROM quiz_question_options o "
+                        + "JOIN quiz_questions q ON q.uuid = o.question_uuid JOIN quizzes z ON z.uuid = q.quiz_uuid "
+                        + "JOIN lessons l ON l.uuid = z.lesson_uuid WHERE l.course_uuid = ?", Integer.class, courseUuid),
+                jdbc.queryForObject("SELECT count(*) FROM assignment_attachments t "
+                        + "JOIN assignments a ON a.uuid = t.assignment_uuid JOIN lessons l ON l.uuid = a.lesson_uuid "
+                        + "WHERE l.course_uuid = ?", Integer.class, courseUuid),
+                jdbc.queryForObject("SELECT count(*) FROM lesson_practice_activities p "
+                        + "JOIN lessons l ON l.uuid = p.lesson_uuid WHERE l.course_uuid = ?", Integer.class, courseUuid),
+                jdbc.queryForObject("SELECT count(*) FROM course_assessment_line_items i "
+                        + "JOIN course_assessments a ON a.uuid = i.course_assessment_uuid WHERE a.course_uuid = ?",
+                        Integer.class, courseUuid));
+    }
+
     private static String randomUserNo() {
         return String.valueOf(100_000_000 + (int) (Math.random() * 899_999_999));
     }
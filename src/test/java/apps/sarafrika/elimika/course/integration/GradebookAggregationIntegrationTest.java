@@ -4,6 +4,7 @@ import apps.sarafrika.elimika.course.dto.CourseGradeBookDTO;
 import apps.sarafrika.elimika.course.model.Assignment;
 import apps.sarafrika.elimika.course.model.Course;
 import apps.sarafrika.elimika.course.model.CourseAssessment;
+import apps.sarafrika.elimika.course.model.CourseAssessmentLineItem;
 import apps.sarafrika.elimika.course.model.CourseEnrollment;
 import apps.sarafrika.elimika.course.model.Lesson;
 import apps.sarafrika.elimika.course.model.Quiz;
@@ -14,6 +15,7 @@ import apps.sarafrika.elimika.course.repository.CourseEnrollmentRepository;
 import apps.sarafrika.elimika.course.repository.CourseRepository;
 import apps.sarafrika.elimika.course.repository.LessonRepository;
 import apps.sarafrika.elimika.course.repository.QuizRepository;
+import apps.sarafrika.elimika.course.service.impl.CourseGradeBookRecalculationServiceImpl;
 import apps.sarafrika.elimika.course.service.impl.CourseGradeBookServiceImpl;
 import apps.sarafrika.elimika.course.util.enums.AttemptStatus;
 import apps.sarafrika.elimika.course.util.enums.ContentStatus;
@@ -30,6 +32,8 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.domain.AuditorAware;
@@ -58,7 +62,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @Testcontainers
-@Import({CourseGradeBookServiceImpl.class, GradebookAggregationIntegrationTest.TestConfig.class})
+@Import({
+        CourseGradeBookServiceImpl.class,
+        CourseGradeBookRecalculationServiceImpl.class,
+        GradebookAggregationIntegrationTest.TestConfig.class
+})
 @DisplayName("Gradebook aggregation of graded quizzes and assignments")
 class GradebookAggregationIntegrationTest {
 
@@ -73,6 +81,12 @@ class GradebookAggregationIntegrationTest {
     }
 
     @EnableJpaAuditing
+    // The course-wide recalculator is package-private to the service implementation, so it is scanned in by name.
+    @ComponentScan(
+            basePackageClasses = CourseGradeBookServiceImpl.class,
+            useDefaultFilters = false,
+            includeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = ".*\\.CourseGradeBookRecalculator")
+    )
     static class TestConfig {
         @Bean
         @Primary
@@ -119,14 +133,19 @@ class GradebookAggregationIntegrationTest {
                         + "VALUES (?, ?, 'Test Creator', true, 'test')",
                 courseCreatorUuid, creatorUser);
 
+        studentUuid = seedStudent();
+    }
+
+    private UUID seedStudent() {
         UUID studentUser = UUID.randomUUID();
         jdbc.update("INSERT INTO users (uuid, first_name, last_name, email, user_no, created_by) "
                         + "VALUES (?, 'Test', 'Student', ?, ?, 'test')",
                 studentUser, "s" + Long.toHexString(System.nanoTime()) + "@example.com", randomUserNo());
-        studentUuid = UUID.randomUUID();
+        UUID student = UUID.randomUUID();
         jdbc.update("INSERT INTO students (uuid, user_uuid, full_name, created_by) "
                         + "VALUES (?, ?, 'Test Student', 'test')",
-                studentUuid, studentUser);
+                student, studentUser);
+        return student;
     }
 
     private static String randomUserNo() {
@@ -179,6 +198,73 @@ class GradebookAggregationIntegrationTest {
         assertThat(reloaded.getFinalGrade()).isEqualByComparingTo("85.00");
     }
 
+    @Test
+    @DisplayName("course-wide recalculation rewrites component scores and final grades after a weight change and removes them with the last line item")
+    void courseWideRecalculationFollowsLineItemChanges() {
+        Course course = persistCourse();
+        Lesson lesson = persistLesson(course.getUuid());
+        CourseAssessment assessment = persistAssessment(course.getUuid(), CourseAssessmentAggregationStrategy.WEIGHTED_AVERAGE);
+        Quiz quiz = persistQuiz(lesson.getUuid());
+        Assignment assignment = persistAssignment(lesson.getUuid());
+        CourseEnrollment both = persistEnrollment(course.getUuid());
+        CourseEnrollment quizOnly = persistEnrollment(course.getUuid(), seedStudent());
+
+        gradeBookService.syncQuizAttemptGrade(quiz.getUuid(), both.getUuid(),
+                new BigDecimal("8"), new BigDecimal("10"), null, LocalDateTime.now(), null, AttemptStatus.GRADED);
+        gradeBookService.syncAssignmentGrade(assignment.getUuid(), both.getUuid(),
+                new BigDecimal("45"), new BigDecimal("50"), "ok", LocalDateTime.now(), null);
+        gradeBookService.syncQuizAttemptGrade(quiz.getUuid(), quizOnly.getUuid(),
+                new BigDecimal("5"), new BigDecimal("10"), null, LocalDateTime.now(), null, AttemptStatus.GRADED);
+        assertThat(componentPercentage(both, assessment)).isEqualByComparingTo("85.00");
+        assertThat(componentPercentage(quizOnly, assessment)).isEqualByComparingTo("50.00");
+
+        // The quiz now carries three times the assignment's weight: (80 * 75 + 90 * 25) / 100.
+        CourseAssessmentLineItem quizItem = lineItemRepository.findByQuizUuid(quiz.getUuid()).orElseThrow();
+        CourseAssessmentLineItem assignmentItem = lineItemRepository.findByAssignmentUuid(assignment.getUuid()).orElseThrow();
+        quizItem.setWeightPercentage(new BigDecimal("75.00"));
+        assignmentItem.setWeightPercentage(new BigDecimal("25.00"));
+        gradeBookService.recalculateCourseAssessment(course.getUuid(), assessment.getUuid());
+
+        assertThat(componentPercentage(both, assessment)).isEqualByComparingTo("82.50");
+        assertThat(jdbc.queryForObject(
+                "SELECT score FROM course_assessment_scores WHERE enrollment_uuid = ? AND assessment_uuid = ?",
+                BigDecimal.class, both.getUuid(), assessment.getUuid())).isEqualByComparingTo("82.50");
+        assertThat(finalGrade(both)).isEqualByComparingTo("82.50");
+        assertThat(componentPercentage(quizOnly, assessment)).isEqualByComparingTo("50.00");
+        assertThat(finalGrade(quizOnly)).isEqualByComparingTo("50.00");
+
+        // Without the quiz only the assignment is left; the quiz-only learner has nothing to grade.
+        gradeBookService.deleteLineItem(course.getUuid(), assessment.getUuid(), quizItem.getUuid());
+
+        assertThat(componentPercentage(both, assessment)).isEqualByComparingTo("90.00");
+        assertThat(finalGrade(both)).isEqualByComparingTo("90.00");
+        assertThat(componentScoreCount(quizOnly, assessment)).isZero();
+        assertThat(finalGrade(quizOnly)).isNull();
+
+        gradeBookService.deleteLineItem(course.getUuid(), assessment.getUuid(), assignmentItem.getUuid());
+
+        assertThat(componentScoreCount(both, assessment)).isZero();
+        assertThat(finalGrade(both)).isNull();
+    }
+
+    private BigDecimal componentPercentage(CourseEnrollment enrollment, CourseAssessment assessment) {
+        return jdbc.queryForObject(
+                "SELECT percentage FROM course_assessment_scores WHERE enrollment_uuid = ? AND assessment_uuid = ?",
+                BigDecimal.class, enrollment.getUuid(), assessment.getUuid());
+    }
+
+    private long componentScoreCount(CourseEnrollment enrollment, CourseAssessment assessment) {
+        Long count = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM course_assessment_scores WHERE enrollment_uuid = ? AND assessment_uuid = ?",
+                Long.class, enrollment.getUuid(), assessment.getUuid());
+        return count != null ? count : 0L;
+    }
+
+    private BigDecimal finalGrade(CourseEnrollment enrollment) {
+        return jdbc.queryForObject(
+                "SELECT final_grade FROM course_enrollments WHERE uuid = ?", BigDecimal.class, enrollment.getUuid());
+    }
+
     private Course persistCourse() {
         Course course = new Course();
         course.setName("Music Theory");
@@ -238,8 +324,12 @@ class GradebookAggregationIntegrationTest {
     }
 
     private CourseEnrollment persistEnrollment(UUID courseUuid) {
+        return persistEnrollment(courseUuid, studentUuid);
+    }
+
+    private CourseEnrollment persistEnrollment(UUID courseUuid, UUID student) {
         CourseEnrollment enrollment = new CourseEnrollment();
-        enrollment.setStudentUuid(studentUuid);
+        enrollment.setStudentUuid(student);
         enrollment.setCourseUuid(courseUuid);
         enrollment.setStatus(EnrollmentStatus.ACTIVE);
         return courseEnrollmentRepository.saveAndFlush(enrollment);
@@ -0,0 +1,112 @@
+package apps.sarafrika.elimika.course.service.impl;
+
+import apps.sarafrika.elimika.course.model.CourseAssessment;
+import apps.sarafrika.elimika.course.model.CourseAssessmentLineItem;
+import apps.sarafrika.elimika.course.model.CourseAssessmentLineItemScore;
+import apps.sarafrika.elimika.course.service.impl.CourseGradeBookAggregation.AggregationResult;
+import apps.sarafrika.elimika.course.service.impl.CourseGradeBookAggregation.ScoredLineItem;
+import apps.sarafrika.elimika.course.util.enums.CourseAssessmentAggregationStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CourseGradeBookAggregationTest {
+
+    private static final LocalDateTime EARLIER = LocalDateTime.of(2026, 10, 1, 9, 0);
+    private static final LocalDateTime LATER = LocalDateTime.of(2026, 10, 8, 9, 0);
+
+    @Test
+    void pointsSumAddsRawScoresAndKeepsTheLatestGradingTime() {
+        CourseAssessment assessment = assessment("100.00", CourseAssessmentAggregationStrategy.POINTS_SUM);
+
+        AggregationResult result = CourseGradeBookAggregation.aggregateAssessmentScore(assessment, List.of(
+                scored(lineItem(null), "8.00", "10.00", "80.00", EARLIER),
+                scored(lineItem(null), "15.00", "30.00", "50.00", LATER)));
+
+        assertThat(result.score()).isEqualByComparingTo("23.00");
+        assertThat(result.maxScore()).isEqualByComparingTo("40.00");
+        assertThat(result.percentage()).isEqualByComparingTo("57.50");
+        assertThat(result.gradedAt()).isEqualTo(LATER);
+    }
+
+    @Test
+    void weightedAverageWeighsLineItemPercentages() {
+        CourseAssessment assessment = assessment("100.00", CourseAssessmentAggregationStrategy.WEIGHTED_AVERAGE);
+
+        AggregationResult result = CourseGradeBookAggregation.aggregateAssessmentScore(assessment, List.of(
+                scored(lineItem("75.00"), "8.00", "10.00", "80.00", EARLIER),
+                scored(lineItem("25.00"), "4.00", "10.00", "40.00", EARLIER)));
+
+        assertThat(result.percentage()).isEqualByComparingTo("70.00");
+        assertThat(result.score()).isEqualByComparingTo("70.00");
+        assertThat(result.maxScore()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void weightedAverageRefusesALineItemWithoutWeight() {
+        CourseAssessment assessment = assessment("100.00", CourseAssessmentAggregationStrategy.WEIGHTED_AVERAGE);
+
+        assertThatThrownBy(() -> CourseGradeBookAggregation.aggregateAssessmentScore(assessment, List.of(
+                scored(lineItem(null), "8.00", "10.00", "80.00", EARLIER))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void finalGradeOnlyCountsTheWeightsOfGradedComponents() {
+        CourseAssessment quizzes = assessment("40.00", CourseAssessmentAggregationStrategy.POINTS_SUM);
+        CourseAssessment exam = assessment("60.00", CourseAssessmentAggregationStrategy.POINTS_SUM);
+        CourseAssessment unweighted = assessment("0.00", CourseAssessmentAggregationStrategy.POINTS_SUM);
+
+        BigDecimal quizzesOnly = CourseGradeBookAggregation.finalGrade(List.of(quizzes, exam, unweighted),
+                Map.of(quizzes.getUuid(), new BigDecimal("75.00"), unweighted.getUuid(), new BigDecimal("10.00"))::get);
+        BigDecimal both = CourseGradeBookAggregation.finalGrade(List.of(quizzes, exam),
+                Map.of(quizzes.getUuid(), new BigDecimal("75.00"), exam.getUuid(), new BigDecimal("50.00"))::get);
+
+        assertThat(quizzesOnly).isEqualByComparingTo("75.00");
+        assertThat(both).isEqualByComparingTo("60.00");
+    }
+
+    @Test
+    void finalGradeIsAbsentWhenNothingWeightedIsGraded() {
+        CourseAssessment quizzes = assessment("40.00", CourseAssessmentAggregationStrategy.POINTS_SUM);
+
+        assertThat(CourseGradeBookAggregation.finalGrade(List.of(quizzes), uuid -> null)).isNull();
+        assertThat(CourseGradeBookAggregation.finalGrade(List.of(), uuid -> BigDecimal.TEN)).isNull();
+    }
+
+    private static CourseAssessment assessment(String weightPercentage, CourseAssessmentAggregationStrategy strategy) {
+        CourseAssessment assessment = new CourseAssessment();
+        assessment.setUuid(UUID.randomUUID());
+        assessment.setCourseUuid(UUID.randomUUID());
+        assessment.setWeightPercentage(new BigDecimal(weightPercentage));
+        assessment.setAggregationStrategy(strategy);
+        return assessment;
+    }
+
+    private static CourseAssessmentLineItem lineItem(String weightPercentage) {
+        CourseAssessmentLineItem lineItem = new CourseAssessmentLineItem();
+        lineItem.setUuid(UUID.randomUUID());
+        if (weightPercentage != null) {
+            lineItem.setWeightPercentage(new BigDecimal(weightPercentage));
+        }
+        return lineItem;
+    }
+
+    private static ScoredLineItem scored(
+            CourseAssessmentLineItem lineItem, String score, String maxScore, String percentage, LocalDateTime gradedAt) {
+        CourseAssessmentLineItemScore lineItemScore = new CourseAssessmentLineItemScore();
+        lineItemScore.setLineItemUuid(lineItem.getUuid());
+        lineItemScore.setScore(new BigDecimal(score));
+        lineItemScore.setMaxScore(new BigDecimal(maxScore));
+        lineItemScore.setPercentage(new BigDecimal(percentage));
+        lineItemScore.setGradedAt(gradedAt);
+        return new ScoredLineItem(lineItem, lineItemScore);
+    }
+}
@@ -0,0 +1,159 @@
+package apps.sarafrika.elimika.course.service.impl;
+
+import apps.sarafrika.elimika.course.dto.CourseGradeBookRecalculationDTO;
+import apps.sarafrika.elimika.course.model.CourseGradeBookRecalculation;
+import apps.sarafrika.elimika.course.repository.CourseAssessmentRepository;
+import apps.sarafrika.elimika.course.repository.CourseEnrollmentRepository;
+import apps.sarafrika.elimika.course.repository.CourseGradeBookRecalculationRepository;
+import apps.sarafrika.elimika.course.util.enums.CourseGradeBookRecalculationStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CourseGradeBookRecalculationServiceImplTest {
+
+    private static final UUID COURSE_UUID = UUID.randomUUID();
+    private static final UUID ASSESSMENT_UUID = UUID.randomUUID();
+
+    @Mock
+    private CourseGradeBookRecalculationRepository recalculationRepository;
+
+    @Mock
+    private CourseEnrollmentRepository courseEnrollmentRepository;
+
+    @Mock
+    private CourseAssessmentRepository courseAssessmentRepository;
+
+    @Mock
+    private CourseGradeBookRecalculator gradeBookRecalculator;
+
+    @Mock
+    private AuditorAware<String> auditorAware;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CourseGradeBookRecalculationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("instructor@sarafrika.com"));
+        service = new CourseGradeBookRecalculationServiceImpl(
+                recalculationRepository,
+                courseEnrollmentRepository,
+                courseAssessmentRepository,
+                gradeBookRecalculator,
+                auditorAware,
+                transactionManager,
+                200,
+                1,
+                Duration.ofMinutes(15)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void recalculatesASmallCourseWithinTheRequest() {
+        when(courseEnrollmentRepository.countByCourseUuid(COURSE_UUID)).thenReturn(200L);
+
+        Optional<CourseGradeBookRecalculationDTO> queued = service.recalculateAssessment(COURSE_UUID, ASSESSMENT_UUID);
+
+        assertThat(queued).isEmpty();
+        verify(gradeBookRecalculator).recalculate(eq(COURSE_UUID), eq(ASSESSMENT_UUID), eq("instructor@sarafrika.com"), any());
+        verify(recalculationRepository, never()).save(any());
+    }
+
+    @Test
+    void queuesALargeCourseWithItsEnrollmentCount() {
+        when(courseEnrollmentRepository.countByCourseUuid(COURSE_UUID)).thenReturn(5_000L);
+        when(recalculationRepository.save(any(CourseGradeBookRecalculation.class))).thenAnswer(invocation -> {
+            CourseGradeBookRecalculation saved = invocation.getArgument(0);
+            saved.setUuid(UUID.randomUUID());
+            return saved;
+        });
+
+        Optional<CourseGradeBookRecalculationDTO> queued = service.recalculateAssessment(COURSE_UUID, ASSESSMENT_UUID);
+
+        assertThat(queued).isPresent();
+        assertThat(queued.get().status()).isEqualTo(CourseGradeBookRecalculationStatus.QUEUED);
+        assertThat(queued.get().totalEnrollments()).isEqualTo(5_000);
+        assertThat(queued.get().getProgressPercentage()).isEqualByComparingTo("0");
+        verify(gradeBookRecalculator, never()).recalculate(any(), any(), any(), any());
+    }
+
+    @Test
+    void reusesARecalculationAlreadyQueuedForTheSameAssessment() {
+        CourseGradeBookRecalculation existing = recalculation(CourseGradeBookRecalculationStatus.QUEUED);
+        when(courseEnrollmentRepository.countByCourseUuid(COURSE_UUID)).thenReturn(5_000L);
+        when(recalculationRepository.findFirstByCourseUuidAndAssessmentUuidAndStatus(
+                COURSE_UUID, ASSESSMENT_UUID, CourseGradeBookRecalculationStatus.QUEUED)).thenReturn(Optional.of(existing));
+
+        Optional<CourseGradeBookRecalculationDTO> queued = service.recalculateAssessment(COURSE_UUID, ASSESSMENT_UUID);
+
+        assertThat(queued).map(CourseGradeBookRecalculationDTO::uuid).contains(existing.getUuid());
+        verify(recalculationRepository, never()).save(any());
+    }
+
+    @Test
+    void recordsAFailedRunWithItsReason() {
+        CourseGradeBookRecalculation recalculation = recalculation(CourseGradeBookRecalculationStatus.RUNNING);
+        UUID recalculationUuid = recalculation.getUuid();
+        when(recalculationRepository.claim(eq(recalculationUuid), any(), any(), any())).thenReturn(1);
+        when(recalculationRepository.findByUuid(recalculationUuid)).thenReturn(Optional.of(recalculation));
+        when(gradeBookRecalculator.recalculate(any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("Weighted line item aggregation requires a positive weight"));
+
+        service.run(recalculationUuid);
+
+        verify(gradeBookRecalculator).recalculate(eq(COURSE_UUID), eq(ASSESSMENT_UUID), eq("instructor@sarafrika.com"), any());
+        verify(recalculationRepository).finish(eq(recalculationUuid), eq(CourseGradeBookRecalculationStatus.FAILED), eq(0),
+                eq("Weighted line item aggregation requires a positive weight"), any());
+    }
+
+    @Test
+    void skipsARunAnotherWorkerClaimedFirst() {
+        UUID recalculationUuid = UUID.randomUUID();
+        when(recalculationRepository.claim(eq(recalculationUuid), any(), any(), any())).thenReturn(0);
+
+        service.run(recalculationUuid);
+
+        verify(gradeBookRecalculator, never()).recalculate(any(), any(), any(), any());
+        verify(recalculationRepository, never()).finish(any(), any(), any(Integer.class), any(), any());
+    }
+
+    private static CourseGradeBookRecalculation recalculation(CourseGradeBookRecalculationStatus status) {
+        CourseGradeBookRecalculation recalculation = new CourseGradeBookRecalculation();
+        recalculation.setUuid(UUID.randomUUID());
+        recalculation.setCourseUuid(COURSE_UUID);
+        recalculation.setAssessmentUuid(ASSESSMENT_UUID);
+        recalculation.setStatus(status);
+        recalculation.setTotalEnrollments(5_000);
+        recalculation.setProcessedEnrollments(0);
+        recalculation.setCreatedBy("instructor@sarafrika.com");
+        return recalculation;
+    }
+}
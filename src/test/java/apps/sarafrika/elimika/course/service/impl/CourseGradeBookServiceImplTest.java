@@ -31,6 +31,7 @@ import apps.sarafrika.elimika.course.repository.LessonRepository;
 import apps.sarafrika.elimika.course.repository.QuizRepository;
 import apps.sarafrika.elimika.course.repository.RubricCriteriaRepository;
 import apps.sarafrika.elimika.course.repository.RubricScoringLevelRepository;
+import apps.sarafrika.elimika.course.service.CourseGradeBookRecalculationService;
 import apps.sarafrika.elimika.course.util.enums.AttemptStatus;
 import apps.sarafrika.elimika.course.util.enums.CourseAssessmentAggregationStrategy;
 import apps.sarafrika.elimika.course.util.enums.CourseAssessmentLineItemRubricEvaluationStatus;
@@ -114,6 +115,12 @@ class CourseGradeBookServiceImplTest {
     @Mock
     private ClassDefinitionLookupService classDefinitionLookupService;
 
+    @Mock
+    private CourseGradeBookRecalculationService gradeBookRecalculationService;
+
+    @Mock
+    private CourseGradeBookRecalculator gradeBookRecalculator;
+
     private CourseGradeBookServiceImpl service;
 
     @BeforeEach
@@ -132,7 +139,9 @@ class CourseGradeBookServiceImplTest {
                 assessmentRubricRepository,
                 rubricCriteriaRepository,
                 rubricScoringLevelRepository,
-                classDefinitionLookupService
+                classDefinitionLookupService,
+                gradeBookRecalculationService,
+                gradeBookRecalculator
         );
     }
 
@@ -418,46 +427,27 @@ class CourseGradeBookServiceImplTest {
     }
 
     @Test
-    void recalculateCourseAssessmentClearsDerivedScoreWhenNoLineItemsRemain() {
+    void recalculateCourseAssessmentHandsTheWholeCourseToTheRecalculationService() {
         UUID courseUuid = UUID.randomUUID();
         UUID assessmentUuid = UUID.randomUUID();
-        UUID enrollmentUuid = UUID.randomUUID();
-
         CourseAssessment assessment = assessment(courseUuid, assessmentUuid, "100.00", CourseAssessmentAggregationStrategy.POINTS_SUM);
-        CourseEnrollment enrollment = enrollment(courseUuid, enrollmentUuid);
-        CourseAssessmentScore aggregateScore = new CourseAssessmentScore();
-        aggregateScore.setUuid(UUID.randomUUID());
-        aggregateScore.setEnrollmentUuid(enrollmentUuid);
-        aggregateScore.setAssessmentUuid(assessmentUuid);
-        aggregateScore.setScore(new BigDecimal("45.00"));
-        aggregateScore.setMaxScore(new BigDecimal("50.00"));
-        aggregateScore.setPercentage(new BigDecimal("90.00"));
-
-        Map<UUID, CourseAssessmentScore> assessmentScores = new HashMap<>();
-        assessmentScores.put(assessmentUuid, aggregateScore);
-
         when(courseAssessmentRepository.findByUuidAndCourseUuid(assessmentUuid, courseUuid)).thenReturn(Optional.of(assessment));
-        when(courseAssessmentRepository.findByCourseUuidOrderByCreatedDateAsc(courseUuid)).thenReturn(List.of(assessment));
-        when(courseEnrollmentRepository.findByCourseUuid(courseUuid)).thenReturn(List.of(enrollment));
-        when(courseEnrollmentRepository.findByUuidAndCourseUuid(enrollmentUuid, courseUuid)).thenReturn(Optional.of(enrollment));
-        when(lineItemRepository.findByCourseAssessmentUuidOrderByDisplayOrderAscCreatedDateAsc(assessmentUuid)).thenReturn(List.of());
-        when(courseAssessmentScoreRepository.findByEnrollmentUuidAndAssessmentUuidIn(eq(enrollmentUuid), anyCollection()))
-                .thenAnswer(invocation -> new ArrayList<>(assessmentScores.values()));
-        when(courseAssessmentScoreRepository.save(any(CourseAssessmentScore.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-        when(courseEnrollmentRepository.save(any(CourseEnrollment.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-        lenient().when(courseAssessmentScoreRepository.findByEnrollmentUuidAndAssessmentUuid(enrollmentUuid, assessmentUuid))
-                .thenAnswer(invocation -> Optional.ofNullable(assessmentScores.get(assessmentUuid)));
-        lenient().doAnswer(invocation -> {
-            assessmentScores.remove(invocation.getArgument(1));
-            return null;
-        }).when(courseAssessmentScoreRepository).deleteByEnrollmentUuidAndAssessmentUuid(eq(enrollmentUuid), eq(assessmentUuid));
 
         service.recalculateCourseAssessment(courseUuid, assessmentUuid);
 
-        assertThat(assessmentScores).doesNotContainKey(assessmentUuid);
-        assertThat(enrollment.getFinalGrade()).isNull();
+        verify(gradeBookRecalculationService).recalculateAssessment(courseUuid, assessmentUuid);
+        verify(courseEnrollmentRepository, never()).findByCourseUuid(courseUuid);
+    }
+
+    @Test
+    void recalculateCourseAssessmentRejectsAnAssessmentOfAnotherCourse() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID assessmentUuid = UUID.randomUUID();
+        when(courseAssessmentRepository.findByUuidAndCourseUuid(assessmentUuid, courseUuid)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.recalculateCourseAssessment(courseUuid, assessmentUuid))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(gradeBookRecalculationService, never()).recalculateAssessment(any(), any());
     }
 
     @Test
@@ -0,0 +1,75 @@
+package apps.sarafrika.elimika.course.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseRecommendationIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 17, 12, 0);
+
+    private final CourseRecommendationIndex index = new CourseRecommendationIndex();
+
+    private final UUID java = UUID.randomUUID();
+    private final UUID spring = UUID.randomUUID();
+    private final UUID design = UUID.randomUUID();
+    private final UUID beginner = UUID.randomUUID();
+
+    @Test
+    void keepsOnlyTheBestMatchesRankedByScoreThenRecency() {
+        UUID both = UUID.randomUUID();
+        UUID javaOnlyNewer = UUID.randomUUID();
+        UUID javaOnlyOlder = UUID.randomUUID();
+        UUID levelOnly = UUID.randomUUID();
+        UUID unrelated = UUID.randomUUID();
+        UUID taken = UUID.randomUUID();
+        index.put(both, List.of(java, spring), null, NOW.minusDays(30));
+        index.put(javaOnlyNewer, List.of(java, design), null, NOW.minusDays(1));
+        index.put(javaOnlyOlder, List.of(java), null, null);
+        index.put(levelOnly, List.of(design), beginner, NOW);
+        index.put(unrelated, List.of(design), null, NOW);
+        index.put(taken, List.of(java, spring), beginner, NOW);
+
+        List<CourseRecommendationIndex.Match> matches = index.topMatches(
+                Set.of(java, spring), Set.of(beginner), Set.of(taken), 3);
+
+        assertThat(matches).extracting(CourseRecommendationIndex.Match::courseUuid)
+                .containsExactly(both, javaOnlyNewer, javaOnlyOlder);
+        assertThat(matches.get(0).score()).isEqualTo(2 * CourseRecommendationIndex.CATEGORY_WEIGHT);
+        assertThat(matches.get(0).sharedCategories()).isEqualTo(2);
+        assertThat(index.topMatches(Set.of(UUID.randomUUID()), Set.of(beginner), Set.of(taken), 3))
+                .extracting(CourseRecommendationIndex.Match::courseUuid)
+                .containsExactly(levelOnly);
+    }
+
+    @Test
+    void replacesAndRemovesCoursesInPlace() {
+        UUID course = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        index.put(course, List.of(java), null, NOW.minusDays(5));
+        index.put(other, List.of(design), null, NOW.minusDays(2));
+
+        index.put(course, List.of(spring), null, NOW.minusDays(5));
+        assertThat(index.topMatches(Set.of(java), Set.of(), Set.of(), 5)).isEmpty();
+        assertThat(index.topMatches(Set.of(spring), Set.of(), Set.of(), 5))
+                .extracting(CourseRecommendationIndex.Match::courseUuid)
+                .containsExactly(course);
+
+        index.remove(course);
+        UUID replacement = UUID.randomUUID();
+        index.put(replacement, List.of(), null, NOW);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.newest(Set.of(), 5))
+                .extracting(CourseRecommendationIndex.Match::courseUuid)
+                .containsExactly(replacement, other);
+        assertThat(index.newest(Set.of(replacement), 1))
+                .extracting(CourseRecommendationIndex.Match::courseUuid)
+                .containsExactly(other);
+    }
+}
@@ -1,6 +1,7 @@
 package apps.sarafrika.elimika.course.service.impl;
 
 import apps.sarafrika.elimika.course.dto.RecommendedCourseDTO;
+import apps.sarafrika.elimika.course.internal.CourseCatalogueChangedEvent;
 import apps.sarafrika.elimika.course.model.Course;
 import apps.sarafrika.elimika.course.model.CourseCategoryMapping;
 import apps.sarafrika.elimika.course.repository.CourseCategoryMappingRepository;
@@ -12,7 +13,6 @@ import apps.sarafrika.elimika.instructor.spi.InstructorLookupService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -22,8 +22,6 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,7 +38,7 @@ class CourseRecommendationServiceImplTest {
     @Mock
     private InstructorLookupService instructorLookupService;
 
-    @InjectMocks
+    private CourseRecommendationCatalogue recommendationCatalogue;
     private CourseRecommendationServiceImpl service;
 
     private final UUID userUuid = UUID.randomUUID();
@@ -56,6 +54,10 @@ class CourseRecommendationServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        recommendationCatalogue = new CourseRecommendationCatalogue(courseRepository, categoryMappingRepository);
+        service = new CourseRecommendationServiceImpl(courseRepository, categoryMappingRepository,
+                trainingApplicationRepository, courseCreatorLookupService, instructorLookupService,
+                recommendationCatalogue);
         when(courseCreatorLookupService.findCourseCreatorUuidByUserUuid(userUuid))
                 .thenReturn(Optional.of(creatorUuid));
         when(instructorLookupService.findInstructorUuidByUserUuid(userUuid))
@@ -71,12 +73,22 @@ class CourseRecommendationServiceImplTest {
         return course;
     }
 
-    private CourseCategoryMapping mapping(UUID categoryUuid) {
+    private CourseCategoryMapping mapping(UUID courseUuid, UUID categoryUuid) {
         CourseCategoryMapping mapping = new CourseCategoryMapping();
+        mapping.setCourseUuid(courseUuid);
         mapping.setCategoryUuid(categoryUuid);
         return mapping;
     }
 
+    private void publishedCatalogue(List<Course> courses, List<CourseCategoryMapping> mappings) {
+        when(courseRepository.findRecommendationRowsByStatus(ContentStatus.PUBLISHED)).thenReturn(courses.stream()
+                .map(course -> new Object[]{course.getUuid(), course.getDifficultyUuid(), course.getCreatedDate()})
+                .toList());
+        when(categoryMappingRepository.findCourseCategoryPairsByCourseStatus(ContentStatus.PUBLISHED)).thenReturn(mappings.stream()
+                .map(mapping -> new Object[]{mapping.getCourseUuid(), mapping.getCategoryUuid()})
+                .toList());
+    }
+
     @Test
     void recommendsByCategoryOverlapAndExcludesPastCourses() {
         when(courseRepository.findUuidsByCourseCreatorUuid(creatorUuid)).thenReturn(List.of(pastCourse));
@@ -86,12 +98,14 @@ class CourseRecommendationServiceImplTest {
 
         Course shared = course(candidateShared, "Shared Topic Course", difficulty, LocalDateTime.now().minusDays(2));
         Course unrelated = course(candidateUnrelated, "Unrelated Course", null, LocalDateTime.now().minusDays(1));
-        when(courseRepository.findByStatus(ContentStatus.PUBLISHED))
-                .thenReturn(List.of(pastEntity, shared, unrelated));
+        publishedCatalogue(List.of(pastEntity, shared, unrelated), List.of(
+                mapping(pastCourse, categoryShared),
+                mapping(candidateShared, categoryShared),
+                mapping(candidateUnrelated, categoryOther)));
 
-        when(categoryMappingRepository.findByCourseUuid(pastCourse)).thenReturn(List.of(mapping(categoryShared)));
-        when(categoryMappingRepository.findByCourseUuid(candidateShared)).thenReturn(List.of(mapping(categoryShared)));
-        when(categoryMappingRepository.findByCourseUuid(candidateUnrelated)).thenReturn(List.of(mapping(categoryOther)));
+        when(categoryMappingRepository.findByCourseUuidIn(List.of(pastCourse)))
+                .thenReturn(List.of(mapping(pastCourse, categoryShared)));
+        when(courseRepository.findByUuidIn(List.of(candidateShared))).thenReturn(List.of(shared));
 
         List<RecommendedCourseDTO> result = service.recommendForUser(userUuid, 6);
 
@@ -103,11 +117,12 @@ class CourseRecommendationServiceImplTest {
     @Test
     void fallsBackToPopularityWhenNoHistory() {
         when(courseRepository.findUuidsByCourseCreatorUuid(creatorUuid)).thenReturn(List.of());
-        lenient().when(courseRepository.findByUuidIn(any())).thenReturn(List.of());
 
         Course newer = course(candidateShared, "Newer Course", null, LocalDateTime.now().minusDays(1));
         Course older = course(candidateUnrelated, "Older Course", null, LocalDateTime.now().minusDays(9));
-        when(courseRepository.findByStatus(ContentStatus.PUBLISHED)).thenReturn(List.of(older, newer));
+        publishedCatalogue(List.of(older, newer), List.of());
+        when(courseRepository.findByUuidIn(List.of(candidateShared, candidateUnrelated)))
+                .thenReturn(List.of(older, newer));
 
         List<RecommendedCourseDTO> result = service.recommendForUser(userUuid, 6);
 
@@ -115,4 +130,26 @@ class CourseRecommendationServiceImplTest {
                 .containsExactly(candidateShared, candidateUnrelated);
         assertThat(result).allSatisfy(dto -> assertThat(dto.reason()).isEqualTo("Popular right now"));
     }
+
+    @Test
+    void keepsTheIndexCurrentFromCatalogueChanges() {
+        when(courseRepository.findUuidsByCourseCreatorUuid(creatorUuid)).thenReturn(List.of());
+        Course older = course(candidateUnrelated, "Older Course", null, LocalDateTime.now().minusDays(9));
+        publishedCatalogue(List.of(older), List.of());
+        assertThat(recommendationCatalogue.index().size()).isEqualTo(1);
+
+        Course published = course(candidateShared, "Just Published", null, LocalDateTime.now().minusHours(1));
+        published.setStatus(ContentStatus.PUBLISHED);
+        when(courseRepository.findByUuid(candidateShared)).thenReturn(Optional.of(published));
+        when(categoryMappingRepository.findByCourseUuid(candidateShared)).thenReturn(List.of());
+        recommendationCatalogue.onCatalogueChanged(new CourseCatalogueChangedEvent(candidateShared));
+
+        when(courseRepository.findByUuid(candidateUnrelated)).thenReturn(Optional.empty());
+        recommendationCatalogue.onCatalogueChanged(new CourseCatalogueChangedEvent(candidateUnrelated));
+
+        when(courseRepository.findByUuidIn(List.of(candidateShared))).thenReturn(List.of(published));
+        assertThat(service.recommendForUser(userUuid, 6))
+                .extracting(RecommendedCourseDTO::courseUuid)
+                .containsExactly(candidateShared);
+    }
 }
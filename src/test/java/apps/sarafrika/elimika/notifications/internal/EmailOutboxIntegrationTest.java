@@ -0,0 +1,290 @@
+package apps.sarafrika.elimika.notifications.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import apps.sarafrika.elimika.notifications.api.DeliveryStatus;
+import apps.sarafrika.elimika.notifications.api.NotificationEvent;
+import apps.sarafrika.elimika.notifications.api.NotificationPriority;
+import apps.sarafrika.elimika.notifications.api.NotificationResult;
+import apps.sarafrika.elimika.notifications.api.NotificationType;
+import apps.sarafrika.elimika.notifications.service.EmailNotificationService;
+import apps.sarafrika.elimika.notifications.template.EmailTemplateService;
+import apps.sarafrika.elimika.shared.config.JpaConfig;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * The email outbox end to end: queued through {@link EmailNotificationService} into a real
+ * PostgreSQL, delivered by {@link EmailOutboxDispatcher} to an embedded SMTP server.
+ * <p>
+ * The dispatcher thread is switched off so that each test drains the outbox itself, on its own
+ * thread, and can look at the result without racing a background sender.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Import({EmailNotificationService.class, EmailOutboxStore.class, EmailOutboxDispatcher.class,
+        EmailMessageComposer.class, JpaConfig.class, EmailOutboxIntegrationTest.MailConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Email outbox")
+class EmailOutboxIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("app.email.outbox.dispatcher-enabled", () -> "false");
+        registry.add("app.email.outbox.max-attempts", () -> "2");
+        registry.add("app.email.outbox.rate-per-second.total", () -> "0");
+        // One low-priority email per hundred seconds: a single drain gets exactly one through.
+        registry.add("app.email.outbox.rate-per-second.low", () -> "0.01");
+    }
+
+    @TestConfiguration
+    static class MailConfig {
+
+        @Bean
+        JavaMailSenderImpl mailSender() {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost("localhost");
+            mailSender.setPort(ServerSetupTest.SMTP.getPort());
+            return mailSender;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EmailNotificationService emailNotificationService;
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+    @Autowired
+    private EmailOutboxStore outboxStore;
+    @Autowired
+    private JavaMailSenderImpl mailSender;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @MockitoBean
+    private EmailTemplateService templateService;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("delete from notification_email_outbox");
+        jdbc.update("delete from notification_delivery_log");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        when(templateService.generateSubject(any()))
+                .thenAnswer(invocation -> "Subject " + invocation.<NotificationEvent>getArgument(0).getPriority());
+        when(templateService.generateEmailContent(any())).thenReturn("<p>Hello <img src=\"cid:elimikaLogo\"></p>");
+    }
+
+    private NotificationEvent event(NotificationPriority priority) {
+        NotificationEvent event = mock(NotificationEvent.class);
+        UUID notificationId = UUID.randomUUID();
+        lenient().when(event.getNotificationId()).thenReturn(notificationId);
+        lenient().when(event.getRecipientId()).thenReturn(UUID.randomUUID());
+        lenient().when(event.getRecipientEmail()).thenReturn("learner-" + notificationId + "@test.local");
+        lenient().when(event.getNotificationType()).thenReturn(NotificationType.COURSE_ENROLLMENT_WELCOME);
+        lenient().when(event.getPriority()).thenReturn(priority);
+        return event;
+    }
+
+    private UUID queue(NotificationPriority priority) {
+        NotificationEvent event = event(priority);
+        NotificationResult result = emailNotificationService.sendEmail(event).join();
+        assertThat(result.status()).isEqualTo(DeliveryStatus.QUEUED);
+        return event.getNotificationId();
+    }
+
+    private String deliveryStatus(UUID notificationId) {
+        return jdbc.queryForObject("select delivery_status from notification_delivery_log where notification_id = ?",
+                String.class, notificationId);
+    }
+
+    private Map<String, Object> outboxRow(UUID notificationId) {
+        return jdbc.queryForMap("select status, attempts, last_error, next_attempt_at > now() as deferred "
+                + "from notification_email_outbox where notification_id = ?", notificationId);
+    }
+
+    private void makeDue(UUID notificationId) {
+        jdbc.update("update notification_email_outbox set next_attempt_at = now() - interval '1 second' "
+                + "where notification_id = ?", notificationId);
+    }
+
+    private static int unusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Test
+    @DisplayName("queued emails are delivered highest priority first, with the logos inline")
+    void deliversQueuedEmailsByPriority() throws Exception {
+        UUID high = queue(NotificationPriority.HIGH);
+        UUID critical = queue(NotificationPriority.CRITICAL);
+
+        // Nothing is sent on the caller's thread.
+        assertThat(smtp.getReceivedMessages()).isEmpty();
+        assertThat(deliveryStatus(high)).isEqualTo("QUEUED");
+
+        assertThat(dispatcher.dispatchDue()).isEqualTo(2);
+
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertThat(received).extracting(MimeMessage::getSubject)
+                .containsExactly("Subject CRITICAL", "Subject HIGH");
+        assertThat(GreenMailUtil.getWholeMessage(received[0]))
+                .contains("Content-ID: <elimikaLogo>")
+                .contains("Content-ID: <sarafrikaLogo>");
+        assertThat(deliveryStatus(high)).isEqualTo("DELIVERED");
+        assertThat(deliveryStatus(critical)).isEqualTo("DELIVERED");
+        assertThat(jdbc.queryForObject("select count(*) from notification_email_outbox", Long.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("a redelivered notification is neither queued nor logged twice")
+    void redeliveredNotificationIsQueuedOnce() {
+        NotificationEvent event = event(NotificationPriority.NORMAL);
+
+        emailNotificationService.sendEmail(event).join();
+        NotificationResult again = emailNotificationService.sendEmail(event).join();
+
+        assertThat(again.status()).isEqualTo(DeliveryStatus.QUEUED);
+        assertThat(jdbc.queryForObject("select count(*) from notification_email_outbox where notification_id = ?",
+                Long.class, event.getNotificationId())).isOne();
+        assertThat(jdbc.queryForObject("select count(*) from notification_delivery_log where notification_id = ?",
+                Long.class, event.getNotificationId())).isOne();
+    }
+
+    @Test
+    @DisplayName("a priority's rate limit holds the rest of its mail in the outbox")
+    void rateLimitHoldsBackLowPriorityMail() {
+        List<UUID> queued = List.of(
+                queue(NotificationPriority.LOW), queue(NotificationPriority.LOW), queue(NotificationPriority.LOW));
+        UUID urgent = queue(NotificationPriority.CRITICAL);
+
+        dispatcher.dispatchDue();
+
+        assertThat(deliveryStatus(urgent)).isEqualTo("DELIVERED");
+        assertThat(queued).extracting(this::deliveryStatus).containsOnly("DELIVERED", "QUEUED")
+                .filteredOn("DELIVERED"::equals).hasSize(1);
+        assertThat(jdbc.queryForObject(
+                "select count(*) from notification_email_outbox where status = 'QUEUED'", Long.class)).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("an email the server did not take is retried after a backoff")
+    void failedSendIsRetriedWithBackoff() throws Exception {
+        UUID notification = queue(NotificationPriority.HIGH);
+
+        mailSender.setPort(unusedPort());
+        dispatcher.dispatchDue();
+
+        assertThat(smtp.getReceivedMessages()).isEmpty();
+        Map<String, Object> row = outboxRow(notification);
+        assertThat(row.get("status")).isEqualTo("QUEUED");
+        assertThat(row.get("attempts")).isEqualTo(1);
+        assertThat(row.get("last_error")).isNotNull();
+        assertThat(row.get("deferred")).isEqualTo(true);
+        assertThat(deliveryStatus(notification)).isEqualTo("QUEUED");
+        // Not due yet, so a drain straight away leaves it alone.
+        assertThat(dispatcher.dispatchDue()).isZero();
+
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        makeDue(notification);
+        dispatcher.dispatchDue();
+
+        assertThat(smtp.getReceivedMessages()).hasSize(1);
+        assertThat(deliveryStatus(notification)).isEqualTo("DELIVERED");
+        assertThat(jdbc.queryForObject(
+                "select retry_count from notification_delivery_log where notification_id = ?",
+                Integer.class, notification)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("an email is given up on after its last attempt")
+    void failedSendIsGivenUpOnAfterMaxAttempts() throws Exception {
+        UUID notification = queue(NotificationPriority.HIGH);
+
+        mailSender.setPort(unusedPort());
+        dispatcher.dispatchDue();
+        makeDue(notification);
+        dispatcher.dispatchDue();
+
+        assertThat(outboxRow(notification).get("status")).isEqualTo("FAILED");
+        assertThat(outboxRow(notification).get("attempts")).isEqualTo(2);
+        assertThat(deliveryStatus(notification)).isEqualTo("FAILED");
+        makeDue(notification);
+        assertThat(dispatcher.dispatchDue()).isZero();
+    }
+
+    @Test
+    @DisplayName("an email claimed by a worker that died is claimed again once its lease runs out")
+    void abandonedClaimIsReclaimedAfterItsLease() {
+        UUID notification = queue(NotificationPriority.NORMAL);
+
+        assertThat(outboxStore.claimDue(NotificationPriority.NORMAL, 10, Duration.ofMinutes(5))).hasSize(1);
+        assertThat(outboxStore.claimDue(NotificationPriority.NORMAL, 10, Duration.ofMinutes(5))).isEmpty();
+
+        makeDue(notification);
+
+        assertThat(outboxStore.claimDue(NotificationPriority.NORMAL, 10, Duration.ofMinutes(5)))
+                .singleElement()
+                .satisfies(claimed -> {
+                    assertThat(claimed.notificationId()).isEqualTo(notification);
+                    assertThat(claimed.attempts()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    @DisplayName("backoff doubles per attempt up to its ceiling")
+    void backoffDoublesUpToItsCeiling() {
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(dispatcher.backoff(3)).isEqualTo(Duration.ofMinutes(4));
+        assertThat(dispatcher.backoff(40)).isEqualTo(Duration.ofHours(1));
+    }
+}
@@ -28,6 +28,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -39,6 +40,7 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -242,6 +244,55 @@ class ResourceBookingServiceImplTest {
                 .isInstanceOf(ResourceBookingConflictException.class);
     }
 
+    @Test
+    void holdResourcesForJobLoadsEachCalendarOnceAndReportsEveryConflictingWindow() {
+        stubLockedResources(venue, equipmentPool);
+        stubNoRules(venue);
+        List<OccurrenceWindow> weekly = new ArrayList<>();
+        for (int week = 0; week < 30; week++) {
+            weekly.add(new OccurrenceWindow(START.plusWeeks(week), END.plusWeeks(week)));
+        }
+        ResourceBooking weekThree = booking(venue, ResourceBookingStatus.CONFIRMED,
+                START.plusWeeks(3).plusHours(1), END.plusWeeks(3).plusHours(1), 1);
+        ResourceBooking weekTen = booking(equipmentPool, ResourceBookingStatus.HOLD,
+                START.plusWeeks(10), END.plusWeeks(10), 8);
+        weekTen.setJobUuid(UUID.randomUUID());
+        when(bookingRepository.findActiveOverlaps(eq(venue.getUuid()), anyCollection(), any(), any()))
+                .thenReturn(List.of(weekThree));
+        when(bookingRepository.findActiveOverlaps(eq(equipmentPool.getUuid()), anyCollection(), any(), any()))
+                .thenReturn(List.of(weekTen));
+
+        assertThatThrownBy(() -> service.holdResourcesForJob(JOB_UUID, ORG_UUID, List.of(
+                new ResourceBookingRequest(venue.getUuid(), 1, weekly),
+                new ResourceBookingRequest(equipmentPool.getUuid(), 3, weekly))))
+                .isInstanceOfSatisfying(ResourceBookingConflictException.class, ex -> {
+                    assertThat(ex.getReport().conflicts()).extracting(ResourceConflictDetail::requestedStart)
+                            .containsExactly(START.plusWeeks(3), START.plusWeeks(10));
+                    assertThat(ex.getReport().conflicts()).extracting(ResourceConflictDetail::conflictType)
+                            .containsExactly(ResourceConflictType.CONFIRMED_BOOKING,
+                                    ResourceConflictType.INSUFFICIENT_QUANTITY);
+                });
+        verify(bookingRepository, times(1)).findActiveOverlaps(
+                eq(venue.getUuid()), anyCollection(), eq(START), eq(END.plusWeeks(29)));
+        verify(bookingRepository, times(1)).findActiveOverlaps(
+                eq(equipmentPool.getUuid()), anyCollection(), eq(START), eq(END.plusWeeks(29)));
+    }
+
+    @Test
+    void bookingEndingAsWindowStartsDoesNotConflict() {
+        stubLockedResources(venue);
+        stubNoRules(venue);
+        when(bookingRepository.findActiveOverlaps(eq(venue.getUuid()), anyCollection(), any(), any()))
+                .thenReturn(List.of(
+                        booking(venue, ResourceBookingStatus.CONFIRMED, START.minusHours(2), START, 1),
+                        booking(venue, ResourceBookingStatus.CONFIRMED, END, END.plusHours(2), 1)));
+
+        service.holdResourcesForJob(JOB_UUID, ORG_UUID,
+                List.of(request(venue, 1, new OccurrenceWindow(START, END))));
+
+        verify(bookingRepository).saveAll(anyList());
+    }
+
     // ===== availability rules =====
 
     @Test
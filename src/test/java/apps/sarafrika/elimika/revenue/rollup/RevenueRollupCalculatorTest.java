@@ -0,0 +1,129 @@
+package apps.sarafrika.elimika.revenue.rollup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import apps.sarafrika.elimika.shared.spi.revenue.CommerceRevenueLineItem;
+import apps.sarafrika.elimika.shared.spi.revenue.PurchaseScope;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class RevenueRollupCalculatorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 17);
+    private static final UUID COURSE_UUID = UUID.randomUUID();
+    private static final UUID OTHER_COURSE_UUID = UUID.randomUUID();
+    private static final UUID CLASS_UUID = UUID.randomUUID();
+    private static final UUID STUDENT_UUID = UUID.randomUUID();
+
+    @Test
+    void rollsEachLineUpOncePerDimensionItBelongsTo() {
+        List<CommerceRevenueLineItem> lines = List.of(
+                line("order-1", PurchaseScope.COURSE, COURSE_UUID, null, "1000.00", 2, "10.00", null),
+                line("order-1", PurchaseScope.CLASS, COURSE_UUID, CLASS_UUID, "500.00", 1, "5.00", "99.00"),
+                line("order-2", PurchaseScope.COURSE, OTHER_COURSE_UUID, null, "20.00", 1, "20.00", null));
+
+        List<RevenueRollupRow> rows = RevenueRollupCalculator.aggregate(DAY, lines).rows();
+
+        RevenueRollupRow platformCourse = row(rows, RevenueRollupDimension.PLATFORM, RevenueRollupDimension.NIL,
+                PurchaseScope.COURSE);
+        assertThat(platformCourse.courseUuid()).isEqualTo(RevenueRollupDimension.NIL);
+        assertThat(platformCourse.grossAmount()).isEqualByComparingTo("1020.00");
+        // 990.00 net on the first line; the fee swallows the third line whole, which nets zero, not less.
+        assertThat(platformCourse.uncreditedNetAmount()).isEqualByComparingTo("990.00");
+        assertThat(platformCourse.unitsSold()).isEqualTo(3);
+
+        RevenueRollupRow platformClass = row(rows, RevenueRollupDimension.PLATFORM, RevenueRollupDimension.NIL,
+                PurchaseScope.CLASS);
+        assertThat(platformClass.creditedAmount()).isEqualByComparingTo("99.00");
+        assertThat(platformClass.uncreditedNetAmount()).isEqualByComparingTo("0");
+
+        RevenueRollupRow classRow = row(rows, RevenueRollupDimension.CLASS_DEFINITION, CLASS_UUID, PurchaseScope.CLASS);
+        assertThat(classRow.courseUuid()).isEqualTo(COURSE_UUID);
+        assertThat(classRow.lineCount()).isEqualTo(1);
+
+        assertThat(rows).filteredOn(row -> row.dimension() == RevenueRollupDimension.STUDENT)
+                .extracting(RevenueRollupRow::dimensionUuid)
+                .containsOnly(STUDENT_UUID);
+        assertThat(rows).filteredOn(row -> row.dimension() == RevenueRollupDimension.COURSE)
+                .extracting(RevenueRollupRow::lineCount)
+                .containsExactlyInAnyOrder(1L, 1L, 1L);
+    }
+
+    @Test
+    void keepsEachOrderOncePerMemberRegardlessOfLineOrder() {
+        List<CommerceRevenueLineItem> lines = new ArrayList<>(List.of(
+                line("order-1", PurchaseScope.COURSE, COURSE_UUID, null, "100.00", 1, null, null),
+                line("order-1", PurchaseScope.CLASS, COURSE_UUID, CLASS_UUID, "50.00", 1, null, null),
+                line("order-2", PurchaseScope.CLASS, COURSE_UUID, CLASS_UUID, "50.00", 1, null, null)));
+
+        RevenueRollupDay day = RevenueRollupCalculator.aggregate(DAY, lines);
+        Collections.reverse(lines);
+        RevenueRollupDay reversed = RevenueRollupCalculator.aggregate(DAY, lines);
+
+        assertThat(orders(day, RevenueRollupDimension.PLATFORM)).containsExactly("order-1", "order-2");
+        assertThat(orders(day, RevenueRollupDimension.COURSE)).containsExactly("order-1", "order-2");
+        assertThat(orders(day, RevenueRollupDimension.STUDENT)).containsExactly("order-1", "order-2");
+        assertThat(orders(day, RevenueRollupDimension.CLASS_DEFINITION)).containsExactly("order-1", "order-2");
+        assertThat(day.orders()).allSatisfy(order -> assertThat(order.currencyCode()).isEqualTo("KES"));
+        assertThat(reversed.orders()).isEqualTo(day.orders());
+        assertThat(reversed.rows()).hasSameSizeAs(day.rows());
+        for (int i = 0; i < day.rows().size(); i++) {
+            assertThat(reversed.rows().get(i).sameAs(day.rows().get(i))).isTrue();
+        }
+    }
+
+    @Test
+    void keepsAnOrderUnderEveryMemberItTouches() {
+        List<CommerceRevenueLineItem> lines = List.of(
+                line("order-1", PurchaseScope.COURSE, COURSE_UUID, null, "100.00", 1, null, null),
+                line("order-1", PurchaseScope.COURSE, OTHER_COURSE_UUID, null, "50.00", 1, null, null));
+
+        RevenueRollupDay day = RevenueRollupCalculator.aggregate(DAY, lines);
+
+        // Both courses hold the order, so a creator of both counts it once, not once per course.
+        assertThat(day.orders())
+                .filteredOn(order -> order.dimension() == RevenueRollupDimension.COURSE)
+                .extracting(RevenueRollupOrder::dimensionUuid)
+                .containsExactlyInAnyOrder(COURSE_UUID, OTHER_COURSE_UUID);
+        assertThat(orders(day, RevenueRollupDimension.PLATFORM)).containsExactly("order-1");
+    }
+
+    private static List<String> orders(RevenueRollupDay day, RevenueRollupDimension dimension) {
+        return day.orders().stream()
+                .filter(order -> order.dimension() == dimension)
+                .map(RevenueRollupOrder::orderId)
+                .toList();
+    }
+
+    private static RevenueRollupRow row(
+            List<RevenueRollupRow> rows, RevenueRollupDimension dimension, UUID member, PurchaseScope scope) {
+        return rows.stream()
+                .filter(row -> row.dimension() == dimension && row.dimensionUuid().equals(member) && row.scope() == scope)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static CommerceRevenueLineItem line(String orderId, PurchaseScope scope, UUID courseUuid,
+                                                UUID classDefinitionUuid, String total, int quantity,
+                                                String platformFee, String credited) {
+        return new CommerceRevenueLineItem(
+                orderId,
+                OffsetDateTime.of(2026, 10, 17, 9, 0, 0, 0, ZoneOffset.UTC),
+                " kes ",
+                new BigDecimal(total),
+                quantity,
+                scope,
+                courseUuid,
+                classDefinitionUuid,
+                STUDENT_UUID,
+                platformFee == null ? null : new BigDecimal(platformFee),
+                credited == null ? null : new BigDecimal(credited));
+    }
+}
@@ -3,7 +3,9 @@ package apps.sarafrika.elimika.revenue.service.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import apps.sarafrika.elimika.commerce.internal.spi.CommercePaymentQueryService;
@@ -14,6 +16,12 @@ import apps.sarafrika.elimika.instructor.spi.InstructorLookupService;
 import apps.sarafrika.elimika.revenue.dto.RevenueAmountDTO;
 import apps.sarafrika.elimika.revenue.dto.RevenueDashboardDTO;
 import apps.sarafrika.elimika.revenue.dto.RevenueScopeBreakdownDTO;
+import apps.sarafrika.elimika.revenue.dto.RevenueTimeSeriesPointDTO;
+import apps.sarafrika.elimika.revenue.rollup.RevenueRollupDimension;
+import apps.sarafrika.elimika.revenue.rollup.RevenueRollupOrderCount;
+import apps.sarafrika.elimika.revenue.rollup.RevenueRollupRange;
+import apps.sarafrika.elimika.revenue.rollup.RevenueRollupRow;
+import apps.sarafrika.elimika.revenue.rollup.RevenueRollups;
 import apps.sarafrika.elimika.shared.security.DomainSecurityService;
 import apps.sarafrika.elimika.shared.spi.ClassDefinitionLookupService;
 import apps.sarafrika.elimika.shared.spi.revenue.CommerceRevenueLineItem;
@@ -27,6 +35,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -55,6 +64,7 @@ class RevenueAnalyticsServiceImplTest {
     private static final UUID CREATOR_UUID = UUID.randomUUID();
     private static final UUID INSTRUCTOR_UUID = UUID.randomUUID();
     private static final UUID COURSE_UUID = UUID.randomUUID();
+    private static final UUID OTHER_COURSE_UUID = UUID.randomUUID();
     private static final UUID CLASS_UUID = UUID.randomUUID();
     private static final LocalDate START = LocalDate.of(2026, 1, 1);
     private static final LocalDate END = LocalDate.of(2026, 1, 31);
@@ -79,6 +89,8 @@ class RevenueAnalyticsServiceImplTest {
     private UserLookupService userLookupService;
     @Mock
     private DomainSecurityService domainSecurityService;
+    @Mock
+    private RevenueRollups revenueRollups;
 
     @InjectMocks
     private RevenueAnalyticsServiceImpl service;
@@ -90,6 +102,15 @@ class RevenueAnalyticsServiceImplTest {
 
     private static CommerceRevenueLineItem line(
             PurchaseScope scope, String total, String platformFee, String credited) {
+        return line(COURSE_UUID, scope, total, platformFee, credited);
+    }
+
+    private static CommerceRevenueLineItem line(UUID courseUuid, PurchaseScope scope, String total) {
+        return line(courseUuid, scope, total, null, null);
+    }
+
+    private static CommerceRevenueLineItem line(
+            UUID courseUuid, PurchaseScope scope, String total, String platformFee, String credited) {
         return new CommerceRevenueLineItem(
                 "order-1",
                 OffsetDateTime.of(2026, 1, 15, 10, 0, 0, 0, ZoneOffset.UTC),
@@ -97,8 +118,9 @@ class RevenueAnalyticsServiceImplTest {
                 new BigDecimal(total),
                 1,
                 scope,
-                COURSE_UUID,
+                courseUuid,
                 scope == PurchaseScope.CLASS ? CLASS_UUID : null,
+                null,
                 platformFee == null ? null : new BigDecimal(platformFee),
                 credited == null ? null : new BigDecimal(credited));
     }
@@ -112,12 +134,17 @@ class RevenueAnalyticsServiceImplTest {
     }
 
     private void stubCreatorLines(List<CommerceRevenueLineItem> lines, Map<UUID, RevenueShare> shares) {
+        stubCreatorLines(lines, List.of(COURSE_UUID), shares);
+    }
+
+    private void stubCreatorLines(
+            List<CommerceRevenueLineItem> lines, List<UUID> courseUuids, Map<UUID, RevenueShare> shares) {
         when(domainSecurityService.hasAnyDomain(UserDomain.course_creator)).thenReturn(true);
         when(domainSecurityService.getCurrentUserUuid()).thenReturn(USER_UUID);
         when(courseCreatorLookupService.findCourseCreatorUuidByUserUuid(USER_UUID))
                 .thenReturn(Optional.of(CREATOR_UUID));
         when(courseInfoService.findCourseUuidsByCourseCreatorUuid(CREATOR_UUID))
-                .thenReturn(List.of(COURSE_UUID));
+                .thenReturn(courseUuids);
         when(revenueQueryService.findCapturedRevenueLinesByCourseUuids(any(), any(), anyList()))
                 .thenReturn(lines);
         lenient().when(courseInfoService.getRevenueShares(anyList())).thenReturn(shares);
@@ -395,4 +422,100 @@ class RevenueAnalyticsServiceImplTest {
             assertThat(earnings(dashboard)).isEqualByComparingTo(new BigDecimal("1000.00"));
         }
     }
+
+    @Nested
+    @DisplayName("daily rollups")
+    class DailyRollups {
+
+        @Test
+        @DisplayName("a covered range is reported from the rollups with the same earnings rules")
+        void coveredRangeIsReadFromRollups() {
+            when(domainSecurityService.hasAnyDomain(UserDomain.course_creator)).thenReturn(true);
+            when(domainSecurityService.getCurrentUserUuid()).thenReturn(USER_UUID);
+            when(courseCreatorLookupService.findCourseCreatorUuidByUserUuid(USER_UUID))
+                    .thenReturn(Optional.of(CREATOR_UUID));
+            when(courseInfoService.findCourseUuidsByCourseCreatorUuid(CREATOR_UUID))
+                    .thenReturn(List.of(COURSE_UUID));
+            when(courseInfoService.getRevenueShares(anyList()))
+                    .thenReturn(Map.of(COURSE_UUID, new RevenueShare(new BigDecimal("70"), new BigDecimal("20"))));
+            // A course sale with 693.00 already credited plus 990.00 of net not yet credited, and a
+            // class sale the creator earns nothing on.
+            when(revenueRollups.find(eq(RevenueRollupDimension.COURSE), eq(List.of(COURSE_UUID)), eq(START), eq(END)))
+                    .thenReturn(Optional.of(new RevenueRollupRange(
+                            List.of(
+                                    rollupRow(LocalDate.of(2026, 1, 15), COURSE_UUID, PurchaseScope.COURSE,
+                                            "2000.00", "693.00", "990.00", 2),
+                                    rollupRow(LocalDate.of(2026, 1, 16), COURSE_UUID, PurchaseScope.CLASS,
+                                            "500.00", "0", "500.00", 1)),
+                            orderCounts(Map.of(LocalDate.of(2026, 1, 15), 2L, LocalDate.of(2026, 1, 16), 1L)))));
+
+            RevenueDashboardDTO dashboard = service.getRevenueDashboard(UserDomain.course_creator, START, END);
+
+            assertThat(earnings(dashboard)).isEqualByComparingTo(new BigDecimal("1386.00"));
+            assertThat(dashboard.grossTotals())
+                    .extracting(RevenueAmountDTO::amount)
+                    .containsExactly(new BigDecimal("2500.00"));
+            assertThat(dashboard.orderCount()).isEqualTo(3);
+            assertThat(dashboard.averageOrderValue())
+                    .extracting(RevenueAmountDTO::amount)
+                    .containsExactly(new BigDecimal("833.3333"));
+            assertThat(dashboard.dailySeries()).hasSize(2);
+            verifyNoInteractions(revenueQueryService);
+        }
+
+        @Test
+        @DisplayName("an order spanning both scopes and two courses is counted the same from rollups as from lines")
+        void mixedScopeOrderReportsTheSameFromRollupsAndLines() {
+            stubCreatorLines(
+                    List.of(line(PurchaseScope.COURSE, "1000.00"), line(PurchaseScope.CLASS, "500.00"),
+                            line(OTHER_COURSE_UUID, PurchaseScope.COURSE, "250.00")),
+                    List.of(COURSE_UUID, OTHER_COURSE_UUID),
+                    Map.of(COURSE_UUID, new RevenueShare(new BigDecimal("70"), new BigDecimal("20")),
+                            OTHER_COURSE_UUID, new RevenueShare(new BigDecimal("70"), new BigDecimal("20"))));
+
+            RevenueDashboardDTO fromLines = service.getRevenueDashboard(UserDomain.course_creator, START, END);
+
+            // What the rollups hold for those lines: one row per course and scope, and order-1 under
+            // both courses, counted distinctly over them.
+            LocalDate day = LocalDate.of(2026, 1, 15);
+            when(revenueRollups.find(eq(RevenueRollupDimension.COURSE), eq(List.of(COURSE_UUID, OTHER_COURSE_UUID)),
+                    eq(START), eq(END)))
+                    .thenReturn(Optional.of(new RevenueRollupRange(
+                            List.of(
+                                    rollupRow(day, COURSE_UUID, PurchaseScope.CLASS, "500.00", "0", "500.00", 1),
+                                    rollupRow(day, COURSE_UUID, PurchaseScope.COURSE, "1000.00", "0", "1000.00", 1),
+                                    rollupRow(day, OTHER_COURSE_UUID, PurchaseScope.COURSE, "250.00", "0", "250.00", 1)),
+                            orderCounts(Map.of(day, 1L)))));
+
+            RevenueDashboardDTO fromRollups = service.getRevenueDashboard(UserDomain.course_creator, START, END);
+
+            assertThat(fromRollups.orderCount()).isEqualTo(1);
+            assertThat(fromRollups.averageOrderValue())
+                    .extracting(RevenueAmountDTO::amount)
+                    .containsExactly(new BigDecimal("1750.0000"));
+            assertThat(fromRollups.dailySeries())
+                    .extracting(RevenueTimeSeriesPointDTO::orderCount)
+                    .containsExactly(1L);
+            assertThat(fromRollups)
+                    .usingRecursiveComparison()
+                    .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                    .isEqualTo(fromLines);
+        }
+
+        private RevenueRollupRow rollupRow(LocalDate day, UUID courseUuid, PurchaseScope scope, String gross,
+                                           String credited, String uncreditedNet, long lines) {
+            return new RevenueRollupRow(day, RevenueRollupDimension.COURSE, null, courseUuid, scope, "KES",
+                    new BigDecimal(gross), new BigDecimal(credited), new BigDecimal(uncreditedNet), lines, lines);
+        }
+
+        /** Distinct KES orders per day, as the rollups report them: per currency and over all currencies. */
+        private List<RevenueRollupOrderCount> orderCounts(Map<LocalDate, Long> ordersByDay) {
+            List<RevenueRollupOrderCount> counts = new ArrayList<>();
+            ordersByDay.forEach((day, orders) -> {
+                counts.add(new RevenueRollupOrderCount(day, "KES", orders));
+                counts.add(new RevenueRollupOrderCount(day, null, orders));
+            });
+            return counts;
+        }
+    }
 }
@@ -0,0 +1,233 @@
+package apps.sarafrika.elimika.shared.integration;
+
+import apps.sarafrika.elimika.course.model.Course;
+import apps.sarafrika.elimika.course.model.CourseCategoryMapping;
+import apps.sarafrika.elimika.course.repository.CourseCategoryMappingRepository;
+import apps.sarafrika.elimika.course.repository.CourseRepository;
+import apps.sarafrika.elimika.course.util.enums.ContentStatus;
+import apps.sarafrika.elimika.instructor.model.Instructor;
+import apps.sarafrika.elimika.instructor.repository.InstructorRepository;
+import apps.sarafrika.elimika.shared.config.JpaConfig;
+import apps.sarafrika.elimika.shared.enums.CatalogueContentType;
+import apps.sarafrika.elimika.shared.search.dto.CatalogueSearchHitDTO;
+import apps.sarafrika.elimika.shared.search.internal.CatalogueSearchIndexer;
+import apps.sarafrika.elimika.shared.search.service.CatalogueSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Catalogue search runs on PostgreSQL full-text and trigram indexes kept current from content writes,
+ * so this test runs the real migrations, entity listeners and after-commit refreshes. Writes are not
+ * wrapped in a test transaction: the index is only refreshed once they commit.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Import({JpaConfig.class, CatalogueSearchService.class, CatalogueSearchIntegrationTest.TestConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Catalogue search index")
+class CatalogueSearchIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    // Picks up the package-private synchronizer alongside the indexer.
+    @ComponentScan(basePackageClasses = CatalogueSearchIndexer.class)
+    static class TestConfig {
+    }
+
+    @Autowired
+    private CatalogueSearchService searchService;
+    @Autowired
+    private CatalogueSearchIndexer indexer;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private CourseCategoryMappingRepository categoryMappingRepository;
+    @Autowired
+    private InstructorRepository instructorRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID courseCreatorUuid;
+
+    @BeforeEach
+    void seedOwner() {
+        UUID userUuid = insertUser("Test", "Creator");
+        courseCreatorUuid = UUID.randomUUID();
+        jdbc.update("INSERT INTO course_creators (uuid, user_uuid, full_name, admin_verified, created_by) "
+                        + "VALUES (?, ?, 'Test Creator', true, 'test')",
+                courseCreatorUuid, userUuid);
+    }
+
+    @Test
+    void publishedCoursesAreIndexedOnCommitAndDroppedWhenUnpublished() {
+        Course course = courseRepository.save(course("Haskell Foundations", "Pure functions", ContentStatus.DRAFT));
+        assertThat(uuids(search("haskell"))).isEmpty();
+
+        course.setStatus(ContentStatus.PUBLISHED);
+        courseRepository.save(course);
+        assertThat(uuids(search("haskell"))).containsExactly(course.getUuid());
+
+        course.setName("Haskell Foundations Revised");
+        courseRepository.save(course);
+        assertThat(search("haskell")).singleElement()
+                .satisfies(hit -> assertThat(hit.title()).isEqualTo("Haskell Foundations Revised"));
+
+        course.setStatus(ContentStatus.ARCHIVED);
+        course.setActive(false);
+        courseRepository.save(course);
+        assertThat(uuids(search("haskell"))).isEmpty();
+    }
+
+    @Test
+    void titleMatchesRankAboveCategoryMatchesAboveDescriptionMatches() {
+        UUID categoryUuid = UUID.randomUUID();
+        jdbc.update("INSERT INTO course_categories (uuid, name, created_by) VALUES (?, 'Kotlin', 'test')", categoryUuid);
+
+        Course inDescription = courseRepository.save(
+                course("Mobile Apps", "Build apps with Kotlin", ContentStatus.PUBLISHED));
+        Course inCategory = courseRepository.save(
+                course("Android Essentials", "Build apps for phones", ContentStatus.PUBLISHED));
+        Course inTitle = courseRepository.save(
+                course("Kotlin Essentials", "Build apps for phones", ContentStatus.PUBLISHED));
+        CourseCategoryMapping mapping = new CourseCategoryMapping();
+        mapping.setCourseUuid(inCategory.getUuid());
+        mapping.setCategoryUuid(categoryUuid);
+        categoryMappingRepository.save(mapping);
+
+        List<CatalogueSearchHitDTO> hits = search("kotlin");
+
+        assertThat(uuids(hits)).containsExactly(inTitle.getUuid(), inCategory.getUuid(), inDescription.getUuid());
+        assertThat(hits.get(1).category()).isEqualTo("Kotlin");
+    }
+
+    @Test
+    void matchesWordPrefixesAndMisspelledTitles() {
+        Course course = courseRepository.save(
+                course("Introduction to Python", "Variables, loops and functions", ContentStatus.PUBLISHED));
+
+        assertThat(uuids(search("intro pyth"))).containsExactly(course.getUuid());
+        assertThat(uuids(search("pyton"))).containsExactly(course.getUuid());
+        assertThat(uuids(search("Introdution"))).containsExactly(course.getUuid());
+        assertThat(uuids(search("rust"))).isEmpty();
+        // Operators and punctuation are dropped rather than passed to to_tsquery.
+        assertThat(uuids(search("python & | ! :*"))).containsExactly(course.getUuid());
+        assertThat(search("&&&")).isEmpty();
+    }
+
+    @Test
+    void searchesInstructorProfilesAndFiltersByContentType() {
+        UUID userUuid = insertUser("Wanjiru", "Kamau");
+        Instructor instructor = instructorRepository.save(Instructor.builder()
+                .userUuid(userUuid)
+                .fullName("Wanjiru Kamau")
+                .professionalHeadline("Data engineer")
+                .bio("Teaches pipelines")
+                .adminVerified(true)
+                .build());
+
+        assertThat(uuids(searchService.search("wanjiru", List.of(CatalogueContentType.INSTRUCTOR),
+                PageRequest.of(0, 10)).getContent())).containsExactly(instructor.getUuid());
+        assertThat(searchService.search("wanjiru", List.of(CatalogueContentType.COURSE),
+                PageRequest.of(0, 10)).getContent()).isEmpty();
+    }
+
+    @Test
+    void rebuildRestoresDocumentsWrittenOutsideTheApplication() {
+        Course course = courseRepository.save(course("Elixir Clusters", "Distributed systems", ContentStatus.PUBLISHED));
+        jdbc.update("UPDATE courses SET name = 'Elixir Supervisors' WHERE uuid = ?", course.getUuid());
+        assertThat(search("supervisors")).isEmpty();
+
+        indexer.rebuild(CatalogueContentType.COURSE);
+
+        assertThat(uuids(search("supervisors"))).containsExactly(course.getUuid());
+    }
+
+    @Test
+    void bothMatchesAreServedByGinIndexes() {
+        String plan = new TransactionTemplate(transactionManager).execute(status -> {
+            // The tables are tiny here; forbid sequential scans so the plan shows what a large catalogue gets.
+            jdbc.execute("SET LOCAL enable_seqscan = off");
+            return String.join("\n", jdbc.queryForList("""
+                    EXPLAIN SELECT content_uuid
+                    FROM catalogue_search_documents d, to_tsquery('simple', 'pyth:*') AS q(query)
+                    WHERE d.document @@ q.query OR 'pyton' <% d.title
+                    """, String.class));
+        });
+
+        assertThat(plan)
+                .contains("idx_catalogue_search_documents_document")
+                .contains("idx_catalogue_search_documents_title_trgm");
+    }
+
+    // ---------------------------------------------------------------- fixtures
+
+    private List<CatalogueSearchHitDTO> search(String query) {
+        return searchService.search(query, List.of(), PageRequest.of(0, 20)).getContent();
+    }
+
+    private static List<UUID> uuids(List<CatalogueSearchHitDTO> hits) {
+        return hits.stream().map(CatalogueSearchHitDTO::contentUuid).toList();
+    }
+
+    private Course course(String name, String description, ContentStatus status) {
+        Course course = new Course();
+        course.setName(name);
+        course.setCourseCreatorUuid(courseCreatorUuid);
+        course.setDescription(description);
+        course.setPrice(new BigDecimal("1500.00"));
+        course.setMinimumTrainingFee(new BigDecimal("500.00"));
+        course.setCreatorSharePercentage(new BigDecimal("60.00"));
+        course.setInstructorSharePercentage(new BigDecimal("40.00"));
+        course.setDurationHours(2);
+        course.setDurationMinutes(0);
+        course.setStatus(status);
+        course.setActive(status == ContentStatus.PUBLISHED);
+        course.setAdminApproved(true);
+        return course;
+    }
+
+    private UUID insertUser(String firstName, String lastName) {
+        UUID userUuid = UUID.randomUUID();
+        // users.email is varchar(50), so keep the local part short and still unique.
+        String email = "s" + Long.toHexString(System.nanoTime()) + "@example.com";
+        jdbc.update("INSERT INTO users (uuid, first_name, last_name, email, user_no, created_by) "
+                        + "VALUES (?, ?, ?, ?, ?, 'test')",
+                userUuid, firstName, lastName, email, String.valueOf(100_000_000 + (int) (Math.random() * 899_999_999)));
+        return userUuid;
+    }
+}
@@ -0,0 +1,271 @@
+package apps.sarafrika.elimika.shared.integration;
+
+import apps.sarafrika.elimika.shared.config.JpaConfig;
+import apps.sarafrika.elimika.shared.enums.LocatedContentType;
+import apps.sarafrika.elimika.shared.geo.dto.NearbyHitDTO;
+import apps.sarafrika.elimika.shared.geo.internal.NearbyLocationIndexer;
+import apps.sarafrika.elimika.shared.geo.service.NearbySearchService;
+import apps.sarafrika.elimika.tenancy.entity.Organisation;
+import apps.sarafrika.elimika.tenancy.entity.TrainingBranch;
+import apps.sarafrika.elimika.tenancy.repository.OrganisationRepository;
+import apps.sarafrika.elimika.tenancy.repository.TrainingBranchRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Nearby search runs on a PostgreSQL GiST index kept current from entity writes, so this test runs the
+ * real migrations, entity listeners and after-commit refreshes. Writes are not wrapped in a test
+ * transaction: the index is only refreshed once they commit.
+ * <p>
+ * Radius and nearest results are checked against a brute-force scan of every row; how they compare
+ * in time at 100k points is measured by {@code NearbySearchBenchmark} under src/jmh.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Import({JpaConfig.class, NearbySearchService.class, NearbySearchIntegrationTest.TestConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Nearby search index")
+class NearbySearchIntegrationTest {
+
+    private static final String BRUTE_FORCE_SQL = """
+            SELECT content_uuid
+            FROM (SELECT content_uuid,
+                         2 * 6371008.8 * asin(least(1, sqrt(power(sin(radians(latitude - ?) / 2), 2)
+                             + cos(radians(?)) * cos(radians(latitude)) * power(sin(radians(longitude - ?) / 2), 2))))
+                             AS distance_meters
+                  FROM nearby_locations
+                  WHERE ends_at IS NULL OR ends_at > CURRENT_TIMESTAMP) n
+            WHERE distance_meters <= ?
+            ORDER BY distance_meters, content_uuid
+            LIMIT ?
+            """;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    // Picks up the package-private synchronizer alongside the indexer and entity listener.
+    @ComponentScan(basePackageClasses = NearbyLocationIndexer.class)
+    static class TestConfig {
+    }
+
+    @Autowired
+    private NearbySearchService searchService;
+    @Autowired
+    private NearbyLocationIndexer indexer;
+    @Autowired
+    private OrganisationRepository organisationRepository;
+    @Autowired
+    private TrainingBranchRepository trainingBranchRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void organisationsAndBranchesAreIndexedOnCommitAndDroppedWhenDeleted() {
+        Organisation organisation = new Organisation();
+        organisation.setName("Pwani Coding Hub");
+        organisation.setLocation("Nyali, Mombasa");
+        organisation.setLatitude(new BigDecimal("-4.0240"));
+        organisation.setLongitude(new BigDecimal("39.7190"));
+        organisation = organisationRepository.save(organisation);
+
+        TrainingBranch branch = new TrainingBranch();
+        branch.setOrganisationUuid(organisation.getUuid());
+        branch.setBranchName("Pwani Coding Hub - Old Town");
+        branch.setAddress("Old Town, Mombasa");
+        branch.setLatitude(new BigDecimal("-4.0625"));
+        branch.setLongitude(new BigDecimal("39.6770"));
+        branch = trainingBranchRepository.save(branch);
+        UUID branchUuid = branch.getUuid();
+
+        List<NearbyHitDTO> hits = searchService.withinRadius(-4.0435, 39.6682, 10_000,
+                List.of(LocatedContentType.ORGANISATION, LocatedContentType.TRAINING_BRANCH), null, null, 200);
+        assertThat(uuids(hits)).contains(organisation.getUuid(), branch.getUuid());
+        assertThat(hits).filteredOn(hit -> hit.contentUuid().equals(branchUuid)).singleElement()
+                .satisfies(hit -> {
+                    assertThat(hit.title()).isEqualTo("Pwani Coding Hub - Old Town");
+                    assertThat(hit.locationName()).isEqualTo("Old Town, Mombasa");
+                    assertThat(hit.distanceMeters()).isBetween(2300.0, 2350.0);
+                });
+
+        // Kigali, outside the area the brute-force check fills with points.
+        branch.setLatitude(new BigDecimal("-1.9441"));
+        branch.setLongitude(new BigDecimal("30.0619"));
+        trainingBranchRepository.save(branch);
+        organisation.setDeleted(true);
+        organisationRepository.save(organisation);
+
+        assertThat(uuids(searchService.withinRadius(-4.0435, 39.6682, 10_000, List.of(), null, null, 200)))
+                .doesNotContain(organisation.getUuid(), branch.getUuid());
+        assertThat(uuids(searchService.nearest(-1.9441, 30.0619, 1,
+                List.of(LocatedContentType.TRAINING_BRANCH), null, null)))
+                .containsExactly(branch.getUuid());
+    }
+
+    @Test
+    void sessionsAreFilteredByStartWindowAndEndedSessionsAreNeverReturned() {
+        // Tromsø is far from every other row these tests write.
+        OffsetDateTime now = OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        UUID tomorrow = insertLocation(LocatedContentType.SCHEDULED_INSTANCE, 69.6492, 18.9553,
+                now.plusDays(1), now.plusDays(1).plusHours(2));
+        UUID nextWeek = insertLocation(LocatedContentType.SCHEDULED_INSTANCE, 69.6500, 18.9560,
+                now.plusDays(8), now.plusDays(8).plusHours(2));
+        UUID ended = insertLocation(LocatedContentType.SCHEDULED_INSTANCE, 69.6495, 18.9555,
+                now.minusDays(1), now.minusDays(1).plusHours(2));
+        UUID branch = insertLocation(LocatedContentType.TRAINING_BRANCH, 69.6490, 18.9550, null, null);
+
+        assertThat(uuids(searchService.withinRadius(69.6492, 18.9553, 5_000, List.of(), null, null, 50)))
+                .containsExactlyInAnyOrder(tomorrow, nextWeek, branch)
+                .doesNotContain(ended);
+        assertThat(uuids(searchService.withinRadius(69.6492, 18.9553, 5_000, List.of(), now, now.plusDays(7), 50)))
+                .containsExactly(tomorrow);
+        assertThat(uuids(searchService.nearest(69.6492, 18.9553, 3,
+                List.of(LocatedContentType.SCHEDULED_INSTANCE), now.plusDays(2), null)))
+                .containsExactly(nextWeek);
+    }
+
+    @Test
+    void radiusSearchesAcrossTheAntimeridian() {
+        UUID east = insertLocation(LocatedContentType.MARKETPLACE_JOB, -16.5000, 179.9950, null, null);
+        UUID west = insertLocation(LocatedContentType.MARKETPLACE_JOB, -16.5000, -179.9950, null, null);
+
+        List<NearbyHitDTO> hits = searchService.withinRadius(-16.5000, 179.9990, 2_000,
+                List.of(LocatedContentType.MARKETPLACE_JOB), null, null, 10);
+
+        assertThat(uuids(hits)).containsExactly(east, west);
+        assertThat(uuids(searchService.nearest(-16.5000, -179.9999, 2,
+                List.of(LocatedContentType.MARKETPLACE_JOB), null, null)))
+                .containsExactly(west, east);
+    }
+
+    @Test
+    void rejectsInvalidCoordinatesRadiiAndLimits() {
+        assertThatThrownBy(() -> searchService.withinRadius(91, 0, 1_000, List.of(), null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.withinRadius(0, 0, 0, List.of(), null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.withinRadius(0, 0, 500_000, List.of(), null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.nearest(0, 181, 10, List.of(), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.nearest(0, 0, 1_000, List.of(), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rebuildRestoresLocationsWrittenOutsideTheApplication() {
+        Organisation organisation = new Organisation();
+        // Kampala and Entebbe, outside the area the brute-force check fills with points.
+        organisation.setName("Lakeside Academy");
+        organisation.setLatitude(new BigDecimal("0.3476"));
+        organisation.setLongitude(new BigDecimal("32.5825"));
+        organisation = organisationRepository.save(organisation);
+        jdbc.update("UPDATE organisation SET lat = 0.0512, long = 32.4637 WHERE uuid = ?", organisation.getUuid());
+        assertThat(uuids(searchService.withinRadius(0.0512, 32.4637, 1_000,
+                List.of(LocatedContentType.ORGANISATION), null, null, 10))).isEmpty();
+
+        indexer.rebuild(LocatedContentType.ORGANISATION);
+
+        assertThat(uuids(searchService.withinRadius(0.0512, 32.4637, 1_000,
+                List.of(LocatedContentType.ORGANISATION), null, null, 10))).containsExactly(organisation.getUuid());
+    }
+
+    @Test
+    void matchesABruteForceScan() {
+        // Spread across Kenya, dense enough that a 10 km radius usually holds a few points.
+        jdbc.update("""
+                INSERT INTO nearby_locations (content_type, content_uuid, title, latitude, longitude)
+                SELECT (ARRAY['CLASS_DEFINITION', 'MARKETPLACE_JOB', 'ORGANISATION', 'TRAINING_BRANCH', 'INSTRUCTOR'])[1 + n % 5],
+                       gen_random_uuid(), 'Point ' || n, -4.7 + random() * 9.7, 34.0 + random() * 8.0
+                FROM generate_series(1, 5000) AS n
+                """);
+        jdbc.execute("ANALYZE nearby_locations");
+
+        Random random = new Random(23);
+        for (int i = 0; i < 50; i++) {
+            double latitude = -4.7 + random.nextDouble() * 9.7;
+            double longitude = 34.0 + random.nextDouble() * 8.0;
+
+            List<UUID> radius = uuids(searchService.withinRadius(latitude, longitude, 10_000, List.of(), null, null, 200));
+            List<NearbyHitDTO> nearest = searchService.nearest(latitude, longitude, 10, List.of(), null, null);
+
+            assertThat(radius).isEqualTo(bruteForce(latitude, longitude, 10_000, 200));
+            assertThat(uuids(nearest)).isEqualTo(bruteForce(latitude, longitude, Double.MAX_VALUE, 10));
+            assertThat(nearest).isSortedAccordingTo((a, b) -> Double.compare(a.distanceMeters(), b.distanceMeters()));
+        }
+    }
+
+    @Test
+    void radiusAndNearestScansUseTheGistIndex() {
+        List<String> plans = new TransactionTemplate(transactionManager).execute(status -> {
+            // Forbid sequential scans so the plan does not depend on how many rows other tests left behind.
+            jdbc.execute("SET LOCAL enable_seqscan = off");
+            String radius = String.join("\n", jdbc.queryForList("""
+                    EXPLAIN SELECT content_uuid FROM nearby_locations
+                    WHERE position <@ box(point(36.7, -1.4), point(36.9, -1.2))
+                    """, String.class));
+            String nearest = String.join("\n", jdbc.queryForList("""
+                    EXPLAIN SELECT content_uuid FROM nearby_locations
+                    ORDER BY position <-> point(36.8219, -1.2921)
+                    LIMIT 10
+                    """, String.class));
+            return List.of(radius, nearest);
+        });
+
+        assertThat(plans).allSatisfy(plan -> assertThat(plan).contains("idx_nearby_locations_position"));
+    }
+
+    // ---------------------------------------------------------------- fixtures
+
+    private List<UUID> bruteForce(double latitude, double longitude, double radiusMeters, int limit) {
+        return jdbc.queryForList(BRUTE_FORCE_SQL, UUID.class, latitude, latitude, longitude, radiusMeters, limit);
+    }
+
+    private UUID insertLocation(LocatedContentType type, double latitude, double longitude,
+                                OffsetDateTime startsAt, OffsetDateTime endsAt) {
+        UUID uuid = UUID.randomUUID();
+        jdbc.update("INSERT INTO nearby_locations (content_type, content_uuid, title, latitude, longitude, starts_at, ends_at) "
+                        + "VALUES (?, ?, 'Fixture', ?, ?, ?, ?)",
+                type.name(), uuid, latitude, longitude, startsAt, endsAt);
+        return uuid;
+    }
+
+    private static List<UUID> uuids(List<NearbyHitDTO> hits) {
+        return hits.stream().map(NearbyHitDTO::contentUuid).toList();
+    }
+}
@@ -0,0 +1,189 @@
+package apps.sarafrika.elimika.shared.integration;
+
+import apps.sarafrika.elimika.shared.config.JpaConfig;
+import apps.sarafrika.elimika.shared.model.BaseEntity;
+import apps.sarafrika.elimika.timetabling.model.Enrollment;
+import apps.sarafrika.elimika.timetabling.model.ScheduledInstance;
+import apps.sarafrika.elimika.timetabling.repository.EnrollmentRepository;
+import apps.sarafrika.elimika.timetabling.repository.ScheduledInstanceRepository;
+import apps.sarafrika.elimika.timetabling.spi.EnrollmentStatus;
+import apps.sarafrika.elimika.timetabling.spi.SchedulingStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * BaseEntity ids come from each table's {@code <table>_id_seq} in pooled-lo blocks, so a bulk write
+ * is a handful of batched statements rather than one INSERT per row. The time this saves against
+ * IDENTITY is measured by {@code EntityIdAllocationBenchmark}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Pooled sequence ids for BaseEntity tables")
+class PooledEntityIdIntegrationTest {
+
+    private static final int INSTANCES = 200;
+    private static final int STUDENTS_PER_INSTANCE = 5;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @Autowired
+    private ScheduledInstanceRepository scheduledInstanceRepository;
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM class_enrollments");
+        jdbcTemplate.update("DELETE FROM scheduled_instance_seat_counters");
+        jdbcTemplate.update("DELETE FROM scheduled_instances");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void everyBaseEntityTableHasAPooledSequence() {
+        Set<String> tables = new HashSet<>();
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .forEachEntityDescriptor(descriptor -> {
+                    if (BaseEntity.class.isAssignableFrom(descriptor.getMappedClass())) {
+                        tables.add(((AbstractEntityPersister) descriptor).getTableName());
+                    }
+                });
+        Map<String, Long> increments = new TreeMap<>();
+        jdbcTemplate.query("SELECT sequencename, increment_by FROM pg_sequences WHERE schemaname = 'public'",
+                row -> {
+                    increments.put(row.getString("sequencename"), row.getLong("increment_by"));
+                });
+
+        assertThat(tables).isNotEmpty();
+        for (String table : tables) {
+            // Ledger entries take one id per row so the reconciliation watermark never steps over one.
+            long expected = table.equals("ledger_entries") ? 1L : 50L;
+            assertThat(increments).as(table).contains(entry(table + "_id_seq", expected));
+        }
+    }
+
+    @Test
+    void bulkSchedulingAndEnrolmentIsBatched() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<ScheduledInstance> instances = scheduledInstanceRepository.saveAll(instances(INSTANCES));
+            List<Enrollment> enrollments = new ArrayList<>();
+            for (ScheduledInstance instance : instances) {
+                for (int i = 0; i < STUDENTS_PER_INSTANCE; i++) {
+                    enrollments.add(enrollment(instance.getUuid()));
+                }
+            }
+            enrollmentRepository.saveAll(enrollments);
+        });
+
+        int rows = INSTANCES * (1 + STUDENTS_PER_INSTANCE);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(rows);
+        // One nextval per 50 ids and one INSERT per batch of 50; IDENTITY needed one statement per row.
+        assertThat(statements).isLessThan(rows / 10L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM class_enrollments", Integer.class))
+                .isEqualTo(INSTANCES * STUDENTS_PER_INSTANCE);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(seats_taken) FROM scheduled_instance_seat_counters", Integer.class))
+                .isEqualTo(INSTANCES * STUDENTS_PER_INSTANCE);
+    }
+
+    @Test
+    void rowsInsertedThroughTheColumnDefaultDoNotCollideWithPooledIds() {
+        List<ScheduledInstance> first = scheduledInstanceRepository.saveAll(instances(3));
+        jdbcTemplate.update("""
+                INSERT INTO scheduled_instances (class_definition_uuid, instructor_uuid, start_time, end_time,
+                                                 title, location_type, max_participants, created_by)
+                VALUES (gen_random_uuid(), gen_random_uuid(), NOW(), NOW() + INTERVAL '1 hour',
+                        'Inserted by SQL', 'ONLINE', 10, 'integration-test')
+                """);
+        List<ScheduledInstance> second = scheduledInstanceRepository.saveAll(instances(60));
+
+        Set<Long> ids = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM scheduled_instances", Long.class));
+        assertThat(ids).hasSize(first.size() + 1 + second.size());
+        assertThat(second).allSatisfy(instance -> assertThat(instance.getId()).isNotNull());
+    }
+
+    private static List<ScheduledInstance> instances(int count) {
+        UUID classDefinitionUuid = UUID.randomUUID();
+        UUID instructorUuid = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.of(2026, 11, 2, 8, 0);
+        List<ScheduledInstance> instances = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ScheduledInstance instance = new ScheduledInstance();
+            instance.setClassDefinitionUuid(classDefinitionUuid);
+            instance.setInstructorUuid(instructorUuid);
+            instance.setStartTime(start.plusHours(i));
+            instance.setEndTime(start.plusHours(i).plusMinutes(45));
+            instance.setTimezone("UTC");
+            instance.setTitle("Session " + i);
+            instance.setLocationType("ONLINE");
+            instance.setMaxParticipants(30);
+            instance.setStatus(SchedulingStatus.SCHEDULED);
+            instances.add(instance);
+        }
+        return instances;
+    }
+
+    private static Enrollment enrollment(UUID scheduledInstanceUuid) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setScheduledInstanceUuid(scheduledInstanceUuid);
+        enrollment.setStudentUuid(UUID.randomUUID());
+        enrollment.setStatus(EnrollmentStatus.ENROLLED);
+        return enrollment;
+    }
+}
@@ -0,0 +1,112 @@
+package apps.sarafrika.elimika.shared.internal;
+
+import apps.sarafrika.elimika.shared.spi.HoldExpiryHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HoldExpirySchedulerTest {
+
+    private static final String HOLD_TYPE = "booking";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FakeHandler handler;
+    private HoldExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new FakeHandler();
+        scheduler = new HoldExpiryScheduler(List.of(handler), meterRegistry, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void queuesADeadlineOnlyWhenItIsEarlierThanTheOneAlreadyQueued() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+
+        scheduler.schedule(HOLD_TYPE, now.plusMinutes(10));
+        scheduler.schedule(HOLD_TYPE, now.plusMinutes(20));
+        scheduler.schedule(HOLD_TYPE, now.plusMinutes(10));
+
+        assertThat(queued()).isEqualTo(1);
+
+        scheduler.schedule(HOLD_TYPE, now.plusMinutes(5));
+
+        assertThat(queued()).isEqualTo(2);
+        assertThat(scheduler.runNextDue()).isFalse();
+    }
+
+    @Test
+    void lapsesDueHoldsAndQueuesTheNextExpiry() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        handler.dueCount = 4;
+        handler.nextExpiry = now.plusMinutes(30);
+
+        scheduler.schedule(HOLD_TYPE, now.minusSeconds(1));
+
+        assertThat(scheduler.runNextDue()).isTrue();
+        assertThat(handler.cutoffs).singleElement().satisfies(cutoff -> assertThat(cutoff).isAfterOrEqualTo(now));
+        assertThat(meterRegistry.get("elimika.holds.expired").tag("type", HOLD_TYPE).counter().count()).isEqualTo(4);
+        assertThat(queued()).isEqualTo(1);
+        // The next hold is not due yet, so nothing else runs.
+        assertThat(scheduler.runNextDue()).isFalse();
+    }
+
+    @Test
+    void retriesATypeWhoseHandlerFailed() {
+        handler.failure = new IllegalStateException("database unavailable");
+
+        scheduler.schedule(HOLD_TYPE, LocalDateTime.now(ZoneOffset.UTC).minusSeconds(1));
+
+        assertThat(scheduler.runNextDue()).isTrue();
+        assertThat(queued()).isEqualTo(1);
+        assertThat(scheduler.runNextDue()).isFalse();
+    }
+
+    @Test
+    void ignoresDeadlinesOfUnregisteredHoldTypes() {
+        scheduler.schedule("unknown", LocalDateTime.now(ZoneOffset.UTC).minusSeconds(1));
+
+        assertThat(queued()).isZero();
+        assertThat(scheduler.runNextDue()).isFalse();
+    }
+
+    private double queued() {
+        return meterRegistry.get("elimika.holds.queued").gauge().value();
+    }
+
+    private static final class FakeHandler implements HoldExpiryHandler {
+
+        private final List<LocalDateTime> cutoffs = new ArrayList<>();
+        private int dueCount;
+        private LocalDateTime nextExpiry;
+        private RuntimeException failure;
+
+        @Override
+        public String holdType() {
+            return HOLD_TYPE;
+        }
+
+        @Override
+        public Optional<LocalDateTime> findNextExpiry() {
+            return Optional.ofNullable(nextExpiry);
+        }
+
+        @Override
+        public int expireHoldsDueBy(LocalDateTime cutoff) {
+            cutoffs.add(cutoff);
+            if (failure != null) {
+                throw failure;
+            }
+            return dueCount;
+        }
+    }
+}
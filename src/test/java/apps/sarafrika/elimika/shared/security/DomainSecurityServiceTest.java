@@ -1,6 +1,7 @@
 package apps.sarafrika.elimika.shared.security;
 
 import apps.sarafrika.elimika.instructor.spi.InstructorLookupService;
+import apps.sarafrika.elimika.shared.event.user.UserAuthorizationChangedEvent;
 import apps.sarafrika.elimika.shared.utils.enums.UserDomain;
 import apps.sarafrika.elimika.student.spi.StudentLookupService;
 import apps.sarafrika.elimika.tenancy.spi.UserLookupService;
@@ -19,9 +20,12 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -52,19 +56,21 @@ class DomainSecurityServiceTest {
     @Mock private StudentLookupService studentLookupService;
     @Mock private InstructorLookupService instructorLookupService;
 
+    private AuthorizationSnapshotCache snapshotCache;
     private DomainSecurityService service;
 
     @BeforeEach
     void setUp() {
         RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
 
-        service = new DomainSecurityService(
-                userLookupService, studentLookupService, instructorLookupService, new RequestScopedCache());
+        snapshotCache = new AuthorizationSnapshotCache(
+                userLookupService, studentLookupService, instructorLookupService, 100, Duration.ofMinutes(1));
+        service = new DomainSecurityService(new RequestScopedCache(), snapshotCache);
 
         authenticateAsJwtUser();
         when(userLookupService.findUserUuidByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(CALLER_UUID));
         when(userLookupService.getUserOrganizations(TARGET_UUID)).thenReturn(List.of(SHARED_ORG_UUID));
-        when(userLookupService.userBelongsToOrganizationWithDomain(any(), any(), any())).thenReturn(false);
+        when(userLookupService.getActiveOrganisationDomains(CALLER_UUID)).thenReturn(Map.of());
     }
 
     @AfterEach
@@ -75,16 +81,16 @@ class DomainSecurityServiceTest {
 
     @Test
     void anAdminOfAnOrganisationTheTargetBelongsToReachesThem() {
-        when(userLookupService.userBelongsToOrganizationWithDomain(CALLER_UUID, SHARED_ORG_UUID, UserDomain.admin))
-                .thenReturn(true);
+        when(userLookupService.getActiveOrganisationDomains(CALLER_UUID))
+                .thenReturn(Map.of(SHARED_ORG_UUID, Set.of(UserDomain.admin)));
 
         assertThat(service.administersOrganisationOf(TARGET_UUID)).isTrue();
     }
 
     @Test
     void anAdminOfSomeOtherOrganisationDoesNot() {
-        when(userLookupService.userBelongsToOrganizationWithDomain(CALLER_UUID, OTHER_ORG_UUID, UserDomain.admin))
-                .thenReturn(true);
+        when(userLookupService.getActiveOrganisationDomains(CALLER_UUID))
+                .thenReturn(Map.of(OTHER_ORG_UUID, Set.of(UserDomain.admin)));
 
         assertThat(service.administersOrganisationOf(TARGET_UUID)).isFalse();
     }
@@ -92,8 +98,8 @@ class DomainSecurityServiceTest {
     @Test
     void merelySharingAnOrganisationIsNotEnough() {
         // Membership without the admin domain in that organisation grants nothing.
-        when(userLookupService.userBelongsToOrganizationWithDomain(
-                CALLER_UUID, SHARED_ORG_UUID, UserDomain.organisation_user)).thenReturn(true);
+        when(userLookupService.getActiveOrganisationDomains(CALLER_UUID))
+                .thenReturn(Map.of(SHARED_ORG_UUID, Set.of(UserDomain.organisation_user)));
 
         assertThat(service.administersOrganisationOf(TARGET_UUID)).isFalse();
     }
@@ -129,8 +135,8 @@ class DomainSecurityServiceTest {
     @Test
     void theAnswerIsResolvedOncePerRequestPerTarget() {
         // A wallet credit asks once for the guard; anything else on the same request should be free.
-        when(userLookupService.userBelongsToOrganizationWithDomain(CALLER_UUID, SHARED_ORG_UUID, UserDomain.admin))
-                .thenReturn(true);
+        when(userLookupService.getActiveOrganisationDomains(CALLER_UUID))
+                .thenReturn(Map.of(SHARED_ORG_UUID, Set.of(UserDomain.admin)));
 
         assertThat(service.administersOrganisationOf(TARGET_UUID)).isTrue();
         assertThat(service.administersOrganisationOf(TARGET_UUID)).isTrue();
@@ -138,6 +144,34 @@ class DomainSecurityServiceTest {
         verify(userLookupService, times(1)).getUserOrganizations(TARGET_UUID);
     }
 
+    @Test
+    void theCallersSnapshotIsReusedAcrossRequests() {
+        when(userLookupService.getUserDomains(CALLER_UUID)).thenReturn(List.of(UserDomain.instructor));
+
+        assertThat(service.isInstructor()).isTrue();
+        startNewRequest();
+        assertThat(service.isInstructor()).isTrue();
+
+        verify(userLookupService, times(1)).findUserUuidByKeycloakId(KEYCLOAK_ID);
+        verify(userLookupService, times(1)).getUserDomains(CALLER_UUID);
+    }
+
+    @Test
+    void aRevokedDomainIsNotHonouredOnceItsChangeIsPublished() {
+        when(userLookupService.getUserDomains(CALLER_UUID)).thenReturn(List.of(UserDomain.admin));
+        assertThat(service.isPlatformAdmin()).isTrue();
+
+        when(userLookupService.getUserDomains(CALLER_UUID)).thenReturn(List.of());
+        snapshotCache.onAuthorizationChanged(new UserAuthorizationChangedEvent(CALLER_UUID));
+        startNewRequest();
+
+        assertThat(service.isPlatformAdmin()).isFalse();
+    }
+
+    private void startNewRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
     private void authenticateAsJwtUser() {
         Jwt jwt = Jwt.withTokenValue("token")
                 .header("alg", "none")
@@ -1,6 +1,7 @@
 package apps.sarafrika.elimika.shared.security;
 
 import apps.sarafrika.elimika.tenancy.spi.UserManagementService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,11 +16,22 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,11 +43,16 @@ class UserSyncFilterTest {
     @Mock
     private FilterChain filterChain;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SyncedUserCache syncedUserCache;
+
     private UserSyncFilter filter;
 
     @BeforeEach
     void setUp() {
-        filter = new UserSyncFilter(userManagementService);
+        syncedUserCache = new SyncedUserCache(100, Duration.ofMinutes(5), meterRegistry);
+        filter = new UserSyncFilter(userManagementService, syncedUserCache);
         ReflectionTestUtils.setField(filter, "realm", "elimika");
         SecurityContextHolder.clearContext();
     }
@@ -76,6 +93,73 @@ class UserSyncFilterTest {
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    void syncsEachSubjectOnceThenAnswersFromCache() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt(
+                "sarafika@example.com",
+                "user-123"
+        ), List.of()));
+
+        filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+        filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+        filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+
+        verify(userManagementService, times(1)).ensureUserExists("user-123", "elimika");
+        assertThat(meterRegistry.get("elimika.user.sync.cache").tag("result", "hit").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void retriesSyncAfterAFailureInsteadOfCachingIt() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt(
+                "sarafika@example.com",
+                "user-123"
+        ), List.of()));
+        doThrow(new IllegalStateException("keycloak down"))
+                .doNothing()
+                .when(userManagementService).ensureUserExists("user-123", "elimika");
+
+        filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+        filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+        filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+
+        verify(userManagementService, times(2)).ensureUserExists("user-123", "elimika");
+    }
+
+    @Test
+    void collapsesConcurrentFirstSyncsOfTheSameSubject() throws Exception {
+        CountDownLatch syncStarted = new CountDownLatch(1);
+        CountDownLatch releaseSync = new CountDownLatch(1);
+        AtomicInteger syncs = new AtomicInteger();
+        Runnable slowSync = () -> {
+            syncs.incrementAndGet();
+            syncStarted.countDown();
+            try {
+                releaseSync.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> callers = new ArrayList<>();
+            callers.add(executor.submit(() -> syncedUserCache.ensureSynced("user-456", slowSync)));
+            assertThat(syncStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                callers.add(executor.submit(() -> syncedUserCache.ensureSynced("user-456", slowSync)));
+            }
+            releaseSync.countDown();
+            for (Future<?> caller : callers) {
+                caller.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(syncs.get()).isEqualTo(1);
+    }
+
     private Jwt jwt(String preferredUsername, String subject) {
         Instant now = Instant.now();
         return Jwt.withTokenValue("token")
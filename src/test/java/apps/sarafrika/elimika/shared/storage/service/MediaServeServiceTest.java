@@ -0,0 +1,204 @@
+package apps.sarafrika.elimika.shared.storage.service;
+
+import apps.sarafrika.elimika.shared.storage.config.StorageProperties;
+import apps.sarafrika.elimika.shared.storage.model.MediaFile;
+import apps.sarafrika.elimika.shared.storage.repository.MediaFileRepository;
+import apps.sarafrika.elimika.shared.storage.service.impl.FileSystemStorageServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MediaServeServiceTest {
+
+    private static final String KEY = "course_materials/lesson.mp4";
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    @TempDir
+    Path tempDir;
+
+    private StorageService storageService;
+    private MediaFileRepository mediaFileRepository;
+    private MediaServeService service;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StorageProperties properties = new StorageProperties();
+        properties.setLocation(tempDir.toString());
+        storageService = spy(new FileSystemStorageServiceImpl(properties));
+        mediaFileRepository = Mockito.mock(MediaFileRepository.class);
+        service = new MediaServeService(storageService, mediaFileRepository);
+
+        Files.createDirectories(tempDir.resolve("course_materials"));
+        Files.writeString(tempDir.resolve(KEY), CONTENT);
+
+        request = new MockHttpServletRequest("GET", "/api/v1/files/" + KEY);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void servesWholeFileWithValidators() throws IOException {
+        ResponseEntity<Resource> response = service.serve(KEY);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).startsWith("\"").endsWith("-24\"");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeaders().getLastModified()).isPositive();
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION))
+                .isEqualTo("inline; filename=\"lesson.mp4\"");
+        assertThat(response.getBody().contentLength()).isEqualTo(CONTENT.length());
+        assertThat(body(response)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void answersNotModifiedForMatchingEntityTag() {
+        String etag = service.serve(KEY).getHeaders().getETag();
+
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag);
+        ResponseEntity<Resource> response = service.serve(KEY);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void answersNotModifiedForUnchangedSinceDate() {
+        long lastModified = service.serve(KEY).getHeaders().getLastModified();
+
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+
+        assertThat(service.serve(KEY).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void servesSingleRange() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-15");
+
+        ResponseEntity<Resource> response = service.serve(KEY);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-15/36");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(6);
+        assertThat(body(response)).isEqualTo("abcdef");
+    }
+
+    @Test
+    void servesSuffixRange() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=-4");
+
+        ResponseEntity<Resource> response = service.serve(KEY);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 32-35/36");
+        assertThat(body(response)).isEqualTo("wxyz");
+    }
+
+    @Test
+    void servesSeveralRangesAsMultipart() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=30-31,0-1,1-2");
+
+        ResponseEntity<Resource> response = service.serve(KEY);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        MediaType contentType = response.getHeaders().getContentType();
+        assertThat(contentType.toString()).startsWith("multipart/byteranges");
+        String boundary = contentType.getParameter("boundary");
+        String body = body(response);
+        assertThat(body.getBytes(StandardCharsets.ISO_8859_1)).hasSize((int) response.getHeaders().getContentLength());
+        assertThat(body).isEqualTo(
+                "\r\n--" + boundary + "\r\nContent-Type: video/mp4\r\nContent-Range: bytes 0-2/36\r\n\r\n012"
+                        + "\r\n--" + boundary + "\r\nContent-Type: video/mp4\r\nContent-Range: bytes 30-31/36\r\n\r\nuv"
+                        + "\r\n--" + boundary + "--\r\n");
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() {
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-200");
+
+        ResponseEntity<Resource> response = service.serve(KEY);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */36");
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeNoLongerMatches() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        ResponseEntity<Resource> response = service.serve(KEY);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isExactlyInstanceOf(InputStreamResource.class);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(CONTENT.length());
+        assertThat(body(response)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void takesMetadataFromRegistryAndCachesIt() {
+        MediaFile registered = MediaFile.builder()
+                .fileKey(KEY)
+                .sizeBytes((long) CONTENT.length())
+                .mimeType("video/mp4")
+                .ownerType("LESSON")
+                .build();
+        registered.setCreatedDate(LocalDateTime.of(2026, 1, 1, 0, 0));
+        when(mediaFileRepository.findByFileKey(KEY)).thenReturn(Optional.of(registered));
+
+        service.serve(KEY);
+        ResponseEntity<Resource> response = service.serve(KEY);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("video/mp4"));
+        verify(storageService, never()).getContentType(anyString());
+        verify(storageService, never()).exists(anyString());
+        verify(mediaFileRepository, Mockito.times(1)).findByFileKey(KEY);
+    }
+
+    @Test
+    void fallsBackWhenPrimaryKeyIsMissing() {
+        ResponseEntity<Resource> response = service.serve("course_materials/missing.mp4", KEY);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(service.serve("course_materials/missing.mp4").getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private static String body(ResponseEntity<Resource> response) throws IOException {
+        try (InputStream in = response.getBody().getInputStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toString(StandardCharsets.ISO_8859_1);
+        }
+    }
+}
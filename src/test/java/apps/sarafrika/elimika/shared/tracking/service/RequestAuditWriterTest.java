@@ -0,0 +1,91 @@
+package apps.sarafrika.elimika.shared.tracking.service;
+
+import apps.sarafrika.elimika.shared.tracking.model.RequestAuditOverflowPolicy;
+import apps.sarafrika.elimika.shared.tracking.model.RequestAuditRecord;
+import apps.sarafrika.elimika.shared.tracking.model.RequestUserMetadata;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The audit pipeline has two promises: the request thread never waits on the database, and the
+ * writer turns a batch into one statement with one profile lookup per subject.
+ */
+@ExtendWith(MockitoExtension.class)
+class RequestAuditWriterTest {
+
+    @Mock private RequestUserMetadataResolver userMetadataResolver;
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void dropsAndCountsWhenBufferIsFull() {
+        RequestAuditBuffer buffer = new RequestAuditBuffer(2, RequestAuditOverflowPolicy.DROP, Duration.ZERO, meterRegistry);
+
+        assertThat(buffer.offer(auditRecord("a", null))).isTrue();
+        assertThat(buffer.offer(auditRecord("b", null))).isTrue();
+        assertThat(buffer.offer(auditRecord("c", null))).isFalse();
+
+        assertThat(buffer.depth()).isEqualTo(2);
+        assertThat(buffer.droppedCount()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("elimika.request.audit.queue.depth").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void writesBatchAsSingleMultiRowInsertResolvingEachSubjectOnce() throws Exception {
+        RequestAuditBuffer buffer = new RequestAuditBuffer(10, RequestAuditOverflowPolicy.DROP, Duration.ZERO, meterRegistry);
+        RequestAuditWriter writer = new RequestAuditWriter(
+                buffer, userMetadataResolver, jdbcTemplate, meterRegistry, 10, Duration.ofMillis(10));
+        UUID userUuid = UUID.randomUUID();
+        when(userMetadataResolver.resolve("subject-1", "alice")).thenReturn(new RequestUserMetadata(
+                userUuid, "alice@example.com", "Alice", "subject-1", List.of("student"), "alice"));
+
+        buffer.offer(auditRecord("r1", "subject-1"));
+        buffer.offer(auditRecord("r2", "subject-1"));
+        buffer.offer(auditRecord("r3", null));
+
+        List<RequestAuditRecord> batch = new ArrayList<>();
+        buffer.drainTo(batch, 10, Duration.ZERO);
+        writer.flush(batch);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> parameters = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).update(sql.capture(), parameters.capture());
+        verify(userMetadataResolver, times(1)).resolve(anyString(), any());
+
+        assertThat(sql.getValue()).startsWith("INSERT INTO request_audit_log");
+        assertThat(sql.getValue().split("\\(\\?").length - 1).isEqualTo(3);
+        assertThat(parameters.getValue()).hasSize(60).contains(userUuid, "alice@example.com", "student");
+        assertThat(meterRegistry.get("elimika.request.audit.flush").timer().count()).isEqualTo(1);
+    }
+
+    private RequestAuditRecord auditRecord(String requestId, String keycloakId) {
+        return new RequestAuditRecord(requestId, "GET", "/api/v1/courses", null, "127.0.0.1", "localhost",
+                "JUnit", null, null, "{}", 200, 5L, keycloakId == null ? null : "alice", keycloakId,
+                LocalDateTime.now());
+    }
+}
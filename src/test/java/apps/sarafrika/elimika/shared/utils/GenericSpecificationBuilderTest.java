@@ -14,10 +14,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -63,9 +66,49 @@ class GenericSpecificationBuilderTest {
         verify(criteriaBuilder).equal(path, true);
     }
 
+    @Test
+    void buildSpecificationConvertsListValuesToTheFieldType() {
+        Specification<TestEntity> specification =
+                builder.buildSpecification(TestEntity.class, Map.of("class_limit_in", "10, 20"));
+
+        when(root.get("classLimit")).thenReturn(path);
+        when(path.getJavaType()).thenAnswer(invocation -> Integer.class);
+        when(path.in(List.of(10, 20))).thenReturn(predicate);
+
+        specification.toPredicate(root, criteriaQuery, criteriaBuilder);
+
+        verify(path).in(List.of(10, 20));
+    }
+
+    @Test
+    void buildSpecificationRejectsInvalidValuesBeforeQuerying() {
+        assertThatThrownBy(() -> builder.buildSpecification(TestEntity.class, Map.of("class_limit_gte", "ten")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid value for field type");
+
+        assertThatThrownBy(() -> builder.buildSpecification(TestEntity.class, Map.of("class_limit_between", "10")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Expected format: 'startValue,endValue'");
+    }
+
+    @Test
+    void onlyPlansOverEntityFieldsAreCached() {
+        for (int i = 0; i < 100; i++) {
+            builder.buildSpecification(TestEntity.class, Map.of("junk_" + i, "x", "class_limit_gte", "10"));
+        }
+        builder.buildSpecification(TestEntity.class, Map.of("class_limit_gte", "10", "admin_verified", "true"));
+        builder.buildSpecification(TestEntity.class, Map.of("admin_verified", "false", "class_limit_gte", "20"));
+
+        Map<?, ?> planCache = (Map<?, ?>) ReflectionTestUtils.getField(builder, "planCache");
+        assertThat(planCache).hasSize(1);
+    }
+
     @Entity
     private static class TestEntity extends BaseEntity {
         @Column(name = "admin_verified")
         private Boolean adminVerified;
+
+        @Column(name = "class_limit")
+        private Integer classLimit;
     }
 }
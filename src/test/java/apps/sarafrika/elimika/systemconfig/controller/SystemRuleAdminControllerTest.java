@@ -1,5 +1,6 @@
 package apps.sarafrika.elimika.systemconfig.controller;
 
+import apps.sarafrika.elimika.shared.security.SyncedUserCache;
 import apps.sarafrika.elimika.systemconfig.dto.SystemRuleRequest;
 import apps.sarafrika.elimika.systemconfig.dto.SystemRuleResponse;
 import apps.sarafrika.elimika.systemconfig.enums.RuleCategory;
@@ -131,6 +132,11 @@ class SystemRuleAdminControllerTest {
             return Mockito.mock(UserManagementService.class);
         }
 
+        @Bean
+        SyncedUserCache syncedUserCache() {
+            return Mockito.mock(SyncedUserCache.class);
+        }
+
         @Bean
         RequestAuditService requestAuditService() {
             return Mockito.mock(RequestAuditService.class);
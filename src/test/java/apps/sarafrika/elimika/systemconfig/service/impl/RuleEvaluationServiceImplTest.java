@@ -0,0 +1,125 @@
+package apps.sarafrika.elimika.systemconfig.service.impl;
+
+import apps.sarafrika.elimika.systemconfig.dto.AgeGateDecision;
+import apps.sarafrika.elimika.systemconfig.dto.RuleContext;
+import apps.sarafrika.elimika.systemconfig.enums.RuleCategory;
+import apps.sarafrika.elimika.systemconfig.enums.RuleScope;
+import apps.sarafrika.elimika.systemconfig.enums.RuleStatus;
+import apps.sarafrika.elimika.systemconfig.model.SystemRule;
+import apps.sarafrika.elimika.systemconfig.repository.SystemRuleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RuleEvaluationServiceImplTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2026, 10, 17, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Mock
+    private SystemRuleRepository systemRuleRepository;
+
+    private SystemRuleSnapshotCache ruleSnapshotCache;
+    private RuleEvaluationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        ruleSnapshotCache = new SystemRuleSnapshotCache(systemRuleRepository, OBJECT_MAPPER, Duration.ofMinutes(5));
+        service = new RuleEvaluationServiceImpl(ruleSnapshotCache);
+    }
+
+    @Test
+    void compilesACategoryOnceAndRecompilesOnlyAfterInvalidation() throws Exception {
+        when(systemRuleRepository.findByCategoryAndStatusOrderByPriorityDescEffectiveFromDesc(RuleCategory.PLATFORM_FEE, RuleStatus.ACTIVE))
+                .thenReturn(List.of(feeRule("platform.fee", RuleScope.GLOBAL, null, 0, "5.00")))
+                .thenReturn(List.of(feeRule("platform.fee", RuleScope.GLOBAL, null, 0, "7.50")));
+        RuleContext context = RuleContext.builder().evaluationInstant(NOW).build();
+
+        assertThat(service.resolvePlatformFee(context))
+                .hasValueSatisfying(fee -> assertThat(fee.amount()).isEqualByComparingTo("5.00"));
+        assertThat(service.resolvePlatformFee(context))
+                .hasValueSatisfying(fee -> assertThat(fee.amount()).isEqualByComparingTo("5.00"));
+
+        ruleSnapshotCache.invalidate(RuleCategory.PLATFORM_FEE);
+
+        assertThat(service.resolvePlatformFee(context))
+                .hasValueSatisfying(fee -> assertThat(fee.amount()).isEqualByComparingTo("7.50"));
+        verify(systemRuleRepository, times(2))
+                .findByCategoryAndStatusOrderByPriorityDescEffectiveFromDesc(RuleCategory.PLATFORM_FEE, RuleStatus.ACTIVE);
+    }
+
+    @Test
+    void prefersTheMostSpecificMatchingScopeAndFallsBackFromAnUnknownKey() throws Exception {
+        when(systemRuleRepository.findByCategoryAndStatusOrderByPriorityDescEffectiveFromDesc(RuleCategory.PLATFORM_FEE, RuleStatus.ACTIVE))
+                .thenReturn(List.of(
+                        feeRule("platform.fee", RuleScope.GLOBAL, null, 0, "5.00"),
+                        feeRule("platform.fee", RuleScope.REGION, " KE ", 0, "3.00"),
+                        feeRule("platform.fee", RuleScope.TENANT, "other-tenant", 0, "1.00")));
+
+        RuleContext kenya = RuleContext.builder().ruleKey("unknown.key").regionCode("ke").evaluationInstant(NOW).build();
+        RuleContext uganda = RuleContext.builder().regionCode("UG").evaluationInstant(NOW).build();
+
+        assertThat(service.resolvePlatformFeeMatch(kenya))
+                .hasValueSatisfying(match -> assertThat(match.payload().amount()).isEqualByComparingTo("3.00"));
+        assertThat(service.resolvePlatformFee(uganda))
+                .hasValueSatisfying(fee -> assertThat(fee.amount()).isEqualByComparingTo("5.00"));
+    }
+
+    @Test
+    void evaluatesAgeGateAgainstNormalisedRegionsAndDemographics() throws Exception {
+        SystemRule gate = rule(RuleCategory.AGE_GATE, "student.onboarding.age_gate", RuleScope.GLOBAL, null, 0, """
+                {"minAge":5,"maxAge":18,"allowedRegions":[" KE ","UG"],"blockedDemographics":["Adult-Learner"]}
+                """);
+        when(systemRuleRepository.findByCategoryAndStatusOrderByPriorityDescEffectiveFromDesc(RuleCategory.AGE_GATE, RuleStatus.ACTIVE))
+                .thenReturn(List.of(gate));
+        LocalDate tenYearsOld = NOW.toLocalDate().minusYears(10);
+
+        AgeGateDecision allowed = service.evaluateAgeGate(tenYearsOld,
+                RuleContext.builder().regionCode("ke").evaluationInstant(NOW).build());
+        AgeGateDecision wrongRegion = service.evaluateAgeGate(tenYearsOld,
+                RuleContext.builder().regionCode("TZ").evaluationInstant(NOW).build());
+        AgeGateDecision blockedTag = service.evaluateAgeGate(tenYearsOld,
+                RuleContext.builder().regionCode("UG").demographicTags(Set.of(" adult-learner")).evaluationInstant(NOW).build());
+
+        assertThat(allowed).isEqualTo(AgeGateDecision.allow());
+        assertThat(wrongRegion).isEqualTo(AgeGateDecision.rejected("Region not permitted for onboarding"));
+        assertThat(blockedTag).isEqualTo(AgeGateDecision.rejected("Student demographic currently blocked for onboarding"));
+    }
+
+    private static SystemRule feeRule(String key, RuleScope scope, String reference, int priority, String amount) throws Exception {
+        return rule(RuleCategory.PLATFORM_FEE, key, scope, reference, priority,
+                "{\"mode\":\"FLAT\",\"amount\":" + amount + ",\"currency\":\"KES\"}");
+    }
+
+    private static SystemRule rule(RuleCategory category, String key, RuleScope scope, String reference,
+                                   int priority, String payload) throws Exception {
+        SystemRule rule = new SystemRule();
+        rule.setUuid(UUID.randomUUID());
+        rule.setCategory(category);
+        rule.setKey(key);
+        rule.setScope(scope);
+        rule.setScopeReference(reference);
+        rule.setPriority(priority);
+        rule.setStatus(RuleStatus.ACTIVE);
+        rule.setPayload(OBJECT_MAPPER.readTree(payload));
+        rule.setEffectiveFrom(NOW.minusDays(1));
+        return rule;
+    }
+}
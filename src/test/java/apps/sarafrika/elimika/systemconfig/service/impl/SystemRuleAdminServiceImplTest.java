@@ -33,6 +33,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +44,9 @@ class SystemRuleAdminServiceImplTest {
     @Mock
     private SystemRuleRepository systemRuleRepository;
 
+    @Mock
+    private SystemRuleSnapshotCache ruleSnapshotCache;
+
     @InjectMocks
     private SystemRuleAdminServiceImpl systemRuleAdminService;
 
@@ -87,6 +91,7 @@ class SystemRuleAdminServiceImplTest {
         assertThat(response.scope()).isEqualTo(RuleScope.GLOBAL);
         assertThat(response.status()).isEqualTo(RuleStatus.ACTIVE);
         assertThat(response.valuePayload()).isEqualTo(payload);
+        verify(ruleSnapshotCache).invalidate(RuleCategory.AGE_GATE);
     }
 
     @Test
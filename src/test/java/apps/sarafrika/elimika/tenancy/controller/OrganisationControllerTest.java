@@ -1,5 +1,6 @@
 package apps.sarafrika.elimika.tenancy.controller;
 
+import apps.sarafrika.elimika.shared.security.SyncedUserCache;
 import apps.sarafrika.elimika.shared.tracking.service.RequestAuditService;
 import apps.sarafrika.elimika.tenancy.dto.OrganisationDTO;
 import apps.sarafrika.elimika.tenancy.dto.TrainingBranchDTO;
@@ -152,6 +153,11 @@ class OrganisationControllerTest {
             return Mockito.mock(UserManagementService.class);
         }
 
+        @Bean
+        SyncedUserCache syncedUserCache() {
+            return Mockito.mock(SyncedUserCache.class);
+        }
+
         @Bean
         RequestAuditService requestAuditService() {
             return Mockito.mock(RequestAuditService.class);
@@ -0,0 +1,141 @@
+package apps.sarafrika.elimika.tenancy.services.impl;
+
+import apps.sarafrika.elimika.authentication.spi.KeycloakAdminEventService;
+import apps.sarafrika.elimika.shared.spi.analytics.CommerceAnalyticsService;
+import apps.sarafrika.elimika.shared.spi.analytics.CourseAnalyticsService;
+import apps.sarafrika.elimika.shared.spi.analytics.CourseAnalyticsSnapshot;
+import apps.sarafrika.elimika.shared.spi.analytics.CourseCreatorAnalyticsService;
+import apps.sarafrika.elimika.shared.spi.analytics.InstructorAnalyticsService;
+import apps.sarafrika.elimika.shared.spi.analytics.NotificationAnalyticsService;
+import apps.sarafrika.elimika.shared.spi.analytics.TimetablingAnalyticsService;
+import apps.sarafrika.elimika.tenancy.repository.OrganisationRepository;
+import apps.sarafrika.elimika.tenancy.repository.UserDomainMappingRepository;
+import apps.sarafrika.elimika.tenancy.repository.UserDomainRepository;
+import apps.sarafrika.elimika.tenancy.repository.UserOrganisationDomainMappingRepository;
+import apps.sarafrika.elimika.tenancy.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdminDashboardSnapshotServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OrganisationRepository organisationRepository;
+
+    @Mock
+    private UserDomainRepository userDomainRepository;
+
+    @Mock
+    private UserDomainMappingRepository userDomainMappingRepository;
+
+    @Mock
+    private UserOrganisationDomainMappingRepository userOrganisationDomainMappingRepository;
+
+    @Mock
+    private CourseAnalyticsService courseAnalyticsService;
+
+    @Mock
+    private TimetablingAnalyticsService timetablingAnalyticsService;
+
+    @Mock
+    private CommerceAnalyticsService commerceAnalyticsService;
+
+    @Mock
+    private NotificationAnalyticsService notificationAnalyticsService;
+
+    @Mock
+    private InstructorAnalyticsService instructorAnalyticsService;
+
+    @Mock
+    private CourseCreatorAnalyticsService courseCreatorAnalyticsService;
+
+    @Mock
+    private KeycloakAdminEventService keycloakAdminEventService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void servesTheCapturedSnapshotWhileItIsFresh() {
+        stubTenancyCounts();
+        CourseAnalyticsSnapshot courses = mock(CourseAnalyticsSnapshot.class);
+        when(courseAnalyticsService.captureSnapshot()).thenReturn(courses);
+        AdminDashboardSnapshotService service = service(Duration.ofMinutes(5));
+
+        AdminDashboardSnapshotService.AdminDashboardSnapshot first = service.current();
+        AdminDashboardSnapshotService.AdminDashboardSnapshot second = service.current();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.courses()).isSameAs(courses);
+        assertThat(first.tenancy().totalUsers()).isEqualTo(12);
+        verify(courseAnalyticsService, times(1)).captureSnapshot();
+        verify(transactionManager, times(7)).getTransaction(any());
+    }
+
+    @Test
+    void servesAStaleSnapshotWhileRecapturingInTheBackground() {
+        stubTenancyCounts();
+        AdminDashboardSnapshotService service = service(Duration.ZERO);
+
+        AdminDashboardSnapshotService.AdminDashboardSnapshot first = service.current();
+        AdminDashboardSnapshotService.AdminDashboardSnapshot stale = service.current();
+
+        assertThat(stale).isSameAs(first);
+        verify(courseAnalyticsService, timeout(5_000).times(2)).captureSnapshot();
+    }
+
+    @Test
+    void propagatesTheFailureWhenNoSnapshotHasBeenCapturedYet() {
+        stubTenancyCounts();
+        when(commerceAnalyticsService.captureSnapshot()).thenThrow(new IllegalStateException("database down"));
+        AdminDashboardSnapshotService service = service(Duration.ofMinutes(5));
+
+        assertThatThrownBy(service::current)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("database down");
+    }
+
+    private void stubTenancyCounts() {
+        UserRepository.DashboardCounts users = mock(UserRepository.DashboardCounts.class);
+        when(users.getTotal()).thenReturn(12L);
+        when(userRepository.countForDashboard(any(), any())).thenReturn(users);
+        when(organisationRepository.countForDashboard()).thenReturn(mock(OrganisationRepository.DashboardCounts.class));
+        when(userDomainRepository.findByDomainName("admin")).thenReturn(Optional.empty());
+    }
+
+    private AdminDashboardSnapshotService service(Duration freshness) {
+        return new AdminDashboardSnapshotService(
+                userRepository,
+                organisationRepository,
+                userDomainRepository,
+                userDomainMappingRepository,
+                userOrganisationDomainMappingRepository,
+                courseAnalyticsService,
+                timetablingAnalyticsService,
+                commerceAnalyticsService,
+                notificationAnalyticsService,
+                instructorAnalyticsService,
+                courseCreatorAnalyticsService,
+                keycloakAdminEventService,
+                transactionManager,
+                freshness);
+    }
+}
@@ -1,16 +1,9 @@
 package apps.sarafrika.elimika.tenancy.services.impl;
 
-import apps.sarafrika.elimika.authentication.spi.KeycloakAdminEventService;
 import apps.sarafrika.elimika.authentication.spi.KeycloakUserService;
 import apps.sarafrika.elimika.coursecreator.spi.CourseCreatorLookupService;
 import apps.sarafrika.elimika.instructor.spi.InstructorLookupService;
 import apps.sarafrika.elimika.instructor.spi.InstructorManagementService;
-import apps.sarafrika.elimika.shared.spi.analytics.CommerceAnalyticsService;
-import apps.sarafrika.elimika.shared.spi.analytics.CourseAnalyticsService;
-import apps.sarafrika.elimika.shared.spi.analytics.CourseCreatorAnalyticsService;
-import apps.sarafrika.elimika.shared.spi.analytics.InstructorAnalyticsService;
-import apps.sarafrika.elimika.shared.spi.analytics.NotificationAnalyticsService;
-import apps.sarafrika.elimika.shared.spi.analytics.TimetablingAnalyticsService;
 import apps.sarafrika.elimika.shared.tracking.entity.RequestAuditLog;
 import apps.sarafrika.elimika.shared.tracking.repository.RequestAuditLogRepository;
 import apps.sarafrika.elimika.tenancy.entity.User;
@@ -77,25 +70,7 @@ class AdminServiceImplTest {
     private CourseCreatorLookupService courseCreatorLookupService;
 
     @Mock
-    private CourseAnalyticsService courseAnalyticsService;
-
-    @Mock
-    private TimetablingAnalyticsService timetablingAnalyticsService;
-
-    @Mock
-    private CommerceAnalyticsService commerceAnalyticsService;
-
-    @Mock
-    private NotificationAnalyticsService notificationAnalyticsService;
-
-    @Mock
-    private InstructorAnalyticsService instructorAnalyticsService;
-
-    @Mock
-    private CourseCreatorAnalyticsService courseCreatorAnalyticsService;
-
-    @Mock
-    private KeycloakAdminEventService keycloakAdminEventService;
+    private AdminDashboardSnapshotService adminDashboardSnapshotService;
 
     @Mock
     private RequestAuditLogRepository requestAuditLogRepository;
@@ -0,0 +1,207 @@
+package apps.sarafrika.elimika.timetabling.integration;
+
+import apps.sarafrika.elimika.availability.spi.AvailabilityService;
+import apps.sarafrika.elimika.commerce.spi.paywall.CommercePaywallService;
+import apps.sarafrika.elimika.course.spi.CourseInfoService;
+import apps.sarafrika.elimika.course.spi.LearnerProgressLookupService;
+import apps.sarafrika.elimika.instructor.spi.InstructorLookupService;
+import apps.sarafrika.elimika.resourcing.spi.ResourceBookingService;
+import apps.sarafrika.elimika.shared.config.JpaConfig;
+import apps.sarafrika.elimika.shared.service.AgeVerificationService;
+import apps.sarafrika.elimika.shared.spi.ClassDefinitionLookupService;
+import apps.sarafrika.elimika.shared.utils.GenericSpecificationBuilder;
+import apps.sarafrika.elimika.student.spi.StudentLookupService;
+import apps.sarafrika.elimika.tenancy.spi.UserLookupService;
+import apps.sarafrika.elimika.timetabling.internal.SeatHoldExpiryHandler;
+import apps.sarafrika.elimika.timetabling.model.ScheduledInstance;
+import apps.sarafrika.elimika.timetabling.repository.ScheduledInstanceRepository;
+import apps.sarafrika.elimika.timetabling.service.impl.TimetableServiceImpl;
+import apps.sarafrika.elimika.timetabling.spi.ConflictDetectorImpl;
+import apps.sarafrika.elimika.timetabling.spi.EnrollmentDTO;
+import apps.sarafrika.elimika.timetabling.spi.EnrollmentRequestDTO;
+import apps.sarafrika.elimika.timetabling.spi.EnrollmentStatus;
+import apps.sarafrika.elimika.timetabling.spi.SchedulingStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * A class seat held at checkout lapses once its {@code reserved_until} passes, but the payment behind
+ * it can still be captured afterwards - M-Pesa reconciliation polls with backoff. The late purchase
+ * must still enrol the buyer, taking the seat again through the counters, rather than being refused
+ * as a duplicate of the lapsed hold.
+ * <p>
+ * Every call commits for real (no ambient test transaction) so the seat-counter trigger runs as it
+ * does in production.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Import({
+        JpaConfig.class,
+        TimetableServiceImpl.class,
+        SeatHoldExpiryHandler.class,
+        ConflictDetectorImpl.class,
+        GenericSpecificationBuilder.class,
+        SeatHoldLapseIntegrationTest.TestConfig.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Late payment after a lapsed seat hold")
+class SeatHoldLapseIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    // The seat allocator is package-private to the service implementation, so it is scanned in by name.
+    @ComponentScan(
+            basePackageClasses = TimetableServiceImpl.class,
+            useDefaultFilters = false,
+            includeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = ".*\\.SeatAllocator")
+    )
+    static class TestConfig {
+    }
+
+    @Autowired
+    private TimetableServiceImpl timetableService;
+    @Autowired
+    private SeatHoldExpiryHandler seatHoldExpiryHandler;
+    @Autowired
+    private ScheduledInstanceRepository scheduledInstanceRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @MockitoBean
+    private ClassDefinitionLookupService classDefinitionLookupService;
+    @MockitoBean
+    private CourseInfoService courseInfoService;
+    @MockitoBean
+    private LearnerProgressLookupService learnerProgressLookupService;
+    @MockitoBean
+    private AgeVerificationService ageVerificationService;
+    @MockitoBean
+    private CommercePaywallService commercePaywallService;
+    @MockitoBean
+    private StudentLookupService studentLookupService;
+    @MockitoBean
+    private UserLookupService userLookupService;
+    @MockitoBean
+    private InstructorLookupService instructorLookupService;
+    @MockitoBean
+    private ResourceBookingService resourceBookingService;
+    @MockitoBean
+    private AvailabilityService availabilityService;
+
+    private UUID classDefinitionUuid;
+    private UUID instanceUuid;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM class_enrollments");
+        jdbc.update("DELETE FROM scheduled_instance_seat_counters");
+        jdbc.update("DELETE FROM scheduled_instances");
+
+        classDefinitionUuid = UUID.randomUUID();
+        // No course behind the class, so the approval and age checks have nothing to enforce.
+        when(classDefinitionLookupService.findByUuid(any())).thenReturn(Optional.of(
+                new ClassDefinitionLookupService.ClassDefinitionSnapshot(
+                        classDefinitionUuid, null, null, "Evening Python", null, null, null, null,
+                        null, null, 1, Boolean.TRUE, null)));
+
+        ScheduledInstance instance = new ScheduledInstance();
+        instance.setClassDefinitionUuid(classDefinitionUuid);
+        instance.setInstructorUuid(UUID.randomUUID());
+        instance.setStartTime(LocalDateTime.of(2026, 11, 2, 18, 0));
+        instance.setEndTime(LocalDateTime.of(2026, 11, 2, 19, 30));
+        instance.setTimezone("UTC");
+        instance.setTitle("Evening Python");
+        instance.setLocationType("ONLINE");
+        instance.setMaxParticipants(1);
+        instance.setStatus(SchedulingStatus.SCHEDULED);
+        instanceUuid = scheduledInstanceRepository.save(instance).getUuid();
+    }
+
+    @Test
+    void paymentCapturedAfterTheHoldLapsedStillEnrolsTheBuyer() {
+        UUID buyer = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(timetableService.reserveSeatsForClass(classDefinitionUuid, buyer, now.minusMinutes(1))).isTrue();
+        assertThat(seatsTaken()).isEqualTo(1);
+
+        assertThat(seatHoldExpiryHandler.expireHoldsDueBy(now)).isEqualTo(1);
+        assertThat(enrollmentStatus(buyer)).isEqualTo(EnrollmentStatus.CANCELLED.getValue());
+        assertThat(seatsTaken()).isZero();
+
+        List<EnrollmentDTO> enrolled = timetableService.enrollStudent(
+                new EnrollmentRequestDTO(classDefinitionUuid, buyer));
+
+        assertThat(enrolled).hasSize(1);
+        assertThat(enrollmentStatus(buyer)).isEqualTo(EnrollmentStatus.ENROLLED.getValue());
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM class_enrollments WHERE student_uuid = ?", Integer.class, buyer))
+                .isEqualTo(1);
+        assertThat(seatsTaken()).isEqualTo(1);
+    }
+
+    @Test
+    void lateBuyerCannotTakeASeatThatWasResoldAfterTheirHoldLapsed() {
+        UUID lateBuyer = UUID.randomUUID();
+        UUID nextBuyer = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        timetableService.reserveSeatsForClass(classDefinitionUuid, lateBuyer, now.minusMinutes(1));
+        seatHoldExpiryHandler.expireHoldsDueBy(now);
+        assertThat(timetableService.reserveSeatsForClass(classDefinitionUuid, nextBuyer, now.plusMinutes(15))).isTrue();
+
+        assertThatThrownBy(() -> timetableService.enrollStudent(new EnrollmentRequestDTO(classDefinitionUuid, lateBuyer)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maximum capacity");
+        assertThat(enrollmentStatus(lateBuyer)).isEqualTo(EnrollmentStatus.CANCELLED.getValue());
+        assertThat(seatsTaken()).isEqualTo(1);
+    }
+
+    private String enrollmentStatus(UUID studentUuid) {
+        return jdbc.queryForObject(
+                "SELECT status FROM class_enrollments WHERE student_uuid = ? AND scheduled_instance_uuid = ?",
+                String.class, studentUuid, instanceUuid);
+    }
+
+    private int seatsTaken() {
+        return jdbc.queryForObject(
+                "SELECT seats_taken FROM scheduled_instance_seat_counters WHERE scheduled_instance_uuid = ?",
+                Integer.class, instanceUuid);
+    }
+}
@@ -0,0 +1,168 @@
+package apps.sarafrika.elimika.timetabling.internal;
+
+import apps.sarafrika.elimika.instructor.spi.InstructorLookupService;
+import apps.sarafrika.elimika.shared.event.notification.NotificationRequestedEvent;
+import apps.sarafrika.elimika.shared.spi.ClassDefinitionLookupService;
+import apps.sarafrika.elimika.student.spi.StudentLookupService;
+import apps.sarafrika.elimika.timetabling.model.Enrollment;
+import apps.sarafrika.elimika.timetabling.model.ScheduledInstance;
+import apps.sarafrika.elimika.timetabling.repository.EnrollmentRepository;
+import apps.sarafrika.elimika.timetabling.repository.ScheduledInstanceRepository;
+import apps.sarafrika.elimika.timetabling.spi.EnrollmentStatus;
+import apps.sarafrika.elimika.timetabling.spi.SchedulingStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UpcomingClassReminderSchedulerTest {
+
+    @Mock
+    private ScheduledInstanceRepository scheduledInstanceRepository;
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+    @Mock
+    private ClassDefinitionLookupService classDefinitionLookupService;
+    @Mock
+    private StudentLookupService studentLookupService;
+    @Mock
+    private InstructorLookupService instructorLookupService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private UpcomingClassReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new UpcomingClassReminderScheduler(
+                scheduledInstanceRepository, enrollmentRepository, classDefinitionLookupService,
+                studentLookupService, instructorLookupService, eventPublisher, 2);
+    }
+
+    @Test
+    void quietMinuteTouchesNothingButTheDueIndex() {
+        when(scheduledInstanceRepository.lockDueReminders(any(LocalDateTime.class), eq(2))).thenReturn(List.of());
+
+        scheduler.sendUpcomingClassReminders();
+
+        verify(scheduledInstanceRepository, never()).findByUuidIn(anyCollection());
+        verify(scheduledInstanceRepository, never()).markRemindersSent(anyCollection(), any());
+        verifyNoInteractions(enrollmentRepository, classDefinitionLookupService, studentLookupService,
+                instructorLookupService, eventPublisher);
+    }
+
+    @Test
+    void dueBatchResolvesRecipientsInBulkAndKeepsTheDedupeKeys() {
+        UUID classDefinitionUuid = UUID.randomUUID();
+        UUID instructorUuid = UUID.randomUUID();
+        UUID instructorUserUuid = UUID.randomUUID();
+        ScheduledInstance first = instance(classDefinitionUuid, instructorUuid);
+        ScheduledInstance second = instance(classDefinitionUuid, instructorUuid);
+        Enrollment enrollment = enrollment(first.getUuid());
+        UUID studentUserUuid = UUID.randomUUID();
+
+        when(scheduledInstanceRepository.lockDueReminders(any(LocalDateTime.class), eq(2)))
+                .thenReturn(rows(first.getUuid(), second.getUuid()))
+                .thenReturn(List.of());
+        when(scheduledInstanceRepository.findByUuidIn(List.of(first.getUuid(), second.getUuid())))
+                .thenReturn(List.of(first, second));
+        when(classDefinitionLookupService.findByUuid(classDefinitionUuid)).thenReturn(Optional.of(snapshot(classDefinitionUuid)));
+        when(enrollmentRepository.findByScheduledInstanceUuidInAndStatus(anyCollection(), eq(EnrollmentStatus.ENROLLED)))
+                .thenReturn(List.of(enrollment));
+        when(instructorLookupService.getInstructorUserUuids(anyCollection()))
+                .thenReturn(Map.of(instructorUuid, instructorUserUuid));
+        when(studentLookupService.getStudentUserUuids(anyCollection()))
+                .thenReturn(Map.of(enrollment.getStudentUuid(), studentUserUuid));
+
+        scheduler.sendUpcomingClassReminders();
+
+        ArgumentCaptor<NotificationRequestedEvent> events = ArgumentCaptor.forClass(NotificationRequestedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertThat(events.getAllValues())
+                .extracting(NotificationRequestedEvent::dedupeKey)
+                .containsExactly(
+                        "upcoming-class-reminder:instructor:" + first.getUuid() + ":15",
+                        "upcoming-class-reminder:student:" + first.getUuid() + ":" + enrollment.getStudentUuid() + ":15",
+                        "upcoming-class-reminder:instructor:" + second.getUuid() + ":15");
+        assertThat(events.getAllValues().get(1).recipientId()).isEqualTo(studentUserUuid);
+        verify(classDefinitionLookupService, times(1)).findByUuid(classDefinitionUuid);
+        verify(scheduledInstanceRepository).markRemindersSent(eq(List.of(first.getUuid(), second.getUuid())), any());
+        verify(scheduledInstanceRepository, times(2)).lockDueReminders(any(LocalDateTime.class), anyInt());
+    }
+
+    @Test
+    void shortBatchEndsTheRun() {
+        ScheduledInstance instance = instance(null, null);
+
+        when(scheduledInstanceRepository.lockDueReminders(any(LocalDateTime.class), eq(2)))
+                .thenReturn(rows(instance.getUuid()));
+        when(scheduledInstanceRepository.findByUuidIn(List.of(instance.getUuid()))).thenReturn(List.of(instance));
+        when(enrollmentRepository.findByScheduledInstanceUuidInAndStatus(anyCollection(), eq(EnrollmentStatus.ENROLLED)))
+                .thenReturn(List.of());
+        when(instructorLookupService.getInstructorUserUuids(anyCollection())).thenReturn(Map.of());
+        when(studentLookupService.getStudentUserUuids(anyCollection())).thenReturn(Map.of());
+
+        scheduler.sendUpcomingClassReminders();
+
+        verify(scheduledInstanceRepository, times(1)).lockDueReminders(any(LocalDateTime.class), anyInt());
+        verify(scheduledInstanceRepository).markRemindersSent(eq(List.of(instance.getUuid())), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static List<Object[]> rows(UUID... instanceUuids) {
+        List<Object[]> rows = new ArrayList<>();
+        for (UUID instanceUuid : instanceUuids) {
+            rows.add(new Object[]{instanceUuid, 15});
+        }
+        return rows;
+    }
+
+    private static ScheduledInstance instance(UUID classDefinitionUuid, UUID instructorUuid) {
+        ScheduledInstance instance = new ScheduledInstance();
+        instance.setUuid(UUID.randomUUID());
+        instance.setClassDefinitionUuid(classDefinitionUuid);
+        instance.setInstructorUuid(instructorUuid);
+        instance.setStartTime(LocalDateTime.of(2026, 10, 20, 9, 0));
+        instance.setEndTime(LocalDateTime.of(2026, 10, 20, 11, 0));
+        instance.setStatus(SchedulingStatus.SCHEDULED);
+        instance.setTitle("Intro to Pottery");
+        return instance;
+    }
+
+    private static Enrollment enrollment(UUID instanceUuid) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setUuid(UUID.randomUUID());
+        enrollment.setScheduledInstanceUuid(instanceUuid);
+        enrollment.setStudentUuid(UUID.randomUUID());
+        enrollment.setStatus(EnrollmentStatus.ENROLLED);
+        return enrollment;
+    }
+
+    private static ClassDefinitionLookupService.ClassDefinitionSnapshot snapshot(UUID classDefinitionUuid) {
+        return new ClassDefinitionLookupService.ClassDefinitionSnapshot(
+                classDefinitionUuid, null, null, "Intro to Pottery", null, null, null,
+                null, null, null, null, null, 15);
+    }
+}
@@ -9,13 +9,16 @@ import apps.sarafrika.elimika.shared.service.AgeVerificationService;
 import apps.sarafrika.elimika.shared.spi.ClassDefinitionLookupService;
 import apps.sarafrika.elimika.shared.utils.GenericSpecificationBuilder;
 import apps.sarafrika.elimika.student.spi.StudentLookupService;
+import apps.sarafrika.elimika.shared.event.hold.HoldPlacedEvent;
 import apps.sarafrika.elimika.shared.event.timetabling.ClassSessionCompletedEvent;
+import apps.sarafrika.elimika.timetabling.internal.SeatHoldExpiryHandler;
 import apps.sarafrika.elimika.timetabling.internal.SchedulingEventListener.ScheduledInstanceCompletedEvent;
 import apps.sarafrika.elimika.timetabling.internal.SchedulingEventListener.ScheduledInstanceStartedEvent;
 import apps.sarafrika.elimika.timetabling.model.Enrollment;
 import apps.sarafrika.elimika.timetabling.model.ScheduledInstance;
 import apps.sarafrika.elimika.timetabling.repository.EnrollmentRepository;
 import apps.sarafrika.elimika.timetabling.repository.ScheduledInstanceRepository;
+import apps.sarafrika.elimika.timetabling.spi.ConflictDetectorImpl;
 import apps.sarafrika.elimika.timetabling.spi.EnrollmentDTO;
 import apps.sarafrika.elimika.timetabling.spi.EnrollmentStatus;
 import apps.sarafrika.elimika.timetabling.spi.ScheduledInstanceDTO;
@@ -45,6 +48,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -99,6 +103,9 @@ class TimetableServiceImplTest {
     @Mock
     private apps.sarafrika.elimika.resourcing.spi.ResourceBookingService resourceBookingService;
 
+    @Mock
+    private SeatAllocator seatAllocator;
+
     private TimetableServiceImpl timetableService;
 
     @BeforeEach
@@ -114,11 +121,12 @@ class TimetableServiceImplTest {
                 learnerProgressLookupService,
                 ageVerificationService,
                 commercePaywallService,
-                availabilityService,
                 studentLookupService,
                 userLookupService,
                 instructorLookupService,
-                resourceBookingService
+                resourceBookingService,
+                seatAllocator,
+                new ConflictDetectorImpl(scheduledInstanceRepository, availabilityService)
         );
     }
 
@@ -183,7 +191,7 @@ class TimetableServiceImplTest {
         LocalDateTime newEnd = LocalDateTime.of(2026, 6, 12, 11, 0);
 
         when(scheduledInstanceRepository.findByUuid(instanceUuid)).thenReturn(Optional.of(instance));
-        when(availabilityService.isInstructorAvailable(instructorUuid, newStart, newEnd)).thenReturn(true);
+        when(availabilityService.checkInstructorAvailability(eq(instructorUuid), anyList())).thenReturn(List.of(true));
         when(scheduledInstanceRepository.findOverlappingInstancesForInstructor(instructorUuid, newStart, newEnd))
                 .thenReturn(List.of(instance));
         when(scheduledInstanceRepository.save(any(ScheduledInstance.class)))
@@ -212,7 +220,7 @@ class TimetableServiceImplTest {
         LocalDateTime newEnd = LocalDateTime.of(2026, 6, 12, 11, 0);
 
         when(scheduledInstanceRepository.findByUuid(instanceUuid)).thenReturn(Optional.of(instance));
-        when(availabilityService.isInstructorAvailable(instructorUuid, newStart, newEnd)).thenReturn(true);
+        when(availabilityService.checkInstructorAvailability(eq(instructorUuid), anyList())).thenReturn(List.of(true));
         when(scheduledInstanceRepository.findOverlappingInstancesForInstructor(instructorUuid, newStart, newEnd))
                 .thenReturn(List.of());
         when(scheduledInstanceRepository.save(any(ScheduledInstance.class)))
@@ -237,7 +245,7 @@ class TimetableServiceImplTest {
         LocalDateTime newEnd = LocalDateTime.of(2026, 6, 12, 11, 0);
 
         when(scheduledInstanceRepository.findByUuid(instanceUuid)).thenReturn(Optional.of(instance));
-        when(availabilityService.isInstructorAvailable(instructorUuid, newStart, newEnd)).thenReturn(true);
+        when(availabilityService.checkInstructorAvailability(eq(instructorUuid), anyList())).thenReturn(List.of(true));
         when(scheduledInstanceRepository.findOverlappingInstancesForInstructor(instructorUuid, newStart, newEnd))
                 .thenReturn(List.of());
         org.mockito.Mockito.doThrow(new apps.sarafrika.elimika.resourcing.spi.ResourceBookingConflictException(
@@ -304,9 +312,11 @@ class TimetableServiceImplTest {
         ScheduledInstance overlapping = buildScheduledInstance(instructorUuid, SchedulingStatus.SCHEDULED);
         LocalDateTime newStart = LocalDateTime.of(2026, 6, 12, 9, 0);
         LocalDateTime newEnd = LocalDateTime.of(2026, 6, 12, 11, 0);
+        overlapping.setStartTime(newStart.plusHours(1));
+        overlapping.setEndTime(newEnd.plusHours(1));
 
         when(scheduledInstanceRepository.findByUuid(instanceUuid)).thenReturn(Optional.of(instance));
-        when(availabilityService.isInstructorAvailable(instructorUuid, newStart, newEnd)).thenReturn(true);
+        when(availabilityService.checkInstructorAvailability(eq(instructorUuid), anyList())).thenReturn(List.of(true));
         when(scheduledInstanceRepository.findOverlappingInstancesForInstructor(instructorUuid, newStart, newEnd))
                 .thenReturn(List.of(instance, overlapping));
 
@@ -585,6 +595,160 @@ class TimetableServiceImplTest {
         verifyNoInteractions(commercePaywallService);
     }
 
+    @Test
+    void enrollStudentPromotesAHeldSeatWithoutClaimingAnother() {
+        UUID classDefinitionUuid = UUID.randomUUID();
+        UUID studentUuid = UUID.randomUUID();
+        ScheduledInstance instance = buildScheduledInstance(UUID.randomUUID(), SchedulingStatus.SCHEDULED);
+        instance.setClassDefinitionUuid(classDefinitionUuid);
+        Enrollment hold = buildEnrollment(EnrollmentStatus.RESERVED);
+        hold.setScheduledInstanceUuid(instance.getUuid());
+        hold.setStudentUuid(studentUuid);
+        hold.setReservedUntil(LocalDateTime.now().plusMinutes(15));
+
+        classHasNoCourse(classDefinitionUuid);
+        when(scheduledInstanceRepository.findByClassDefinitionUuid(classDefinitionUuid)).thenReturn(List.of(instance));
+        when(enrollmentRepository.findByStudentUuidAndScheduledInstanceUuidIn(eq(studentUuid), anyCollection()))
+                .thenReturn(List.of(hold));
+        when(scheduledInstanceRepository.findOverlappingInstancesForStudent(eq(studentUuid), any(), any()))
+                .thenReturn(List.of(instance));
+        when(enrollmentRepository.saveAll(anyCollection())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<EnrollmentDTO> result = timetableService.enrollStudent(
+                new apps.sarafrika.elimika.timetabling.spi.EnrollmentRequestDTO(classDefinitionUuid, studentUuid));
+
+        assertThat(result).singleElement().satisfies(enrollment -> {
+            assertThat(enrollment.uuid()).isEqualTo(hold.getUuid());
+            assertThat(enrollment.status()).isEqualTo(EnrollmentStatus.ENROLLED);
+        });
+        assertThat(hold.getReservedUntil()).isNull();
+        verify(seatAllocator).claim(List.of());
+    }
+
+    @Test
+    void enrollStudentRefusesTheWholeClassWhenOneSessionIsFull() {
+        UUID classDefinitionUuid = UUID.randomUUID();
+        UUID studentUuid = UUID.randomUUID();
+        ScheduledInstance open = buildScheduledInstance(UUID.randomUUID(), SchedulingStatus.SCHEDULED);
+        ScheduledInstance full = buildScheduledInstance(UUID.randomUUID(), SchedulingStatus.SCHEDULED);
+
+        classHasNoCourse(classDefinitionUuid);
+        when(scheduledInstanceRepository.findByClassDefinitionUuid(classDefinitionUuid)).thenReturn(List.of(open, full));
+        when(enrollmentRepository.findByStudentUuidAndScheduledInstanceUuidIn(eq(studentUuid), anyCollection()))
+                .thenReturn(List.of());
+        when(scheduledInstanceRepository.findOverlappingInstancesForStudent(eq(studentUuid), any(), any()))
+                .thenReturn(List.of());
+        when(seatAllocator.claim(List.of(open.getUuid(), full.getUuid()))).thenReturn(List.of(
+                new SeatAllocator.SeatAvailability(open.getUuid(), 25, 3),
+                new SeatAllocator.SeatAvailability(full.getUuid(), 25, 25)));
+
+        assertThatThrownBy(() -> timetableService.enrollStudent(
+                new apps.sarafrika.elimika.timetabling.spi.EnrollmentRequestDTO(classDefinitionUuid, studentUuid)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(full.getUuid().toString())
+                .hasMessageContaining("maximum capacity");
+
+        verify(enrollmentRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void enrollStudentReportsTheEarliestConflictingSession() {
+        UUID classDefinitionUuid = UUID.randomUUID();
+        UUID studentUuid = UUID.randomUUID();
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        ScheduledInstance later = buildScheduledInstance(UUID.randomUUID(), SchedulingStatus.SCHEDULED);
+        later.setStartTime(tomorrow.plusDays(1));
+        later.setEndTime(tomorrow.plusDays(1).plusHours(2));
+        ScheduledInstance earlier = buildScheduledInstance(UUID.randomUUID(), SchedulingStatus.SCHEDULED);
+        earlier.setStartTime(tomorrow);
+        earlier.setEndTime(tomorrow.plusHours(2));
+        ScheduledInstance clashesWithLater = buildScheduledInstance(UUID.randomUUID(), SchedulingStatus.SCHEDULED);
+        clashesWithLater.setStartTime(later.getStartTime().plusHours(1));
+        clashesWithLater.setEndTime(later.getEndTime().plusHours(1));
+        ScheduledInstance clashesWithEarlier = buildScheduledInstance(UUID.randomUUID(), SchedulingStatus.SCHEDULED);
+        clashesWithEarlier.setStartTime(earlier.getStartTime().minusHours(1));
+        clashesWithEarlier.setEndTime(earlier.getStartTime().plusMinutes(30));
+
+        classHasNoCourse(classDefinitionUuid);
+        when(scheduledInstanceRepository.findByClassDefinitionUuid(classDefinitionUuid)).thenReturn(List.of(later, earlier));
+        when(enrollmentRepository.findByStudentUuidAndScheduledInstanceUuidIn(eq(studentUuid), anyCollection()))
+                .thenReturn(List.of());
+        when(scheduledInstanceRepository.findOverlappingInstancesForStudent(eq(studentUuid), any(), any()))
+                .thenReturn(List.of(clashesWithLater, clashesWithEarlier));
+
+        assertThatThrownBy(() -> timetableService.enrollStudent(
+                new apps.sarafrika.elimika.timetabling.spi.EnrollmentRequestDTO(classDefinitionUuid, studentUuid)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("scheduling conflict with instance " + earlier.getUuid());
+
+        verifyNoInteractions(seatAllocator);
+    }
+
+    @Test
+    void reserveSeatsForClassWritesNothingWhenAnySessionIsFull() {
+        UUID classDefinitionUuid = UUID.randomUUID();
+        UUID studentUuid = UUID.randomUUID();
+        ScheduledInstance first = buildScheduledInstance(UUID.randomUUID(), SchedulingStatus.SCHEDULED);
+        ScheduledInstance second = buildScheduledInstance(UUID.randomUUID(), SchedulingStatus.SCHEDULED);
+        Enrollment lapsedHold = buildEnrollment(EnrollmentStatus.CANCELLED);
+        lapsedHold.setScheduledInstanceUuid(second.getUuid());
+        lapsedHold.setStudentUuid(studentUuid);
+
+        when(scheduledInstanceRepository.findByClassDefinitionUuid(classDefinitionUuid)).thenReturn(List.of(first, second));
+        when(enrollmentRepository.findByStudentUuidAndScheduledInstanceUuidIn(eq(studentUuid), anyCollection()))
+                .thenReturn(List.of(lapsedHold));
+        // Reviving the lapsed hold needs a seat too, so both sessions are claimed together.
+        when(seatAllocator.claim(List.of(first.getUuid(), second.getUuid()))).thenReturn(List.of(
+                new SeatAllocator.SeatAvailability(first.getUuid(), 25, 10),
+                new SeatAllocator.SeatAvailability(second.getUuid(), 25, 25)));
+
+        boolean reserved = timetableService.reserveSeatsForClass(classDefinitionUuid, studentUuid,
+                LocalDateTime.now().plusMinutes(15));
+
+        assertThat(reserved).isFalse();
+        verify(enrollmentRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void reserveSeatsForClassRefreshesAnExistingHoldWithoutClaimingASeat() {
+        UUID classDefinitionUuid = UUID.randomUUID();
+        UUID studentUuid = UUID.randomUUID();
+        ScheduledInstance instance = buildScheduledInstance(UUID.randomUUID(), SchedulingStatus.SCHEDULED);
+        Enrollment hold = buildEnrollment(EnrollmentStatus.RESERVED);
+        hold.setScheduledInstanceUuid(instance.getUuid());
+        hold.setStudentUuid(studentUuid);
+        LocalDateTime reservedUntil = LocalDateTime.now().plusMinutes(15);
+
+        when(scheduledInstanceRepository.findByClassDefinitionUuid(classDefinitionUuid)).thenReturn(List.of(instance));
+        when(enrollmentRepository.findByStudentUuidAndScheduledInstanceUuidIn(eq(studentUuid), anyCollection()))
+                .thenReturn(List.of(hold));
+
+        boolean reserved = timetableService.reserveSeatsForClass(classDefinitionUuid, studentUuid, reservedUntil);
+
+        assertThat(reserved).isTrue();
+        assertThat(hold.getReservedUntil()).isEqualTo(reservedUntil);
+        verify(seatAllocator).claim(List.of());
+        verify(enrollmentRepository).saveAll(List.of(hold));
+        verify(applicationEventPublisher).publishEvent(new HoldPlacedEvent(SeatHoldExpiryHandler.HOLD_TYPE, reservedUntil));
+    }
+
+    @Test
+    void hasCapacityForClassDefinitionIsOneQuery() {
+        UUID classDefinitionUuid = UUID.randomUUID();
+        when(scheduledInstanceRepository.existsOpenSeatForClassDefinition(classDefinitionUuid)).thenReturn(true);
+
+        assertThat(timetableService.hasCapacityForClassDefinition(classDefinitionUuid)).isTrue();
+        verify(scheduledInstanceRepository, never()).findByClassDefinitionUuid(classDefinitionUuid);
+        verifyNoInteractions(seatAllocator);
+    }
+
+    private void classHasNoCourse(UUID classDefinitionUuid) {
+        when(classDefinitionLookupService.findByUuid(classDefinitionUuid))
+                .thenReturn(Optional.of(new ClassDefinitionLookupService.ClassDefinitionSnapshot(
+                        classDefinitionUuid, null, null, "Sample Class", null, null, null,
+                        apps.sarafrika.elimika.shared.utils.enums.RateBasis.PER_HOUR, null, null, 20, true, null)));
+    }
+
     @Test
     void scheduleClassDenormalizesClassDetailsFromSnapshot() {
         UUID classDefinitionUuid = UUID.randomUUID();
@@ -596,7 +760,7 @@ class TimetableServiceImplTest {
                 LocalDateTime.now().plusDays(1).plusHours(2),
                 "UTC");
 
-        when(availabilityService.isInstructorAvailable(eq(instructorUuid), any(), any())).thenReturn(true);
+        when(availabilityService.checkInstructorAvailability(eq(instructorUuid), anyList())).thenReturn(List.of(true));
         when(scheduledInstanceRepository.findOverlappingInstancesForInstructor(eq(instructorUuid), any(), any()))
                 .thenReturn(List.of());
         when(classDefinitionLookupService.findByUuid(classDefinitionUuid))
@@ -635,7 +799,7 @@ class TimetableServiceImplTest {
                 LocalDateTime.now().plusDays(1).plusHours(2),
                 "UTC");
 
-        when(availabilityService.isInstructorAvailable(eq(instructorUuid), any(), any())).thenReturn(true);
+        when(availabilityService.checkInstructorAvailability(eq(instructorUuid), anyList())).thenReturn(List.of(true));
         when(scheduledInstanceRepository.findOverlappingInstancesForInstructor(eq(instructorUuid), any(), any()))
                 .thenReturn(List.of());
         when(classDefinitionLookupService.findByUuid(classDefinitionUuid)).thenReturn(Optional.empty());
@@ -649,6 +813,54 @@ class TimetableServiceImplTest {
         assertThat(result.maxParticipants()).isEqualTo(25);
     }
 
+    @Test
+    void scheduleClassesChecksTheInstructorCalendarOnceForTheWholeBatch() {
+        UUID classDefinitionUuid = UUID.randomUUID();
+        UUID instructorUuid = UUID.randomUUID();
+        LocalDateTime firstStart = LocalDateTime.of(2026, 9, 7, 9, 0);
+        List<apps.sarafrika.elimika.timetabling.spi.ScheduleRequestDTO> requests = java.util.stream.IntStream.range(0, 12)
+                .mapToObj(week -> new apps.sarafrika.elimika.timetabling.spi.ScheduleRequestDTO(
+                        classDefinitionUuid,
+                        instructorUuid,
+                        firstStart.plusWeeks(week),
+                        firstStart.plusWeeks(week).plusHours(2),
+                        "UTC"))
+                .toList();
+
+        when(availabilityService.checkInstructorAvailability(eq(instructorUuid), anyList()))
+                .thenAnswer(invocation -> java.util.Collections.nCopies(((List<?>) invocation.getArgument(1)).size(), true));
+        when(scheduledInstanceRepository.findOverlappingInstancesForInstructor(
+                instructorUuid, firstStart, firstStart.plusWeeks(11).plusHours(2)))
+                .thenReturn(List.of());
+        when(classDefinitionLookupService.findByUuid(classDefinitionUuid)).thenReturn(Optional.empty());
+        when(scheduledInstanceRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ScheduledInstanceDTO> result = timetableService.scheduleClasses(requests);
+
+        assertThat(result).hasSize(12);
+        assertThat(result.getFirst().startTime()).isEqualTo(firstStart);
+        verify(scheduledInstanceRepository).findOverlappingInstancesForInstructor(any(), any(), any());
+        verify(classDefinitionLookupService).findByUuid(classDefinitionUuid);
+        verify(applicationEventPublisher, org.mockito.Mockito.times(12)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void scheduleClassesRefusesRequestsThatOverlapEachOther() {
+        UUID classDefinitionUuid = UUID.randomUUID();
+        UUID instructorUuid = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.of(2026, 9, 7, 9, 0);
+        var morning = new apps.sarafrika.elimika.timetabling.spi.ScheduleRequestDTO(
+                classDefinitionUuid, instructorUuid, start, start.plusHours(2), "UTC");
+        var overlapping = new apps.sarafrika.elimika.timetabling.spi.ScheduleRequestDTO(
+                classDefinitionUuid, instructorUuid, start.plusHours(1), start.plusHours(3), "UTC");
+
+        assertThatThrownBy(() -> timetableService.scheduleClasses(List.of(morning, overlapping)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("overlap each other");
+
+        verify(scheduledInstanceRepository, never()).saveAll(anyList());
+    }
+
     private ScheduledInstance buildScheduledInstance(UUID instructorUuid, SchedulingStatus status) {
         ScheduledInstance instance = new ScheduledInstance();
         instance.setUuid(UUID.randomUUID());
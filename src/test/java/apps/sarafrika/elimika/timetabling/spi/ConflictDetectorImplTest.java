@@ -0,0 +1,145 @@
+package apps.sarafrika.elimika.timetabling.spi;
+
+import apps.sarafrika.elimika.availability.spi.AvailabilityService;
+import apps.sarafrika.elimika.shared.utils.recurrence.OccurrenceWindow;
+import apps.sarafrika.elimika.timetabling.model.ScheduledInstance;
+import apps.sarafrika.elimika.timetabling.repository.ScheduledInstanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConflictDetectorImplTest {
+
+    private static final LocalDateTime TERM_START = LocalDateTime.of(2026, 9, 7, 9, 0);
+
+    @Mock
+    private ScheduledInstanceRepository scheduledInstanceRepository;
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    private ConflictDetectorImpl detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new ConflictDetectorImpl(scheduledInstanceRepository, availabilityService);
+    }
+
+    @Test
+    void findInstructorConflictsLoadsTheCalendarOnceForASemester() {
+        UUID instructorUuid = UUID.randomUUID();
+        List<OccurrenceWindow> weekly = IntStream.range(0, 15)
+                .mapToObj(week -> window(TERM_START.plusWeeks(week), 2))
+                .toList();
+        ScheduledInstance weekFour = instance(TERM_START.plusWeeks(3).plusHours(1), 2);
+        List<Boolean> available = new ArrayList<>(java.util.Collections.nCopies(15, true));
+        available.set(9, false);
+
+        when(scheduledInstanceRepository.findOverlappingInstancesForInstructor(
+                instructorUuid, TERM_START, TERM_START.plusWeeks(14).plusHours(2)))
+                .thenReturn(List.of(weekFour));
+        when(availabilityService.checkInstructorAvailability(instructorUuid, weekly)).thenReturn(available);
+
+        List<OccurrenceConflict> result = detector.findInstructorConflicts(instructorUuid, weekly);
+
+        assertThat(result).hasSize(15);
+        assertThat(result.get(3).overlappingInstanceUuids()).containsExactly(weekFour.getUuid());
+        assertThat(result.get(9).declaredUnavailable()).isTrue();
+        assertThat(result.stream().filter(OccurrenceConflict::hasConflict)).hasSize(2);
+        verify(scheduledInstanceRepository).findOverlappingInstancesForInstructor(any(), any(), any());
+        verify(availabilityService).checkInstructorAvailability(eq(instructorUuid), anyList());
+    }
+
+    @Test
+    void findInstructorConflictsTreatsBackToBackSessionsAsFree() {
+        UUID instructorUuid = UUID.randomUUID();
+        OccurrenceWindow window = window(TERM_START, 2);
+        ScheduledInstance before = instance(TERM_START.minusHours(1), 1);
+        ScheduledInstance after = instance(TERM_START.plusHours(2), 1);
+
+        when(scheduledInstanceRepository.findOverlappingInstancesForInstructor(any(), any(), any()))
+                .thenReturn(List.of(before, after));
+        when(availabilityService.checkInstructorAvailability(instructorUuid, List.of(window))).thenReturn(List.of(true));
+
+        assertThat(detector.findInstructorConflicts(instructorUuid, List.of(window)))
+                .singleElement()
+                .satisfies(conflict -> assertThat(conflict.hasConflict()).isFalse());
+    }
+
+    @Test
+    void findInstructorConflictsIgnoresTheExcludedInstance() {
+        UUID instructorUuid = UUID.randomUUID();
+        OccurrenceWindow window = window(TERM_START, 2);
+        ScheduledInstance moving = instance(TERM_START, 2);
+
+        when(scheduledInstanceRepository.findOverlappingInstancesForInstructor(any(), any(), any()))
+                .thenReturn(List.of(moving));
+        when(availabilityService.checkInstructorAvailability(instructorUuid, List.of(window))).thenReturn(List.of(true));
+
+        assertThat(detector.findInstructorConflicts(instructorUuid, List.of(window), moving.getUuid()))
+                .singleElement()
+                .satisfies(conflict -> assertThat(conflict.overlapsSchedule()).isFalse());
+    }
+
+    @Test
+    void findStudentConflictsAnswersInTheOrderTheWindowsWereGiven() {
+        UUID studentUuid = UUID.randomUUID();
+        OccurrenceWindow late = window(TERM_START.plusDays(2), 2);
+        OccurrenceWindow longEarly = window(TERM_START, 30);
+        OccurrenceWindow shortEarly = window(TERM_START.plusHours(1), 1);
+        ScheduledInstance duringLongWindowOnly = instance(TERM_START.plusHours(20), 2);
+        ScheduledInstance duringLateWindow = instance(TERM_START.plusDays(2).plusHours(1), 2);
+
+        when(scheduledInstanceRepository.findOverlappingInstancesForStudent(studentUuid, TERM_START, TERM_START.plusDays(2).plusHours(2)))
+                .thenReturn(List.of(duringLateWindow, duringLongWindowOnly));
+
+        List<OccurrenceConflict> result = detector.findStudentConflicts(studentUuid, List.of(late, longEarly, shortEarly));
+
+        assertThat(result).extracting(OccurrenceConflict::window).containsExactly(late, longEarly, shortEarly);
+        assertThat(result.get(0).overlappingInstanceUuids()).containsExactly(duringLateWindow.getUuid());
+        assertThat(result.get(1).overlappingInstanceUuids()).containsExactly(duringLongWindowOnly.getUuid());
+        assertThat(result.get(2).hasConflict()).isFalse();
+        verifyNoInteractions(availabilityService);
+    }
+
+    @Test
+    void findStudentConflictsRejectsInvertedWindows() {
+        OccurrenceWindow inverted = new OccurrenceWindow(TERM_START, TERM_START.minusHours(1));
+
+        assertThatThrownBy(() -> detector.findStudentConflicts(UUID.randomUUID(), List.of(inverted)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(scheduledInstanceRepository);
+    }
+
+    private static OccurrenceWindow window(LocalDateTime start, int hours) {
+        return new OccurrenceWindow(start, start.plusHours(hours));
+    }
+
+    private static ScheduledInstance instance(LocalDateTime start, int hours) {
+        ScheduledInstance instance = new ScheduledInstance();
+        instance.setUuid(UUID.randomUUID());
+        instance.setStartTime(start);
+        instance.setEndTime(start.plusHours(hours));
+        instance.setStatus(SchedulingStatus.SCHEDULED);
+        return instance;
+    }
+}
@@ -12,9 +12,12 @@ import apps.sarafrika.elimika.shared.currency.service.CurrencyService;
 import apps.sarafrika.elimika.wallet.entity.UserWallet;
 import apps.sarafrika.elimika.wallet.enums.LedgerPurse;
 import apps.sarafrika.elimika.wallet.ledger.LedgerAccountRef;
+import apps.sarafrika.elimika.wallet.ledger.LedgerPostingLeg;
+import apps.sarafrika.elimika.wallet.ledger.LedgerPostingRequest;
 import apps.sarafrika.elimika.wallet.ledger.LedgerService;
 import apps.sarafrika.elimika.wallet.ledger.WalletLedgerReconciliationJob;
 import apps.sarafrika.elimika.wallet.ledger.WalletLedgerReconciliationReport;
+import apps.sarafrika.elimika.wallet.ledger.WalletLedgerReconciliationStore;
 import apps.sarafrika.elimika.wallet.ledger.impl.LedgerServiceImpl;
 import apps.sarafrika.elimika.wallet.service.impl.WalletServiceImpl;
 import java.io.IOException;
@@ -23,10 +26,19 @@ import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import javax.sql.DataSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -42,6 +54,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.FileCopyUtils;
@@ -68,7 +81,8 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @Testcontainers
-@Import({WalletServiceImpl.class, LedgerServiceImpl.class, WalletLedgerReconciliationJob.class, JpaConfig.class})
+@Import({WalletServiceImpl.class, LedgerServiceImpl.class, WalletLedgerReconciliationJob.class,
+        WalletLedgerReconciliationStore.class, JpaConfig.class})
 @Transactional(propagation = Propagation.NOT_SUPPORTED)
 @DisplayName("Wallet ledger")
 class WalletLedgerIntegrationTest {
@@ -86,6 +100,8 @@ class WalletLedgerIntegrationTest {
         // Small enough that the reconciliation sweep has to page rather than read everything once.
         registry.add("wallet.ledger.reconciliation.batch-size", () -> "2");
         registry.add("wallet.ledger.reconciliation.max-batches-per-run", () -> "50");
+        // Nothing here races an uncommitted posting, so watermarks may move as soon as entries exist.
+        registry.add("wallet.ledger.reconciliation.settle-after", () -> "PT0S");
     }
 
     @Autowired
@@ -114,6 +130,9 @@ class WalletLedgerIntegrationTest {
         jdbc.update("delete from ledger_transactions");
         jdbc.execute("alter table ledger_entries enable trigger user");
         jdbc.execute("alter table ledger_transactions enable trigger user");
+        jdbc.update("delete from ledger_account_balance_shards");
+        jdbc.update("delete from ledger_account_reconciliation_watermarks");
+        jdbc.update("delete from ledger_reconciliation_cursors");
         jdbc.update("delete from ledger_account_balances");
         jdbc.update("delete from ledger_accounts where owner_type <> 'PLATFORM'");
         jdbc.update("delete from user_wallet_transactions");
@@ -304,6 +323,222 @@ class WalletLedgerIntegrationTest {
         assertThat(report.divergences().getFirst().difference()).isEqualByComparingTo("250.00");
     }
 
+    @Test
+    @DisplayName("reconciliation sums only the entries after each account's watermark")
+    void reconciliationAdvancesWatermarksAndStaysExact() {
+        UUID earner = user("Halima");
+        walletService.creditSale(earner, new BigDecimal("500.00"), KES, "order-5:line-1", "Sale");
+        walletService.creditSale(earner, new BigDecimal("200.00"), KES, "order-5:line-2", "Sale");
+        UUID account = earningsAccount(earner);
+        Long lastEntryId = jdbc.queryForObject(
+                "select max(id) from ledger_entries where account_uuid = ?", Long.class, account);
+
+        assertThat(reconciliationJob.runOnce().isClean()).isTrue();
+        assertThat(jdbc.queryForObject(
+                "select verified_entry_id from ledger_account_reconciliation_watermarks where account_uuid = ?",
+                Long.class, account)).isEqualTo(lastEntryId);
+        assertThat(jdbc.queryForObject(
+                "select verified_balance from ledger_account_reconciliation_watermarks where account_uuid = ?",
+                BigDecimal.class, account)).isEqualByComparingTo("700.00");
+
+        // New activity is added on top of the watermark rather than summed from the start again.
+        walletService.creditSale(earner, new BigDecimal("50.00"), KES, "order-5:line-3", "Sale");
+        assertThat(reconciliationJob.runOnce().isClean()).isTrue();
+        assertThat(jdbc.queryForObject(
+                "select verified_balance from ledger_account_reconciliation_watermarks where account_uuid = ?",
+                BigDecimal.class, account)).isEqualByComparingTo("750.00");
+
+        // And a wallet edited behind the ledger's back is still caught with no new entries to hint at it.
+        jdbc.update("update user_wallets set balance_amount = balance_amount - 50 where user_uuid = ?", earner);
+        WalletLedgerReconciliationReport report = reconciliationJob.runOnce();
+        assertThat(report.divergences()).hasSize(1);
+        assertThat(report.divergences().getFirst().ledgerBalance()).isEqualByComparingTo("750.00");
+    }
+
+    @Test
+    @DisplayName("the watermark waits while an entry below a settled one is still unsettled")
+    void watermarkDoesNotStepOverAnUnsettledLowerEntry() {
+        UUID earner = user("Jabali");
+        walletService.creditSale(earner, new BigDecimal("300.00"), KES, "order-6:line-1", "Sale");
+        walletService.creditSale(earner, new BigDecimal("40.00"), KES, "order-6:line-2", "Sale");
+        UUID account = earningsAccount(earner);
+        List<Long> entryIds = jdbc.queryForList(
+                "select id from ledger_entries where account_uuid = ? order by id", Long.class, account);
+        assertThat(entryIds).hasSize(2);
+
+        // The higher entry settled long ago; the lower one is recent, as if its transaction had only
+        // just committed, so nothing at or above it may be stepped over yet.
+        jdbc.execute("alter table ledger_entries disable trigger user");
+        jdbc.update("update ledger_entries set created_date = now() - interval '2 hours' where id = ?",
+                entryIds.getLast());
+        jdbc.execute("alter table ledger_entries enable trigger user");
+
+        ReflectionTestUtils.setField(reconciliationJob, "settleAfter", Duration.ofHours(1));
+        try {
+            assertThat(reconciliationJob.runOnce().isClean()).isTrue();
+            assertThat(jdbc.queryForObject(
+                    "select count(*) from ledger_account_reconciliation_watermarks where account_uuid = ?",
+                    Long.class, account)).isZero();
+        } finally {
+            ReflectionTestUtils.setField(reconciliationJob, "settleAfter", Duration.ZERO);
+        }
+
+        // Once everything has settled the watermark covers both entries and the wallet stays clean.
+        assertThat(reconciliationJob.runOnce().isClean()).isTrue();
+        assertThat(jdbc.queryForObject(
+                "select verified_entry_id from ledger_account_reconciliation_watermarks where account_uuid = ?",
+                Long.class, account)).isEqualTo(entryIds.getLast());
+        assertThat(jdbc.queryForObject(
+                "select verified_balance from ledger_account_reconciliation_watermarks where account_uuid = ?",
+                BigDecimal.class, account)).isEqualByComparingTo("340.00");
+        assertThat(reconciliationJob.runOnce().isClean()).isTrue();
+    }
+
+    @Test
+    @DisplayName("an entry written after a higher one has settled still gets a higher id")
+    void entryWrittenAfterASettledOneIsNotSteppedOver() throws SQLException {
+        UUID earner = user("Kifaru");
+        walletService.creditSale(earner, new BigDecimal("300.00"), KES, "order-7:line-1", "Sale");
+        UUID account = earningsAccount(earner);
+
+        // Another node writes to the same account through the column default, netting to nothing, and
+        // its entries settle; the watermark moves onto them.
+        post("other-node-7", List.of(
+                new Leg(account, "DEBIT", "10.0000"),
+                new Leg(account, "CREDIT", "10.0000")));
+        assertThat(reconciliationJob.runOnce().isClean()).isTrue();
+        Long settled = jdbc.queryForObject(
+                "select verified_entry_id from ledger_account_reconciliation_watermarks where account_uuid = ?",
+                Long.class, account);
+        assertThat(settled).isEqualTo(jdbc.queryForObject(
+                "select max(id) from ledger_entries where account_uuid = ?", Long.class, account));
+
+        // Had this node kept a block of ids from its first posting, this entry would land below the
+        // watermark and never be counted.
+        walletService.creditSale(earner, new BigDecimal("40.00"), KES, "order-7:line-2", "Sale");
+        assertThat(jdbc.queryForObject(
+                "select max(id) from ledger_entries where account_uuid = ?", Long.class, account))
+                .isGreaterThan(settled);
+        assertThat(jdbc.queryForObject(
+                "select increment_by from pg_sequences where sequencename = 'ledger_entries_id_seq'", Long.class))
+                .isEqualTo(1L);
+
+        assertThat(reconciliationJob.runOnce().isClean()).isTrue();
+        assertThat(jdbc.queryForObject(
+                "select verified_balance from ledger_account_reconciliation_watermarks where account_uuid = ?",
+                BigDecimal.class, account)).isEqualByComparingTo("340.00");
+    }
+
+    @Test
+    @DisplayName("a truncated sweep resumes where it stopped and wraps round the table")
+    void truncatedSweepResumesAndWrapsAround() {
+        List<UUID> earners = IntStream.range(0, 5).mapToObj(i -> user("Wrap" + i)).toList();
+        for (int i = 0; i < earners.size(); i++) {
+            walletService.creditSale(earners.get(i), new BigDecimal("100.00"), KES, "order-w" + i, "Sale");
+        }
+        List<Long> walletIds = jdbc.queryForList("select id from user_wallets order by id", Long.class);
+        // The first wallet is broken so that only a lap that gets back to it can report it.
+        jdbc.update("update user_wallets set balance_amount = 1 where id = ?", walletIds.getFirst());
+
+        ReflectionTestUtils.setField(reconciliationJob, "maxBatchesPerRun", 1);
+        try {
+            WalletLedgerReconciliationReport first = reconciliationJob.runOnce();
+            assertThat(first.truncated()).isTrue();
+            assertThat(first.scanned()).isEqualTo(2);
+            assertThat(first.divergences()).hasSize(1);
+
+            WalletLedgerReconciliationReport second = reconciliationJob.runOnce();
+            assertThat(second.truncated()).isTrue();
+            assertThat(second.lastWalletId()).isEqualTo(walletIds.get(3));
+            assertThat(second.divergences()).isEmpty();
+
+            WalletLedgerReconciliationReport third = reconciliationJob.runOnce();
+            assertThat(third.lastWalletId()).isEqualTo(walletIds.getLast());
+            assertThat(third.divergences()).isEmpty();
+
+            // Having reached the end of the table, the next sweep carries on from the start.
+            WalletLedgerReconciliationReport fourth = reconciliationJob.runOnce();
+            assertThat(fourth.lastWalletId()).isEqualTo(walletIds.get(1));
+            assertThat(fourth.divergences()).hasSize(1);
+        } finally {
+            ReflectionTestUtils.setField(reconciliationJob, "maxBatchesPerRun", 50);
+        }
+
+        // Uncapped, a sweep starting mid-table covers every wallet exactly once.
+        WalletLedgerReconciliationReport full = reconciliationJob.runOnce();
+        assertThat(full.truncated()).isFalse();
+        assertThat(full.scanned()).isEqualTo(5);
+        assertThat(full.divergences()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("postings to hot platform accounts spread over shards without waiting on the account row")
+    void concurrentPostingsToHotAccountsSpreadOverShards() throws Exception {
+        UUID cash = ledgerService.getOrCreateAccountUuid(LedgerAccountRef.platformCashMpesa(KES));
+        UUID revenue = ledgerService.getOrCreateAccountUuid(LedgerAccountRef.platformUnallocatedRevenue(KES));
+        // One posting folded in gives both accounts their own balance row.
+        postConcurrently("seed", 1, 1);
+        assertThat(ledgerService.compactStripedBalances()).isEqualTo(2);
+
+        // Both balance rows stay locked while the postings run. A posting that wrote to either would
+        // wait on this transaction and time out; striped postings only ever write to shard rows.
+        try (Connection holder = dataSource.getConnection()) {
+            holder.setAutoCommit(false);
+            try (PreparedStatement lock = holder.prepareStatement(
+                    "select posted_amount from ledger_account_balances where account_uuid in (?, ?) for update")) {
+                lock.setObject(1, cash);
+                lock.setObject(2, revenue);
+                try (ResultSet locked = lock.executeQuery()) {
+                    int rows = 0;
+                    while (locked.next()) {
+                        rows++;
+                    }
+                    assertThat(rows).isEqualTo(2);
+                }
+            }
+            postConcurrently("parallel", 8, 400);
+            holder.rollback();
+        }
+
+        assertThat(jdbc.queryForObject("select count(*) from ledger_account_balance_shards where account_uuid = ?",
+                Long.class, cash)).isGreaterThan(1L);
+        // Every posting debits cash and credits revenue by 10, and none of them was lost to a shard.
+        BigDecimal expected = new BigDecimal("4010.00");
+        assertThat(ledgerService.derivedBalance(cash)).isEqualByComparingTo(expected);
+        assertThat(ledgerService.cachedBalance(cash)).isEqualByComparingTo(expected);
+        assertThat(ledgerService.cachedBalance(revenue)).isEqualByComparingTo(ledgerService.derivedBalance(revenue));
+
+        assertThat(ledgerService.compactStripedBalances()).isEqualTo(2);
+
+        assertThat(jdbc.queryForObject("select count(*) from ledger_account_balance_shards", Long.class)).isZero();
+        assertThat(ledgerService.cachedBalance(cash)).isEqualByComparingTo(expected);
+        assertThat(ledgerService.cachedBalance(revenue)).isEqualByComparingTo(ledgerService.derivedBalance(revenue));
+    }
+
+    /**
+     * Posts {@code count} cash-for-revenue transactions of 10 from {@code threads} threads, failing if
+     * they have not all been posted within a minute. Throughput is measured by
+     * {@code HotAccountBalanceBenchmark} under src/jmh, not here.
+     */
+    private void postConcurrently(String run, int threads, int count) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Optional<UUID>>> postings = IntStream.range(0, count)
+                    .mapToObj(i -> (Callable<Optional<UUID>>) () -> ledgerService.post(new LedgerPostingRequest(
+                            run + ":" + i, null, "Load", "TEST", null,
+                            List.of(LedgerPostingLeg.debit(LedgerAccountRef.platformCashMpesa(KES), BigDecimal.TEN),
+                                    LedgerPostingLeg.credit(LedgerAccountRef.platformUnallocatedRevenue(KES),
+                                            BigDecimal.TEN)))))
+                    .toList();
+            for (Future<Optional<UUID>> posted : executor.invokeAll(postings, 1, TimeUnit.MINUTES)) {
+                assertThat(posted.isCancelled()).as("posting still waiting after a minute").isFalse();
+                assertThat(posted.get()).isPresent();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     @DisplayName("the opening-balance backfill is idempotent")
     void backfillIsIdempotent() {